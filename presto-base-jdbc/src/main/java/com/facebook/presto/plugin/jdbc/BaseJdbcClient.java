@@ -19,9 +19,12 @@ import com.facebook.presto.spi.ConnectorPartition;
 import com.facebook.presto.spi.ConnectorPartitionResult;
 import com.facebook.presto.spi.ConnectorSplitSource;
 import com.facebook.presto.spi.ConnectorTableMetadata;
+import com.facebook.presto.spi.Domain;
 import com.facebook.presto.spi.FixedSplitSource;
 import com.facebook.presto.spi.PrestoException;
+import com.facebook.presto.spi.Range;
 import com.facebook.presto.spi.SchemaTableName;
+import com.facebook.presto.spi.SortedRangeSet;
 import com.facebook.presto.spi.TableNotFoundException;
 import com.facebook.presto.spi.TupleDomain;
 import com.facebook.presto.spi.type.Type;
@@ -35,6 +38,7 @@ import io.airlift.slice.Slice;
 
 import javax.annotation.Nullable;
 
+import java.math.BigInteger;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.Driver;
@@ -46,6 +50,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Properties;
 import java.util.Set;
 import java.util.UUID;
@@ -93,6 +98,11 @@ public class BaseJdbcClient
     protected final String connectionUrl;
     protected final Properties connectionProperties;
     protected final String identifierQuote;
+    protected final int splitCount;
+    @Nullable
+    protected final String splitColumn;
+    @Nullable
+    protected final Integer fetchSize;
 
     public BaseJdbcClient(JdbcConnectorId connectorId, BaseJdbcConfig config, String identifierQuote, Driver driver)
     {
@@ -102,6 +112,9 @@ public class BaseJdbcClient
 
         requireNonNull(config, "config is null");
         connectionUrl = config.getConnectionUrl();
+        splitCount = config.getSplitCount();
+        splitColumn = config.getSplitColumn();
+        fetchSize = config.getFetchSize();
 
         connectionProperties = new Properties();
         if (config.getConnectionUser() != null) {
@@ -223,8 +236,12 @@ public class BaseJdbcClient
     public ConnectorPartitionResult getPartitions(JdbcTableHandle jdbcTableHandle, TupleDomain<ColumnHandle> tupleDomain)
     {
         // currently we don't support partitions
+        TupleDomain<ColumnHandle> effectiveDomain = tupleDomain.intersect(jdbcTableHandle.getConstraint());
+        if (effectiveDomain.isNone()) {
+            return new ConnectorPartitionResult(ImmutableList.<ConnectorPartition>of(), tupleDomain);
+        }
         return new ConnectorPartitionResult(
-                ImmutableList.<ConnectorPartition>of(new JdbcPartition(jdbcTableHandle, tupleDomain)),
+                ImmutableList.<ConnectorPartition>of(new JdbcPartition(jdbcTableHandle, effectiveDomain)),
                 tupleDomain);
     }
 
@@ -232,15 +249,147 @@ public class BaseJdbcClient
     public ConnectorSplitSource getPartitionSplits(JdbcPartition jdbcPartition)
     {
         JdbcTableHandle jdbcTableHandle = jdbcPartition.getJdbcTableHandle();
-        JdbcSplit jdbcSplit = new JdbcSplit(
-                connectorId,
-                jdbcTableHandle.getCatalogName(),
-                jdbcTableHandle.getSchemaName(),
-                jdbcTableHandle.getTableName(),
-                connectionUrl,
-                fromProperties(connectionProperties),
-                jdbcPartition.getTupleDomain());
-        return new FixedSplitSource(connectorId, ImmutableList.of(jdbcSplit));
+        ImmutableList.Builder<JdbcSplit> splits = ImmutableList.builder();
+        for (TupleDomain<ColumnHandle> splitDomain : getSplitDomains(jdbcTableHandle, jdbcPartition.getTupleDomain())) {
+            splits.add(new JdbcSplit(
+                    connectorId,
+                    jdbcTableHandle.getCatalogName(),
+                    jdbcTableHandle.getSchemaName(),
+                    jdbcTableHandle.getTableName(),
+                    connectionUrl,
+                    fromProperties(connectionProperties),
+                    splitDomain,
+                    jdbcTableHandle.getGroupingColumns(),
+                    jdbcTableHandle.getSortOrder(),
+                    jdbcTableHandle.getLimit()));
+        }
+        return new FixedSplitSource(connectorId, splits.build());
+    }
+
+    /**
+     * Range partitions the rows of the partition on the split column into at most
+     * {@code split-count} splits. The bounds are learned from the minimum and maximum
+     * value of the column, but the first and last range are left open, so rows added
+     * in the meantime are still read. Rows with a null value are read by the first split.
+     */
+    private List<TupleDomain<ColumnHandle>> getSplitDomains(JdbcTableHandle tableHandle, TupleDomain<ColumnHandle> tupleDomain)
+    {
+        if (splitCount <= 1) {
+            return ImmutableList.of(tupleDomain);
+        }
+        Optional<JdbcColumnHandle> column = getSplitColumn(tableHandle);
+        if (!column.isPresent()) {
+            return ImmutableList.of(tupleDomain);
+        }
+
+        List<JdbcColumnHandle> bounds = ImmutableList.of(
+                new JdbcColumnHandle(connectorId, "min", BIGINT, Optional.of("min"), Optional.of(column.get().getColumnName())),
+                new JdbcColumnHandle(connectorId, "max", BIGINT, Optional.of("max"), Optional.of(column.get().getColumnName())));
+        String sql = new QueryBuilder(identifierQuote).buildSql(
+                tableHandle.getCatalogName(),
+                tableHandle.getSchemaName(),
+                tableHandle.getTableName(),
+                bounds,
+                tupleDomain);
+
+        long min;
+        long max;
+        try (Connection connection = driver.connect(connectionUrl, connectionProperties);
+                Statement statement = connection.createStatement()) {
+            log.debug("Execute: %s", sql);
+            try (ResultSet resultSet = statement.executeQuery(sql)) {
+                if (!resultSet.next()) {
+                    return ImmutableList.of(tupleDomain);
+                }
+                min = resultSet.getLong(1);
+                max = resultSet.getLong(2);
+                if (resultSet.wasNull()) {
+                    // the table is empty
+                    return ImmutableList.of(tupleDomain);
+                }
+            }
+        }
+        catch (SQLException e) {
+            throw Throwables.propagate(e);
+        }
+
+        List<Long> boundaries = getRangeBoundaries(min, max, splitCount);
+        if (boundaries.isEmpty()) {
+            return ImmutableList.of(tupleDomain);
+        }
+
+        ImmutableList.Builder<TupleDomain<ColumnHandle>> splitDomains = ImmutableList.builder();
+        for (int i = 0; i <= boundaries.size(); i++) {
+            Range range;
+            if (i == 0) {
+                range = Range.lessThan(boundaries.get(0));
+            }
+            else if (i == boundaries.size()) {
+                range = Range.greaterThanOrEqual(boundaries.get(i - 1));
+            }
+            else {
+                range = Range.range(boundaries.get(i - 1), true, boundaries.get(i), false);
+            }
+            Domain domain = Domain.create(SortedRangeSet.of(range), i == 0);
+            TupleDomain<ColumnHandle> splitDomain = tupleDomain.intersect(TupleDomain.withColumnDomains(ImmutableMap.<ColumnHandle, Domain>of(column.get(), domain)));
+            if (!splitDomain.isNone()) {
+                splitDomains.add(splitDomain);
+            }
+        }
+        return splitDomains.build();
+    }
+
+    /**
+     * Returns the lower bounds of all but the first of {@code count} equally sized
+     * ranges between {@code min} and {@code max}.
+     */
+    static List<Long> getRangeBoundaries(long min, long max, int count)
+    {
+        BigInteger low = BigInteger.valueOf(min);
+        BigInteger width = BigInteger.valueOf(max).subtract(low).add(BigInteger.ONE);
+        ImmutableList.Builder<Long> boundaries = ImmutableList.builder();
+        long previous = min;
+        for (int i = 1; i < count; i++) {
+            long boundary = low.add(width.multiply(BigInteger.valueOf(i)).divide(BigInteger.valueOf(count))).longValue();
+            if (boundary > previous) {
+                boundaries.add(boundary);
+                previous = boundary;
+            }
+        }
+        return boundaries.build();
+    }
+
+    /**
+     * Returns the bigint column to range partition the table on: the configured split
+     * column if the table has it, otherwise a single column bigint primary key.
+     */
+    protected Optional<JdbcColumnHandle> getSplitColumn(JdbcTableHandle tableHandle)
+    {
+        List<JdbcColumnHandle> columns = getColumns(tableHandle);
+        if (splitColumn != null) {
+            for (JdbcColumnHandle column : columns) {
+                if (column.getColumnName().equalsIgnoreCase(splitColumn) && column.getColumnType().equals(BIGINT)) {
+                    return Optional.of(column);
+                }
+            }
+        }
+
+        List<String> primaryKey = new ArrayList<>();
+        try (Connection connection = driver.connect(connectionUrl, connectionProperties);
+                ResultSet resultSet = connection.getMetaData().getPrimaryKeys(tableHandle.getCatalogName(), tableHandle.getSchemaName(), tableHandle.getTableName())) {
+            while (resultSet.next()) {
+                primaryKey.add(resultSet.getString("COLUMN_NAME"));
+            }
+        }
+        catch (SQLException e) {
+            throw Throwables.propagate(e);
+        }
+        if (primaryKey.size() != 1) {
+            return Optional.empty();
+        }
+        return columns.stream()
+                .filter(column -> column.getColumnName().equals(primaryKey.get(0)) && column.getColumnType().equals(BIGINT))
+                .findFirst();
     }
 
     @Override
@@ -266,7 +415,10 @@ public class BaseJdbcClient
                 split.getSchemaName(),
                 split.getTableName(),
                 columnHandles,
-                split.getTupleDomain());
+                split.getTupleDomain(),
+                split.getGroupingColumns(),
+                split.getSortOrder(),
+                split.getLimit());
     }
 
     @Override
@@ -385,7 +537,11 @@ public class BaseJdbcClient
     public Statement getStatement(Connection connection)
             throws SQLException
     {
-        return connection.createStatement();
+        Statement statement = connection.createStatement();
+        if (fetchSize != null) {
+            statement.setFetchSize(fetchSize);
+        }
+        return statement;
     }
 
     protected ResultSet getTables(Connection connection, String schemaName, String tableName)
@@ -14,7 +14,9 @@
 package com.facebook.presto.plugin.jdbc;
 
 import io.airlift.configuration.Config;
+import io.airlift.configuration.ConfigDescription;
 
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 
 public class BaseJdbcConfig
@@ -22,6 +24,9 @@ public class BaseJdbcConfig
     private String connectionUrl;
     private String connectionUser;
     private String connectionPassword;
+    private int splitCount = 1;
+    private String splitColumn;
+    private Integer fetchSize;
 
     @NotNull
     public String getConnectionUrl()
@@ -59,4 +64,45 @@ public class BaseJdbcConfig
         this.connectionPassword = connectionPassword;
         return this;
     }
+
+    @Min(1)
+    public int getSplitCount()
+    {
+        return splitCount;
+    }
+
+    @Config("split-count")
+    @ConfigDescription("Number of splits a table scan is range partitioned into")
+    public BaseJdbcConfig setSplitCount(int splitCount)
+    {
+        this.splitCount = splitCount;
+        return this;
+    }
+
+    public String getSplitColumn()
+    {
+        return splitColumn;
+    }
+
+    @Config("split-column")
+    @ConfigDescription("Bigint column that tables are range partitioned on, instead of their primary key")
+    public BaseJdbcConfig setSplitColumn(String splitColumn)
+    {
+        this.splitColumn = splitColumn;
+        return this;
+    }
+
+    @Min(1)
+    public Integer getFetchSize()
+    {
+        return fetchSize;
+    }
+
+    @Config("fetch-size")
+    @ConfigDescription("Number of rows fetched from the database at a time, if not the driver default")
+    public BaseJdbcConfig setFetchSize(Integer fetchSize)
+    {
+        this.fetchSize = fetchSize;
+        return this;
+    }
 }
@@ -20,8 +20,10 @@ import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.util.Objects;
+import java.util.Optional;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.Objects.requireNonNull;
 
 public final class JdbcColumnHandle
@@ -30,16 +32,32 @@ public final class JdbcColumnHandle
     private final String connectorId;
     private final String columnName;
     private final Type columnType;
+    private final Optional<String> aggregateFunction;
+    private final Optional<String> aggregateArgument;
 
+    public JdbcColumnHandle(String connectorId, String columnName, Type columnType)
+    {
+        this(connectorId, columnName, columnType, Optional.empty(), Optional.empty());
+    }
+
+    /**
+     * Creates a handle for an aggregate computed by the remote database. The
+     * argument is the name of the aggregated column, or absent for {@code count(*)}.
+     */
     @JsonCreator
     public JdbcColumnHandle(
             @JsonProperty("connectorId") String connectorId,
             @JsonProperty("columnName") String columnName,
-            @JsonProperty("columnType") Type columnType)
+            @JsonProperty("columnType") Type columnType,
+            @JsonProperty("aggregateFunction") Optional<String> aggregateFunction,
+            @JsonProperty("aggregateArgument") Optional<String> aggregateArgument)
     {
         this.connectorId = requireNonNull(connectorId, "connectorId is null");
         this.columnName = requireNonNull(columnName, "columnName is null");
         this.columnType = requireNonNull(columnType, "columnType is null");
+        this.aggregateFunction = requireNonNull(aggregateFunction, "aggregateFunction is null");
+        this.aggregateArgument = requireNonNull(aggregateArgument, "aggregateArgument is null");
+        checkArgument(aggregateFunction.isPresent() || !aggregateArgument.isPresent(), "aggregateArgument is present without aggregateFunction");
     }
 
     @JsonProperty
@@ -60,6 +78,23 @@ public final class JdbcColumnHandle
         return columnType;
     }
 
+    @JsonProperty
+    public Optional<String> getAggregateFunction()
+    {
+        return aggregateFunction;
+    }
+
+    @JsonProperty
+    public Optional<String> getAggregateArgument()
+    {
+        return aggregateArgument;
+    }
+
+    public boolean isAggregate()
+    {
+        return aggregateFunction.isPresent();
+    }
+
     public ColumnMetadata getColumnMetadata()
     {
         return new ColumnMetadata(columnName, columnType, false);
@@ -76,13 +111,15 @@ public final class JdbcColumnHandle
         }
         JdbcColumnHandle o = (JdbcColumnHandle) obj;
         return Objects.equals(this.connectorId, o.connectorId) &&
-                Objects.equals(this.columnName, o.columnName);
+                Objects.equals(this.columnName, o.columnName) &&
+                Objects.equals(this.aggregateFunction, o.aggregateFunction) &&
+                Objects.equals(this.aggregateArgument, o.aggregateArgument);
     }
 
     @Override
     public int hashCode()
     {
-        return Objects.hash(connectorId, columnName);
+        return Objects.hash(connectorId, columnName, aggregateFunction, aggregateArgument);
     }
 
     @Override
@@ -92,6 +129,9 @@ public final class JdbcColumnHandle
                 .add("connectorId", connectorId)
                 .add("columnName", columnName)
                 .add("columnType", columnType)
+                .add("aggregateFunction", aggregateFunction.orElse(null))
+                .add("aggregateArgument", aggregateArgument.orElse(null))
+                .omitNullValues()
                 .toString();
     }
 }
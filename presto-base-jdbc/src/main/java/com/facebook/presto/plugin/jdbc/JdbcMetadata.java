@@ -13,6 +13,8 @@
  */
 package com.facebook.presto.plugin.jdbc;
 
+import com.facebook.presto.spi.AggregateFunction;
+import com.facebook.presto.spi.AggregationApplicationResult;
 import com.facebook.presto.spi.ColumnHandle;
 import com.facebook.presto.spi.ColumnMetadata;
 import com.facebook.presto.spi.ConnectorMetadata;
@@ -23,7 +25,10 @@ import com.facebook.presto.spi.ConnectorTableMetadata;
 import com.facebook.presto.spi.PrestoException;
 import com.facebook.presto.spi.SchemaTableName;
 import com.facebook.presto.spi.SchemaTablePrefix;
+import com.facebook.presto.spi.SortingProperty;
 import com.facebook.presto.spi.TableNotFoundException;
+import com.facebook.presto.spi.TupleDomain;
+import com.facebook.presto.spi.type.Type;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import io.airlift.slice.Slice;
@@ -33,20 +38,27 @@ import javax.inject.Inject;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
 
+import static com.facebook.presto.plugin.jdbc.QueryBuilder.isSupportedType;
 import static com.facebook.presto.plugin.jdbc.Types.checkType;
 import static com.facebook.presto.spi.StandardErrorCode.PERMISSION_DENIED;
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.spi.type.DoubleType.DOUBLE;
 import static java.util.Objects.requireNonNull;
 
 public class JdbcMetadata
         implements ConnectorMetadata
 {
+    private final String connectorId;
     private final JdbcClient jdbcClient;
     private final boolean allowDropTable;
 
     @Inject
     public JdbcMetadata(JdbcConnectorId connectorId, JdbcClient jdbcClient, JdbcMetadataConfig config)
     {
+        this.connectorId = requireNonNull(connectorId, "connectorId is null").toString();
         this.jdbcClient = requireNonNull(jdbcClient, "client is null");
 
         requireNonNull(config, "config is null");
@@ -121,6 +133,117 @@ public class JdbcMetadata
         return checkType(columnHandle, JdbcColumnHandle.class, "columnHandle").getColumnMetadata();
     }
 
+    @Override
+    public Optional<ConnectorTableHandle> applyLimit(ConnectorSession session, ConnectorTableHandle table, TupleDomain<ColumnHandle> constraint, long limit)
+    {
+        JdbcTableHandle handle = checkType(table, JdbcTableHandle.class, "tableHandle");
+        if (handle.isAggregatedOrLimited() || !isSupported(constraint)) {
+            return Optional.empty();
+        }
+        return Optional.of(withPushDown(handle, constraint, Optional.empty(), ImmutableList.of(), OptionalLong.of(limit)));
+    }
+
+    @Override
+    public Optional<ConnectorTableHandle> applyTopN(ConnectorSession session, ConnectorTableHandle table, TupleDomain<ColumnHandle> constraint, List<SortingProperty<ColumnHandle>> orderBy, long count)
+    {
+        JdbcTableHandle handle = checkType(table, JdbcTableHandle.class, "tableHandle");
+        if (handle.isAggregatedOrLimited() || !isSupported(constraint)) {
+            return Optional.empty();
+        }
+
+        ImmutableList.Builder<JdbcSortItem> sortOrder = ImmutableList.builder();
+        for (SortingProperty<ColumnHandle> property : orderBy) {
+            JdbcColumnHandle column = checkType(property.getColumn(), JdbcColumnHandle.class, "column");
+            if (!isSupportedType(column.getColumnType())) {
+                return Optional.empty();
+            }
+            sortOrder.add(new JdbcSortItem(column, property.getOrder()));
+        }
+        return Optional.of(withPushDown(handle, constraint, Optional.empty(), sortOrder.build(), OptionalLong.of(count)));
+    }
+
+    @Override
+    public Optional<AggregationApplicationResult<ConnectorTableHandle>> applyAggregation(
+            ConnectorSession session,
+            ConnectorTableHandle table,
+            TupleDomain<ColumnHandle> constraint,
+            List<ColumnHandle> groupingColumns,
+            List<AggregateFunction> aggregates)
+    {
+        JdbcTableHandle handle = checkType(table, JdbcTableHandle.class, "tableHandle");
+        if (handle.isAggregatedOrLimited() || !isSupported(constraint)) {
+            return Optional.empty();
+        }
+
+        ImmutableList.Builder<JdbcColumnHandle> grouping = ImmutableList.builder();
+        for (ColumnHandle columnHandle : groupingColumns) {
+            JdbcColumnHandle column = checkType(columnHandle, JdbcColumnHandle.class, "column");
+            if (!isSupportedType(column.getColumnType())) {
+                return Optional.empty();
+            }
+            grouping.add(column);
+        }
+
+        ImmutableList.Builder<ColumnHandle> aggregateColumns = ImmutableList.builder();
+        for (AggregateFunction aggregate : aggregates) {
+            Optional<JdbcColumnHandle> argument = aggregate.getArgument().map(column -> checkType(column, JdbcColumnHandle.class, "column"));
+            if (!isSupported(aggregate.getName(), argument.map(JdbcColumnHandle::getColumnType))) {
+                return Optional.empty();
+            }
+            Optional<String> argumentName = argument.map(JdbcColumnHandle::getColumnName);
+            String columnName = aggregate.getName() + "(" + argumentName.orElse("*") + ")";
+            aggregateColumns.add(new JdbcColumnHandle(connectorId, columnName, aggregate.getOutputType(), Optional.of(aggregate.getName()), argumentName));
+        }
+
+        JdbcTableHandle aggregated = withPushDown(handle, constraint, Optional.of(grouping.build()), ImmutableList.of(), OptionalLong.empty());
+        return Optional.of(new AggregationApplicationResult<>(aggregated, groupingColumns, aggregateColumns.build()));
+    }
+
+    private static boolean isSupported(TupleDomain<ColumnHandle> constraint)
+    {
+        // The query builder silently skips predicates it cannot express
+        for (ColumnHandle column : constraint.getDomains().keySet()) {
+            if (!isSupportedType(checkType(column, JdbcColumnHandle.class, "column").getColumnType())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isSupported(String function, Optional<Type> argumentType)
+    {
+        switch (function) {
+            case "count":
+                return true;
+            case "sum":
+                return argumentType.isPresent() && (argumentType.get().equals(BIGINT) || argumentType.get().equals(DOUBLE));
+            case "min":
+            case "max":
+                return argumentType.isPresent() && isSupportedType(argumentType.get());
+            default:
+                return false;
+        }
+    }
+
+    private static JdbcTableHandle withPushDown(
+            JdbcTableHandle handle,
+            TupleDomain<ColumnHandle> constraint,
+            Optional<List<JdbcColumnHandle>> groupingColumns,
+            List<JdbcSortItem> sortOrder,
+            OptionalLong limit)
+    {
+        return new JdbcTableHandle(
+                handle.getConnectorId(),
+                handle.getSchemaTableName(),
+                handle.getCatalogName(),
+                handle.getSchemaName(),
+                handle.getTableName(),
+                handle.getConstraint().intersect(constraint),
+                groupingColumns,
+                sortOrder,
+                limit);
+    }
+
     @Override
     public void dropTable(ConnectorSession session, ConnectorTableHandle tableHandle)
     {
@@ -26,6 +26,8 @@ import javax.annotation.Nullable;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
 
 import static java.util.Objects.requireNonNull;
 
@@ -39,6 +41,21 @@ public class JdbcSplit
     private final String connectionUrl;
     private final Map<String, String> connectionProperties;
     private final TupleDomain<ColumnHandle> tupleDomain;
+    private final Optional<List<JdbcColumnHandle>> groupingColumns;
+    private final List<JdbcSortItem> sortOrder;
+    private final OptionalLong limit;
+
+    public JdbcSplit(
+            String connectorId,
+            @Nullable String catalogName,
+            @Nullable String schemaName,
+            String tableName,
+            String connectionUrl,
+            Map<String, String> connectionProperties,
+            TupleDomain<ColumnHandle> tupleDomain)
+    {
+        this(connectorId, catalogName, schemaName, tableName, connectionUrl, connectionProperties, tupleDomain, Optional.empty(), ImmutableList.of(), OptionalLong.empty());
+    }
 
     @JsonCreator
     public JdbcSplit(
@@ -48,7 +65,10 @@ public class JdbcSplit
             @JsonProperty("tableName") String tableName,
             @JsonProperty("connectionUrl") String connectionUrl,
             @JsonProperty("connectionProperties") Map<String, String> connectionProperties,
-            @JsonProperty("tupleDomain") TupleDomain<ColumnHandle> tupleDomain)
+            @JsonProperty("tupleDomain") TupleDomain<ColumnHandle> tupleDomain,
+            @JsonProperty("groupingColumns") Optional<List<JdbcColumnHandle>> groupingColumns,
+            @JsonProperty("sortOrder") List<JdbcSortItem> sortOrder,
+            @JsonProperty("limit") OptionalLong limit)
     {
         this.connectorId = requireNonNull(connectorId, "connector id is null");
         this.catalogName = catalogName;
@@ -57,6 +77,9 @@ public class JdbcSplit
         this.connectionUrl = requireNonNull(connectionUrl, "connectionUrl is null");
         this.connectionProperties = ImmutableMap.copyOf(requireNonNull(connectionProperties, "connectionProperties is null"));
         this.tupleDomain = requireNonNull(tupleDomain, "tupleDomain is null");
+        this.groupingColumns = requireNonNull(groupingColumns, "groupingColumns is null").map(ImmutableList::copyOf);
+        this.sortOrder = ImmutableList.copyOf(requireNonNull(sortOrder, "sortOrder is null"));
+        this.limit = requireNonNull(limit, "limit is null");
     }
 
     @JsonProperty
@@ -103,6 +126,24 @@ public class JdbcSplit
         return tupleDomain;
     }
 
+    @JsonProperty
+    public Optional<List<JdbcColumnHandle>> getGroupingColumns()
+    {
+        return groupingColumns;
+    }
+
+    @JsonProperty
+    public List<JdbcSortItem> getSortOrder()
+    {
+        return sortOrder;
+    }
+
+    @JsonProperty
+    public OptionalLong getLimit()
+    {
+        return limit;
+    }
+
     @Override
     public boolean isRemotelyAccessible()
     {
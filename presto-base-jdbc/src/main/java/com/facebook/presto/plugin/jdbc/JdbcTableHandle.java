@@ -13,15 +13,21 @@
  */
 package com.facebook.presto.plugin.jdbc;
 
+import com.facebook.presto.spi.ColumnHandle;
 import com.facebook.presto.spi.ConnectorTableHandle;
 import com.facebook.presto.spi.SchemaTableName;
+import com.facebook.presto.spi.TupleDomain;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.base.Joiner;
+import com.google.common.collect.ImmutableList;
 
 import javax.annotation.Nullable;
 
+import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
 
 import static java.util.Objects.requireNonNull;
 
@@ -33,20 +39,41 @@ public final class JdbcTableHandle
     private final String catalogName;
     private final String schemaName;
     private final String tableName;
+    private final TupleDomain<ColumnHandle> constraint;
+    private final Optional<List<JdbcColumnHandle>> groupingColumns;
+    private final List<JdbcSortItem> sortOrder;
+    private final OptionalLong limit;
 
+    public JdbcTableHandle(String connectorId, SchemaTableName schemaTableName, @Nullable String catalogName, @Nullable String schemaName, String tableName)
+    {
+        this(connectorId, schemaTableName, catalogName, schemaName, tableName, TupleDomain.all(), Optional.empty(), ImmutableList.of(), OptionalLong.empty());
+    }
+
+    /**
+     * The constraint, grouping, sort order and limit are pushed down by the engine and
+     * are applied by the remote database to the rows of each split.
+     */
     @JsonCreator
     public JdbcTableHandle(
             @JsonProperty("connectorId") String connectorId,
             @JsonProperty("schemaTableName") SchemaTableName schemaTableName,
             @JsonProperty("catalogName") @Nullable String catalogName,
             @JsonProperty("schemaName") @Nullable String schemaName,
-            @JsonProperty("tableName") String tableName)
+            @JsonProperty("tableName") String tableName,
+            @JsonProperty("constraint") TupleDomain<ColumnHandle> constraint,
+            @JsonProperty("groupingColumns") Optional<List<JdbcColumnHandle>> groupingColumns,
+            @JsonProperty("sortOrder") List<JdbcSortItem> sortOrder,
+            @JsonProperty("limit") OptionalLong limit)
     {
         this.connectorId = requireNonNull(connectorId, "connectorId is null");
         this.schemaTableName = requireNonNull(schemaTableName, "schemaTableName is null");
         this.catalogName = catalogName;
         this.schemaName = schemaName;
         this.tableName = requireNonNull(tableName, "tableName is null");
+        this.constraint = requireNonNull(constraint, "constraint is null");
+        this.groupingColumns = requireNonNull(groupingColumns, "groupingColumns is null").map(ImmutableList::copyOf);
+        this.sortOrder = ImmutableList.copyOf(requireNonNull(sortOrder, "sortOrder is null"));
+        this.limit = requireNonNull(limit, "limit is null");
     }
 
     @JsonProperty
@@ -81,6 +108,38 @@ public final class JdbcTableHandle
         return tableName;
     }
 
+    @JsonProperty
+    public TupleDomain<ColumnHandle> getConstraint()
+    {
+        return constraint;
+    }
+
+    @JsonProperty
+    public Optional<List<JdbcColumnHandle>> getGroupingColumns()
+    {
+        return groupingColumns;
+    }
+
+    @JsonProperty
+    public List<JdbcSortItem> getSortOrder()
+    {
+        return sortOrder;
+    }
+
+    @JsonProperty
+    public OptionalLong getLimit()
+    {
+        return limit;
+    }
+
+    /**
+     * Returns true if the engine pushed anything besides the constraint into this handle.
+     */
+    public boolean isAggregatedOrLimited()
+    {
+        return groupingColumns.isPresent() || limit.isPresent();
+    }
+
     @Override
     public boolean equals(Object obj)
     {
@@ -92,13 +151,17 @@ public final class JdbcTableHandle
         }
         JdbcTableHandle o = (JdbcTableHandle) obj;
         return Objects.equals(this.connectorId, o.connectorId) &&
-                Objects.equals(this.schemaTableName, o.schemaTableName);
+                Objects.equals(this.schemaTableName, o.schemaTableName) &&
+                Objects.equals(this.constraint, o.constraint) &&
+                Objects.equals(this.groupingColumns, o.groupingColumns) &&
+                Objects.equals(this.sortOrder, o.sortOrder) &&
+                Objects.equals(this.limit, o.limit);
     }
 
     @Override
     public int hashCode()
     {
-        return Objects.hash(connectorId, schemaTableName);
+        return Objects.hash(connectorId, schemaTableName, constraint, groupingColumns, sortOrder, limit);
     }
 
     @Override
@@ -17,6 +17,7 @@ import com.facebook.presto.spi.ColumnHandle;
 import com.facebook.presto.spi.Domain;
 import com.facebook.presto.spi.Range;
 import com.facebook.presto.spi.TupleDomain;
+import com.facebook.presto.spi.block.SortOrder;
 import com.facebook.presto.spi.type.BigintType;
 import com.facebook.presto.spi.type.BooleanType;
 import com.facebook.presto.spi.type.DoubleType;
@@ -26,7 +27,11 @@ import com.google.common.collect.ImmutableList;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
 
+import static com.facebook.presto.plugin.jdbc.Types.checkType;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.base.Strings.isNullOrEmpty;
 import static com.google.common.collect.Iterables.getOnlyElement;
@@ -43,11 +48,24 @@ public class QueryBuilder
     }
 
     public String buildSql(String catalog, String schema, String table, List<JdbcColumnHandle> columns, TupleDomain<ColumnHandle> tupleDomain)
+    {
+        return buildSql(catalog, schema, table, columns, tupleDomain, Optional.empty(), ImmutableList.of(), OptionalLong.empty());
+    }
+
+    public String buildSql(
+            String catalog,
+            String schema,
+            String table,
+            List<JdbcColumnHandle> columns,
+            TupleDomain<ColumnHandle> tupleDomain,
+            Optional<List<JdbcColumnHandle>> groupingColumns,
+            List<JdbcSortItem> sortOrder,
+            OptionalLong limit)
     {
         StringBuilder sql = new StringBuilder();
 
         sql.append("SELECT ");
-        Joiner.on(", ").appendTo(sql, transform(columns, column -> quote(column.getColumnName())));
+        Joiner.on(", ").appendTo(sql, transform(columns, this::toSelectExpression));
         if (columns.isEmpty()) {
             sql.append("null");
         }
@@ -61,30 +79,69 @@ public class QueryBuilder
         }
         sql.append(quote(table));
 
-        List<String> clauses = toConjuncts(columns, tupleDomain);
+        List<String> clauses = toConjuncts(tupleDomain);
         if (!clauses.isEmpty()) {
             sql.append(" WHERE ")
                     .append(Joiner.on(" AND ").join(clauses));
         }
 
+        if (groupingColumns.isPresent() && !groupingColumns.get().isEmpty()) {
+            sql.append(" GROUP BY ");
+            Joiner.on(", ").appendTo(sql, transform(groupingColumns.get(), column -> quote(column.getColumnName())));
+        }
+
+        if (!sortOrder.isEmpty()) {
+            sql.append(" ORDER BY ");
+            Joiner.on(", ").appendTo(sql, transform(sortOrder, this::toOrderByExpression));
+        }
+
+        if (limit.isPresent()) {
+            sql.append(" LIMIT ").append(limit.getAsLong());
+        }
+
         return sql.toString();
     }
 
-    private List<String> toConjuncts(List<JdbcColumnHandle> columns, TupleDomain<ColumnHandle> tupleDomain)
+    private String toSelectExpression(JdbcColumnHandle column)
+    {
+        if (!column.isAggregate()) {
+            return quote(column.getColumnName());
+        }
+        String argument = column.getAggregateArgument().map(this::quote).orElse("*");
+        return column.getAggregateFunction().get() + "(" + argument + ")";
+    }
+
+    private String toOrderByExpression(JdbcSortItem sortItem)
+    {
+        String column = quote(sortItem.getColumn().getColumnName());
+        SortOrder sortOrder = sortItem.getSortOrder();
+
+        // Databases disagree on where nulls sort by default, so they are ordered explicitly
+        String nullOrder = sortOrder.isNullsFirst() ? "0 ELSE 1" : "1 ELSE 0";
+        return "CASE WHEN " + column + " IS NULL THEN " + nullOrder + " END, " + column + (sortOrder.isAscending() ? " ASC" : " DESC");
+    }
+
+    private List<String> toConjuncts(TupleDomain<ColumnHandle> tupleDomain)
     {
         ImmutableList.Builder<String> builder = ImmutableList.builder();
-        for (JdbcColumnHandle column : columns) {
-            Type type = column.getColumnType();
-            if (type.equals(BigintType.BIGINT) || type.equals(DoubleType.DOUBLE) || type.equals(BooleanType.BOOLEAN)) {
-                Domain domain = tupleDomain.getDomains().get(column);
-                if (domain != null) {
-                    builder.add(toPredicate(column.getColumnName(), domain));
-                }
+        for (Map.Entry<ColumnHandle, Domain> entry : tupleDomain.getDomains().entrySet()) {
+            JdbcColumnHandle column = checkType(entry.getKey(), JdbcColumnHandle.class, "column");
+            if (!column.isAggregate() && isSupportedType(column.getColumnType())) {
+                builder.add(toPredicate(column.getColumnName(), entry.getValue()));
             }
         }
         return builder.build();
     }
 
+    /**
+     * Returns true if values of the type are compared the same way by Presto and the
+     * remote database, so predicates, grouping and ordering on them can be pushed down.
+     */
+    public static boolean isSupportedType(Type type)
+    {
+        return type.equals(BigintType.BIGINT) || type.equals(DoubleType.DOUBLE) || type.equals(BooleanType.BOOLEAN);
+    }
+
     private String toPredicate(String columnName, Domain domain)
     {
         if (domain.getRanges().isNone() && domain.isNullAllowed()) {
@@ -27,7 +27,10 @@ public class TestBaseJdbcConfig
         ConfigAssertions.assertRecordedDefaults(ConfigAssertions.recordDefaults(BaseJdbcConfig.class)
                 .setConnectionUrl(null)
                 .setConnectionUser(null)
-                .setConnectionPassword(null));
+                .setConnectionPassword(null)
+                .setSplitCount(1)
+                .setSplitColumn(null)
+                .setFetchSize(null));
     }
 
     @Test
@@ -37,12 +40,18 @@ public class TestBaseJdbcConfig
                 .put("connection-url", "jdbc:h2:mem:config")
                 .put("connection-user", "user")
                 .put("connection-password", "password")
+                .put("split-count", "8")
+                .put("split-column", "id")
+                .put("fetch-size", "500")
                 .build();
 
         BaseJdbcConfig expected = new BaseJdbcConfig()
                 .setConnectionUrl("jdbc:h2:mem:config")
                 .setConnectionUser("user")
-                .setConnectionPassword("password");
+                .setConnectionPassword("password")
+                .setSplitCount(8)
+                .setSplitColumn("id")
+                .setFetchSize(500);
 
         ConfigAssertions.assertFullMapping(properties, expected);
     }
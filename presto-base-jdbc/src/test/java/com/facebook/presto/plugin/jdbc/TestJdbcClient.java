@@ -13,17 +13,31 @@
  */
 package com.facebook.presto.plugin.jdbc;
 
+import com.facebook.presto.spi.ColumnHandle;
+import com.facebook.presto.spi.ConnectorPartitionResult;
+import com.facebook.presto.spi.ConnectorSplit;
+import com.facebook.presto.spi.ConnectorSplitSource;
+import com.facebook.presto.spi.RecordCursor;
 import com.facebook.presto.spi.SchemaTableName;
+import com.facebook.presto.spi.TupleDomain;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.LongStream;
+
 import static com.facebook.presto.plugin.jdbc.TestingDatabase.CONNECTOR_ID;
 import static com.facebook.presto.spi.type.BigintType.BIGINT;
 import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
+import static com.google.common.collect.Iterables.getOnlyElement;
+import static io.airlift.concurrent.MoreFutures.getFutureValue;
 import static java.util.Locale.ENGLISH;
+import static java.util.stream.Collectors.toList;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNotNull;
 import static org.testng.Assert.assertTrue;
@@ -84,4 +98,65 @@ public class TestJdbcClient
                 new JdbcColumnHandle(CONNECTOR_ID, "TE_T", VARCHAR),
                 new JdbcColumnHandle(CONNECTOR_ID, "VA%UE", BIGINT)));
     }
+
+    @Test
+    public void testRangePartitionedSplits()
+            throws Exception
+    {
+        database.getConnection().createStatement().execute("CREATE SCHEMA partitioned");
+        database.getConnection().createStatement().execute("CREATE TABLE partitioned.ranges(id bigint primary key, value bigint)");
+        database.getConnection().createStatement().execute("INSERT INTO partitioned.ranges(id, value) VALUES " +
+                "(1, 1), (2, 2), (3, 3), (4, 4), (5, 5), (6, 6), (7, 7), (8, 8), (9, 9), (10, 10), (11, NULL)");
+
+        // partitioned on the primary key
+        JdbcClient client = database.createJdbcClient(new BaseJdbcConfig().setSplitCount(3));
+        List<JdbcSplit> splits = getSplits(client, "partitioned", "ranges");
+        assertEquals(splits.size(), 3);
+        assertEquals(readIds(client, splits), LongStream.rangeClosed(1, 11).boxed().collect(toList()));
+
+        // partitioned on the configured column, which has a null value
+        client = database.createJdbcClient(new BaseJdbcConfig().setSplitCount(4).setSplitColumn("value"));
+        splits = getSplits(client, "partitioned", "ranges");
+        assertEquals(splits.size(), 4);
+        assertEquals(readIds(client, splits), LongStream.rangeClosed(1, 11).boxed().collect(toList()));
+
+        // tables without a bigint key are not partitioned
+        assertEquals(getSplits(client, "example", "numbers").size(), 1);
+    }
+
+    @Test
+    public void testRangeBoundaries()
+    {
+        assertEquals(BaseJdbcClient.getRangeBoundaries(1, 10, 3), ImmutableList.of(4L, 7L));
+        assertEquals(BaseJdbcClient.getRangeBoundaries(1, 2, 4), ImmutableList.of(2L));
+        assertEquals(BaseJdbcClient.getRangeBoundaries(5, 5, 4), ImmutableList.of());
+        assertEquals(BaseJdbcClient.getRangeBoundaries(Long.MIN_VALUE, Long.MAX_VALUE, 2), ImmutableList.of(0L));
+    }
+
+    private static List<JdbcSplit> getSplits(JdbcClient client, String schemaName, String tableName)
+            throws Exception
+    {
+        JdbcTableHandle table = client.getTableHandle(new SchemaTableName(schemaName, tableName));
+        ConnectorPartitionResult partitions = client.getPartitions(table, TupleDomain.<ColumnHandle>all());
+        ConnectorSplitSource splitSource = client.getPartitionSplits((JdbcPartition) getOnlyElement(partitions.getPartitions()));
+        ImmutableList.Builder<JdbcSplit> splits = ImmutableList.builder();
+        for (ConnectorSplit split : getFutureValue(splitSource.getNextBatch(1000))) {
+            splits.add((JdbcSplit) split);
+        }
+        return splits.build();
+    }
+
+    private static List<Long> readIds(JdbcClient client, List<JdbcSplit> splits)
+    {
+        List<Long> ids = new ArrayList<>();
+        for (JdbcSplit split : splits) {
+            try (RecordCursor cursor = new JdbcRecordSet(client, split, ImmutableList.of(new JdbcColumnHandle(CONNECTOR_ID, "ID", BIGINT))).cursor()) {
+                while (cursor.advanceNextPosition()) {
+                    ids.add(cursor.getLong(0));
+                }
+            }
+        }
+        Collections.sort(ids);
+        return ids;
+    }
 }
@@ -16,6 +16,8 @@ package com.facebook.presto.plugin.jdbc;
 import io.airlift.testing.EquivalenceTester;
 import org.testng.annotations.Test;
 
+import java.util.Optional;
+
 import static com.facebook.presto.plugin.jdbc.MetadataUtil.COLUMN_CODEC;
 import static com.facebook.presto.plugin.jdbc.MetadataUtil.assertJsonRoundTrip;
 import static com.facebook.presto.spi.type.BigintType.BIGINT;
@@ -27,6 +29,7 @@ public class TestJdbcColumnHandle
     public void testJsonRoundTrip()
     {
         assertJsonRoundTrip(COLUMN_CODEC, new JdbcColumnHandle("connectorId", "columnName", VARCHAR));
+        assertJsonRoundTrip(COLUMN_CODEC, new JdbcColumnHandle("connectorId", "max(columnName)", BIGINT, Optional.of("max"), Optional.of("columnName")));
     }
 
     @Test
@@ -48,6 +51,11 @@ public class TestJdbcColumnHandle
                         new JdbcColumnHandle("connectorId", "columnNameX", VARCHAR),
                         new JdbcColumnHandle("connectorId", "columnNameX", BIGINT),
                         new JdbcColumnHandle("connectorId", "columnNameX", VARCHAR))
+                .addEquivalentGroup(
+                        new JdbcColumnHandle("connectorId", "columnName", BIGINT, Optional.of("max"), Optional.of("columnName")),
+                        new JdbcColumnHandle("connectorId", "columnName", VARCHAR, Optional.of("max"), Optional.of("columnName")))
+                .addEquivalentGroup(
+                        new JdbcColumnHandle("connectorId", "columnName", BIGINT, Optional.of("count"), Optional.empty()))
                 .check();
     }
 }
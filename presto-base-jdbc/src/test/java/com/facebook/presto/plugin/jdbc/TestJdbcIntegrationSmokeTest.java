@@ -14,9 +14,11 @@
 package com.facebook.presto.plugin.jdbc;
 
 import com.facebook.presto.tests.AbstractTestIntegrationSmokeTest;
+import org.testng.annotations.Test;
 
 import static com.facebook.presto.plugin.jdbc.JdbcQueryRunner.createJdbcQueryRunner;
 import static io.airlift.tpch.TpchTable.ORDERS;
+import static org.testng.Assert.assertEquals;
 
 public class TestJdbcIntegrationSmokeTest
         extends AbstractTestIntegrationSmokeTest
@@ -27,6 +29,23 @@ public class TestJdbcIntegrationSmokeTest
         super(createJdbcQueryRunner(ORDERS));
     }
 
+    @Test
+    public void testAggregationPushDown()
+            throws Exception
+    {
+        assertQuery("SELECT custkey, count(*), count(totalprice), min(totalprice), max(orderkey), sum(orderkey) FROM orders WHERE orderkey > 100 GROUP BY custkey");
+        assertQuery("SELECT count(*), max(orderkey) FROM orders WHERE custkey < 0");
+        assertQuery("SELECT count(*) FROM orders WHERE orderkey BETWEEN 10 AND 1000");
+    }
+
+    @Test
+    public void testLimitPushDown()
+            throws Exception
+    {
+        assertQueryOrdered("SELECT orderkey FROM orders ORDER BY orderkey DESC LIMIT 5", "SELECT orderkey FROM orders ORDER BY orderkey DESC LIMIT 5");
+        assertEquals(computeActual("SELECT orderkey FROM orders WHERE custkey > 100 LIMIT 7").getRowCount(), 7);
+    }
+
     @Override
     public void testViewAccessControl()
     {
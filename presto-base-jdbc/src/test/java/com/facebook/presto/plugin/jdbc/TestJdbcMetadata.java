@@ -13,11 +13,21 @@
  */
 package com.facebook.presto.plugin.jdbc;
 
+import com.facebook.presto.spi.AggregateFunction;
+import com.facebook.presto.spi.AggregationApplicationResult;
+import com.facebook.presto.spi.ColumnHandle;
 import com.facebook.presto.spi.ColumnMetadata;
+import com.facebook.presto.spi.ConnectorTableHandle;
 import com.facebook.presto.spi.ConnectorTableMetadata;
+import com.facebook.presto.spi.Domain;
 import com.facebook.presto.spi.PrestoException;
+import com.facebook.presto.spi.Range;
+import com.facebook.presto.spi.RecordCursor;
 import com.facebook.presto.spi.SchemaTableName;
+import com.facebook.presto.spi.SortedRangeSet;
+import com.facebook.presto.spi.SortingProperty;
 import com.facebook.presto.spi.TableNotFoundException;
+import com.facebook.presto.spi.TupleDomain;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
@@ -25,13 +35,19 @@ import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.util.List;
+import java.util.Optional;
+
 import static com.facebook.presto.plugin.jdbc.TestingDatabase.CONNECTOR_ID;
 import static com.facebook.presto.spi.StandardErrorCode.NOT_FOUND;
 import static com.facebook.presto.spi.StandardErrorCode.PERMISSION_DENIED;
+import static com.facebook.presto.spi.block.SortOrder.DESC_NULLS_LAST;
 import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.spi.type.DoubleType.DOUBLE;
 import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
 import static com.facebook.presto.testing.TestingConnectorSession.SESSION;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertTrue;
 import static org.testng.Assert.fail;
@@ -194,4 +210,91 @@ public class TestJdbcMetadata
             assertEquals(e.getErrorCode(), NOT_FOUND.toErrorCode());
         }
     }
+
+    @Test
+    public void testApplyAggregation()
+            throws Exception
+    {
+        JdbcColumnHandle value = new JdbcColumnHandle(CONNECTOR_ID, "VALUE", BIGINT);
+        TupleDomain<ColumnHandle> constraint = TupleDomain.withColumnDomains(ImmutableMap.<ColumnHandle, Domain>of(
+                value, Domain.create(SortedRangeSet.of(Range.greaterThanOrEqual(3L)), false)));
+
+        AggregationApplicationResult<ConnectorTableHandle> result = metadata.applyAggregation(
+                SESSION,
+                tableHandle,
+                constraint,
+                ImmutableList.of(),
+                ImmutableList.of(
+                        new AggregateFunction("count", BIGINT, Optional.empty()),
+                        new AggregateFunction("max", BIGINT, Optional.of(value)),
+                        new AggregateFunction("sum", BIGINT, Optional.of(value))))
+                .get();
+        assertEquals(result.getGroupingColumns(), ImmutableList.of());
+        assertEquals(result.getAggregateColumns().size(), 3);
+
+        List<List<Object>> rows = readRows((JdbcTableHandle) result.getHandle(), result.getAggregateColumns());
+        assertEquals(rows, ImmutableList.of(ImmutableList.of(4L, 12L, 36L)));
+    }
+
+    @Test
+    public void testApplyAggregationDeclined()
+    {
+        JdbcColumnHandle text = new JdbcColumnHandle(CONNECTOR_ID, "TEXT", VARCHAR);
+        JdbcColumnHandle value = new JdbcColumnHandle(CONNECTOR_ID, "VALUE", BIGINT);
+
+        // varchar values may be compared differently by the remote database
+        assertFalse(metadata.applyAggregation(SESSION, tableHandle, TupleDomain.all(), ImmutableList.of(text), ImmutableList.of()).isPresent());
+        assertFalse(metadata.applyAggregation(SESSION, tableHandle, TupleDomain.all(), ImmutableList.of(), ImmutableList.of(
+                new AggregateFunction("max", VARCHAR, Optional.of(text)))).isPresent());
+        assertFalse(metadata.applyAggregation(SESSION, tableHandle, TupleDomain.withFixedValues(ImmutableMap.<ColumnHandle, Comparable<?>>of(text, "one")), ImmutableList.of(), ImmutableList.of(
+                new AggregateFunction("count", BIGINT, Optional.empty()))).isPresent());
+
+        // the partial results of avg can not be merged
+        assertFalse(metadata.applyAggregation(SESSION, tableHandle, TupleDomain.all(), ImmutableList.of(), ImmutableList.of(
+                new AggregateFunction("avg", DOUBLE, Optional.of(value)))).isPresent());
+    }
+
+    @Test
+    public void testApplyTopN()
+            throws Exception
+    {
+        JdbcColumnHandle value = new JdbcColumnHandle(CONNECTOR_ID, "VALUE", BIGINT);
+        ConnectorTableHandle topN = metadata.applyTopN(SESSION, tableHandle, TupleDomain.all(), ImmutableList.of(new SortingProperty<>(value, DESC_NULLS_LAST)), 2).get();
+
+        assertEquals(readRows((JdbcTableHandle) topN, ImmutableList.of(value)), ImmutableList.of(ImmutableList.of(12L), ImmutableList.of(11L)));
+
+        // the limit of a handle can not be pushed down again
+        assertFalse(metadata.applyLimit(SESSION, topN, TupleDomain.all(), 1).isPresent());
+    }
+
+    @Test
+    public void testApplyLimit()
+            throws Exception
+    {
+        JdbcColumnHandle value = new JdbcColumnHandle(CONNECTOR_ID, "VALUE", BIGINT);
+        ConnectorTableHandle limited = metadata.applyLimit(SESSION, tableHandle, TupleDomain.withFixedValues(ImmutableMap.<ColumnHandle, Comparable<?>>of(value, 10L)), 5).get();
+
+        assertEquals(readRows((JdbcTableHandle) limited, ImmutableList.of(value)), ImmutableList.of(ImmutableList.of(10L)));
+    }
+
+    private List<List<Object>> readRows(JdbcTableHandle handle, List<? extends ColumnHandle> columns)
+            throws Exception
+    {
+        ImmutableList.Builder<JdbcColumnHandle> columnHandles = ImmutableList.builder();
+        for (ColumnHandle column : columns) {
+            columnHandles.add((JdbcColumnHandle) column);
+        }
+
+        ImmutableList.Builder<List<Object>> rows = ImmutableList.builder();
+        try (RecordCursor cursor = new JdbcRecordSet(database.getJdbcClient(), database.getSplit(handle), columnHandles.build()).cursor()) {
+            while (cursor.advanceNextPosition()) {
+                ImmutableList.Builder<Object> row = ImmutableList.builder();
+                for (int field = 0; field < columns.size(); field++) {
+                    row.add(cursor.getLong(field));
+                }
+                rows.add(row.build());
+            }
+        }
+        return rows.build();
+    }
 }
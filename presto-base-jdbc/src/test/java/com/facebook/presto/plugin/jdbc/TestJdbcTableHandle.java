@@ -14,11 +14,18 @@
 package com.facebook.presto.plugin.jdbc;
 
 import com.facebook.presto.spi.SchemaTableName;
+import com.facebook.presto.spi.TupleDomain;
+import com.google.common.collect.ImmutableList;
 import io.airlift.testing.EquivalenceTester;
 import org.testng.annotations.Test;
 
+import java.util.Optional;
+import java.util.OptionalLong;
+
 import static com.facebook.presto.plugin.jdbc.MetadataUtil.TABLE_CODEC;
 import static com.facebook.presto.plugin.jdbc.MetadataUtil.assertJsonRoundTrip;
+import static com.facebook.presto.spi.block.SortOrder.ASC_NULLS_LAST;
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
 
 public class TestJdbcTableHandle
 {
@@ -26,6 +33,16 @@ public class TestJdbcTableHandle
     public void testJsonRoundTrip()
     {
         assertJsonRoundTrip(TABLE_CODEC, new JdbcTableHandle("connectorId", new SchemaTableName("schema", "table"), "jdbcCatalog", "jdbcSchema", "jdbcTable"));
+        assertJsonRoundTrip(TABLE_CODEC, new JdbcTableHandle(
+                "connectorId",
+                new SchemaTableName("schema", "table"),
+                "jdbcCatalog",
+                "jdbcSchema",
+                "jdbcTable",
+                TupleDomain.all(),
+                Optional.of(ImmutableList.of(new JdbcColumnHandle("connectorId", "group", BIGINT))),
+                ImmutableList.of(new JdbcSortItem(new JdbcColumnHandle("connectorId", "order", BIGINT), ASC_NULLS_LAST)),
+                OptionalLong.of(10)));
     }
 
     @Test
@@ -47,6 +64,8 @@ public class TestJdbcTableHandle
                         new JdbcTableHandle("connectorId", new SchemaTableName("schemaX", "table"), "jdbcCatalogX", "jdbcSchema", "jdbcTable"),
                         new JdbcTableHandle("connectorId", new SchemaTableName("schemaX", "table"), "jdbcCatalog", "jdbcSchemaX", "jdbcTable"),
                         new JdbcTableHandle("connectorId", new SchemaTableName("schemaX", "table"), "jdbcCatalog", "jdbcSchema", "jdbcTableX"))
+                .addEquivalentGroup(
+                        new JdbcTableHandle("connectorId", new SchemaTableName("schema", "table"), "jdbcCatalog", "jdbcSchema", "jdbcTable", TupleDomain.all(), Optional.empty(), ImmutableList.of(), OptionalLong.of(10)))
                 .check();
     }
 }
@@ -36,18 +36,15 @@ final class TestingDatabase
 {
     public static final String CONNECTOR_ID = "test";
 
+    private final String connectionUrl;
     private final Connection connection;
     private final JdbcClient jdbcClient;
 
     public TestingDatabase()
             throws SQLException
     {
-        String connectionUrl = "jdbc:h2:mem:test" + System.nanoTime();
-        jdbcClient = new BaseJdbcClient(
-                new JdbcConnectorId(CONNECTOR_ID),
-                new BaseJdbcConfig().setConnectionUrl(connectionUrl),
-                "\"",
-                new Driver());
+        connectionUrl = "jdbc:h2:mem:test" + System.nanoTime();
+        jdbcClient = createJdbcClient(new BaseJdbcConfig());
 
         connection = DriverManager.getConnection(connectionUrl);
         connection.createStatement().execute("CREATE SCHEMA example");
@@ -88,10 +85,24 @@ final class TestingDatabase
         return jdbcClient;
     }
 
+    public JdbcClient createJdbcClient(BaseJdbcConfig config)
+    {
+        return new BaseJdbcClient(
+                new JdbcConnectorId(CONNECTOR_ID),
+                config.setConnectionUrl(connectionUrl),
+                "\"",
+                new Driver());
+    }
+
     public JdbcSplit getSplit(String schemaName, String tableName)
             throws InterruptedException
     {
-        JdbcTableHandle jdbcTableHandle = jdbcClient.getTableHandle(new SchemaTableName(schemaName, tableName));
+        return getSplit(jdbcClient.getTableHandle(new SchemaTableName(schemaName, tableName)));
+    }
+
+    public JdbcSplit getSplit(JdbcTableHandle jdbcTableHandle)
+            throws InterruptedException
+    {
         ConnectorPartitionResult partitions = jdbcClient.getPartitions(jdbcTableHandle, TupleDomain.<ColumnHandle>all());
         ConnectorSplitSource splits = jdbcClient.getPartitionSplits((JdbcPartition) getOnlyElement(partitions.getPartitions()));
         return (JdbcSplit) getOnlyElement(getFutureValue(splits.getNextBatch(1000)));
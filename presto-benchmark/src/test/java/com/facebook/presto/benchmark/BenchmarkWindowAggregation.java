@@ -0,0 +1,120 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.benchmark;
+
+import com.facebook.presto.testing.LocalQueryRunner;
+import com.facebook.presto.testing.MaterializedResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.VerboseMode;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.facebook.presto.benchmark.BenchmarkQueryRunner.createLocalQueryRunner;
+import static java.lang.String.format;
+
+/**
+ * Moving aggregates over the two large partitions of the tiny lineitem table.
+ */
+@SuppressWarnings("MethodMayBeStatic")
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(2)
+@Warmup(iterations = 10, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 10, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@BenchmarkMode(Mode.AverageTime)
+public class BenchmarkWindowAggregation
+{
+    @Benchmark
+    public MaterializedResult movingAggregate(BenchmarkData data)
+    {
+        return data.getQueryRunner().execute(data.getQuery());
+    }
+
+    @SuppressWarnings("FieldMayBeFinal")
+    @State(Scope.Thread)
+    public static class BenchmarkData
+    {
+        @Param({"sum", "count", "avg", "max"})
+        private String function = "sum";
+
+        @Param({"10", "100", "1000"})
+        private int preceding = 100;
+
+        private LocalQueryRunner queryRunner;
+        private String query;
+
+        @Setup
+        public void setup()
+        {
+            queryRunner = createLocalQueryRunner();
+            query = format("" +
+                    "SELECT count(moving) FROM (\n" +
+                    "  SELECT %s(quantity) OVER (PARTITION BY linestatus ORDER BY orderkey, linenumber\n" +
+                    "    ROWS BETWEEN %s PRECEDING AND CURRENT ROW) moving\n" +
+                    "  FROM lineitem\n" +
+                    ") t", function, preceding);
+        }
+
+        @TearDown
+        public void tearDown()
+        {
+            queryRunner.close();
+        }
+
+        public LocalQueryRunner getQueryRunner()
+        {
+            return queryRunner;
+        }
+
+        public String getQuery()
+        {
+            return query;
+        }
+    }
+
+    public static void main(String[] args)
+            throws RunnerException
+    {
+        // assure the benchmarks are valid before running
+        BenchmarkData data = new BenchmarkData();
+        data.setup();
+        try {
+            new BenchmarkWindowAggregation().movingAggregate(data);
+        }
+        finally {
+            data.tearDown();
+        }
+
+        Options options = new OptionsBuilder()
+                .verbosity(VerboseMode.NORMAL)
+                .include(".*" + BenchmarkWindowAggregation.class.getSimpleName() + ".*")
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -99,6 +99,9 @@ public class ClientOptions
     @Option(name = "--socks-proxy", title = "socks-proxy", description = "SOCKS proxy to use for server connections")
     public HostAndPort socksProxy;
 
+    @Option(name = "--binary-results", title = "binary results", description = "Request results in the binary columnar format, which is faster to transfer for large results")
+    public boolean binaryResults;
+
     public enum OutputFormat
     {
         ALIGNED,
@@ -121,7 +124,8 @@ public class ClientOptions
                 TimeZone.getDefault().getID(),
                 Locale.getDefault(),
                 toProperties(sessionProperties),
-                debug);
+                debug,
+                binaryResults);
     }
 
     public KerberosConfig toKerberosConfig()
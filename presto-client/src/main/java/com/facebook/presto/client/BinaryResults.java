@@ -0,0 +1,175 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.client;
+
+import com.facebook.presto.spi.Page;
+import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.block.BlockEncoding;
+import com.facebook.presto.spi.block.BlockEncodingSerde;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import io.airlift.slice.BasicSliceInput;
+import io.airlift.slice.DynamicSliceOutput;
+import io.airlift.slice.SliceInput;
+import io.airlift.slice.Slices;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import static com.facebook.presto.spi.type.StandardTypes.BIGINT;
+import static com.facebook.presto.spi.type.StandardTypes.BOOLEAN;
+import static com.facebook.presto.spi.type.StandardTypes.DOUBLE;
+import static com.facebook.presto.spi.type.StandardTypes.VARBINARY;
+import static com.facebook.presto.spi.type.StandardTypes.VARCHAR;
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Binary columnar encoding of result data, which clients request with the
+ * {@link PrestoHeaders#PRESTO_RESULT_FORMAT} header. The data is a sequence
+ * of pages, with the same layout as pages exchanged between workers:
+ * <ul>
+ * <li>position count (int)</li>
+ * <li>number of blocks (int)</li>
+ * <li>sequence of block encoding and block</li>
+ * </ul>
+ * The server only uses the binary encoding if all columns have one of the
+ * supported types, and otherwise returns the data as JSON.
+ */
+public final class BinaryResults
+{
+    public static final String BINARY_RESULT_FORMAT = "binary";
+
+    private static final Set<String> SUPPORTED_TYPES = ImmutableSet.of(BIGINT, DOUBLE, BOOLEAN, VARCHAR, VARBINARY);
+
+    private BinaryResults() {}
+
+    public static boolean isSupportedType(String type)
+    {
+        return SUPPORTED_TYPES.contains(type);
+    }
+
+    public static byte[] encode(BlockEncodingSerde blockEncodingSerde, List<Page> pages)
+    {
+        long size = 0;
+        for (Page page : pages) {
+            size += page.getSizeInBytes();
+        }
+        DynamicSliceOutput output = new DynamicSliceOutput((int) Math.min(size + 1024, Integer.MAX_VALUE));
+        for (Page page : pages) {
+            output.writeInt(page.getPositionCount());
+            Block[] blocks = page.getBlocks();
+            output.writeInt(blocks.length);
+            for (Block block : blocks) {
+                BlockEncoding encoding = block.getEncoding();
+                blockEncodingSerde.writeBlockEncoding(output, encoding);
+                encoding.writeBlock(output, block);
+            }
+        }
+        return output.slice().getBytes();
+    }
+
+    /**
+     * Decodes the rows of binary result data. The values have the same Java
+     * types as values of the same columns returned as JSON.
+     */
+    public static Iterable<List<Object>> decode(List<Column> columns, byte[] data)
+    {
+        requireNonNull(columns, "columns is null");
+        requireNonNull(data, "data is null");
+        for (Column column : columns) {
+            checkArgument(isSupportedType(column.getType()), "Unsupported type for binary results: %s", column.getType());
+        }
+
+        List<Page> pages = new ArrayList<>();
+        SliceInput input = new BasicSliceInput(Slices.wrappedBuffer(data));
+        while (input.isReadable()) {
+            int positionCount = input.readInt();
+            Block[] blocks = new Block[input.readInt()];
+            checkArgument(blocks.length == columns.size(), "block/column size mismatch");
+            for (int i = 0; i < blocks.length; i++) {
+                BlockEncoding encoding = ClientBlockEncodingSerde.INSTANCE.readBlockEncoding(input);
+                blocks[i] = encoding.readBlock(input);
+            }
+            pages.add(new Page(positionCount, blocks));
+        }
+
+        ImmutableList.Builder<String> types = ImmutableList.builder();
+        for (Column column : columns) {
+            types.add(column.getType());
+        }
+        List<String> columnTypes = types.build();
+        return () -> new RowIterator(columnTypes, pages.iterator());
+    }
+
+    private static Object getValue(String type, Block block, int position)
+    {
+        if (block.isNull(position)) {
+            return null;
+        }
+        switch (type) {
+            case BIGINT:
+                return block.getLong(position, 0);
+            case DOUBLE:
+                return block.getDouble(position, 0);
+            case BOOLEAN:
+                return block.getByte(position, 0) != 0;
+            case VARCHAR:
+                return block.getSlice(position, 0, block.getLength(position)).toStringUtf8();
+            case VARBINARY:
+                return block.getSlice(position, 0, block.getLength(position)).getBytes();
+        }
+        throw new IllegalArgumentException("Unsupported type for binary results: " + type);
+    }
+
+    private static class RowIterator
+            extends AbstractIterator<List<Object>>
+    {
+        private final List<String> types;
+        private final Iterator<Page> pages;
+        private Page page;
+        private int position;
+
+        private RowIterator(List<String> types, Iterator<Page> pages)
+        {
+            this.types = types;
+            this.pages = pages;
+        }
+
+        @Override
+        protected List<Object> computeNext()
+        {
+            while (page == null || position >= page.getPositionCount()) {
+                if (!pages.hasNext()) {
+                    return endOfData();
+                }
+                page = pages.next();
+                position = 0;
+            }
+
+            Object[] row = new Object[types.size()];
+            for (int channel = 0; channel < row.length; channel++) {
+                row[channel] = getValue(types.get(channel), page.getBlock(channel), position);
+            }
+            position++;
+            // allow nulls in list
+            return unmodifiableList(Arrays.asList(row));
+        }
+    }
+}
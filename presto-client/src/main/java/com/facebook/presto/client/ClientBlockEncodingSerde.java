@@ -0,0 +1,89 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.client;
+
+import com.facebook.presto.spi.block.ArrayBlockEncoding;
+import com.facebook.presto.spi.block.BlockEncoding;
+import com.facebook.presto.spi.block.BlockEncodingFactory;
+import com.facebook.presto.spi.block.BlockEncodingSerde;
+import com.facebook.presto.spi.block.DictionaryBlockEncoding;
+import com.facebook.presto.spi.block.FixedWidthBlockEncoding;
+import com.facebook.presto.spi.block.InterleavedBlockEncoding;
+import com.facebook.presto.spi.block.LazySliceArrayBlockEncoding;
+import com.facebook.presto.spi.block.RunLengthEncodedBlockEncoding;
+import com.facebook.presto.spi.block.SliceArrayBlockEncoding;
+import com.facebook.presto.spi.block.VariableWidthBlockEncoding;
+import com.google.common.collect.ImmutableMap;
+import io.airlift.slice.SliceInput;
+import io.airlift.slice.SliceOutput;
+
+import java.util.Map;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Reads the built-in block encodings of the SPI, which are all the server
+ * uses for binary results. Encodings are written as on the server.
+ */
+final class ClientBlockEncodingSerde
+        implements BlockEncodingSerde
+{
+    public static final ClientBlockEncodingSerde INSTANCE = new ClientBlockEncodingSerde();
+
+    private final Map<String, BlockEncodingFactory<?>> blockEncodings;
+
+    private ClientBlockEncodingSerde()
+    {
+        ImmutableMap.Builder<String, BlockEncodingFactory<?>> blockEncodings = ImmutableMap.builder();
+        for (BlockEncodingFactory<?> factory : new BlockEncodingFactory<?>[] {
+                VariableWidthBlockEncoding.FACTORY,
+                FixedWidthBlockEncoding.FACTORY,
+                SliceArrayBlockEncoding.FACTORY,
+                LazySliceArrayBlockEncoding.FACTORY,
+                DictionaryBlockEncoding.FACTORY,
+                ArrayBlockEncoding.FACTORY,
+                InterleavedBlockEncoding.FACTORY,
+                RunLengthEncodedBlockEncoding.FACTORY}) {
+            blockEncodings.put(factory.getName(), factory);
+        }
+        this.blockEncodings = blockEncodings.build();
+    }
+
+    @Override
+    public BlockEncoding readBlockEncoding(SliceInput input)
+    {
+        int length = input.readInt();
+        byte[] bytes = new byte[length];
+        input.readBytes(bytes);
+        String encodingName = new String(bytes, UTF_8);
+
+        BlockEncodingFactory<?> blockEncoding = blockEncodings.get(encodingName);
+        checkArgument(blockEncoding != null, "Unknown block encoding %s", encodingName);
+
+        // none of the built-in encodings need a type manager
+        return blockEncoding.readEncoding(null, this, input);
+    }
+
+    @Override
+    public void writeBlockEncoding(SliceOutput output, BlockEncoding encoding)
+    {
+        byte[] bytes = encoding.getName().getBytes(UTF_8);
+        output.writeInt(bytes.length);
+        output.writeBytes(bytes);
+
+        BlockEncodingFactory<BlockEncoding> blockEncoding = encoding.getFactory();
+        blockEncoding.writeEncoding(this, output, encoding);
+    }
+}
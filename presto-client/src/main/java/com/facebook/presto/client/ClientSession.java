@@ -38,6 +38,7 @@ public class ClientSession
     private final Locale locale;
     private final Map<String, String> properties;
     private final boolean debug;
+    private final boolean binaryResults;
 
     public static ClientSession withCatalogAndSchema(ClientSession session, String catalog, String schema)
     {
@@ -50,7 +51,8 @@ public class ClientSession
                 session.getTimeZoneId(),
                 session.getLocale(),
                 session.getProperties(),
-                session.isDebug());
+                session.isDebug(),
+                session.isBinaryResults());
     }
 
     public static ClientSession withSessionProperties(ClientSession session, Map<String, String> sessionProperties)
@@ -67,7 +69,8 @@ public class ClientSession
                 session.getTimeZoneId(),
                 session.getLocale(),
                 properties,
-                session.isDebug());
+                session.isDebug(),
+                session.isBinaryResults());
     }
 
     public static ClientSession withProperties(ClientSession session, Map<String, String> properties)
@@ -81,10 +84,16 @@ public class ClientSession
                 session.getTimeZoneId(),
                 session.getLocale(),
                 properties,
-                session.isDebug());
+                session.isDebug(),
+                session.isBinaryResults());
     }
 
     public ClientSession(URI server, String user, String source, String catalog, String schema, String timeZoneId, Locale locale, Map<String, String> properties, boolean debug)
+    {
+        this(server, user, source, catalog, schema, timeZoneId, locale, properties, debug, false);
+    }
+
+    public ClientSession(URI server, String user, String source, String catalog, String schema, String timeZoneId, Locale locale, Map<String, String> properties, boolean debug, boolean binaryResults)
     {
         this.server = requireNonNull(server, "server is null");
         this.user = user;
@@ -94,6 +103,7 @@ public class ClientSession
         this.locale = locale;
         this.timeZoneId = requireNonNull(timeZoneId, "timeZoneId is null");
         this.debug = debug;
+        this.binaryResults = binaryResults;
         this.properties = ImmutableMap.copyOf(requireNonNull(properties, "properties is null"));
 
         // verify the properties are valid
@@ -151,6 +161,14 @@ public class ClientSession
         return debug;
     }
 
+    /**
+     * Request results in the binary format of {@link BinaryResults}, if the query output supports it.
+     */
+    public boolean isBinaryResults()
+    {
+        return binaryResults;
+    }
+
     @Override
     public String toString()
     {
@@ -163,6 +181,7 @@ public class ClientSession
                 .add("locale", locale)
                 .add("properties", properties)
                 .add("debug", debug)
+                .add("binaryResults", binaryResults)
                 .toString();
     }
 }
@@ -62,6 +62,7 @@ public class QueryResults
     private final URI nextUri;
     private final List<Column> columns;
     private final Iterable<List<Object>> data;
+    private final byte[] binaryData;
     private final StatementStats stats;
     private final QueryError error;
     private final String updateType;
@@ -75,12 +76,13 @@ public class QueryResults
             @JsonProperty("nextUri") URI nextUri,
             @JsonProperty("columns") List<Column> columns,
             @JsonProperty("data") List<List<Object>> data,
+            @JsonProperty("binaryData") byte[] binaryData,
             @JsonProperty("stats") StatementStats stats,
             @JsonProperty("error") QueryError error,
             @JsonProperty("updateType") String updateType,
             @JsonProperty("updateCount") Long updateCount)
     {
-        this(id, infoUri, partialCancelUri, nextUri, columns, fixData(columns, data), stats, error, updateType, updateCount);
+        this(id, infoUri, partialCancelUri, nextUri, columns, decodeData(columns, data, binaryData), null, stats, error, updateType, updateCount);
     }
 
     public QueryResults(
@@ -95,12 +97,30 @@ public class QueryResults
             String updateType,
             Long updateCount)
     {
+        this(id, infoUri, partialCancelUri, nextUri, columns, data, null, stats, error, updateType, updateCount);
+    }
+
+    public QueryResults(
+            String id,
+            URI infoUri,
+            URI partialCancelUri,
+            URI nextUri,
+            List<Column> columns,
+            Iterable<List<Object>> data,
+            byte[] binaryData,
+            StatementStats stats,
+            QueryError error,
+            String updateType,
+            Long updateCount)
+    {
+        checkArgument(data == null || binaryData == null, "data and binaryData are both set");
         this.id = requireNonNull(id, "id is null");
         this.infoUri = requireNonNull(infoUri, "infoUri is null");
         this.partialCancelUri = partialCancelUri;
         this.nextUri = nextUri;
         this.columns = (columns != null) ? ImmutableList.copyOf(columns) : null;
         this.data = (data != null) ? unmodifiableIterable(data) : null;
+        this.binaryData = binaryData;
         this.stats = requireNonNull(stats, "stats is null");
         this.error = error;
         this.updateType = updateType;
@@ -142,6 +162,10 @@ public class QueryResults
         return columns;
     }
 
+    /**
+     * Rows of the results. For binary results received by a client, these are
+     * the decoded rows of the binary data.
+     */
     @Nullable
     @JsonProperty
     public Iterable<List<Object>> getData()
@@ -149,6 +173,16 @@ public class QueryResults
         return data;
     }
 
+    /**
+     * Results encoded by {@link BinaryResults}, which are only set on the server.
+     */
+    @Nullable
+    @JsonProperty
+    public byte[] getBinaryData()
+    {
+        return binaryData;
+    }
+
     @NotNull
     @JsonProperty
     public StatementStats getStats()
@@ -186,7 +220,7 @@ public class QueryResults
                 .add("partialCancelUri", partialCancelUri)
                 .add("nextUri", nextUri)
                 .add("columns", columns)
-                .add("hasData", data != null)
+                .add("hasData", data != null || binaryData != null)
                 .add("stats", stats)
                 .add("error", error)
                 .add("updateType", updateType)
@@ -194,6 +228,15 @@ public class QueryResults
                 .toString();
     }
 
+    private static Iterable<List<Object>> decodeData(List<Column> columns, List<List<Object>> data, byte[] binaryData)
+    {
+        if (binaryData != null) {
+            checkArgument(data == null, "data and binaryData are both set");
+            return BinaryResults.decode(requireNonNull(columns, "columns is null"), binaryData);
+        }
+        return fixData(columns, data);
+    }
+
     private static Iterable<List<Object>> fixData(List<Column> columns, List<List<Object>> data)
     {
         if (data == null) {
@@ -127,6 +127,9 @@ public class StatementClient
         builder.setHeader(PrestoHeaders.PRESTO_TIME_ZONE, session.getTimeZoneId());
         builder.setHeader(PrestoHeaders.PRESTO_LANGUAGE, session.getLocale().toLanguageTag());
         builder.setHeader(USER_AGENT, USER_AGENT_VALUE);
+        if (session.isBinaryResults()) {
+            builder.setHeader(PrestoHeaders.PRESTO_RESULT_FORMAT, BinaryResults.BINARY_RESULT_FORMAT);
+        }
 
         Map<String, String> property = session.getProperties();
         for (Entry<String, String> entry : property.entrySet()) {
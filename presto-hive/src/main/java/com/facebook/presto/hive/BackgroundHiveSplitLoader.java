@@ -21,6 +21,8 @@ import com.facebook.presto.spi.HostAddress;
 import com.facebook.presto.spi.TupleDomain;
 import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableList;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
 import io.airlift.units.DataSize;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.BlockLocation;
@@ -65,6 +67,7 @@ import static com.facebook.presto.hive.HiveUtil.getInputFormat;
 import static com.facebook.presto.hive.HiveUtil.isSplittable;
 import static com.facebook.presto.hive.UnpartitionedPartition.isUnpartitioned;
 import static com.google.common.base.Preconditions.checkState;
+import static java.nio.charset.StandardCharsets.UTF_8;
 
 public class BackgroundHiveSplitLoader
         implements HiveSplitLoader
@@ -78,7 +81,7 @@ public class BackgroundHiveSplitLoader
     private final NamenodeStats namenodeStats;
     private final DirectoryLister directoryLister;
     private final DataSize maxSplitSize;
-    private final int maxPartitionBatchSize;
+    private final int loaderConcurrency;
     private final DataSize maxInitialSplitSize;
     private final boolean recursiveDirWalkerEnabled;
     private final Executor executor;
@@ -86,6 +89,7 @@ public class BackgroundHiveSplitLoader
     private final ConcurrentLazyQueue<HivePartitionMetadata> partitions;
     private final Deque<HiveFileIterator> fileIterators = new ConcurrentLinkedDeque<>();
     private final AtomicInteger remainingInitialSplits;
+    private final List<HostAddress> fileCacheNodes;
 
     // Purpose of this lock:
     // * When write lock is acquired, except the holder, no one can do any of the following:
@@ -114,16 +118,17 @@ public class BackgroundHiveSplitLoader
             NamenodeStats namenodeStats,
             DirectoryLister directoryLister,
             Executor executor,
-            int maxPartitionBatchSize,
+            int loaderConcurrency,
             DataSize maxInitialSplitSize,
             int maxInitialSplits,
-            boolean recursiveDirWalkerEnabled)
+            boolean recursiveDirWalkerEnabled,
+            List<HostAddress> fileCacheNodes)
     {
         this.connectorId = connectorId;
         this.table = table;
         this.bucket = bucket;
         this.maxSplitSize = maxSplitSize;
-        this.maxPartitionBatchSize = maxPartitionBatchSize;
+        this.loaderConcurrency = loaderConcurrency;
         this.session = session;
         this.hdfsEnvironment = hdfsEnvironment;
         this.namenodeStats = namenodeStats;
@@ -133,13 +138,16 @@ public class BackgroundHiveSplitLoader
         this.recursiveDirWalkerEnabled = recursiveDirWalkerEnabled;
         this.executor = executor;
         this.partitions = new ConcurrentLazyQueue<>(partitions);
+        this.fileCacheNodes = ImmutableList.copyOf(fileCacheNodes);
     }
 
     @Override
     public void start(HiveSplitSource splitSource)
     {
         this.hiveSplitSource = splitSource;
-        for (int i = 0; i < maxPartitionBatchSize; i++) {
+        // each task lists one partition at a time, so up to loaderConcurrency
+        // partitions are listed in parallel while splits are already being produced
+        for (int i = 0; i < loaderConcurrency; i++) {
             ResumableTasks.submit(executor, new HiveSplitLoaderTask());
         }
     }
@@ -380,6 +388,7 @@ public class BackgroundHiveSplitLoader
             for (BlockLocation blockLocation : blockLocations) {
                 // get the addresses for the block
                 List<HostAddress> addresses = toHostAddress(blockLocation.getHosts());
+                Optional<HostAddress> preferredNode = getFileCacheNode(path, blockLocation.getOffset());
 
                 long maxBytes = maxSplitSize.toBytes();
 
@@ -407,6 +416,7 @@ public class BackgroundHiveSplitLoader
                             schema,
                             partitionKeys,
                             addresses,
+                            preferredNode,
                             forceLocalScheduling,
                             effectivePredicate));
 
@@ -422,6 +432,7 @@ public class BackgroundHiveSplitLoader
             if (blockLocations.length > 0) {
                 addresses = toHostAddress(blockLocations[0].getHosts());
             }
+            Optional<HostAddress> preferredNode = getFileCacheNode(path, start);
 
             builder.add(new HiveSplit(connectorId,
                     table.getDbName(),
@@ -433,12 +444,27 @@ public class BackgroundHiveSplitLoader
                     schema,
                     partitionKeys,
                     addresses,
+                    preferredNode,
                     forceLocalScheduling,
                     effectivePredicate));
         }
         return builder.build();
     }
 
+    private Optional<HostAddress> getFileCacheNode(String path, long offset)
+    {
+        if (fileCacheNodes.isEmpty()) {
+            return Optional.empty();
+        }
+
+        // the scheduler places the block on this worker unless it is full, while the node set does not change
+        HashCode hash = Hashing.murmur3_128().newHasher()
+                .putString(path, UTF_8)
+                .putLong(offset)
+                .hash();
+        return Optional.of(fileCacheNodes.get(Hashing.consistentHash(hash, fileCacheNodes.size())));
+    }
+
     private static List<HostAddress> toHostAddress(String[] hosts)
     {
         ImmutableList.Builder<HostAddress> builder = ImmutableList.builder();
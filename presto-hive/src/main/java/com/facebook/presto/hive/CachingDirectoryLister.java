@@ -0,0 +1,186 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import io.airlift.stats.CounterStat;
+import io.airlift.units.Duration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.LocatedFileStatus;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.fs.RemoteIterator;
+import org.weakref.jmx.Managed;
+import org.weakref.jmx.Nested;
+
+import javax.inject.Inject;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Caches the files of a directory, as long as the modification time of the
+ * directory does not change. A file added to or removed from the directory
+ * updates its modification time, so a cache hit only costs a single
+ * getFileStatus call instead of a full listing with block locations.
+ * Directories without a modification time are listed every time.
+ */
+public class CachingDirectoryLister
+        implements DirectoryLister
+{
+    private final DirectoryLister delegate;
+    private final Cache<Path, DirectoryListing> cache;
+    private final boolean enabled;
+
+    private final CounterStat hits = new CounterStat();
+    private final CounterStat misses = new CounterStat();
+    private final CounterStat uncacheable = new CounterStat();
+
+    @Inject
+    public CachingDirectoryLister(HiveClientConfig hiveClientConfig)
+    {
+        this(new HadoopDirectoryLister(), hiveClientConfig.getFileStatusCacheMaxSize(), hiveClientConfig.getFileStatusCacheExpireTime());
+    }
+
+    public CachingDirectoryLister(DirectoryLister delegate, long maxCachedFiles, Duration expireTime)
+    {
+        this.delegate = requireNonNull(delegate, "delegate is null");
+        checkArgument(maxCachedFiles >= 0, "maxCachedFiles is negative");
+        requireNonNull(expireTime, "expireTime is null");
+
+        this.enabled = maxCachedFiles > 0;
+        this.cache = CacheBuilder.newBuilder()
+                .maximumWeight(maxCachedFiles)
+                .weigher((Path path, DirectoryListing listing) -> Math.max(1, listing.getFiles().size()))
+                .expireAfterWrite(expireTime.toMillis(), MILLISECONDS)
+                .build();
+    }
+
+    @Override
+    public RemoteIterator<LocatedFileStatus> list(FileSystem fs, Path path)
+            throws IOException
+    {
+        // S3 does not track modification times of directories
+        if (!enabled || (fs instanceof PrestoS3FileSystem)) {
+            uncacheable.update(1);
+            return delegate.list(fs, path);
+        }
+
+        long modificationTime = fs.getFileStatus(path).getModificationTime();
+        if (modificationTime == 0) {
+            uncacheable.update(1);
+            return delegate.list(fs, path);
+        }
+
+        DirectoryListing listing = cache.getIfPresent(path);
+        if ((listing != null) && (listing.getModificationTime() == modificationTime)) {
+            hits.update(1);
+            return new FileStatusIterator(listing.getFiles());
+        }
+
+        misses.update(1);
+        ImmutableList.Builder<LocatedFileStatus> files = ImmutableList.builder();
+        RemoteIterator<LocatedFileStatus> iterator = delegate.list(fs, path);
+        while (iterator.hasNext()) {
+            files.add(iterator.next());
+        }
+        listing = new DirectoryListing(modificationTime, files.build());
+        cache.put(path, listing);
+        return new FileStatusIterator(listing.getFiles());
+    }
+
+    @Managed
+    public void flushCache()
+    {
+        cache.invalidateAll();
+    }
+
+    @Managed
+    public long getCachedDirectories()
+    {
+        return cache.size();
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getHits()
+    {
+        return hits;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getMisses()
+    {
+        return misses;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getUncacheable()
+    {
+        return uncacheable;
+    }
+
+    private static class DirectoryListing
+    {
+        private final long modificationTime;
+        private final List<LocatedFileStatus> files;
+
+        public DirectoryListing(long modificationTime, List<LocatedFileStatus> files)
+        {
+            this.modificationTime = modificationTime;
+            this.files = requireNonNull(files, "files is null");
+        }
+
+        public long getModificationTime()
+        {
+            return modificationTime;
+        }
+
+        public List<LocatedFileStatus> getFiles()
+        {
+            return files;
+        }
+    }
+
+    private static class FileStatusIterator
+            implements RemoteIterator<LocatedFileStatus>
+    {
+        private final Iterator<LocatedFileStatus> iterator;
+
+        public FileStatusIterator(List<LocatedFileStatus> files)
+        {
+            this.iterator = files.iterator();
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return iterator.hasNext();
+        }
+
+        @Override
+        public LocatedFileStatus next()
+        {
+            return iterator.next();
+        }
+    }
+}
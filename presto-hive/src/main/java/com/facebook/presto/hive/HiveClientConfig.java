@@ -35,6 +35,7 @@ import java.util.List;
 import java.util.TimeZone;
 import java.util.concurrent.TimeUnit;
 
+import static io.airlift.units.DataSize.Unit.GIGABYTE;
 import static io.airlift.units.DataSize.Unit.MEGABYTE;
 
 @DefunctConfig({
@@ -50,6 +51,7 @@ public class HiveClientConfig
     private DataSize maxSplitSize = new DataSize(64, MEGABYTE);
     private int maxOutstandingSplits = 1_000;
     private int maxSplitIteratorThreads = 1_000;
+    private int splitLoaderConcurrency = 100;
     private int minPartitionBatchSize = 10;
     private int maxPartitionBatchSize = 100;
     private int maxInitialSplits = 200;
@@ -70,6 +72,9 @@ public class HiveClientConfig
     private HostAndPort metastoreSocksProxy;
     private Duration metastoreTimeout = new Duration(10, TimeUnit.SECONDS);
 
+    private long fileStatusCacheMaxSize = 1_000_000;
+    private Duration fileStatusCacheExpireTime = new Duration(1, TimeUnit.HOURS);
+
     private Duration dfsTimeout = new Duration(10, TimeUnit.SECONDS);
     private Duration dfsConnectTimeout = new Duration(500, TimeUnit.MILLISECONDS);
     private int dfsConnectMaxRetries = 5;
@@ -106,6 +111,12 @@ public class HiveClientConfig
     private DataSize orcMaxMergeDistance = new DataSize(1, MEGABYTE);
     private DataSize orcMaxBufferSize = new DataSize(8, MEGABYTE);
     private DataSize orcStreamBufferSize = new DataSize(8, MEGABYTE);
+    private boolean orcStripePrefetchEnabled;
+
+    private boolean fileCacheEnabled;
+    private File fileCacheDirectory = new File(StandardSystemProperty.JAVA_IO_TMPDIR.value(), "presto-hive-file-cache");
+    private DataSize fileCacheMaxSize = new DataSize(10, GIGABYTE);
+    private DataSize fileCacheMaxRangeSize = new DataSize(16, MEGABYTE);
 
     public int getMaxInitialSplits()
     {
@@ -229,6 +240,20 @@ public class HiveClientConfig
         return this;
     }
 
+    @Min(1)
+    public int getSplitLoaderConcurrency()
+    {
+        return splitLoaderConcurrency;
+    }
+
+    @Config("hive.split-loader-concurrency")
+    @ConfigDescription("Number of partitions listed concurrently when generating the splits of a query")
+    public HiveClientConfig setSplitLoaderConcurrency(int splitLoaderConcurrency)
+    {
+        this.splitLoaderConcurrency = splitLoaderConcurrency;
+        return this;
+    }
+
     public boolean getAllowRenameTable()
     {
         return this.allowRenameTable;
@@ -335,6 +360,33 @@ public class HiveClientConfig
         return this;
     }
 
+    @Min(0)
+    public long getFileStatusCacheMaxSize()
+    {
+        return fileStatusCacheMaxSize;
+    }
+
+    @Config("hive.file-status-cache-size")
+    @ConfigDescription("Maximum number of file statuses cached for directory listings, 0 disables the cache")
+    public HiveClientConfig setFileStatusCacheMaxSize(long fileStatusCacheMaxSize)
+    {
+        this.fileStatusCacheMaxSize = fileStatusCacheMaxSize;
+        return this;
+    }
+
+    @NotNull
+    public Duration getFileStatusCacheExpireTime()
+    {
+        return fileStatusCacheExpireTime;
+    }
+
+    @Config("hive.file-status-cache-expire-time")
+    public HiveClientConfig setFileStatusCacheExpireTime(Duration fileStatusCacheExpireTime)
+    {
+        this.fileStatusCacheExpireTime = fileStatusCacheExpireTime;
+        return this;
+    }
+
     public HostAndPort getMetastoreSocksProxy()
     {
         return metastoreSocksProxy;
@@ -750,6 +802,19 @@ public class HiveClientConfig
         return this;
     }
 
+    public boolean isOrcStripePrefetchEnabled()
+    {
+        return orcStripePrefetchEnabled;
+    }
+
+    @Config("hive.orc.stripe-prefetch-enabled")
+    @ConfigDescription("Read the next ORC stripe in the background while the current stripe is processed")
+    public HiveClientConfig setOrcStripePrefetchEnabled(boolean orcStripePrefetchEnabled)
+    {
+        this.orcStripePrefetchEnabled = orcStripePrefetchEnabled;
+        return this;
+    }
+
     public boolean isAssumeCanonicalPartitionKeys()
     {
         return assumeCanonicalPartitionKeys;
@@ -774,4 +839,59 @@ public class HiveClientConfig
         this.useParquetColumnNames = useParquetColumnNames;
         return this;
     }
+
+    public boolean isFileCacheEnabled()
+    {
+        return fileCacheEnabled;
+    }
+
+    @Config("hive.file-cache.enabled")
+    @ConfigDescription("Cache ranges of ORC and Parquet files read from the file system on local disk")
+    public HiveClientConfig setFileCacheEnabled(boolean fileCacheEnabled)
+    {
+        this.fileCacheEnabled = fileCacheEnabled;
+        return this;
+    }
+
+    @NotNull
+    public File getFileCacheDirectory()
+    {
+        return fileCacheDirectory;
+    }
+
+    @Config("hive.file-cache.directory")
+    @ConfigDescription("Local directory for the cached file ranges, which is cleared on startup")
+    public HiveClientConfig setFileCacheDirectory(File fileCacheDirectory)
+    {
+        this.fileCacheDirectory = fileCacheDirectory;
+        return this;
+    }
+
+    @NotNull
+    public DataSize getFileCacheMaxSize()
+    {
+        return fileCacheMaxSize;
+    }
+
+    @Config("hive.file-cache.max-size")
+    @ConfigDescription("Maximum size of the cached file ranges on local disk")
+    public HiveClientConfig setFileCacheMaxSize(DataSize fileCacheMaxSize)
+    {
+        this.fileCacheMaxSize = fileCacheMaxSize;
+        return this;
+    }
+
+    @NotNull
+    public DataSize getFileCacheMaxRangeSize()
+    {
+        return fileCacheMaxRangeSize;
+    }
+
+    @Config("hive.file-cache.max-range-size")
+    @ConfigDescription("Maximum size of a single cached file range")
+    public HiveClientConfig setFileCacheMaxRangeSize(DataSize fileCacheMaxRangeSize)
+    {
+        this.fileCacheMaxRangeSize = fileCacheMaxRangeSize;
+        return this;
+    }
 }
@@ -27,6 +27,7 @@ import com.facebook.presto.spi.ConnectorMetadata;
 import com.facebook.presto.spi.ConnectorPageSourceProvider;
 import com.facebook.presto.spi.ConnectorRecordSinkProvider;
 import com.facebook.presto.spi.ConnectorSplitManager;
+import com.facebook.presto.spi.NodeManager;
 import com.facebook.presto.spi.type.TypeManager;
 import com.google.inject.Binder;
 import com.google.inject.Module;
@@ -51,12 +52,14 @@ public class HiveClientModule
     private final String connectorId;
     private final HiveMetastore metastore;
     private final TypeManager typeManager;
+    private final NodeManager nodeManager;
 
-    public HiveClientModule(String connectorId, HiveMetastore metastore, TypeManager typeManager)
+    public HiveClientModule(String connectorId, HiveMetastore metastore, TypeManager typeManager, NodeManager nodeManager)
     {
         this.connectorId = connectorId;
         this.metastore = metastore;
         this.typeManager = typeManager;
+        this.nodeManager = nodeManager;
     }
 
     @Override
@@ -67,7 +70,8 @@ public class HiveClientModule
         binder.bind(HdfsConfigurationUpdater.class).in(Scopes.SINGLETON);
         binder.bind(HdfsConfiguration.class).to(HiveHdfsConfiguration.class).in(Scopes.SINGLETON);
         binder.bind(HdfsEnvironment.class).in(Scopes.SINGLETON);
-        binder.bind(DirectoryLister.class).to(HadoopDirectoryLister.class).in(Scopes.SINGLETON);
+        binder.bind(DirectoryLister.class).to(CachingDirectoryLister.class).in(Scopes.SINGLETON);
+        newExporter(binder).export(DirectoryLister.class).as(generatedNameOf(CachingDirectoryLister.class, connectorId));
         configBinder(binder).bindConfig(HiveClientConfig.class);
 
         binder.bind(HiveSessionProperties.class).in(Scopes.SINGLETON);
@@ -90,6 +94,10 @@ public class HiveClientModule
         configBinder(binder).bindConfig(StaticMetastoreConfig.class);
 
         binder.bind(TypeManager.class).toInstance(typeManager);
+        binder.bind(NodeManager.class).toInstance(nodeManager);
+
+        binder.bind(HiveFileCache.class).in(Scopes.SINGLETON);
+        newExporter(binder).export(HiveFileCache.class).as(generatedNameOf(HiveFileCache.class, connectorId));
 
         Multibinder<HiveRecordCursorProvider> recordCursorProviderBinder = Multibinder.newSetBinder(binder, HiveRecordCursorProvider.class);
         recordCursorProviderBinder.addBinding().to(OrcRecordCursorProvider.class).in(Scopes.SINGLETON);
@@ -0,0 +1,372 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.airlift.log.Logger;
+import io.airlift.stats.CounterStat;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FSInputStream;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.weakref.jmx.Managed;
+import org.weakref.jmx.Nested;
+
+import javax.inject.Inject;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Caches ranges of files read from a remote file system, such as S3, on local disk.
+ * A range is identified by the path and modification time of the file, so a range
+ * of a file that was replaced is not read from the cache. Only positioned reads of
+ * whole ranges are cached, which is how the ORC and Parquet readers read the files.
+ */
+public class HiveFileCache
+{
+    private static final Logger log = Logger.get(HiveFileCache.class);
+
+    private static final String RANGE_FILE_SUFFIX = ".range";
+
+    private final boolean enabled;
+    private final File directory;
+    private final long maxRangeSize;
+    private final Cache<FileRange, File> ranges;
+    private final AtomicLong nextRangeFileId = new AtomicLong();
+
+    private final CounterStat hits = new CounterStat();
+    private final CounterStat misses = new CounterStat();
+    private final CounterStat bytesReadFromCache = new CounterStat();
+    private final CounterStat bytesReadFromFileSystem = new CounterStat();
+
+    public HiveFileCache()
+    {
+        this(new HiveConnectorId("hive"), new HiveClientConfig());
+    }
+
+    @Inject
+    public HiveFileCache(HiveConnectorId connectorId, HiveClientConfig config)
+    {
+        requireNonNull(connectorId, "connectorId is null");
+        requireNonNull(config, "config is null");
+        this.enabled = config.isFileCacheEnabled();
+        this.directory = new File(config.getFileCacheDirectory(), connectorId.toString());
+        this.maxRangeSize = config.getFileCacheMaxRangeSize().toBytes();
+        this.ranges = CacheBuilder.newBuilder()
+                .maximumWeight(config.getFileCacheMaxSize().toBytes())
+                .<FileRange, File>weigher((range, file) -> range.getLength())
+                .removalListener(notification -> deleteRangeFile(notification.getValue()))
+                .build();
+
+        if (enabled) {
+            initializeDirectory(directory);
+        }
+    }
+
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    /**
+     * Opens the file, looking up its modification time if the cache is enabled.
+     */
+    public FSDataInputStream open(FileSystem fileSystem, Path path)
+            throws IOException
+    {
+        if (!enabled) {
+            return fileSystem.open(path);
+        }
+        return open(fileSystem, fileSystem.getFileStatus(path));
+    }
+
+    public FSDataInputStream open(FileSystem fileSystem, FileStatus fileStatus)
+            throws IOException
+    {
+        FSDataInputStream inputStream = fileSystem.open(fileStatus.getPath());
+        if (!enabled) {
+            return inputStream;
+        }
+        return new FSDataInputStream(new CachingInputStream(inputStream, fileStatus.getPath().toString(), fileStatus.getModificationTime()));
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getHits()
+    {
+        return hits;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getMisses()
+    {
+        return misses;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getBytesReadFromCache()
+    {
+        return bytesReadFromCache;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getBytesReadFromFileSystem()
+    {
+        return bytesReadFromFileSystem;
+    }
+
+    @Managed
+    public double getHitRate()
+    {
+        long hitCount = hits.getTotalCount();
+        long requestCount = hitCount + misses.getTotalCount();
+        return requestCount == 0 ? 1.0 : ((double) hitCount) / requestCount;
+    }
+
+    @Managed
+    public long getCachedRanges()
+    {
+        return ranges.size();
+    }
+
+    @Managed
+    public long getCachedBytes()
+    {
+        return ranges.asMap().keySet().stream()
+                .mapToLong(FileRange::getLength)
+                .sum();
+    }
+
+    @Managed
+    public void flush()
+    {
+        ranges.invalidateAll();
+    }
+
+    private void readFully(FSDataInputStream inputStream, FileRange range, byte[] buffer, int offset)
+            throws IOException
+    {
+        File rangeFile = ranges.getIfPresent(range);
+        if (rangeFile != null && readRangeFile(rangeFile, buffer, offset, range.getLength())) {
+            hits.update(1);
+            bytesReadFromCache.update(range.getLength());
+            return;
+        }
+
+        misses.update(1);
+        inputStream.readFully(range.getPosition(), buffer, offset, range.getLength());
+        bytesReadFromFileSystem.update(range.getLength());
+
+        File newRangeFile = new File(directory, nextRangeFileId.incrementAndGet() + RANGE_FILE_SUFFIX);
+        try (OutputStream output = new FileOutputStream(newRangeFile)) {
+            output.write(buffer, offset, range.getLength());
+        }
+        catch (IOException e) {
+            // the range is still returned to the reader, it is just not cached
+            log.warn(e, "Error writing cached range to %s", newRangeFile);
+            deleteRangeFile(newRangeFile);
+            return;
+        }
+        ranges.put(range, newRangeFile);
+    }
+
+    private static boolean readRangeFile(File rangeFile, byte[] buffer, int offset, int length)
+    {
+        // the file may have been evicted after the lookup
+        try (RandomAccessFile file = new RandomAccessFile(rangeFile, "r")) {
+            file.readFully(buffer, offset, length);
+            return true;
+        }
+        catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static void deleteRangeFile(File rangeFile)
+    {
+        if (!rangeFile.delete() && rangeFile.exists()) {
+            log.warn("Could not delete cached range %s", rangeFile);
+        }
+    }
+
+    private static void initializeDirectory(File directory)
+    {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IllegalArgumentException("Could not create file cache directory: " + directory);
+        }
+
+        // ranges cached by an earlier process are not tracked, so remove them
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(RANGE_FILE_SUFFIX));
+        if (files != null) {
+            for (File file : files) {
+                deleteRangeFile(file);
+            }
+        }
+    }
+
+    private class CachingInputStream
+            extends FSInputStream
+    {
+        private final FSDataInputStream delegate;
+        private final String path;
+        private final long modificationTime;
+
+        public CachingInputStream(FSDataInputStream delegate, String path, long modificationTime)
+        {
+            this.delegate = requireNonNull(delegate, "delegate is null");
+            this.path = requireNonNull(path, "path is null");
+            this.modificationTime = modificationTime;
+        }
+
+        @Override
+        public void readFully(long position, byte[] buffer, int offset, int length)
+                throws IOException
+        {
+            if (length == 0 || length > maxRangeSize) {
+                delegate.readFully(position, buffer, offset, length);
+                return;
+            }
+            HiveFileCache.this.readFully(delegate, new FileRange(path, modificationTime, position, length), buffer, offset);
+        }
+
+        @Override
+        public int read(long position, byte[] buffer, int offset, int length)
+                throws IOException
+        {
+            return delegate.read(position, buffer, offset, length);
+        }
+
+        @Override
+        public int read()
+                throws IOException
+        {
+            return delegate.read();
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length)
+                throws IOException
+        {
+            return delegate.read(buffer, offset, length);
+        }
+
+        @Override
+        public void seek(long position)
+                throws IOException
+        {
+            delegate.seek(position);
+        }
+
+        @Override
+        public long getPos()
+                throws IOException
+        {
+            return delegate.getPos();
+        }
+
+        @Override
+        public boolean seekToNewSource(long targetPosition)
+                throws IOException
+        {
+            return delegate.seekToNewSource(targetPosition);
+        }
+
+        @Override
+        public int available()
+                throws IOException
+        {
+            return delegate.available();
+        }
+
+        @Override
+        public void close()
+                throws IOException
+        {
+            delegate.close();
+        }
+    }
+
+    private static final class FileRange
+    {
+        private final String path;
+        private final long modificationTime;
+        private final long position;
+        private final int length;
+
+        public FileRange(String path, long modificationTime, long position, int length)
+        {
+            this.path = requireNonNull(path, "path is null");
+            this.modificationTime = modificationTime;
+            this.position = position;
+            this.length = length;
+        }
+
+        public long getPosition()
+        {
+            return position;
+        }
+
+        public int getLength()
+        {
+            return length;
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            FileRange other = (FileRange) obj;
+            return Objects.equals(this.path, other.path) &&
+                    this.modificationTime == other.modificationTime &&
+                    this.position == other.position &&
+                    this.length == other.length;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(path, modificationTime, position, length);
+        }
+
+        @Override
+        public String toString()
+        {
+            return toStringHelper(this)
+                    .add("path", path)
+                    .add("modificationTime", modificationTime)
+                    .add("position", position)
+                    .add("length", length)
+                    .toString();
+        }
+    }
+}
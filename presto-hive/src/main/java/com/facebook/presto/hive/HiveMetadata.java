@@ -31,21 +31,27 @@ import com.facebook.presto.spi.PrestoException;
 import com.facebook.presto.spi.SchemaNotFoundException;
 import com.facebook.presto.spi.SchemaTableName;
 import com.facebook.presto.spi.SchemaTablePrefix;
+import com.facebook.presto.spi.SerializableNativeValue;
 import com.facebook.presto.spi.TableNotFoundException;
 import com.facebook.presto.spi.TupleDomain;
 import com.facebook.presto.spi.ViewNotFoundException;
+import com.facebook.presto.spi.statistics.ColumnStatistics;
+import com.facebook.presto.spi.statistics.Estimate;
+import com.facebook.presto.spi.statistics.TableStatistics;
 import com.facebook.presto.spi.type.Type;
 import com.facebook.presto.spi.type.TypeManager;
 import com.google.common.base.Function;
 import com.google.common.base.StandardSystemProperty;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
 import io.airlift.log.Logger;
 import io.airlift.slice.Slice;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.hive.metastore.TableType;
 import org.apache.hadoop.hive.metastore.api.Database;
 import org.apache.hadoop.hive.metastore.api.FieldSchema;
+import org.apache.hadoop.hive.metastore.api.Partition;
 import org.apache.hadoop.hive.metastore.api.PrincipalPrivilegeSet;
 import org.apache.hadoop.hive.metastore.api.PrincipalType;
 import org.apache.hadoop.hive.metastore.api.PrivilegeGrantInfo;
@@ -58,9 +64,12 @@ import javax.inject.Inject;
 
 import java.io.IOException;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
 
@@ -71,6 +80,7 @@ import static com.facebook.presto.hive.HiveErrorCode.HIVE_INVALID_METADATA;
 import static com.facebook.presto.hive.HiveErrorCode.HIVE_PATH_ALREADY_EXISTS;
 import static com.facebook.presto.hive.HiveErrorCode.HIVE_TIMEZONE_MISMATCH;
 import static com.facebook.presto.hive.HiveErrorCode.HIVE_UNSUPPORTED_FORMAT;
+import static com.facebook.presto.hive.HivePartition.UNPARTITIONED_ID;
 import static com.facebook.presto.hive.HiveTableProperties.STORAGE_FORMAT_PROPERTY;
 import static com.facebook.presto.hive.HiveTableProperties.getHiveStorageFormat;
 import static com.facebook.presto.hive.HiveUtil.PRESTO_VIEW_FLAG;
@@ -99,6 +109,12 @@ public class HiveMetadata
 {
     private static final Logger log = Logger.get(HiveMetadata.class);
 
+    private static final String ROW_COUNT_PARAMETER = "numRows";
+    private static final int MAX_PARTITIONS_FOR_STATISTICS = 1_000;
+    private static final int STATISTICS_PARTITION_BATCH_SIZE = 100;
+    private static final String DDL_TIME_PARAMETER = "transient_lastDdlTime";
+    private static final int MAX_PARTITIONS_FOR_DATA_VERSION = 1_000;
+
     private final String connectorId;
     private final boolean allowDropTable;
     private final boolean allowRenameTable;
@@ -853,6 +869,139 @@ public class HiveMetadata
         return new ConnectorTableLayout(hiveLayoutHandle, Optional.empty(), predicate, Optional.empty(), Optional.of(partitionDomains), ImmutableList.of());
     }
 
+    @Override
+    public TableStatistics getTableStatistics(ConnectorSession session, ConnectorTableHandle tableHandle, Constraint<ColumnHandle> constraint)
+    {
+        HiveTableHandle handle = checkType(tableHandle, HiveTableHandle.class, "tableHandle");
+
+        List<HivePartition> partitions = partitionManager.getPartitions(session, metastore, tableHandle, constraint.getSummary()).getPartitions();
+        if (partitions.isEmpty()) {
+            return new TableStatistics(Estimate.of(0), ImmutableMap.of());
+        }
+        if (partitions.size() > MAX_PARTITIONS_FOR_STATISTICS) {
+            // loading the parameters of this many partitions is too expensive for planning
+            return TableStatistics.empty();
+        }
+
+        Map<String, Map<String, String>> partitionParameters = getPartitionParameters(handle.getSchemaTableName(), partitions);
+        ImmutableMap.Builder<String, Long> partitionRowCounts = ImmutableMap.builder();
+        long rowCount = 0;
+        for (HivePartition partition : partitions) {
+            Map<String, String> parameters = partitionParameters.get(partition.getPartitionId());
+            OptionalLong partitionRowCount = parameters == null ? OptionalLong.empty() : getRowCount(parameters);
+            if (!partitionRowCount.isPresent()) {
+                // the partition has not been analyzed
+                return TableStatistics.empty();
+            }
+            partitionRowCounts.put(partition.getPartitionId(), partitionRowCount.getAsLong());
+            rowCount += partitionRowCount.getAsLong();
+        }
+
+        return new TableStatistics(Estimate.of(rowCount), getPartitionKeyStatistics(partitions, partitionRowCounts.build(), rowCount));
+    }
+
+    @Override
+    public Optional<Object> getDataVersion(ConnectorSession session, ConnectorTableHandle tableHandle, Optional<ConnectorTableLayoutHandle> layoutHandle)
+    {
+        HiveTableHandle handle = checkType(tableHandle, HiveTableHandle.class, "tableHandle");
+        if (!layoutHandle.isPresent()) {
+            return Optional.empty();
+        }
+
+        List<HivePartition> partitions = checkType(layoutHandle.get(), HiveTableLayoutHandle.class, "layoutHandle").getPartitions();
+        if (partitions.size() > MAX_PARTITIONS_FOR_DATA_VERSION) {
+            return Optional.empty();
+        }
+
+        // The metastore updates the DDL time of a table or partition whenever it is altered, which includes
+        // writes through Hive, but files that are changed directly on the file system are not detected
+        Map<String, Map<String, String>> partitionParameters = getPartitionParameters(handle.getSchemaTableName(), partitions);
+        ImmutableMap.Builder<String, String> version = ImmutableMap.builder();
+        for (HivePartition partition : partitions) {
+            Map<String, String> parameters = partitionParameters.get(partition.getPartitionId());
+            String ddlTime = parameters == null ? null : parameters.get(DDL_TIME_PARAMETER);
+            if (ddlTime == null) {
+                return Optional.empty();
+            }
+            version.put(partition.getPartitionId(), ddlTime);
+        }
+        return Optional.of(version.build());
+    }
+
+    private Map<String, Map<String, String>> getPartitionParameters(SchemaTableName tableName, List<HivePartition> partitions)
+    {
+        if (partitions.size() == 1 && partitions.get(0).getPartitionId().equals(UNPARTITIONED_ID)) {
+            Table table = metastore.getTable(tableName.getSchemaName(), tableName.getTableName())
+                    .orElseThrow(() -> new TableNotFoundException(tableName));
+            return ImmutableMap.of(UNPARTITIONED_ID, table.getParameters());
+        }
+
+        ImmutableMap.Builder<String, Map<String, String>> parameters = ImmutableMap.builder();
+        for (List<HivePartition> batch : Lists.partition(partitions, STATISTICS_PARTITION_BATCH_SIZE)) {
+            Optional<Map<String, Partition>> partitionsByName = metastore.getPartitionsByNames(
+                    tableName.getSchemaName(),
+                    tableName.getTableName(),
+                    Lists.transform(batch, HivePartition::getPartitionId));
+            if (!partitionsByName.isPresent()) {
+                return ImmutableMap.of();
+            }
+            for (Map.Entry<String, Partition> entry : partitionsByName.get().entrySet()) {
+                parameters.put(entry.getKey(), entry.getValue().getParameters());
+            }
+        }
+        return parameters.build();
+    }
+
+    private static OptionalLong getRowCount(Map<String, String> parameters)
+    {
+        String rowCount = parameters.get(ROW_COUNT_PARAMETER);
+        if (rowCount == null) {
+            return OptionalLong.empty();
+        }
+        try {
+            long value = Long.parseLong(rowCount);
+            // Hive stores -1 when the statistics are not accurate
+            return value < 0 ? OptionalLong.empty() : OptionalLong.of(value);
+        }
+        catch (NumberFormatException e) {
+            return OptionalLong.empty();
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Map<ColumnHandle, ColumnStatistics> getPartitionKeyStatistics(List<HivePartition> partitions, Map<String, Long> partitionRowCounts, long rowCount)
+    {
+        if (partitions.get(0).getPartitionId().equals(UNPARTITIONED_ID)) {
+            return ImmutableMap.of();
+        }
+
+        Map<ColumnHandle, Set<Comparable<?>>> distinctValues = new HashMap<>();
+        Map<ColumnHandle, Long> nullCounts = new HashMap<>();
+        for (HivePartition partition : partitions) {
+            long partitionRowCount = partitionRowCounts.get(partition.getPartitionId());
+            for (Map.Entry<ColumnHandle, SerializableNativeValue> entry : partition.getKeys().entrySet()) {
+                Set<Comparable<?>> values = distinctValues.computeIfAbsent(entry.getKey(), column -> new HashSet<>());
+                Comparable<?> value = entry.getValue().getValue();
+                if (value == null) {
+                    nullCounts.merge(entry.getKey(), partitionRowCount, Long::sum);
+                }
+                else {
+                    values.add(value);
+                }
+            }
+        }
+
+        ImmutableMap.Builder<ColumnHandle, ColumnStatistics> statistics = ImmutableMap.builder();
+        for (Map.Entry<ColumnHandle, Set<Comparable<?>>> entry : distinctValues.entrySet()) {
+            Set<Comparable<?>> values = entry.getValue();
+            double nullsFraction = rowCount == 0 ? 0 : (double) nullCounts.getOrDefault(entry.getKey(), 0L) / rowCount;
+            Optional<Comparable<?>> min = values.stream().min((a, b) -> ((Comparable) a).compareTo(b));
+            Optional<Comparable<?>> max = values.stream().max((a, b) -> ((Comparable) a).compareTo(b));
+            statistics.put(entry.getKey(), new ColumnStatistics(Estimate.of(nullsFraction), Estimate.of(values.size()), min, max));
+        }
+        return statistics.build();
+    }
+
     @Override
     public String toString()
     {
@@ -18,7 +18,10 @@ import com.facebook.presto.spi.ConnectorPageSource;
 import com.facebook.presto.spi.ConnectorPageSourceProvider;
 import com.facebook.presto.spi.ConnectorSession;
 import com.facebook.presto.spi.ConnectorSplit;
+import com.facebook.presto.spi.Domain;
+import com.facebook.presto.spi.FixedPageSource;
 import com.facebook.presto.spi.RecordPageSource;
+import com.facebook.presto.spi.SerializableNativeValue;
 import com.facebook.presto.spi.TupleDomain;
 import com.facebook.presto.spi.type.Type;
 import com.facebook.presto.spi.type.TypeManager;
@@ -31,10 +34,12 @@ import org.joda.time.DateTimeZone;
 import javax.inject.Inject;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.Set;
 
+import static com.facebook.presto.hive.HiveUtil.parsePartitionValue;
 import static com.facebook.presto.hive.util.Types.checkType;
 import static com.google.common.collect.Iterables.transform;
 import static java.util.Objects.requireNonNull;
@@ -67,6 +72,12 @@ public class HivePageSourceProvider
 
     @Override
     public ConnectorPageSource createPageSource(ConnectorSession session, ConnectorSplit split, List<ColumnHandle> columns)
+    {
+        return createPageSource(session, split, columns, TupleDomain.all());
+    }
+
+    @Override
+    public ConnectorPageSource createPageSource(ConnectorSession session, ConnectorSplit split, List<ColumnHandle> columns, TupleDomain<ColumnHandle> dynamicFilter)
     {
         HiveSplit hiveSplit = checkType(split, HiveSplit.class, "split");
 
@@ -78,11 +89,16 @@ public class HivePageSourceProvider
 
         Configuration configuration = hdfsEnvironment.getConfiguration(path);
 
-        TupleDomain<HiveColumnHandle> effectivePredicate = hiveSplit.getEffectivePredicate();
+        // the dynamic filter is used by the readers to skip stripes and row groups like any other predicate
+        TupleDomain<HiveColumnHandle> effectivePredicate = hiveSplit.getEffectivePredicate()
+                .intersect(dynamicFilter.transform(HiveColumnHandle::toHiveColumnHandle));
 
         Properties schema = hiveSplit.getSchema();
 
         List<HivePartitionKey> partitionKeys = hiveSplit.getPartitionKeys();
+        if (effectivePredicate.isNone() || !partitionMatches(hiveSplit.getPartitionName(), partitionKeys, effectivePredicate)) {
+            return new FixedPageSource(ImmutableList.of());
+        }
         List<HiveColumnHandle> hiveColumns = ImmutableList.copyOf(transform(columns, HiveColumnHandle::toHiveColumnHandle));
 
         for (HivePageSourceFactory pageSourceFactory : pageSourceFactories) {
@@ -112,6 +128,25 @@ public class HivePageSourceProvider
         throw new RuntimeException("Could not find a file reader for split " + hiveSplit);
     }
 
+    private boolean partitionMatches(String partitionName, List<HivePartitionKey> partitionKeys, TupleDomain<HiveColumnHandle> effectivePredicate)
+    {
+        for (Map.Entry<HiveColumnHandle, Domain> entry : effectivePredicate.getDomains().entrySet()) {
+            HiveColumnHandle column = entry.getKey();
+            if (!column.isPartitionKey()) {
+                continue;
+            }
+            for (HivePartitionKey partitionKey : partitionKeys) {
+                if (partitionKey.getName().equals(column.getName())) {
+                    SerializableNativeValue value = parsePartitionValue(partitionName, partitionKey.getValue(), partitionKey.getHiveType(), hiveStorageTimeZone);
+                    if (!entry.getValue().includesValue(value.getValue())) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
     protected HiveRecordCursor getHiveRecordCursor(
             String clientId,
             ConnectorSession session,
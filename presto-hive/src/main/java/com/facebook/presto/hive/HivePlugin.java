@@ -15,6 +15,7 @@ package com.facebook.presto.hive;
 
 import com.facebook.presto.hive.metastore.HiveMetastore;
 import com.facebook.presto.spi.ConnectorFactory;
+import com.facebook.presto.spi.NodeManager;
 import com.facebook.presto.spi.Plugin;
 import com.facebook.presto.spi.type.TypeManager;
 import com.google.common.collect.ImmutableList;
@@ -36,6 +37,7 @@ public class HivePlugin
     private Map<String, String> optionalConfig = ImmutableMap.of();
     private HiveMetastore metastore;
     private TypeManager typeManager;
+    private NodeManager nodeManager;
 
     public HivePlugin(String name)
     {
@@ -55,6 +57,12 @@ public class HivePlugin
         this.typeManager = requireNonNull(typeManager, "typeManager is null");
     }
 
+    @Inject
+    public void setNodeManager(NodeManager nodeManager)
+    {
+        this.nodeManager = requireNonNull(nodeManager, "nodeManager is null");
+    }
+
     @Override
     public void setOptionalConfig(Map<String, String> optionalConfig)
     {
@@ -65,7 +73,7 @@ public class HivePlugin
     public <T> List<T> getServices(Class<T> type)
     {
         if (type == ConnectorFactory.class) {
-            return ImmutableList.of(type.cast(new HiveConnectorFactory(name, optionalConfig, getClassLoader(), metastore, typeManager)));
+            return ImmutableList.of(type.cast(new HiveConnectorFactory(name, optionalConfig, getClassLoader(), metastore, typeManager, nodeManager)));
         }
         return ImmutableList.of();
     }
@@ -22,6 +22,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.Properties;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
@@ -38,6 +39,7 @@ public class HiveSplit
     private final Properties schema;
     private final List<HivePartitionKey> partitionKeys;
     private final List<HostAddress> addresses;
+    private final Optional<HostAddress> preferredNode;
     private final String database;
     private final String table;
     private final String partitionName;
@@ -56,6 +58,7 @@ public class HiveSplit
             @JsonProperty("schema") Properties schema,
             @JsonProperty("partitionKeys") List<HivePartitionKey> partitionKeys,
             @JsonProperty("addresses") List<HostAddress> addresses,
+            @JsonProperty("preferredNode") Optional<HostAddress> preferredNode,
             @JsonProperty("forceLocalScheduling") boolean forceLocalScheduling,
             @JsonProperty("effectivePredicate") TupleDomain<HiveColumnHandle> effectivePredicate)
     {
@@ -69,6 +72,7 @@ public class HiveSplit
         requireNonNull(schema, "schema is null");
         requireNonNull(partitionKeys, "partitionKeys is null");
         requireNonNull(addresses, "addresses is null");
+        requireNonNull(preferredNode, "preferredNode is null");
         requireNonNull(effectivePredicate, "tupleDomain is null");
 
         this.clientId = clientId;
@@ -81,6 +85,7 @@ public class HiveSplit
         this.schema = schema;
         this.partitionKeys = ImmutableList.copyOf(partitionKeys);
         this.addresses = ImmutableList.copyOf(addresses);
+        this.preferredNode = preferredNode;
         this.forceLocalScheduling = forceLocalScheduling;
         this.effectivePredicate = effectivePredicate;
     }
@@ -146,6 +151,13 @@ public class HiveSplit
         return addresses;
     }
 
+    @JsonProperty
+    @Override
+    public Optional<HostAddress> getPreferredNode()
+    {
+        return preferredNode;
+    }
+
     @JsonProperty
     public TupleDomain<HiveColumnHandle> getEffectivePredicate()
     {
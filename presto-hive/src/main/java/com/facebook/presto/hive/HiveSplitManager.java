@@ -20,6 +20,9 @@ import com.facebook.presto.spi.ConnectorSplitManager;
 import com.facebook.presto.spi.ConnectorSplitSource;
 import com.facebook.presto.spi.ConnectorTableLayoutHandle;
 import com.facebook.presto.spi.FixedSplitSource;
+import com.facebook.presto.spi.HostAddress;
+import com.facebook.presto.spi.Node;
+import com.facebook.presto.spi.NodeManager;
 import com.facebook.presto.spi.PrestoException;
 import com.facebook.presto.spi.SchemaTableName;
 import com.facebook.presto.spi.TableNotFoundException;
@@ -41,6 +44,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.RejectedExecutionException;
@@ -62,6 +66,7 @@ import static com.google.common.collect.Iterables.transform;
 import static java.lang.Math.min;
 import static java.lang.String.format;
 import static java.util.Objects.requireNonNull;
+import static java.util.stream.Collectors.toList;
 import static org.apache.hadoop.hive.metastore.ProtectMode.getProtectModeFromString;
 
 public class HiveSplitManager
@@ -78,10 +83,12 @@ public class HiveSplitManager
     private final int maxOutstandingSplits;
     private final int minPartitionBatchSize;
     private final int maxPartitionBatchSize;
+    private final int splitLoaderConcurrency;
     private final DataSize maxSplitSize;
     private final DataSize maxInitialSplitSize;
     private final int maxInitialSplits;
     private final boolean recursiveDfsWalkerEnabled;
+    private final Optional<NodeManager> fileCacheAffinity;
 
     @Inject
     public HiveSplitManager(
@@ -91,7 +98,8 @@ public class HiveSplitManager
             NamenodeStats namenodeStats,
             HdfsEnvironment hdfsEnvironment,
             DirectoryLister directoryLister,
-            @ForHiveClient ExecutorService executorService)
+            @ForHiveClient ExecutorService executorService,
+            NodeManager nodeManager)
     {
         this(connectorId,
                 metastore,
@@ -102,10 +110,12 @@ public class HiveSplitManager
                 hiveClientConfig.getMaxOutstandingSplits(),
                 hiveClientConfig.getMinPartitionBatchSize(),
                 hiveClientConfig.getMaxPartitionBatchSize(),
+                hiveClientConfig.getSplitLoaderConcurrency(),
                 hiveClientConfig.getMaxSplitSize(),
                 hiveClientConfig.getMaxInitialSplitSize(),
                 hiveClientConfig.getMaxInitialSplits(),
-                hiveClientConfig.getRecursiveDirWalkerEnabled()
+                hiveClientConfig.getRecursiveDirWalkerEnabled(),
+                hiveClientConfig.isFileCacheEnabled() ? Optional.of(nodeManager) : Optional.empty()
         );
     }
 
@@ -119,10 +129,48 @@ public class HiveSplitManager
             int maxOutstandingSplits,
             int minPartitionBatchSize,
             int maxPartitionBatchSize,
+            int splitLoaderConcurrency,
             DataSize maxSplitSize,
             DataSize maxInitialSplitSize,
             int maxInitialSplits,
             boolean recursiveDfsWalkerEnabled)
+    {
+        this(connectorId,
+                metastore,
+                namenodeStats,
+                hdfsEnvironment,
+                directoryLister,
+                executor,
+                maxOutstandingSplits,
+                minPartitionBatchSize,
+                maxPartitionBatchSize,
+                splitLoaderConcurrency,
+                maxSplitSize,
+                maxInitialSplitSize,
+                maxInitialSplits,
+                recursiveDfsWalkerEnabled,
+                Optional.empty());
+    }
+
+    /**
+     * @param fileCacheAffinity if present, splits prefer a worker chosen by their file range, so the ranges cached by {@link HiveFileCache} are reused
+     */
+    public HiveSplitManager(
+            HiveConnectorId connectorId,
+            HiveMetastore metastore,
+            NamenodeStats namenodeStats,
+            HdfsEnvironment hdfsEnvironment,
+            DirectoryLister directoryLister,
+            Executor executor,
+            int maxOutstandingSplits,
+            int minPartitionBatchSize,
+            int maxPartitionBatchSize,
+            int splitLoaderConcurrency,
+            DataSize maxSplitSize,
+            DataSize maxInitialSplitSize,
+            int maxInitialSplits,
+            boolean recursiveDfsWalkerEnabled,
+            Optional<NodeManager> fileCacheAffinity)
     {
         this.connectorId = requireNonNull(connectorId, "connectorId is null").toString();
         this.metastore = requireNonNull(metastore, "metastore is null");
@@ -134,10 +182,13 @@ public class HiveSplitManager
         this.maxOutstandingSplits = maxOutstandingSplits;
         this.minPartitionBatchSize = minPartitionBatchSize;
         this.maxPartitionBatchSize = maxPartitionBatchSize;
+        checkArgument(splitLoaderConcurrency >= 1, "splitLoaderConcurrency must be at least 1");
+        this.splitLoaderConcurrency = splitLoaderConcurrency;
         this.maxSplitSize = requireNonNull(maxSplitSize, "maxSplitSize is null");
         this.maxInitialSplitSize = requireNonNull(maxInitialSplitSize, "maxInitialSplitSize is null");
         this.maxInitialSplits = maxInitialSplits;
         this.recursiveDfsWalkerEnabled = recursiveDfsWalkerEnabled;
+        this.fileCacheAffinity = requireNonNull(fileCacheAffinity, "fileCacheAffinity is null");
     }
 
     @Override
@@ -174,10 +225,11 @@ public class HiveSplitManager
                 namenodeStats,
                 directoryLister,
                 executor,
-                maxPartitionBatchSize,
+                splitLoaderConcurrency,
                 maxInitialSplitSize,
                 maxInitialSplits,
-                recursiveDfsWalkerEnabled);
+                recursiveDfsWalkerEnabled,
+                fileCacheAffinity.map(HiveSplitManager::getWorkerAddresses).orElse(ImmutableList.of()));
 
         HiveSplitSource splitSource = new HiveSplitSource(connectorId, maxOutstandingSplits, hiveSplitLoader, executor);
         hiveSplitLoader.start(splitSource);
@@ -185,6 +237,23 @@ public class HiveSplitManager
         return splitSource;
     }
 
+    private static List<HostAddress> getWorkerAddresses(NodeManager nodeManager)
+    {
+        Set<Node> coordinators = nodeManager.getCoordinators();
+        List<HostAddress> workers = nodeManager.getActiveNodes().stream()
+                .filter(node -> !coordinators.contains(node))
+                .map(Node::getHostAndPort)
+                .sorted(Ordering.natural().onResultOf(HostAddress::toString))
+                .collect(toList());
+        if (workers.isEmpty()) {
+            // single node cluster
+            return coordinators.stream()
+                    .map(Node::getHostAndPort)
+                    .collect(toList());
+        }
+        return workers;
+    }
+
     private Iterable<HivePartitionMetadata> getPartitionMetadata(Table table, SchemaTableName tableName, List<HivePartition> hivePartitions)
     {
         if (hivePartitions.isEmpty()) {
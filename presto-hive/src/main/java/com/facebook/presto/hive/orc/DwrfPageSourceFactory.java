@@ -14,7 +14,9 @@
 package com.facebook.presto.hive.orc;
 
 import com.facebook.hive.orc.OrcSerde;
+import com.facebook.presto.hive.ForHiveClient;
 import com.facebook.presto.hive.HiveColumnHandle;
+import com.facebook.presto.hive.HiveFileCache;
 import com.facebook.presto.hive.HivePageSourceFactory;
 import com.facebook.presto.hive.HivePartitionKey;
 import com.facebook.presto.orc.metadata.DwrfMetadataReader;
@@ -31,24 +33,37 @@ import javax.inject.Inject;
 import java.util.List;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 
 import static com.facebook.presto.hive.HiveSessionProperties.getOrcMaxBufferSize;
 import static com.facebook.presto.hive.HiveSessionProperties.getOrcMaxMergeDistance;
 import static com.facebook.presto.hive.HiveSessionProperties.getOrcStreamBufferSize;
 import static com.facebook.presto.hive.HiveSessionProperties.isOptimizedReaderEnabled;
+import static com.facebook.presto.hive.HiveSessionProperties.isOrcStripePrefetchEnabled;
 import static com.facebook.presto.hive.HiveUtil.isDeserializerClass;
 import static com.facebook.presto.hive.orc.OrcPageSourceFactory.createOrcPageSource;
+import static com.google.common.util.concurrent.MoreExecutors.newDirectExecutorService;
 import static java.util.Objects.requireNonNull;
 
 public class DwrfPageSourceFactory
         implements HivePageSourceFactory
 {
     private final TypeManager typeManager;
+    private final HiveFileCache fileCache;
+    private final Executor stripePrefetchExecutor;
 
-    @Inject
     public DwrfPageSourceFactory(TypeManager typeManager)
+    {
+        this(typeManager, new HiveFileCache(), newDirectExecutorService());
+    }
+
+    @Inject
+    public DwrfPageSourceFactory(TypeManager typeManager, HiveFileCache fileCache, @ForHiveClient ExecutorService stripePrefetchExecutor)
     {
         this.typeManager = requireNonNull(typeManager, "typeManager is null");
+        this.fileCache = requireNonNull(fileCache, "fileCache is null");
+        this.stripePrefetchExecutor = requireNonNull(stripePrefetchExecutor, "stripePrefetchExecutor is null");
     }
 
     @Override
@@ -84,6 +99,8 @@ public class DwrfPageSourceFactory
                 typeManager,
                 getOrcMaxMergeDistance(session),
                 getOrcMaxBufferSize(session),
-                getOrcStreamBufferSize(session)));
+                getOrcStreamBufferSize(session),
+                fileCache,
+                isOrcStripePrefetchEnabled(session) ? Optional.of(stripePrefetchExecutor) : Optional.empty()));
     }
 }
@@ -27,6 +27,7 @@ import com.facebook.presto.spi.block.BlockBuilder;
 import com.facebook.presto.spi.block.BlockBuilderStatus;
 import com.facebook.presto.spi.block.LazyBlock;
 import com.facebook.presto.spi.block.LazyBlockLoader;
+import com.facebook.presto.spi.block.RunLengthEncodedBlock;
 import com.facebook.presto.spi.type.FixedWidthType;
 import com.facebook.presto.spi.type.Type;
 import com.facebook.presto.spi.type.TypeManager;
@@ -39,6 +40,7 @@ import org.joda.time.DateTimeZone;
 import java.io.IOException;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import static com.facebook.presto.hive.HiveErrorCode.HIVE_BAD_DATA;
 import static com.facebook.presto.hive.HiveErrorCode.HIVE_CURSOR_ERROR;
@@ -47,7 +49,6 @@ import static com.facebook.presto.hive.HiveUtil.booleanPartitionKey;
 import static com.facebook.presto.hive.HiveUtil.datePartitionKey;
 import static com.facebook.presto.hive.HiveUtil.doublePartitionKey;
 import static com.facebook.presto.hive.HiveUtil.timestampPartitionKey;
-import static com.facebook.presto.orc.OrcReader.MAX_BATCH_SIZE;
 import static com.facebook.presto.spi.StandardErrorCode.NOT_SUPPORTED;
 import static com.facebook.presto.spi.type.BigintType.BIGINT;
 import static com.facebook.presto.spi.type.BooleanType.BOOLEAN;
@@ -122,52 +123,38 @@ public class OrcPageSource
 
                 BlockBuilder blockBuilder;
                 if (type instanceof FixedWidthType) {
-                    blockBuilder = type.createBlockBuilder(new BlockBuilderStatus(), MAX_BATCH_SIZE);
+                    blockBuilder = type.createBlockBuilder(new BlockBuilderStatus(), 1);
                 }
                 else {
-                    blockBuilder = type.createBlockBuilder(new BlockBuilderStatus(), MAX_BATCH_SIZE, bytes.length);
+                    blockBuilder = type.createBlockBuilder(new BlockBuilderStatus(), 1, bytes.length);
                 }
 
                 if (HiveUtil.isHiveNull(bytes)) {
-                    for (int i = 0; i < MAX_BATCH_SIZE; i++) {
-                        blockBuilder.appendNull();
-                    }
+                    blockBuilder.appendNull();
                 }
                 else if (type.equals(BOOLEAN)) {
                     boolean value = booleanPartitionKey(partitionKey.getValue(), name);
-                    for (int i = 0; i < MAX_BATCH_SIZE; i++) {
-                        BOOLEAN.writeBoolean(blockBuilder, value);
-                    }
+                    BOOLEAN.writeBoolean(blockBuilder, value);
                 }
                 else if (type.equals(BIGINT)) {
                     long value = bigintPartitionKey(partitionKey.getValue(), name);
-                    for (int i = 0; i < MAX_BATCH_SIZE; i++) {
-                        BIGINT.writeLong(blockBuilder, value);
-                    }
+                    BIGINT.writeLong(blockBuilder, value);
                 }
                 else if (type.equals(DOUBLE)) {
                     double value = doublePartitionKey(partitionKey.getValue(), name);
-                    for (int i = 0; i < MAX_BATCH_SIZE; i++) {
-                        DOUBLE.writeDouble(blockBuilder, value);
-                    }
+                    DOUBLE.writeDouble(blockBuilder, value);
                 }
                 else if (type.equals(VARCHAR)) {
                     Slice value = Slices.wrappedBuffer(bytes);
-                    for (int i = 0; i < MAX_BATCH_SIZE; i++) {
-                        VARCHAR.writeSlice(blockBuilder, value);
-                    }
+                    VARCHAR.writeSlice(blockBuilder, value);
                 }
                 else if (type.equals(DATE)) {
                     long value = datePartitionKey(partitionKey.getValue(), name);
-                    for (int i = 0; i < MAX_BATCH_SIZE; i++) {
-                        DATE.writeLong(blockBuilder, value);
-                    }
+                    DATE.writeLong(blockBuilder, value);
                 }
                 else if (type.equals(TIMESTAMP)) {
                     long value = timestampPartitionKey(partitionKey.getValue(), hiveStorageTimeZone, name);
-                    for (int i = 0; i < MAX_BATCH_SIZE; i++) {
-                        TIMESTAMP.writeLong(blockBuilder, value);
-                    }
+                    TIMESTAMP.writeLong(blockBuilder, value);
                 }
                 else {
                     throw new PrestoException(NOT_SUPPORTED, format("Unsupported column type %s for partition key: %s", type.getDisplayName(), name));
@@ -176,10 +163,8 @@ public class OrcPageSource
                 constantBlocks[columnIndex] = blockBuilder.build();
             }
             else if (!recordReader.isColumnPresent(column.getHiveColumnIndex())) {
-                BlockBuilder blockBuilder = type.createBlockBuilder(new BlockBuilderStatus(), MAX_BATCH_SIZE, NULL_ENTRY_SIZE);
-                for (int i = 0; i < MAX_BATCH_SIZE; i++) {
-                    blockBuilder.appendNull();
-                }
+                BlockBuilder blockBuilder = type.createBlockBuilder(new BlockBuilderStatus(), 1, NULL_ENTRY_SIZE);
+                blockBuilder.appendNull();
                 constantBlocks[columnIndex] = blockBuilder.build();
             }
         }
@@ -205,12 +190,30 @@ public class OrcPageSource
         return orcDataSource.getReadTimeNanos();
     }
 
+    @Override
+    public long getSystemMemoryUsage()
+    {
+        if (closed) {
+            return 0;
+        }
+        return recordReader.getSystemMemoryUsage();
+    }
+
     @Override
     public boolean isFinished()
     {
         return closed;
     }
 
+    @Override
+    public CompletableFuture<?> isBlocked()
+    {
+        if (closed) {
+            return NOT_BLOCKED;
+        }
+        return recordReader.isBlocked();
+    }
+
     @Override
     public Page getNextPage()
     {
@@ -226,7 +229,7 @@ public class OrcPageSource
             for (int fieldId = 0; fieldId < blocks.length; fieldId++) {
                 Type type = types.get(fieldId);
                 if (constantBlocks[fieldId] != null) {
-                    blocks[fieldId] = constantBlocks[fieldId].getRegion(0, batchSize);
+                    blocks[fieldId] = new RunLengthEncodedBlock(constantBlocks[fieldId], batchSize);
                 }
                 else {
                     blocks[fieldId] = new LazyBlock(batchSize, new OrcBlockLoader(hiveColumnIndexes[fieldId], type));
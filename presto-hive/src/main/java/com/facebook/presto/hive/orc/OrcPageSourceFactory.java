@@ -13,7 +13,9 @@
  */
 package com.facebook.presto.hive.orc;
 
+import com.facebook.presto.hive.ForHiveClient;
 import com.facebook.presto.hive.HiveColumnHandle;
+import com.facebook.presto.hive.HiveFileCache;
 import com.facebook.presto.hive.HivePageSourceFactory;
 import com.facebook.presto.hive.HivePartitionKey;
 import com.facebook.presto.orc.OrcDataSource;
@@ -35,6 +37,7 @@ import com.google.common.collect.ImmutableMap;
 import io.airlift.units.DataSize;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.hive.ql.io.orc.OrcSerde;
@@ -47,6 +50,8 @@ import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 
 import static com.facebook.presto.hive.HiveErrorCode.HIVE_CANNOT_OPEN_SPLIT;
 import static com.facebook.presto.hive.HiveErrorCode.HIVE_MISSING_DATA;
@@ -54,20 +59,31 @@ import static com.facebook.presto.hive.HiveSessionProperties.getOrcMaxBufferSize
 import static com.facebook.presto.hive.HiveSessionProperties.getOrcMaxMergeDistance;
 import static com.facebook.presto.hive.HiveSessionProperties.getOrcStreamBufferSize;
 import static com.facebook.presto.hive.HiveSessionProperties.isOptimizedReaderEnabled;
+import static com.facebook.presto.hive.HiveSessionProperties.isOrcStripePrefetchEnabled;
 import static com.facebook.presto.hive.HiveUtil.isDeserializerClass;
 import static com.google.common.base.Strings.nullToEmpty;
 import static java.lang.String.format;
+import static com.google.common.util.concurrent.MoreExecutors.newDirectExecutorService;
 import static java.util.Objects.requireNonNull;
 
 public class OrcPageSourceFactory
         implements HivePageSourceFactory
 {
     private final TypeManager typeManager;
+    private final HiveFileCache fileCache;
+    private final Executor stripePrefetchExecutor;
 
-    @Inject
     public OrcPageSourceFactory(TypeManager typeManager)
+    {
+        this(typeManager, new HiveFileCache(), newDirectExecutorService());
+    }
+
+    @Inject
+    public OrcPageSourceFactory(TypeManager typeManager, HiveFileCache fileCache, @ForHiveClient ExecutorService stripePrefetchExecutor)
     {
         this.typeManager = requireNonNull(typeManager, "typeManager is null");
+        this.fileCache = requireNonNull(fileCache, "fileCache is null");
+        this.stripePrefetchExecutor = requireNonNull(stripePrefetchExecutor, "stripePrefetchExecutor is null");
     }
 
     @Override
@@ -104,7 +120,9 @@ public class OrcPageSourceFactory
                 typeManager,
                 getOrcMaxMergeDistance(session),
                 getOrcMaxBufferSize(session),
-                getOrcStreamBufferSize(session)));
+                getOrcStreamBufferSize(session),
+                fileCache,
+                isOrcStripePrefetchEnabled(session) ? Optional.of(stripePrefetchExecutor) : Optional.empty()));
     }
 
     public static OrcPageSource createOrcPageSource(MetadataReader metadataReader,
@@ -119,13 +137,16 @@ public class OrcPageSourceFactory
             TypeManager typeManager,
             DataSize maxMergeDistance,
             DataSize maxBufferSize,
-            DataSize streamBufferSize)
+            DataSize streamBufferSize,
+            HiveFileCache fileCache,
+            Optional<Executor> stripePrefetchExecutor)
     {
         OrcDataSource orcDataSource;
         try {
             FileSystem fileSystem = path.getFileSystem(configuration);
-            long size = fileSystem.getFileStatus(path).getLen();
-            FSDataInputStream inputStream = fileSystem.open(path);
+            FileStatus fileStatus = fileSystem.getFileStatus(path);
+            long size = fileStatus.getLen();
+            FSDataInputStream inputStream = fileCache.open(fileSystem, fileStatus);
             orcDataSource = new HdfsOrcDataSource(path.toString(), size, maxMergeDistance, maxBufferSize, streamBufferSize, inputStream);
         }
         catch (Exception e) {
@@ -155,7 +176,8 @@ public class OrcPageSourceFactory
                     predicate,
                     start,
                     length,
-                    hiveStorageTimeZone);
+                    hiveStorageTimeZone,
+                    stripePrefetchExecutor);
 
             return new OrcPageSource(
                     recordReader,
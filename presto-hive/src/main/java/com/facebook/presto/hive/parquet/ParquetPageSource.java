@@ -26,6 +26,7 @@ import com.facebook.presto.spi.block.BlockBuilder;
 import com.facebook.presto.spi.block.BlockBuilderStatus;
 import com.facebook.presto.spi.block.LazyBlock;
 import com.facebook.presto.spi.block.LazyBlockLoader;
+import com.facebook.presto.spi.block.RunLengthEncodedBlock;
 import com.facebook.presto.spi.type.BigintType;
 import com.facebook.presto.spi.type.BooleanType;
 import com.facebook.presto.spi.type.DoubleType;
@@ -63,8 +64,6 @@ import static java.util.Objects.requireNonNull;
 class ParquetPageSource
         implements ConnectorPageSource
 {
-    private static final int MAX_VECTOR_LENGTH = 1024;
-
     private final ParquetReader parquetReader;
     private final MessageType requestedSchema;
     // for debugging heap dump
@@ -130,40 +129,30 @@ class ParquetPageSource
 
                 BlockBuilder blockBuilder;
                 if (type instanceof FixedWidthType) {
-                    blockBuilder = type.createBlockBuilder(new BlockBuilderStatus(), MAX_VECTOR_LENGTH);
+                    blockBuilder = type.createBlockBuilder(new BlockBuilderStatus(), 1);
                 }
                 else {
-                    blockBuilder = type.createBlockBuilder(new BlockBuilderStatus(), MAX_VECTOR_LENGTH, bytes.length);
+                    blockBuilder = type.createBlockBuilder(new BlockBuilderStatus(), 1, bytes.length);
                 }
 
                 if (HiveUtil.isHiveNull(bytes)) {
-                    for (int i = 0; i < MAX_VECTOR_LENGTH; i++) {
-                        blockBuilder.appendNull();
-                    }
+                    blockBuilder.appendNull();
                 }
                 else if (type.equals(BooleanType.BOOLEAN)) {
                     boolean value = booleanPartitionKey(partitionKey.getValue(), name);
-                    for (int i = 0; i < MAX_VECTOR_LENGTH; i++) {
-                        BooleanType.BOOLEAN.writeBoolean(blockBuilder, value);
-                    }
+                    BooleanType.BOOLEAN.writeBoolean(blockBuilder, value);
                 }
                 else if (type.equals(BigintType.BIGINT)) {
                     long value = bigintPartitionKey(partitionKey.getValue(), name);
-                    for (int i = 0; i < MAX_VECTOR_LENGTH; i++) {
-                        BigintType.BIGINT.writeLong(blockBuilder, value);
-                    }
+                    BigintType.BIGINT.writeLong(blockBuilder, value);
                 }
                 else if (type.equals(DoubleType.DOUBLE)) {
                     double value = doublePartitionKey(partitionKey.getValue(), name);
-                    for (int i = 0; i < MAX_VECTOR_LENGTH; i++) {
-                        DoubleType.DOUBLE.writeDouble(blockBuilder, value);
-                    }
+                    DoubleType.DOUBLE.writeDouble(blockBuilder, value);
                 }
                 else if (type.equals(VarcharType.VARCHAR)) {
                     Slice value = Slices.wrappedBuffer(bytes);
-                    for (int i = 0; i < MAX_VECTOR_LENGTH; i++) {
-                        VarcharType.VARCHAR.writeSlice(blockBuilder, value);
-                    }
+                    VarcharType.VARCHAR.writeSlice(blockBuilder, value);
                 }
                 else {
                     throw new PrestoException(NOT_SUPPORTED, format("Unsupported column type %s for partition key: %s", type.getDisplayName(), name));
@@ -220,7 +209,7 @@ class ParquetPageSource
             for (int fieldId = 0; fieldId < blocks.length; fieldId++) {
                 Type type = types.get(fieldId);
                 if (constantBlocks[fieldId] != null) {
-                    blocks[fieldId] = constantBlocks[fieldId].getRegion(0, batchSize);
+                    blocks[fieldId] = new RunLengthEncodedBlock(constantBlocks[fieldId], batchSize);
                 }
                 else {
                     ColumnDescriptor columnDescriptor = this.requestedSchema.getColumns().get(fieldId);
@@ -15,6 +15,7 @@ package com.facebook.presto.hive.parquet;
 
 import com.facebook.presto.hive.HiveClientConfig;
 import com.facebook.presto.hive.HiveColumnHandle;
+import com.facebook.presto.hive.HiveFileCache;
 import com.facebook.presto.hive.HivePageSourceFactory;
 import com.facebook.presto.hive.HivePartitionKey;
 import com.facebook.presto.hive.parquet.predicate.ParquetPredicate;
@@ -65,17 +66,24 @@ public class ParquetPageSourceFactory
 
     private final TypeManager typeManager;
     private final boolean useParquetColumnNames;
+    private final HiveFileCache fileCache;
 
     @Inject
-    public ParquetPageSourceFactory(TypeManager typeManager, HiveClientConfig config)
+    public ParquetPageSourceFactory(TypeManager typeManager, HiveClientConfig config, HiveFileCache fileCache)
     {
-        this(typeManager, requireNonNull(config, "hiveClientConfig is null").isUseParquetColumnNames());
+        this(typeManager, requireNonNull(config, "hiveClientConfig is null").isUseParquetColumnNames(), fileCache);
     }
 
     public ParquetPageSourceFactory(TypeManager typeManager, boolean useParquetColumnNames)
+    {
+        this(typeManager, useParquetColumnNames, new HiveFileCache());
+    }
+
+    public ParquetPageSourceFactory(TypeManager typeManager, boolean useParquetColumnNames, HiveFileCache fileCache)
     {
         this.typeManager = requireNonNull(typeManager, "typeManager is null");
         this.useParquetColumnNames = useParquetColumnNames;
+        this.fileCache = requireNonNull(fileCache, "fileCache is null");
     }
 
     @Override
@@ -114,7 +122,8 @@ public class ParquetPageSourceFactory
                 useParquetColumnNames,
                 typeManager,
                 isParquetPredicatePushdownEnabled(session),
-                effectivePredicate));
+                effectivePredicate,
+                fileCache));
     }
 
     public static ParquetPageSource createParquetPageSource(
@@ -128,7 +137,8 @@ public class ParquetPageSourceFactory
             boolean useParquetColumnNames,
             TypeManager typeManager,
             boolean predicatePushdownEnabled,
-            TupleDomain<HiveColumnHandle> effectivePredicate)
+            TupleDomain<HiveColumnHandle> effectivePredicate,
+            HiveFileCache fileCache)
     {
         try {
             ParquetMetadata parquetMetadata = ParquetMetadataReader.readFooter(configuration, path);
@@ -162,6 +172,7 @@ public class ParquetPageSourceFactory
                     fileMetaData.getKeyValueMetaData(),
                     requestedSchema,
                     path,
+                    fileCache.open(path.getFileSystem(configuration), path),
                     blocks,
                     configuration);
 
@@ -17,6 +17,7 @@ import com.facebook.presto.spi.block.Block;
 import com.facebook.presto.spi.type.Type;
 import com.google.common.primitives.Ints;
 import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataInputStream;
 import org.apache.hadoop.fs.Path;
 import parquet.column.ColumnDescriptor;
 import parquet.column.page.PageReadStore;
@@ -51,6 +52,7 @@ public class ParquetReader
             Map<String, String> extraMetadata,
             MessageType requestedSchema,
             Path file,
+            FSDataInputStream inputStream,
             List<BlockMetaData> blocks,
             Configuration configuration)
             throws IOException
@@ -61,7 +63,7 @@ public class ParquetReader
         this.file = file;
         this.blocks = blocks;
         this.configuration = configuration;
-        this.fileReader = new ParquetFileReader(configuration, file, blocks, requestedSchema.getColumns());
+        this.fileReader = new ParquetFileReader(configuration, file, inputStream, blocks, requestedSchema.getColumns());
         for (BlockMetaData block : blocks) {
             fileRowCount += block.getRowCount();
         }
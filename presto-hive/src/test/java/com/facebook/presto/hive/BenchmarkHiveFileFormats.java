@@ -70,6 +70,7 @@ import java.io.File;
 import java.io.IOException;
 import java.io.PrintStream;
 import java.util.List;
+import java.util.Optional;
 import java.util.Properties;
 
 import static com.facebook.presto.hive.HiveTestUtils.SESSION;
@@ -1675,6 +1676,7 @@ public final class BenchmarkHiveFileFormats
                 partitionProperties,
                 ImmutableList.<HivePartitionKey>of(),
                 ImmutableList.<HostAddress>of(),
+                Optional.empty(),
                 false,
                 TupleDomain.<HiveColumnHandle>all());
     }
@@ -0,0 +1,128 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive;
+
+import com.google.common.collect.ImmutableList;
+import io.airlift.units.Duration;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.LocatedFileStatus;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.fs.RawLocalFileSystem;
+import org.apache.hadoop.fs.RemoteIterator;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.google.common.io.Files.createTempDir;
+import static io.airlift.testing.FileUtils.deleteRecursively;
+import static java.util.concurrent.TimeUnit.HOURS;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class TestCachingDirectoryLister
+{
+    private File directory;
+    private FileSystem fileSystem;
+
+    @BeforeMethod
+    public void setUp()
+            throws Exception
+    {
+        directory = createTempDir();
+        fileSystem = new RawLocalFileSystem();
+        fileSystem.initialize(URI.create("file:///"), new Configuration());
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown()
+            throws Exception
+    {
+        fileSystem.close();
+        deleteRecursively(directory);
+    }
+
+    @Test
+    public void testCacheInvalidatedByModificationTime()
+            throws Exception
+    {
+        CountingDirectoryLister delegate = new CountingDirectoryLister();
+        CachingDirectoryLister lister = new CachingDirectoryLister(delegate, 1000, new Duration(1, HOURS));
+        Path path = new Path(directory.toURI());
+
+        assertTrue(new File(directory, "a").createNewFile());
+        fileSystem.setTimes(path, 1000, -1);
+        assertEquals(listFileNames(lister, path), ImmutableList.of("a"));
+        assertEquals(listFileNames(lister, path), ImmutableList.of("a"));
+        assertEquals(delegate.getListCount(), 1);
+        assertEquals(lister.getHits().getTotalCount(), 1);
+        assertEquals(lister.getMisses().getTotalCount(), 1);
+
+        assertTrue(new File(directory, "b").createNewFile());
+        fileSystem.setTimes(path, 2000, -1);
+        assertEquals(listFileNames(lister, path), ImmutableList.of("a", "b"));
+        assertEquals(delegate.getListCount(), 2);
+        assertEquals(lister.getMisses().getTotalCount(), 2);
+    }
+
+    @Test
+    public void testCacheDisabled()
+            throws Exception
+    {
+        CountingDirectoryLister delegate = new CountingDirectoryLister();
+        CachingDirectoryLister lister = new CachingDirectoryLister(delegate, 0, new Duration(1, HOURS));
+        Path path = new Path(directory.toURI());
+
+        assertTrue(new File(directory, "a").createNewFile());
+        assertEquals(listFileNames(lister, path), ImmutableList.of("a"));
+        assertEquals(listFileNames(lister, path), ImmutableList.of("a"));
+        assertEquals(delegate.getListCount(), 2);
+        assertEquals(lister.getCachedDirectories(), 0);
+    }
+
+    private ImmutableList<String> listFileNames(DirectoryLister lister, Path path)
+            throws IOException
+    {
+        ImmutableList.Builder<String> names = ImmutableList.builder();
+        RemoteIterator<LocatedFileStatus> iterator = lister.list(fileSystem, path);
+        while (iterator.hasNext()) {
+            names.add(iterator.next().getPath().getName());
+        }
+        return ImmutableList.copyOf(names.build().stream().sorted().iterator());
+    }
+
+    private static class CountingDirectoryLister
+            extends HadoopDirectoryLister
+    {
+        private final AtomicInteger listCount = new AtomicInteger();
+
+        @Override
+        public RemoteIterator<LocatedFileStatus> list(FileSystem fs, Path path)
+                throws IOException
+        {
+            listCount.incrementAndGet();
+            return super.list(fs, path);
+        }
+
+        public int getListCount()
+        {
+            return listCount.get();
+        }
+    }
+}
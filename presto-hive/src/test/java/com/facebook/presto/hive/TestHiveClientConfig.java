@@ -40,6 +40,7 @@ public class TestHiveClientConfig
                 .setMaxSplitSize(new DataSize(64, Unit.MEGABYTE))
                 .setMaxOutstandingSplits(1_000)
                 .setMaxSplitIteratorThreads(1_000)
+                .setSplitLoaderConcurrency(100)
                 .setAllowAddColumn(false)
                 .setAllowDropTable(false)
                 .setAllowRenameTable(false)
@@ -48,6 +49,8 @@ public class TestHiveClientConfig
                 .setMetastoreCacheTtl(new Duration(1, TimeUnit.HOURS))
                 .setMetastoreRefreshInterval(new Duration(1, TimeUnit.SECONDS))
                 .setMaxMetastoreRefreshThreads(100)
+                .setFileStatusCacheMaxSize(1_000_000)
+                .setFileStatusCacheExpireTime(new Duration(1, TimeUnit.HOURS))
                 .setMetastoreSocksProxy(null)
                 .setMetastoreTimeout(new Duration(10, TimeUnit.SECONDS))
                 .setMinPartitionBatchSize(10)
@@ -85,7 +88,12 @@ public class TestHiveClientConfig
                 .setAssumeCanonicalPartitionKeys(false)
                 .setOrcMaxMergeDistance(new DataSize(1, Unit.MEGABYTE))
                 .setOrcMaxBufferSize(new DataSize(8, Unit.MEGABYTE))
-                .setOrcStreamBufferSize(new DataSize(8, Unit.MEGABYTE)));
+                .setOrcStreamBufferSize(new DataSize(8, Unit.MEGABYTE))
+                .setOrcStripePrefetchEnabled(false)
+                .setFileCacheEnabled(false)
+                .setFileCacheDirectory(new File(StandardSystemProperty.JAVA_IO_TMPDIR.value(), "presto-hive-file-cache"))
+                .setFileCacheMaxSize(new DataSize(10, Unit.GIGABYTE))
+                .setFileCacheMaxRangeSize(new DataSize(16, Unit.MEGABYTE)));
     }
 
     @Test
@@ -96,6 +104,7 @@ public class TestHiveClientConfig
                 .put("hive.max-split-size", "256MB")
                 .put("hive.max-outstanding-splits", "10")
                 .put("hive.max-split-iterator-threads", "10")
+                .put("hive.split-loader-concurrency", "7")
                 .put("hive.allow-add-column", "true")
                 .put("hive.allow-drop-table", "true")
                 .put("hive.allow-rename-table", "true")
@@ -104,6 +113,8 @@ public class TestHiveClientConfig
                 .put("hive.metastore-cache-ttl", "2h")
                 .put("hive.metastore-refresh-interval", "30m")
                 .put("hive.metastore-refresh-max-threads", "2500")
+                .put("hive.file-status-cache-size", "1000")
+                .put("hive.file-status-cache-expire-time", "30m")
                 .put("hive.metastore.thrift.client.socks-proxy", "localhost:1080")
                 .put("hive.metastore-timeout", "20s")
                 .put("hive.metastore.partition-batch-size.min", "1")
@@ -142,6 +153,11 @@ public class TestHiveClientConfig
                 .put("hive.orc.max-merge-distance", "22kB")
                 .put("hive.orc.max-buffer-size", "44kB")
                 .put("hive.orc.stream-buffer-size", "55kB")
+                .put("hive.orc.stripe-prefetch-enabled", "true")
+                .put("hive.file-cache.enabled", "true")
+                .put("hive.file-cache.directory", "/ssd/cache")
+                .put("hive.file-cache.max-size", "100GB")
+                .put("hive.file-cache.max-range-size", "4MB")
                 .build();
 
         HiveClientConfig expected = new HiveClientConfig()
@@ -149,6 +165,7 @@ public class TestHiveClientConfig
                 .setMaxSplitSize(new DataSize(256, Unit.MEGABYTE))
                 .setMaxOutstandingSplits(10)
                 .setMaxSplitIteratorThreads(10)
+                .setSplitLoaderConcurrency(7)
                 .setAllowAddColumn(true)
                 .setAllowDropTable(true)
                 .setAllowRenameTable(true)
@@ -157,6 +174,8 @@ public class TestHiveClientConfig
                 .setMetastoreCacheTtl(new Duration(2, TimeUnit.HOURS))
                 .setMetastoreRefreshInterval(new Duration(30, TimeUnit.MINUTES))
                 .setMaxMetastoreRefreshThreads(2500)
+                .setFileStatusCacheMaxSize(1000)
+                .setFileStatusCacheExpireTime(new Duration(30, TimeUnit.MINUTES))
                 .setMetastoreSocksProxy(HostAndPort.fromParts("localhost", 1080))
                 .setMetastoreTimeout(new Duration(20, TimeUnit.SECONDS))
                 .setMinPartitionBatchSize(1)
@@ -194,7 +213,12 @@ public class TestHiveClientConfig
                 .setAssumeCanonicalPartitionKeys(true)
                 .setOrcMaxMergeDistance(new DataSize(22, Unit.KILOBYTE))
                 .setOrcMaxBufferSize(new DataSize(44, Unit.KILOBYTE))
-                .setOrcStreamBufferSize(new DataSize(55, Unit.KILOBYTE));
+                .setOrcStreamBufferSize(new DataSize(55, Unit.KILOBYTE))
+                .setOrcStripePrefetchEnabled(true)
+                .setFileCacheEnabled(true)
+                .setFileCacheDirectory(new File("/ssd/cache"))
+                .setFileCacheMaxSize(new DataSize(100, Unit.GIGABYTE))
+                .setFileCacheMaxRangeSize(new DataSize(4, Unit.MEGABYTE));
 
         ConfigAssertions.assertFullMapping(properties, expected);
     }
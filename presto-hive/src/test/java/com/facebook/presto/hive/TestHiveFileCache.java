@@ -0,0 +1,122 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive;
+
+import io.airlift.units.DataSize;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.fs.RawLocalFileSystem;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.net.URI;
+
+import static com.google.common.io.Files.createTempDir;
+import static com.google.common.io.Files.write;
+import static io.airlift.testing.FileUtils.deleteRecursively;
+import static io.airlift.units.DataSize.Unit.BYTE;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.testng.Assert.assertEquals;
+
+public class TestHiveFileCache
+{
+    private File directory;
+    private FileSystem fileSystem;
+
+    @BeforeMethod
+    public void setUp()
+            throws Exception
+    {
+        directory = createTempDir();
+        fileSystem = new RawLocalFileSystem();
+        fileSystem.initialize(URI.create("file:///"), new Configuration());
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown()
+            throws Exception
+    {
+        fileSystem.close();
+        deleteRecursively(directory);
+    }
+
+    @Test
+    public void testCacheInvalidatedByModificationTime()
+            throws Exception
+    {
+        HiveFileCache cache = createFileCache(new DataSize(1, MEGABYTE));
+        File file = new File(directory, "data");
+        Path path = new Path(file.toURI());
+
+        write("0123456789", file, UTF_8);
+        fileSystem.setTimes(path, 1000, -1);
+        assertEquals(read(cache, path, 2, 5), "23456");
+        assertEquals(read(cache, path, 2, 5), "23456");
+        assertEquals(cache.getMisses().getTotalCount(), 1);
+        assertEquals(cache.getHits().getTotalCount(), 1);
+        assertEquals(cache.getCachedRanges(), 1);
+        assertEquals(cache.getCachedBytes(), 5);
+
+        // a different range of the same file
+        assertEquals(read(cache, path, 0, 5), "01234");
+        assertEquals(cache.getMisses().getTotalCount(), 2);
+
+        write("abcdefghij", file, UTF_8);
+        fileSystem.setTimes(path, 2000, -1);
+        assertEquals(read(cache, path, 2, 5), "cdefg");
+        assertEquals(cache.getMisses().getTotalCount(), 3);
+        assertEquals(cache.getHits().getTotalCount(), 1);
+    }
+
+    @Test
+    public void testRangesLargerThanMaxRangeSizeAreNotCached()
+            throws Exception
+    {
+        HiveFileCache cache = createFileCache(new DataSize(4, BYTE));
+        File file = new File(directory, "data");
+        Path path = new Path(file.toURI());
+
+        write("0123456789", file, UTF_8);
+        assertEquals(read(cache, path, 0, 5), "01234");
+        assertEquals(read(cache, path, 0, 4), "0123");
+        assertEquals(read(cache, path, 0, 4), "0123");
+        assertEquals(cache.getMisses().getTotalCount(), 1);
+        assertEquals(cache.getHits().getTotalCount(), 1);
+        assertEquals(cache.getCachedRanges(), 1);
+    }
+
+    private HiveFileCache createFileCache(DataSize maxRangeSize)
+    {
+        HiveClientConfig config = new HiveClientConfig()
+                .setFileCacheEnabled(true)
+                .setFileCacheDirectory(new File(directory, "cache"))
+                .setFileCacheMaxRangeSize(maxRangeSize);
+        return new HiveFileCache(new HiveConnectorId("test"), config);
+    }
+
+    private String read(HiveFileCache cache, Path path, long position, int length)
+            throws Exception
+    {
+        byte[] buffer = new byte[length];
+        try (FSDataInputStream inputStream = cache.open(fileSystem, path)) {
+            inputStream.readFully(position, buffer);
+        }
+        return new String(buffer, UTF_8);
+    }
+}
@@ -19,6 +19,7 @@ import com.google.common.collect.ImmutableList;
 import io.airlift.json.JsonCodec;
 import org.testng.annotations.Test;
 
+import java.util.Optional;
 import java.util.Properties;
 
 import static org.testng.Assert.assertEquals;
@@ -47,6 +48,7 @@ public class TestHiveSplit
                 schema,
                 partitionKeys,
                 addresses,
+                Optional.of(HostAddress.fromParts("127.0.0.1", 46)),
                 true,
                 TupleDomain.<HiveColumnHandle>all());
 
@@ -63,6 +65,7 @@ public class TestHiveSplit
         assertEquals(actual.getSchema(), expected.getSchema());
         assertEquals(actual.getPartitionKeys(), expected.getPartitionKeys());
         assertEquals(actual.getAddresses(), expected.getAddresses());
+        assertEquals(actual.getPreferredNode(), expected.getPreferredNode());
         assertEquals(actual.isForceLocalScheduling(), expected.isForceLocalScheduling());
     }
 }
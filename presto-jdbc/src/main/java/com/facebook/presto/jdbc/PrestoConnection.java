@@ -71,14 +71,16 @@ public class PrestoConnection
     private final Map<String, String> clientInfo = new ConcurrentHashMap<>();
     private final Map<String, String> sessionProperties = new ConcurrentHashMap<>();
     private final QueryExecutor queryExecutor;
+    private final boolean binaryResults;
 
-    PrestoConnection(URI uri, String user, QueryExecutor queryExecutor)
+    PrestoConnection(URI uri, String user, QueryExecutor queryExecutor, boolean binaryResults)
             throws SQLException
     {
         this.uri = requireNonNull(uri, "uri is null");
         this.address = HostAndPort.fromParts(uri.getHost(), uri.getPort());
         this.user = requireNonNull(user, "user is null");
         this.queryExecutor = requireNonNull(queryExecutor, "queryExecutor is null");
+        this.binaryResults = binaryResults;
         timeZoneId.set(TimeZone.getDefault().getID());
         locale.set(Locale.getDefault());
 
@@ -586,7 +588,8 @@ public class PrestoConnection
                 timeZoneId.get(),
                 locale.get(),
                 ImmutableMap.copyOf(sessionProperties),
-                false);
+                false,
+                binaryResults);
 
         return queryExecutor.startQuery(session, sql);
     }
@@ -48,6 +48,7 @@ public class PrestoDriver
     private static final String DRIVER_URL_START = "jdbc:presto:";
 
     private static final String USER_PROPERTY = "user";
+    private static final String BINARY_RESULTS_PROPERTY = "binaryResults";
 
     private final QueryExecutor queryExecutor;
 
@@ -86,7 +87,9 @@ public class PrestoDriver
             throw new SQLException(format("Username property (%s) must be set", USER_PROPERTY));
         }
 
-        return new PrestoConnection(parseDriverUrl(url), user, queryExecutor);
+        boolean binaryResults = Boolean.parseBoolean(info.getProperty(BINARY_RESULTS_PROPERTY));
+
+        return new PrestoConnection(parseDriverUrl(url), user, queryExecutor, binaryResults);
     }
 
     @Override
@@ -39,6 +39,7 @@ import java.sql.Types;
 import java.util.ArrayList;
 import java.util.GregorianCalendar;
 import java.util.List;
+import java.util.Properties;
 import java.util.Set;
 
 import static io.airlift.testing.Assertions.assertInstanceOf;
@@ -236,6 +237,61 @@ public class TestDriver
         }
     }
 
+    @Test
+    public void testBinaryResults()
+            throws Exception
+    {
+        try (Connection connection = createBinaryResultsConnection()) {
+            try (Statement statement = connection.createStatement()) {
+                try (ResultSet rs = statement.executeQuery("" +
+                        "SELECT * FROM (VALUES " +
+                        "  (123, 'foo', 0.1, true, cast('hello' as varbinary)), " +
+                        "  (null, null, null, null, null)) " +
+                        "t (_bigint, _varchar, _double, _boolean, _varbinary)")) {
+                    assertTrue(rs.next());
+                    assertEquals(rs.getObject(1), 123L);
+                    assertEquals(rs.getObject(2), "foo");
+                    assertEquals(rs.getObject(3), 0.1);
+                    assertEquals(rs.getObject(4), true);
+                    assertEquals(rs.getBytes(5), "hello".getBytes(UTF_8));
+
+                    assertTrue(rs.next());
+                    for (int i = 1; i <= 5; i++) {
+                        assertNull(rs.getObject(i));
+                    }
+
+                    assertFalse(rs.next());
+                }
+            }
+        }
+
+        // unsupported types fall back to JSON
+        try (Connection connection = createBinaryResultsConnection()) {
+            try (Statement statement = connection.createStatement()) {
+                try (ResultSet rs = statement.executeQuery("SELECT DATE '2013-03-22', 42")) {
+                    assertTrue(rs.next());
+                    assertEquals(rs.getObject(1), new Date(new DateTime(2013, 3, 22, 0, 0).getMillis()));
+                    assertEquals(rs.getObject(2), 42L);
+                    assertFalse(rs.next());
+                }
+            }
+        }
+
+        // results are the same as with JSON
+        String sql = format("SELECT orderkey, linenumber, extendedprice, returnflag, comment FROM %s.%s.lineitem", TEST_CATALOG, TpchMetadata.TINY_SCHEMA_NAME);
+        List<List<Object>> expected;
+        try (Connection connection = createConnection()) {
+            try (Statement statement = connection.createStatement()) {
+                expected = readRows(statement.executeQuery(sql));
+            }
+        }
+        try (Connection connection = createBinaryResultsConnection()) {
+            try (Statement statement = connection.createStatement()) {
+                assertEquals(readRows(statement.executeQuery(sql)), expected);
+            }
+        }
+    }
+
     @Test
     public void testGetCatalogs()
             throws Exception
@@ -1053,6 +1109,16 @@ public class TestDriver
         return DriverManager.getConnection(url, "test", null);
     }
 
+    private Connection createBinaryResultsConnection()
+            throws SQLException
+    {
+        String url = format("jdbc:presto://%s", server.getAddress());
+        Properties properties = new Properties();
+        properties.setProperty("user", "test");
+        properties.setProperty("binaryResults", "true");
+        return DriverManager.getConnection(url, properties);
+    }
+
     private Connection createConnection(String catalog)
             throws SQLException
     {
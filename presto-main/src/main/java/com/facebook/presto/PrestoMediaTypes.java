@@ -20,6 +20,9 @@ public final class PrestoMediaTypes
     public static final String PRESTO_PAGES = "application/X-presto-pages";
     public static final MediaType PRESTO_PAGES_TYPE = MediaType.create("application", "X-presto-pages");
 
+    // media type parameter with the codec used for compressed pages
+    public static final String PRESTO_PAGES_COMPRESSION = "compression";
+
     private PrestoMediaTypes()
     {
     }
@@ -46,6 +46,12 @@ public final class SystemSessionProperties
     public static final String QUERY_MAX_RUN_TIME = "query_max_run_time";
     public static final String REDISTRIBUTE_WRITES = "redistribute_writes";
     public static final String EXECUTION_POLICY = "execution_policy";
+    public static final String SPILL_ENABLED = "spill_enabled";
+    public static final String DYNAMIC_FILTERING_ENABLED = "dynamic_filtering_enabled";
+    public static final String COST_BASED_JOINS_ENABLED = "cost_based_joins_enabled";
+    public static final String JOIN_MAX_BROADCAST_TABLE_SIZE = "join_max_broadcast_table_size";
+    public static final String CONNECTOR_PUSHDOWN_ENABLED = "connector_pushdown_enabled";
+    public static final String QUERY_RESULT_CACHE_ENABLED = "query_result_cache_enabled";
 
     private final List<PropertyMetadata<?>> sessionProperties;
 
@@ -117,6 +123,39 @@ public final class SystemSessionProperties
                         "Experimental: Default number of local parallel aggregation jobs per worker",
                         taskManagerConfig.getTaskDefaultConcurrency(),
                         false),
+                booleanSessionProperty(
+                        SPILL_ENABLED,
+                        "Experimental: Spill operator state to disk when memory is exhausted",
+                        featuresConfig.isSpillEnabled(),
+                        false),
+                booleanSessionProperty(
+                        DYNAMIC_FILTERING_ENABLED,
+                        "Experimental: Filter the probe side table scan of a join by the join keys of the build side",
+                        featuresConfig.isDynamicFilteringEnabled(),
+                        false),
+                booleanSessionProperty(
+                        COST_BASED_JOINS_ENABLED,
+                        "Experimental: Use table statistics to choose the join distribution and the build side of inner joins",
+                        featuresConfig.isCostBasedJoinsEnabled(),
+                        false),
+                new PropertyMetadata<>(
+                        JOIN_MAX_BROADCAST_TABLE_SIZE,
+                        "Maximum estimated size of the build side of a broadcast join when cost based joins are enabled",
+                        VARCHAR,
+                        DataSize.class,
+                        featuresConfig.getJoinMaxBroadcastTableSize(),
+                        false,
+                        value -> DataSize.valueOf((String) value)),
+                booleanSessionProperty(
+                        CONNECTOR_PUSHDOWN_ENABLED,
+                        "Offer limits, TopN and aggregations over table scans to the connector",
+                        featuresConfig.isConnectorPushDownEnabled(),
+                        false),
+                booleanSessionProperty(
+                        QUERY_RESULT_CACHE_ENABLED,
+                        "Reuse the results of earlier queries with the same plan over unchanged data",
+                        queryManagerConfig.isResultCacheEnabled(),
+                        false),
                 new PropertyMetadata<>(
                         QUERY_MAX_RUN_TIME,
                         "Maximum run time of a query",
@@ -190,6 +229,36 @@ public final class SystemSessionProperties
         return getPropertyOr(session, TASK_AGGREGATION_CONCURRENCY, TASK_DEFAULT_CONCURRENCY, Integer.class);
     }
 
+    public static boolean isSpillEnabled(Session session)
+    {
+        return session.getProperty(SPILL_ENABLED, Boolean.class);
+    }
+
+    public static boolean isDynamicFilteringEnabled(Session session)
+    {
+        return session.getProperty(DYNAMIC_FILTERING_ENABLED, Boolean.class);
+    }
+
+    public static boolean isCostBasedJoinsEnabled(Session session)
+    {
+        return session.getProperty(COST_BASED_JOINS_ENABLED, Boolean.class);
+    }
+
+    public static DataSize getJoinMaxBroadcastTableSize(Session session)
+    {
+        return session.getProperty(JOIN_MAX_BROADCAST_TABLE_SIZE, DataSize.class);
+    }
+
+    public static boolean isConnectorPushDownEnabled(Session session)
+    {
+        return session.getProperty(CONNECTOR_PUSHDOWN_ENABLED, Boolean.class);
+    }
+
+    public static boolean isQueryResultCacheEnabled(Session session)
+    {
+        return session.getProperty(QUERY_RESULT_CACHE_ENABLED, Boolean.class);
+    }
+
     public static DataSize getQueryMaxMemory(Session session)
     {
         return session.getProperty(QUERY_MAX_MEMORY, DataSize.class);
@@ -0,0 +1,65 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.block;
+
+import static java.util.Locale.ENGLISH;
+
+public enum PageCompression
+{
+    NONE((byte) 0),
+    SNAPPY((byte) 1);
+
+    private final byte marker;
+
+    PageCompression(byte marker)
+    {
+        this.marker = marker;
+    }
+
+    public byte getMarker()
+    {
+        return marker;
+    }
+
+    /**
+     * Name of the codec, as used in the compression parameter of the pages media type.
+     */
+    public String getCodecName()
+    {
+        return name().toLowerCase(ENGLISH);
+    }
+
+    public static PageCompression fromMarker(byte marker)
+    {
+        for (PageCompression compression : values()) {
+            if (compression.marker == marker) {
+                return compression;
+            }
+        }
+        throw new IllegalArgumentException("Unknown page compression marker: " + marker);
+    }
+
+    /**
+     * Returns the compression for the codec name, or {@link #NONE} if the codec is not supported.
+     */
+    public static PageCompression fromCodecName(String codecName)
+    {
+        for (PageCompression compression : values()) {
+            if (compression.getCodecName().equalsIgnoreCase(codecName)) {
+                return compression;
+            }
+        }
+        return NONE;
+    }
+}
@@ -18,11 +18,17 @@ import com.facebook.presto.spi.block.Block;
 import com.facebook.presto.spi.block.BlockEncoding;
 import com.facebook.presto.spi.block.BlockEncodingSerde;
 import com.google.common.collect.AbstractIterator;
+import io.airlift.slice.DynamicSliceOutput;
+import io.airlift.slice.Slice;
 import io.airlift.slice.SliceInput;
 import io.airlift.slice.SliceOutput;
+import io.airlift.slice.Slices;
+import org.iq80.snappy.Snappy;
 
 import java.util.Iterator;
 
+import static com.facebook.presto.block.PageCompression.NONE;
+import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.Arrays.asList;
 import static java.util.Objects.requireNonNull;
 
@@ -32,8 +38,19 @@ import static java.util.Objects.requireNonNull;
 //   - sequence of:
 //       - block encoding
 //       - block
+//
+// compressed layout is:
+//   - position count (int)
+//   - compression marker (byte)
+//   - uncompressed size (int)
+//   - compressed size (int)
+//   - number of blocks and sequence of blocks as above, compressed with the marked codec
 public final class PagesSerde
 {
+    // pages that do not compress to less than this fraction of their size are written
+    // uncompressed, since the transfer savings would not pay for decompressing them
+    private static final double MINIMUM_COMPRESSION_RATIO = 0.8;
+
     private PagesSerde() {}
 
     public static void writePages(BlockEncodingSerde blockEncodingSerde, SliceOutput sliceOutput, Page... pages)
@@ -59,6 +76,40 @@ public final class PagesSerde
         return new PagesReader(blockEncodingSerde, sliceInput);
     }
 
+    public static void writeCompressedPages(BlockEncodingSerde blockEncodingSerde, SliceOutput sliceOutput, PageCompression compression, Iterator<Page> pages)
+    {
+        CompressedPagesWriter pagesWriter = new CompressedPagesWriter(blockEncodingSerde, sliceOutput, compression);
+        while (pages.hasNext()) {
+            pagesWriter.append(pages.next());
+        }
+    }
+
+    public static CompressedPagesReader readCompressedPages(BlockEncodingSerde blockEncodingSerde, SliceInput sliceInput)
+    {
+        return new CompressedPagesReader(blockEncodingSerde, sliceInput);
+    }
+
+    private static void writeBlocks(BlockEncodingSerde serde, SliceOutput output, Block[] blocks)
+    {
+        output.writeInt(blocks.length);
+        for (int i = 0; i < blocks.length; i++) {
+            BlockEncoding encoding = blocks[i].getEncoding();
+            serde.writeBlockEncoding(output, encoding);
+            encoding.writeBlock(output, blocks[i]);
+        }
+    }
+
+    private static Block[] readBlocks(BlockEncodingSerde serde, SliceInput input)
+    {
+        int numberOfBlocks = input.readInt();
+        Block[] blocks = new Block[numberOfBlocks];
+        for (int i = 0; i < blocks.length; i++) {
+            BlockEncoding encoding = serde.readBlockEncoding(input);
+            blocks[i] = encoding.readBlock(input);
+        }
+        return blocks;
+    }
+
     private static class PagesWriter
     {
         private final BlockEncodingSerde serde;
@@ -74,18 +125,65 @@ public final class PagesSerde
         {
             requireNonNull(page, "page is null");
 
-            Block[] blocks = page.getBlocks();
+            output.writeInt(page.getPositionCount());
+            writeBlocks(serde, output, page.getBlocks());
+
+            return this;
+        }
+    }
+
+    private static class CompressedPagesWriter
+    {
+        private final BlockEncodingSerde serde;
+        private final SliceOutput output;
+        private final PageCompression compression;
+
+        private CompressedPagesWriter(BlockEncodingSerde serde, SliceOutput output, PageCompression compression)
+        {
+            this.serde = requireNonNull(serde, "serde is null");
+            this.output = requireNonNull(output, "output is null");
+            this.compression = requireNonNull(compression, "compression is null");
+        }
+
+        public CompressedPagesWriter append(Page page)
+        {
+            requireNonNull(page, "page is null");
+
+            DynamicSliceOutput buffer = new DynamicSliceOutput((int) page.getSizeInBytes() + 1024);
+            writeBlocks(serde, buffer, page.getBlocks());
+            Slice uncompressed = buffer.slice();
 
             output.writeInt(page.getPositionCount());
-            output.writeInt(blocks.length);
-            for (int i = 0; i < blocks.length; i++) {
-                BlockEncoding encoding = blocks[i].getEncoding();
-                serde.writeBlockEncoding(output, encoding);
-                encoding.writeBlock(output, blocks[i]);
+            Slice compressed = compress(uncompressed);
+            if (compressed.length() < uncompressed.length() * MINIMUM_COMPRESSION_RATIO) {
+                output.writeByte(compression.getMarker());
+                output.writeInt(uncompressed.length());
+                output.writeInt(compressed.length());
+                output.writeBytes(compressed);
+            }
+            else {
+                output.writeByte(NONE.getMarker());
+                output.writeInt(uncompressed.length());
+                output.writeInt(uncompressed.length());
+                output.writeBytes(uncompressed);
             }
 
             return this;
         }
+
+        private Slice compress(Slice uncompressed)
+        {
+            switch (compression) {
+                case NONE:
+                    return uncompressed;
+                case SNAPPY:
+                    byte[] input = uncompressed.getBytes();
+                    byte[] compressed = new byte[Snappy.maxCompressedLength(input.length)];
+                    int compressedLength = Snappy.compress(input, 0, input.length, compressed, 0);
+                    return Slices.wrappedBuffer(compressed, 0, compressedLength);
+            }
+            throw new IllegalArgumentException("Unsupported page compression: " + compression);
+        }
     }
 
     private static class PagesReader
@@ -108,16 +206,78 @@ public final class PagesSerde
             }
 
             int positions = input.readInt();
-            int numberOfBlocks = input.readInt();
-            Block[] blocks = new Block[numberOfBlocks];
-            for (int i = 0; i < blocks.length; i++) {
-                BlockEncoding encoding = serde.readBlockEncoding(input);
-                blocks[i] = encoding.readBlock(input);
-            }
+            Block[] blocks = readBlocks(serde, input);
 
             @SuppressWarnings("UnnecessaryLocalVariable")
             Page page = new Page(positions, blocks);
             return page;
         }
     }
+
+    public static class CompressedPagesReader
+            extends AbstractIterator<Page>
+    {
+        private final BlockEncodingSerde serde;
+        private final SliceInput input;
+
+        private long compressedBytes;
+        private long uncompressedBytes;
+
+        private CompressedPagesReader(BlockEncodingSerde serde, SliceInput input)
+        {
+            this.serde = requireNonNull(serde, "serde is null");
+            this.input = requireNonNull(input, "input is null");
+        }
+
+        /**
+         * Size of the page data read so far, as stored in the input.
+         */
+        public long getCompressedBytes()
+        {
+            return compressedBytes;
+        }
+
+        /**
+         * Size of the page data read so far, after decompression.
+         */
+        public long getUncompressedBytes()
+        {
+            return uncompressedBytes;
+        }
+
+        @Override
+        protected Page computeNext()
+        {
+            if (!input.isReadable()) {
+                return endOfData();
+            }
+
+            int positions = input.readInt();
+            PageCompression compression = PageCompression.fromMarker(input.readByte());
+            int uncompressedSize = input.readInt();
+            int compressedSize = input.readInt();
+            Slice data = input.readSlice(compressedSize);
+
+            compressedBytes += compressedSize;
+            uncompressedBytes += uncompressedSize;
+
+            Block[] blocks = readBlocks(serde, decompress(compression, data, uncompressedSize).getInput());
+            return new Page(positions, blocks);
+        }
+
+        private static Slice decompress(PageCompression compression, Slice data, int uncompressedSize)
+        {
+            switch (compression) {
+                case NONE:
+                    return data;
+                case SNAPPY:
+                    byte[] input = data.getBytes();
+                    byte[] uncompressed = new byte[uncompressedSize];
+                    int length = Snappy.uncompress(input, 0, input.length, uncompressed, 0);
+                    checkArgument(length == uncompressedSize, "Expected %s bytes after decompression, but got %s", uncompressedSize, length);
+                    return Slices.wrappedBuffer(uncompressed);
+            }
+            throw new IllegalArgumentException("Unsupported page compression: " + compression);
+        }
+    }
 }
@@ -0,0 +1,90 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.execution;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Queue of splits waiting for a runner thread, with one FIFO queue per priority
+ * level. Each level is striped so runner threads mostly work on their own stripe
+ * and only steal from the other stripes of a level when their own is empty.
+ * Elements of a lower level are always taken before elements of a higher level.
+ */
+@ThreadSafe
+final class MultilevelSplitQueue<T>
+{
+    private final Queue<T>[][] levels;
+    // one permit for each queued element
+    private final Semaphore queuedElements = new Semaphore(0);
+
+    @SuppressWarnings("unchecked")
+    public MultilevelSplitQueue(int levelCount, int stripeCount)
+    {
+        checkArgument(levelCount > 0, "levelCount must be at least 1");
+        checkArgument(stripeCount > 0, "stripeCount must be at least 1");
+
+        levels = new Queue[levelCount][stripeCount];
+        for (int level = 0; level < levelCount; level++) {
+            for (int stripe = 0; stripe < stripeCount; stripe++) {
+                levels[level][stripe] = new ConcurrentLinkedQueue<>();
+            }
+        }
+    }
+
+    public int getStripeCount()
+    {
+        return levels[0].length;
+    }
+
+    public void offer(int level, int stripe, T element)
+    {
+        requireNonNull(element, "element is null");
+        levels[level][stripe].add(element);
+        queuedElements.release();
+    }
+
+    /**
+     * Removes the first element of the lowest non-empty level, preferring the given
+     * stripe, and waits for an element if the queue is empty.
+     */
+    public T take(int stripe)
+            throws InterruptedException
+    {
+        queuedElements.acquire();
+        while (true) {
+            for (Queue<T>[] stripes : levels) {
+                for (int i = 0; i < stripes.length; i++) {
+                    T element = stripes[(stripe + i) % stripes.length].poll();
+                    if (element != null) {
+                        return element;
+                    }
+                }
+            }
+            // the permit guarantees an element is queued, but it may have been
+            // added to a queue this scan had already passed, so scan again
+        }
+    }
+
+    public int size()
+    {
+        return queuedElements.availablePermits();
+    }
+}
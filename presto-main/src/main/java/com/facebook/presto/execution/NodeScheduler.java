@@ -18,10 +18,12 @@ import com.facebook.presto.spi.HostAddress;
 import com.facebook.presto.spi.Node;
 import com.facebook.presto.spi.NodeManager;
 import com.facebook.presto.spi.PrestoException;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Supplier;
 import com.google.common.base.Suppliers;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSetMultimap;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.SetMultimap;
@@ -39,6 +41,7 @@ import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
@@ -48,16 +51,22 @@ import static com.facebook.presto.spi.StandardErrorCode.NO_NODES_AVAILABLE;
 import static com.facebook.presto.util.ImmutableCollectors.toImmutableList;
 import static com.facebook.presto.util.ImmutableCollectors.toImmutableSet;
 import static com.google.common.base.Preconditions.checkArgument;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
 import static java.util.Objects.requireNonNull;
 
 public class NodeScheduler
 {
     private static final Logger log = Logger.get(NodeScheduler.class);
 
+    // bounds the weight of a node, so a single slow node still receives some splits
+    private static final double MIN_RELATIVE_THROUGHPUT = 0.1;
+
     private final NodeManager nodeManager;
     private final AtomicLong scheduleLocal = new AtomicLong();
     private final AtomicLong scheduleRack = new AtomicLong();
     private final AtomicLong scheduleRandom = new AtomicLong();
+    private final AtomicLong schedulePreferred = new AtomicLong();
     private final int minCandidates;
     private final boolean locationAwareScheduling;
     private final boolean includeCoordinator;
@@ -65,6 +74,7 @@ public class NodeScheduler
     private final int maxSplitsPerNodePerTaskWhenFull;
     private final NodeTaskMap nodeTaskMap;
     private final boolean doubleScheduling;
+    private final boolean loadAwareScheduling;
 
     @Inject
     public NodeScheduler(NodeManager nodeManager, NodeSchedulerConfig config, NodeTaskMap nodeTaskMap)
@@ -76,6 +86,7 @@ public class NodeScheduler
         this.doubleScheduling = config.isMultipleTasksPerNodeEnabled();
         this.maxSplitsPerNode = config.getMaxSplitsPerNode();
         this.maxSplitsPerNodePerTaskWhenFull = config.getMaxPendingSplitsPerNodePerTask();
+        this.loadAwareScheduling = config.isLoadAwareSchedulingEnabled();
         this.nodeTaskMap = requireNonNull(nodeTaskMap, "nodeTaskMap is null");
         checkArgument(maxSplitsPerNode > maxSplitsPerNodePerTaskWhenFull, "maxSplitsPerNode must be > maxSplitsPerNodePerTaskWhenFull");
     }
@@ -98,12 +109,19 @@ public class NodeScheduler
         return scheduleRandom.get();
     }
 
+    @Managed
+    public long getSchedulePreferred()
+    {
+        return schedulePreferred.get();
+    }
+
     @Managed
     public void reset()
     {
         scheduleLocal.set(0);
         scheduleRack.set(0);
         scheduleRandom.set(0);
+        schedulePreferred.set(0);
     }
 
     public NodeSelector createNodeSelector(String dataSourceName)
@@ -227,12 +245,33 @@ public class NodeScheduler
                 queuedSplitCountByNode.put(nodeId, queuedSplitCountByNode.getOrDefault(nodeId, 0) + task.getQueuedPartitionedSplitCount());
             }
 
+            // nodes that complete the splits of this stage slowly are weighted down, nodes without history count as average
+            Map<String, Double> relativeThroughputByNode = loadAwareScheduling ? getRelativeSplitThroughput(existingTasks) : ImmutableMap.of();
+
             ResettableRandomizedIterator<Node> randomCandidates = randomizedNodes();
             for (Split split : splits) {
                 randomCandidates.reset();
 
-                List<Node> candidateNodes;
                 NodeMap nodeMap = this.nodeMap.get().get();
+
+                // a split preferring a node, for example because the node caches its data, is assigned to it
+                // unless it is full, instead of competing with the other candidates for the least loaded node
+                Optional<Node> preferredNode = selectPreferredNode(nodeMap, split);
+                if (preferredNode.isPresent()) {
+                    Node node = preferredNode.get();
+                    if (!splitCountByNode.containsKey(node)) {
+                        splitCountByNode.put(node, nodeTaskMap.getPartitionedSplitsOnNode(node));
+                    }
+                    int totalSplitCount = assignmentCount.getOrDefault(node, 0) + splitCountByNode.get(node);
+                    if (totalSplitCount < getMaxSplitsPerNode(maxSplitsPerNode, relativeThroughputByNode.getOrDefault(node.getNodeIdentifier(), 1.0))) {
+                        assignment.put(node, split);
+                        assignmentCount.put(node, assignmentCount.getOrDefault(node, 0) + 1);
+                        schedulePreferred.incrementAndGet();
+                        continue;
+                    }
+                }
+
+                List<Node> candidateNodes;
                 if (locationAwareScheduling || !split.isRemotelyAccessible()) {
                     candidateNodes = selectCandidateNodes(nodeMap, split, randomCandidates);
                 }
@@ -253,14 +292,17 @@ public class NodeScheduler
                 }
 
                 Node chosenNode = null;
-                int min = Integer.MAX_VALUE;
+                double min = Double.MAX_VALUE;
 
                 for (Node node : candidateNodes) {
                     int totalSplitCount = assignmentCount.getOrDefault(node, 0) + splitCountByNode.get(node);
+                    double relativeThroughput = relativeThroughputByNode.getOrDefault(node.getNodeIdentifier(), 1.0);
 
-                    if (totalSplitCount < min && totalSplitCount < maxSplitsPerNode) {
+                    // slow nodes also get a lower limit, so they do not queue up splits the other nodes could run
+                    double load = totalSplitCount / relativeThroughput;
+                    if (load < min && totalSplitCount < getMaxSplitsPerNode(maxSplitsPerNode, relativeThroughput)) {
                         chosenNode = node;
-                        min = totalSplitCount;
+                        min = load;
                     }
                 }
                 if (chosenNode == null) {
@@ -268,9 +310,10 @@ public class NodeScheduler
                         int assignedSplitCount = assignmentCount.getOrDefault(node, 0);
                         int queuedSplitCount = queuedSplitCountByNode.getOrDefault(node.getNodeIdentifier(), 0);
                         int totalSplitCount = queuedSplitCount + assignedSplitCount;
-                        if (totalSplitCount < min && totalSplitCount < maxSplitsPerNodePerTaskWhenFull) {
+                        double load = totalSplitCount / relativeThroughputByNode.getOrDefault(node.getNodeIdentifier(), 1.0);
+                        if (load < min && totalSplitCount < maxSplitsPerNodePerTaskWhenFull) {
                             chosenNode = node;
-                            min = totalSplitCount;
+                            min = load;
                         }
                     }
                 }
@@ -291,6 +334,17 @@ public class NodeScheduler
             return new ResettableRandomizedIterator<>(nodes);
         }
 
+        private Optional<Node> selectPreferredNode(NodeMap nodeMap, Split split)
+        {
+            // the addresses of a split that is not remotely accessible are the only nodes it can run on
+            if (!split.isRemotelyAccessible() || !split.getPreferredNode().isPresent()) {
+                return Optional.empty();
+            }
+            return nodeMap.getNodesByHostAndPort().get(split.getPreferredNode().get()).stream()
+                    .filter(node -> includeCoordinator || !nodeMap.getCoordinatorNodeIds().contains(node.getNodeIdentifier()))
+                    .findFirst();
+        }
+
         private List<Node> selectCandidateNodes(NodeMap nodeMap, Split split, ResettableRandomizedIterator<Node> randomizedIterator)
         {
             Set<Node> chosen = new LinkedHashSet<>(minCandidates);
@@ -390,6 +444,45 @@ public class NodeScheduler
         }
     }
 
+    private static int getMaxSplitsPerNode(int maxSplitsPerNode, double relativeThroughput)
+    {
+        return max((int) Math.ceil(maxSplitsPerNode * min(relativeThroughput, 1.0)), 1);
+    }
+
+    private static Map<String, Double> getRelativeSplitThroughput(Iterable<RemoteTask> existingTasks)
+    {
+        Map<String, Double> splitsPerSecondByNode = new HashMap<>();
+        for (RemoteTask task : existingTasks) {
+            // each partitioned driver processes one split, and the status is current unlike the task info
+            TaskStatus status = task.getTaskStatus();
+            if (status.getCompletedPartitionedDrivers() == 0) {
+                continue;
+            }
+            double executionSeconds = max(status.getExecutionTime().getValue(TimeUnit.SECONDS), 0.001);
+            double splitsPerSecond = status.getCompletedPartitionedDrivers() / executionSeconds;
+            splitsPerSecondByNode.merge(task.getNodeId(), splitsPerSecond, Double::sum);
+        }
+        return getRelativeThroughput(splitsPerSecondByNode);
+    }
+
+    /**
+     * Divides the throughput of each node by the average throughput of all nodes.
+     */
+    @VisibleForTesting
+    static Map<String, Double> getRelativeThroughput(Map<String, Double> throughputByNode)
+    {
+        double average = throughputByNode.values().stream()
+                .mapToDouble(Double::doubleValue)
+                .average()
+                .orElse(0);
+
+        Map<String, Double> relativeThroughput = new HashMap<>();
+        if (average > 0) {
+            throughputByNode.forEach((node, throughput) -> relativeThroughput.put(node, max(throughput / average, MIN_RELATIVE_THROUGHPUT)));
+        }
+        return relativeThroughput;
+    }
+
     private static class NodeMap
     {
         private final SetMultimap<HostAddress, Node> nodesByHostAndPort;
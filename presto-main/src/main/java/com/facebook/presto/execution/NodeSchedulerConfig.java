@@ -26,6 +26,7 @@ public class NodeSchedulerConfig
     private boolean multipleTasksPerNode;
     private int maxSplitsPerNode = 100;
     private int maxPendingSplitsPerNodePerTask = 10;
+    private boolean loadAwareScheduling;
 
     public boolean isMultipleTasksPerNodeEnabled()
     {
@@ -100,4 +101,17 @@ public class NodeSchedulerConfig
         this.maxSplitsPerNode = maxSplitsPerNode;
         return this;
     }
+
+    public boolean isLoadAwareSchedulingEnabled()
+    {
+        return loadAwareScheduling;
+    }
+
+    @ConfigDescription("Assign fewer splits to nodes that complete the splits of a stage more slowly than the other nodes")
+    @Config("node-scheduler.load-aware-scheduling-enabled")
+    public NodeSchedulerConfig setLoadAwareSchedulingEnabled(boolean loadAwareScheduling)
+    {
+        this.loadAwareScheduling = loadAwareScheduling;
+        return this;
+    }
 }
@@ -81,7 +81,7 @@ public class NodeTaskMap
             });
 
             // Check if task state changes before adding the listener
-            if (task.getTaskInfo().getState().isDone()) {
+            if (task.getTaskStatus().getState().isDone()) {
                 remoteTasks.remove(task);
             }
         }
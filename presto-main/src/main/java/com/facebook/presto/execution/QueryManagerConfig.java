@@ -14,7 +14,9 @@
 package com.facebook.presto.execution;
 
 import io.airlift.configuration.Config;
+import io.airlift.configuration.ConfigDescription;
 import io.airlift.configuration.DefunctConfig;
+import io.airlift.units.DataSize;
 import io.airlift.units.Duration;
 import io.airlift.units.MinDuration;
 
@@ -23,6 +25,8 @@ import javax.validation.constraints.NotNull;
 
 import java.util.concurrent.TimeUnit;
 
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+
 @DefunctConfig({"query.max-pending-splits-per-node",
                 "experimental.big-query-initial-hash-partitions",
                 "experimental.max-concurrent-big-queries",
@@ -48,6 +52,11 @@ public class QueryManagerConfig
     private String queryExecutionPolicy = "all-at-once";
     private Duration queryMaxRunTime = new Duration(100, TimeUnit.DAYS);
 
+    private boolean resultCacheEnabled;
+    private DataSize resultCacheMaxSize = new DataSize(100, MEGABYTE);
+    private DataSize resultCacheMaxEntrySize = new DataSize(1, MEGABYTE);
+    private Duration resultCacheTtl = new Duration(10, TimeUnit.MINUTES);
+
     public String getQueueConfigFile()
     {
         return queueConfigFile;
@@ -220,4 +229,59 @@ public class QueryManagerConfig
         this.queryExecutionPolicy = queryExecutionPolicy;
         return this;
     }
+
+    public boolean isResultCacheEnabled()
+    {
+        return resultCacheEnabled;
+    }
+
+    @Config("query.result-cache-enabled")
+    @ConfigDescription("Reuse the results of earlier queries with the same plan over unchanged data")
+    public QueryManagerConfig setResultCacheEnabled(boolean resultCacheEnabled)
+    {
+        this.resultCacheEnabled = resultCacheEnabled;
+        return this;
+    }
+
+    @NotNull
+    public DataSize getResultCacheMaxSize()
+    {
+        return resultCacheMaxSize;
+    }
+
+    @Config("query.result-cache-max-size")
+    @ConfigDescription("Maximum total size of the cached query results")
+    public QueryManagerConfig setResultCacheMaxSize(DataSize resultCacheMaxSize)
+    {
+        this.resultCacheMaxSize = resultCacheMaxSize;
+        return this;
+    }
+
+    @NotNull
+    public DataSize getResultCacheMaxEntrySize()
+    {
+        return resultCacheMaxEntrySize;
+    }
+
+    @Config("query.result-cache-max-entry-size")
+    @ConfigDescription("Maximum size of the results of a single query that are cached")
+    public QueryManagerConfig setResultCacheMaxEntrySize(DataSize resultCacheMaxEntrySize)
+    {
+        this.resultCacheMaxEntrySize = resultCacheMaxEntrySize;
+        return this;
+    }
+
+    @NotNull
+    public Duration getResultCacheTtl()
+    {
+        return resultCacheTtl;
+    }
+
+    @Config("query.result-cache-ttl")
+    @ConfigDescription("Time after which cached query results are discarded, even if the data did not change")
+    public QueryManagerConfig setResultCacheTtl(Duration resultCacheTtl)
+    {
+        this.resultCacheTtl = resultCacheTtl;
+        return this;
+    }
 }
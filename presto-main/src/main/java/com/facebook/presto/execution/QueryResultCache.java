@@ -0,0 +1,356 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.execution;
+
+import com.facebook.presto.Session;
+import com.facebook.presto.metadata.Metadata;
+import com.facebook.presto.spi.Page;
+import com.facebook.presto.spi.type.TimeZoneKey;
+import com.facebook.presto.sql.planner.DeterminismEvaluator;
+import com.facebook.presto.sql.planner.Plan;
+import com.facebook.presto.sql.planner.PlanPrinter;
+import com.facebook.presto.sql.planner.plan.AggregationNode;
+import com.facebook.presto.sql.planner.plan.FilterNode;
+import com.facebook.presto.sql.planner.plan.PlanNode;
+import com.facebook.presto.sql.planner.plan.ProjectNode;
+import com.facebook.presto.sql.planner.plan.TableScanNode;
+import com.facebook.presto.sql.planner.plan.ValuesNode;
+import com.facebook.presto.sql.planner.plan.WindowNode;
+import com.facebook.presto.sql.tree.DefaultExpressionTraversalVisitor;
+import com.facebook.presto.sql.tree.Expression;
+import com.facebook.presto.sql.tree.FunctionCall;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import org.weakref.jmx.Managed;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import javax.inject.Inject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Caches the results of queries on the coordinator. A result is keyed by the text of the
+ * optimized plan and the versions of the data of all scanned tables reported by the connectors,
+ * so it is only reused while the connectors report the same data versions.
+ */
+@ThreadSafe
+public class QueryResultCache
+{
+    // these functions depend on the start time of the query
+    private static final Set<String> START_TIME_FUNCTIONS = ImmutableSet.of(
+            "current_date",
+            "current_time",
+            "current_timestamp",
+            "localtime",
+            "localtimestamp",
+            "now");
+
+    private final Cache<CacheKey, List<Page>> results;
+    private final long maxEntrySizeInBytes;
+    private final ConcurrentMap<QueryId, PendingResult> pendingResults = new ConcurrentHashMap<>();
+
+    @Inject
+    public QueryResultCache(QueryManagerConfig config)
+    {
+        requireNonNull(config, "config is null");
+        this.results = CacheBuilder.newBuilder()
+                .maximumWeight(config.getResultCacheMaxSize().toBytes())
+                .<CacheKey, List<Page>>weigher((key, pages) -> (int) Math.min(sizeOf(pages), Integer.MAX_VALUE))
+                .expireAfterWrite(config.getResultCacheTtl().toMillis(), MILLISECONDS)
+                .recordStats()
+                .build();
+        this.maxEntrySizeInBytes = config.getResultCacheMaxEntrySize().toBytes();
+    }
+
+    /**
+     * Returns the cache key of the results of the plan, or empty if the results can not be cached,
+     * because the plan is not deterministic or a connector does not report the version of a table.
+     */
+    public static Optional<CacheKey> createCacheKey(Plan plan, Metadata metadata, Session session)
+    {
+        List<PlanNode> nodes = new ArrayList<>();
+        collectNodes(plan.getRoot(), nodes);
+
+        ImmutableList.Builder<Object> dataVersions = ImmutableList.builder();
+        boolean scansTable = false;
+        for (PlanNode node : nodes) {
+            for (Expression expression : getExpressions(node)) {
+                if (!isCacheable(expression)) {
+                    return Optional.empty();
+                }
+            }
+            if (node instanceof TableScanNode) {
+                TableScanNode tableScan = (TableScanNode) node;
+                Optional<Object> dataVersion = metadata.getDataVersion(session, tableScan.getTable(), tableScan.getLayout());
+                if (!dataVersion.isPresent()) {
+                    return Optional.empty();
+                }
+                dataVersions.add(dataVersion.get());
+                scansTable = true;
+            }
+        }
+
+        // queries that do not read tables are cheap to run again
+        if (!scansTable) {
+            return Optional.empty();
+        }
+
+        String planText = PlanPrinter.textLogicalPlan(plan.getRoot(), plan.getTypes(), metadata, session);
+        return Optional.of(new CacheKey(planText, session.getTimeZoneKey(), session.getLocale(), dataVersions.build()));
+    }
+
+    public Optional<List<Page>> get(CacheKey key)
+    {
+        return Optional.ofNullable(results.getIfPresent(requireNonNull(key, "key is null")));
+    }
+
+    /**
+     * Collects the results of the query, which are cached under the key when the query finishes.
+     */
+    public void collectResults(QueryId queryId, CacheKey key)
+    {
+        pendingResults.put(requireNonNull(queryId, "queryId is null"), new PendingResult(key, maxEntrySizeInBytes));
+    }
+
+    public void addResults(QueryId queryId, List<Page> pages)
+    {
+        PendingResult pendingResult = pendingResults.get(queryId);
+        if (pendingResult != null && !pendingResult.addPages(pages)) {
+            // the results are too large to be cached
+            pendingResults.remove(queryId);
+        }
+    }
+
+    /**
+     * Caches the results of the query. Must only be called after all results were added.
+     */
+    public void finishResults(QueryId queryId)
+    {
+        PendingResult pendingResult = pendingResults.remove(queryId);
+        if (pendingResult != null) {
+            results.put(pendingResult.getKey(), pendingResult.getPages());
+        }
+    }
+
+    public void abortResults(QueryId queryId)
+    {
+        pendingResults.remove(queryId);
+    }
+
+    @Managed
+    public long getHitCount()
+    {
+        return results.stats().hitCount();
+    }
+
+    @Managed
+    public long getMissCount()
+    {
+        return results.stats().missCount();
+    }
+
+    @Managed
+    public long getEvictionCount()
+    {
+        return results.stats().evictionCount();
+    }
+
+    @Managed
+    public long getSize()
+    {
+        return results.size();
+    }
+
+    @Managed
+    public long getSizeInBytes()
+    {
+        return results.asMap().values().stream()
+                .mapToLong(QueryResultCache::sizeOf)
+                .sum();
+    }
+
+    @Managed
+    public long getPendingResults()
+    {
+        return pendingResults.size();
+    }
+
+    @Managed
+    public void flush()
+    {
+        results.invalidateAll();
+    }
+
+    private static long sizeOf(List<Page> pages)
+    {
+        return pages.stream()
+                .mapToLong(Page::getSizeInBytes)
+                .sum();
+    }
+
+    private static void collectNodes(PlanNode node, List<PlanNode> nodes)
+    {
+        nodes.add(node);
+        for (PlanNode source : node.getSources()) {
+            collectNodes(source, nodes);
+        }
+    }
+
+    private static List<Expression> getExpressions(PlanNode node)
+    {
+        ImmutableList.Builder<Expression> expressions = ImmutableList.builder();
+        if (node instanceof ProjectNode) {
+            expressions.addAll(((ProjectNode) node).getExpressions());
+        }
+        else if (node instanceof FilterNode) {
+            expressions.add(((FilterNode) node).getPredicate());
+        }
+        else if (node instanceof AggregationNode) {
+            expressions.addAll(((AggregationNode) node).getAggregations().values());
+        }
+        else if (node instanceof WindowNode) {
+            expressions.addAll(((WindowNode) node).getWindowFunctions().values());
+        }
+        else if (node instanceof ValuesNode) {
+            ((ValuesNode) node).getRows().forEach(expressions::addAll);
+        }
+        else if (node instanceof TableScanNode) {
+            expressions.add(((TableScanNode) node).getOriginalConstraint());
+        }
+        return expressions.build();
+    }
+
+    private static boolean isCacheable(Expression expression)
+    {
+        if (!DeterminismEvaluator.isDeterministic(expression)) {
+            return false;
+        }
+
+        AtomicBoolean cacheable = new AtomicBoolean(true);
+        new DefaultExpressionTraversalVisitor<Void, Void>()
+        {
+            @Override
+            protected Void visitFunctionCall(FunctionCall node, Void context)
+            {
+                if (START_TIME_FUNCTIONS.contains(node.getName().toString())) {
+                    cacheable.set(false);
+                }
+                return super.visitFunctionCall(node, context);
+            }
+        }.process(expression, null);
+        return cacheable.get();
+    }
+
+    public static final class CacheKey
+    {
+        private final String plan;
+        private final TimeZoneKey timeZoneKey;
+        private final Locale locale;
+        private final List<Object> dataVersions;
+
+        public CacheKey(String plan, TimeZoneKey timeZoneKey, Locale locale, List<Object> dataVersions)
+        {
+            this.plan = requireNonNull(plan, "plan is null");
+            this.timeZoneKey = requireNonNull(timeZoneKey, "timeZoneKey is null");
+            this.locale = requireNonNull(locale, "locale is null");
+            this.dataVersions = ImmutableList.copyOf(requireNonNull(dataVersions, "dataVersions is null"));
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            CacheKey other = (CacheKey) obj;
+            return Objects.equals(this.plan, other.plan) &&
+                    Objects.equals(this.timeZoneKey, other.timeZoneKey) &&
+                    Objects.equals(this.locale, other.locale) &&
+                    Objects.equals(this.dataVersions, other.dataVersions);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(plan, timeZoneKey, locale, dataVersions);
+        }
+
+        @Override
+        public String toString()
+        {
+            return toStringHelper(this)
+                    .add("plan", plan)
+                    .add("timeZoneKey", timeZoneKey)
+                    .add("locale", locale)
+                    .add("dataVersions", dataVersions)
+                    .toString();
+        }
+    }
+
+    private static class PendingResult
+    {
+        private final CacheKey key;
+        private final long maxSizeInBytes;
+
+        @GuardedBy("this")
+        private final List<Page> pages = new ArrayList<>();
+
+        @GuardedBy("this")
+        private long sizeInBytes;
+
+        public PendingResult(CacheKey key, long maxSizeInBytes)
+        {
+            this.key = requireNonNull(key, "key is null");
+            this.maxSizeInBytes = maxSizeInBytes;
+        }
+
+        public CacheKey getKey()
+        {
+            return key;
+        }
+
+        public synchronized boolean addPages(List<Page> newPages)
+        {
+            sizeInBytes += sizeOf(newPages);
+            if (sizeInBytes > maxSizeInBytes) {
+                return false;
+            }
+            pages.addAll(newPages);
+            return true;
+        }
+
+        public synchronized List<Page> getPages()
+        {
+            return ImmutableList.copyOf(pages);
+        }
+    }
+}
@@ -26,8 +26,18 @@ public interface RemoteTask
 
     String getNodeId();
 
+    /**
+     * Gets the full info of the task, including its statistics.  The statistics
+     * are only fetched from the worker when they are asked for, so they may be
+     * older than the status.
+     */
     TaskInfo getTaskInfo();
 
+    /**
+     * Gets the status of the task, which is kept current for scheduling.
+     */
+    TaskStatus getTaskStatus();
+
     void start();
 
     void addSplits(PlanNodeId sourceId, Iterable<Split> split);
@@ -38,7 +48,7 @@ public interface RemoteTask
 
     void addStateChangeListener(StateChangeListener<TaskInfo> stateChangeListener);
 
-    CompletableFuture<TaskInfo> getStateChange(TaskInfo taskInfo);
+    CompletableFuture<TaskStatus> getStateChange(TaskStatus taskStatus);
 
     void cancel();
 
@@ -176,6 +176,11 @@ public class SharedBuffer
         return state.get() == FINISHED;
     }
 
+    public BufferState getState()
+    {
+        return state.get();
+    }
+
     public SharedBufferInfo getInfo()
     {
         //
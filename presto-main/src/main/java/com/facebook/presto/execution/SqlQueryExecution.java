@@ -17,13 +17,16 @@ import com.facebook.presto.OutputBuffers;
 import com.facebook.presto.Session;
 import com.facebook.presto.SystemSessionProperties;
 import com.facebook.presto.UnpartitionedPagePartitionFunction;
+import com.facebook.presto.execution.QueryResultCache.CacheKey;
 import com.facebook.presto.security.AccessControl;
 import com.facebook.presto.execution.StateMachine.StateChangeListener;
 import com.facebook.presto.execution.scheduler.ExecutionPolicy;
 import com.facebook.presto.execution.scheduler.SqlQueryScheduler;
 import com.facebook.presto.memory.VersionedMemoryPoolId;
 import com.facebook.presto.metadata.Metadata;
+import com.facebook.presto.spi.Page;
 import com.facebook.presto.spi.PrestoException;
+import com.facebook.presto.spi.type.Type;
 import com.facebook.presto.split.SplitManager;
 import com.facebook.presto.sql.analyzer.Analysis;
 import com.facebook.presto.sql.analyzer.Analyzer;
@@ -38,7 +41,11 @@ import com.facebook.presto.sql.planner.PlanFragmenter;
 import com.facebook.presto.sql.planner.PlanNodeIdAllocator;
 import com.facebook.presto.sql.planner.StageExecutionPlan;
 import com.facebook.presto.sql.planner.SubPlan;
+import com.facebook.presto.sql.planner.Symbol;
 import com.facebook.presto.sql.planner.optimizations.PlanOptimizer;
+import com.facebook.presto.sql.planner.plan.OutputNode;
+import com.facebook.presto.sql.planner.plan.ValuesNode;
+import com.facebook.presto.sql.tree.Expression;
 import com.facebook.presto.sql.tree.Statement;
 import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableList;
@@ -57,7 +64,11 @@ import java.util.concurrent.atomic.AtomicReference;
 
 import static com.facebook.presto.OutputBuffers.INITIAL_EMPTY_OUTPUT_BUFFERS;
 import static com.facebook.presto.SystemSessionProperties.getHashPartitionCount;
+import static com.facebook.presto.SystemSessionProperties.isQueryResultCacheEnabled;
 import static com.facebook.presto.spi.StandardErrorCode.NOT_SUPPORTED;
+import static com.facebook.presto.sql.planner.LiteralInterpreter.toExpression;
+import static com.facebook.presto.type.TypeUtils.castValue;
+import static com.facebook.presto.util.ImmutableCollectors.toImmutableList;
 import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.Objects.requireNonNull;
 
@@ -84,6 +95,7 @@ public final class SqlQueryExecution
     private final int initialHashPartitions;
     private final boolean experimentalSyntaxEnabled;
     private final ExecutorService queryExecutor;
+    private final QueryResultCache queryResultCache;
 
     private final QueryExplainer queryExplainer;
     private final AtomicReference<SqlQueryScheduler> queryScheduler = new AtomicReference<>();
@@ -111,7 +123,8 @@ public final class SqlQueryExecution
             ExecutorService queryExecutor,
             NodeTaskMap nodeTaskMap,
             QueryExplainer queryExplainer,
-            ExecutionPolicy executionPolicy)
+            ExecutionPolicy executionPolicy,
+            QueryResultCache queryResultCache)
     {
         try (SetThreadName ignored = new SetThreadName("Query-%s", queryId)) {
             this.statement = requireNonNull(statement, "statement is null");
@@ -128,6 +141,7 @@ public final class SqlQueryExecution
             this.session = requireNonNull(session, "session is null");
             this.executionPolicy = requireNonNull(executionPolicy, "executionPolicy is null");
             this.queryExplainer = requireNonNull(queryExplainer, "queryExplainer is null");
+            this.queryResultCache = requireNonNull(queryResultCache, "queryResultCache is null");
 
             checkArgument(scheduleSplitBatchSize > 0, "scheduleSplitBatchSize must be greater than 0");
             this.scheduleSplitBatchSize = scheduleSplitBatchSize;
@@ -147,6 +161,11 @@ public final class SqlQueryExecution
                     return;
                 }
 
+                // results of queries that did not finish must not be cached
+                if (state != QueryState.FINISHED) {
+                    queryResultCache.abortResults(queryId);
+                }
+
                 // query is now done, so abort any work that is still running
                 SqlQueryScheduler scheduler = queryScheduler.get();
                 if (scheduler != null) {
@@ -269,6 +288,20 @@ public final class SqlQueryExecution
         List<Input> inputs = new InputExtractor(metadata, session).extract(plan.getRoot());
         stateMachine.setInputs(inputs);
 
+        // reuse the results of an earlier execution of the same plan over the same data
+        if (analysis.getUpdateType() == null && isQueryResultCacheEnabled(session)) {
+            Optional<CacheKey> cacheKey = QueryResultCache.createCacheKey(plan, metadata, session);
+            if (cacheKey.isPresent()) {
+                Optional<List<Page>> cachedResults = queryResultCache.get(cacheKey.get());
+                if (cachedResults.isPresent()) {
+                    plan = createCachedResultsPlan(plan, idAllocator, cachedResults.get());
+                }
+                else {
+                    queryResultCache.collectResults(stateMachine.getQueryId(), cacheKey.get());
+                }
+            }
+        }
+
         // fragment the plan
         SubPlan subplan = new PlanFragmenter().createSubPlans(plan);
 
@@ -278,6 +311,36 @@ public final class SqlQueryExecution
         return subplan;
     }
 
+    private static Plan createCachedResultsPlan(Plan plan, PlanNodeIdAllocator idAllocator, List<Page> pages)
+    {
+        OutputNode output = (OutputNode) plan.getRoot();
+        List<Type> types = output.getOutputSymbols().stream()
+                .map(symbol -> plan.getTypes().get(symbol))
+                .collect(toImmutableList());
+
+        ImmutableList.Builder<Symbol> symbols = ImmutableList.builder();
+        for (int i = 0; i < types.size(); i++) {
+            symbols.add(plan.getSymbolAllocator().newSymbol(output.getColumnNames().get(i), types.get(i)));
+        }
+        List<Symbol> outputSymbols = symbols.build();
+
+        ImmutableList.Builder<List<Expression>> rows = ImmutableList.builder();
+        for (Page page : pages) {
+            for (int position = 0; position < page.getPositionCount(); position++) {
+                ImmutableList.Builder<Expression> row = ImmutableList.builder();
+                for (int channel = 0; channel < types.size(); channel++) {
+                    Type type = types.get(channel);
+                    row.add(toExpression(castValue(type, page.getBlock(channel), position), type));
+                }
+                rows.add(row.build());
+            }
+        }
+
+        ValuesNode values = new ValuesNode(idAllocator.getNextId(), outputSymbols, rows.build());
+        OutputNode root = new OutputNode(idAllocator.getNextId(), values, output.getColumnNames(), outputSymbols);
+        return new Plan(root, plan.getSymbolAllocator());
+    }
+
     private void planDistribution(SubPlan subplan)
     {
         // time distribution planning
@@ -453,6 +516,7 @@ public final class SqlQueryExecution
         private final ExecutorService executor;
         private final NodeTaskMap nodeTaskMap;
         private final Map<String, ExecutionPolicy> executionPolicies;
+        private final QueryResultCache queryResultCache;
 
         @Inject
         SqlQueryExecutionFactory(QueryManagerConfig config,
@@ -468,7 +532,8 @@ public final class SqlQueryExecution
                 @ForQueryExecution ExecutorService executor,
                 NodeTaskMap nodeTaskMap,
                 QueryExplainer queryExplainer,
-                Map<String, ExecutionPolicy> executionPolicies)
+                Map<String, ExecutionPolicy> executionPolicies,
+                QueryResultCache queryResultCache)
         {
             requireNonNull(config, "config is null");
             this.scheduleSplitBatchSize = config.getScheduleSplitBatchSize();
@@ -487,6 +552,7 @@ public final class SqlQueryExecution
             this.queryExplainer = requireNonNull(queryExplainer, "queryExplainer is null");
 
             this.executionPolicies = requireNonNull(executionPolicies, "schedulerPolicies is null");
+            this.queryResultCache = requireNonNull(queryResultCache, "queryResultCache is null");
         }
 
         @Override
@@ -516,7 +582,8 @@ public final class SqlQueryExecution
                     executor,
                     nodeTaskMap,
                     queryExplainer,
-                    executionPolicy);
+                    executionPolicy,
+                    queryResultCache);
 
             return queryExecution;
         }
@@ -178,7 +178,7 @@ public final class SqlStageExecution
     public synchronized long getMemoryReservation()
     {
         return getAllTasks().stream()
-                .mapToLong(task -> task.getTaskInfo().getStats().getMemoryReservation().toBytes())
+                .mapToLong(task -> task.getTaskStatus().getMemoryReservation().toBytes())
                 .sum();
     }
 
@@ -199,7 +199,7 @@ public final class SqlStageExecution
 
         exchangeLocations.put(remoteSource.getId(), exchangeLocation.getUri());
         for (RemoteTask task : getAllTasks()) {
-            task.addSplits(remoteSource.getId(), ImmutableList.of(createRemoteSplitFor(task.getTaskInfo().getTaskId(), exchangeLocation.getUri())));
+            task.addSplits(remoteSource.getId(), ImmutableList.of(createRemoteSplitFor(task.getTaskId(), exchangeLocation.getUri())));
         }
     }
 
@@ -260,8 +260,8 @@ public final class SqlStageExecution
             return completedFuture(null);
         }
 
-        List<CompletableFuture<TaskInfo>> stateChangeFutures = allTasks.stream()
-                .map(task -> task.getStateChange(task.getTaskInfo()))
+        List<CompletableFuture<TaskStatus>> stateChangeFutures = allTasks.stream()
+                .map(task -> task.getStateChange(task.getTaskStatus()))
                 .collect(toImmutableList());
 
         return firstCompletedFuture(stateChangeFutures, true);
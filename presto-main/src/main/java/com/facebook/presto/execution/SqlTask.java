@@ -28,6 +28,7 @@ import com.google.common.collect.ImmutableSet;
 import io.airlift.concurrent.SetThreadName;
 import io.airlift.log.Logger;
 import io.airlift.units.DataSize;
+import io.airlift.units.Duration;
 import org.joda.time.DateTime;
 
 import javax.annotation.Nullable;
@@ -43,8 +44,10 @@ import java.util.concurrent.atomic.AtomicReference;
 
 import static com.facebook.presto.util.Failures.toFailures;
 import static com.google.common.base.Preconditions.checkArgument;
+import static io.airlift.units.DataSize.Unit.BYTE;
 import static java.util.Objects.requireNonNull;
 import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 public class SqlTask
 {
@@ -171,6 +174,65 @@ public class SqlTask
         }
     }
 
+    public TaskStatus getTaskStatus()
+    {
+        try (SetThreadName ignored = new SetThreadName("Task-%s", taskId)) {
+            return createTaskStatus(taskHolderReference.get());
+        }
+    }
+
+    private TaskStatus createTaskStatus(TaskHolder taskHolder)
+    {
+        // Always return a new TaskStatus with a larger version number;
+        // otherwise a client will not accept the update
+        long versionNumber = nextTaskInfoVersion.getAndIncrement();
+
+        TaskState state = taskStateMachine.getState();
+        List<ExecutionFailureInfo> failures = getFailures(state);
+
+        int queuedPartitionedDrivers = 0;
+        int runningPartitionedDrivers = 0;
+        int completedPartitionedDrivers = 0;
+        Duration executionTime = new Duration(0, MILLISECONDS);
+        DataSize memoryReservation = new DataSize(0, BYTE);
+
+        TaskInfo finalTaskInfo = taskHolder.getFinalTaskInfo();
+        if (finalTaskInfo != null) {
+            TaskStatus finalTaskStatus = TaskStatus.fromTaskInfo(finalTaskInfo);
+            queuedPartitionedDrivers = finalTaskStatus.getQueuedPartitionedDrivers();
+            runningPartitionedDrivers = finalTaskStatus.getRunningPartitionedDrivers();
+            completedPartitionedDrivers = finalTaskStatus.getCompletedPartitionedDrivers();
+            executionTime = finalTaskStatus.getExecutionTime();
+            memoryReservation = finalTaskStatus.getMemoryReservation();
+        }
+        else {
+            SqlTaskExecution taskExecution = taskHolder.getTaskExecution();
+            if (taskExecution != null) {
+                // only read the counters, building the task stats walks every driver and operator
+                TaskContext taskContext = taskExecution.getTaskContext();
+                queuedPartitionedDrivers = taskContext.getQueuedPartitionedDrivers();
+                runningPartitionedDrivers = taskContext.getRunningPartitionedDrivers();
+                completedPartitionedDrivers = taskContext.getCompletedPartitionedDrivers();
+                executionTime = taskContext.getExecutionTime();
+                memoryReservation = taskContext.getMemoryReservation();
+            }
+        }
+
+        return new TaskStatus(
+                taskStateMachine.getTaskId(),
+                Optional.of(nodeInstanceId),
+                versionNumber,
+                state,
+                location,
+                sharedBuffer.getState(),
+                queuedPartitionedDrivers,
+                runningPartitionedDrivers,
+                completedPartitionedDrivers,
+                executionTime,
+                memoryReservation,
+                failures);
+    }
+
     private TaskInfo createTaskInfo(TaskHolder taskHolder)
     {
         // Always return a new TaskInfo with a larger version number;
@@ -178,10 +240,7 @@ public class SqlTask
         long versionNumber = nextTaskInfoVersion.getAndIncrement();
 
         TaskState state = taskStateMachine.getState();
-        List<ExecutionFailureInfo> failures = ImmutableList.of();
-        if (state == TaskState.FAILED) {
-            failures = toFailures(taskStateMachine.getFailureCauses());
-        }
+        List<ExecutionFailureInfo> failures = getFailures(state);
 
         TaskStats taskStats;
         Set<PlanNodeId> noMoreSplits;
@@ -218,6 +277,14 @@ public class SqlTask
                 failures);
     }
 
+    private List<ExecutionFailureInfo> getFailures(TaskState state)
+    {
+        if (state == TaskState.FAILED) {
+            return toFailures(taskStateMachine.getFailureCauses());
+        }
+        return ImmutableList.of();
+    }
+
     public CompletableFuture<TaskInfo> getTaskInfo(TaskState callersCurrentState)
     {
         requireNonNull(callersCurrentState, "callersCurrentState is null");
@@ -234,6 +301,22 @@ public class SqlTask
         return futureTaskState.thenApply(input -> getTaskInfo());
     }
 
+    public CompletableFuture<TaskStatus> getTaskStatus(TaskState callersCurrentState)
+    {
+        requireNonNull(callersCurrentState, "callersCurrentState is null");
+
+        // If the caller's current state is already done, just return the current
+        // state of this task as it will either be done or possibly still running
+        // (due to a bug in the caller), since we can not transition from a done
+        // state.
+        if (callersCurrentState.isDone()) {
+            return completedFuture(getTaskStatus());
+        }
+
+        CompletableFuture<TaskState> futureTaskState = taskStateMachine.getStateChange(callersCurrentState);
+        return futureTaskState.thenApply(input -> getTaskStatus());
+    }
+
     public TaskInfo updateTask(Session session, PlanFragment fragment, List<TaskSource> sources, OutputBuffers outputBuffers)
     {
         try {
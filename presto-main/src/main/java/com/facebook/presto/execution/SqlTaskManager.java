@@ -249,6 +249,27 @@ public class SqlTaskManager
         return sqlTask.getTaskInfo(currentState);
     }
 
+    @Override
+    public TaskStatus getTaskStatus(TaskId taskId)
+    {
+        requireNonNull(taskId, "taskId is null");
+
+        SqlTask sqlTask = tasks.getUnchecked(taskId);
+        sqlTask.recordHeartbeat();
+        return sqlTask.getTaskStatus();
+    }
+
+    @Override
+    public CompletableFuture<TaskStatus> getTaskStatus(TaskId taskId, TaskState currentState)
+    {
+        requireNonNull(taskId, "taskId is null");
+        requireNonNull(currentState, "currentState is null");
+
+        SqlTask sqlTask = tasks.getUnchecked(taskId);
+        sqlTask.recordHeartbeat();
+        return sqlTask.getTaskStatus(currentState);
+    }
+
     @Override
     public TaskInfo updateTask(Session session, TaskId taskId, PlanFragment fragment, List<TaskSource> sources, OutputBuffers outputBuffers)
     {
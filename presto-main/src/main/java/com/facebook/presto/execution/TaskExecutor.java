@@ -31,23 +31,19 @@ import org.weakref.jmx.Nested;
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 import javax.annotation.concurrent.GuardedBy;
-import javax.annotation.concurrent.NotThreadSafe;
 import javax.annotation.concurrent.ThreadSafe;
 import javax.inject.Inject;
 
 import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
-import java.util.concurrent.PriorityBlockingQueue;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
@@ -76,6 +72,9 @@ public class TaskExecutor
     // each time we run a split, run it for this length before returning to the pool
     private static final Duration SPLIT_RUN_QUANTA = new Duration(1, TimeUnit.SECONDS);
 
+    // see calculatePriorityLevel
+    private static final int PRIORITY_LEVELS = 5;
+
     private static final AtomicLong NEXT_RUNNER_ID = new AtomicLong();
     private static final AtomicLong NEXT_WORKER_ID = new AtomicLong();
 
@@ -87,19 +86,21 @@ public class TaskExecutor
 
     private final Ticker ticker;
 
-    @GuardedBy("this")
-    private final List<TaskHandle> tasks;
+    /**
+     * Tasks in round robin order for starting new splits.
+     */
+    private final Queue<TaskHandle> tasks = new ConcurrentLinkedQueue<>();
 
     /**
      * All splits registered with the task executor.
      */
-    @GuardedBy("this")
-    private final Set<PrioritizedSplitRunner> allSplits = new HashSet<>();
+    private final Set<PrioritizedSplitRunner> allSplits = newConcurrentHashSet();
 
     /**
-     * Splits waiting for a runner thread.
+     * Splits waiting for a runner thread. Splits of removed tasks are not
+     * removed from the queue, but discarded when a runner takes them.
      */
-    private final PriorityBlockingQueue<PrioritizedSplitRunner> pendingSplits;
+    private final MultilevelSplitQueue<PrioritizedSplitRunner> pendingSplits;
 
     /**
      * Splits running on a thread.
@@ -111,7 +112,7 @@ public class TaskExecutor
      */
     private final Map<PrioritizedSplitRunner, Future<?>> blockedSplits = new ConcurrentHashMap<>();
 
-    private final AtomicLongArray completedTasksPerLevel = new AtomicLongArray(5);
+    private final AtomicLongArray completedTasksPerLevel = new AtomicLongArray(PRIORITY_LEVELS);
 
     private final TimeStat queuedTime = new TimeStat(NANOSECONDS);
     private final TimeStat wallTime = new TimeStat(NANOSECONDS);
@@ -142,8 +143,8 @@ public class TaskExecutor
         this.ticker = requireNonNull(ticker, "ticker is null");
 
         this.minimumNumberOfDrivers = minDrivers;
-        this.pendingSplits = new PriorityBlockingQueue<>(Runtime.getRuntime().availableProcessors() * 10);
-        this.tasks = new LinkedList<>();
+        // runner threads beyond the number of processors share stripes
+        this.pendingSplits = new MultilevelSplitQueue<>(PRIORITY_LEVELS, Math.min(runnerThreads, Runtime.getRuntime().availableProcessors()));
     }
 
     @PostConstruct
@@ -163,7 +164,7 @@ public class TaskExecutor
     }
 
     @Override
-    public synchronized String toString()
+    public String toString()
     {
         return toStringHelper(this)
                 .add("runnerThreads", runnerThreads)
@@ -183,7 +184,7 @@ public class TaskExecutor
         }
     }
 
-    public synchronized TaskHandle addTask(TaskId taskId)
+    public TaskHandle addTask(TaskId taskId)
     {
         TaskHandle taskHandle = new TaskHandle(requireNonNull(taskId, "taskId is null"));
         tasks.add(taskHandle);
@@ -192,18 +193,14 @@ public class TaskExecutor
 
     public void removeTask(TaskHandle taskHandle)
     {
-        List<PrioritizedSplitRunner> splits;
-        synchronized (this) {
-            tasks.remove(taskHandle);
-            splits = taskHandle.destroy();
+        // the handle must be destroyed before it is removed, see pollNextSplitWorker
+        List<PrioritizedSplitRunner> splits = taskHandle.destroy();
+        tasks.remove(taskHandle);
 
-            // stop tracking splits (especially blocked splits which may never unblock)
-            allSplits.removeAll(splits);
-            blockedSplits.keySet().removeAll(splits);
-            pendingSplits.removeAll(splits);
-        }
+        // stop tracking splits (especially blocked splits which may never unblock)
+        allSplits.removeAll(splits);
+        blockedSplits.keySet().removeAll(splits);
 
-        // call destroy outside of synchronized block as it is expensive and doesn't need a lock on the task executor
         for (PrioritizedSplitRunner split : splits) {
             split.destroy();
         }
@@ -221,31 +218,34 @@ public class TaskExecutor
     {
         List<PrioritizedSplitRunner> splitsToDestroy = new ArrayList<>();
         List<ListenableFuture<?>> finishedFutures = new ArrayList<>(taskSplits.size());
-        synchronized (this) {
-            for (SplitRunner taskSplit : taskSplits) {
-                PrioritizedSplitRunner prioritizedSplitRunner = new PrioritizedSplitRunner(taskHandle, taskSplit, ticker);
+        for (SplitRunner taskSplit : taskSplits) {
+            PrioritizedSplitRunner prioritizedSplitRunner = new PrioritizedSplitRunner(taskHandle, taskSplit, ticker);
 
-                if (taskHandle.isDestroyed()) {
-                    // If the handle is destroyed, we destroy the task splits to complete the future
-                    splitsToDestroy.add(prioritizedSplitRunner);
-                }
-                else if (forceStart) {
+            if (forceStart) {
+                // add the runner to the handle before starting it, so it can be destroyed if the task is canceled
+                if (taskHandle.recordForcedRunningSplit(prioritizedSplitRunner)) {
                     // Note: we do not record queued time for forced splits
                     startSplit(prioritizedSplitRunner);
-                    // add the runner to the handle so it can be destroyed if the task is canceled
-                    taskHandle.recordForcedRunningSplit(prioritizedSplitRunner);
                 }
                 else {
-                    // add this to the work queue for the task
-                    taskHandle.enqueueSplit(prioritizedSplitRunner);
+                    // If the handle is destroyed, we destroy the task splits to complete the future
+                    splitsToDestroy.add(prioritizedSplitRunner);
+                }
+            }
+            else {
+                // add this to the work queue for the task
+                if (taskHandle.enqueueSplit(prioritizedSplitRunner)) {
                     // if task is under the limit for gaurenteed splits, start one
                     scheduleTaskIfNecessary(taskHandle);
                     // if globally we have more resources, start more
                     addNewEntrants();
                 }
-
-                finishedFutures.add(prioritizedSplitRunner.getFinishedFuture());
+                else {
+                    splitsToDestroy.add(prioritizedSplitRunner);
+                }
             }
+
+            finishedFutures.add(prioritizedSplitRunner.getFinishedFuture());
         }
         for (PrioritizedSplitRunner split : splitsToDestroy) {
             split.destroy();
@@ -255,39 +255,37 @@ public class TaskExecutor
 
     private void splitFinished(PrioritizedSplitRunner split)
     {
-        synchronized (this) {
-            allSplits.remove(split);
+        allSplits.remove(split);
 
-            TaskHandle taskHandle = split.getTaskHandle();
-            taskHandle.splitComplete(split);
+        TaskHandle taskHandle = split.getTaskHandle();
+        taskHandle.splitComplete(split);
 
-            wallTime.add(Duration.nanosSince(split.createdNanos));
+        wallTime.add(split.getTimeSinceCreated());
 
-            scheduleTaskIfNecessary(taskHandle);
+        scheduleTaskIfNecessary(taskHandle);
+
+        addNewEntrants();
 
-            addNewEntrants();
-        }
-        // call destroy outside of synchronized block as it is expensive and doesn't need a lock on the task executor
         split.destroy();
     }
 
-    private synchronized void scheduleTaskIfNecessary(TaskHandle taskHandle)
+    private void scheduleTaskIfNecessary(TaskHandle taskHandle)
     {
         // if task has less than the minimum guaranteed splits running,
         // immediately schedule a new split for this task.  This assures
         // that a task gets its fair amount of consideration (you have to
         // have splits to be considered for running on a thread).
-        if (taskHandle.getRunningSplits() < GUARANTEED_SPLITS_PER_TASK) {
-            PrioritizedSplitRunner split = taskHandle.pollNextSplit();
-            if (split != null) {
-                startSplit(split);
-                queuedTime.add(Duration.nanosSince(split.createdNanos));
-            }
+        PrioritizedSplitRunner split = taskHandle.pollNextSplit(GUARANTEED_SPLITS_PER_TASK);
+        if (split != null) {
+            startSplit(split);
+            queuedTime.add(split.getTimeSinceCreated());
         }
     }
 
-    private synchronized void addNewEntrants()
+    private void addNewEntrants()
     {
+        // the running splits are not reserved atomically, so concurrent
+        // callers can start a few more splits than the minimum
         int running = allSplits.size();
         for (int i = 0; i < minimumNumberOfDrivers - running; i++) {
             PrioritizedSplitRunner split = pollNextSplitWorker();
@@ -295,44 +293,48 @@ public class TaskExecutor
                 break;
             }
 
-            queuedTime.add(Duration.nanosSince(split.createdNanos));
+            queuedTime.add(split.getTimeSinceCreated());
             startSplit(split);
         }
     }
 
-    private synchronized void startSplit(PrioritizedSplitRunner split)
+    private void startSplit(PrioritizedSplitRunner split)
     {
         allSplits.add(split);
-        pendingSplits.put(split);
+        pendingSplits.offer(split.getPriorityLevel(), split.getStripe(pendingSplits.getStripeCount()), split);
     }
 
-    private synchronized PrioritizedSplitRunner pollNextSplitWorker()
+    private PrioritizedSplitRunner pollNextSplitWorker()
     {
-        // todo find a better algorithm for this
         // find the first task that produces a split, then move that task to the
-        // end of the task list, so we get round robin
-        for (Iterator<TaskHandle> iterator = tasks.iterator(); iterator.hasNext(); ) {
-            TaskHandle task = iterator.next();
-            PrioritizedSplitRunner split = task.pollNextSplit();
+        // end of the task queue, so we get round robin
+        for (TaskHandle task : tasks) {
+            PrioritizedSplitRunner split = task.pollNextSplit(Integer.MAX_VALUE);
             if (split != null) {
-                // move task to end of list
-                iterator.remove();
-
-                // CAUTION: we are modifying the list in the loop which would normally
-                // cause a ConcurrentModificationException but we exit immediately
-                tasks.add(task);
+                // only the caller that removed the task may add it back
+                if (tasks.remove(task)) {
+                    tasks.add(task);
+                    // the task may have been removed while it was not in the queue,
+                    // but it is always destroyed before it is removed
+                    if (task.isDestroyed()) {
+                        tasks.remove(task);
+                    }
+                }
                 return split;
             }
         }
         return null;
     }
 
-    @NotThreadSafe
+    @ThreadSafe
     public static class TaskHandle
     {
         private final TaskId taskId;
+        @GuardedBy("this")
         private final Queue<PrioritizedSplitRunner> queuedSplits = new ArrayDeque<>(10);
+        @GuardedBy("this")
         private final List<PrioritizedSplitRunner> runningSplits = new ArrayList<>(10);
+        @GuardedBy("this")
         private final List<PrioritizedSplitRunner> forcedRunningSplits = new ArrayList<>(10);
         private final AtomicLong taskThreadUsageNanos = new AtomicLong();
 
@@ -361,7 +363,7 @@ public class TaskExecutor
         }
 
         // Returns any remaining splits. The caller must destroy these.
-        private List<PrioritizedSplitRunner> destroy()
+        private synchronized List<PrioritizedSplitRunner> destroy()
         {
             destroyed.set(true);
 
@@ -375,20 +377,28 @@ public class TaskExecutor
             return builder.build();
         }
 
-        private void enqueueSplit(PrioritizedSplitRunner split)
+        // Returns false if the handle is destroyed, in which case the caller must destroy the split.
+        private synchronized boolean enqueueSplit(PrioritizedSplitRunner split)
         {
-            checkState(!destroyed.get(), "Can not add split to destroyed task handle");
+            if (destroyed.get()) {
+                return false;
+            }
             queuedSplits.add(split);
+            return true;
         }
 
-        private void recordForcedRunningSplit(PrioritizedSplitRunner split)
+        // Returns false if the handle is destroyed, in which case the caller must destroy the split.
+        private synchronized boolean recordForcedRunningSplit(PrioritizedSplitRunner split)
         {
-            checkState(!destroyed.get(), "Can not add split to destroyed task handle");
+            if (destroyed.get()) {
+                return false;
+            }
             forcedRunningSplits.add(split);
+            return true;
         }
 
         @VisibleForTesting
-        int getRunningSplits()
+        synchronized int getRunningSplits()
         {
             return runningSplits.size();
         }
@@ -398,9 +408,10 @@ public class TaskExecutor
             return taskThreadUsageNanos.get();
         }
 
-        private PrioritizedSplitRunner pollNextSplit()
+        // Starts the next queued split, unless the task already has the given number of running splits
+        private synchronized PrioritizedSplitRunner pollNextSplit(int maxRunningSplits)
         {
-            if (destroyed.get()) {
+            if (destroyed.get() || runningSplits.size() >= maxRunningSplits) {
                 return null;
             }
 
@@ -411,7 +422,7 @@ public class TaskExecutor
             return split;
         }
 
-        private void splitComplete(PrioritizedSplitRunner split)
+        private synchronized void splitComplete(PrioritizedSplitRunner split)
         {
             forcedRunningSplits.remove(split);
             runningSplits.remove(split);
@@ -432,24 +443,20 @@ public class TaskExecutor
     }
 
     private static class PrioritizedSplitRunner
-            implements Comparable<PrioritizedSplitRunner>
     {
-        private final long createdNanos = System.nanoTime();
-
         private final TaskHandle taskHandle;
         private final int splitId;
         private final long workerId;
         private final SplitRunner split;
 
         private final Ticker ticker;
+        private final long createdNanos;
 
         private final SettableFuture<?> finishedFuture = SettableFuture.create();
 
         private final AtomicBoolean destroyed = new AtomicBoolean();
 
         private final AtomicInteger priorityLevel = new AtomicInteger();
-        private final AtomicLong threadUsageNanos = new AtomicLong();
-        private final AtomicLong lastRun = new AtomicLong();
         private final AtomicLong start = new AtomicLong();
 
         private final AtomicLong cpuTime = new AtomicLong();
@@ -461,6 +468,7 @@ public class TaskExecutor
             this.splitId = taskHandle.getNextSplitId();
             this.split = split;
             this.ticker = ticker;
+            this.createdNanos = ticker.read();
             this.workerId = NEXT_WORKER_ID.getAndIncrement();
         }
 
@@ -469,6 +477,22 @@ public class TaskExecutor
             return taskHandle;
         }
 
+        private Duration getTimeSinceCreated()
+        {
+            return new Duration(ticker.read() - createdNanos, NANOSECONDS);
+        }
+
+        private int getPriorityLevel()
+        {
+            return priorityLevel.get();
+        }
+
+        // splits that are not requeued by a runner are spread over the stripes of the queue
+        private int getStripe(int stripeCount)
+        {
+            return (int) (workerId % stripeCount);
+        }
+
         private ListenableFuture<?> getFinishedFuture()
         {
             return finishedFuture;
@@ -509,12 +533,8 @@ public class TaskExecutor
                 // update priority level base on total thread usage of task
                 long durationNanos = elapsed.getWall().roundTo(NANOSECONDS);
                 long threadUsageNanos = taskHandle.addThreadUsageNanos(durationNanos);
-                this.threadUsageNanos.set(threadUsageNanos);
                 priorityLevel.set(calculatePriorityLevel(threadUsageNanos));
 
-                // record last run for prioritization within a level
-                lastRun.set(ticker.read());
-
                 cpuTime.addAndGet(elapsed.getCpu().roundTo(NANOSECONDS));
                 return blocked;
             }
@@ -527,36 +547,7 @@ public class TaskExecutor
         public boolean updatePriorityLevel()
         {
             int newPriority = calculatePriorityLevel(taskHandle.getThreadUsageNanos());
-            if (newPriority == priorityLevel.getAndSet(newPriority)) {
-                return false;
-            }
-
-            // update thread usage while if level changed
-            threadUsageNanos.set(taskHandle.getThreadUsageNanos());
-            return true;
-        }
-
-        @Override
-        public int compareTo(PrioritizedSplitRunner o)
-        {
-            int level = priorityLevel.get();
-
-            int result = Integer.compare(level, o.priorityLevel.get());
-            if (result != 0) {
-                return result;
-            }
-
-            if (level < 4) {
-                result = Long.compare(threadUsageNanos.get(), o.threadUsageNanos.get());
-            }
-            else {
-                result = Long.compare(lastRun.get(), o.lastRun.get());
-            }
-            if (result != 0) {
-                return result;
-            }
-
-            return Long.compare(workerId, o.workerId);
+            return newPriority != priorityLevel.getAndSet(newPriority);
         }
 
         public int getSplitId()
@@ -610,6 +601,7 @@ public class TaskExecutor
             implements Runnable
     {
         private final long runnerId = NEXT_RUNNER_ID.getAndIncrement();
+        private final int stripe = (int) (runnerId % pendingSplits.getStripeCount());
 
         @Override
         public void run()
@@ -619,10 +611,14 @@ public class TaskExecutor
                     // select next worker
                     final PrioritizedSplitRunner split;
                     try {
-                        split = pendingSplits.take();
+                        split = pendingSplits.take(stripe);
+                        if (split.getTaskHandle().isDestroyed()) {
+                            // the task was removed while the split was queued
+                            continue;
+                        }
                         if (split.updatePriorityLevel()) {
                             // priority level changed, return split to queue for re-prioritization
-                            pendingSplits.put(split);
+                            pendingSplits.offer(split.getPriorityLevel(), stripe, split);
                             continue;
                         }
                     }
@@ -650,7 +646,7 @@ public class TaskExecutor
                         }
                         else {
                             if (blocked.isDone()) {
-                                pendingSplits.put(split);
+                                pendingSplits.offer(split.getPriorityLevel(), stripe, split);
                             }
                             else {
                                 blockedSplits.put(split, blocked);
@@ -661,7 +657,7 @@ public class TaskExecutor
                                     {
                                         blockedSplits.remove(split);
                                         split.updatePriorityLevel();
-                                        pendingSplits.put(split);
+                                        pendingSplits.offer(split.getPriorityLevel(), split.getStripe(pendingSplits.getStripeCount()), split);
                                     }
                                 }, executor);
                             }
@@ -693,7 +689,7 @@ public class TaskExecutor
     //
 
     @Managed
-    public synchronized int getTasks()
+    public int getTasks()
     {
         return tasks.size();
     }
@@ -711,7 +707,7 @@ public class TaskExecutor
     }
 
     @Managed
-    public synchronized int getTotalSplits()
+    public int getTotalSplits()
     {
         return allSplits.size();
     }
@@ -808,7 +804,7 @@ public class TaskExecutor
         return wallTime;
     }
 
-    private synchronized int calculateRunningTasksForLevel(int level)
+    private int calculateRunningTasksForLevel(int level)
     {
         int count = 0;
         for (TaskHandle task : tasks) {
@@ -51,6 +51,28 @@ public interface TaskManager
      */
     CompletableFuture<TaskInfo> getTaskInfo(TaskId taskId, TaskState currentState);
 
+    /**
+     * Gets the status for the specified task.  The status is built from the
+     * state of the task without computing its statistics, so it is much
+     * cheaper than the info.  If the task has not been created yet, an
+     * uninitialized task is created and the status is returned.
+     *
+     * NOTE: this design assumes that only tasks that will eventually exist are
+     * queried.
+     */
+    TaskStatus getTaskStatus(TaskId taskId);
+
+    /**
+     * Gets future status for the task after the state changes from
+     * {@code current state}. If the task has not been created yet, an
+     * uninitialized task is created and the future is returned.  If the task
+     * is already in a final state, the status is returned immediately.
+     *
+     * NOTE: this design assumes that only tasks that will eventually exist are
+     * queried.
+     */
+    CompletableFuture<TaskStatus> getTaskStatus(TaskId taskId, TaskState currentState);
+
     void updateMemoryPoolAssignments(MemoryPoolAssignmentsRequest assignments);
 
     /**
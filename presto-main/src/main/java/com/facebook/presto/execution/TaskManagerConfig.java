@@ -44,6 +44,7 @@ public class TaskManagerConfig
     private Duration clientTimeout = new Duration(2, TimeUnit.MINUTES);
     private Duration infoMaxAge = new Duration(15, TimeUnit.MINUTES);
     private Duration infoRefreshMaxWait = new Duration(200, TimeUnit.MILLISECONDS);
+    private Duration infoUpdateInterval = new Duration(3, TimeUnit.SECONDS);
     private int writerCount = 1;
     private int taskDefaultConcurrency = 1;
     private int httpResponseThreads = 100;
@@ -64,6 +65,22 @@ public class TaskManagerConfig
         return this;
     }
 
+    @MinDuration("1ms")
+    @MaxDuration("10s")
+    @NotNull
+    public Duration getInfoUpdateInterval()
+    {
+        return infoUpdateInterval;
+    }
+
+    @Config("task.info-update-interval")
+    @ConfigDescription("Minimum age of the full task info, including statistics, before the coordinator fetches it again")
+    public TaskManagerConfig setInfoUpdateInterval(Duration infoUpdateInterval)
+    {
+        this.infoUpdateInterval = infoUpdateInterval;
+        return this;
+    }
+
     public boolean isVerboseStats()
     {
         return verboseStats;
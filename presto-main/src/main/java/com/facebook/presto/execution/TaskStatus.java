@@ -0,0 +1,200 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.execution;
+
+import com.facebook.presto.execution.SharedBuffer.BufferState;
+import com.facebook.presto.operator.TaskStats;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableList;
+import io.airlift.units.DataSize;
+import io.airlift.units.Duration;
+import org.joda.time.DateTime;
+
+import javax.annotation.concurrent.Immutable;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Optional;
+
+import static com.google.common.base.MoreObjects.firstNonNull;
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static java.lang.Math.max;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * The part of {@link TaskInfo} the coordinator needs to schedule a task and track its memory,
+ * without the per pipeline and operator statistics. Workers build it directly from the task state,
+ * and it shares its version numbers with the task info.
+ */
+@Immutable
+public class TaskStatus
+{
+    private final TaskId taskId;
+    private final Optional<String> nodeInstanceId;
+    private final long version;
+    private final TaskState state;
+    private final URI self;
+    private final BufferState outputBufferState;
+    private final int queuedPartitionedDrivers;
+    private final int runningPartitionedDrivers;
+    private final int completedPartitionedDrivers;
+    private final Duration executionTime;
+    private final DataSize memoryReservation;
+    private final List<ExecutionFailureInfo> failures;
+
+    @JsonCreator
+    public TaskStatus(@JsonProperty("taskId") TaskId taskId,
+            @JsonProperty("nodeInstanceId") Optional<String> nodeInstanceId,
+            @JsonProperty("version") long version,
+            @JsonProperty("state") TaskState state,
+            @JsonProperty("self") URI self,
+            @JsonProperty("outputBufferState") BufferState outputBufferState,
+            @JsonProperty("queuedPartitionedDrivers") int queuedPartitionedDrivers,
+            @JsonProperty("runningPartitionedDrivers") int runningPartitionedDrivers,
+            @JsonProperty("completedPartitionedDrivers") int completedPartitionedDrivers,
+            @JsonProperty("executionTime") Duration executionTime,
+            @JsonProperty("memoryReservation") DataSize memoryReservation,
+            @JsonProperty("failures") List<ExecutionFailureInfo> failures)
+    {
+        this.taskId = requireNonNull(taskId, "taskId is null");
+        this.nodeInstanceId = requireNonNull(nodeInstanceId, "nodeInstanceId is null");
+        this.version = version;
+        this.state = requireNonNull(state, "state is null");
+        this.self = requireNonNull(self, "self is null");
+        this.outputBufferState = requireNonNull(outputBufferState, "outputBufferState is null");
+        this.queuedPartitionedDrivers = queuedPartitionedDrivers;
+        this.runningPartitionedDrivers = runningPartitionedDrivers;
+        this.completedPartitionedDrivers = completedPartitionedDrivers;
+        this.executionTime = requireNonNull(executionTime, "executionTime is null");
+        this.memoryReservation = requireNonNull(memoryReservation, "memoryReservation is null");
+
+        if (failures != null) {
+            this.failures = ImmutableList.copyOf(failures);
+        }
+        else {
+            this.failures = ImmutableList.of();
+        }
+    }
+
+    public static TaskStatus fromTaskInfo(TaskInfo taskInfo)
+    {
+        TaskStats taskStats = taskInfo.getStats();
+        Duration executionTime = new Duration(0, MILLISECONDS);
+        if (taskStats.getFirstStartTime() != null) {
+            DateTime endTime = firstNonNull(taskStats.getEndTime(), DateTime.now());
+            executionTime = new Duration(max(endTime.getMillis() - taskStats.getFirstStartTime().getMillis(), 0), MILLISECONDS);
+        }
+
+        return new TaskStatus(
+                taskInfo.getTaskId(),
+                taskInfo.getNodeInstanceId(),
+                taskInfo.getVersion(),
+                taskInfo.getState(),
+                taskInfo.getSelf(),
+                taskInfo.getOutputBuffers().getState(),
+                taskStats.getQueuedPartitionedDrivers(),
+                taskStats.getRunningPartitionedDrivers(),
+                taskStats.getCompletedPartitionedDrivers(),
+                executionTime,
+                taskStats.getMemoryReservation(),
+                taskInfo.getFailures());
+    }
+
+    @JsonProperty
+    public TaskId getTaskId()
+    {
+        return taskId;
+    }
+
+    @JsonProperty
+    public Optional<String> getNodeInstanceId()
+    {
+        return nodeInstanceId;
+    }
+
+    @JsonProperty
+    public long getVersion()
+    {
+        return version;
+    }
+
+    @JsonProperty
+    public TaskState getState()
+    {
+        return state;
+    }
+
+    @JsonProperty
+    public URI getSelf()
+    {
+        return self;
+    }
+
+    @JsonProperty
+    public BufferState getOutputBufferState()
+    {
+        return outputBufferState;
+    }
+
+    @JsonProperty
+    public int getQueuedPartitionedDrivers()
+    {
+        return queuedPartitionedDrivers;
+    }
+
+    @JsonProperty
+    public int getRunningPartitionedDrivers()
+    {
+        return runningPartitionedDrivers;
+    }
+
+    @JsonProperty
+    public int getCompletedPartitionedDrivers()
+    {
+        return completedPartitionedDrivers;
+    }
+
+    /**
+     * The time since the first driver of the task started, until the task is done.
+     */
+    @JsonProperty
+    public Duration getExecutionTime()
+    {
+        return executionTime;
+    }
+
+    @JsonProperty
+    public DataSize getMemoryReservation()
+    {
+        return memoryReservation;
+    }
+
+    @JsonProperty
+    public List<ExecutionFailureInfo> getFailures()
+    {
+        return failures;
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("taskId", taskId)
+                .add("state", state)
+                .add("version", version)
+                .toString();
+    }
+}
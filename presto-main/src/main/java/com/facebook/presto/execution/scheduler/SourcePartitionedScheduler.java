@@ -20,10 +20,10 @@ import com.facebook.presto.spi.Node;
 import com.facebook.presto.split.SplitSource;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Multimap;
-import com.google.common.collect.Sets;
 
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map.Entry;
 import java.util.Set;
@@ -33,18 +33,24 @@ import static com.facebook.presto.util.ImmutableCollectors.toImmutableSet;
 import static com.google.common.base.Preconditions.checkArgument;
 import static io.airlift.concurrent.MoreFutures.getFutureValue;
 import static io.airlift.concurrent.MoreFutures.unmodifiableFuture;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
 import static java.util.Objects.requireNonNull;
 
 public class SourcePartitionedScheduler
         implements StageScheduler
 {
+    private static final int MAX_SPLIT_BATCH_SIZE_GROWTH = 8;
+
     private final SqlStageExecution stage;
     private final SplitSource splitSource;
     private final SplitPlacementPolicy splitPlacementPolicy;
-    private final int splitBatchSize;
+    private final int minSplitBatchSize;
+    private final int maxSplitBatchSize;
 
+    private int splitBatchSize;
     private CompletableFuture<List<Split>> batchFuture;
-    private Set<Split> pendingSplits = ImmutableSet.of();
+    private final Set<Split> pendingSplits = new LinkedHashSet<>();
 
     private final Set<String> scheduledNodes = new HashSet<>();
 
@@ -53,13 +59,26 @@ public class SourcePartitionedScheduler
             SplitSource splitSource,
             SplitPlacementPolicy splitPlacementPolicy,
             int splitBatchSize)
+    {
+        this(stage, splitSource, splitPlacementPolicy, splitBatchSize, (int) min((long) splitBatchSize * MAX_SPLIT_BATCH_SIZE_GROWTH, Integer.MAX_VALUE));
+    }
+
+    public SourcePartitionedScheduler(
+            SqlStageExecution stage,
+            SplitSource splitSource,
+            SplitPlacementPolicy splitPlacementPolicy,
+            int minSplitBatchSize,
+            int maxSplitBatchSize)
     {
         this.stage = requireNonNull(stage, "stage is null");
         this.splitSource = requireNonNull(splitSource, "splitSource is null");
         this.splitPlacementPolicy = requireNonNull(splitPlacementPolicy, "splitPlacementPolicy is null");
 
-        checkArgument(splitBatchSize > 0, "splitBatchSize must be at least one");
-        this.splitBatchSize = splitBatchSize;
+        checkArgument(minSplitBatchSize > 0, "minSplitBatchSize must be at least one");
+        checkArgument(maxSplitBatchSize >= minSplitBatchSize, "maxSplitBatchSize must be at least minSplitBatchSize");
+        this.minSplitBatchSize = minSplitBatchSize;
+        this.maxSplitBatchSize = maxSplitBatchSize;
+        this.splitBatchSize = minSplitBatchSize;
     }
 
     @Override
@@ -73,6 +92,8 @@ public class SourcePartitionedScheduler
         CompletableFuture<?> taskStateChange = stage.getTaskStateChange();
 
         // try to get the next batch if necessary
+        boolean fullBatch = false;
+        boolean newBatch = false;
         if (pendingSplits.isEmpty()) {
             if (batchFuture == null) {
                 if (splitSource.isFinished()) {
@@ -91,7 +112,10 @@ public class SourcePartitionedScheduler
                 CompletableFuture<List<Split>> blocked = unmodifiableFuture(batchFuture);
                 return new ScheduleResult(false, ImmutableSet.of(), blocked);
             }
-            pendingSplits = ImmutableSet.copyOf(getFutureValue(batchFuture));
+            List<Split> batch = getFutureValue(batchFuture);
+            pendingSplits.addAll(batch);
+            fullBatch = batch.size() >= splitBatchSize;
+            newBatch = true;
             batchFuture = null;
         }
 
@@ -100,10 +124,17 @@ public class SourcePartitionedScheduler
         Set<RemoteTask> newTasks = assignSplits(splitAssignment);
 
         // remove assigned splits
-        pendingSplits = ImmutableSet.copyOf(Sets.difference(pendingSplits, ImmutableSet.copyOf(splitAssignment.values())));
+        for (Split split : splitAssignment.values()) {
+            pendingSplits.remove(split);
+        }
 
         // if not all splits were consumed, return a partial result
         if (!pendingSplits.isEmpty()) {
+            // the workers are full, so fetch less at a time once they have room again
+            if (newBatch) {
+                splitBatchSize = max(splitBatchSize / 2, minSplitBatchSize);
+            }
+
             newTasks = ImmutableSet.<RemoteTask>builder()
                     .addAll(newTasks)
                     .addAll(finalizeTaskCreationIfNecessary())
@@ -112,6 +143,11 @@ public class SourcePartitionedScheduler
             return new ScheduleResult(false, newTasks, taskStateChange);
         }
 
+        // the workers took the whole batch at once, so fetch more at a time
+        if (fullBatch) {
+            splitBatchSize = (int) min((long) splitBatchSize * 2, maxSplitBatchSize);
+        }
+
         // all splits assigned - check if the source is finished
         boolean finished = splitSource.isFinished();
         if (finished) {
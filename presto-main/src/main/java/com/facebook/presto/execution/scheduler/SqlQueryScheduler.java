@@ -408,10 +408,10 @@ public class SqlQueryScheduler
             for (RemoteTask remoteTask : newTasks) {
                 if (parent.isPresent()) {
                     // when a task is created, add an exchange location to the parent stage
-                    parent.get().addExchangeLocation(new ExchangeLocation(currentStageFragmentId, remoteTask.getTaskInfo().getSelf()));
+                    parent.get().addExchangeLocation(new ExchangeLocation(currentStageFragmentId, remoteTask.getTaskStatus().getSelf()));
                 }
                 // when a task is created, add an output buffer to the child stages
-                childOutputBufferManagers.forEach(child -> child.addOutputBuffer(remoteTask.getTaskInfo().getTaskId()));
+                childOutputBufferManagers.forEach(child -> child.addOutputBuffer(remoteTask.getTaskId()));
             }
 
             switch (newState) {
@@ -14,10 +14,15 @@
 package com.facebook.presto.metadata;
 
 import com.facebook.presto.Session;
+import com.facebook.presto.spi.AggregateFunction;
+import com.facebook.presto.spi.AggregationApplicationResult;
 import com.facebook.presto.spi.ColumnHandle;
 import com.facebook.presto.spi.ColumnMetadata;
 import com.facebook.presto.spi.Constraint;
+import com.facebook.presto.spi.SortingProperty;
+import com.facebook.presto.spi.TupleDomain;
 import com.facebook.presto.spi.block.BlockEncodingSerde;
+import com.facebook.presto.spi.statistics.TableStatistics;
 import com.facebook.presto.spi.type.Type;
 import com.facebook.presto.spi.type.TypeManager;
 import com.facebook.presto.spi.type.TypeSignature;
@@ -68,6 +73,40 @@ public interface Metadata
     @NotNull
     TableLayout getLayout(Session session, TableLayoutHandle handle);
 
+    /**
+     * Returns statistics of the rows of the specified table that satisfy the constraint.
+     */
+    @NotNull
+    TableStatistics getTableStatistics(Session session, TableHandle tableHandle, Constraint<ColumnHandle> constraint);
+
+    /**
+     * Returns the version of the data of the specified table, or of the part of it selected by the layout,
+     * or empty if the connector cannot tell when the data changes.
+     */
+    Optional<Object> getDataVersion(Session session, TableHandle tableHandle, Optional<TableLayoutHandle> layoutHandle);
+
+    /**
+     * Returns a handle for a scan that only produces rows satisfying the constraint and at most
+     * {@code limit} rows per split, or empty if the connector cannot apply them.
+     */
+    Optional<TableHandle> applyLimit(Session session, TableHandle tableHandle, TupleDomain<ColumnHandle> constraint, long limit);
+
+    /**
+     * Returns a handle for a scan that only produces rows satisfying the constraint and the first
+     * {@code count} rows per split in the specified order, or empty if the connector cannot apply them.
+     */
+    Optional<TableHandle> applyTopN(Session session, TableHandle tableHandle, TupleDomain<ColumnHandle> constraint, List<SortingProperty<ColumnHandle>> orderBy, long count);
+
+    /**
+     * Attempts to push a per split aggregation of the rows satisfying the constraint into the table scan.
+     */
+    Optional<AggregationApplicationResult<TableHandle>> applyAggregation(
+            Session session,
+            TableHandle tableHandle,
+            TupleDomain<ColumnHandle> constraint,
+            List<ColumnHandle> groupingColumns,
+            List<AggregateFunction> aggregates);
+
     /**
      * Return the metadata for the specified table handle.
      *
@@ -16,6 +16,8 @@ package com.facebook.presto.metadata;
 import com.facebook.presto.Session;
 import com.facebook.presto.block.BlockEncodingManager;
 import com.facebook.presto.connector.informationSchema.InformationSchemaMetadata;
+import com.facebook.presto.spi.AggregateFunction;
+import com.facebook.presto.spi.AggregationApplicationResult;
 import com.facebook.presto.spi.ColumnHandle;
 import com.facebook.presto.spi.ColumnMetadata;
 import com.facebook.presto.spi.ConnectorInsertTableHandle;
@@ -27,6 +29,7 @@ import com.facebook.presto.spi.ConnectorSession;
 import com.facebook.presto.spi.ConnectorSplitManager;
 import com.facebook.presto.spi.ConnectorTableHandle;
 import com.facebook.presto.spi.ConnectorTableLayout;
+import com.facebook.presto.spi.ConnectorTableLayoutHandle;
 import com.facebook.presto.spi.ConnectorTableLayoutResult;
 import com.facebook.presto.spi.ConnectorTableMetadata;
 import com.facebook.presto.spi.ConnectorViewDefinition;
@@ -34,8 +37,10 @@ import com.facebook.presto.spi.Constraint;
 import com.facebook.presto.spi.PrestoException;
 import com.facebook.presto.spi.SchemaTableName;
 import com.facebook.presto.spi.SchemaTablePrefix;
+import com.facebook.presto.spi.SortingProperty;
 import com.facebook.presto.spi.TupleDomain;
 import com.facebook.presto.spi.block.BlockEncodingSerde;
+import com.facebook.presto.spi.statistics.TableStatistics;
 import com.facebook.presto.spi.type.Type;
 import com.facebook.presto.spi.type.TypeManager;
 import com.facebook.presto.spi.type.TypeSignature;
@@ -376,6 +381,53 @@ public class MetadataManager
         return fromConnectorLayout(connectorId, entry.getMetadata().getTableLayout(session.toConnectorSession(entry.getCatalog()), handle.getConnectorHandle()));
     }
 
+    @Override
+    public TableStatistics getTableStatistics(Session session, TableHandle tableHandle, Constraint<ColumnHandle> constraint)
+    {
+        ConnectorMetadataEntry entry = lookupConnectorFor(tableHandle);
+        return entry.getMetadata().getTableStatistics(session.toConnectorSession(entry.getCatalog()), tableHandle.getConnectorHandle(), constraint);
+    }
+
+    @Override
+    public Optional<Object> getDataVersion(Session session, TableHandle tableHandle, Optional<TableLayoutHandle> layoutHandle)
+    {
+        ConnectorMetadataEntry entry = lookupConnectorFor(tableHandle);
+        // legacy layouts are created by the engine, so the connector does not know them
+        Optional<ConnectorTableLayoutHandle> connectorLayoutHandle = layoutHandle
+                .map(TableLayoutHandle::getConnectorHandle)
+                .filter(handle -> !(handle instanceof LegacyTableLayoutHandle));
+        return entry.getMetadata().getDataVersion(session.toConnectorSession(entry.getCatalog()), tableHandle.getConnectorHandle(), connectorLayoutHandle);
+    }
+
+    @Override
+    public Optional<TableHandle> applyLimit(Session session, TableHandle tableHandle, TupleDomain<ColumnHandle> constraint, long limit)
+    {
+        ConnectorMetadataEntry entry = lookupConnectorFor(tableHandle);
+        return entry.getMetadata().applyLimit(session.toConnectorSession(entry.getCatalog()), tableHandle.getConnectorHandle(), constraint, limit)
+                .map(handle -> new TableHandle(tableHandle.getConnectorId(), handle));
+    }
+
+    @Override
+    public Optional<TableHandle> applyTopN(Session session, TableHandle tableHandle, TupleDomain<ColumnHandle> constraint, List<SortingProperty<ColumnHandle>> orderBy, long count)
+    {
+        ConnectorMetadataEntry entry = lookupConnectorFor(tableHandle);
+        return entry.getMetadata().applyTopN(session.toConnectorSession(entry.getCatalog()), tableHandle.getConnectorHandle(), constraint, orderBy, count)
+                .map(handle -> new TableHandle(tableHandle.getConnectorId(), handle));
+    }
+
+    @Override
+    public Optional<AggregationApplicationResult<TableHandle>> applyAggregation(
+            Session session,
+            TableHandle tableHandle,
+            TupleDomain<ColumnHandle> constraint,
+            List<ColumnHandle> groupingColumns,
+            List<AggregateFunction> aggregates)
+    {
+        ConnectorMetadataEntry entry = lookupConnectorFor(tableHandle);
+        return entry.getMetadata().applyAggregation(session.toConnectorSession(entry.getCatalog()), tableHandle.getConnectorHandle(), constraint, groupingColumns, aggregates)
+                .map(result -> result.transform(handle -> new TableHandle(tableHandle.getConnectorId(), handle)));
+    }
+
     @Override
     public TableMetadata getTableMetadata(Session session, TableHandle tableHandle)
     {
@@ -19,6 +19,7 @@ import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.util.List;
+import java.util.Optional;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
 import static java.util.Objects.requireNonNull;
@@ -59,6 +60,11 @@ public final class Split
         return connectorSplit.getAddresses();
     }
 
+    public Optional<HostAddress> getPreferredNode()
+    {
+        return connectorSplit.getPreferredNode();
+    }
+
     public boolean isRemotelyAccessible()
     {
         return connectorSplit.isRemotelyAccessible();
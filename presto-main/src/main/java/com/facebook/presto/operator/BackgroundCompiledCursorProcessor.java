@@ -0,0 +1,64 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator;
+
+import com.facebook.presto.spi.ConnectorSession;
+import com.facebook.presto.spi.PageBuilder;
+import com.facebook.presto.spi.RecordCursor;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.ListenableFuture;
+import io.airlift.log.Logger;
+
+import static com.google.common.util.concurrent.Futures.addCallback;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Evaluates cursors with an interpreted processor until the compiled processor is ready.
+ * If compilation fails, the interpreted processor is kept.
+ */
+public class BackgroundCompiledCursorProcessor
+        implements CursorProcessor
+{
+    private static final Logger log = Logger.get(BackgroundCompiledCursorProcessor.class);
+
+    private volatile CursorProcessor delegate;
+
+    public BackgroundCompiledCursorProcessor(CursorProcessor interpretedProcessor, ListenableFuture<? extends CursorProcessor> compiledProcessor)
+    {
+        this.delegate = requireNonNull(interpretedProcessor, "interpretedProcessor is null");
+        requireNonNull(compiledProcessor, "compiledProcessor is null");
+
+        addCallback(compiledProcessor, new FutureCallback<CursorProcessor>()
+        {
+            @Override
+            public void onSuccess(CursorProcessor processor)
+            {
+                delegate = processor;
+            }
+
+            @Override
+            public void onFailure(Throwable t)
+            {
+                log.error(t, "Background compilation failed, continuing with the interpreter: %s", interpretedProcessor);
+            }
+        }, directExecutor());
+    }
+
+    @Override
+    public int process(ConnectorSession session, RecordCursor cursor, int count, PageBuilder pageBuilder)
+    {
+        return delegate.process(session, cursor, count, pageBuilder);
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator;
+
+import com.facebook.presto.spi.ConnectorSession;
+import com.facebook.presto.spi.Page;
+import com.facebook.presto.spi.PageBuilder;
+import com.facebook.presto.spi.type.Type;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.ListenableFuture;
+import io.airlift.log.Logger;
+
+import java.util.List;
+
+import static com.google.common.util.concurrent.Futures.addCallback;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Evaluates pages with an interpreted processor until the compiled processor is ready.
+ * Each call is self-contained, so the processors can be switched between calls while
+ * a page is being processed. If compilation fails, the interpreted processor is kept.
+ */
+public class BackgroundCompiledPageProcessor
+        implements PageProcessor
+{
+    private static final Logger log = Logger.get(BackgroundCompiledPageProcessor.class);
+
+    private volatile PageProcessor delegate;
+
+    public BackgroundCompiledPageProcessor(PageProcessor interpretedProcessor, ListenableFuture<? extends PageProcessor> compiledProcessor)
+    {
+        this.delegate = requireNonNull(interpretedProcessor, "interpretedProcessor is null");
+        requireNonNull(compiledProcessor, "compiledProcessor is null");
+
+        addCallback(compiledProcessor, new FutureCallback<PageProcessor>()
+        {
+            @Override
+            public void onSuccess(PageProcessor processor)
+            {
+                delegate = processor;
+            }
+
+            @Override
+            public void onFailure(Throwable t)
+            {
+                log.error(t, "Background compilation failed, continuing with the interpreter: %s", interpretedProcessor);
+            }
+        }, directExecutor());
+    }
+
+    @Override
+    public int process(ConnectorSession session, Page page, int start, int end, PageBuilder pageBuilder)
+    {
+        return delegate.process(session, page, start, end, pageBuilder);
+    }
+
+    @Override
+    public boolean hasConstantExpressions(Page page)
+    {
+        return delegate.hasConstantExpressions(page);
+    }
+
+    @Override
+    public Page processColumnar(ConnectorSession session, Page page, List<? extends Type> types)
+    {
+        return delegate.processColumnar(session, page, types);
+    }
+}
@@ -17,6 +17,7 @@ import com.facebook.presto.spi.Page;
 import com.facebook.presto.spi.PageBuilder;
 import com.facebook.presto.spi.block.Block;
 import com.facebook.presto.spi.block.BlockBuilder;
+import com.facebook.presto.spi.block.RunLengthEncodedBlock;
 import com.facebook.presto.spi.type.Type;
 import com.facebook.presto.type.BigintOperators;
 import com.facebook.presto.util.array.IntBigArray;
@@ -135,8 +136,16 @@ public class BigintGroupByHash
             maskBlock = page.getBlock(maskChannel);
         }
 
-        // get the group id for each position
+        // every position has the same key, so only the first one needs to be added
         Block block = page.getBlock(hashChannel);
+        if (positionCount > 0 && isRunLengthEncoded(block, maskBlock)) {
+            if (maskBlock == null || BOOLEAN.getBoolean(maskBlock, 0)) {
+                putIfAbsent(0, block);
+            }
+            return;
+        }
+
+        // get the group id for each position
         for (int position = 0; position < positionCount; position++) {
             // skip masked rows
             if (maskBlock != null && !BOOLEAN.getBoolean(maskBlock, position)) {
@@ -153,16 +162,28 @@ public class BigintGroupByHash
     {
         int positionCount = page.getPositionCount();
 
-        // we know the exact size required for the block
-        BlockBuilder blockBuilder = BIGINT.createFixedSizeBlockBuilder(positionCount);
-
         Block maskBlock = null;
         if (maskChannel >= 0) {
             maskBlock = page.getBlock(maskChannel);
         }
 
-        // get the group id for each position
+        // every position has the same key, so the group id is looked up once
         Block block = page.getBlock(hashChannel);
+        if (positionCount > 0 && isRunLengthEncoded(block, maskBlock)) {
+            BlockBuilder groupIdBuilder = BIGINT.createFixedSizeBlockBuilder(1);
+            if (maskBlock != null && !BOOLEAN.getBoolean(maskBlock, 0)) {
+                groupIdBuilder.appendNull();
+            }
+            else {
+                BIGINT.writeLong(groupIdBuilder, putIfAbsent(0, block));
+            }
+            return new GroupByIdBlock(nextGroupId, new RunLengthEncodedBlock(groupIdBuilder.build(), positionCount));
+        }
+
+        // we know the exact size required for the block
+        BlockBuilder blockBuilder = BIGINT.createFixedSizeBlockBuilder(positionCount);
+
+        // get the group id for each position
         for (int position = 0; position < positionCount; position++) {
             // skip masked rows
             if (maskBlock != null && !BOOLEAN.getBoolean(maskBlock, position)) {
@@ -179,6 +200,11 @@ public class BigintGroupByHash
         return new GroupByIdBlock(nextGroupId, blockBuilder.build());
     }
 
+    private static boolean isRunLengthEncoded(Block block, Block maskBlock)
+    {
+        return block instanceof RunLengthEncodedBlock && (maskBlock == null || maskBlock instanceof RunLengthEncodedBlock);
+    }
+
     @Override
     public boolean contains(int position, Page page)
     {
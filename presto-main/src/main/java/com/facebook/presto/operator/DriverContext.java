@@ -385,6 +385,11 @@ public class DriverContext
         return partitioned;
     }
 
+    public boolean isExecutionStarted()
+    {
+        return executionStartTime.get() != null;
+    }
+
     private long currentThreadUserTime()
     {
         if (!isCpuTimerEnabled()) {
@@ -0,0 +1,121 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator;
+
+import com.facebook.presto.spi.Domain;
+import com.facebook.presto.spi.Page;
+import com.facebook.presto.spi.TupleDomain;
+import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.type.Type;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.ListenableFuture;
+
+import java.util.Map;
+
+import static com.facebook.presto.type.TypeUtils.castValue;
+import static com.google.common.base.Preconditions.checkState;
+import static io.airlift.concurrent.MoreFutures.getFutureValue;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Filter on the table scan of the probe side of a hash join, derived from
+ * the join keys of the build side once it is complete.
+ */
+public final class DynamicFilter
+{
+    private final Map<Integer, Integer> scanChannels;
+    private final Map<Integer, Type> scanTypes;
+    private final ListenableFuture<TupleDomain<Integer>> joinKeyDomain;
+
+    DynamicFilter(DynamicFilterSource source, Map<Integer, Integer> scanChannels)
+    {
+        requireNonNull(source, "source is null");
+        this.scanChannels = ImmutableMap.copyOf(requireNonNull(scanChannels, "scanChannels is null"));
+        this.joinKeyDomain = source.getJoinKeyDomain();
+
+        ImmutableMap.Builder<Integer, Type> scanTypes = ImmutableMap.builder();
+        for (Map.Entry<Integer, Integer> entry : scanChannels.entrySet()) {
+            scanTypes.put(entry.getValue(), source.getJoinKeyTypes().get(entry.getKey()));
+        }
+        this.scanTypes = scanTypes.build();
+    }
+
+    public ListenableFuture<?> isBlocked()
+    {
+        return joinKeyDomain;
+    }
+
+    /**
+     * Returns the domain of the filtered scan channels. Must only be called
+     * once the filter is no longer blocked.
+     */
+    public TupleDomain<Integer> getScanDomain()
+    {
+        checkState(joinKeyDomain.isDone(), "Build side is not complete");
+        TupleDomain<Integer> domain = getFutureValue(joinKeyDomain);
+        if (domain.isNone()) {
+            return TupleDomain.none();
+        }
+
+        ImmutableMap.Builder<Integer, Domain> scanDomains = ImmutableMap.builder();
+        for (Map.Entry<Integer, Domain> entry : domain.getDomains().entrySet()) {
+            Integer channel = scanChannels.get(entry.getKey());
+            if (channel != null) {
+                scanDomains.put(channel, entry.getValue());
+            }
+        }
+        return TupleDomain.withColumnDomains(scanDomains.build());
+    }
+
+    /**
+     * Removes the rows of the page that cannot match any row of the build side.
+     */
+    public Page filterPage(TupleDomain<Integer> scanDomain, Page page)
+    {
+        Map<Integer, Domain> domains = scanDomain.getDomains();
+        if (domains.isEmpty()) {
+            return page;
+        }
+
+        int[] retainedPositions = new int[page.getPositionCount()];
+        int retainedCount = 0;
+        for (int position = 0; position < page.getPositionCount(); position++) {
+            if (matches(domains, page, position)) {
+                retainedPositions[retainedCount] = position;
+                retainedCount++;
+            }
+        }
+        if (retainedCount == page.getPositionCount()) {
+            return page;
+        }
+
+        return page.copyPositions(retainedPositions, 0, retainedCount);
+    }
+
+    private boolean matches(Map<Integer, Domain> domains, Page page, int position)
+    {
+        for (Map.Entry<Integer, Domain> entry : domains.entrySet()) {
+            int channel = entry.getKey();
+            Block block = page.getBlock(channel);
+            if (block.isNull(position)) {
+                return false;
+            }
+            Object value = castValue(scanTypes.get(channel), block, position);
+            if (!entry.getValue().includesValue((Comparable<?>) value)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
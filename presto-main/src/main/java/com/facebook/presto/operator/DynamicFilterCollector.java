@@ -0,0 +1,165 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator;
+
+import com.facebook.presto.spi.Domain;
+import com.facebook.presto.spi.Page;
+import com.facebook.presto.spi.Range;
+import com.facebook.presto.spi.SortedRangeSet;
+import com.facebook.presto.spi.TupleDomain;
+import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.type.Type;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.airlift.slice.Slice;
+import io.airlift.slice.Slices;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.spi.type.DateType.DATE;
+import static com.facebook.presto.spi.type.TimestampType.TIMESTAMP;
+import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.primitives.Primitives.wrap;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Collects the distinct join keys seen by the build side of a hash join. Once a key
+ * has more than {@link #MAX_DISTINCT_VALUES} values only its range is tracked.
+ */
+@NotThreadSafe
+public class DynamicFilterCollector
+{
+    public static final int MAX_DISTINCT_VALUES = 1024;
+
+    private final List<Type> types;
+    private final List<Integer> channels;
+
+    private final List<Set<Comparable<?>>> distinctValues = new ArrayList<>();
+    private final Comparable<?>[] min;
+    private final Comparable<?>[] max;
+
+    public DynamicFilterCollector(List<Type> types, List<Integer> channels)
+    {
+        this.types = ImmutableList.copyOf(requireNonNull(types, "types is null"));
+        this.channels = ImmutableList.copyOf(requireNonNull(channels, "channels is null"));
+        checkArgument(types.size() == channels.size(), "types and channels must have the same size");
+
+        for (int i = 0; i < types.size(); i++) {
+            distinctValues.add(new HashSet<>());
+        }
+        this.min = new Comparable<?>[types.size()];
+        this.max = new Comparable<?>[types.size()];
+    }
+
+    /**
+     * Join keys of these types compare equal exactly when their values are equal,
+     * so a domain over the values can be used to filter the probe side.
+     */
+    public static boolean isSupportedType(Type type)
+    {
+        return type.equals(BIGINT) || type.equals(DATE) || type.equals(TIMESTAMP) || type.equals(VARCHAR);
+    }
+
+    public void add(Page page)
+    {
+        for (int key = 0; key < types.size(); key++) {
+            Type type = types.get(key);
+            if (!isSupportedType(type)) {
+                continue;
+            }
+            Block block = page.getBlock(channels.get(key));
+            for (int position = 0; position < block.getPositionCount(); position++) {
+                if (!block.isNull(position)) {
+                    addValue(key, getValue(type, block, position));
+                }
+            }
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void addValue(int key, Comparable value)
+    {
+        if (min[key] == null || value.compareTo(min[key]) < 0) {
+            min[key] = retain(value);
+        }
+        if (max[key] == null || value.compareTo(max[key]) > 0) {
+            max[key] = retain(value);
+        }
+
+        Set<Comparable<?>> values = distinctValues.get(key);
+        if (values != null && !values.contains(value)) {
+            values.add(retain(value));
+            if (values.size() > MAX_DISTINCT_VALUES) {
+                distinctValues.set(key, null);
+            }
+        }
+    }
+
+    private static Comparable<?> getValue(Type type, Block block, int position)
+    {
+        if (type.getJavaType() == long.class) {
+            return type.getLong(block, position);
+        }
+        return type.getSlice(block, position);
+    }
+
+    private static Comparable<?> retain(Comparable<?> value)
+    {
+        // slices may point into the page, which must not be retained
+        if (value instanceof Slice) {
+            return Slices.copyOf((Slice) value);
+        }
+        return value;
+    }
+
+    /**
+     * Returns the domain of each join key, by join key position. Null keys never
+     * match, so the domain is none when a key has no values.
+     */
+    public TupleDomain<Integer> build()
+    {
+        ImmutableMap.Builder<Integer, Domain> domains = ImmutableMap.builder();
+        for (int key = 0; key < types.size(); key++) {
+            Type type = types.get(key);
+            if (!isSupportedType(type)) {
+                continue;
+            }
+            if (min[key] == null) {
+                return TupleDomain.none();
+            }
+
+            Set<Comparable<?>> values = distinctValues.get(key);
+            SortedRangeSet ranges;
+            if (values != null) {
+                List<Range> valueRanges = new ArrayList<>(values.size());
+                for (Comparable<?> value : values) {
+                    valueRanges.add(Range.equal(value));
+                }
+                ranges = SortedRangeSet.copyOf(wrap(type.getJavaType()), valueRanges);
+            }
+            else {
+                ranges = SortedRangeSet.of(Range.range(min[key], true, max[key], true));
+            }
+            domains.put(key, Domain.create(ranges, false));
+        }
+        return TupleDomain.withColumnDomains(domains.build());
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator;
+
+import com.facebook.presto.spi.TupleDomain;
+import com.facebook.presto.spi.type.Type;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.AsyncFunction;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.util.concurrent.Futures.transform;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Summary of the join keys seen by the build side of a hash join. The domain
+ * is keyed by the position of the key in the join criteria and is published
+ * once the build side is complete.
+ */
+@ThreadSafe
+public final class DynamicFilterSource
+{
+    private final List<Type> joinKeyTypes;
+    private final SettableFuture<TupleDomain<Integer>> joinKeyDomain = SettableFuture.create();
+
+    public DynamicFilterSource(List<Type> joinKeyTypes)
+    {
+        this.joinKeyTypes = ImmutableList.copyOf(requireNonNull(joinKeyTypes, "joinKeyTypes is null"));
+    }
+
+    public List<Type> getJoinKeyTypes()
+    {
+        return joinKeyTypes;
+    }
+
+    public DynamicFilterCollector createCollector(List<Integer> joinChannels)
+    {
+        return new DynamicFilterCollector(joinKeyTypes, joinChannels);
+    }
+
+    /**
+     * Creates the filter for a table scan on the probe side.
+     *
+     * @param scanChannels the channel of the scan producing each join key, by join key position
+     */
+    public DynamicFilter createDynamicFilter(Map<Integer, Integer> scanChannels)
+    {
+        return new DynamicFilter(this, scanChannels);
+    }
+
+    public void setJoinKeyDomain(TupleDomain<Integer> domain)
+    {
+        requireNonNull(domain, "domain is null");
+        // only the first domain is used, so a build side that failed can safely publish "all"
+        joinKeyDomain.set(domain);
+    }
+
+    public ListenableFuture<TupleDomain<Integer>> getJoinKeyDomain()
+    {
+        return transform(joinKeyDomain, (AsyncFunction<TupleDomain<Integer>, TupleDomain<Integer>>) Futures::immediateFuture);
+    }
+}
@@ -13,6 +13,7 @@
  */
 package com.facebook.presto.operator;
 
+import com.facebook.presto.block.PageCompression;
 import com.facebook.presto.execution.SystemMemoryUsageListener;
 import com.facebook.presto.operator.HttpPageBufferClient.ClientCallback;
 import com.facebook.presto.spi.Page;
@@ -46,6 +47,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 
+import static com.facebook.presto.block.PageCompression.NONE;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.collect.Sets.newConcurrentHashSet;
 import static java.util.Objects.requireNonNull;
@@ -61,6 +63,7 @@ public class ExchangeClient
     private final DataSize maxResponseSize;
     private final int concurrentRequestMultiplier;
     private final Duration minErrorDuration;
+    private final PageCompression compression;
     private final HttpClient httpClient;
     private final ScheduledExecutorService executor;
 
@@ -102,12 +105,27 @@ public class ExchangeClient
             HttpClient httpClient,
             ScheduledExecutorService executor,
             SystemMemoryUsageListener systemMemoryUsageListener)
+    {
+        this(blockEncodingSerde, maxBufferedBytes, maxResponseSize, concurrentRequestMultiplier, minErrorDuration, NONE, httpClient, executor, systemMemoryUsageListener);
+    }
+
+    public ExchangeClient(
+            BlockEncodingSerde blockEncodingSerde,
+            DataSize maxBufferedBytes,
+            DataSize maxResponseSize,
+            int concurrentRequestMultiplier,
+            Duration minErrorDuration,
+            PageCompression compression,
+            HttpClient httpClient,
+            ScheduledExecutorService executor,
+            SystemMemoryUsageListener systemMemoryUsageListener)
     {
         this.blockEncodingSerde = blockEncodingSerde;
         this.maxBufferedBytes = maxBufferedBytes.toBytes();
         this.maxResponseSize = maxResponseSize;
         this.concurrentRequestMultiplier = concurrentRequestMultiplier;
         this.minErrorDuration = minErrorDuration;
+        this.compression = requireNonNull(compression, "compression is null");
         this.httpClient = httpClient;
         this.executor = executor;
         this.systemMemoryUsageListener = systemMemoryUsageListener;
@@ -120,11 +138,15 @@ public class ExchangeClient
             bufferedPages--;
         }
 
+        long compressedBytes = 0;
+        long uncompressedBytes = 0;
         ImmutableList.Builder<PageBufferClientStatus> exchangeStatus = ImmutableList.builder();
         for (HttpPageBufferClient client : allClients.values()) {
             exchangeStatus.add(client.getStatus());
+            compressedBytes += client.getCompressedBytesReceived();
+            uncompressedBytes += client.getUncompressedBytesReceived();
         }
-        return new ExchangeClientStatus(bufferBytes, averageBytesPerRequest, bufferedPages, noMoreLocations, exchangeStatus.build());
+        return new ExchangeClientStatus(bufferBytes, averageBytesPerRequest, bufferedPages, noMoreLocations, compressedBytes, uncompressedBytes, exchangeStatus.build());
     }
 
     public synchronized void addLocation(URI location)
@@ -262,6 +284,7 @@ public class ExchangeClient
                         location,
                         new ExchangeClientCallback(),
                         blockEncodingSerde,
+                        compression,
                         executor);
                 allClients.put(location, client);
                 queuedClients.add(client);
@@ -13,6 +13,7 @@
  */
 package com.facebook.presto.operator;
 
+import com.facebook.presto.block.PageCompression;
 import com.facebook.presto.execution.SystemMemoryUsageListener;
 import com.facebook.presto.spi.block.BlockEncodingSerde;
 import io.airlift.http.client.HttpClient;
@@ -23,6 +24,8 @@ import javax.inject.Inject;
 
 import java.util.concurrent.ScheduledExecutorService;
 
+import static com.facebook.presto.block.PageCompression.NONE;
+import static com.facebook.presto.block.PageCompression.SNAPPY;
 import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.Objects.requireNonNull;
 
@@ -33,6 +36,7 @@ public class ExchangeClientFactory
     private final DataSize maxBufferedBytes;
     private final int concurrentRequestMultiplier;
     private final Duration minErrorDuration;
+    private final PageCompression compression;
     private final HttpClient httpClient;
     private final DataSize maxResponseSize;
     private final ScheduledExecutorService executor;
@@ -48,6 +52,7 @@ public class ExchangeClientFactory
                 config.getMaxResponseSize(),
                 config.getConcurrentRequestMultiplier(),
                 config.getMinErrorDuration(),
+                config.isCompressionEnabled() ? SNAPPY : NONE,
                 httpClient,
                 executor);
     }
@@ -60,11 +65,25 @@ public class ExchangeClientFactory
             Duration minErrorDuration,
             HttpClient httpClient,
             ScheduledExecutorService executor)
+    {
+        this(blockEncodingSerde, maxBufferedBytes, maxResponseSize, concurrentRequestMultiplier, minErrorDuration, NONE, httpClient, executor);
+    }
+
+    public ExchangeClientFactory(
+            BlockEncodingSerde blockEncodingSerde,
+            DataSize maxBufferedBytes,
+            DataSize maxResponseSize,
+            int concurrentRequestMultiplier,
+            Duration minErrorDuration,
+            PageCompression compression,
+            HttpClient httpClient,
+            ScheduledExecutorService executor)
     {
         this.blockEncodingSerde = blockEncodingSerde;
         this.maxBufferedBytes = requireNonNull(maxBufferedBytes, "maxBufferedBytes is null");
         this.concurrentRequestMultiplier = concurrentRequestMultiplier;
         this.minErrorDuration = requireNonNull(minErrorDuration, "minErrorDuration is null");
+        this.compression = requireNonNull(compression, "compression is null");
         this.httpClient = requireNonNull(httpClient, "httpClient is null");
         this.maxResponseSize = requireNonNull(maxResponseSize, "maxResponseSize is null");
         this.executor = requireNonNull(executor, "executor is null");
@@ -83,6 +102,7 @@ public class ExchangeClientFactory
                 maxResponseSize,
                 concurrentRequestMultiplier,
                 minErrorDuration,
+                compression,
                 httpClient,
                 executor,
                 systemMemoryUsageListener);
@@ -28,6 +28,8 @@ public class ExchangeClientStatus
     private final long averageBytesPerRequest;
     private final int bufferedPages;
     private final boolean noMoreLocations;
+    private final long compressedBytes;
+    private final long uncompressedBytes;
     private final List<PageBufferClientStatus> pageBufferClientStatuses;
 
     @JsonCreator
@@ -36,12 +38,16 @@ public class ExchangeClientStatus
             @JsonProperty("averageBytesPerRequest") long averageBytesPerRequest,
             @JsonProperty("bufferedPages") int bufferedPages,
             @JsonProperty("noMoreLocations") boolean noMoreLocations,
+            @JsonProperty("compressedBytes") long compressedBytes,
+            @JsonProperty("uncompressedBytes") long uncompressedBytes,
             @JsonProperty("pageBufferClientStatuses") List<PageBufferClientStatus> pageBufferClientStatuses)
     {
         this.bufferedBytes = bufferedBytes;
         this.averageBytesPerRequest = averageBytesPerRequest;
         this.bufferedPages = bufferedPages;
         this.noMoreLocations = noMoreLocations;
+        this.compressedBytes = compressedBytes;
+        this.uncompressedBytes = uncompressedBytes;
         this.pageBufferClientStatuses = ImmutableList.copyOf(requireNonNull(pageBufferClientStatuses, "pageBufferClientStatuses is null"));
     }
 
@@ -69,6 +75,24 @@ public class ExchangeClientStatus
         return noMoreLocations;
     }
 
+    /**
+     * Size of the page data received from all sources, as transferred.
+     */
+    @JsonProperty
+    public long getCompressedBytes()
+    {
+        return compressedBytes;
+    }
+
+    /**
+     * Size of the page data received from all sources, after decompression.
+     */
+    @JsonProperty
+    public long getUncompressedBytes()
+    {
+        return uncompressedBytes;
+    }
+
     @JsonProperty
 
     public List<PageBufferClientStatus> getPageBufferClientStatuses()
@@ -84,6 +108,8 @@ public class ExchangeClientStatus
                 .add("averageBytesPerRequest", averageBytesPerRequest)
                 .add("bufferedPages", bufferedPages)
                 .add("noMoreLocations", noMoreLocations)
+                .add("compressedBytes", compressedBytes)
+                .add("uncompressedBytes", uncompressedBytes)
                 .add("pageBufferClientStatuses", pageBufferClientStatuses)
                 .toString();
     }
@@ -87,6 +87,23 @@ public class FilterAndProjectOperator
     @Override
     public final Page getOutput()
     {
+        if (currentPage != null && currentPosition == 0 && processor.hasConstantExpressions(currentPage)) {
+            // expressions over run length encoded inputs are evaluated once for the page, so the rows
+            // already in the page builder must be flushed first to preserve their order
+            if (!pageBuilder.isEmpty()) {
+                Page page = pageBuilder.build();
+                pageBuilder.reset();
+                return page;
+            }
+
+            Page page = processor.processColumnar(operatorContext.getSession().toConnectorSession(), currentPage, types);
+            currentPage = null;
+            if (page.getPositionCount() == 0) {
+                return null;
+            }
+            return page;
+        }
+
         if (!pageBuilder.isFull() && currentPage != null) {
             currentPosition = processor.process(operatorContext.getSession().toConnectorSession(), currentPage, currentPosition, currentPage.getPositionCount(), pageBuilder);
             if (currentPosition == currentPage.getPositionCount()) {
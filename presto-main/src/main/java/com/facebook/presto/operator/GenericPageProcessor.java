@@ -16,6 +16,10 @@ package com.facebook.presto.operator;
 import com.facebook.presto.spi.ConnectorSession;
 import com.facebook.presto.spi.Page;
 import com.facebook.presto.spi.PageBuilder;
+import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.block.BlockBuilder;
+import com.facebook.presto.spi.block.BlockBuilderStatus;
+import com.facebook.presto.spi.type.Type;
 import com.google.common.collect.ImmutableList;
 
 import java.util.List;
@@ -48,4 +52,37 @@ public class GenericPageProcessor
 
         return position;
     }
+
+    @Override
+    public boolean hasConstantExpressions(Page page)
+    {
+        // the inputs of the functions are not known, so no expression can be evaluated once for the page
+        return false;
+    }
+
+    @Override
+    public Page processColumnar(ConnectorSession session, Page page, List<? extends Type> types)
+    {
+        // the inputs of the functions are not known, so every expression is evaluated per position
+        BlockBuilder[] outputs = new BlockBuilder[projections.size()];
+        for (int i = 0; i < outputs.length; i++) {
+            outputs[i] = types.get(i).createBlockBuilder(new BlockBuilderStatus(), page.getPositionCount());
+        }
+
+        int selectedCount = 0;
+        for (int position = 0; position < page.getPositionCount(); position++) {
+            if (filterFunction.filter(position, page.getBlocks())) {
+                selectedCount++;
+                for (int i = 0; i < projections.size(); i++) {
+                    projections.get(i).project(position, page.getBlocks(), outputs[i]);
+                }
+            }
+        }
+
+        Block[] blocks = new Block[outputs.length];
+        for (int i = 0; i < outputs.length; i++) {
+            blocks[i] = outputs[i].build();
+        }
+        return new Page(selectedCount, blocks);
+    }
 }
@@ -18,8 +18,6 @@ import com.facebook.presto.spi.block.BlockBuilder;
 import com.facebook.presto.spi.block.BlockEncoding;
 import io.airlift.slice.Slice;
 
-import java.util.List;
-
 import static com.facebook.presto.spi.type.BigintType.BIGINT;
 import static com.google.common.base.MoreObjects.toStringHelper;
 import static java.util.Objects.requireNonNull;
@@ -192,9 +190,9 @@ public class GroupByIdBlock
     }
 
     @Override
-    public Block copyPositions(List<Integer> positions)
+    public Block copyPositions(int[] positions, int offset, int length)
     {
-        return block.copyPositions(positions);
+        return block.copyPositions(positions, offset, length);
     }
 
     @Override
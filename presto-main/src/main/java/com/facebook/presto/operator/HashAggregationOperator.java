@@ -19,26 +19,34 @@ import com.facebook.presto.spi.Page;
 import com.facebook.presto.spi.PageBuilder;
 import com.facebook.presto.spi.block.BlockBuilder;
 import com.facebook.presto.spi.type.Type;
+import com.facebook.presto.spiller.PartitioningSpiller;
+import com.facebook.presto.spiller.SpillerFactory;
 import com.facebook.presto.sql.planner.plan.AggregationNode.Step;
 import com.google.common.collect.AbstractIterator;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterators;
 import com.google.common.primitives.Ints;
+import com.google.common.util.concurrent.ListenableFuture;
 import io.airlift.units.DataSize;
 
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.IntStream;
 
 import static com.facebook.presto.operator.GroupByHash.createGroupByHash;
 import static com.facebook.presto.spi.type.BigintType.BIGINT;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
+import static io.airlift.concurrent.MoreFutures.getFutureValue;
 import static java.util.Objects.requireNonNull;
 
 public class HashAggregationOperator
         implements Operator
 {
+    private static final int SPILL_PARTITION_COUNT = 16;
+
     public static class HashAggregationOperatorFactory
             implements OperatorFactory
     {
@@ -54,6 +62,7 @@ public class HashAggregationOperator
         private final List<Type> types;
         private boolean closed;
         private final long maxPartialMemory;
+        private final Optional<SpillerFactory> spillerFactory;
 
         public HashAggregationOperatorFactory(
                 int operatorId,
@@ -65,6 +74,30 @@ public class HashAggregationOperator
                 Optional<Integer> hashChannel,
                 int expectedGroups,
                 DataSize maxPartialMemory)
+        {
+            this(operatorId,
+                    groupByTypes,
+                    groupByChannels,
+                    step,
+                    accumulatorFactories,
+                    maskChannel,
+                    hashChannel,
+                    expectedGroups,
+                    maxPartialMemory,
+                    Optional.empty());
+        }
+
+        public HashAggregationOperatorFactory(
+                int operatorId,
+                List<? extends Type> groupByTypes,
+                List<Integer> groupByChannels,
+                Step step,
+                List<AccumulatorFactory> accumulatorFactories,
+                Optional<Integer> maskChannel,
+                Optional<Integer> hashChannel,
+                int expectedGroups,
+                DataSize maxPartialMemory,
+                Optional<SpillerFactory> spillerFactory)
         {
             this.operatorId = operatorId;
             this.maskChannel = requireNonNull(maskChannel, "maskChannel is null");
@@ -75,6 +108,8 @@ public class HashAggregationOperator
             this.accumulatorFactories = ImmutableList.copyOf(accumulatorFactories);
             this.expectedGroups = expectedGroups;
             this.maxPartialMemory = requireNonNull(maxPartialMemory, "maxPartialMemory is null").toBytes();
+            this.spillerFactory = requireNonNull(spillerFactory, "spillerFactory is null");
+            checkArgument(step != Step.PARTIAL || !spillerFactory.isPresent(), "partial aggregation flushes instead of spilling");
 
             this.types = toTypes(groupByTypes, step, accumulatorFactories, hashChannel);
         }
@@ -105,7 +140,8 @@ public class HashAggregationOperator
                     accumulatorFactories,
                     maskChannel,
                     hashChannel,
-                    expectedGroups);
+                    expectedGroups,
+                    spillerFactory);
             return hashAggregationOperator;
         }
 
@@ -124,6 +160,7 @@ public class HashAggregationOperator
     private final Optional<Integer> maskChannel;
     private final Optional<Integer> hashChannel;
     private final int expectedGroups;
+    private final Optional<SpillerFactory> spillerFactory;
 
     private final List<Type> types;
 
@@ -131,6 +168,10 @@ public class HashAggregationOperator
     private Iterator<Page> outputIterator;
     private boolean finishing;
 
+    private PartitioningSpiller spiller;
+    private ListenableFuture<?> spillInProgress = NOT_BLOCKED;
+    private boolean spilledPartitionsMerged;
+
     public HashAggregationOperator(
             OperatorContext operatorContext,
             List<Type> groupByTypes,
@@ -140,6 +181,20 @@ public class HashAggregationOperator
             Optional<Integer> maskChannel,
             Optional<Integer> hashChannel,
             int expectedGroups)
+    {
+        this(operatorContext, groupByTypes, groupByChannels, step, accumulatorFactories, maskChannel, hashChannel, expectedGroups, Optional.empty());
+    }
+
+    public HashAggregationOperator(
+            OperatorContext operatorContext,
+            List<Type> groupByTypes,
+            List<Integer> groupByChannels,
+            Step step,
+            List<AccumulatorFactory> accumulatorFactories,
+            Optional<Integer> maskChannel,
+            Optional<Integer> hashChannel,
+            int expectedGroups,
+            Optional<SpillerFactory> spillerFactory)
     {
         this.operatorContext = requireNonNull(operatorContext, "operatorContext is null");
         requireNonNull(step, "step is null");
@@ -153,6 +208,7 @@ public class HashAggregationOperator
         this.hashChannel = requireNonNull(hashChannel, "hashChannel is null");
         this.step = step;
         this.expectedGroups = expectedGroups;
+        this.spillerFactory = requireNonNull(spillerFactory, "spillerFactory is null");
         this.types = toTypes(groupByTypes, step, accumulatorFactories, hashChannel);
     }
 
@@ -177,13 +233,29 @@ public class HashAggregationOperator
     @Override
     public boolean isFinished()
     {
-        return finishing && aggregationBuilder == null && (outputIterator == null || !outputIterator.hasNext());
+        return finishing &&
+                aggregationBuilder == null &&
+                (spiller == null || spilledPartitionsMerged) &&
+                (outputIterator == null || !outputIterator.hasNext());
+    }
+
+    @Override
+    public ListenableFuture<?> isBlocked()
+    {
+        if (!spillInProgress.isDone()) {
+            return spillInProgress;
+        }
+        return NOT_BLOCKED;
     }
 
     @Override
     public boolean needsInput()
     {
-        return !finishing && outputIterator == null && (aggregationBuilder == null || !aggregationBuilder.isFull());
+        if (finishing || outputIterator != null || !spillInProgress.isDone()) {
+            return false;
+        }
+        // when spilling, the memory reservation is checked as soon as a page is added
+        return aggregationBuilder == null || spillerFactory.isPresent() || !aggregationBuilder.isFull();
     }
 
     @Override
@@ -193,7 +265,7 @@ public class HashAggregationOperator
         requireNonNull(page, "page is null");
         if (aggregationBuilder == null) {
             aggregationBuilder = new GroupByHashAggregationBuilder(
-                    accumulatorFactories,
+                    createAggregators(accumulatorFactories, step),
                     step,
                     expectedGroups,
                     groupByTypes,
@@ -204,31 +276,60 @@ public class HashAggregationOperator
 
             // assume initial aggregationBuilder is not full
         }
-        else {
+        else if (!spillerFactory.isPresent()) {
             checkState(!aggregationBuilder.isFull(), "Aggregation buffer is full");
         }
         aggregationBuilder.processPage(page);
+
+        if (spillerFactory.isPresent() && !aggregationBuilder.tryUpdateMemoryReservation()) {
+            spillToDisk();
+        }
     }
 
     @Override
     public Page getOutput()
     {
+        if (!spillInProgress.isDone()) {
+            return null;
+        }
+        // propagate spill failures
+        getFutureValue(spillInProgress);
+
         if (outputIterator == null || !outputIterator.hasNext()) {
             // current output iterator is done
             outputIterator = null;
 
-            // no data
-            if (aggregationBuilder == null) {
-                return null;
-            }
+            if (spiller != null) {
+                // spilled groups can only be merged once all input has been seen
+                if (!finishing || spilledPartitionsMerged) {
+                    return null;
+                }
 
-            // only flush if we are finishing or the aggregation builder is full
-            if (!finishing && !aggregationBuilder.isFull()) {
-                return null;
+                // spill the remaining groups, so that every group is merged from disk
+                if (aggregationBuilder != null) {
+                    spillToDisk();
+                    return null;
+                }
+
+                operatorContext.recordSpill(spiller.getSpilledBytes(), spiller.getPartitionCount());
+                outputIterator = mergeSpilledPartitions();
+                spilledPartitionsMerged = true;
             }
+            else {
+                // no data
+                if (aggregationBuilder == null) {
+                    return null;
+                }
+
+                // only flush if we are finishing or the aggregation builder is full
+                // (a spillable aggregation is never flushed before it finishes)
+                if (!finishing && (spillerFactory.isPresent() || !aggregationBuilder.isFull())) {
+                    return null;
+                }
 
-            outputIterator = aggregationBuilder.build();
-            aggregationBuilder = null;
+                outputIterator = aggregationBuilder.build();
+                aggregationBuilder = null;
+            }
 
             if (!outputIterator.hasNext()) {
                 // current output iterator is done
@@ -240,6 +341,61 @@ public class HashAggregationOperator
         return outputIterator.next();
     }
 
+    @Override
+    public void close()
+    {
+        if (spiller != null) {
+            spiller.close();
+        }
+    }
+
+    private void spillToDisk()
+    {
+        if (spiller == null) {
+            spiller = spillerFactory.get().createPartitioningSpiller(aggregationBuilder.getIntermediateTypes(), getSpilledGroupsHashGenerator(), SPILL_PARTITION_COUNT);
+        }
+
+        // the builder is only accessed by the spilling thread from now on
+        spillInProgress = spiller.spill(aggregationBuilder.buildIntermediate());
+        aggregationBuilder = null;
+    }
+
+    private HashGenerator getSpilledGroupsHashGenerator()
+    {
+        // spilled pages contain the group by columns, followed by the hash if present
+        if (hashChannel.isPresent()) {
+            return new PrecomputedHashGenerator(groupByTypes.size());
+        }
+        return new InterpretedHashGenerator(groupByTypes, IntStream.range(0, groupByTypes.size()).toArray());
+    }
+
+    private Iterator<Page> mergeSpilledPartitions()
+    {
+        // partitions are merged lazily, so only one of them is held in memory at a time
+        return Iterators.concat(IntStream.range(0, spiller.getPartitionCount())
+                .mapToObj(this::mergeSpilledPartition)
+                .iterator());
+    }
+
+    private Iterator<Page> mergeSpilledPartition(int partition)
+    {
+        GroupByHashAggregationBuilder mergingBuilder = GroupByHashAggregationBuilder.createMergingBuilder(
+                accumulatorFactories,
+                step,
+                expectedGroups,
+                groupByTypes,
+                hashChannel.isPresent(),
+                operatorContext);
+
+        Iterator<Page> spilledPages = spiller.getSpilledPages(partition);
+        while (spilledPages.hasNext()) {
+            mergingBuilder.processPage(spilledPages.next());
+            // update the memory reservation
+            mergingBuilder.isFull();
+        }
+        return mergingBuilder.build();
+    }
+
     private static List<Type> toTypes(List<? extends Type> groupByType, Step step, List<AccumulatorFactory> factories, Optional<Integer> hashChannel)
     {
         ImmutableList.Builder<Type> types = ImmutableList.builder();
@@ -253,6 +409,18 @@ public class HashAggregationOperator
         return types.build();
     }
 
+    private static List<Aggregator> createAggregators(List<AccumulatorFactory> accumulatorFactories, Step step)
+    {
+        // wrapper each function with an aggregator
+        ImmutableList.Builder<Aggregator> builder = ImmutableList.builder();
+        requireNonNull(accumulatorFactories, "accumulatorFactories is null");
+        for (int i = 0; i < accumulatorFactories.size(); i++) {
+            AccumulatorFactory accumulatorFactory = accumulatorFactories.get(i);
+            builder.add(new Aggregator(accumulatorFactory, step));
+        }
+        return builder.build();
+    }
+
     private static class GroupByHashAggregationBuilder
     {
         private final GroupByHash groupByHash;
@@ -261,7 +429,7 @@ public class HashAggregationOperator
         private final boolean partial;
 
         private GroupByHashAggregationBuilder(
-                List<AccumulatorFactory> accumulatorFactories,
+                List<Aggregator> aggregators,
                 Step step,
                 int expectedGroups,
                 List<Type> groupByTypes,
@@ -273,15 +441,32 @@ public class HashAggregationOperator
             this.groupByHash = createGroupByHash(groupByTypes, Ints.toArray(groupByChannels), maskChannel, hashChannel, expectedGroups);
             this.operatorContext = operatorContext;
             this.partial = (step == Step.PARTIAL);
+            this.aggregators = ImmutableList.copyOf(requireNonNull(aggregators, "aggregators is null"));
+        }
 
-            // wrapper each function with an aggregator
-            ImmutableList.Builder<Aggregator> builder = ImmutableList.builder();
-            requireNonNull(accumulatorFactories, "accumulatorFactories is null");
-            for (int i = 0; i < accumulatorFactories.size(); i++) {
-                AccumulatorFactory accumulatorFactory = accumulatorFactories.get(i);
-                builder.add(new Aggregator(accumulatorFactory, step));
+        /**
+         * Creates a builder that combines groups in the intermediate form produced by {@link #buildIntermediate()}.
+         */
+        public static GroupByHashAggregationBuilder createMergingBuilder(
+                List<AccumulatorFactory> accumulatorFactories,
+                Step step,
+                int expectedGroups,
+                List<Type> groupByTypes,
+                boolean hasHashChannel,
+                OperatorContext operatorContext)
+        {
+            List<Integer> groupByChannels = ImmutableList.copyOf(Ints.asList(IntStream.range(0, groupByTypes.size()).toArray()));
+            Optional<Integer> hashChannel = hasHashChannel ? Optional.of(groupByTypes.size()) : Optional.empty();
+
+            // intermediate values follow the group by columns and the hash
+            int intermediateChannel = groupByTypes.size() + (hasHashChannel ? 1 : 0);
+            ImmutableList.Builder<Aggregator> aggregators = ImmutableList.builder();
+            for (AccumulatorFactory accumulatorFactory : accumulatorFactories) {
+                aggregators.add(new Aggregator(accumulatorFactory, step, intermediateChannel));
+                intermediateChannel++;
             }
-            aggregators = builder.build();
+
+            return new GroupByHashAggregationBuilder(aggregators.build(), step, expectedGroups, groupByTypes, groupByChannels, Optional.empty(), hashChannel, operatorContext);
         }
 
         private void processPage(Page page)
@@ -299,6 +484,26 @@ public class HashAggregationOperator
         }
 
         public boolean isFull()
+        {
+            long memorySize = getMemoryReservation();
+            if (partial) {
+                return !operatorContext.trySetMemoryReservation(memorySize);
+            }
+            else {
+                operatorContext.setMemoryReservation(memorySize);
+                return false;
+            }
+        }
+
+        /**
+         * Returns false if the memory used by this builder can not be reserved.
+         */
+        public boolean tryUpdateMemoryReservation()
+        {
+            return operatorContext.trySetMemoryReservation(getMemoryReservation());
+        }
+
+        private long getMemoryReservation()
         {
             long memorySize = groupByHash.getEstimatedSize();
             for (Aggregator aggregator : aggregators) {
@@ -308,13 +513,16 @@ public class HashAggregationOperator
             if (memorySize < 0) {
                 memorySize = 0;
             }
-            if (partial) {
-                return !operatorContext.trySetMemoryReservation(memorySize);
-            }
-            else {
-                operatorContext.setMemoryReservation(memorySize);
-                return false;
+            return memorySize;
+        }
+
+        public List<Type> getIntermediateTypes()
+        {
+            List<Type> types = new ArrayList<>(groupByHash.getTypes());
+            for (Aggregator aggregator : aggregators) {
+                types.add(aggregator.getIntermediateType());
             }
+            return types;
         }
 
         public Iterator<Page> build()
@@ -323,7 +531,19 @@ public class HashAggregationOperator
             for (Aggregator aggregator : aggregators) {
                 types.add(aggregator.getType());
             }
+            return buildPages(types, false);
+        }
+
+        /**
+         * Builds pages containing the groups and the intermediate state of each aggregation.
+         */
+        public Iterator<Page> buildIntermediate()
+        {
+            return buildPages(getIntermediateTypes(), true);
+        }
 
+        private Iterator<Page> buildPages(List<Type> types, boolean intermediate)
+        {
             final PageBuilder pageBuilder = new PageBuilder(types);
             return new AbstractIterator<Page>()
             {
@@ -347,7 +567,12 @@ public class HashAggregationOperator
                         for (int i = 0; i < aggregators.size(); i++) {
                             Aggregator aggregator = aggregators.get(i);
                             BlockBuilder output = pageBuilder.getBlockBuilder(types.size() + i);
-                            aggregator.evaluate(groupId, output);
+                            if (intermediate) {
+                                aggregator.evaluateIntermediate(groupId, output);
+                            }
+                            else {
+                                aggregator.evaluate(groupId, output);
+                            }
                         }
 
                         groupId++;
@@ -379,6 +604,14 @@ public class HashAggregationOperator
             this.step = step;
         }
 
+        private Aggregator(AccumulatorFactory accumulatorFactory, Step step, int intermediateChannel)
+        {
+            checkArgument(intermediateChannel >= 0, "intermediateChannel is negative");
+            this.intermediateChannel = intermediateChannel;
+            this.aggregation = accumulatorFactory.createGroupedIntermediateAccumulator();
+            this.step = step;
+        }
+
         public long getEstimatedSize()
         {
             return aggregation.getEstimatedSize();
@@ -394,9 +627,14 @@ public class HashAggregationOperator
             }
         }
 
+        public Type getIntermediateType()
+        {
+            return aggregation.getIntermediateType();
+        }
+
         public void processPage(GroupByIdBlock groupIds, Page page)
         {
-            if (step == Step.FINAL) {
+            if (intermediateChannel >= 0) {
                 aggregation.addIntermediate(groupIds, page.getBlock(intermediateChannel));
             }
             else {
@@ -413,5 +651,10 @@ public class HashAggregationOperator
                 aggregation.evaluateFinal(groupId, output);
             }
         }
+
+        public void evaluateIntermediate(int groupId, BlockBuilder output)
+        {
+            aggregation.evaluateIntermediate(groupId, output);
+        }
     }
 }
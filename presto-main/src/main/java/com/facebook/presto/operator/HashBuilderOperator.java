@@ -14,9 +14,14 @@
 package com.facebook.presto.operator;
 
 import com.facebook.presto.spi.Page;
+import com.facebook.presto.spi.TupleDomain;
+import com.facebook.presto.spi.block.Block;
 import com.facebook.presto.spi.type.Type;
+import com.facebook.presto.spiller.PartitioningSpiller;
+import com.facebook.presto.spiller.SpillerFactory;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ListenableFuture;
 
 import javax.annotation.concurrent.ThreadSafe;
 
@@ -24,12 +29,16 @@ import java.util.List;
 import java.util.Optional;
 
 import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.collect.Iterators.singletonIterator;
+import static io.airlift.concurrent.MoreFutures.getFutureValue;
 import static java.util.Objects.requireNonNull;
 
 @ThreadSafe
 public class HashBuilderOperator
         implements Operator
 {
+    public static final int SPILL_PARTITION_COUNT = 16;
+
     public static class HashBuilderOperatorFactory
             implements OperatorFactory
     {
@@ -39,6 +48,8 @@ public class HashBuilderOperator
         private final Optional<Integer> hashChannel;
 
         private final int expectedPositions;
+        private final Optional<SpillerFactory> spillerFactory;
+        private final Optional<DynamicFilterSource> dynamicFilterSource;
         private boolean closed;
 
         public HashBuilderOperatorFactory(
@@ -47,6 +58,29 @@ public class HashBuilderOperator
                 List<Integer> hashChannels,
                 Optional<Integer> hashChannel,
                 int expectedPositions)
+        {
+            this(operatorId, types, hashChannels, hashChannel, expectedPositions, Optional.empty());
+        }
+
+        public HashBuilderOperatorFactory(
+                int operatorId,
+                List<Type> types,
+                List<Integer> hashChannels,
+                Optional<Integer> hashChannel,
+                int expectedPositions,
+                Optional<SpillerFactory> spillerFactory)
+        {
+            this(operatorId, types, hashChannels, hashChannel, expectedPositions, spillerFactory, Optional.empty());
+        }
+
+        public HashBuilderOperatorFactory(
+                int operatorId,
+                List<Type> types,
+                List<Integer> hashChannels,
+                Optional<Integer> hashChannel,
+                int expectedPositions,
+                Optional<SpillerFactory> spillerFactory,
+                Optional<DynamicFilterSource> dynamicFilterSource)
         {
             this.operatorId = operatorId;
             this.lookupSourceSupplier = new SettableLookupSourceSupplier(requireNonNull(types, "types is null"));
@@ -56,6 +90,8 @@ public class HashBuilderOperator
             this.hashChannel = requireNonNull(hashChannel, "hashChannel is null");
 
             this.expectedPositions = expectedPositions;
+            this.spillerFactory = requireNonNull(spillerFactory, "spillerFactory is null");
+            this.dynamicFilterSource = requireNonNull(dynamicFilterSource, "dynamicFilterSource is null");
         }
 
         public LookupSourceSupplier getLookupSourceSupplier()
@@ -79,7 +115,9 @@ public class HashBuilderOperator
                     lookupSourceSupplier,
                     hashChannels,
                     hashChannel,
-                    expectedPositions);
+                    expectedPositions,
+                    spillerFactory,
+                    dynamicFilterSource);
         }
 
         @Override
@@ -93,8 +131,15 @@ public class HashBuilderOperator
     private final SettableLookupSourceSupplier lookupSourceSupplier;
     private final List<Integer> hashChannels;
     private final Optional<Integer> hashChannel;
+    private final int expectedPositions;
+    private final Optional<SpillerFactory> spillerFactory;
+    private final Optional<DynamicFilterSource> dynamicFilterSource;
 
     private final PagesIndex pagesIndex;
+    private final Optional<DynamicFilterCollector> dynamicFilterCollector;
+
+    private PartitioningSpiller spiller;
+    private ListenableFuture<?> spillInProgress = NOT_BLOCKED;
 
     private boolean finished;
 
@@ -104,6 +149,29 @@ public class HashBuilderOperator
             List<Integer> hashChannels,
             Optional<Integer> hashChannel,
             int expectedPositions)
+    {
+        this(operatorContext, lookupSourceSupplier, hashChannels, hashChannel, expectedPositions, Optional.empty());
+    }
+
+    public HashBuilderOperator(
+            OperatorContext operatorContext,
+            SettableLookupSourceSupplier lookupSourceSupplier,
+            List<Integer> hashChannels,
+            Optional<Integer> hashChannel,
+            int expectedPositions,
+            Optional<SpillerFactory> spillerFactory)
+    {
+        this(operatorContext, lookupSourceSupplier, hashChannels, hashChannel, expectedPositions, spillerFactory, Optional.empty());
+    }
+
+    public HashBuilderOperator(
+            OperatorContext operatorContext,
+            SettableLookupSourceSupplier lookupSourceSupplier,
+            List<Integer> hashChannels,
+            Optional<Integer> hashChannel,
+            int expectedPositions,
+            Optional<SpillerFactory> spillerFactory,
+            Optional<DynamicFilterSource> dynamicFilterSource)
     {
         this.operatorContext = requireNonNull(operatorContext, "operatorContext is null");
 
@@ -112,8 +180,12 @@ public class HashBuilderOperator
         Preconditions.checkArgument(!hashChannels.isEmpty(), "hashChannels is empty");
         this.hashChannels = ImmutableList.copyOf(requireNonNull(hashChannels, "hashChannels is null"));
         this.hashChannel = requireNonNull(hashChannel, "hashChannel is null");
+        this.expectedPositions = expectedPositions;
+        this.spillerFactory = requireNonNull(spillerFactory, "spillerFactory is null");
+        this.dynamicFilterSource = requireNonNull(dynamicFilterSource, "dynamicFilterSource is null");
 
         this.pagesIndex = new PagesIndex(lookupSourceSupplier.getTypes(), expectedPositions);
+        this.dynamicFilterCollector = dynamicFilterSource.map(source -> source.createCollector(this.hashChannels));
     }
 
     @Override
@@ -135,6 +207,33 @@ public class HashBuilderOperator
             return;
         }
 
+        if (spiller != null) {
+            // wait for the remaining pages to be written
+            if (!spillInProgress.isDone()) {
+                return;
+            }
+            getFutureValue(spillInProgress);
+            publishDynamicFilter();
+
+            operatorContext.setMemoryReservation(0);
+            operatorContext.recordSpill(spiller.getSpilledBytes(), spiller.getPartitionCount());
+            lookupSourceSupplier.setLookupSource(new SpilledLookupSource(
+                    lookupSourceSupplier.getTypes(),
+                    hashChannels,
+                    hashChannel,
+                    expectedPositions,
+                    spillerFactory.get(),
+                    spiller,
+                    operatorContext.getDriverContext().getPipelineContext().getTaskContext(),
+                    operatorContext.getDriverContext().getExecutor()));
+            // the spiller is now owned by the lookup source
+            spiller = null;
+            finished = true;
+            return;
+        }
+
+        publishDynamicFilter();
+
         // Free memory, as the SharedLookupSource is going to take it over
         operatorContext.setMemoryReservation(0);
         lookupSourceSupplier.setLookupSource(new SharedLookupSource(pagesIndex.createLookupSource(hashChannels, hashChannel), operatorContext.getDriverContext().getPipelineContext().getTaskContext()));
@@ -147,10 +246,16 @@ public class HashBuilderOperator
         return finished;
     }
 
+    @Override
+    public ListenableFuture<?> isBlocked()
+    {
+        return spillInProgress;
+    }
+
     @Override
     public boolean needsInput()
     {
-        return !finished;
+        return !finished && spillInProgress.isDone();
     }
 
     @Override
@@ -158,13 +263,29 @@ public class HashBuilderOperator
     {
         requireNonNull(page, "page is null");
         checkState(!isFinished(), "Operator is already finished");
+        operatorContext.recordGeneratedOutput(page.getSizeInBytes(), page.getPositionCount());
+
+        if (dynamicFilterCollector.isPresent()) {
+            dynamicFilterCollector.get().add(page);
+        }
+
+        if (spiller != null) {
+            // once the build side has been spilled, all remaining pages go straight to disk
+            getFutureValue(spillInProgress);
+            operatorContext.setMemoryReservation(pagesIndex.getEstimatedSize().toBytes());
+            spillInProgress = spiller.spill(singletonIterator(page));
+            return;
+        }
 
         pagesIndex.addPage(page);
         if (!operatorContext.trySetMemoryReservation(pagesIndex.getEstimatedSize().toBytes())) {
             pagesIndex.compact();
         }
+        if (spillerFactory.isPresent() && !operatorContext.trySetMemoryReservation(pagesIndex.getEstimatedSize().toBytes())) {
+            spillToDisk();
+            return;
+        }
         operatorContext.setMemoryReservation(pagesIndex.getEstimatedSize().toBytes());
-        operatorContext.recordGeneratedOutput(page.getSizeInBytes(), page.getPositionCount());
     }
 
     @Override
@@ -172,4 +293,42 @@ public class HashBuilderOperator
     {
         return null;
     }
+
+    @Override
+    public void close()
+    {
+        if (spiller != null) {
+            spiller.close();
+        }
+        if (!finished && dynamicFilterSource.isPresent()) {
+            // do not leave the probe side waiting for a build side that will never complete
+            dynamicFilterSource.get().setJoinKeyDomain(TupleDomain.all());
+        }
+    }
+
+    private void publishDynamicFilter()
+    {
+        if (dynamicFilterSource.isPresent()) {
+            dynamicFilterSource.get().setJoinKeyDomain(dynamicFilterCollector.get().build());
+        }
+    }
+
+    private void spillToDisk()
+    {
+        List<Type> types = lookupSourceSupplier.getTypes();
+        spiller = spillerFactory.get().createPartitioningSpiller(types, SpilledLookupSource.createPartitionHashGenerator(types, hashChannels), SPILL_PARTITION_COUNT);
+
+        // hand the indexed pages over to the spiller; the memory stays reserved until they are written
+        ImmutableList.Builder<Page> pages = ImmutableList.builder();
+        for (int pageIndex = 0; pageIndex < pagesIndex.getChannel(0).size(); pageIndex++) {
+            Block[] blocks = new Block[types.size()];
+            for (int channel = 0; channel < types.size(); channel++) {
+                blocks[channel] = pagesIndex.getChannel(channel).get(pageIndex);
+            }
+            pages.add(new Page(blocks));
+        }
+        pagesIndex.clear();
+
+        spillInProgress = spiller.spill(pages.build().iterator());
+    }
 }
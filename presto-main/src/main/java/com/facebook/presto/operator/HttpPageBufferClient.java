@@ -13,6 +13,8 @@
  */
 package com.facebook.presto.operator;
 
+import com.facebook.presto.block.PageCompression;
+import com.facebook.presto.block.PagesSerde.CompressedPagesReader;
 import com.facebook.presto.spi.Page;
 import com.facebook.presto.spi.PrestoException;
 import com.facebook.presto.spi.StandardErrorCode;
@@ -50,8 +52,12 @@ import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
+import static com.facebook.presto.PrestoMediaTypes.PRESTO_PAGES_COMPRESSION;
 import static com.facebook.presto.PrestoMediaTypes.PRESTO_PAGES_TYPE;
+import static com.facebook.presto.block.PageCompression.NONE;
+import static com.facebook.presto.block.PagesSerde.readCompressedPages;
 import static com.facebook.presto.block.PagesSerde.readPages;
 import static com.facebook.presto.client.PrestoHeaders.PRESTO_BUFFER_COMPLETE;
 import static com.facebook.presto.client.PrestoHeaders.PRESTO_MAX_SIZE;
@@ -61,6 +67,8 @@ import static com.facebook.presto.operator.HttpPageBufferClient.PagesResponse.cr
 import static com.facebook.presto.operator.HttpPageBufferClient.PagesResponse.createPagesResponse;
 import static com.facebook.presto.util.Failures.WORKER_NODE_ERROR;
 import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.collect.Iterables.getFirst;
+import static com.google.common.net.HttpHeaders.ACCEPT;
 import static com.google.common.net.HttpHeaders.CONTENT_TYPE;
 import static io.airlift.http.client.Request.Builder.prepareDelete;
 import static io.airlift.http.client.Request.Builder.prepareGet;
@@ -105,6 +113,7 @@ public final class HttpPageBufferClient
     private final URI location;
     private final ClientCallback clientCallback;
     private final BlockEncodingSerde blockEncodingSerde;
+    private final PageCompression compression;
     private final ScheduledExecutorService executor;
 
     @GuardedBy("this")
@@ -126,6 +135,8 @@ public final class HttpPageBufferClient
     private long errorDelayMillis;
 
     private final AtomicInteger pagesReceived = new AtomicInteger();
+    private final AtomicLong compressedBytesReceived = new AtomicLong();
+    private final AtomicLong uncompressedBytesReceived = new AtomicLong();
 
     private final AtomicInteger requestsScheduled = new AtomicInteger();
     private final AtomicInteger requestsCompleted = new AtomicInteger();
@@ -140,7 +151,20 @@ public final class HttpPageBufferClient
             BlockEncodingSerde blockEncodingSerde,
             ScheduledExecutorService executor)
     {
-        this(httpClient, maxResponseSize, minErrorDuration, location, clientCallback, blockEncodingSerde, executor, Stopwatch.createUnstarted());
+        this(httpClient, maxResponseSize, minErrorDuration, location, clientCallback, blockEncodingSerde, NONE, executor);
+    }
+
+    public HttpPageBufferClient(
+            HttpClient httpClient,
+            DataSize maxResponseSize,
+            Duration minErrorDuration,
+            URI location,
+            ClientCallback clientCallback,
+            BlockEncodingSerde blockEncodingSerde,
+            PageCompression compression,
+            ScheduledExecutorService executor)
+    {
+        this(httpClient, maxResponseSize, minErrorDuration, location, clientCallback, blockEncodingSerde, compression, executor, Stopwatch.createUnstarted());
     }
 
     public HttpPageBufferClient(
@@ -152,6 +176,20 @@ public final class HttpPageBufferClient
             BlockEncodingSerde blockEncodingSerde,
             ScheduledExecutorService executor,
             Stopwatch errorStopwatch)
+    {
+        this(httpClient, maxResponseSize, minErrorDuration, location, clientCallback, blockEncodingSerde, NONE, executor, errorStopwatch);
+    }
+
+    public HttpPageBufferClient(
+            HttpClient httpClient,
+            DataSize maxResponseSize,
+            Duration minErrorDuration,
+            URI location,
+            ClientCallback clientCallback,
+            BlockEncodingSerde blockEncodingSerde,
+            PageCompression compression,
+            ScheduledExecutorService executor,
+            Stopwatch errorStopwatch)
     {
         this.httpClient = requireNonNull(httpClient, "httpClient is null");
         this.maxResponseSize = requireNonNull(maxResponseSize, "maxResponseSize is null");
@@ -159,6 +197,7 @@ public final class HttpPageBufferClient
         this.location = requireNonNull(location, "location is null");
         this.clientCallback = requireNonNull(clientCallback, "clientCallback is null");
         this.blockEncodingSerde = requireNonNull(blockEncodingSerde, "blockEncodingManager is null");
+        this.compression = requireNonNull(compression, "compression is null");
         this.executor = requireNonNull(executor, "executor is null");
         this.errorStopwatch = requireNonNull(errorStopwatch, "errorStopwatch is null").reset();
     }
@@ -196,6 +235,16 @@ public final class HttpPageBufferClient
                 httpRequestState);
     }
 
+    public long getCompressedBytesReceived()
+    {
+        return compressedBytesReceived.get();
+    }
+
+    public long getUncompressedBytesReceived()
+    {
+        return uncompressedBytesReceived.get();
+    }
+
     public synchronized boolean isRunning()
     {
         return future != null;
@@ -272,10 +321,14 @@ public final class HttpPageBufferClient
     private void sendGetResults()
     {
         final URI uri = HttpUriBuilder.uriBuilderFrom(location).appendPath(String.valueOf(token)).build();
+        Request.Builder requestBuilder = prepareGet()
+                .setHeader(PRESTO_MAX_SIZE, maxResponseSize.toString())
+                .setUri(uri);
+        if (compression != NONE) {
+            requestBuilder.setHeader(ACCEPT, PRESTO_PAGES_TYPE.withParameter(PRESTO_PAGES_COMPRESSION, compression.getCodecName()).toString());
+        }
         HttpResponseFuture<PagesResponse> resultFuture = httpClient.executeAsync(
-                prepareGet()
-                        .setHeader(PRESTO_MAX_SIZE, maxResponseSize.toString())
-                        .setUri(uri).build(),
+                requestBuilder.build(),
                 new PageResponseHandler(blockEncodingSerde));
 
         future = resultFuture;
@@ -298,6 +351,8 @@ public final class HttpPageBufferClient
                         pages = ImmutableList.of();
                     }
                 }
+                compressedBytesReceived.addAndGet(result.getCompressedBytes());
+                uncompressedBytesReceived.addAndGet(result.getUncompressedBytes());
 
                 // add pages
                 for (Page page : pages) {
@@ -512,10 +567,16 @@ public final class HttpPageBufferClient
             long token = getToken(response);
             long nextToken = getNextToken(response);
             boolean complete = getComplete(response);
+            PageCompression compression = getCompression(contentType);
 
             try (SliceInput input = new InputStreamSliceInput(response.getInputStream())) {
-                List<Page> pages = ImmutableList.copyOf(readPages(blockEncodingSerde, input));
-                return createPagesResponse(token, nextToken, pages, complete);
+                if (compression == NONE) {
+                    List<Page> pages = ImmutableList.copyOf(readPages(blockEncodingSerde, input));
+                    return createPagesResponse(token, nextToken, pages, complete, input.position(), input.position());
+                }
+                CompressedPagesReader pagesReader = readCompressedPages(blockEncodingSerde, input);
+                List<Page> pages = ImmutableList.copyOf(pagesReader);
+                return createPagesResponse(token, nextToken, pages, complete, pagesReader.getCompressedBytes(), pagesReader.getUncompressedBytes());
             }
             catch (IOException e) {
                 throw Throwables.propagate(e);
@@ -549,6 +610,11 @@ public final class HttpPageBufferClient
             return Boolean.parseBoolean(bufferComplete);
         }
 
+        private static PageCompression getCompression(String contentType)
+        {
+            return PageCompression.fromCodecName(getFirst(MediaType.parse(contentType).parameters().get(PRESTO_PAGES_COMPRESSION), null));
+        }
+
         private static boolean mediaTypeMatches(String value, MediaType range)
         {
             try {
@@ -564,25 +630,34 @@ public final class HttpPageBufferClient
     {
         public static PagesResponse createPagesResponse(long token, long nextToken, Iterable<Page> pages, boolean complete)
         {
-            return new PagesResponse(token, nextToken, pages, complete);
+            return createPagesResponse(token, nextToken, pages, complete, 0, 0);
+        }
+
+        public static PagesResponse createPagesResponse(long token, long nextToken, Iterable<Page> pages, boolean complete, long compressedBytes, long uncompressedBytes)
+        {
+            return new PagesResponse(token, nextToken, pages, complete, compressedBytes, uncompressedBytes);
         }
 
         public static PagesResponse createEmptyPagesResponse(long token, long nextToken, boolean complete)
         {
-            return new PagesResponse(token, nextToken, ImmutableList.<Page>of(), complete);
+            return new PagesResponse(token, nextToken, ImmutableList.<Page>of(), complete, 0, 0);
         }
 
         private final long token;
         private final long nextToken;
         private final List<Page> pages;
         private final boolean clientComplete;
+        private final long compressedBytes;
+        private final long uncompressedBytes;
 
-        private PagesResponse(long token, long nextToken, Iterable<Page> pages, boolean clientComplete)
+        private PagesResponse(long token, long nextToken, Iterable<Page> pages, boolean clientComplete, long compressedBytes, long uncompressedBytes)
         {
             this.token = token;
             this.nextToken = nextToken;
             this.pages = ImmutableList.copyOf(pages);
             this.clientComplete = clientComplete;
+            this.compressedBytes = compressedBytes;
+            this.uncompressedBytes = uncompressedBytes;
         }
 
         public long getToken()
@@ -605,6 +680,22 @@ public final class HttpPageBufferClient
             return clientComplete;
         }
 
+        /**
+         * Size of the page data as transferred.
+         */
+        public long getCompressedBytes()
+        {
+            return compressedBytes;
+        }
+
+        /**
+         * Size of the page data after decompression.
+         */
+        public long getUncompressedBytes()
+        {
+            return uncompressedBytes;
+        }
+
         @Override
         public String toString()
         {
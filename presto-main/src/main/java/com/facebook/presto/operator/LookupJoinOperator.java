@@ -17,17 +17,21 @@ import com.facebook.presto.operator.LookupJoinOperators.JoinType;
 import com.facebook.presto.spi.Page;
 import com.facebook.presto.spi.PageBuilder;
 import com.facebook.presto.spi.type.Type;
+import com.facebook.presto.spiller.PartitioningSpiller;
 import com.google.common.collect.ImmutableList;
 import com.google.common.util.concurrent.ListenableFuture;
 import it.unimi.dsi.fastutil.longs.LongIterator;
 
 import java.io.Closeable;
+import java.util.Iterator;
 import java.util.List;
 
 import static com.facebook.presto.operator.LookupJoinOperators.JoinType.FULL_OUTER;
 import static com.facebook.presto.operator.LookupJoinOperators.JoinType.LOOKUP_OUTER;
 import static com.facebook.presto.operator.LookupJoinOperators.JoinType.PROBE_OUTER;
 import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.collect.Iterators.singletonIterator;
+import static io.airlift.concurrent.MoreFutures.getFutureValue;
 import static io.airlift.concurrent.MoreFutures.tryGetFutureValue;
 import static java.util.Objects.requireNonNull;
 
@@ -41,6 +45,7 @@ public class LookupJoinOperator
     private final JoinProbeFactory joinProbeFactory;
     private final List<Type> types;
     private final List<Type> probeTypes;
+    private final List<Integer> probeJoinChannels;
     private final PageBuilder pageBuilder;
 
     private final boolean lookupOnOuterSide;
@@ -55,10 +60,19 @@ public class LookupJoinOperator
 
     private LongIterator unvisitedJoinPositions;
 
+    // set when the build side did not fit in memory
+    private SpilledLookupSource spilledLookupSource;
+    private PartitioningSpiller probeSpiller;
+    private ListenableFuture<?> spillInProgress = NOT_BLOCKED;
+    private int currentPartition = -1;
+    private Iterator<Page> spilledProbePages;
+    private ListenableFuture<SharedLookupSource> partitionLookupSource;
+
     public LookupJoinOperator(
             OperatorContext operatorContext,
             LookupSourceSupplier lookupSourceSupplier,
             List<Type> probeTypes,
+            List<Integer> probeJoinChannels,
             JoinType joinType,
             JoinProbeFactory joinProbeFactory)
     {
@@ -68,6 +82,7 @@ public class LookupJoinOperator
         this.lookupSourceSupplier = requireNonNull(lookupSourceSupplier, "lookupSourceSupplier is null");
         lookupSourceSupplier.retain();
         requireNonNull(probeTypes, "probeTypes is null");
+        this.probeJoinChannels = ImmutableList.copyOf(requireNonNull(probeJoinChannels, "probeJoinChannels is null"));
 
         this.lookupSourceFuture = lookupSourceSupplier.getLookupSource(operatorContext);
         this.joinProbeFactory = joinProbeFactory;
@@ -109,6 +124,7 @@ public class LookupJoinOperator
                 finishing &&
                 probe == null &&
                 pageBuilder.isEmpty() &&
+                (spilledLookupSource == null || currentPartition >= spilledLookupSource.getPartitionCount()) &&
                 (!lookupOnOuterSide || (unvisitedJoinPositions != null && !unvisitedJoinPositions.hasNext()));
 
         // if finished drop references so memory is freed early
@@ -126,7 +142,13 @@ public class LookupJoinOperator
     @Override
     public ListenableFuture<?> isBlocked()
     {
-        return lookupSourceFuture;
+        if (!lookupSourceFuture.isDone()) {
+            return lookupSourceFuture;
+        }
+        if (partitionLookupSource != null && !partitionLookupSource.isDone()) {
+            return partitionLookupSource;
+        }
+        return spillInProgress;
     }
 
     @Override
@@ -136,10 +158,13 @@ public class LookupJoinOperator
             return false;
         }
 
-        if (lookupSource == null) {
-            lookupSource = tryGetFutureValue(lookupSourceFuture).orElse(null);
+        if (!tryFetchLookupSource()) {
+            return false;
+        }
+        if (spilledLookupSource != null) {
+            return spillInProgress.isDone();
         }
-        return lookupSource != null && probe == null;
+        return probe == null;
     }
 
     @Override
@@ -147,9 +172,16 @@ public class LookupJoinOperator
     {
         requireNonNull(page, "page is null");
         checkState(!finishing, "Operator is finishing");
-        checkState(lookupSource != null, "Lookup source has not been built yet");
+        checkState(lookupSource != null || spilledLookupSource != null, "Lookup source has not been built yet");
         checkState(probe == null, "Current page has not been completely processed yet");
 
+        if (spilledLookupSource != null) {
+            // the probe side is partitioned like the build side and joined once all input has been seen
+            getFutureValue(spillInProgress);
+            spillInProgress = probeSpiller.spill(singletonIterator(page));
+            return;
+        }
+
         // create probe
         probe = joinProbeFactory.createJoinProbe(lookupSource, page);
 
@@ -161,11 +193,12 @@ public class LookupJoinOperator
     public Page getOutput()
     {
         // If needsInput was never called, lookupSource has not been initialized so far.
-        if (lookupSource == null) {
-            lookupSource = tryGetFutureValue(lookupSourceFuture).orElse(null);
-            if (lookupSource == null) {
-                return null;
-            }
+        if (!tryFetchLookupSource()) {
+            return null;
+        }
+
+        if (spilledLookupSource != null && finishing && probe == null) {
+            advanceSpilledProbe();
         }
 
         // join probe page with the lookup source
@@ -197,10 +230,15 @@ public class LookupJoinOperator
     @Override
     public void close()
     {
+        releasePartitionLookupSource();
         if (lookupSource != null) {
             lookupSource.close();
             lookupSource = null;
         }
+        if (probeSpiller != null) {
+            probeSpiller.close();
+            probeSpiller = null;
+        }
         // Closing the lookupSource is always safe to do, but we don't want to release the supplier multiple times, since its reference counted
         if (closed) {
             return;
@@ -209,6 +247,75 @@ public class LookupJoinOperator
         lookupSourceSupplier.release();
     }
 
+    private boolean tryFetchLookupSource()
+    {
+        if (lookupSource != null || spilledLookupSource != null) {
+            return true;
+        }
+
+        LookupSource fetched = tryGetFutureValue(lookupSourceFuture).orElse(null);
+        if (fetched instanceof SpilledLookupSource) {
+            checkState(!lookupOnOuterSide, "Outer join on the build side can not be used with a spilled lookup source");
+            spilledLookupSource = (SpilledLookupSource) fetched;
+            probeSpiller = spilledLookupSource.createProbeSpiller(probeTypes, probeJoinChannels);
+            return true;
+        }
+        lookupSource = fetched;
+        return lookupSource != null;
+    }
+
+    private void advanceSpilledProbe()
+    {
+        if (!spillInProgress.isDone()) {
+            return;
+        }
+        // propagate spill failures
+        getFutureValue(spillInProgress);
+
+        if (currentPartition < 0) {
+            operatorContext.recordSpill(probeSpiller.getSpilledBytes(), probeSpiller.getPartitionCount());
+        }
+
+        while (currentPartition < spilledLookupSource.getPartitionCount()) {
+            if (spilledProbePages != null && spilledProbePages.hasNext()) {
+                if (lookupSource == null) {
+                    // the build partition is loaded in the background, see isBlocked
+                    if (!partitionLookupSource.isDone()) {
+                        return;
+                    }
+                    lookupSource = getFutureValue(partitionLookupSource);
+                }
+                probe = joinProbeFactory.createJoinProbe(lookupSource, spilledProbePages.next());
+                joinPosition = -1;
+                return;
+            }
+
+            // current partition is done, so release its lookup source before loading the next one
+            releasePartitionLookupSource();
+
+            currentPartition++;
+            spilledProbePages = null;
+            if (currentPartition < spilledLookupSource.getPartitionCount()) {
+                spilledProbePages = probeSpiller.getSpilledPages(currentPartition);
+                // the build partition is only needed when there is something to probe it with
+                if (spilledProbePages.hasNext()) {
+                    partitionLookupSource = spilledLookupSource.acquirePartitionLookupSource(currentPartition);
+                }
+            }
+        }
+    }
+
+    private void releasePartitionLookupSource()
+    {
+        if (partitionLookupSource == null) {
+            return;
+        }
+        // the partition lookup source is shared with the other probe operators, so it is not closed here
+        lookupSource = null;
+        partitionLookupSource = null;
+        spilledLookupSource.releasePartitionLookupSource(currentPartition);
+    }
+
     private boolean joinCurrentPosition()
     {
         // while we have a position to join against...
@@ -27,6 +27,7 @@ public class LookupJoinOperatorFactory
     private final int operatorId;
     private final LookupSourceSupplier lookupSourceSupplier;
     private final List<Type> probeTypes;
+    private final List<Integer> probeJoinChannels;
     private final JoinType joinType;
     private final List<Type> types;
     private final JoinProbeFactory joinProbeFactory;
@@ -35,12 +36,14 @@ public class LookupJoinOperatorFactory
     public LookupJoinOperatorFactory(int operatorId,
             LookupSourceSupplier lookupSourceSupplier,
             List<Type> probeTypes,
+            List<Integer> probeJoinChannels,
             JoinType joinType,
             JoinProbeFactory joinProbeFactory)
     {
         this.operatorId = operatorId;
         this.lookupSourceSupplier = lookupSourceSupplier;
         this.probeTypes = probeTypes;
+        this.probeJoinChannels = probeJoinChannels;
         this.joinType = joinType;
 
         this.joinProbeFactory = joinProbeFactory;
@@ -62,7 +65,7 @@ public class LookupJoinOperatorFactory
     {
         checkState(!closed, "Factory is already closed");
         OperatorContext operatorContext = driverContext.addOperatorContext(operatorId, LookupJoinOperator.class.getSimpleName());
-        return new LookupJoinOperator(operatorContext, lookupSourceSupplier, probeTypes, joinType, joinProbeFactory);
+        return new LookupJoinOperator(operatorContext, lookupSourceSupplier, probeTypes, probeJoinChannels, joinType, joinProbeFactory);
     }
 
     @Override
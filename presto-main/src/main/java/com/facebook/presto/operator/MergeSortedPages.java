@@ -0,0 +1,143 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator;
+
+import com.facebook.presto.spi.Page;
+import com.facebook.presto.spi.PageBuilder;
+import com.facebook.presto.spi.type.Type;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.ImmutableList;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import static java.util.Objects.requireNonNull;
+
+public final class MergeSortedPages
+{
+    private MergeSortedPages()
+    {
+    }
+
+    /**
+     * Merges streams of pages, each of which is sorted according to the comparator, into a
+     * single sorted stream of pages. The output pages contain the given channels of the input.
+     */
+    public static Iterator<Page> mergeSortedPages(
+            List<Iterator<Page>> sortedStreams,
+            PageWithPositionComparator comparator,
+            List<Type> sourceTypes,
+            int[] outputChannels)
+    {
+        requireNonNull(sortedStreams, "sortedStreams is null");
+        requireNonNull(comparator, "comparator is null");
+        requireNonNull(sourceTypes, "sourceTypes is null");
+        requireNonNull(outputChannels, "outputChannels is null");
+
+        ImmutableList.Builder<Type> outputTypes = ImmutableList.builder();
+        for (int channel : outputChannels) {
+            outputTypes.add(sourceTypes.get(channel));
+        }
+        return new MergingPageIterator(sortedStreams, comparator, outputTypes.build(), outputChannels);
+    }
+
+    private static class MergingPageIterator
+            extends AbstractIterator<Page>
+    {
+        private final PriorityQueue<PageCursor> queue;
+        private final List<Type> outputTypes;
+        private final int[] outputChannels;
+        private final PageBuilder pageBuilder;
+
+        public MergingPageIterator(List<Iterator<Page>> sortedStreams, PageWithPositionComparator comparator, List<Type> outputTypes, int[] outputChannels)
+        {
+            this.outputTypes = outputTypes;
+            this.outputChannels = outputChannels;
+            this.pageBuilder = new PageBuilder(outputTypes);
+
+            this.queue = new PriorityQueue<>(
+                    Math.max(sortedStreams.size(), 1),
+                    (left, right) -> comparator.compareTo(left.getPage(), left.getPosition(), right.getPage(), right.getPosition()));
+            for (Iterator<Page> stream : sortedStreams) {
+                PageCursor cursor = new PageCursor(stream);
+                if (cursor.advance()) {
+                    queue.add(cursor);
+                }
+            }
+        }
+
+        @Override
+        protected Page computeNext()
+        {
+            while (!pageBuilder.isFull() && !queue.isEmpty()) {
+                PageCursor cursor = queue.poll();
+
+                pageBuilder.declarePosition();
+                for (int i = 0; i < outputChannels.length; i++) {
+                    outputTypes.get(i).appendTo(cursor.getPage().getBlock(outputChannels[i]), cursor.getPosition(), pageBuilder.getBlockBuilder(i));
+                }
+
+                if (cursor.advance()) {
+                    queue.add(cursor);
+                }
+            }
+
+            if (pageBuilder.isEmpty()) {
+                return endOfData();
+            }
+            Page page = pageBuilder.build();
+            pageBuilder.reset();
+            return page;
+        }
+    }
+
+    private static class PageCursor
+    {
+        private final Iterator<Page> pages;
+        private Page page;
+        private int position = -1;
+
+        public PageCursor(Iterator<Page> pages)
+        {
+            this.pages = pages;
+        }
+
+        public Page getPage()
+        {
+            return page;
+        }
+
+        public int getPosition()
+        {
+            return position;
+        }
+
+        /**
+         * @return false if the stream is exhausted
+         */
+        public boolean advance()
+        {
+            position++;
+            while (page == null || position >= page.getPositionCount()) {
+                if (!pages.hasNext()) {
+                    return false;
+                }
+                page = pages.next();
+                position = 0;
+            }
+            return true;
+        }
+    }
+}
@@ -17,6 +17,8 @@ import com.facebook.presto.spi.Page;
 import com.facebook.presto.spi.PageBuilder;
 import com.facebook.presto.spi.block.Block;
 import com.facebook.presto.spi.block.BlockBuilder;
+import com.facebook.presto.spi.block.DictionaryBlock;
+import com.facebook.presto.spi.block.RunLengthEncodedBlock;
 import com.facebook.presto.spi.type.Type;
 import com.facebook.presto.sql.gen.JoinCompiler;
 import com.facebook.presto.util.array.LongBigArray;
@@ -68,6 +70,10 @@ public class MultiChannelGroupByHash
 
     private int nextGroupId;
 
+    // group ids of the entries of the last dictionary of a single dictionary encoded key channel
+    private Block currentDictionary;
+    private int[] currentDictionaryGroupIds = new int[0];
+
     public MultiChannelGroupByHash(List<? extends Type> hashTypes, int[] hashChannels, Optional<Integer> maskChannel, Optional<Integer> inputHashChannel, int expectedSize)
     {
         requireNonNull(hashTypes, "hashTypes is null");
@@ -124,6 +130,7 @@ public class MultiChannelGroupByHash
                 currentPageBuilder.getRetainedSizeInBytes() +
                 sizeOf(groupAddressByHash) +
                 sizeOf(groupIdsByHash) +
+                sizeOf(currentDictionaryGroupIds) +
                 groupAddressByGroupId.sizeOf();
     }
 
@@ -158,8 +165,28 @@ public class MultiChannelGroupByHash
             maskBlock = page.getBlock(maskChannel);
         }
 
-        // get the group id for each position
+        // every position has the same key, so only the first one needs to be added
         int positionCount = page.getPositionCount();
+        if (positionCount > 0 && isRunLengthEncoded(hashBlocks, maskBlock)) {
+            if (maskBlock == null || BOOLEAN.getBoolean(maskBlock, 0)) {
+                putIfAbsent(0, page, hashBlocks);
+            }
+            return;
+        }
+
+        // each dictionary entry is only hashed once
+        if (isDictionaryEncoded(hashBlocks)) {
+            DictionaryBlock dictionaryBlock = (DictionaryBlock) hashBlocks[0];
+            updateDictionary(dictionaryBlock.getDictionary());
+            for (int position = 0; position < positionCount; position++) {
+                if (maskBlock == null || BOOLEAN.getBoolean(maskBlock, position)) {
+                    putIfAbsentDictionary(dictionaryBlock, position, page, hashBlocks);
+                }
+            }
+            return;
+        }
+
+        // get the group id for each position
         for (int position = 0; position < positionCount; position++) {
             // skip masked rows
             if (maskBlock != null && !BOOLEAN.getBoolean(maskBlock, position)) {
@@ -176,9 +203,6 @@ public class MultiChannelGroupByHash
     {
         int positionCount = page.getPositionCount();
 
-        // we know the exact size required for the block
-        BlockBuilder blockBuilder = BIGINT.createFixedSizeBlockBuilder(positionCount);
-
         Block maskBlock = null;
         if (maskChannel >= 0) {
             maskBlock = page.getBlock(maskChannel);
@@ -187,6 +211,27 @@ public class MultiChannelGroupByHash
         // extract the hash columns
         Block[] hashBlocks = extractHashColumns(page);
 
+        // every position has the same key, so the group id is looked up once
+        if (positionCount > 0 && isRunLengthEncoded(hashBlocks, maskBlock)) {
+            BlockBuilder groupIdBuilder = BIGINT.createFixedSizeBlockBuilder(1);
+            if (maskBlock != null && !BOOLEAN.getBoolean(maskBlock, 0)) {
+                groupIdBuilder.appendNull();
+            }
+            else {
+                BIGINT.writeLong(groupIdBuilder, putIfAbsent(0, page, hashBlocks));
+            }
+            return new GroupByIdBlock(nextGroupId, new RunLengthEncodedBlock(groupIdBuilder.build(), positionCount));
+        }
+
+        // we know the exact size required for the block
+        BlockBuilder blockBuilder = BIGINT.createFixedSizeBlockBuilder(positionCount);
+
+        DictionaryBlock dictionaryBlock = null;
+        if (isDictionaryEncoded(hashBlocks)) {
+            dictionaryBlock = (DictionaryBlock) hashBlocks[0];
+            updateDictionary(dictionaryBlock.getDictionary());
+        }
+
         // get the group id for each position
         for (int position = 0; position < positionCount; position++) {
             // skip masked rows
@@ -196,7 +241,13 @@ public class MultiChannelGroupByHash
             }
 
             // get the group for the current row
-            int groupId = putIfAbsent(position, page, hashBlocks);
+            int groupId;
+            if (dictionaryBlock != null) {
+                groupId = putIfAbsentDictionary(dictionaryBlock, position, page, hashBlocks);
+            }
+            else {
+                groupId = putIfAbsent(position, page, hashBlocks);
+            }
 
             // output the group id for this row
             BIGINT.writeLong(blockBuilder, groupId);
@@ -230,6 +281,24 @@ public class MultiChannelGroupByHash
         return putIfAbsent(position, page, extractHashColumns(page));
     }
 
+    private int putIfAbsentDictionary(DictionaryBlock dictionaryBlock, int position, Page page, Block[] hashBlocks)
+    {
+        int id = dictionaryBlock.getId(position);
+        if (currentDictionaryGroupIds[id] == -1) {
+            currentDictionaryGroupIds[id] = putIfAbsent(position, page, hashBlocks);
+        }
+        return currentDictionaryGroupIds[id];
+    }
+
+    private void updateDictionary(Block dictionary)
+    {
+        if (dictionary != currentDictionary) {
+            currentDictionary = dictionary;
+            currentDictionaryGroupIds = new int[dictionary.getPositionCount()];
+            Arrays.fill(currentDictionaryGroupIds, -1);
+        }
+    }
+
     private int putIfAbsent(int position, Page page, Block[] hashBlocks)
     {
         int rawHash = hashGenerator.hashPosition(position, page);
@@ -342,6 +411,25 @@ public class MultiChannelGroupByHash
         groupAddressByGroupId.ensureCapacity(maxFill);
     }
 
+    private static boolean isRunLengthEncoded(Block[] hashBlocks, Block maskBlock)
+    {
+        if (maskBlock != null && !(maskBlock instanceof RunLengthEncodedBlock)) {
+            return false;
+        }
+        for (Block block : hashBlocks) {
+            if (!(block instanceof RunLengthEncodedBlock)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDictionaryEncoded(Block[] hashBlocks)
+    {
+        // the dictionary ids only identify the key when it is a single channel
+        return hashBlocks.length == 1 && hashBlocks[0] instanceof DictionaryBlock;
+    }
+
     private Block[] extractHashColumns(Page page)
     {
         Block[] hashBlocks = new Block[channels.length];
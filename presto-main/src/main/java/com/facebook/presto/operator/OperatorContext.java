@@ -81,6 +81,9 @@ public class OperatorContext
     private final AtomicLong systemMemoryReservation = new AtomicLong();
     private final long maxMemoryReservation;
 
+    private final AtomicLong spilledDataSize = new AtomicLong();
+    private final AtomicLong spilledPartitions = new AtomicLong();
+
     private final AtomicReference<Supplier<Object>> infoSupplier = new AtomicReference<>();
     private final boolean collectTimings;
 
@@ -203,6 +206,14 @@ public class OperatorContext
         finishUserNanos.getAndAdd(nanosBetween(intervalUserStart.get(), currentThreadUserTime()));
     }
 
+    public void recordSpill(long sizeInBytes, int partitions)
+    {
+        checkArgument(sizeInBytes >= 0, "sizeInBytes is negative");
+        checkArgument(partitions >= 0, "partitions is negative");
+        spilledDataSize.getAndAdd(sizeInBytes);
+        spilledPartitions.getAndAdd(partitions);
+    }
+
     public ListenableFuture<?> isWaitingForMemory()
     {
         return memoryFuture.get();
@@ -386,6 +397,8 @@ public class OperatorContext
 
                 new DataSize(memoryReservation.get(), BYTE).convertToMostSuccinctDataSize(),
                 new DataSize(systemMemoryReservation.get(), BYTE).convertToMostSuccinctDataSize(),
+                new DataSize(spilledDataSize.get(), BYTE).convertToMostSuccinctDataSize(),
+                spilledPartitions.get(),
                 memoryFuture.get().isDone() ? Optional.empty() : Optional.of(WAITING_FOR_MEMORY),
                 info);
     }
@@ -58,6 +58,8 @@ public class OperatorStats
 
     private final DataSize memoryReservation;
     private final DataSize systemMemoryReservation;
+    private final DataSize spilledDataSize;
+    private final long spilledPartitions;
     private final Optional<BlockedReason> blockedReason;
 
     private final Object info;
@@ -90,6 +92,8 @@ public class OperatorStats
 
             @JsonProperty("memoryReservation") DataSize memoryReservation,
             @JsonProperty("systemMemoryReservation") DataSize systemMemoryReservation,
+            @JsonProperty("spilledDataSize") DataSize spilledDataSize,
+            @JsonProperty("spilledPartitions") long spilledPartitions,
             @JsonProperty("blockedReason") Optional<BlockedReason> blockedReason,
 
             @JsonProperty("info") Object info)
@@ -123,6 +127,9 @@ public class OperatorStats
 
         this.memoryReservation = requireNonNull(memoryReservation, "memoryReservation is null");
         this.systemMemoryReservation = requireNonNull(systemMemoryReservation, "systemMemoryReservation is null");
+        this.spilledDataSize = requireNonNull(spilledDataSize, "spilledDataSize is null");
+        checkArgument(spilledPartitions >= 0, "spilledPartitions is negative");
+        this.spilledPartitions = spilledPartitions;
         this.blockedReason = blockedReason;
 
         this.info = info;
@@ -254,6 +261,18 @@ public class OperatorStats
         return systemMemoryReservation;
     }
 
+    @JsonProperty
+    public DataSize getSpilledDataSize()
+    {
+        return spilledDataSize;
+    }
+
+    @JsonProperty
+    public long getSpilledPartitions()
+    {
+        return spilledPartitions;
+    }
+
     @JsonProperty
     public Optional<BlockedReason> getBlockedReason()
     {
@@ -297,6 +316,8 @@ public class OperatorStats
 
         long memoryReservation = this.memoryReservation.toBytes();
         long systemMemoryReservation = this.systemMemoryReservation.toBytes();
+        long spilledDataSize = this.spilledDataSize.toBytes();
+        long spilledPartitions = this.spilledPartitions;
         Optional<BlockedReason> blockedReason = this.blockedReason;
 
         Mergeable<?> base = null;
@@ -329,6 +350,8 @@ public class OperatorStats
 
             memoryReservation += operator.getMemoryReservation().toBytes();
             systemMemoryReservation += operator.getSystemMemoryReservation().toBytes();
+            spilledDataSize += operator.getSpilledDataSize().toBytes();
+            spilledPartitions += operator.getSpilledPartitions();
             if (operator.getBlockedReason().isPresent()) {
                 blockedReason = operator.getBlockedReason();
             }
@@ -366,6 +389,8 @@ public class OperatorStats
 
                 new DataSize(memoryReservation, BYTE).convertToMostSuccinctDataSize(),
                 new DataSize(systemMemoryReservation, BYTE).convertToMostSuccinctDataSize(),
+                new DataSize(spilledDataSize, BYTE).convertToMostSuccinctDataSize(),
+                spilledPartitions,
                 blockedReason,
 
                 base);
@@ -17,12 +17,19 @@ import com.facebook.presto.spi.Page;
 import com.facebook.presto.spi.PageBuilder;
 import com.facebook.presto.spi.block.SortOrder;
 import com.facebook.presto.spi.type.Type;
+import com.facebook.presto.spiller.Spiller;
+import com.facebook.presto.spiller.SpillerFactory;
 import com.google.common.collect.ImmutableList;
 import com.google.common.primitives.Ints;
+import com.google.common.util.concurrent.ListenableFuture;
 
+import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
 
+import static com.facebook.presto.operator.MergeSortedPages.mergeSortedPages;
 import static com.google.common.base.Preconditions.checkState;
+import static io.airlift.concurrent.MoreFutures.getFutureValue;
 import static java.util.Objects.requireNonNull;
 
 public class OrderByOperator
@@ -38,6 +45,7 @@ public class OrderByOperator
         private final List<Integer> sortChannels;
         private final List<SortOrder> sortOrder;
         private final List<Type> types;
+        private final Optional<SpillerFactory> spillerFactory;
         private boolean closed;
 
         public OrderByOperatorFactory(
@@ -47,6 +55,18 @@ public class OrderByOperator
                 int expectedPositions,
                 List<Integer> sortChannels,
                 List<SortOrder> sortOrder)
+        {
+            this(operatorId, sourceTypes, outputChannels, expectedPositions, sortChannels, sortOrder, Optional.empty());
+        }
+
+        public OrderByOperatorFactory(
+                int operatorId,
+                List<? extends Type> sourceTypes,
+                List<Integer> outputChannels,
+                int expectedPositions,
+                List<Integer> sortChannels,
+                List<SortOrder> sortOrder,
+                Optional<SpillerFactory> spillerFactory)
         {
             this.operatorId = operatorId;
             this.sourceTypes = ImmutableList.copyOf(requireNonNull(sourceTypes, "sourceTypes is null"));
@@ -54,6 +74,7 @@ public class OrderByOperator
             this.expectedPositions = expectedPositions;
             this.sortChannels = ImmutableList.copyOf(requireNonNull(sortChannels, "sortChannels is null"));
             this.sortOrder = ImmutableList.copyOf(requireNonNull(sortOrder, "sortOrder is null"));
+            this.spillerFactory = requireNonNull(spillerFactory, "spillerFactory is null");
 
             this.types = toTypes(sourceTypes, outputChannels);
         }
@@ -76,7 +97,8 @@ public class OrderByOperator
                     outputChannels,
                     expectedPositions,
                     sortChannels,
-                    sortOrder);
+                    sortOrder,
+                    spillerFactory);
         }
 
         @Override
@@ -94,16 +116,23 @@ public class OrderByOperator
     }
 
     private final OperatorContext operatorContext;
+    private final List<Type> sourceTypes;
     private final List<Integer> sortChannels;
     private final List<SortOrder> sortOrder;
     private final int[] outputChannels;
     private final List<Type> types;
+    private final int expectedPositions;
+    private final Optional<SpillerFactory> spillerFactory;
 
-    private final PagesIndex pageIndex;
+    private PagesIndex pageIndex;
 
     private final PageBuilder pageBuilder;
     private int currentPosition;
 
+    private Optional<Spiller> spiller = Optional.empty();
+    private ListenableFuture<?> spillInProgress = NOT_BLOCKED;
+    private Iterator<Page> sortedPages;
+
     private State state = State.NEEDS_INPUT;
 
     public OrderByOperator(
@@ -113,12 +142,27 @@ public class OrderByOperator
             int expectedPositions,
             List<Integer> sortChannels,
             List<SortOrder> sortOrder)
+    {
+        this(operatorContext, sourceTypes, outputChannels, expectedPositions, sortChannels, sortOrder, Optional.empty());
+    }
+
+    public OrderByOperator(
+            OperatorContext operatorContext,
+            List<Type> sourceTypes,
+            List<Integer> outputChannels,
+            int expectedPositions,
+            List<Integer> sortChannels,
+            List<SortOrder> sortOrder,
+            Optional<SpillerFactory> spillerFactory)
     {
         this.operatorContext = requireNonNull(operatorContext, "operatorContext is null");
+        this.sourceTypes = ImmutableList.copyOf(requireNonNull(sourceTypes, "sourceTypes is null"));
         this.outputChannels = Ints.toArray(requireNonNull(outputChannels, "outputChannels is null"));
         this.types = toTypes(sourceTypes, outputChannels);
         this.sortChannels = ImmutableList.copyOf(requireNonNull(sortChannels, "sortChannels is null"));
         this.sortOrder = ImmutableList.copyOf(requireNonNull(sortOrder, "sortOrder is null"));
+        this.expectedPositions = expectedPositions;
+        this.spillerFactory = requireNonNull(spillerFactory, "spillerFactory is null");
 
         this.pageIndex = new PagesIndex(sourceTypes, expectedPositions);
 
@@ -141,10 +185,26 @@ public class OrderByOperator
     public void finish()
     {
         if (state == State.NEEDS_INPUT) {
+            if (!spillInProgress.isDone()) {
+                return;
+            }
+            // propagate spill failures
+            getFutureValue(spillInProgress);
+
             state = State.HAS_OUTPUT;
 
             // sort the index
             pageIndex.sort(sortChannels, sortOrder);
+
+            if (spiller.isPresent()) {
+                // merge the spilled runs with the rows still in memory
+                operatorContext.recordSpill(spiller.get().getSpilledBytes(), 0);
+                List<Iterator<Page>> sortedRuns = ImmutableList.<Iterator<Page>>builder()
+                        .addAll(spiller.get().getSpills())
+                        .add(pageIndex.getSortedPages())
+                        .build();
+                sortedPages = mergeSortedPages(sortedRuns, pageIndex.createPageWithPositionComparator(sortChannels, sortOrder), sourceTypes, outputChannels);
+            }
         }
     }
 
@@ -154,10 +214,16 @@ public class OrderByOperator
         return state == State.FINISHED;
     }
 
+    @Override
+    public ListenableFuture<?> isBlocked()
+    {
+        return spillInProgress;
+    }
+
     @Override
     public boolean needsInput()
     {
-        return state == State.NEEDS_INPUT;
+        return state == State.NEEDS_INPUT && spillInProgress.isDone();
     }
 
     @Override
@@ -165,9 +231,16 @@ public class OrderByOperator
     {
         checkState(state == State.NEEDS_INPUT, "Operator is already finishing");
         requireNonNull(page, "page is null");
+        // propagate spill failures
+        getFutureValue(spillInProgress);
 
         pageIndex.addPage(page);
-        operatorContext.setMemoryReservation(pageIndex.getEstimatedSize().toBytes());
+        if (!spillerFactory.isPresent()) {
+            operatorContext.setMemoryReservation(pageIndex.getEstimatedSize().toBytes());
+        }
+        else if (!operatorContext.trySetMemoryReservation(pageIndex.getEstimatedSize().toBytes())) {
+            spillToDisk();
+        }
     }
 
     @Override
@@ -177,6 +250,14 @@ public class OrderByOperator
             return null;
         }
 
+        if (sortedPages != null) {
+            if (!sortedPages.hasNext()) {
+                state = State.FINISHED;
+                return null;
+            }
+            return sortedPages.next();
+        }
+
         if (currentPosition >= pageIndex.getPositionCount()) {
             state = State.FINISHED;
             return null;
@@ -196,6 +277,25 @@ public class OrderByOperator
         return page;
     }
 
+    @Override
+    public void close()
+    {
+        spiller.ifPresent(Spiller::close);
+    }
+
+    private void spillToDisk()
+    {
+        if (!spiller.isPresent()) {
+            spiller = Optional.of(spillerFactory.get().create(sourceTypes));
+        }
+
+        // write the index as a sorted run; new input is collected in a fresh index, and the
+        // memory of the spilled one is released with the next reservation update
+        pageIndex.sort(sortChannels, sortOrder);
+        spillInProgress = spiller.get().spill(pageIndex.getSortedPages());
+        pageIndex = new PagesIndex(sourceTypes, expectedPositions);
+    }
+
     private static List<Type> toTypes(List<? extends Type> sourceTypes, List<Integer> outputChannels)
     {
         ImmutableList.Builder<Type> types = ImmutableList.builder();
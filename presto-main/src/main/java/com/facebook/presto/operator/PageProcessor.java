@@ -16,8 +16,24 @@ package com.facebook.presto.operator;
 import com.facebook.presto.spi.ConnectorSession;
 import com.facebook.presto.spi.Page;
 import com.facebook.presto.spi.PageBuilder;
+import com.facebook.presto.spi.type.Type;
+
+import java.util.List;
 
 public interface PageProcessor
 {
     int process(ConnectorSession session, Page page, int start, int end, PageBuilder pageBuilder);
+
+    /**
+     * Filters and projects the entire page at once, producing an output page of the specified types.
+     * Expressions that only depend on run-length encoded inputs are evaluated once for the page, and
+     * their results are returned as run-length encoded blocks.
+     */
+    Page processColumnar(ConnectorSession session, Page page, List<? extends Type> types);
+
+    /**
+     * Returns true if the filter or one of the projections only depends on run-length encoded
+     * inputs of the page, in which case {@link #processColumnar} evaluates it once for the page.
+     */
+    boolean hasConstantExpressions(Page page);
 }
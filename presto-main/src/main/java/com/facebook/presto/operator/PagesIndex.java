@@ -21,6 +21,7 @@ import com.facebook.presto.spi.block.SortOrder;
 import com.facebook.presto.spi.type.Type;
 import com.facebook.presto.sql.gen.JoinCompiler;
 import com.facebook.presto.sql.gen.OrderingCompiler;
+import com.google.common.collect.AbstractIterator;
 import com.google.common.collect.ImmutableList;
 import io.airlift.log.Logger;
 import io.airlift.slice.Slice;
@@ -29,8 +30,10 @@ import it.unimi.dsi.fastutil.Swapper;
 import it.unimi.dsi.fastutil.longs.LongArrayList;
 import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.IntStream;
 
 import static com.facebook.presto.operator.SyntheticAddress.decodePosition;
 import static com.facebook.presto.operator.SyntheticAddress.decodeSliceIndex;
@@ -305,6 +308,40 @@ public class PagesIndex
         createPagesIndexComparator(sortChannels, sortOrders).sort(this, startPosition, endPosition);
     }
 
+    /**
+     * Returns the rows of all channels as pages, in the current position order.
+     * The index must not be modified while the pages are being read.
+     */
+    public Iterator<Page> getSortedPages()
+    {
+        return new AbstractIterator<Page>()
+        {
+            private final int[] allChannels = IntStream.range(0, types.size()).toArray();
+            private final PageBuilder pageBuilder = new PageBuilder(types);
+            private int currentPosition;
+
+            @Override
+            protected Page computeNext()
+            {
+                currentPosition = buildPage(currentPosition, allChannels, pageBuilder);
+                if (pageBuilder.isEmpty()) {
+                    return endOfData();
+                }
+                Page page = pageBuilder.build();
+                pageBuilder.reset();
+                return page;
+            }
+        };
+    }
+
+    public PageWithPositionComparator createPageWithPositionComparator(List<Integer> sortChannels, List<SortOrder> sortOrders)
+    {
+        List<Type> sortTypes = sortChannels.stream()
+                .map(types::get)
+                .collect(toImmutableList());
+        return orderingCompiler.compilePageWithPositionComparator(sortTypes, sortChannels, sortOrders);
+    }
+
     public boolean positionEqualsPosition(PagesHashStrategy partitionHashStrategy, int leftPosition, int rightPosition)
     {
         long leftAddress = valueAddresses.getLong(leftPosition);
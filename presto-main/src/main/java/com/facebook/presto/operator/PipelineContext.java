@@ -57,6 +57,7 @@ public class PipelineContext
     private final List<DriverContext> drivers = new CopyOnWriteArrayList<>();
 
     private final AtomicInteger completedDrivers = new AtomicInteger();
+    private final AtomicInteger completedPartitionedDrivers = new AtomicInteger();
 
     private final AtomicLong memoryReservation = new AtomicLong();
     private final AtomicLong systemMemoryReservation = new AtomicLong();
@@ -136,6 +137,9 @@ public class PipelineContext
         DriverStats driverStats = driverContext.getDriverStats();
 
         completedDrivers.getAndIncrement();
+        if (driverContext.isPartitioned()) {
+            completedPartitionedDrivers.getAndIncrement();
+        }
 
         queuedTime.add(driverStats.getQueuedTime().roundTo(NANOSECONDS));
         elapsedTime.add(driverStats.getElapsedTime().roundTo(NANOSECONDS));
@@ -289,6 +293,25 @@ public class PipelineContext
         return stat;
     }
 
+    public int getQueuedPartitionedDrivers()
+    {
+        return (int) drivers.stream()
+                .filter(driver -> driver.isPartitioned() && !driver.isExecutionStarted())
+                .count();
+    }
+
+    public int getRunningPartitionedDrivers()
+    {
+        return (int) drivers.stream()
+                .filter(driver -> driver.isPartitioned() && driver.isExecutionStarted())
+                .count();
+    }
+
+    public int getCompletedPartitionedDrivers()
+    {
+        return completedPartitionedDrivers.get();
+    }
+
     public PipelineStats getPipelineStats()
     {
         List<DriverContext> driverContexts = ImmutableList.copyOf(this.drivers);
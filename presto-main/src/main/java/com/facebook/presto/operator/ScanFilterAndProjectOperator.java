@@ -13,6 +13,7 @@
  */
 package com.facebook.presto.operator;
 
+import com.facebook.presto.execution.SystemMemoryUsageListener;
 import com.facebook.presto.metadata.Split;
 import com.facebook.presto.spi.ColumnHandle;
 import com.facebook.presto.spi.ConnectorPageSource;
@@ -20,6 +21,7 @@ import com.facebook.presto.spi.Page;
 import com.facebook.presto.spi.PageBuilder;
 import com.facebook.presto.spi.RecordCursor;
 import com.facebook.presto.spi.RecordPageSource;
+import com.facebook.presto.spi.TupleDomain;
 import com.facebook.presto.spi.UpdatablePageSource;
 import com.facebook.presto.spi.type.Type;
 import com.facebook.presto.split.PageSourceProvider;
@@ -33,9 +35,11 @@ import java.io.Closeable;
 import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Supplier;
 
 import static com.google.common.base.Preconditions.checkState;
+import static io.airlift.concurrent.MoreFutures.toListenableFuture;
 import static java.util.Objects.requireNonNull;
 
 public class ScanFilterAndProjectOperator
@@ -51,7 +55,11 @@ public class ScanFilterAndProjectOperator
     private final PageBuilder pageBuilder;
     private final CursorProcessor cursorProcessor;
     private final PageProcessor pageProcessor;
+    private final Optional<DynamicFilter> dynamicFilter;
     private final SettableFuture<?> blocked = SettableFuture.create();
+    private final SystemMemoryUsageListener systemMemoryUsageListener;
+
+    private TupleDomain<Integer> dynamicFilterDomain = TupleDomain.all();
 
     private RecordCursor cursor;
     private ConnectorPageSource pageSource;
@@ -64,6 +72,7 @@ public class ScanFilterAndProjectOperator
 
     private long completedBytes;
     private long readTimeNanos;
+    private long systemMemoryUsage;
 
     protected ScanFilterAndProjectOperator(
             OperatorContext operatorContext,
@@ -73,6 +82,19 @@ public class ScanFilterAndProjectOperator
             PageProcessor pageProcessor,
             Iterable<ColumnHandle> columns,
             Iterable<Type> types)
+    {
+        this(operatorContext, sourceId, pageSourceProvider, cursorProcessor, pageProcessor, columns, types, Optional.empty());
+    }
+
+    protected ScanFilterAndProjectOperator(
+            OperatorContext operatorContext,
+            PlanNodeId sourceId,
+            PageSourceProvider pageSourceProvider,
+            CursorProcessor cursorProcessor,
+            PageProcessor pageProcessor,
+            Iterable<ColumnHandle> columns,
+            Iterable<Type> types,
+            Optional<DynamicFilter> dynamicFilter)
     {
         this.cursorProcessor = requireNonNull(cursorProcessor, "cursorProcessor is null");
         this.pageProcessor = requireNonNull(pageProcessor, "pageProcessor is null");
@@ -81,6 +103,8 @@ public class ScanFilterAndProjectOperator
         this.pageSourceProvider = requireNonNull(pageSourceProvider, "pageSourceManager is null");
         this.types = ImmutableList.copyOf(requireNonNull(types, "types is null"));
         this.columns = ImmutableList.copyOf(requireNonNull(columns, "columns is null"));
+        this.dynamicFilter = requireNonNull(dynamicFilter, "dynamicFilter is null");
+        this.systemMemoryUsageListener = new SystemMemoryUsageTracker(operatorContext);
 
         this.pageBuilder = new PageBuilder(getTypes());
     }
@@ -155,6 +179,9 @@ public class ScanFilterAndProjectOperator
             catch (IOException e) {
                 throw Throwables.propagate(e);
             }
+            finally {
+                updateSystemMemoryUsage(0);
+            }
         }
         else if (cursor != null) {
             cursor.close();
@@ -179,9 +206,28 @@ public class ScanFilterAndProjectOperator
     @Override
     public ListenableFuture<?> isBlocked()
     {
+        // the split is not opened until the build side of the join has published its keys
+        if (blocked.isDone() && split != null && !finishing && dynamicFilter.isPresent() && pageSource == null) {
+            return dynamicFilter.get().isBlocked();
+        }
+        if (blocked.isDone() && pageSource != null && !finishing) {
+            ListenableFuture<?> pageSourceBlocked = toOperatorFuture(pageSource.isBlocked());
+            // checking the page source can start a background read
+            updateSystemMemoryUsage(pageSource.getSystemMemoryUsage());
+            return pageSourceBlocked;
+        }
         return blocked;
     }
 
+    static ListenableFuture<?> toOperatorFuture(CompletableFuture<?> pageSourceBlocked)
+    {
+        // avoid wrapping the future for the common case of a page source that never blocks
+        if (pageSourceBlocked.isDone()) {
+            return NOT_BLOCKED;
+        }
+        return toListenableFuture(pageSourceBlocked);
+    }
+
     @Override
     public final boolean needsInput()
     {
@@ -212,9 +258,10 @@ public class ScanFilterAndProjectOperator
                     finishing = true;
                 }
             }
-            else {
+            else if (pageSource != null) {
                 if (currentPage == null) {
                     currentPage = pageSource.getNextPage();
+                    updateSystemMemoryUsage(pageSource.getSystemMemoryUsage());
 
                     if (currentPage != null) {
                         // update operator stats
@@ -223,12 +270,31 @@ public class ScanFilterAndProjectOperator
                         operatorContext.recordGeneratedInput(endCompletedBytes - completedBytes, currentPage.getPositionCount(), endReadTimeNanos - readTimeNanos);
                         completedBytes = endCompletedBytes;
                         readTimeNanos = endReadTimeNanos;
+
+                        if (dynamicFilter.isPresent()) {
+                            currentPage = dynamicFilter.get().filterPage(dynamicFilterDomain, currentPage);
+                        }
                     }
 
                     currentPosition = 0;
                 }
 
-                if (currentPage != null) {
+                if (currentPage != null && currentPosition == 0 && pageProcessor.hasConstantExpressions(currentPage)) {
+                    // expressions over run length encoded inputs are evaluated once for the page, so the rows
+                    // already in the page builder must be flushed first to preserve their order
+                    if (!pageBuilder.isEmpty()) {
+                        Page page = pageBuilder.build();
+                        pageBuilder.reset();
+                        return page;
+                    }
+
+                    Page page = pageProcessor.processColumnar(operatorContext.getSession().toConnectorSession(), currentPage, getTypes());
+                    currentPage = null;
+                    if (page.getPositionCount() > 0) {
+                        return page;
+                    }
+                }
+                else if (currentPage != null) {
                     currentPosition = pageProcessor.process(operatorContext.getSession().toConnectorSession(), currentPage, currentPosition, currentPage.getPositionCount(), pageBuilder);
                     if (currentPosition == currentPage.getPositionCount()) {
                         currentPage = null;
@@ -251,7 +317,20 @@ public class ScanFilterAndProjectOperator
     private void createSourceIfNecessary()
     {
         if ((split != null) && (pageSource == null) && (cursor == null)) {
-            ConnectorPageSource source = pageSourceProvider.createPageSource(operatorContext.getSession(), split, columns);
+            if (dynamicFilter.isPresent()) {
+                if (!dynamicFilter.get().isBlocked().isDone()) {
+                    return;
+                }
+                dynamicFilterDomain = dynamicFilter.get().getScanDomain();
+                if (dynamicFilterDomain.isNone()) {
+                    // the build side is empty, so no row of the split can be joined
+                    finishing = true;
+                    return;
+                }
+            }
+
+            TupleDomain<ColumnHandle> connectorDynamicFilter = dynamicFilterDomain.transform(columns::get);
+            ConnectorPageSource source = pageSourceProvider.createPageSource(operatorContext.getSession(), split, columns, connectorDynamicFilter);
             if (source instanceof RecordPageSource) {
                 cursor = ((RecordPageSource) source).getCursor();
             }
@@ -261,6 +340,12 @@ public class ScanFilterAndProjectOperator
         }
     }
 
+    private void updateSystemMemoryUsage(long newSystemMemoryUsage)
+    {
+        systemMemoryUsageListener.updateSystemMemoryUsage(newSystemMemoryUsage - systemMemoryUsage);
+        systemMemoryUsage = newSystemMemoryUsage;
+    }
+
     public static class ScanFilterAndProjectOperatorFactory
             implements SourceOperatorFactory
     {
@@ -271,6 +356,7 @@ public class ScanFilterAndProjectOperator
         private final PageSourceProvider pageSourceProvider;
         private final List<ColumnHandle> columns;
         private final List<Type> types;
+        private final Optional<DynamicFilter> dynamicFilter;
         private boolean closed;
 
         public ScanFilterAndProjectOperatorFactory(
@@ -281,6 +367,19 @@ public class ScanFilterAndProjectOperator
                 PageProcessor pageProcessor,
                 Iterable<ColumnHandle> columns,
                 List<Type> types)
+        {
+            this(operatorId, sourceId, pageSourceProvider, cursorProcessor, pageProcessor, columns, types, Optional.empty());
+        }
+
+        public ScanFilterAndProjectOperatorFactory(
+                int operatorId,
+                PlanNodeId sourceId,
+                PageSourceProvider pageSourceProvider,
+                CursorProcessor cursorProcessor,
+                PageProcessor pageProcessor,
+                Iterable<ColumnHandle> columns,
+                List<Type> types,
+                Optional<DynamicFilter> dynamicFilter)
         {
             this.operatorId = operatorId;
             this.cursorProcessor = requireNonNull(cursorProcessor, "cursorProcessor is null");
@@ -289,6 +388,7 @@ public class ScanFilterAndProjectOperator
             this.pageSourceProvider = requireNonNull(pageSourceProvider, "pageSourceProvider is null");
             this.columns = ImmutableList.copyOf(requireNonNull(columns, "columns is null"));
             this.types = requireNonNull(types, "types is null");
+            this.dynamicFilter = requireNonNull(dynamicFilter, "dynamicFilter is null");
         }
 
         @Override
@@ -315,7 +415,8 @@ public class ScanFilterAndProjectOperator
                     cursorProcessor,
                     pageProcessor,
                     columns,
-                    types);
+                    types,
+                    dynamicFilter);
         }
 
         @Override
@@ -32,7 +32,7 @@ public final class SettableLookupSourceSupplier
         implements LookupSourceSupplier
 {
     private final List<Type> types;
-    private final SettableFuture<SharedLookupSource> lookupSourceFuture = SettableFuture.create();
+    private final SettableFuture<LookupSource> lookupSourceFuture = SettableFuture.create();
     private final AtomicInteger referenceCount = new AtomicInteger(1);
 
     public SettableLookupSourceSupplier(List<Type> types)
@@ -49,7 +49,7 @@ public final class SettableLookupSourceSupplier
     @Override
     public ListenableFuture<LookupSource> getLookupSource(OperatorContext operatorContext)
     {
-        return transform(lookupSourceFuture, (AsyncFunction<SharedLookupSource, LookupSource>) Futures::immediateFuture);
+        return transform(lookupSourceFuture, (AsyncFunction<LookupSource, LookupSource>) Futures::immediateFuture);
     }
 
     public void setLookupSource(SharedLookupSource lookupSource)
@@ -59,6 +59,13 @@ public final class SettableLookupSourceSupplier
         checkState(wasSet, "Lookup source already set");
     }
 
+    public void setLookupSource(SpilledLookupSource lookupSource)
+    {
+        requireNonNull(lookupSource, "lookupSource is null");
+        boolean wasSet = lookupSourceFuture.set(lookupSource);
+        checkState(wasSet, "Lookup source already set");
+    }
+
     @Override
     public void retain()
     {
@@ -69,12 +76,17 @@ public final class SettableLookupSourceSupplier
     public void release()
     {
         if (referenceCount.decrementAndGet() == 0) {
-            // We own the shared lookup source, so we need to free their memory
-            Futures.addCallback(lookupSourceFuture, new FutureCallback<SharedLookupSource>() {
+            // We own the shared lookup source, so we need to free their memory (or their spill files)
+            Futures.addCallback(lookupSourceFuture, new FutureCallback<LookupSource>() {
                 @Override
-                public void onSuccess(SharedLookupSource result)
+                public void onSuccess(LookupSource result)
                 {
-                    result.freeMemory();
+                    if (result instanceof SpilledLookupSource) {
+                        ((SpilledLookupSource) result).destroy();
+                    }
+                    else {
+                        ((SharedLookupSource) result).freeMemory();
+                    }
                 }
 
                 @Override
@@ -0,0 +1,271 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator;
+
+import com.facebook.presto.spi.Page;
+import com.facebook.presto.spi.PageBuilder;
+import com.facebook.presto.spi.type.Type;
+import com.facebook.presto.spiller.PartitioningSpiller;
+import com.facebook.presto.spiller.SpillerFactory;
+import com.google.common.collect.ImmutableList;
+import com.google.common.primitives.Ints;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListenableFutureTask;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+
+import static com.google.common.base.Preconditions.checkElementIndex;
+import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.util.concurrent.Futures.getUnchecked;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Build side of a hash join that did not fit in memory. The build rows are
+ * hash partitioned on the join channels and stored by a {@link PartitioningSpiller},
+ * so the probe side must be partitioned the same way (see {@link #createProbeSpiller})
+ * and joined against one partition at a time (see {@link #acquirePartitionLookupSource}).
+ * <p>
+ * A build partition is loaded in the background and shared by the probe operators
+ * that are joining that partition at the same time. Its memory is accounted to the
+ * task, like the in-memory {@link SharedLookupSource}, and freed as soon as the last
+ * of them has released it, so at most the partitions currently being joined are held
+ * in memory. A probe operator that reaches a partition after it was freed loads it
+ * again from the spill files.
+ */
+@ThreadSafe
+public final class SpilledLookupSource
+        implements LookupSource
+{
+    private final List<Type> types;
+    private final List<Integer> hashChannels;
+    private final Optional<Integer> hashChannel;
+    private final int expectedPositions;
+    private final SpillerFactory spillerFactory;
+    private final TaskContext taskContext;
+    private final Executor executor;
+
+    @GuardedBy("this")
+    private final PartitioningSpiller spiller;
+    @GuardedBy("this")
+    private final Map<Integer, LoadedPartition> loadedPartitions = new HashMap<>();
+    @GuardedBy("this")
+    private boolean destroyed;
+
+    public SpilledLookupSource(
+            List<Type> types,
+            List<Integer> hashChannels,
+            Optional<Integer> hashChannel,
+            int expectedPositions,
+            SpillerFactory spillerFactory,
+            PartitioningSpiller spiller,
+            TaskContext taskContext,
+            Executor executor)
+    {
+        this.types = ImmutableList.copyOf(requireNonNull(types, "types is null"));
+        this.hashChannels = ImmutableList.copyOf(requireNonNull(hashChannels, "hashChannels is null"));
+        this.hashChannel = requireNonNull(hashChannel, "hashChannel is null");
+        this.expectedPositions = expectedPositions;
+        this.spillerFactory = requireNonNull(spillerFactory, "spillerFactory is null");
+        this.spiller = requireNonNull(spiller, "spiller is null");
+        this.taskContext = requireNonNull(taskContext, "taskContext is null");
+        this.executor = requireNonNull(executor, "executor is null");
+    }
+
+    public static HashGenerator createPartitionHashGenerator(List<Type> types, List<Integer> joinChannels)
+    {
+        // Both sides are partitioned by hashing the join channels directly, since a
+        // precomputed hash channel is not guaranteed to be present on both of them
+        ImmutableList.Builder<Type> joinTypes = ImmutableList.builder();
+        for (int channel : joinChannels) {
+            joinTypes.add(types.get(channel));
+        }
+        return new InterpretedHashGenerator(joinTypes.build(), Ints.toArray(joinChannels));
+    }
+
+    public synchronized int getPartitionCount()
+    {
+        return spiller.getPartitionCount();
+    }
+
+    public synchronized PartitioningSpiller createProbeSpiller(List<Type> probeTypes, List<Integer> probeJoinChannels)
+    {
+        checkState(!destroyed, "Spilled lookup source is already destroyed");
+        return spillerFactory.createPartitioningSpiller(probeTypes, createPartitionHashGenerator(probeTypes, probeJoinChannels), spiller.getPartitionCount());
+    }
+
+    /**
+     * Returns the lookup source of a single partition of the build side, loading
+     * it in the background if no other probe operator holds it. Every call must be
+     * matched by a call to {@link #releasePartitionLookupSource}, and the partition
+     * is freed when the last holder releases it.
+     */
+    public synchronized ListenableFuture<SharedLookupSource> acquirePartitionLookupSource(int partition)
+    {
+        checkState(!destroyed, "Spilled lookup source is already destroyed");
+        checkElementIndex(partition, spiller.getPartitionCount(), "partition");
+
+        LoadedPartition loadedPartition = loadedPartitions.get(partition);
+        if (loadedPartition == null) {
+            ListenableFutureTask<SharedLookupSource> loadTask = ListenableFutureTask.create(() -> loadPartition(partition));
+            executor.execute(loadTask);
+            loadedPartition = new LoadedPartition(loadTask);
+            loadedPartitions.put(partition, loadedPartition);
+        }
+        loadedPartition.references++;
+        return loadedPartition.lookupSource;
+    }
+
+    public synchronized void releasePartitionLookupSource(int partition)
+    {
+        LoadedPartition loadedPartition = loadedPartitions.get(partition);
+        checkState(loadedPartition != null && loadedPartition.references > 0, "Partition %s is not acquired", partition);
+
+        loadedPartition.references--;
+        if (loadedPartition.references == 0) {
+            loadedPartitions.remove(partition);
+            ListenableFuture<SharedLookupSource> lookupSource = loadedPartition.lookupSource;
+            if (lookupSource.isDone()) {
+                // listeners of a completed load may still be pending on the loading thread, so free it right away
+                freeLoadedPartition(lookupSource);
+            }
+            else {
+                // a partition that is still loading is freed once the load completes
+                lookupSource.addListener(() -> freeLoadedPartition(lookupSource), directExecutor());
+            }
+        }
+    }
+
+    private SharedLookupSource loadPartition(int partition)
+    {
+        PagesIndex pagesIndex = new PagesIndex(types, expectedPositions);
+        long reservedBytes = 0;
+        try {
+            Iterator<Page> pages = getSpilledPages(partition);
+            while (pages.hasNext()) {
+                pagesIndex.addPage(pages.next());
+                long estimatedBytes = pagesIndex.getEstimatedSize().toBytes();
+                taskContext.reserveMemory(estimatedBytes - reservedBytes);
+                reservedBytes = estimatedBytes;
+            }
+            LookupSource lookupSource = pagesIndex.createLookupSource(hashChannels, hashChannel);
+
+            // the shared lookup source reserves its own memory
+            taskContext.freeMemory(reservedBytes);
+            reservedBytes = 0;
+            return new SharedLookupSource(lookupSource, taskContext);
+        }
+        finally {
+            taskContext.freeMemory(reservedBytes);
+        }
+    }
+
+    private static void freeLoadedPartition(ListenableFuture<SharedLookupSource> lookupSource)
+    {
+        SharedLookupSource loadedLookupSource;
+        try {
+            loadedLookupSource = getUnchecked(lookupSource);
+        }
+        catch (UncheckedExecutionException | ExecutionError e) {
+            // a failed load holds no memory, and the failure is reported to the probe operators
+            return;
+        }
+        loadedLookupSource.freeMemory();
+        loadedLookupSource.close();
+    }
+
+    private synchronized Iterator<Page> getSpilledPages(int partition)
+    {
+        checkState(!destroyed, "Spilled lookup source is already destroyed");
+        return spiller.getSpilledPages(partition);
+    }
+
+    synchronized void destroy()
+    {
+        checkState(!destroyed, "Already destroyed");
+        destroyed = true;
+        spiller.close();
+    }
+
+    @Override
+    public int getChannelCount()
+    {
+        return types.size();
+    }
+
+    @Override
+    public long getInMemorySizeInBytes()
+    {
+        return 0;
+    }
+
+    @Override
+    public long getJoinPosition(int position, Page page, int rawHash)
+    {
+        throw new UnsupportedOperationException("Spilled lookup source must be joined one partition at a time");
+    }
+
+    @Override
+    public long getJoinPosition(int position, Page page)
+    {
+        throw new UnsupportedOperationException("Spilled lookup source must be joined one partition at a time");
+    }
+
+    @Override
+    public long getNextJoinPosition(long currentPosition)
+    {
+        throw new UnsupportedOperationException("Spilled lookup source must be joined one partition at a time");
+    }
+
+    @Override
+    public void appendTo(long position, PageBuilder pageBuilder, int outputChannelOffset)
+    {
+        throw new UnsupportedOperationException("Spilled lookup source must be joined one partition at a time");
+    }
+
+    @Override
+    public LongIterator getUnvisitedJoinPositions()
+    {
+        throw new UnsupportedOperationException("Spilled lookup source does not support outer joins on the build side");
+    }
+
+    @Override
+    public void close()
+    {
+        // the spilled partitions are shared by all probe operators, so they are
+        // only removed once the lookup source supplier is released
+    }
+
+    private static class LoadedPartition
+    {
+        private final ListenableFuture<SharedLookupSource> lookupSource;
+        private int references;
+
+        private LoadedPartition(ListenableFuture<SharedLookupSource> lookupSource)
+        {
+            this.lookupSource = lookupSource;
+        }
+    }
+}
@@ -13,6 +13,7 @@
  */
 package com.facebook.presto.operator;
 
+import com.facebook.presto.execution.SystemMemoryUsageListener;
 import com.facebook.presto.metadata.Split;
 import com.facebook.presto.spi.ColumnHandle;
 import com.facebook.presto.spi.ConnectorPageSource;
@@ -32,6 +33,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.function.Supplier;
 
+import static com.facebook.presto.operator.ScanFilterAndProjectOperator.toOperatorFuture;
 import static com.google.common.base.Preconditions.checkState;
 import static java.util.Objects.requireNonNull;
 
@@ -100,6 +102,7 @@ public class TableScanOperator
     private final List<Type> types;
     private final List<ColumnHandle> columns;
     private final SettableFuture<?> blocked = SettableFuture.create();
+    private final SystemMemoryUsageListener systemMemoryUsageListener;
 
     private Split split;
     private ConnectorPageSource source;
@@ -108,6 +111,7 @@ public class TableScanOperator
 
     private long completedBytes;
     private long readTimeNanos;
+    private long systemMemoryUsage;
 
     public TableScanOperator(
             OperatorContext operatorContext,
@@ -121,6 +125,7 @@ public class TableScanOperator
         this.types = requireNonNull(types, "types is null");
         this.pageSourceProvider = requireNonNull(pageSourceProvider, "pageSourceManager is null");
         this.columns = ImmutableList.copyOf(requireNonNull(columns, "columns is null"));
+        this.systemMemoryUsageListener = new SystemMemoryUsageTracker(operatorContext);
     }
 
     @Override
@@ -196,6 +201,9 @@ public class TableScanOperator
             catch (IOException e) {
                 throw Throwables.propagate(e);
             }
+            finally {
+                updateSystemMemoryUsage(0);
+            }
         }
     }
 
@@ -213,7 +221,13 @@ public class TableScanOperator
     @Override
     public ListenableFuture<?> isBlocked()
     {
-        return blocked;
+        if (!blocked.isDone() || source == null) {
+            return blocked;
+        }
+        ListenableFuture<?> sourceBlocked = toOperatorFuture(source.isBlocked());
+        // checking the source can start a background read
+        updateSystemMemoryUsage(source.getSystemMemoryUsage());
+        return sourceBlocked;
     }
 
     @Override
@@ -237,6 +251,7 @@ public class TableScanOperator
         }
 
         Page page = source.getNextPage();
+        updateSystemMemoryUsage(source.getSystemMemoryUsage());
         if (page != null) {
             // assure the page is in memory before handing to another operator
             page.assureLoaded();
@@ -258,4 +273,10 @@ public class TableScanOperator
             source = pageSourceProvider.createPageSource(operatorContext.getSession(), split, columns);
         }
     }
+
+    private void updateSystemMemoryUsage(long newSystemMemoryUsage)
+    {
+        systemMemoryUsageListener.updateSystemMemoryUsage(newSystemMemoryUsage - systemMemoryUsage);
+        systemMemoryUsage = newSystemMemoryUsage;
+    }
 }
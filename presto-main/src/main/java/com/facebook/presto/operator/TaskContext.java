@@ -249,6 +249,48 @@ public class TaskContext
         return stat;
     }
 
+    public DataSize getMemoryReservation()
+    {
+        return new DataSize(memoryReservation.get(), BYTE).convertToMostSuccinctDataSize();
+    }
+
+    public int getQueuedPartitionedDrivers()
+    {
+        return pipelineContexts.stream()
+                .mapToInt(PipelineContext::getQueuedPartitionedDrivers)
+                .sum();
+    }
+
+    public int getRunningPartitionedDrivers()
+    {
+        return pipelineContexts.stream()
+                .mapToInt(PipelineContext::getRunningPartitionedDrivers)
+                .sum();
+    }
+
+    public int getCompletedPartitionedDrivers()
+    {
+        return pipelineContexts.stream()
+                .mapToInt(PipelineContext::getCompletedPartitionedDrivers)
+                .sum();
+    }
+
+    /**
+     * Returns the time since the first driver of this task started, until the task is done.
+     */
+    public Duration getExecutionTime()
+    {
+        long startNanos = this.startNanos.get();
+        if (startNanos == 0) {
+            return new Duration(0, NANOSECONDS);
+        }
+        long endNanos = this.endNanos.get();
+        if (endNanos < startNanos) {
+            endNanos = System.nanoTime();
+        }
+        return new Duration(endNanos - startNanos, NANOSECONDS).convertToMostSuccinctTimeUnit();
+    }
+
     public TaskStats getTaskStats()
     {
         // check for end state to avoid callback ordering problems
@@ -345,6 +387,7 @@ public class TaskContext
                 runningDrivers,
                 runningPartitionedDrivers,
                 completedDrivers,
+                getCompletedPartitionedDrivers(),
                 new DataSize(memoryReservation.get(), BYTE).convertToMostSuccinctDataSize(),
                 new DataSize(systemMemoryReservation.get(), BYTE).convertToMostSuccinctDataSize(),
                 new Duration(totalScheduledTime, NANOSECONDS).convertToMostSuccinctTimeUnit(),
@@ -47,6 +47,7 @@ public class TaskStats
     private final int runningDrivers;
     private final int runningPartitionedDrivers;
     private final int completedDrivers;
+    private final int completedPartitionedDrivers;
 
     private final DataSize memoryReservation;
     private final DataSize systemMemoryReservation;
@@ -83,6 +84,7 @@ public class TaskStats
                 0,
                 0,
                 0,
+                0,
                 new DataSize(0, BYTE),
                 new DataSize(0, BYTE),
                 new Duration(0, MILLISECONDS),
@@ -115,6 +117,7 @@ public class TaskStats
             @JsonProperty("runningDrivers") int runningDrivers,
             @JsonProperty("runningPartitionedDrivers") int runningPartitionedDrivers,
             @JsonProperty("completedDrivers") int completedDrivers,
+            @JsonProperty("completedPartitionedDrivers") int completedPartitionedDrivers,
 
             @JsonProperty("memoryReservation") DataSize memoryReservation,
             @JsonProperty("systemMemoryReservation") DataSize systemMemoryReservation,
@@ -158,6 +161,8 @@ public class TaskStats
 
         checkArgument(completedDrivers >= 0, "completedDrivers is negative");
         this.completedDrivers = completedDrivers;
+        checkArgument(completedPartitionedDrivers >= 0, "completedPartitionedDrivers is negative");
+        this.completedPartitionedDrivers = completedPartitionedDrivers;
 
         this.memoryReservation = requireNonNull(memoryReservation, "memoryReservation is null");
         this.systemMemoryReservation = requireNonNull(systemMemoryReservation, "systemMemoryReservation is null");
@@ -247,6 +252,12 @@ public class TaskStats
         return completedDrivers;
     }
 
+    @JsonProperty
+    public int getCompletedPartitionedDrivers()
+    {
+        return completedPartitionedDrivers;
+    }
+
     @JsonProperty
     public DataSize getMemoryReservation()
     {
@@ -364,6 +375,7 @@ public class TaskStats
                 runningDrivers,
                 runningPartitionedDrivers,
                 completedDrivers,
+                completedPartitionedDrivers,
                 memoryReservation,
                 systemMemoryReservation,
                 totalScheduledTime,
@@ -19,23 +19,32 @@ import com.facebook.presto.operator.window.WindowPartition;
 import com.facebook.presto.spi.Page;
 import com.facebook.presto.spi.PageBuilder;
 import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.block.BlockBuilder;
+import com.facebook.presto.spi.block.BlockBuilderStatus;
 import com.facebook.presto.spi.block.SortOrder;
 import com.facebook.presto.spi.type.Type;
+import com.facebook.presto.spiller.Spiller;
+import com.facebook.presto.spiller.SpillerFactory;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import com.google.common.primitives.Ints;
+import com.google.common.util.concurrent.ListenableFuture;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
+import static com.facebook.presto.operator.MergeSortedPages.mergeSortedPages;
 import static com.facebook.presto.spi.block.SortOrder.ASC_NULLS_LAST;
 import static com.facebook.presto.util.ImmutableCollectors.toImmutableList;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkPositionIndex;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.collect.Iterables.concat;
+import static io.airlift.concurrent.MoreFutures.getFutureValue;
 import static java.util.Collections.nCopies;
 import static java.util.Objects.requireNonNull;
 
@@ -57,6 +66,7 @@ public class WindowOperator
         private final FrameInfo frameInfo;
         private final int expectedPositions;
         private final List<Type> types;
+        private final Optional<SpillerFactory> spillerFactory;
         private boolean closed;
 
         public WindowOperatorFactory(
@@ -71,6 +81,34 @@ public class WindowOperator
                 int preSortedChannelPrefix,
                 FrameInfo frameInfo,
                 int expectedPositions)
+        {
+            this(operatorId,
+                    sourceTypes,
+                    outputChannels,
+                    windowFunctionDefinitions,
+                    partitionChannels,
+                    preGroupedChannels,
+                    sortChannels,
+                    sortOrder,
+                    preSortedChannelPrefix,
+                    frameInfo,
+                    expectedPositions,
+                    Optional.empty());
+        }
+
+        public WindowOperatorFactory(
+                int operatorId,
+                List<? extends Type> sourceTypes,
+                List<Integer> outputChannels,
+                List<WindowFunctionDefinition> windowFunctionDefinitions,
+                List<Integer> partitionChannels,
+                List<Integer> preGroupedChannels,
+                List<Integer> sortChannels,
+                List<SortOrder> sortOrder,
+                int preSortedChannelPrefix,
+                FrameInfo frameInfo,
+                int expectedPositions,
+                Optional<SpillerFactory> spillerFactory)
         {
             requireNonNull(sourceTypes, "sourceTypes is null");
             requireNonNull(outputChannels, "outputChannels is null");
@@ -84,6 +122,7 @@ public class WindowOperator
             checkArgument(preSortedChannelPrefix <= sortChannels.size(), "Cannot have more pre-sorted channels than specified sorted channels");
             checkArgument(preSortedChannelPrefix == 0 || ImmutableSet.copyOf(preGroupedChannels).equals(ImmutableSet.copyOf(partitionChannels)), "preSortedChannelPrefix can only be greater than zero if all partition channels are pre-grouped");
             requireNonNull(frameInfo, "frameInfo is null");
+            requireNonNull(spillerFactory, "spillerFactory is null");
 
             this.operatorId = operatorId;
             this.sourceTypes = ImmutableList.copyOf(sourceTypes);
@@ -96,6 +135,7 @@ public class WindowOperator
             this.preSortedChannelPrefix = preSortedChannelPrefix;
             this.frameInfo = frameInfo;
             this.expectedPositions = expectedPositions;
+            this.spillerFactory = spillerFactory;
             this.types = Stream.concat(
                     outputChannels.stream()
                             .map(sourceTypes::get),
@@ -127,7 +167,8 @@ public class WindowOperator
                     sortOrder,
                     preSortedChannelPrefix,
                     frameInfo,
-                    expectedPositions);
+                    expectedPositions,
+                    spillerFactory);
         }
 
         @Override
@@ -146,6 +187,7 @@ public class WindowOperator
     }
 
     private final OperatorContext operatorContext;
+    private final List<Type> sourceTypes;
     private final int[] outputChannels;
     private final List<WindowFunction> windowFunctions;
     private final List<Integer> orderChannels;
@@ -153,6 +195,7 @@ public class WindowOperator
     private final List<Type> types;
 
     private final int[] preGroupedChannels;
+    private final int[] unGroupedPartitionChannels;
 
     private final PagesHashStrategy preGroupedPartitionHashStrategy;
     private final PagesHashStrategy unGroupedPartitionHashStrategy;
@@ -171,6 +214,18 @@ public class WindowOperator
 
     private Page pendingInput;
 
+    private final Optional<SpillerFactory> spillerFactory;
+    private Optional<Spiller> spiller = Optional.empty();
+    private ListenableFuture<?> spillInProgress = NOT_BLOCKED;
+    // pre-grouped channel values of the group whose sorted runs are on disk
+    private Page spilledGroupKey;
+    // pagesIndex is being written to disk and must be cleared once the spill completes
+    private boolean pagesIndexSpilled;
+    // all runs of the current group are (being) spilled, and can be merged once the spill completes
+    private boolean mergePending;
+    private Iterator<Page> mergedPages;
+    private Page mergedPage;
+
     public WindowOperator(
             OperatorContext operatorContext,
             List<Type> sourceTypes,
@@ -183,6 +238,34 @@ public class WindowOperator
             int preSortedChannelPrefix,
             FrameInfo frameInfo,
             int expectedPositions)
+    {
+        this(operatorContext,
+                sourceTypes,
+                outputChannels,
+                windowFunctionDefinitions,
+                partitionChannels,
+                preGroupedChannels,
+                sortChannels,
+                sortOrder,
+                preSortedChannelPrefix,
+                frameInfo,
+                expectedPositions,
+                Optional.empty());
+    }
+
+    public WindowOperator(
+            OperatorContext operatorContext,
+            List<Type> sourceTypes,
+            List<Integer> outputChannels,
+            List<WindowFunctionDefinition> windowFunctionDefinitions,
+            List<Integer> partitionChannels,
+            List<Integer> preGroupedChannels,
+            List<Integer> sortChannels,
+            List<SortOrder> sortOrder,
+            int preSortedChannelPrefix,
+            FrameInfo frameInfo,
+            int expectedPositions,
+            Optional<SpillerFactory> spillerFactory)
     {
         requireNonNull(operatorContext, "operatorContext is null");
         requireNonNull(outputChannels, "outputChannels is null");
@@ -196,8 +279,10 @@ public class WindowOperator
         checkArgument(preSortedChannelPrefix <= sortChannels.size(), "Cannot have more pre-sorted channels than specified sorted channels");
         checkArgument(preSortedChannelPrefix == 0 || ImmutableSet.copyOf(preGroupedChannels).equals(ImmutableSet.copyOf(partitionChannels)), "preSortedChannelPrefix can only be greater than zero if all partition channels are pre-grouped");
         requireNonNull(frameInfo, "frameInfo is null");
+        requireNonNull(spillerFactory, "spillerFactory is null");
 
         this.operatorContext = operatorContext;
+        this.sourceTypes = ImmutableList.copyOf(sourceTypes);
         this.outputChannels = Ints.toArray(outputChannels);
         this.windowFunctions = windowFunctionDefinitions.stream()
                 .map(WindowFunctionDefinition::createWindowFunction)
@@ -218,6 +303,7 @@ public class WindowOperator
                 .filter(channel -> !preGroupedChannels.contains(channel))
                 .collect(toImmutableList());
         this.unGroupedPartitionHashStrategy = pagesIndex.createPagesHashStrategy(unGroupedPartitionChannels, Optional.empty());
+        this.unGroupedPartitionChannels = Ints.toArray(unGroupedPartitionChannels);
         List<Integer> preSortedChannels = sortChannels.stream()
                 .limit(preSortedChannelPrefix)
                 .collect(toImmutableList());
@@ -236,6 +322,10 @@ public class WindowOperator
             this.orderChannels = ImmutableList.copyOf(concat(unGroupedPartitionChannels, sortChannels));
             this.ordering = ImmutableList.copyOf(concat(nCopies(unGroupedPartitionChannels.size(), ASC_NULLS_LAST), sortOrder));
         }
+
+        // A spilled group is read back one window partition at a time, which only
+        // bounds memory if the group contains more than one partition
+        this.spillerFactory = unGroupedPartitionChannels.isEmpty() ? Optional.empty() : spillerFactory;
     }
 
     @Override
@@ -257,8 +347,13 @@ public class WindowOperator
             return;
         }
         if (state == State.NEEDS_INPUT) {
+            if (!spillInProgress.isDone()) {
+                return;
+            }
+            completeSpill();
+
             // Since was waiting for more input, prepare what we have for output since we will not be getting any more input
-            sortPagesIndexIfNecessary();
+            prepareGroupForOutput();
         }
         state = State.FINISHING;
     }
@@ -269,10 +364,16 @@ public class WindowOperator
         return state == State.FINISHED;
     }
 
+    @Override
+    public ListenableFuture<?> isBlocked()
+    {
+        return spillInProgress;
+    }
+
     @Override
     public boolean needsInput()
     {
-        return state == State.NEEDS_INPUT;
+        return state == State.NEEDS_INPUT && spillInProgress.isDone();
     }
 
     @Override
@@ -285,12 +386,22 @@ public class WindowOperator
         if (page.getPositionCount() == 0) {
             return;
         }
+        completeSpill();
 
         pendingInput = page;
         if (processPendingInput()) {
             state = State.HAS_OUTPUT;
         }
-        operatorContext.setMemoryReservation(pagesIndex.getEstimatedSize().toBytes());
+
+        if (spillerFactory.isPresent() && state == State.NEEDS_INPUT) {
+            if (!operatorContext.trySetMemoryReservation(pagesIndex.getEstimatedSize().toBytes())) {
+                // The current group is incomplete, so write what we have of it as a sorted run
+                spillPagesIndex();
+            }
+        }
+        else {
+            operatorContext.setMemoryReservation(pagesIndex.getEstimatedSize().toBytes());
+        }
     }
 
     /**
@@ -303,7 +414,7 @@ public class WindowOperator
 
         // If we have unused input or are finishing, then we have buffered a full group
         if (pendingInput != null || state == State.FINISHING) {
-            sortPagesIndexIfNecessary();
+            prepareGroupForOutput();
             return true;
         }
         else {
@@ -321,7 +432,7 @@ public class WindowOperator
 
         // TODO: Fix pagesHashStrategy to allow specifying channels for comparison, it currently requires us to rearrange the right side blocks in consecutive channel order
         Page preGroupedPage = rearrangePage(page, preGroupedChannels);
-        if (pagesIndex.getPositionCount() == 0 || pagesIndex.positionEqualsRow(preGroupedPartitionHashStrategy, 0, 0, preGroupedPage.getBlocks())) {
+        if (isCurrentGroup(preGroupedPage)) {
             // Find the position where the pre-grouped columns change
             int groupEnd = findGroupEnd(preGroupedPage, preGroupedPartitionHashStrategy, 0);
 
@@ -343,6 +454,27 @@ public class WindowOperator
         }
     }
 
+    private boolean isCurrentGroup(Page preGroupedPage)
+    {
+        if (pagesIndex.getPositionCount() > 0) {
+            return pagesIndex.positionEqualsRow(preGroupedPartitionHashStrategy, 0, 0, preGroupedPage.getBlocks());
+        }
+        if (spilledGroupKey != null) {
+            // The rows buffered so far have been spilled, so compare with the saved group values
+            return preGroupedPartitionHashStrategy.rowEqualsRow(0, spilledGroupKey.getBlocks(), 0, preGroupedPage.getBlocks());
+        }
+        return true;
+    }
+
+    private static Page copyRegion(Page page, int positionOffset, int length)
+    {
+        Block[] blocks = new Block[page.getChannelCount()];
+        for (int i = 0; i < blocks.length; i++) {
+            blocks[i] = page.getBlock(i).copyRegion(positionOffset, length);
+        }
+        return new Page(length, blocks);
+    }
+
     private static Page rearrangePage(Page page, int[] channels)
     {
         Block[] newBlocks = new Block[channels.length];
@@ -359,8 +491,18 @@ public class WindowOperator
             return null;
         }
 
+        if (mergePending) {
+            if (!spillInProgress.isDone()) {
+                return null;
+            }
+            completeSpill();
+            startMerge();
+        }
+
         Page page = extractOutput();
-        operatorContext.setMemoryReservation(pagesIndex.getEstimatedSize().toBytes());
+        // the window functions may hold memory for the current partition, e.g. a segment tree
+        long windowFunctionsSize = (partition == null) ? 0 : partition.getEstimatedSizeInBytes();
+        operatorContext.setMemoryReservation(pagesIndex.getEstimatedSize().toBytes() + windowFunctionsSize);
         return page;
     }
 
@@ -378,8 +520,12 @@ public class WindowOperator
                     partition = null;
                     pagesIndex.clear();
 
+                    if (mergedPages != null && loadSpilledPartition()) {
+                        // Continue with the next partition of the spilled group
+                        partitionStart = 0;
+                    }
                     // Try to extract more partitions from the pendingInput
-                    if (pendingInput != null && processPendingInput()) {
+                    else if (pendingInput != null && processPendingInput()) {
                         partitionStart = 0;
                     }
                     else if (state == State.FINISHING) {
@@ -410,6 +556,121 @@ public class WindowOperator
         return page;
     }
 
+    @Override
+    public void close()
+    {
+        spiller.ifPresent(Spiller::close);
+    }
+
+    private void prepareGroupForOutput()
+    {
+        if (spilledGroupKey == null) {
+            sortPagesIndexIfNecessary();
+            return;
+        }
+
+        // Part of the group is on disk, so the remainder is spilled as the last run
+        // and the runs are merged before the group is output
+        if (pagesIndex.getPositionCount() > 0) {
+            spillPagesIndex();
+        }
+        mergePending = true;
+    }
+
+    private void spillPagesIndex()
+    {
+        if (!spiller.isPresent()) {
+            spiller = Optional.of(spillerFactory.get().create(sourceTypes));
+        }
+        if (spilledGroupKey == null) {
+            spilledGroupKey = extractGroupKey();
+        }
+
+        sortPagesIndexIfNecessary();
+        spillInProgress = spiller.get().spill(pagesIndex.getSortedPages());
+        pagesIndexSpilled = true;
+    }
+
+    private Page extractGroupKey()
+    {
+        Block[] blocks = new Block[preGroupedChannels.length];
+        for (int i = 0; i < preGroupedChannels.length; i++) {
+            BlockBuilder blockBuilder = pagesIndex.getType(preGroupedChannels[i]).createBlockBuilder(new BlockBuilderStatus(), 1);
+            pagesIndex.appendTo(preGroupedChannels[i], 0, blockBuilder);
+            blocks[i] = blockBuilder.build();
+        }
+        return new Page(1, blocks);
+    }
+
+    private void completeSpill()
+    {
+        // propagate spill failures
+        getFutureValue(spillInProgress);
+
+        if (pagesIndexSpilled) {
+            pagesIndexSpilled = false;
+            pagesIndex.clear();
+        }
+    }
+
+    private void startMerge()
+    {
+        checkState(pagesIndex.getPositionCount() == 0, "pagesIndex must be empty when merging spilled runs");
+        mergePending = false;
+
+        operatorContext.recordSpill(spiller.get().getSpilledBytes(), 0);
+        int[] allChannels = IntStream.range(0, sourceTypes.size()).toArray();
+        mergedPages = mergeSortedPages(spiller.get().getSpills(), pagesIndex.createPageWithPositionComparator(orderChannels, ordering), sourceTypes, allChannels);
+    }
+
+    /**
+     * Loads the next window partition of the merged spilled runs into pagesIndex.
+     *
+     * @return false if all partitions of the spilled group have been loaded
+     */
+    private boolean loadSpilledPartition()
+    {
+        checkState(pagesIndex.getPositionCount() == 0, "pagesIndex must be empty when loading a spilled partition");
+
+        while (mergedPage != null || mergedPages.hasNext()) {
+            if (mergedPage == null) {
+                mergedPage = mergedPages.next();
+                if (mergedPage.getPositionCount() == 0) {
+                    mergedPage = null;
+                    continue;
+                }
+            }
+
+            // The merged runs are sorted by the ungrouped partition channels first, so each partition is contiguous
+            Page partitionPage = rearrangePage(mergedPage, unGroupedPartitionChannels);
+            if (pagesIndex.getPositionCount() > 0 && !pagesIndex.positionEqualsRow(unGroupedPartitionHashStrategy, 0, 0, partitionPage.getBlocks())) {
+                return true;
+            }
+
+            int partitionEnd = findGroupEnd(partitionPage, unGroupedPartitionHashStrategy, 0);
+            // Copy the rows, so that the index does not retain (and account for) the whole merged page
+            pagesIndex.addPage(copyRegion(mergedPage, 0, partitionEnd));
+            operatorContext.setMemoryReservation(pagesIndex.getEstimatedSize().toBytes());
+
+            if (partitionEnd < mergedPage.getPositionCount()) {
+                mergedPage = mergedPage.getRegion(partitionEnd, mergedPage.getPositionCount() - partitionEnd);
+                return true;
+            }
+            mergedPage = null;
+        }
+
+        if (pagesIndex.getPositionCount() > 0) {
+            return true;
+        }
+
+        // The spilled group has been fully output
+        mergedPages = null;
+        spilledGroupKey = null;
+        spiller.get().close();
+        spiller = Optional.empty();
+        return false;
+    }
+
     private void sortPagesIndexIfNecessary()
     {
         if (pagesIndex.getPositionCount() > 1 && !orderChannels.isEmpty()) {
@@ -19,6 +19,8 @@ import com.facebook.presto.spi.Page;
 import com.facebook.presto.spi.PageBuilder;
 import com.facebook.presto.spi.block.Block;
 import com.facebook.presto.spi.block.BlockBuilder;
+import com.facebook.presto.spi.block.BlockBuilderStatus;
+import com.facebook.presto.spi.block.RunLengthEncodedBlock;
 import com.facebook.presto.spi.type.Type;
 import com.google.common.collect.ImmutableList;
 
@@ -71,6 +73,68 @@ public class TupleFilterProcessor
         return end;
     }
 
+    @Override
+    public boolean hasConstantExpressions(Page page)
+    {
+        return isConstantTuple(page);
+    }
+
+    @Override
+    public Page processColumnar(ConnectorSession session, Page page, List<? extends Type> types)
+    {
+        if (isConstantTuple(page)) {
+            // every position has the same values for the filter channels, so the tuple only needs to be checked once
+            if (page.getPositionCount() == 0 || !matches(0, page)) {
+                return new Page(0, createEmptyBlocks());
+            }
+            Block[] blocks = new Block[outputTypes.size()];
+            for (int i = 0; i < blocks.length; i++) {
+                blocks[i] = page.getBlock(i);
+            }
+            return new Page(page.getPositionCount(), blocks);
+        }
+
+        BlockBuilder[] outputs = new BlockBuilder[outputTypes.size()];
+        for (int i = 0; i < outputs.length; i++) {
+            outputs[i] = outputTypes.get(i).createBlockBuilder(new BlockBuilderStatus(), page.getPositionCount());
+        }
+
+        int selectedCount = 0;
+        for (int position = 0; position < page.getPositionCount(); position++) {
+            if (matches(position, page)) {
+                selectedCount++;
+                for (int i = 0; i < outputs.length; i++) {
+                    outputTypes.get(i).appendTo(page.getBlock(i), position, outputs[i]);
+                }
+            }
+        }
+
+        Block[] blocks = new Block[outputs.length];
+        for (int i = 0; i < outputs.length; i++) {
+            blocks[i] = outputs[i].build();
+        }
+        return new Page(selectedCount, blocks);
+    }
+
+    private boolean isConstantTuple(Page page)
+    {
+        for (int channel : outputTupleChannels) {
+            if (!(page.getBlock(channel) instanceof RunLengthEncodedBlock)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Block[] createEmptyBlocks()
+    {
+        Block[] blocks = new Block[outputTypes.size()];
+        for (int i = 0; i < blocks.length; i++) {
+            blocks[i] = outputTypes.get(i).createBlockBuilder(new BlockBuilderStatus(), 0).build();
+        }
+        return blocks;
+    }
+
     private boolean matches(int position, Page page)
     {
         for (int i = 0; i < outputTupleChannels.length; i++) {
@@ -30,26 +30,37 @@ import static java.util.Objects.requireNonNull;
 public class AggregateWindowFunction
         implements WindowFunction
 {
+    // frames smaller than this are accumulated row by row, even if the start of the frame moved
+    private static final int MIN_SEGMENT_TREE_FRAME_SIZE = 16;
+
     private final InternalAggregationFunction function;
     private final int[] argumentChannels;
     private final AccumulatorFactory accumulatorFactory;
+    private final PageBuilder pageBuilder;
 
     private WindowIndex windowIndex;
     private Accumulator accumulator;
     private int currentStart;
     private int currentEnd;
 
+    // built on first use for each partition
+    private boolean segmentTreeCreated;
+    private Optional<AggregationSegmentTree> segmentTree = Optional.empty();
+
     private AggregateWindowFunction(InternalAggregationFunction function, List<Integer> argumentChannels)
     {
         this.function = requireNonNull(function, "function is null");
         this.argumentChannels = Ints.toArray(argumentChannels);
         this.accumulatorFactory = function.bind(createArgs(function), Optional.empty(), Optional.empty(), 1.0);
+        this.pageBuilder = new PageBuilder(function.getParameterTypes());
     }
 
     @Override
     public void reset(WindowIndex windowIndex)
     {
         this.windowIndex = windowIndex;
+        this.segmentTreeCreated = false;
+        this.segmentTree = Optional.empty();
         resetAccumulator();
     }
 
@@ -65,6 +76,12 @@ public class AggregateWindowFunction
             accumulate(currentEnd + 1, frameEnd);
             currentEnd = frameEnd;
         }
+        else if (frameEnd - frameStart + 1 >= MIN_SEGMENT_TREE_FRAME_SIZE && getSegmentTree().isPresent()) {
+            // different frame, e.g. a sliding frame
+            accumulator = getSegmentTree().get().createAccumulator(frameStart, frameEnd);
+            currentStart = frameStart;
+            currentEnd = frameEnd;
+        }
         else {
             // different frame
             resetAccumulator();
@@ -76,10 +93,28 @@ public class AggregateWindowFunction
         accumulator.evaluateFinal(output);
     }
 
+    @Override
+    public long getEstimatedSizeInBytes()
+    {
+        return segmentTree.map(AggregationSegmentTree::getRetainedSizeInBytes).orElse(0L);
+    }
+
+    private Optional<AggregationSegmentTree> getSegmentTree()
+    {
+        if (!segmentTreeCreated) {
+            segmentTreeCreated = true;
+            // the tree combines intermediate states, which requires a decomposable function
+            if (function.isDecomposable()) {
+                segmentTree = AggregationSegmentTree.create(accumulatorFactory, function.getIntermediateType(), function.getParameterTypes(), argumentChannels, windowIndex);
+            }
+        }
+        return segmentTree;
+    }
+
     private void accumulate(int start, int end)
     {
         // TODO: add Accumulator method that does not require creating pages
-        PageBuilder pageBuilder = new PageBuilder(function.getParameterTypes());
+        pageBuilder.reset();
         for (int position = start; position <= end; position++) {
             for (int i = 0; i < function.getParameterTypes().size(); i++) {
                 windowIndex.appendTo(argumentChannels[i], position, pageBuilder.getBlockBuilder(i));
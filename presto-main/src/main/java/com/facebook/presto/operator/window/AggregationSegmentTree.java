@@ -0,0 +1,167 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator.window;
+
+import com.facebook.presto.operator.aggregation.Accumulator;
+import com.facebook.presto.operator.aggregation.AccumulatorFactory;
+import com.facebook.presto.spi.Page;
+import com.facebook.presto.spi.PageBuilder;
+import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.block.BlockBuilder;
+import com.facebook.presto.spi.block.BlockBuilderStatus;
+import com.facebook.presto.spi.type.Type;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static com.google.common.base.Preconditions.checkPositionIndexes;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Intermediate aggregation states of a window partition arranged as a segment tree,
+ * so the aggregate of any frame can be computed by combining O(log n) states.
+ * Level 0 holds the state of each row, and each state of a higher level combines
+ * two adjacent states of the level below.
+ */
+final class AggregationSegmentTree
+{
+    private static final int LEAF_BATCH_SIZE = 1024;
+
+    // the levels above the rows may use at most this multiple of the memory of the row level
+    private static final int MAX_TREE_SIZE_FACTOR = 2;
+
+    private final AccumulatorFactory accumulatorFactory;
+    private final List<Block> levels;
+
+    private AggregationSegmentTree(AccumulatorFactory accumulatorFactory, List<Block> levels)
+    {
+        this.accumulatorFactory = requireNonNull(accumulatorFactory, "accumulatorFactory is null");
+        this.levels = requireNonNull(levels, "levels is null");
+    }
+
+    /**
+     * Builds the tree for all rows of the window index. Returns empty if the states
+     * do not get smaller when combined (e.g. array_agg), since the tree would then
+     * use much more memory than the partition itself.
+     */
+    public static Optional<AggregationSegmentTree> create(
+            AccumulatorFactory accumulatorFactory,
+            Type intermediateType,
+            List<Type> argumentTypes,
+            int[] argumentChannels,
+            WindowIndex windowIndex)
+    {
+        List<Block> levels = new ArrayList<>();
+        Block rows = createRowStates(accumulatorFactory, intermediateType, argumentTypes, argumentChannels, windowIndex);
+        levels.add(rows);
+
+        long maxTreeSize = (long) rows.getSizeInBytes() * MAX_TREE_SIZE_FACTOR;
+        long treeSize = 0;
+        Block level = rows;
+        while (level.getPositionCount() > 1) {
+            int parentCount = (level.getPositionCount() + 1) / 2;
+            BlockBuilder parents = intermediateType.createBlockBuilder(new BlockBuilderStatus(), parentCount);
+            for (int parent = 0; parent < parentCount; parent++) {
+                int childOffset = parent * 2;
+                Accumulator accumulator = accumulatorFactory.createAccumulator();
+                accumulator.addIntermediate(level.getRegion(childOffset, Math.min(2, level.getPositionCount() - childOffset)));
+                accumulator.evaluateIntermediate(parents);
+            }
+            level = parents.build();
+            levels.add(level);
+
+            treeSize += level.getSizeInBytes();
+            if (treeSize > maxTreeSize) {
+                return Optional.empty();
+            }
+        }
+        return Optional.of(new AggregationSegmentTree(accumulatorFactory, levels));
+    }
+
+    private static Block createRowStates(
+            AccumulatorFactory accumulatorFactory,
+            Type intermediateType,
+            List<Type> argumentTypes,
+            int[] argumentChannels,
+            WindowIndex windowIndex)
+    {
+        BlockBuilder states = intermediateType.createBlockBuilder(new BlockBuilderStatus(), windowIndex.size());
+        PageBuilder pageBuilder = new PageBuilder(argumentTypes);
+        for (int batchStart = 0; batchStart < windowIndex.size(); batchStart += LEAF_BATCH_SIZE) {
+            int batchEnd = Math.min(batchStart + LEAF_BATCH_SIZE, windowIndex.size());
+            pageBuilder.reset();
+            for (int position = batchStart; position < batchEnd; position++) {
+                for (int i = 0; i < argumentChannels.length; i++) {
+                    windowIndex.appendTo(argumentChannels[i], position, pageBuilder.getBlockBuilder(i));
+                }
+                pageBuilder.declarePosition();
+            }
+
+            Page page = pageBuilder.build();
+            for (int position = 0; position < page.getPositionCount(); position++) {
+                Accumulator accumulator = accumulatorFactory.createAccumulator();
+                accumulator.addInput(page.getRegion(position, 1));
+                accumulator.evaluateIntermediate(states);
+            }
+        }
+        return states.build();
+    }
+
+    public long getRetainedSizeInBytes()
+    {
+        long size = 0;
+        for (Block level : levels) {
+            size += level.getRetainedSizeInBytes();
+        }
+        return size;
+    }
+
+    /**
+     * Creates an accumulator holding the aggregate of the rows from start to end, inclusive.
+     */
+    public Accumulator createAccumulator(int start, int end)
+    {
+        checkPositionIndexes(start, end + 1, levels.get(0).getPositionCount());
+
+        // the states are combined from left to right, so functions that depend
+        // on the order of their input (e.g. array_agg) produce the same result
+        List<Block> leftStates = new ArrayList<>();
+        List<Block> rightStates = new ArrayList<>();
+        int low = start;
+        int high = end + 1;
+        for (int level = 0; low < high; level++) {
+            Block states = levels.get(level);
+            if ((low & 1) == 1) {
+                leftStates.add(states.getRegion(low, 1));
+                low++;
+            }
+            if ((high & 1) == 1) {
+                high--;
+                rightStates.add(states.getRegion(high, 1));
+            }
+            low >>= 1;
+            high >>= 1;
+        }
+
+        Accumulator accumulator = accumulatorFactory.createAccumulator();
+        for (Block state : leftStates) {
+            accumulator.addIntermediate(state);
+        }
+        for (int i = rightStates.size() - 1; i >= 0; i--) {
+            accumulator.addIntermediate(rightStates.get(i));
+        }
+        return accumulator;
+    }
+}
@@ -39,4 +39,13 @@ public interface WindowFunction
      * @param frameEnd the position of the last row in the window frame
      */
     void processRow(BlockBuilder output, int peerGroupStart, int peerGroupEnd, int frameStart, int frameEnd);
+
+    /**
+     * Returns the memory held by the function for the current partition, in addition
+     * to the window index. This memory is accounted by the window operator.
+     */
+    default long getEstimatedSizeInBytes()
+    {
+        return 0;
+    }
 }
@@ -79,6 +79,15 @@ public final class WindowPartition
         return partitionEnd;
     }
 
+    public long getEstimatedSizeInBytes()
+    {
+        long size = 0;
+        for (WindowFunction windowFunction : windowFunctions) {
+            size += windowFunction.getEstimatedSizeInBytes();
+        }
+        return size;
+    }
+
     public boolean hasNext()
     {
         return currentPosition < partitionEnd;
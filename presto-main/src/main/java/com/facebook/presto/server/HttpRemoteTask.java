@@ -29,6 +29,7 @@ import com.facebook.presto.execution.StateMachine.StateChangeListener;
 import com.facebook.presto.execution.TaskId;
 import com.facebook.presto.execution.TaskInfo;
 import com.facebook.presto.execution.TaskState;
+import com.facebook.presto.execution.TaskStatus;
 import com.facebook.presto.metadata.Split;
 import com.facebook.presto.operator.TaskStats;
 import com.facebook.presto.spi.PrestoException;
@@ -137,15 +138,20 @@ public class HttpRemoteTask
     @GuardedBy("this")
     private final AtomicReference<OutputBuffers> outputBuffers = new AtomicReference<>();
 
-    private final ContinuousTaskInfoFetcher continuousTaskInfoFetcher;
+    // the status is polled often for scheduling, while the full task info is only fetched when it is needed
+    private final StateMachine<TaskStatus> taskStatus;
+    private final ContinuousTaskStatusFetcher continuousTaskStatusFetcher;
+    private final TaskInfoFetcher taskInfoFetcher;
 
     private final HttpClient httpClient;
     private final Executor executor;
     private final ScheduledExecutorService errorScheduledExecutor;
+    private final JsonCodec<TaskStatus> taskStatusCodec;
     private final JsonCodec<TaskInfo> taskInfoCodec;
     private final JsonCodec<TaskUpdateRequest> taskUpdateRequestCodec;
 
     private final RequestErrorTracker updateErrorTracker;
+    private final RequestErrorTracker getStatusErrorTracker;
     private final RequestErrorTracker getErrorTracker;
 
     private final AtomicBoolean needsUpdate = new AtomicBoolean(true);
@@ -162,6 +168,8 @@ public class HttpRemoteTask
             ScheduledExecutorService errorScheduledExecutor,
             Duration minErrorDuration,
             Duration refreshMaxWait,
+            Duration infoUpdateInterval,
+            JsonCodec<TaskStatus> taskStatusCodec,
             JsonCodec<TaskInfo> taskInfoCodec,
             JsonCodec<TaskUpdateRequest> taskUpdateRequestCodec)
     {
@@ -173,6 +181,7 @@ public class HttpRemoteTask
         requireNonNull(outputBuffers, "outputBuffers is null");
         requireNonNull(httpClient, "httpClient is null");
         requireNonNull(executor, "executor is null");
+        requireNonNull(taskStatusCodec, "taskStatusCodec is null");
         requireNonNull(taskInfoCodec, "taskInfoCodec is null");
         requireNonNull(taskUpdateRequestCodec, "taskUpdateRequestCodec is null");
 
@@ -185,9 +194,11 @@ public class HttpRemoteTask
             this.httpClient = httpClient;
             this.executor = executor;
             this.errorScheduledExecutor = errorScheduledExecutor;
+            this.taskStatusCodec = taskStatusCodec;
             this.taskInfoCodec = taskInfoCodec;
             this.taskUpdateRequestCodec = taskUpdateRequestCodec;
             this.updateErrorTracker = new RequestErrorTracker(taskId, location, minErrorDuration, errorScheduledExecutor, "updating task");
+            this.getStatusErrorTracker = new RequestErrorTracker(taskId, location, minErrorDuration, errorScheduledExecutor, "getting status for task");
             this.getErrorTracker = new RequestErrorTracker(taskId, location, minErrorDuration, errorScheduledExecutor, "getting info for task");
 
             for (Entry<PlanNodeId, Split> entry : requireNonNull(initialSplits, "initialSplits is null").entries()) {
@@ -217,7 +228,10 @@ public class HttpRemoteTask
                     taskStats,
                     ImmutableList.<ExecutionFailureInfo>of()));
 
-            continuousTaskInfoFetcher = new ContinuousTaskInfoFetcher(refreshMaxWait);
+            taskStatus = new StateMachine<>("task status " + taskId, executor, TaskStatus.fromTaskInfo(taskInfo.get()));
+
+            continuousTaskStatusFetcher = new ContinuousTaskStatusFetcher(refreshMaxWait);
+            taskInfoFetcher = new TaskInfoFetcher(infoUpdateInterval);
         }
     }
 
@@ -236,9 +250,17 @@ public class HttpRemoteTask
     @Override
     public TaskInfo getTaskInfo()
     {
+        // the statistics are only fetched when they are asked for, so refresh them if they are old
+        taskInfoFetcher.refreshIfStale();
         return taskInfo.get();
     }
 
+    @Override
+    public TaskStatus getTaskStatus()
+    {
+        return taskStatus.get();
+    }
+
     @Override
     public void start()
     {
@@ -246,8 +268,9 @@ public class HttpRemoteTask
             // to start we just need to trigger an update
             scheduleUpdate();
 
-            // begin the info fetcher
-            continuousTaskInfoFetcher.start();
+            // begin the status fetcher and allow the info to be fetched
+            continuousTaskStatusFetcher.start();
+            taskInfoFetcher.start();
         }
     }
 
@@ -260,7 +283,7 @@ public class HttpRemoteTask
             checkState(!noMoreSplits.contains(sourceId), "noMoreSplits has already been set for %s", sourceId);
 
             // only add pending split if not done
-            if (!getTaskInfo().getState().isDone()) {
+            if (!taskInfo.get().getState().isDone()) {
                 int added = 0;
                 for (Split split : splits) {
                     if (pendingSplits.put(sourceId, new ScheduledSplit(nextSplitId.getAndIncrement(), split))) {
@@ -289,7 +312,7 @@ public class HttpRemoteTask
     @Override
     public synchronized void setOutputBuffers(OutputBuffers newOutputBuffers)
     {
-        if (getTaskInfo().getState().isDone()) {
+        if (taskInfo.get().getState().isDone()) {
             return;
         }
 
@@ -304,14 +327,15 @@ public class HttpRemoteTask
     public int getPartitionedSplitCount()
     {
         int splitCount = pendingSourceSplitCount;
-        return splitCount + taskInfo.get().getStats().getQueuedPartitionedDrivers() + taskInfo.get().getStats().getRunningPartitionedDrivers();
+        TaskStatus taskStatus = this.taskStatus.get();
+        return splitCount + taskStatus.getQueuedPartitionedDrivers() + taskStatus.getRunningPartitionedDrivers();
     }
 
     @Override
     public int getQueuedPartitionedSplitCount()
     {
         int splitCount = pendingSourceSplitCount;
-        return splitCount + taskInfo.get().getStats().getQueuedPartitionedDrivers();
+        return splitCount + taskStatus.get().getQueuedPartitionedDrivers();
     }
 
     @Override
@@ -323,9 +347,9 @@ public class HttpRemoteTask
     }
 
     @Override
-    public CompletableFuture<TaskInfo> getStateChange(TaskInfo taskInfo)
+    public CompletableFuture<TaskStatus> getStateChange(TaskStatus taskStatus)
     {
-        return this.taskInfo.getStateChange(taskInfo);
+        return this.taskStatus.getStateChange(taskStatus);
     }
 
     private synchronized void updateTaskInfo(TaskInfo newValue)
@@ -333,6 +357,40 @@ public class HttpRemoteTask
         updateTaskInfo(newValue, ImmutableList.of());
     }
 
+    private synchronized void updateTaskStatus(TaskStatus newValue, List<TaskSource> sources)
+    {
+        TaskInfo currentValue = taskInfo.get();
+        boolean workerRestarted = currentValue.getNodeInstanceId().isPresent() && !currentValue.getNodeInstanceId().equals(newValue.getNodeInstanceId());
+        boolean done = newValue.getState().isDone();
+        if (!workerRestarted && (done || newValue.getState() == currentValue.getState())) {
+            // a finished task is only published with its final task info, so the final statistics are not lost
+            setTaskStatus(newValue);
+            acknowledgeSources(sources);
+            if (done) {
+                taskInfoFetcher.fetchFinalTaskInfo();
+            }
+            return;
+        }
+
+        updateTaskInfo(new TaskInfo(
+                currentValue.getTaskId(),
+                newValue.getNodeInstanceId(),
+                done ? currentValue.getVersion() : newValue.getVersion(),
+                done ? currentValue.getState() : newValue.getState(),
+                newValue.getSelf(),
+                currentValue.getLastHeartbeat(),
+                currentValue.getOutputBuffers(),
+                currentValue.getNoMoreSplits(),
+                currentValue.getStats(),
+                done ? currentValue.getFailures() : newValue.getFailures()), sources);
+        setTaskStatus(newValue);
+    }
+
+    private synchronized void setTaskStatus(TaskStatus newValue)
+    {
+        taskStatus.setIf(newValue, oldValue -> newValue.getVersion() >= oldValue.getVersion());
+    }
+
     private synchronized void updateTaskInfo(TaskInfo newValue, List<TaskSource> sources)
     {
         if (newValue.getState().isDone()) {
@@ -367,6 +425,12 @@ public class HttpRemoteTask
             abort();
         }
 
+        setTaskStatus(TaskStatus.fromTaskInfo(taskInfo.get()));
+        acknowledgeSources(sources);
+    }
+
+    private synchronized void acknowledgeSources(List<TaskSource> sources)
+    {
         // remove acknowledged splits, which frees memory
         for (TaskSource source : sources) {
             PlanNodeId planNodeId = source.getPlanNodeId();
@@ -416,14 +480,14 @@ public class HttpRemoteTask
                 outputBuffers.get());
 
         Request request = preparePost()
-                .setUri(uriBuilderFrom(taskInfo.get().getSelf()).addParameter("summarize").build())
+                .setUri(taskInfo.get().getSelf())
                 .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.JSON_UTF_8.toString())
                 .setBodyGenerator(jsonBodyGenerator(taskUpdateRequestCodec, updateRequest))
                 .build();
 
         updateErrorTracker.startRequest();
 
-        ListenableFuture<JsonResponse<TaskInfo>> future = httpClient.executeAsync(request, createFullJsonResponseHandler(taskInfoCodec));
+        ListenableFuture<JsonResponse<TaskStatus>> future = httpClient.executeAsync(request, createFullJsonResponseHandler(taskStatusCodec));
         currentRequest = future;
         currentRequestStartNanos = System.nanoTime();
 
@@ -459,11 +523,12 @@ public class HttpRemoteTask
     public synchronized void cancel()
     {
         try (SetThreadName ignored = new SetThreadName("HttpRemoteTask-%s", taskId)) {
-            if (getTaskInfo().getState().isDone()) {
+            TaskInfo taskInfo = this.taskInfo.get();
+            if (taskInfo.getState().isDone()) {
                 return;
             }
 
-            URI uri = getTaskInfo().getSelf();
+            URI uri = taskInfo.getSelf();
             if (uri == null) {
                 return;
             }
@@ -492,7 +557,7 @@ public class HttpRemoteTask
             }
 
             // mark task as canceled (if not already done)
-            TaskInfo taskInfo = getTaskInfo();
+            TaskInfo taskInfo = this.taskInfo.get();
             URI uri = taskInfo.getSelf();
 
             updateTaskInfo(new TaskInfo(taskInfo.getTaskId(),
@@ -555,7 +620,7 @@ public class HttpRemoteTask
      */
     private void failTask(Throwable cause)
     {
-        TaskInfo taskInfo = getTaskInfo();
+        TaskInfo taskInfo = this.taskInfo.get();
         if (!taskInfo.getState().isDone()) {
             log.debug(cause, "Remote task failed: %s", taskInfo.getSelf());
         }
@@ -575,12 +640,12 @@ public class HttpRemoteTask
     public String toString()
     {
         return toStringHelper(this)
-                .addValue(getTaskInfo())
+                .addValue(taskInfo.get())
                 .toString();
     }
 
     private class UpdateResponseHandler
-            implements SimpleHttpResponseCallback<TaskInfo>
+            implements SimpleHttpResponseCallback<TaskStatus>
     {
         private final List<TaskSource> sources;
 
@@ -590,14 +655,14 @@ public class HttpRemoteTask
         }
 
         @Override
-        public void success(TaskInfo value)
+        public void success(TaskStatus value)
         {
             try (SetThreadName ignored = new SetThreadName("UpdateResponseHandler-%s", taskId)) {
                 try {
                     synchronized (HttpRemoteTask.this) {
                         currentRequest = null;
                     }
-                    updateTaskInfo(value, sources);
+                    updateTaskStatus(value, sources);
                     updateErrorTracker.requestSucceeded();
                 }
                 finally {
@@ -619,7 +684,7 @@ public class HttpRemoteTask
                     needsUpdate.set(true);
 
                     // if task not already done, record error
-                    TaskInfo taskInfo = getTaskInfo();
+                    TaskInfo taskInfo = HttpRemoteTask.this.taskInfo.get();
                     if (!taskInfo.getState().isDone()) {
                         updateErrorTracker.requestFailed(cause);
                     }
@@ -649,12 +714,12 @@ public class HttpRemoteTask
     }
 
     /**
-     * Continuous update loop for task info.  Wait for a short period for task state to change, and
-     * if it does not, return the current state of the task.  This will cause stats to be updated at a
-     * regular interval, and state changes will be immediately recorded.
+     * Continuous update loop for task status.  Wait for a short period for task state to change, and
+     * if it does not, return the current status of the task.  This keeps the split counts used for
+     * scheduling current, and state changes will be immediately recorded.
      */
-    private class ContinuousTaskInfoFetcher
-            implements SimpleHttpResponseCallback<TaskInfo>
+    private class ContinuousTaskStatusFetcher
+            implements SimpleHttpResponseCallback<TaskStatus>
     {
         private final Duration refreshMaxWait;
 
@@ -662,9 +727,9 @@ public class HttpRemoteTask
         private boolean running;
 
         @GuardedBy("this")
-        private ListenableFuture<JsonResponse<TaskInfo>> future;
+        private ListenableFuture<JsonResponse<TaskStatus>> future;
 
-        public ContinuousTaskInfoFetcher(Duration refreshMaxWait)
+        public ContinuousTaskStatusFetcher(Duration refreshMaxWait)
         {
             this.refreshMaxWait = refreshMaxWait;
         }
@@ -679,16 +744,149 @@ public class HttpRemoteTask
             scheduleNextRequest();
         }
 
-        public synchronized void stop()
+        private synchronized void scheduleNextRequest()
         {
-            running = false;
-            if (future != null) {
-                future.cancel(true);
-                future = null;
+            // stopped or done? the final task info is fetched by the info fetcher
+            TaskStatus taskStatus = HttpRemoteTask.this.taskStatus.get();
+            if (!running || taskStatus.getState().isDone() || taskInfo.get().getState().isDone()) {
+                return;
             }
+
+            // outstanding request?
+            if (future != null && !future.isDone()) {
+                // this should never happen
+                log.error("Can not reschedule status update because an update is already running");
+                return;
+            }
+
+            // if throttled due to error, asynchronously wait for timeout and try again
+            ListenableFuture<?> errorRateLimit = getStatusErrorTracker.acquireRequestPermit();
+            if (!errorRateLimit.isDone()) {
+                errorRateLimit.addListener(this::scheduleNextRequest, executor);
+                return;
+            }
+
+            Request request = prepareGet()
+                    .setUri(uriBuilderFrom(taskStatus.getSelf()).appendPath("status").build())
+                    .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.JSON_UTF_8.toString())
+                    .setHeader(PrestoHeaders.PRESTO_CURRENT_STATE, taskStatus.getState().toString())
+                    .setHeader(PrestoHeaders.PRESTO_MAX_WAIT, refreshMaxWait.toString())
+                    .build();
+
+            getStatusErrorTracker.startRequest();
+
+            future = httpClient.executeAsync(request, createFullJsonResponseHandler(taskStatusCodec));
+            Futures.addCallback(future, new SimpleHttpResponseHandler<>(this, request.getUri()), executor);
         }
 
-        private synchronized void scheduleNextRequest()
+        @Override
+        public void success(TaskStatus value)
+        {
+            try (SetThreadName ignored = new SetThreadName("ContinuousTaskStatusFetcher-%s", taskId)) {
+                synchronized (this) {
+                    future = null;
+                }
+
+                try {
+                    updateTaskStatus(value, ImmutableList.of());
+                    getStatusErrorTracker.requestSucceeded();
+                }
+                finally {
+                    scheduleNextRequest();
+                }
+            }
+        }
+
+        @Override
+        public void failed(Throwable cause)
+        {
+            try (SetThreadName ignored = new SetThreadName("ContinuousTaskStatusFetcher-%s", taskId)) {
+                synchronized (this) {
+                    future = null;
+                }
+
+                try {
+                    // if task not already done, record error
+                    if (!taskInfo.get().getState().isDone()) {
+                        getStatusErrorTracker.requestFailed(cause);
+                    }
+                }
+                catch (Error e) {
+                    failTask(e);
+                    abort();
+                    throw e;
+                }
+                catch (RuntimeException e) {
+                    failTask(e);
+                    abort();
+                }
+                finally {
+                    scheduleNextRequest();
+                }
+            }
+        }
+
+        @Override
+        public void fatal(Throwable cause)
+        {
+            try (SetThreadName ignored = new SetThreadName("ContinuousTaskStatusFetcher-%s", taskId)) {
+                synchronized (this) {
+                    future = null;
+                }
+
+                failTask(cause);
+            }
+        }
+    }
+
+    /**
+     * Fetches the full task info, including the statistics, without waiting for the task state to
+     * change.  The info is fetched when it is asked for and the last fetch is older than the update
+     * interval, and once more when the status reports the task as done, so the final statistics of
+     * the task are kept.
+     */
+    private class TaskInfoFetcher
+            implements SimpleHttpResponseCallback<TaskInfo>
+    {
+        private final Duration updateInterval;
+
+        @GuardedBy("this")
+        private boolean running;
+
+        @GuardedBy("this")
+        private boolean finalTaskInfoRequested;
+
+        @GuardedBy("this")
+        private long lastRequestNanos;
+
+        @GuardedBy("this")
+        private ListenableFuture<JsonResponse<TaskInfo>> future;
+
+        public TaskInfoFetcher(Duration updateInterval)
+        {
+            this.updateInterval = updateInterval;
+        }
+
+        public synchronized void start()
+        {
+            running = true;
+        }
+
+        public synchronized void refreshIfStale()
+        {
+            if (lastRequestNanos != 0 && Duration.nanosSince(lastRequestNanos).compareTo(updateInterval) < 0) {
+                return;
+            }
+            sendNextRequest();
+        }
+
+        public synchronized void fetchFinalTaskInfo()
+        {
+            finalTaskInfoRequested = true;
+            sendNextRequest();
+        }
+
+        private synchronized void sendNextRequest()
         {
             // stopped or done?
             TaskInfo taskInfo = HttpRemoteTask.this.taskInfo.get();
@@ -698,35 +896,40 @@ public class HttpRemoteTask
 
             // outstanding request?
             if (future != null && !future.isDone()) {
-                // this should never happen
-                log.error("Can not reschedule update because an update is already running");
                 return;
             }
 
             // if throttled due to error, asynchronously wait for timeout and try again
             ListenableFuture<?> errorRateLimit = getErrorTracker.acquireRequestPermit();
             if (!errorRateLimit.isDone()) {
-                errorRateLimit.addListener(this::scheduleNextRequest, executor);
+                errorRateLimit.addListener(this::sendNextRequest, executor);
                 return;
             }
 
             Request request = prepareGet()
                     .setUri(uriBuilderFrom(taskInfo.getSelf()).addParameter("summarize").build())
                     .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.JSON_UTF_8.toString())
-                    .setHeader(PrestoHeaders.PRESTO_CURRENT_STATE, taskInfo.getState().toString())
-                    .setHeader(PrestoHeaders.PRESTO_MAX_WAIT, refreshMaxWait.toString())
                     .build();
 
+            lastRequestNanos = System.nanoTime();
             getErrorTracker.startRequest();
 
             future = httpClient.executeAsync(request, createFullJsonResponseHandler(taskInfoCodec));
             Futures.addCallback(future, new SimpleHttpResponseHandler<>(this, request.getUri()), executor);
         }
 
+        private synchronized void retryFinalTaskInfo()
+        {
+            // the task finished, but the info does not show it yet, so fetch it again
+            if (finalTaskInfoRequested) {
+                sendNextRequest();
+            }
+        }
+
         @Override
         public void success(TaskInfo value)
         {
-            try (SetThreadName ignored = new SetThreadName("ContinuousTaskInfoFetcher-%s", taskId)) {
+            try (SetThreadName ignored = new SetThreadName("TaskInfoFetcher-%s", taskId)) {
                 synchronized (this) {
                     future = null;
                 }
@@ -736,7 +939,7 @@ public class HttpRemoteTask
                     getErrorTracker.requestSucceeded();
                 }
                 finally {
-                    scheduleNextRequest();
+                    retryFinalTaskInfo();
                 }
             }
         }
@@ -744,14 +947,14 @@ public class HttpRemoteTask
         @Override
         public void failed(Throwable cause)
         {
-            try (SetThreadName ignored = new SetThreadName("ContinuousTaskInfoFetcher-%s", taskId)) {
+            try (SetThreadName ignored = new SetThreadName("TaskInfoFetcher-%s", taskId)) {
                 synchronized (this) {
                     future = null;
                 }
 
                 try {
                     // if task not already done, record error
-                    TaskInfo taskInfo = getTaskInfo();
+                    TaskInfo taskInfo = HttpRemoteTask.this.taskInfo.get();
                     if (!taskInfo.getState().isDone()) {
                         getErrorTracker.requestFailed(cause);
                     }
@@ -766,9 +969,7 @@ public class HttpRemoteTask
                     abort();
                 }
                 finally {
-                    // there is no back off here so we can get a lot of error messages when a server spins
-                    // down, but it typically goes away quickly because the queries get canceled
-                    scheduleNextRequest();
+                    retryFinalTaskInfo();
                 }
             }
         }
@@ -776,7 +977,7 @@ public class HttpRemoteTask
         @Override
         public void fatal(Throwable cause)
         {
-            try (SetThreadName ignored = new SetThreadName("ContinuousTaskInfoFetcher-%s", taskId)) {
+            try (SetThreadName ignored = new SetThreadName("TaskInfoFetcher-%s", taskId)) {
                 synchronized (this) {
                     future = null;
                 }
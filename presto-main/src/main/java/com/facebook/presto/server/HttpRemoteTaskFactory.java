@@ -22,6 +22,7 @@ import com.facebook.presto.execution.RemoteTaskFactory;
 import com.facebook.presto.execution.TaskId;
 import com.facebook.presto.execution.TaskInfo;
 import com.facebook.presto.execution.TaskManagerConfig;
+import com.facebook.presto.execution.TaskStatus;
 import com.facebook.presto.metadata.Split;
 import com.facebook.presto.operator.ForScheduler;
 import com.facebook.presto.spi.Node;
@@ -52,10 +53,12 @@ public class HttpRemoteTaskFactory
 {
     private final HttpClient httpClient;
     private final LocationFactory locationFactory;
+    private final JsonCodec<TaskStatus> taskStatusCodec;
     private final JsonCodec<TaskInfo> taskInfoCodec;
     private final JsonCodec<TaskUpdateRequest> taskUpdateRequestCodec;
     private final Duration minErrorDuration;
     private final Duration taskInfoRefreshMaxWait;
+    private final Duration taskInfoUpdateInterval;
     private final ExecutorService executor;
     private final ThreadPoolExecutorMBean executorMBean;
     private final ScheduledExecutorService errorScheduledExecutor;
@@ -65,15 +68,18 @@ public class HttpRemoteTaskFactory
             TaskManagerConfig taskConfig,
             @ForScheduler HttpClient httpClient,
             LocationFactory locationFactory,
+            JsonCodec<TaskStatus> taskStatusCodec,
             JsonCodec<TaskInfo> taskInfoCodec,
             JsonCodec<TaskUpdateRequest> taskUpdateRequestCodec)
     {
         this.httpClient = httpClient;
         this.locationFactory = locationFactory;
+        this.taskStatusCodec = taskStatusCodec;
         this.taskInfoCodec = taskInfoCodec;
         this.taskUpdateRequestCodec = taskUpdateRequestCodec;
         this.minErrorDuration = config.getRemoteTaskMinErrorDuration();
         this.taskInfoRefreshMaxWait = taskConfig.getInfoRefreshMaxWait();
+        this.taskInfoUpdateInterval = taskConfig.getInfoUpdateInterval();
         ExecutorService coreExecutor = newCachedThreadPool(daemonThreadsNamed("remote-task-callback-%s"));
         this.executor = ExecutorServiceAdapter.from(new BoundedExecutor(coreExecutor, config.getRemoteTaskMaxCallbackThreads()));
         this.executorMBean = new ThreadPoolExecutorMBean((ThreadPoolExecutor) coreExecutor);
@@ -108,6 +114,8 @@ public class HttpRemoteTaskFactory
                 errorScheduledExecutor,
                 minErrorDuration,
                 taskInfoRefreshMaxWait,
+                taskInfoUpdateInterval,
+                taskStatusCodec,
                 taskInfoCodec,
                 taskUpdateRequestCodec
         );
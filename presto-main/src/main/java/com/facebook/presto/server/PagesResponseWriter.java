@@ -13,6 +13,7 @@
  */
 package com.facebook.presto.server;
 
+import com.facebook.presto.block.PageCompression;
 import com.facebook.presto.block.PagesSerde;
 import com.facebook.presto.spi.Page;
 import com.facebook.presto.spi.block.BlockEncodingSerde;
@@ -37,6 +38,8 @@ import java.lang.reflect.Type;
 import java.util.List;
 
 import static com.facebook.presto.PrestoMediaTypes.PRESTO_PAGES;
+import static com.facebook.presto.PrestoMediaTypes.PRESTO_PAGES_COMPRESSION;
+import static com.facebook.presto.block.PageCompression.NONE;
 
 @Provider
 @Produces(PRESTO_PAGES)
@@ -88,7 +91,14 @@ public class PagesResponseWriter
             throws IOException, WebApplicationException
     {
         try {
-            PagesSerde.writePages(blockEncodingSerde, new OutputStreamSliceOutput(output), pages);
+            // the compression requested by the client is passed in the media type of the response
+            PageCompression compression = PageCompression.fromCodecName(mediaType.getParameters().get(PRESTO_PAGES_COMPRESSION));
+            if (compression == NONE) {
+                PagesSerde.writePages(blockEncodingSerde, new OutputStreamSliceOutput(output), pages);
+            }
+            else {
+                PagesSerde.writeCompressedPages(blockEncodingSerde, new OutputStreamSliceOutput(output), compression, pages.iterator());
+            }
         }
         catch (RuntimeIOException e) {
             // EOF exception occurs when the client disconnects while writing data
@@ -14,6 +14,7 @@
 package com.facebook.presto.server;
 
 import com.facebook.presto.Session;
+import com.facebook.presto.client.BinaryResults;
 import com.facebook.presto.client.ClientTypeSignature;
 import com.facebook.presto.client.Column;
 import com.facebook.presto.client.FailureInfo;
@@ -25,6 +26,7 @@ import com.facebook.presto.execution.BufferInfo;
 import com.facebook.presto.execution.QueryId;
 import com.facebook.presto.execution.QueryInfo;
 import com.facebook.presto.execution.QueryManager;
+import com.facebook.presto.execution.QueryResultCache;
 import com.facebook.presto.execution.QueryState;
 import com.facebook.presto.execution.QueryStats;
 import com.facebook.presto.execution.SharedBufferInfo;
@@ -40,6 +42,7 @@ import com.facebook.presto.spi.ConnectorSession;
 import com.facebook.presto.spi.ErrorCode;
 import com.facebook.presto.spi.Page;
 import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.block.BlockEncodingSerde;
 import com.facebook.presto.spi.type.StandardTypes;
 import com.facebook.presto.spi.type.Type;
 import com.facebook.presto.spi.type.TypeSignature;
@@ -88,7 +91,9 @@ import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.atomic.AtomicLong;
 
+import static com.facebook.presto.client.BinaryResults.BINARY_RESULT_FORMAT;
 import static com.facebook.presto.client.PrestoHeaders.PRESTO_CLEAR_SESSION;
+import static com.facebook.presto.client.PrestoHeaders.PRESTO_RESULT_FORMAT;
 import static com.facebook.presto.client.PrestoHeaders.PRESTO_SET_SESSION;
 import static com.facebook.presto.server.ResourceUtil.assertRequest;
 import static com.facebook.presto.server.ResourceUtil.createSessionForRequest;
@@ -119,6 +124,8 @@ public class StatementResource
     private final AccessControl accessControl;
     private final SessionPropertyManager sessionPropertyManager;
     private final ExchangeClientSupplier exchangeClientSupplier;
+    private final BlockEncodingSerde blockEncodingSerde;
+    private final QueryResultCache queryResultCache;
 
     private final ConcurrentMap<QueryId, Query> queries = new ConcurrentHashMap<>();
     private final ScheduledExecutorService queryPurger = newSingleThreadScheduledExecutor(threadsNamed("query-purger"));
@@ -128,12 +135,16 @@ public class StatementResource
             QueryManager queryManager,
             AccessControl accessControl,
             SessionPropertyManager sessionPropertyManager,
-            ExchangeClientSupplier exchangeClientSupplier)
+            ExchangeClientSupplier exchangeClientSupplier,
+            BlockEncodingSerde blockEncodingSerde,
+            QueryResultCache queryResultCache)
     {
         this.queryManager = requireNonNull(queryManager, "queryManager is null");
         this.accessControl = requireNonNull(accessControl, "accessControl is null");
         this.sessionPropertyManager = requireNonNull(sessionPropertyManager, "sessionPropertyManager is null");
         this.exchangeClientSupplier = requireNonNull(exchangeClientSupplier, "exchangeClientSupplier is null");
+        this.blockEncodingSerde = requireNonNull(blockEncodingSerde, "blockEncodingSerde is null");
+        this.queryResultCache = requireNonNull(queryResultCache, "queryResultCache is null");
 
         queryPurger.scheduleWithFixedDelay(new PurgeQueriesRunnable(queries, queryManager), 200, 200, MILLISECONDS);
     }
@@ -157,7 +168,11 @@ public class StatementResource
         Session session = createSessionForRequest(servletRequest, accessControl, sessionPropertyManager);
 
         ExchangeClient exchangeClient = exchangeClientSupplier.get(deltaMemoryInBytes -> { });
-        Query query = new Query(session, statement, queryManager, exchangeClient);
+        Optional<BlockEncodingSerde> binaryResultsSerde = Optional.empty();
+        if (BINARY_RESULT_FORMAT.equalsIgnoreCase(servletRequest.getHeader(PRESTO_RESULT_FORMAT))) {
+            binaryResultsSerde = Optional.of(blockEncodingSerde);
+        }
+        Query query = new Query(session, statement, queryManager, exchangeClient, binaryResultsSerde, Optional.of(queryResultCache));
         queries.put(query.getQueryId(), query);
 
         return getQueryResults(query, Optional.empty(), uriInfo, new Duration(1, MILLISECONDS));
@@ -226,6 +241,8 @@ public class StatementResource
         private final QueryManager queryManager;
         private final QueryId queryId;
         private final ExchangeClient exchangeClient;
+        private final Optional<BlockEncodingSerde> binaryResultsSerde;
+        private final Optional<QueryResultCache> queryResultCache;
 
         private final AtomicLong resultId = new AtomicLong();
         private final Session session;
@@ -248,15 +265,46 @@ public class StatementResource
         @GuardedBy("this")
         private Long updateCount;
 
+        @GuardedBy("this")
+        private byte[] binaryData;
+
         public Query(Session session,
                 String query,
                 QueryManager queryManager,
                 ExchangeClient exchangeClient)
+        {
+            this(session, query, queryManager, exchangeClient, Optional.empty());
+        }
+
+        /**
+         * @param binaryResultsSerde if present, results are sent in the binary format of {@link BinaryResults} when all columns support it
+         */
+        public Query(Session session,
+                String query,
+                QueryManager queryManager,
+                ExchangeClient exchangeClient,
+                Optional<BlockEncodingSerde> binaryResultsSerde)
+        {
+            this(session, query, queryManager, exchangeClient, binaryResultsSerde, Optional.empty());
+        }
+
+        /**
+         * @param binaryResultsSerde if present, results are sent in the binary format of {@link BinaryResults} when all columns support it
+         * @param queryResultCache if present, the results sent to the client are offered to the cache
+         */
+        public Query(Session session,
+                String query,
+                QueryManager queryManager,
+                ExchangeClient exchangeClient,
+                Optional<BlockEncodingSerde> binaryResultsSerde,
+                Optional<QueryResultCache> queryResultCache)
         {
             requireNonNull(session, "session is null");
             requireNonNull(query, "query is null");
             requireNonNull(queryManager, "queryManager is null");
             requireNonNull(exchangeClient, "exchangeClient is null");
+            requireNonNull(binaryResultsSerde, "binaryResultsSerde is null");
+            requireNonNull(queryResultCache, "queryResultCache is null");
 
             this.session = session;
             this.queryManager = queryManager;
@@ -264,6 +312,8 @@ public class StatementResource
             QueryInfo queryInfo = queryManager.createQuery(session, query);
             queryId = queryInfo.getQueryId();
             this.exchangeClient = exchangeClient;
+            this.binaryResultsSerde = binaryResultsSerde;
+            this.queryResultCache = queryResultCache;
         }
 
         public void cancel()
@@ -275,6 +325,7 @@ public class StatementResource
         public void dispose()
         {
             exchangeClient.close();
+            queryResultCache.ifPresent(cache -> cache.abortResults(queryId));
         }
 
         public QueryId getQueryId()
@@ -320,6 +371,7 @@ public class StatementResource
         public synchronized QueryResults getNextResults(UriInfo uriInfo, Duration maxWaitTime)
                 throws InterruptedException
         {
+            binaryData = null;
             Iterable<List<Object>> data = getData(maxWaitTime);
 
             // get the query info before returning
@@ -347,6 +399,7 @@ public class StatementResource
             if (queryInfo.getState().isDone()) {
                 if (queryInfo.getState() != QueryState.FINISHED) {
                     exchangeClient.close();
+                    queryResultCache.ifPresent(cache -> cache.abortResults(queryId));
                 }
                 else if (queryInfo.getOutputStage() == null) {
                     // For simple executions (e.g. drop table), there will never be an output stage,
@@ -357,6 +410,10 @@ public class StatementResource
                     columns = ImmutableList.of(new Column("result", "boolean", new ClientTypeSignature(StandardTypes.BOOLEAN, ImmutableList.<ClientTypeSignature>of(), ImmutableList.of())));
                     data = ImmutableSet.<List<Object>>of(ImmutableList.<Object>of(true));
                 }
+                else if (exchangeClient.isClosed()) {
+                    // all results were sent to the client
+                    queryResultCache.ifPresent(cache -> cache.finishResults(queryId));
+                }
             }
 
             // only return a next if the query is not done or there is more data to send (due to buffering)
@@ -377,6 +434,7 @@ public class StatementResource
                     nextResultsUri,
                     columns,
                     data,
+                    binaryData,
                     toStatementStats(queryInfo),
                     toQueryError(queryInfo),
                     queryInfo.getUpdateType(),
@@ -417,7 +475,7 @@ public class StatementResource
 
             updateExchangeClient(queryInfo.getOutputStage());
 
-            ImmutableList.Builder<RowIterable> pages = ImmutableList.builder();
+            ImmutableList.Builder<Page> pages = ImmutableList.builder();
             // wait up to max wait for data to arrive; then try to return at least DESIRED_RESULT_BYTES
             long bytes = 0;
             while (bytes < DESIRED_RESULT_BYTES) {
@@ -426,7 +484,7 @@ public class StatementResource
                     break;
                 }
                 bytes += page.getSizeInBytes();
-                pages.add(new RowIterable(session.toConnectorSession(), types, page));
+                pages.add(page);
 
                 // only wait on first call
                 maxWait = new Duration(0, MILLISECONDS);
@@ -436,7 +494,26 @@ public class StatementResource
                 return null;
             }
 
-            return Iterables.concat(pages.build());
+            queryResultCache.ifPresent(cache -> cache.addResults(queryId, pages.build()));
+
+            // the update count of non-queries is read from the rows, so they are always sent as JSON
+            if (binaryResultsSerde.isPresent() && queryInfo.getUpdateType() == null && isBinaryResultsSupported(columns)) {
+                binaryData = BinaryResults.encode(binaryResultsSerde.get(), pages.build());
+                return null;
+            }
+
+            ImmutableList.Builder<RowIterable> rows = ImmutableList.builder();
+            for (Page page : pages.build()) {
+                rows.add(new RowIterable(session.toConnectorSession(), types, page));
+            }
+            return Iterables.concat(rows.build());
+        }
+
+        private static boolean isBinaryResultsSupported(List<Column> columns)
+        {
+            return columns.stream()
+                    .map(Column::getType)
+                    .allMatch(BinaryResults::isSupportedType);
         }
 
         private static boolean isQueryStarted(QueryInfo queryInfo)
@@ -14,14 +14,17 @@
 package com.facebook.presto.server;
 
 import com.facebook.presto.Session;
+import com.facebook.presto.block.PageCompression;
 import com.facebook.presto.execution.BufferResult;
 import com.facebook.presto.execution.TaskId;
 import com.facebook.presto.execution.TaskInfo;
 import com.facebook.presto.execution.TaskManager;
 import com.facebook.presto.execution.TaskState;
+import com.facebook.presto.execution.TaskStatus;
 import com.facebook.presto.metadata.SessionPropertyManager;
 import com.facebook.presto.spi.Page;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.reflect.TypeToken;
 import io.airlift.concurrent.BoundedExecutor;
 import io.airlift.units.DataSize;
@@ -43,6 +46,7 @@ import javax.ws.rs.container.AsyncResponse;
 import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.GenericEntity;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
@@ -54,6 +58,8 @@ import java.util.concurrent.Executor;
 import java.util.concurrent.ScheduledExecutorService;
 
 import static com.facebook.presto.PrestoMediaTypes.PRESTO_PAGES;
+import static com.facebook.presto.PrestoMediaTypes.PRESTO_PAGES_COMPRESSION;
+import static com.facebook.presto.block.PageCompression.NONE;
 import static com.facebook.presto.client.PrestoHeaders.PRESTO_BUFFER_COMPLETE;
 import static com.facebook.presto.client.PrestoHeaders.PRESTO_CURRENT_STATE;
 import static com.facebook.presto.client.PrestoHeaders.PRESTO_MAX_WAIT;
@@ -107,22 +113,19 @@ public class TaskResource
     @Path("{taskId}")
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
-    public Response createOrUpdateTask(@PathParam("taskId") TaskId taskId, TaskUpdateRequest taskUpdateRequest, @Context UriInfo uriInfo)
+    public Response createOrUpdateTask(@PathParam("taskId") TaskId taskId, TaskUpdateRequest taskUpdateRequest)
     {
         requireNonNull(taskUpdateRequest, "taskUpdateRequest is null");
 
         Session session = taskUpdateRequest.getSession().toSession(sessionPropertyManager);
-        TaskInfo taskInfo = taskManager.updateTask(session,
+        taskManager.updateTask(session,
                 taskId,
                 taskUpdateRequest.getFragment(),
                 taskUpdateRequest.getSources(),
                 taskUpdateRequest.getOutputIds());
 
-        if (shouldSummarize(uriInfo)) {
-            taskInfo = taskInfo.summarize();
-        }
-
-        return Response.ok().entity(taskInfo).build();
+        // the coordinator only fetches the full task info when it is needed
+        return Response.ok().entity(taskManager.getTaskStatus(taskId)).build();
     }
 
     @GET
@@ -161,6 +164,33 @@ public class TaskResource
                 .withTimeout(timeout);
     }
 
+    @GET
+    @Path("{taskId}/status")
+    @Produces(MediaType.APPLICATION_JSON)
+    public void getTaskStatus(@PathParam("taskId") TaskId taskId,
+            @HeaderParam(PRESTO_CURRENT_STATE) TaskState currentState,
+            @HeaderParam(PRESTO_MAX_WAIT) Duration maxWait,
+            @Suspended AsyncResponse asyncResponse)
+    {
+        requireNonNull(taskId, "taskId is null");
+
+        if (currentState == null || maxWait == null) {
+            asyncResponse.resume(taskManager.getTaskStatus(taskId));
+            return;
+        }
+
+        CompletableFuture<TaskStatus> futureTaskStatus = addTimeout(
+                taskManager.getTaskStatus(taskId, currentState),
+                () -> taskManager.getTaskStatus(taskId),
+                maxWait,
+                timeoutExecutor);
+
+        // For hard timeout, add an additional 5 seconds to max wait for thread scheduling contention and GC
+        Duration timeout = new Duration(maxWait.toMillis() + 5000, MILLISECONDS);
+        bindAsyncResponse(asyncResponse, futureTaskStatus, responseExecutor)
+                .withTimeout(timeout);
+    }
+
     @DELETE
     @Path("{taskId}")
     @Produces(MediaType.APPLICATION_JSON)
@@ -190,12 +220,15 @@ public class TaskResource
     public void getResults(@PathParam("taskId") TaskId taskId,
             @PathParam("outputId") TaskId outputId,
             @PathParam("token") final long token,
+            @Context HttpHeaders httpHeaders,
             @Suspended AsyncResponse asyncResponse)
             throws InterruptedException
     {
         requireNonNull(taskId, "taskId is null");
         requireNonNull(outputId, "outputId is null");
 
+        MediaType responseType = getPagesResponseType(httpHeaders);
+
         CompletableFuture<BufferResult> bufferResultFuture = taskManager.getTaskResults(taskId, outputId, token, DEFAULT_MAX_SIZE);
         bufferResultFuture = addTimeout(
                 bufferResultFuture,
@@ -218,6 +251,7 @@ public class TaskResource
 
             return Response.status(status)
                     .entity(entity)
+                    .type(responseType)
                     .header(PRESTO_PAGE_TOKEN, result.getToken())
                     .header(PRESTO_PAGE_NEXT_TOKEN, result.getNextToken())
                     .header(PRESTO_BUFFER_COMPLETE, result.isBufferComplete())
@@ -235,6 +269,23 @@ public class TaskResource
                                 .build());
     }
 
+    /**
+     * Pages are compressed if the client accepts them with a supported compression codec.
+     */
+    private static MediaType getPagesResponseType(HttpHeaders httpHeaders)
+    {
+        MediaType pagesType = MediaType.valueOf(PRESTO_PAGES);
+        for (MediaType acceptedType : httpHeaders.getAcceptableMediaTypes()) {
+            if (acceptedType.getType().equalsIgnoreCase(pagesType.getType()) && acceptedType.getSubtype().equalsIgnoreCase(pagesType.getSubtype())) {
+                PageCompression compression = PageCompression.fromCodecName(acceptedType.getParameters().get(PRESTO_PAGES_COMPRESSION));
+                if (compression != NONE) {
+                    return new MediaType(pagesType.getType(), pagesType.getSubtype(), ImmutableMap.of(PRESTO_PAGES_COMPRESSION, compression.getCodecName()));
+                }
+            }
+        }
+        return pagesType;
+    }
+
     @DELETE
     @Path("{taskId}/results/{outputId}")
     @Produces(MediaType.APPLICATION_JSON)
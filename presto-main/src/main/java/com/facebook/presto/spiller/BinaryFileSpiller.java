@@ -0,0 +1,145 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.spiller;
+
+import com.facebook.presto.spi.Page;
+import com.facebook.presto.spi.PrestoException;
+import com.facebook.presto.spi.block.BlockEncodingSerde;
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.Closer;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import io.airlift.slice.InputStreamSliceInput;
+import io.airlift.slice.OutputStreamSliceOutput;
+import io.airlift.slice.SliceOutput;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.facebook.presto.block.PagesSerde.readPages;
+import static com.facebook.presto.block.PagesSerde.writePages;
+import static com.facebook.presto.spi.StandardErrorCode.INTERNAL_ERROR;
+import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.util.concurrent.Futures.immediateFuture;
+import static java.util.Objects.requireNonNull;
+
+@NotThreadSafe
+public class BinaryFileSpiller
+        implements Spiller
+{
+    private final BlockEncodingSerde blockEncodingSerde;
+    private final ListeningExecutorService executor;
+    private final Path spillPath;
+
+    private final List<Path> spillFiles = new ArrayList<>();
+    private final AtomicLong spilledBytes = new AtomicLong();
+    private final Closer closer = Closer.create();
+
+    private ListenableFuture<?> spillInProgress = immediateFuture(null);
+    private boolean readingSpilledPages;
+
+    public BinaryFileSpiller(BlockEncodingSerde blockEncodingSerde, ListeningExecutorService executor, Path spillPath)
+    {
+        this.blockEncodingSerde = requireNonNull(blockEncodingSerde, "blockEncodingSerde is null");
+        this.executor = requireNonNull(executor, "executor is null");
+        this.spillPath = requireNonNull(spillPath, "spillPath is null");
+    }
+
+    @Override
+    public ListenableFuture<?> spill(Iterator<Page> pageIterator)
+    {
+        requireNonNull(pageIterator, "pageIterator is null");
+        checkState(spillInProgress.isDone(), "Previous spill is still in progress");
+        checkState(!readingSpilledPages, "Spilled pages are already being read");
+
+        Path file = createSpillFile();
+        spillFiles.add(file);
+        spillInProgress = executor.submit(() -> writeSpillFile(file, pageIterator));
+        return spillInProgress;
+    }
+
+    @Override
+    public List<Iterator<Page>> getSpills()
+    {
+        checkState(spillInProgress.isDone(), "Spill is still in progress");
+        readingSpilledPages = true;
+
+        ImmutableList.Builder<Iterator<Page>> spills = ImmutableList.builder();
+        try {
+            for (Path file : spillFiles) {
+                InputStreamSliceInput input = closer.register(new InputStreamSliceInput(new BufferedInputStream(Files.newInputStream(file))));
+                spills.add(readPages(blockEncodingSerde, input));
+            }
+        }
+        catch (IOException e) {
+            throw new PrestoException(INTERNAL_ERROR, "Failed to read spilled pages", e);
+        }
+        return spills.build();
+    }
+
+    @Override
+    public long getSpilledBytes()
+    {
+        return spilledBytes.get();
+    }
+
+    @Override
+    public void close()
+    {
+        spillInProgress.cancel(true);
+        try {
+            closer.close();
+            for (Path file : spillFiles) {
+                Files.deleteIfExists(file);
+            }
+        }
+        catch (IOException e) {
+            throw new PrestoException(INTERNAL_ERROR, "Failed to delete spill files", e);
+        }
+    }
+
+    private Path createSpillFile()
+    {
+        try {
+            Files.createDirectories(spillPath);
+            return Files.createTempFile(spillPath, "spill-", ".bin");
+        }
+        catch (IOException e) {
+            throw new PrestoException(INTERNAL_ERROR, "Failed to create spill file", e);
+        }
+    }
+
+    private void writeSpillFile(Path file, Iterator<Page> pageIterator)
+    {
+        try (SliceOutput output = new OutputStreamSliceOutput(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            while (pageIterator.hasNext()) {
+                Page page = pageIterator.next();
+                writePages(blockEncodingSerde, output, page);
+                spilledBytes.addAndGet(page.getSizeInBytes());
+            }
+        }
+        catch (IOException e) {
+            throw new PrestoException(INTERNAL_ERROR, "Failed to spill pages", e);
+        }
+    }
+}
@@ -0,0 +1,257 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.spiller;
+
+import com.facebook.presto.operator.HashGenerator;
+import com.facebook.presto.spi.Page;
+import com.facebook.presto.spi.PageBuilder;
+import com.facebook.presto.spi.PrestoException;
+import com.facebook.presto.spi.block.BlockEncodingSerde;
+import com.facebook.presto.spi.type.Type;
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.Closer;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import io.airlift.slice.InputStreamSliceInput;
+import io.airlift.slice.OutputStreamSliceOutput;
+import io.airlift.slice.SliceOutput;
+import io.airlift.slice.XxHash64;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.facebook.presto.block.PagesSerde.readPages;
+import static com.facebook.presto.block.PagesSerde.writePages;
+import static com.facebook.presto.spi.StandardErrorCode.INTERNAL_ERROR;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkElementIndex;
+import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.util.concurrent.Futures.immediateFuture;
+import static java.util.Collections.emptyIterator;
+import static java.util.Objects.requireNonNull;
+
+@NotThreadSafe
+public class BinaryPartitioningSpiller
+        implements PartitioningSpiller
+{
+    private final BlockEncodingSerde blockEncodingSerde;
+    private final ListeningExecutorService executor;
+    private final Path spillPath;
+    private final List<Type> types;
+    private final HashGenerator hashGenerator;
+
+    private final PageBuilder[] pageBuilders;
+    private final Path[] partitionFiles;
+    private final SliceOutput[] partitionOutputs;
+
+    private final AtomicLong spilledBytes = new AtomicLong();
+    private final Closer closer = Closer.create();
+
+    private ListenableFuture<?> spillInProgress = immediateFuture(null);
+    private boolean readingSpilledPages;
+    private volatile boolean closed;
+
+    public BinaryPartitioningSpiller(
+            BlockEncodingSerde blockEncodingSerde,
+            ListeningExecutorService executor,
+            Path spillPath,
+            List<Type> types,
+            HashGenerator hashGenerator,
+            int partitionCount)
+    {
+        this.blockEncodingSerde = requireNonNull(blockEncodingSerde, "blockEncodingSerde is null");
+        this.executor = requireNonNull(executor, "executor is null");
+        this.spillPath = requireNonNull(spillPath, "spillPath is null");
+        this.types = ImmutableList.copyOf(requireNonNull(types, "types is null"));
+        this.hashGenerator = requireNonNull(hashGenerator, "hashGenerator is null");
+        checkArgument(partitionCount > 0, "partitionCount must be positive");
+
+        this.pageBuilders = new PageBuilder[partitionCount];
+        for (int i = 0; i < partitionCount; i++) {
+            pageBuilders[i] = new PageBuilder(types);
+        }
+        this.partitionFiles = new Path[partitionCount];
+        this.partitionOutputs = new SliceOutput[partitionCount];
+    }
+
+    @Override
+    public int getPartitionCount()
+    {
+        return pageBuilders.length;
+    }
+
+    @Override
+    public ListenableFuture<?> spill(Iterator<Page> pageIterator)
+    {
+        requireNonNull(pageIterator, "pageIterator is null");
+        checkState(spillInProgress.isDone(), "Previous spill is still in progress");
+        checkState(!readingSpilledPages, "Spilled pages are already being read");
+
+        spillInProgress = executor.submit(() -> partitionAndWritePages(pageIterator));
+        return spillInProgress;
+    }
+
+    @Override
+    public Iterator<Page> getSpilledPages(int partition)
+    {
+        checkElementIndex(partition, pageBuilders.length, "partition");
+        checkState(spillInProgress.isDone(), "Spill is still in progress");
+
+        if (!readingSpilledPages) {
+            readingSpilledPages = true;
+            closeOutputs();
+        }
+
+        Path file = partitionFiles[partition];
+        if (file == null) {
+            return emptyIterator();
+        }
+        try {
+            InputStreamSliceInput input = closer.register(new InputStreamSliceInput(new BufferedInputStream(Files.newInputStream(file))));
+            return readPages(blockEncodingSerde, input);
+        }
+        catch (IOException e) {
+            throw new PrestoException(INTERNAL_ERROR, "Failed to read spilled pages", e);
+        }
+    }
+
+    @Override
+    public long getSpilledBytes()
+    {
+        return spilledBytes.get();
+    }
+
+    @Override
+    public void close()
+    {
+        // a write in flight stops at the next page, and must finish before its outputs are closed
+        closed = true;
+        try {
+            spillInProgress.get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PrestoException(INTERNAL_ERROR, "Interrupted while waiting for spill to finish", e);
+        }
+        catch (ExecutionException | CancellationException ignored) {
+            // the spilled data is discarded below
+        }
+
+        try {
+            closeOutputs();
+            closer.close();
+            for (Path file : partitionFiles) {
+                if (file != null) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+        catch (IOException e) {
+            throw new PrestoException(INTERNAL_ERROR, "Failed to delete spill files", e);
+        }
+    }
+
+    private void partitionAndWritePages(Iterator<Page> pageIterator)
+    {
+        while (!closed && pageIterator.hasNext()) {
+            Page page = pageIterator.next();
+            for (int position = 0; position < page.getPositionCount(); position++) {
+                int partition = getPartition(position, page);
+                PageBuilder pageBuilder = pageBuilders[partition];
+                pageBuilder.declarePosition();
+                for (int channel = 0; channel < types.size(); channel++) {
+                    types.get(channel).appendTo(page.getBlock(channel), position, pageBuilder.getBlockBuilder(channel));
+                }
+                if (pageBuilder.isFull()) {
+                    flushPartition(partition);
+                }
+            }
+        }
+
+        if (closed) {
+            return;
+        }
+
+        for (int partition = 0; partition < pageBuilders.length; partition++) {
+            if (!pageBuilders[partition].isEmpty()) {
+                flushPartition(partition);
+            }
+            if (partitionOutputs[partition] != null) {
+                try {
+                    partitionOutputs[partition].flush();
+                }
+                catch (IOException e) {
+                    throw new PrestoException(INTERNAL_ERROR, "Failed to spill pages", e);
+                }
+            }
+        }
+    }
+
+    private int getPartition(int position, Page page)
+    {
+        // rehash the raw hash, since the rows reaching this node may already
+        // have been distributed by the same hash function
+        long hash = XxHash64.hash(hashGenerator.hashPosition(position, page));
+        return (int) ((hash & Long.MAX_VALUE) % pageBuilders.length);
+    }
+
+    private void flushPartition(int partition)
+    {
+        Page page = pageBuilders[partition].build();
+        pageBuilders[partition].reset();
+
+        writePages(blockEncodingSerde, getPartitionOutput(partition), page);
+        spilledBytes.addAndGet(page.getSizeInBytes());
+    }
+
+    private SliceOutput getPartitionOutput(int partition)
+    {
+        if (partitionOutputs[partition] == null) {
+            try {
+                Files.createDirectories(spillPath);
+                partitionFiles[partition] = Files.createTempFile(spillPath, "spill-", ".bin");
+                partitionOutputs[partition] = new OutputStreamSliceOutput(new BufferedOutputStream(Files.newOutputStream(partitionFiles[partition])));
+            }
+            catch (IOException e) {
+                throw new PrestoException(INTERNAL_ERROR, "Failed to create spill file", e);
+            }
+        }
+        return partitionOutputs[partition];
+    }
+
+    private void closeOutputs()
+    {
+        for (int i = 0; i < partitionOutputs.length; i++) {
+            if (partitionOutputs[i] != null) {
+                try {
+                    partitionOutputs[i].close();
+                }
+                catch (IOException e) {
+                    throw new PrestoException(INTERNAL_ERROR, "Failed to close spill file", e);
+                }
+                partitionOutputs[i] = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.spiller;
+
+import com.facebook.presto.operator.HashGenerator;
+import com.facebook.presto.spi.block.BlockEncodingSerde;
+import com.facebook.presto.spi.type.Type;
+import com.google.common.util.concurrent.ListeningExecutorService;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static com.google.common.util.concurrent.MoreExecutors.listeningDecorator;
+import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+
+public class BinarySpillerFactory
+        implements SpillerFactory
+{
+    private final BlockEncodingSerde blockEncodingSerde;
+    private final ListeningExecutorService executor;
+    private final Path spillPath;
+
+    @Inject
+    public BinarySpillerFactory(BlockEncodingSerde blockEncodingSerde, SpillerConfig config)
+    {
+        this(blockEncodingSerde,
+                listeningDecorator(newFixedThreadPool(config.getSpillerThreads(), daemonThreadsNamed("binary-spiller-%s"))),
+                Paths.get(config.getSpillerSpillPath()));
+    }
+
+    public BinarySpillerFactory(BlockEncodingSerde blockEncodingSerde, ListeningExecutorService executor, Path spillPath)
+    {
+        this.blockEncodingSerde = requireNonNull(blockEncodingSerde, "blockEncodingSerde is null");
+        this.executor = requireNonNull(executor, "executor is null");
+        this.spillPath = requireNonNull(spillPath, "spillPath is null");
+    }
+
+    @PreDestroy
+    public void destroy()
+    {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public Spiller create(List<Type> types)
+    {
+        return new BinaryFileSpiller(blockEncodingSerde, executor, spillPath);
+    }
+
+    @Override
+    public PartitioningSpiller createPartitioningSpiller(List<Type> types, HashGenerator hashGenerator, int partitionCount)
+    {
+        return new BinaryPartitioningSpiller(blockEncodingSerde, executor, spillPath, types, hashGenerator, partitionCount);
+    }
+}
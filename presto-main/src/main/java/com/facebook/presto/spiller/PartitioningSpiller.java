@@ -0,0 +1,49 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.spiller;
+
+import com.facebook.presto.spi.Page;
+import com.google.common.util.concurrent.ListenableFuture;
+
+import java.io.Closeable;
+import java.util.Iterator;
+
+/**
+ * Spills pages to local disk, distributing the rows between a fixed number
+ * of partitions, so the spilled data can later be read back one partition
+ * at a time.
+ */
+public interface PartitioningSpiller
+        extends Closeable
+{
+    int getPartitionCount();
+
+    /**
+     * Initiates spilling of the pages stream. The returned future completes
+     * when all pages have been written. Only one spill may be in progress
+     * at a time.
+     */
+    ListenableFuture<?> spill(Iterator<Page> pageIterator);
+
+    /**
+     * Returns the pages spilled to the given partition by all previous calls
+     * to {@link #spill}. Once spilled pages are read, no more pages can be spilled.
+     */
+    Iterator<Page> getSpilledPages(int partition);
+
+    long getSpilledBytes();
+
+    @Override
+    void close();
+}
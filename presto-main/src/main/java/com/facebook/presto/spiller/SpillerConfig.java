@@ -0,0 +1,56 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.spiller;
+
+import io.airlift.configuration.Config;
+import io.airlift.configuration.ConfigDescription;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+
+import java.nio.file.Paths;
+
+public class SpillerConfig
+{
+    private String spillerSpillPath = Paths.get(System.getProperty("java.io.tmpdir"), "presto", "spills").toString();
+    private int spillerThreads = 4;
+
+    @NotNull
+    public String getSpillerSpillPath()
+    {
+        return spillerSpillPath;
+    }
+
+    @Config("experimental.spiller-spill-path")
+    @ConfigDescription("Directory where spilled pages are written")
+    public SpillerConfig setSpillerSpillPath(String spillerSpillPath)
+    {
+        this.spillerSpillPath = spillerSpillPath;
+        return this;
+    }
+
+    @Min(1)
+    public int getSpillerThreads()
+    {
+        return spillerThreads;
+    }
+
+    @Config("experimental.spiller-threads")
+    @ConfigDescription("Number of threads used for writing spilled pages")
+    public SpillerConfig setSpillerThreads(int spillerThreads)
+    {
+        this.spillerThreads = spillerThreads;
+        return this;
+    }
+}
@@ -19,6 +19,7 @@ import com.facebook.presto.spi.ColumnHandle;
 import com.facebook.presto.spi.ConnectorPageSource;
 import com.facebook.presto.spi.ConnectorPageSourceProvider;
 import com.facebook.presto.spi.ConnectorSession;
+import com.facebook.presto.spi.TupleDomain;
 
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
@@ -39,13 +40,23 @@ public class PageSourceManager
 
     @Override
     public ConnectorPageSource createPageSource(Session session, Split split, List<ColumnHandle> columns)
+    {
+        return createPageSource(session, split, columns, TupleDomain.all());
+    }
+
+    @Override
+    public ConnectorPageSource createPageSource(Session session, Split split, List<ColumnHandle> columns, TupleDomain<ColumnHandle> dynamicFilter)
     {
         requireNonNull(split, "split is null");
         requireNonNull(columns, "columns is null");
+        requireNonNull(dynamicFilter, "dynamicFilter is null");
 
         // assumes connectorId and catalog are the same
         ConnectorSession connectorSession = session.toConnectorSession(split.getConnectorId());
-        return getPageSourceProvider(split).createPageSource(connectorSession, split.getConnectorSplit(), columns);
+        if (dynamicFilter.isAll()) {
+            return getPageSourceProvider(split).createPageSource(connectorSession, split.getConnectorSplit(), columns);
+        }
+        return getPageSourceProvider(split).createPageSource(connectorSession, split.getConnectorSplit(), columns, dynamicFilter);
     }
 
     private ConnectorPageSourceProvider getPageSourceProvider(Split split)
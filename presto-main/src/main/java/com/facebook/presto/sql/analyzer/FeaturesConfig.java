@@ -15,6 +15,11 @@ package com.facebook.presto.sql.analyzer;
 
 import io.airlift.configuration.Config;
 import io.airlift.configuration.LegacyConfig;
+import io.airlift.units.DataSize;
+
+import javax.validation.constraints.NotNull;
+
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
 
 public class FeaturesConfig
 {
@@ -25,6 +30,11 @@ public class FeaturesConfig
     private boolean optimizeMetadataQueries;
     private boolean optimizeHashGeneration = true;
     private boolean optimizeSingleDistinct = true;
+    private boolean spillEnabled;
+    private boolean dynamicFilteringEnabled;
+    private boolean costBasedJoinsEnabled;
+    private DataSize joinMaxBroadcastTableSize = new DataSize(100, MEGABYTE);
+    private boolean connectorPushDownEnabled = true;
 
     @LegacyConfig("analyzer.experimental-syntax-enabled")
     @Config("experimental-syntax-enabled")
@@ -110,4 +120,65 @@ public class FeaturesConfig
         this.optimizeSingleDistinct = optimizeSingleDistinct;
         return this;
     }
+
+    public boolean isSpillEnabled()
+    {
+        return spillEnabled;
+    }
+
+    @Config("experimental.spill-enabled")
+    public FeaturesConfig setSpillEnabled(boolean spillEnabled)
+    {
+        this.spillEnabled = spillEnabled;
+        return this;
+    }
+
+    public boolean isDynamicFilteringEnabled()
+    {
+        return dynamicFilteringEnabled;
+    }
+
+    @Config("experimental.dynamic-filtering-enabled")
+    public FeaturesConfig setDynamicFilteringEnabled(boolean dynamicFilteringEnabled)
+    {
+        this.dynamicFilteringEnabled = dynamicFilteringEnabled;
+        return this;
+    }
+
+    public boolean isCostBasedJoinsEnabled()
+    {
+        return costBasedJoinsEnabled;
+    }
+
+    @Config("optimizer.cost-based-joins-enabled")
+    public FeaturesConfig setCostBasedJoinsEnabled(boolean costBasedJoinsEnabled)
+    {
+        this.costBasedJoinsEnabled = costBasedJoinsEnabled;
+        return this;
+    }
+
+    @NotNull
+    public DataSize getJoinMaxBroadcastTableSize()
+    {
+        return joinMaxBroadcastTableSize;
+    }
+
+    @Config("optimizer.join-max-broadcast-table-size")
+    public FeaturesConfig setJoinMaxBroadcastTableSize(DataSize joinMaxBroadcastTableSize)
+    {
+        this.joinMaxBroadcastTableSize = joinMaxBroadcastTableSize;
+        return this;
+    }
+
+    public boolean isConnectorPushDownEnabled()
+    {
+        return connectorPushDownEnabled;
+    }
+
+    @Config("optimizer.connector-pushdown-enabled")
+    public FeaturesConfig setConnectorPushDownEnabled(boolean connectorPushDownEnabled)
+    {
+        this.connectorPushDownEnabled = connectorPushDownEnabled;
+        return this;
+    }
 }
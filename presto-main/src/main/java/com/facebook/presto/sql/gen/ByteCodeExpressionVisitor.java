@@ -124,6 +124,12 @@ public class ByteCodeExpressionVisitor
                     .pushJavaDefault(javaType);
         }
 
+        if (value instanceof ConstantParameter) {
+            ConstantParameter parameter = (ConstantParameter) value;
+            return block.comment("constant parameter " + parameter)
+                    .append(scope.getThis().getField(parameter.getFieldName(), javaType));
+        }
+
         // use LDC for primitives (boolean, short, int, long, float, double)
         block.comment("constant " + constant.getType().getTypeSignature());
         if (javaType == boolean.class) {
@@ -0,0 +1,59 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.sql.gen;
+
+import com.facebook.presto.byteCode.ByteCodeBlock;
+import com.facebook.presto.byteCode.ClassDefinition;
+import com.facebook.presto.byteCode.FieldDefinition;
+import com.facebook.presto.byteCode.Variable;
+import com.facebook.presto.byteCode.expression.ByteCodeExpression;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static com.facebook.presto.byteCode.Access.FINAL;
+import static com.facebook.presto.byteCode.Access.PRIVATE;
+import static com.facebook.presto.byteCode.Access.a;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Declares fields of a generated class holding objects created by its constructor.
+ * Constants bound with the {@link CallSiteBinder} are shared by every instance of
+ * the class, so state that belongs to a single instance, such as a cache of results
+ * depending on the lifted constants, must be held in one of these fields instead.
+ */
+public final class CachedInstanceBinder
+{
+    private final ClassDefinition classDefinition;
+    private final Map<FieldDefinition, ByteCodeExpression> initializers = new LinkedHashMap<>();
+
+    public CachedInstanceBinder(ClassDefinition classDefinition)
+    {
+        this.classDefinition = requireNonNull(classDefinition, "classDefinition is null");
+    }
+
+    public FieldDefinition getCachedInstance(Class<?> type, ByteCodeExpression initializer)
+    {
+        FieldDefinition field = classDefinition.declareField(a(PRIVATE, FINAL), "cachedInstance_" + initializers.size(), type);
+        initializers.put(field, requireNonNull(initializer, "initializer is null"));
+        return field;
+    }
+
+    public void generateInitializations(Variable thisVariable, ByteCodeBlock block)
+    {
+        for (Map.Entry<FieldDefinition, ByteCodeExpression> entry : initializers.entrySet()) {
+            block.append(thisVariable.setField(entry.getKey(), entry.getValue()));
+        }
+    }
+}
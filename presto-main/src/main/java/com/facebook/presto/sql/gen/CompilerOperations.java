@@ -14,6 +14,7 @@
 package com.facebook.presto.sql.gen;
 
 import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.block.RunLengthEncodedBlock;
 
 import javax.annotation.Nullable;
 
@@ -71,4 +72,9 @@ public final class CompilerOperations
         }
         return true;
     }
+
+    public static boolean isRunLengthEncoded(Block block)
+    {
+        return block instanceof RunLengthEncodedBlock;
+    }
 }
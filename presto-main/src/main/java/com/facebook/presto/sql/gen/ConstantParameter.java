@@ -0,0 +1,70 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.sql.gen;
+
+import java.util.Objects;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Placeholder for a constant that was lifted out of an expression. The code
+ * generated for the expression reads the value from a field of the instance
+ * instead of embedding it, so the class can be shared by expressions that
+ * only differ in their constants.
+ */
+public final class ConstantParameter
+{
+    private final int index;
+
+    public ConstantParameter(int index)
+    {
+        checkArgument(index >= 0, "index is negative");
+        this.index = index;
+    }
+
+    public int getIndex()
+    {
+        return index;
+    }
+
+    public String getFieldName()
+    {
+        return "constant_" + index;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(index);
+    }
+
+    @Override
+    public boolean equals(Object obj)
+    {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        ConstantParameter other = (ConstantParameter) obj;
+        return this.index == other.index;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "?" + index;
+    }
+}
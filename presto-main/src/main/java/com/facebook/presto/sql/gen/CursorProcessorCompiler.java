@@ -59,7 +59,7 @@ public class CursorProcessorCompiler
     }
 
     @Override
-    public void generateMethods(ClassDefinition classDefinition, CallSiteBinder callSiteBinder, RowExpression filter, List<RowExpression> projections)
+    public void generateMethods(ClassDefinition classDefinition, CallSiteBinder callSiteBinder, CachedInstanceBinder cachedInstanceBinder, RowExpression filter, List<RowExpression> projections)
     {
         generateProcessMethod(classDefinition, projections.size());
         generateFilterMethod(classDefinition, callSiteBinder, filter);
@@ -0,0 +1,89 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.sql.gen;
+
+import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.block.DictionaryBlock;
+import com.facebook.presto.spi.block.LazyBlock;
+import com.facebook.presto.spi.type.Type;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Results of an expression for the entries of dictionaries, used by compiled
+ * page processors to evaluate an expression once per dictionary entry instead
+ * of once per position. The readers share a dictionary between all the pages
+ * of a stripe, so the results are reused across pages. Dictionaries are
+ * compared by identity, and entries are dropped once the dictionary is no
+ * longer referenced.
+ *
+ * Each instance of a compiled processor has its own caches, since the results
+ * depend on its lifted constants. A cache is shared by all the drivers using the
+ * processor, so the results are taken out of the cache while a driver updates them.
+ */
+public final class DictionaryCache
+{
+    private static final int MAX_ENTRIES = 128;
+
+    private final Type type;
+    private final Cache<Block, DictionaryResults> cache = CacheBuilder.newBuilder()
+            .weakKeys()
+            .maximumSize(MAX_ENTRIES)
+            .build();
+
+    public DictionaryCache(Type type)
+    {
+        this.type = requireNonNull(type, "type is null");
+    }
+
+    /**
+     * Removes the results for the dictionary from the cache, so the caller is the
+     * only one updating them until they are released. Another driver acquiring
+     * the same dictionary in the meantime starts with empty results.
+     */
+    public DictionaryResults acquire(Block dictionary)
+    {
+        DictionaryResults results = cache.asMap().remove(dictionary);
+        if (results == null) {
+            results = new DictionaryResults(type, dictionary.getPositionCount());
+        }
+        return results;
+    }
+
+    public void release(Block dictionary, DictionaryResults results)
+    {
+        cache.put(dictionary, results);
+    }
+
+    public static boolean isDictionaryEncoded(Block block)
+    {
+        return unwrap(block) instanceof DictionaryBlock;
+    }
+
+    public static DictionaryBlock getDictionaryBlock(Block block)
+    {
+        return (DictionaryBlock) unwrap(block);
+    }
+
+    private static Block unwrap(Block block)
+    {
+        // the encoding of a lazy block is only known once it is loaded
+        if (block instanceof LazyBlock) {
+            return ((LazyBlock) block).getBlock();
+        }
+        return block;
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.sql.gen;
+
+import com.facebook.presto.spi.block.BlockBuilder;
+import com.facebook.presto.spi.block.BlockBuilderStatus;
+import com.facebook.presto.spi.type.Type;
+
+import java.util.Arrays;
+
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * Results of an expression for the entries of a dictionary. An entry is only
+ * evaluated once a position referencing it is processed, so entries that are
+ * not referenced, or whose positions are filtered out, are never evaluated and
+ * cannot fail the query.
+ *
+ * This class is not thread safe, see {@link DictionaryCache#acquire}.
+ */
+public final class DictionaryResults
+{
+    private static final int NOT_COMPUTED = -1;
+
+    private final int[] positions;
+    private final BlockBuilder values;
+
+    public DictionaryResults(Type type, int dictionarySize)
+    {
+        positions = new int[dictionarySize];
+        Arrays.fill(positions, NOT_COMPUTED);
+        values = type.createBlockBuilder(new BlockBuilderStatus(), dictionarySize);
+    }
+
+    public boolean isComputed(int id)
+    {
+        return positions[id] != NOT_COMPUTED;
+    }
+
+    /**
+     * Returns the builder the result of an entry is appended to before it is marked computed.
+     */
+    public BlockBuilder getValues()
+    {
+        return values;
+    }
+
+    public void setComputed(int id)
+    {
+        checkState(values.getPositionCount() > 0, "no value was appended");
+        positions[id] = values.getPositionCount() - 1;
+    }
+
+    public int getPosition(int id)
+    {
+        checkState(isComputed(id), "entry %s is not computed", id);
+        return positions[id];
+    }
+}
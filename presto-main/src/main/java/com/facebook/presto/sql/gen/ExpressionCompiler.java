@@ -13,55 +13,86 @@
  */
 package com.facebook.presto.sql.gen;
 
+import com.facebook.presto.byteCode.ByteCodeBlock;
 import com.facebook.presto.byteCode.ClassDefinition;
+import com.facebook.presto.byteCode.FieldDefinition;
+import com.facebook.presto.byteCode.MethodDefinition;
+import com.facebook.presto.byteCode.Parameter;
+import com.facebook.presto.byteCode.Variable;
+import com.facebook.presto.byteCode.expression.ByteCodeExpression;
 import com.facebook.presto.metadata.Metadata;
 import com.facebook.presto.operator.CursorProcessor;
 import com.facebook.presto.operator.PageProcessor;
+import com.facebook.presto.sql.relational.ConstantExpression;
 import com.facebook.presto.sql.relational.RowExpression;
 import com.google.common.base.Throwables;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
-import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListenableFutureTask;
+import io.airlift.concurrent.BoundedExecutor;
+import io.airlift.stats.TimeStat;
+import io.airlift.units.Duration;
 import org.weakref.jmx.Managed;
+import org.weakref.jmx.Nested;
 
 import javax.inject.Inject;
 
+import java.lang.reflect.Constructor;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.Executor;
 
 import static com.facebook.presto.byteCode.Access.FINAL;
+import static com.facebook.presto.byteCode.Access.PRIVATE;
 import static com.facebook.presto.byteCode.Access.PUBLIC;
 import static com.facebook.presto.byteCode.Access.a;
+import static com.facebook.presto.byteCode.Parameter.arg;
 import static com.facebook.presto.byteCode.ParameterizedType.type;
+import static com.facebook.presto.byteCode.expression.ByteCodeExpressions.constantInt;
 import static com.facebook.presto.sql.gen.ByteCodeUtils.invoke;
 import static com.facebook.presto.sql.gen.CompilerUtils.defineClass;
 import static com.facebook.presto.sql.gen.CompilerUtils.makeClassName;
+import static com.facebook.presto.sql.gen.ParameterizedExpressions.parameterize;
 import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.primitives.Primitives.wrap;
+import static com.google.common.util.concurrent.Futures.immediateFuture;
+import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 public class ExpressionCompiler
 {
     private final Metadata metadata;
 
-    private final LoadingCache<CacheKey, PageProcessor> pageProcessors = CacheBuilder.newBuilder().maximumSize(1000).build(
-            new CacheLoader<CacheKey, PageProcessor>()
+    private final TimeStat compilationTime = new TimeStat(MILLISECONDS);
+
+    // threads are only started when a processor is compiled in the background
+    private final Executor backgroundCompilationExecutor = new BoundedExecutor(
+            newCachedThreadPool(daemonThreadsNamed("expression-compiler-%s")),
+            Runtime.getRuntime().availableProcessors());
+
+    // classes are cached by the expressions with their constants lifted, so queries that only differ in literals share them
+    private final LoadingCache<CacheKey, Constructor<? extends PageProcessor>> pageProcessors = CacheBuilder.newBuilder().recordStats().maximumSize(1000).build(
+            new CacheLoader<CacheKey, Constructor<? extends PageProcessor>>()
             {
                 @Override
-                public PageProcessor load(CacheKey key)
+                public Constructor<? extends PageProcessor> load(CacheKey key)
                         throws Exception
                 {
-                    return compileAndInstantiate(key.getFilter(), key.getProjections(), new PageProcessorCompiler(metadata), PageProcessor.class);
+                    return compileProcessor(key.getExpressions(), new PageProcessorCompiler(metadata), PageProcessor.class);
                 }
             });
 
-    private final LoadingCache<CacheKey, CursorProcessor> cursorProcessors = CacheBuilder.newBuilder().maximumSize(1000).build(
-            new CacheLoader<CacheKey, CursorProcessor>()
+    private final LoadingCache<CacheKey, Constructor<? extends CursorProcessor>> cursorProcessors = CacheBuilder.newBuilder().recordStats().maximumSize(1000).build(
+            new CacheLoader<CacheKey, Constructor<? extends CursorProcessor>>()
             {
                 @Override
-                public CursorProcessor load(CacheKey key)
+                public Constructor<? extends CursorProcessor> load(CacheKey key)
                         throws Exception
                 {
-                    return compileAndInstantiate(key.getFilter(), key.getProjections(), new CursorProcessorCompiler(metadata), CursorProcessor.class);
+                    return compileProcessor(key.getExpressions(), new CursorProcessorCompiler(metadata), CursorProcessor.class);
                 }
             });
 
@@ -77,44 +108,105 @@ public class ExpressionCompiler
         return pageProcessors.size();
     }
 
+    @Managed
+    public double getPageProcessorCacheHitRate()
+    {
+        return pageProcessors.stats().hitRate();
+    }
+
+    @Managed
+    public long getCursorProcessorCacheSize()
+    {
+        return cursorProcessors.size();
+    }
+
+    @Managed
+    public double getCursorProcessorCacheHitRate()
+    {
+        return cursorProcessors.stats().hitRate();
+    }
+
+    @Managed
+    @Nested
+    public TimeStat getCompilationTime()
+    {
+        return compilationTime;
+    }
+
     public CursorProcessor compileCursorProcessor(RowExpression filter, List<RowExpression> projections, Object uniqueKey)
     {
-        return cursorProcessors.getUnchecked(new CacheKey(filter, projections, uniqueKey));
+        ParameterizedExpressions expressions = parameterize(filter, projections);
+        return instantiate(cursorProcessors.getUnchecked(new CacheKey(expressions, uniqueKey)), expressions);
     }
 
     public PageProcessor compilePageProcessor(RowExpression filter, List<RowExpression> projections)
     {
-        return pageProcessors.getUnchecked(new CacheKey(filter, projections, null));
+        ParameterizedExpressions expressions = parameterize(filter, projections);
+        return instantiate(pageProcessors.getUnchecked(new CacheKey(expressions, null)), expressions);
     }
 
-    private <T> T compileAndInstantiate(RowExpression filter, List<RowExpression> projections, BodyCompiler<T> bodyCompiler, Class<? extends T> superType)
+    /**
+     * Returns a future for the cursor processor, which is already done when the class is cached.
+     * Otherwise the class is generated on a background thread.
+     */
+    public ListenableFuture<CursorProcessor> compileCursorProcessorAsync(RowExpression filter, List<RowExpression> projections, Object uniqueKey)
+    {
+        ParameterizedExpressions expressions = parameterize(filter, projections);
+        return compileAsync(cursorProcessors, new CacheKey(expressions, uniqueKey), expressions);
+    }
+
+    /**
+     * Returns a future for the page processor, which is already done when the class is cached.
+     * Otherwise the class is generated on a background thread.
+     */
+    public ListenableFuture<PageProcessor> compilePageProcessorAsync(RowExpression filter, List<RowExpression> projections)
+    {
+        ParameterizedExpressions expressions = parameterize(filter, projections);
+        return compileAsync(pageProcessors, new CacheKey(expressions, null), expressions);
+    }
+
+    private <T> ListenableFuture<T> compileAsync(LoadingCache<CacheKey, Constructor<? extends T>> cache, CacheKey key, ParameterizedExpressions expressions)
+    {
+        // look at the map view, so the cache statistics only count the load below
+        Constructor<? extends T> constructor = cache.asMap().get(key);
+        if (constructor != null) {
+            return immediateFuture(instantiate(constructor, expressions));
+        }
+
+        ListenableFutureTask<T> task = ListenableFutureTask.create(() -> instantiate(cache.getUnchecked(key), expressions));
+        backgroundCompilationExecutor.execute(task);
+        return task;
+    }
+
+    private static <T> T instantiate(Constructor<? extends T> constructor, ParameterizedExpressions expressions)
     {
-        // create filter and project page iterator class
-        Class<? extends T> clazz = compileProcessor(filter, projections, bodyCompiler, superType);
         try {
-            return clazz.newInstance();
+            return constructor.newInstance(expressions.getConstantValues());
         }
         catch (ReflectiveOperationException e) {
             throw Throwables.propagate(e);
         }
     }
 
-    private <T> Class<? extends T> compileProcessor(
-            RowExpression filter,
-            List<RowExpression> projections,
+    private <T> Constructor<? extends T> compileProcessor(
+            ParameterizedExpressions expressions,
             BodyCompiler<T> bodyCompiler,
             Class<? extends T> superType)
+            throws NoSuchMethodException
     {
+        long start = System.nanoTime();
+
         ClassDefinition classDefinition = new ClassDefinition(
                 a(PUBLIC, FINAL),
                 makeClassName(superType.getSimpleName()),
                 type(Object.class),
                 type(superType));
 
-        classDefinition.declareDefaultConstructor(a(PUBLIC));
-
         CallSiteBinder callSiteBinder = new CallSiteBinder();
-        bodyCompiler.generateMethods(classDefinition, callSiteBinder, filter, projections);
+        CachedInstanceBinder cachedInstanceBinder = new CachedInstanceBinder(classDefinition);
+        bodyCompiler.generateMethods(classDefinition, callSiteBinder, cachedInstanceBinder, expressions.getFilter(), expressions.getProjections());
+
+        generateConstructor(classDefinition, cachedInstanceBinder, expressions.getConstants());
 
         //
         // toString method
@@ -123,11 +215,42 @@ public class ExpressionCompiler
                 classDefinition,
                 callSiteBinder,
                 toStringHelper(classDefinition.getType().getJavaClassName())
-                        .add("filter", filter)
-                        .add("projections", projections)
+                        .add("filter", expressions.getFilter())
+                        .add("projections", expressions.getProjections())
                         .toString());
 
-        return defineClass(classDefinition, superType, callSiteBinder.getBindings(), getClass().getClassLoader());
+        Class<? extends T> clazz = defineClass(classDefinition, superType, callSiteBinder.getBindings(), getClass().getClassLoader());
+        compilationTime.add(Duration.nanosSince(start));
+        return clazz.getConstructor(List.class);
+    }
+
+    private static void generateConstructor(ClassDefinition classDefinition, CachedInstanceBinder cachedInstanceBinder, List<ConstantExpression> constants)
+    {
+        Parameter constantValues = arg("constants", type(List.class, Object.class));
+        MethodDefinition constructorDefinition = classDefinition.declareConstructor(a(PUBLIC), constantValues);
+
+        Variable thisVariable = constructorDefinition.getThis();
+        ByteCodeBlock constructor = constructorDefinition
+                .getBody()
+                .comment("super();")
+                .append(thisVariable)
+                .invokeConstructor(Object.class);
+
+        // the generated code reads the lifted constants from these fields
+        for (int index = 0; index < constants.size(); index++) {
+            ConstantParameter parameter = new ConstantParameter(index);
+            Class<?> javaType = constants.get(index).getType().getJavaType();
+            FieldDefinition field = classDefinition.declareField(a(PRIVATE, FINAL), parameter.getFieldName(), javaType);
+
+            ByteCodeExpression value = constantValues.invoke("get", Object.class, constantInt(index)).cast(wrap(javaType));
+            if (javaType.isPrimitive()) {
+                value = value.cast(javaType);
+            }
+            constructor.append(thisVariable.setField(field, value));
+        }
+
+        cachedInstanceBinder.generateInitializations(thisVariable, constructor);
+        constructor.ret();
     }
 
     private static void generateToString(ClassDefinition classDefinition, CallSiteBinder callSiteBinder, String string)
@@ -141,31 +264,24 @@ public class ExpressionCompiler
 
     private static final class CacheKey
     {
-        private final RowExpression filter;
-        private final List<RowExpression> projections;
+        private final ParameterizedExpressions expressions;
         private final Object uniqueKey;
 
-        private CacheKey(RowExpression filter, List<RowExpression> projections, Object uniqueKey)
+        private CacheKey(ParameterizedExpressions expressions, Object uniqueKey)
         {
-            this.filter = filter;
+            this.expressions = expressions;
             this.uniqueKey = uniqueKey;
-            this.projections = ImmutableList.copyOf(projections);
-        }
-
-        private RowExpression getFilter()
-        {
-            return filter;
         }
 
-        private List<RowExpression> getProjections()
+        private ParameterizedExpressions getExpressions()
         {
-            return projections;
+            return expressions;
         }
 
         @Override
         public int hashCode()
         {
-            return Objects.hash(filter, projections, uniqueKey);
+            return Objects.hash(expressions, uniqueKey);
         }
 
         @Override
@@ -178,8 +294,7 @@ public class ExpressionCompiler
                 return false;
             }
             CacheKey other = (CacheKey) obj;
-            return Objects.equals(this.filter, other.filter) &&
-                    Objects.equals(this.projections, other.projections) &&
+            return Objects.equals(this.expressions, other.expressions) &&
                     Objects.equals(this.uniqueKey, other.uniqueKey);
         }
 
@@ -187,8 +302,7 @@ public class ExpressionCompiler
         public String toString()
         {
             return toStringHelper(this)
-                    .add("filter", filter)
-                    .add("projections", projections)
+                    .add("expressions", expressions)
                     .add("uniqueKey", uniqueKey)
                     .toString();
         }
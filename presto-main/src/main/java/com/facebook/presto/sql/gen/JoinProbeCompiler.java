@@ -486,7 +486,7 @@ public class JoinProbeCompiler
             this.joinProbeFactory = joinProbeFactory;
 
             try {
-                constructor = operatorFactoryClass.getConstructor(int.class, LookupSourceSupplier.class, List.class, JoinType.class, JoinProbeFactory.class);
+                constructor = operatorFactoryClass.getConstructor(int.class, LookupSourceSupplier.class, List.class, List.class, JoinType.class, JoinProbeFactory.class);
             }
             catch (NoSuchMethodException e) {
                 throw Throwables.propagate(e);
@@ -501,7 +501,7 @@ public class JoinProbeCompiler
                 JoinType joinType)
         {
             try {
-                return constructor.newInstance(operatorId, lookupSourceSupplier, probeTypes, joinType, joinProbeFactory);
+                return constructor.newInstance(operatorId, lookupSourceSupplier, probeTypes, probeJoinChannel, joinType, joinProbeFactory);
             }
             catch (Exception e) {
                 throw Throwables.propagate(e);
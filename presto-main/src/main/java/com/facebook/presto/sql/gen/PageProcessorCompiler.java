@@ -16,6 +16,7 @@ package com.facebook.presto.sql.gen;
 import com.facebook.presto.byteCode.ByteCodeBlock;
 import com.facebook.presto.byteCode.ByteCodeNode;
 import com.facebook.presto.byteCode.ClassDefinition;
+import com.facebook.presto.byteCode.FieldDefinition;
 import com.facebook.presto.byteCode.MethodDefinition;
 import com.facebook.presto.byteCode.Parameter;
 import com.facebook.presto.byteCode.ParameterizedType;
@@ -23,7 +24,9 @@ import com.facebook.presto.byteCode.Scope;
 import com.facebook.presto.byteCode.Variable;
 import com.facebook.presto.byteCode.control.ForLoop;
 import com.facebook.presto.byteCode.control.IfStatement;
+import com.facebook.presto.byteCode.expression.ByteCodeExpression;
 import com.facebook.presto.byteCode.instruction.LabelNode;
+import com.facebook.presto.metadata.FunctionInfo;
 import com.facebook.presto.metadata.Metadata;
 import com.facebook.presto.operator.PageProcessor;
 import com.facebook.presto.spi.ConnectorSession;
@@ -31,6 +34,9 @@ import com.facebook.presto.spi.Page;
 import com.facebook.presto.spi.PageBuilder;
 import com.facebook.presto.spi.block.Block;
 import com.facebook.presto.spi.block.BlockBuilder;
+import com.facebook.presto.spi.block.BlockBuilderStatus;
+import com.facebook.presto.spi.block.DictionaryBlock;
+import com.facebook.presto.spi.block.RunLengthEncodedBlock;
 import com.facebook.presto.spi.type.Type;
 import com.facebook.presto.sql.relational.CallExpression;
 import com.facebook.presto.sql.relational.ConstantExpression;
@@ -43,6 +49,7 @@ import com.google.common.collect.Iterables;
 import com.google.common.primitives.Primitives;
 import io.airlift.slice.Slice;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.TreeSet;
 
@@ -51,8 +58,24 @@ import static com.facebook.presto.byteCode.Access.a;
 import static com.facebook.presto.byteCode.OpCode.NOP;
 import static com.facebook.presto.byteCode.Parameter.arg;
 import static com.facebook.presto.byteCode.ParameterizedType.type;
+import static com.facebook.presto.byteCode.expression.ByteCodeExpressions.and;
+import static com.facebook.presto.byteCode.expression.ByteCodeExpressions.constantFalse;
+import static com.facebook.presto.byteCode.expression.ByteCodeExpressions.constantInt;
+import static com.facebook.presto.byteCode.expression.ByteCodeExpressions.constantNull;
+import static com.facebook.presto.byteCode.expression.ByteCodeExpressions.constantTrue;
+import static com.facebook.presto.byteCode.expression.ByteCodeExpressions.greaterThan;
+import static com.facebook.presto.byteCode.expression.ByteCodeExpressions.inlineIf;
+import static com.facebook.presto.byteCode.expression.ByteCodeExpressions.invokeStatic;
+import static com.facebook.presto.byteCode.expression.ByteCodeExpressions.lessThan;
+import static com.facebook.presto.byteCode.expression.ByteCodeExpressions.newInstance;
+import static com.facebook.presto.byteCode.expression.ByteCodeExpressions.not;
+import static com.facebook.presto.byteCode.expression.ByteCodeExpressions.or;
+import static com.facebook.presto.byteCode.instruction.VariableInstruction.incrementVariable;
+import static com.facebook.presto.spi.type.BooleanType.BOOLEAN;
 import static com.facebook.presto.sql.gen.ByteCodeUtils.generateWrite;
 import static com.facebook.presto.sql.gen.ByteCodeUtils.loadConstant;
+import static com.facebook.presto.sql.gen.SqlTypeByteCodeExpression.constantType;
+import static com.google.common.collect.Iterables.getOnlyElement;
 import static java.lang.String.format;
 import static java.util.Collections.nCopies;
 
@@ -67,17 +90,28 @@ public class PageProcessorCompiler
     }
 
     @Override
-    public void generateMethods(ClassDefinition classDefinition, CallSiteBinder callSiteBinder, RowExpression filter, List<RowExpression> projections)
+    public void generateMethods(ClassDefinition classDefinition, CallSiteBinder callSiteBinder, CachedInstanceBinder cachedInstanceBinder, RowExpression filter, List<RowExpression> projections)
     {
-        generateProcessMethod(classDefinition, filter, projections);
+        generateProcessMethod(classDefinition, callSiteBinder, cachedInstanceBinder, filter, projections);
+        generateProcessColumnarMethod(classDefinition, callSiteBinder, filter, projections);
+        generateHasConstantExpressionsMethod(classDefinition, filter, projections);
         generateFilterMethod(classDefinition, callSiteBinder, filter);
 
         for (int i = 0; i < projections.size(); i++) {
             generateProjectMethod(classDefinition, callSiteBinder, "project_" + i, projections.get(i));
         }
+
+        if (isDictionaryCandidate(filter)) {
+            generateDictionaryMethod(classDefinition, callSiteBinder, "filterDictionary", filter, -1);
+        }
+        for (int i = 0; i < projections.size(); i++) {
+            if (isDictionaryCandidate(projections.get(i))) {
+                generateDictionaryMethod(classDefinition, callSiteBinder, "projectDictionary_" + i, projections.get(i), i);
+            }
+        }
     }
 
-    private void generateProcessMethod(ClassDefinition classDefinition, RowExpression filter, List<RowExpression> projections)
+    private void generateProcessMethod(ClassDefinition classDefinition, CallSiteBinder callSiteBinder, CachedInstanceBinder cachedInstanceBinder, RowExpression filter, List<RowExpression> projections)
     {
         Parameter session = arg("session", ConnectorSession.class);
         Parameter page = arg("page", Page.class);
@@ -106,6 +140,52 @@ public class PageProcessorCompiler
                     .putVariable(blockVariable);
         }
 
+        // filter of a single dictionary encoded column: evaluate each referenced dictionary entry once
+        ByteCodeBlock releaseDictionaryResults = new ByteCodeBlock();
+        ByteCodeExpression filterCondition = invokeFilter(thisVariable, session, getBlockVariables(scope, getInputChannels(filter)), position);
+        if (isDictionaryCandidate(filter)) {
+            ByteCodeExpression cache = getDictionaryCache(callSiteBinder, cachedInstanceBinder, thisVariable, BOOLEAN);
+            Variable dictionaryFilter = scope.declareVariable(boolean.class, "dictionaryFilter");
+            Variable dictionaryBlock = scope.declareVariable(DictionaryBlock.class, "filterDictionaryBlock");
+            Variable dictionary = scope.declareVariable(Block.class, "filterDictionary");
+            Variable dictionaryResults = scope.declareVariable(DictionaryResults.class, "filterDictionaryResults");
+            Variable block = scope.getVariable("block_" + getOnlyElement(getInputChannels(filter)));
+
+            method.getBody()
+                    .append(dictionaryBlock.set(constantNull(DictionaryBlock.class)))
+                    .append(dictionary.set(constantNull(Block.class)))
+                    .append(dictionaryResults.set(constantNull(DictionaryResults.class)))
+                    .append(dictionaryFilter.set(and(lessThan(start, end), invokeStatic(DictionaryCache.class, "isDictionaryEncoded", boolean.class, block))))
+                    .append(new IfStatement()
+                            .condition(dictionaryFilter)
+                            .ifTrue(new ByteCodeBlock()
+                                    .append(dictionaryBlock.set(invokeStatic(DictionaryCache.class, "getDictionaryBlock", DictionaryBlock.class, block)))
+                                    .append(dictionary.set(dictionaryBlock.invoke("getDictionary", Block.class)))
+                                    .append(dictionaryResults.set(cache.invoke("acquire", DictionaryResults.class, dictionary)))));
+
+            releaseDictionaryResults.append(new IfStatement()
+                    .condition(dictionaryFilter)
+                    .ifTrue(cache.invoke("release", void.class, dictionary, dictionaryResults)));
+
+            filterCondition = inlineIf(
+                    dictionaryFilter,
+                    thisVariable.invoke(
+                            "filterDictionary",
+                            boolean.class,
+                            session,
+                            dictionaryResults,
+                            dictionary,
+                            dictionaryBlock.invoke("getId", int.class, position)),
+                    filterCondition);
+        }
+
+        // projections of a single dictionary encoded column: copy the result for the dictionary entry.
+        // The blocks are only inspected once a position is selected, so lazy blocks are not loaded needlessly.
+        Variable projectionDictionariesLoaded = scope.declareVariable(boolean.class, "projectionDictionariesLoaded");
+        method.getBody().append(projectionDictionariesLoaded.set(constantFalse()));
+        ByteCodeBlock loadProjectionDictionaries = new ByteCodeBlock()
+                .append(projectionDictionariesLoaded.set(constantTrue()));
+
         //
         // for loop loop body
         //
@@ -133,50 +213,69 @@ public class PageProcessorCompiler
 
         // if (filter(cursor))
         IfStatement filterBlock = new IfStatement();
-        filterBlock.condition()
-                .append(thisVariable)
-                .getVariable(session)
-                .append(pushBlockVariables(scope, getInputChannels(filter)))
-                .getVariable(position)
-                .invokeVirtual(classDefinition.getType(),
-                        "filter",
-                        type(boolean.class),
-                        ImmutableList.<ParameterizedType>builder()
-                                .add(type(ConnectorSession.class))
-                                .addAll(nCopies(getInputChannels(filter).size(), type(Block.class)))
-                                .add(type(int.class))
-                                .build());
+        filterBlock.condition(filterCondition);
+
+        if (projections.stream().anyMatch(this::isDictionaryCandidate)) {
+            filterBlock.ifTrue()
+                    .append(new IfStatement()
+                            .condition(not(projectionDictionariesLoaded))
+                            .ifTrue(loadProjectionDictionaries));
+        }
 
         filterBlock.ifTrue()
                 .append(pageBuilder)
                 .invokeVirtual(PageBuilder.class, "declarePosition", void.class);
 
         for (int projectionIndex = 0; projectionIndex < projections.size(); projectionIndex++) {
-            List<Integer> inputChannels = getInputChannels(projections.get(projectionIndex));
+            RowExpression projection = projections.get(projectionIndex);
+            ByteCodeExpression blockBuilder = pageBuilder.invoke("getBlockBuilder", BlockBuilder.class, constantInt(projectionIndex));
+            ByteCodeExpression project = invokeProject(thisVariable, session, getBlockVariables(scope, getInputChannels(projection)), projectionIndex, position, blockBuilder);
+
+            if (!isDictionaryCandidate(projection)) {
+                filterBlock.ifTrue()
+                        .comment("project_%d(session, block_%s, position, blockBuilder)", projectionIndex, getInputChannels(projection))
+                        .append(project);
+                continue;
+            }
 
-            filterBlock.ifTrue()
-                    .append(thisVariable)
-                    .append(session)
-                    .append(pushBlockVariables(scope, inputChannels))
-                    .getVariable(position);
+            ByteCodeExpression cache = getDictionaryCache(callSiteBinder, cachedInstanceBinder, thisVariable, projection.getType());
+            Variable dictionaryProjection = scope.declareVariable(boolean.class, "dictionaryProjection_" + projectionIndex);
+            Variable dictionaryBlock = scope.declareVariable(DictionaryBlock.class, "projectionDictionaryBlock_" + projectionIndex);
+            Variable dictionary = scope.declareVariable(Block.class, "projectionDictionary_" + projectionIndex);
+            Variable dictionaryResults = scope.declareVariable(DictionaryResults.class, "projectionDictionaryResults_" + projectionIndex);
+            Variable block = scope.getVariable("block_" + getOnlyElement(getInputChannels(projection)));
 
-            filterBlock.ifTrue()
-                    .comment("pageBuilder.getBlockBuilder(%d)", projectionIndex)
-                    .append(pageBuilder)
-                    .push(projectionIndex)
-                    .invokeVirtual(PageBuilder.class, "getBlockBuilder", BlockBuilder.class, int.class);
+            method.getBody()
+                    .append(dictionaryProjection.set(constantFalse()))
+                    .append(dictionaryBlock.set(constantNull(DictionaryBlock.class)))
+                    .append(dictionary.set(constantNull(Block.class)))
+                    .append(dictionaryResults.set(constantNull(DictionaryResults.class)));
+
+            loadProjectionDictionaries
+                    .append(dictionaryProjection.set(invokeStatic(DictionaryCache.class, "isDictionaryEncoded", boolean.class, block)))
+                    .append(new IfStatement()
+                            .condition(dictionaryProjection)
+                            .ifTrue(new ByteCodeBlock()
+                                    .append(dictionaryBlock.set(invokeStatic(DictionaryCache.class, "getDictionaryBlock", DictionaryBlock.class, block)))
+                                    .append(dictionary.set(dictionaryBlock.invoke("getDictionary", Block.class)))
+                                    .append(dictionaryResults.set(cache.invoke("acquire", DictionaryResults.class, dictionary)))));
+
+            releaseDictionaryResults.append(new IfStatement()
+                    .condition(dictionaryProjection)
+                    .ifTrue(cache.invoke("release", void.class, dictionary, dictionaryResults)));
 
             filterBlock.ifTrue()
-                    .comment("project_%d(session, block_%s, position, blockBuilder)", projectionIndex, inputChannels)
-                    .invokeVirtual(classDefinition.getType(),
-                            "project_" + projectionIndex,
-                            type(void.class),
-                            ImmutableList.<ParameterizedType>builder()
-                                    .add(type(ConnectorSession.class))
-                                    .addAll(nCopies(inputChannels.size(), type(Block.class)))
-                                    .add(type(int.class))
-                                    .add(type(BlockBuilder.class))
-                                    .build());
+                    .append(new IfStatement()
+                            .condition(dictionaryProjection)
+                            .ifTrue(thisVariable.invoke(
+                                    "projectDictionary_" + projectionIndex,
+                                    void.class,
+                                    session,
+                                    dictionaryResults,
+                                    dictionary,
+                                    dictionaryBlock.invoke("getId", int.class, position),
+                                    blockBuilder))
+                            .ifFalse(project));
         }
 
         loopBody.append(filterBlock);
@@ -184,11 +283,288 @@ public class PageProcessorCompiler
         method.getBody()
                 .append(loop)
                 .visitLabel(done)
+                .append(releaseDictionaryResults)
                 .comment("return position;")
                 .getVariable(position)
                 .retInt();
     }
 
+    private static ByteCodeExpression getDictionaryCache(CallSiteBinder callSiteBinder, CachedInstanceBinder cachedInstanceBinder, Variable thisVariable, Type type)
+    {
+        // the results depend on the lifted constants, so each instance of the class has its own cache
+        FieldDefinition field = cachedInstanceBinder.getCachedInstance(
+                DictionaryCache.class,
+                newInstance(DictionaryCache.class, constantType(callSiteBinder, type)));
+        return thisVariable.getField(field);
+    }
+
+    private void generateProcessColumnarMethod(ClassDefinition classDefinition, CallSiteBinder callSiteBinder, RowExpression filter, List<RowExpression> projections)
+    {
+        Parameter session = arg("session", ConnectorSession.class);
+        Parameter page = arg("page", Page.class);
+        Parameter types = arg("types", List.class);
+        MethodDefinition method = classDefinition.declareMethod(a(PUBLIC), "processColumnar", type(Page.class), session, page, types);
+
+        Scope scope = method.getScope();
+        ByteCodeBlock body = method.getBody();
+        Variable thisVariable = method.getThis();
+
+        List<Integer> allInputChannels = getInputChannels(Iterables.concat(projections, ImmutableList.of(filter)));
+        for (int channel : allInputChannels) {
+            Variable blockVariable = scope.declareVariable(Block.class, "block_" + channel);
+            body.append(blockVariable.set(page.invoke("getBlock", Block.class, constantInt(channel))));
+        }
+
+        Variable positionCount = scope.declareVariable(int.class, "positionCount");
+        body.append(positionCount.set(page.invoke("getPositionCount", int.class)));
+
+        // an expression that only reads run length encoded blocks has the same value at every position
+        Variable constantFilter = scope.declareVariable(boolean.class, "constantFilter");
+        body.append(constantFilter.set(isConstantForPage(filter, getBlockVariables(scope, getInputChannels(filter)))));
+
+        List<Variable> constantProjections = new ArrayList<>();
+        List<Variable> outputBuilders = new ArrayList<>();
+        for (int projectionIndex = 0; projectionIndex < projections.size(); projectionIndex++) {
+            RowExpression projection = projections.get(projectionIndex);
+
+            Variable constantProjection = scope.declareVariable(boolean.class, "constantProjection_" + projectionIndex);
+            body.append(constantProjection.set(isConstantForPage(projection, getBlockVariables(scope, getInputChannels(projection)))));
+            constantProjections.add(constantProjection);
+
+            Variable outputBuilder = scope.declareVariable(BlockBuilder.class, "blockBuilder_" + projectionIndex);
+            body.append(outputBuilder.set(constantType(callSiteBinder, projection.getType()).invoke(
+                    "createBlockBuilder",
+                    BlockBuilder.class,
+                    newInstance(BlockBuilderStatus.class),
+                    inlineIf(constantProjection, constantInt(1), positionCount))));
+            outputBuilders.add(outputBuilder);
+        }
+
+        // a constant filter is evaluated once, and when it is false no position is selected
+        Variable end = scope.declareVariable(int.class, "end");
+        body.append(end.set(positionCount));
+        body.append(new IfStatement()
+                .condition(and(constantFilter, greaterThan(positionCount, constantInt(0))))
+                .ifTrue(new IfStatement()
+                        .condition(invokeFilter(thisVariable, session, getBlockVariables(scope, getInputChannels(filter)), constantInt(0)))
+                        .ifFalse(end.set(constantInt(0)))));
+
+        Variable selectedCount = scope.declareVariable(int.class, "selectedCount");
+        body.append(selectedCount.set(constantInt(0)));
+
+        Variable position = scope.declareVariable(int.class, "position");
+        ByteCodeBlock selected = new ByteCodeBlock()
+                .incrementVariable(selectedCount, (byte) 1);
+        for (int projectionIndex = 0; projectionIndex < projections.size(); projectionIndex++) {
+            selected.append(new IfStatement()
+                    .condition(constantProjections.get(projectionIndex))
+                    .ifFalse(invokeProject(thisVariable, session, getBlockVariables(scope, getInputChannels(projections.get(projectionIndex))), projectionIndex, position, outputBuilders.get(projectionIndex))));
+        }
+
+        body.append(new ForLoop()
+                .initialize(position.set(constantInt(0)))
+                .condition(lessThan(position, end))
+                .update(incrementVariable(position, (byte) 1))
+                .body(new IfStatement()
+                        .condition(or(constantFilter, invokeFilter(thisVariable, session, getBlockVariables(scope, getInputChannels(filter)), position)))
+                        .ifTrue(selected)));
+
+        // evaluate the constant projections once and build the output blocks
+        Variable blocks = scope.declareVariable(Block[].class, "blocks");
+        body.push(projections.size())
+                .newArray(Block.class)
+                .putVariable(blocks);
+
+        for (int projectionIndex = 0; projectionIndex < projections.size(); projectionIndex++) {
+            Variable outputBuilder = outputBuilders.get(projectionIndex);
+
+            IfStatement buildBlock = new IfStatement()
+                    .condition(and(constantProjections.get(projectionIndex), greaterThan(selectedCount, constantInt(0))));
+            buildBlock.ifTrue()
+                    .append(invokeProject(thisVariable, session, getBlockVariables(scope, getInputChannels(projections.get(projectionIndex))), projectionIndex, constantInt(0), outputBuilder))
+                    .getVariable(blocks)
+                    .push(projectionIndex)
+                    .append(newInstance(RunLengthEncodedBlock.class, outputBuilder.invoke("build", Block.class), selectedCount))
+                    .putObjectArrayElement();
+            buildBlock.ifFalse()
+                    .getVariable(blocks)
+                    .push(projectionIndex)
+                    .append(outputBuilder.invoke("build", Block.class))
+                    .putObjectArrayElement();
+            body.append(buildBlock);
+        }
+
+        body.append(newInstance(Page.class, selectedCount, blocks).ret());
+    }
+
+    private void generateHasConstantExpressionsMethod(ClassDefinition classDefinition, RowExpression filter, List<RowExpression> projections)
+    {
+        Parameter page = arg("page", Page.class);
+        MethodDefinition method = classDefinition.declareMethod(a(PUBLIC), "hasConstantExpressions", type(boolean.class), page);
+
+        ByteCodeExpression hasConstantExpressions = constantFalse();
+        for (RowExpression expression : Iterables.concat(ImmutableList.of(filter), projections)) {
+            // expressions without inputs are constant for every page, so they do not make columnar processing any cheaper
+            List<Integer> inputChannels = getInputChannels(expression);
+            if (inputChannels.isEmpty()) {
+                continue;
+            }
+
+            List<ByteCodeExpression> blocks = new ArrayList<>();
+            for (int channel : inputChannels) {
+                blocks.add(page.invoke("getBlock", Block.class, constantInt(channel)));
+            }
+            hasConstantExpressions = or(hasConstantExpressions, isConstantForPage(expression, blocks));
+        }
+
+        method.getBody().append(hasConstantExpressions.ret());
+    }
+
+    private ByteCodeExpression isConstantForPage(RowExpression expression, List<? extends ByteCodeExpression> blocks)
+    {
+        if (!isDeterministic(expression)) {
+            return constantFalse();
+        }
+
+        ByteCodeExpression constant = constantTrue();
+        for (ByteCodeExpression block : blocks) {
+            constant = and(constant, invokeStatic(CompilerOperations.class, "isRunLengthEncoded", boolean.class, block));
+        }
+        return constant;
+    }
+
+    private boolean isDeterministic(RowExpression expression)
+    {
+        for (RowExpression subExpression : Expressions.subExpressions(ImmutableList.of(expression))) {
+            if (subExpression instanceof CallExpression) {
+                // special forms such as AND or IF are not registered as functions, and are deterministic
+                FunctionInfo function = metadata.getFunctionRegistry().getExactFunction(((CallExpression) subExpression).getSignature());
+                if (function != null && !function.isDeterministic()) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private boolean isDictionaryCandidate(RowExpression expression)
+    {
+        // input references and constants are cheaper to evaluate than to look up
+        return expression instanceof CallExpression && isDeterministic(expression) && getInputChannels(expression).size() == 1;
+    }
+
+    /**
+     * Generates a method returning the result of the expression for a dictionary entry.
+     * The entry is evaluated the first time it is referenced by a processed position,
+     * so entries that are never referenced are never evaluated.
+     */
+    private void generateDictionaryMethod(ClassDefinition classDefinition, CallSiteBinder callSiteBinder, String methodName, RowExpression expression, int projectionIndex)
+    {
+        Parameter session = arg("session", ConnectorSession.class);
+        Parameter results = arg("results", DictionaryResults.class);
+        Parameter dictionary = arg("dictionary", Block.class);
+        Parameter id = arg("id", int.class);
+
+        List<Parameter> parameters = new ArrayList<>(ImmutableList.of(session, results, dictionary, id));
+        if (projectionIndex >= 0) {
+            parameters.add(arg("blockBuilder", BlockBuilder.class));
+        }
+        MethodDefinition method = classDefinition.declareMethod(a(PUBLIC), methodName, type(projectionIndex < 0 ? boolean.class : void.class), parameters);
+
+        Variable thisVariable = method.getThis();
+        ByteCodeExpression values = results.invoke("getValues", BlockBuilder.class);
+        ByteCodeExpression position = results.invoke("getPosition", int.class, id);
+
+        ByteCodeExpression evaluate;
+        if (projectionIndex < 0) {
+            evaluate = constantType(callSiteBinder, BOOLEAN).invoke(
+                    "writeBoolean",
+                    void.class,
+                    values,
+                    invokeFilter(thisVariable, session, ImmutableList.of(dictionary), id));
+        }
+        else {
+            evaluate = invokeProject(thisVariable, session, ImmutableList.of(dictionary), projectionIndex, id, values);
+        }
+
+        ByteCodeBlock body = method.getBody()
+                .append(new IfStatement()
+                        .condition(results.invoke("isComputed", boolean.class, id))
+                        .ifFalse(new ByteCodeBlock()
+                                .append(evaluate)
+                                .append(results.invoke("setComputed", void.class, id))));
+
+        if (projectionIndex < 0) {
+            body.append(constantType(callSiteBinder, BOOLEAN).invoke(
+                    "getBoolean",
+                    boolean.class,
+                    ImmutableList.of(Block.class, int.class),
+                    values,
+                    position).ret());
+        }
+        else {
+            body.append(constantType(callSiteBinder, expression.getType()).invoke(
+                    "appendTo",
+                    void.class,
+                    ImmutableList.of(Block.class, int.class, BlockBuilder.class),
+                    values,
+                    position,
+                    parameters.get(4)))
+                    .ret();
+        }
+    }
+
+    private static ByteCodeExpression invokeFilter(Variable thisVariable, Variable session, List<? extends ByteCodeExpression> blocks, ByteCodeExpression position)
+    {
+        return thisVariable.invoke(
+                "filter",
+                type(boolean.class),
+                ImmutableList.<ParameterizedType>builder()
+                        .add(type(ConnectorSession.class))
+                        .addAll(nCopies(blocks.size(), type(Block.class)))
+                        .add(type(int.class))
+                        .build(),
+                ImmutableList.<ByteCodeExpression>builder()
+                        .add(session)
+                        .addAll(blocks)
+                        .add(position)
+                        .build());
+    }
+
+    private static ByteCodeExpression invokeProject(
+            Variable thisVariable,
+            Variable session,
+            List<? extends ByteCodeExpression> blocks,
+            int projectionIndex,
+            ByteCodeExpression position,
+            ByteCodeExpression output)
+    {
+        return thisVariable.invoke(
+                "project_" + projectionIndex,
+                type(void.class),
+                ImmutableList.<ParameterizedType>builder()
+                        .add(type(ConnectorSession.class))
+                        .addAll(nCopies(blocks.size(), type(Block.class)))
+                        .add(type(int.class))
+                        .add(type(BlockBuilder.class))
+                        .build(),
+                ImmutableList.<ByteCodeExpression>builder()
+                        .add(session)
+                        .addAll(blocks)
+                        .add(position)
+                        .add(output)
+                        .build());
+    }
+
+    private static List<Variable> getBlockVariables(Scope scope, List<Integer> inputs)
+    {
+        ImmutableList.Builder<Variable> variables = ImmutableList.builder();
+        for (int channel : inputs) {
+            variables.add(scope.getVariable("block_" + channel));
+        }
+        return variables.build();
+    }
+
     private void generateFilterMethod(ClassDefinition classDefinition, CallSiteBinder callSiteBinder, RowExpression filter)
     {
         Parameter session = arg("session", ConnectorSession.class);
@@ -289,15 +665,6 @@ public class PageProcessorCompiler
         return parameters.build();
     }
 
-    private static ByteCodeNode pushBlockVariables(Scope scope, List<Integer> inputs)
-    {
-        ByteCodeBlock block = new ByteCodeBlock();
-        for (int channel : inputs) {
-            block.append(scope.getVariable("block_" + channel));
-        }
-        return block;
-    }
-
     private RowExpressionVisitor<Scope, ByteCodeNode> fieldReferenceCompiler(final CallSiteBinder callSiteBinder, final Variable positionVariable, final Variable wasNullVariable)
     {
         return new RowExpressionVisitor<Scope, ByteCodeNode>()
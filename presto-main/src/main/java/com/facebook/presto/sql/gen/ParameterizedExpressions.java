@@ -0,0 +1,172 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.sql.gen;
+
+import com.facebook.presto.sql.relational.CallExpression;
+import com.facebook.presto.sql.relational.ConstantExpression;
+import com.facebook.presto.sql.relational.InputReferenceExpression;
+import com.facebook.presto.sql.relational.RowExpression;
+import com.facebook.presto.sql.relational.RowExpressionVisitor;
+import com.google.common.collect.ImmutableList;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static com.facebook.presto.sql.relational.Signatures.IN;
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A filter and projections with their constants replaced by {@link ConstantParameter}s.
+ * Two instances are equal when the expressions only differ in the values of the lifted
+ * constants, so they can share the same generated class.
+ */
+public final class ParameterizedExpressions
+{
+    private final RowExpression filter;
+    private final List<RowExpression> projections;
+    private final List<ConstantExpression> constants;
+
+    private ParameterizedExpressions(RowExpression filter, List<RowExpression> projections, List<ConstantExpression> constants)
+    {
+        this.filter = requireNonNull(filter, "filter is null");
+        this.projections = ImmutableList.copyOf(requireNonNull(projections, "projections is null"));
+        this.constants = ImmutableList.copyOf(requireNonNull(constants, "constants is null"));
+    }
+
+    public static ParameterizedExpressions parameterize(RowExpression filter, List<RowExpression> projections)
+    {
+        ConstantLifter lifter = new ConstantLifter();
+        RowExpression parameterizedFilter = filter.accept(lifter, null);
+        ImmutableList.Builder<RowExpression> parameterizedProjections = ImmutableList.builder();
+        for (RowExpression projection : projections) {
+            parameterizedProjections.add(projection.accept(lifter, null));
+        }
+        return new ParameterizedExpressions(parameterizedFilter, parameterizedProjections.build(), lifter.getConstants());
+    }
+
+    public RowExpression getFilter()
+    {
+        return filter;
+    }
+
+    public List<RowExpression> getProjections()
+    {
+        return projections;
+    }
+
+    /**
+     * Returns the lifted constants, ordered by the index of their parameter.
+     * The constants are not part of the identity of this object.
+     */
+    public List<ConstantExpression> getConstants()
+    {
+        return constants;
+    }
+
+    public List<Object> getConstantValues()
+    {
+        ImmutableList.Builder<Object> values = ImmutableList.builder();
+        for (ConstantExpression constant : constants) {
+            values.add(constant.getValue());
+        }
+        return values.build();
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(filter, projections);
+    }
+
+    @Override
+    public boolean equals(Object obj)
+    {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        ParameterizedExpressions other = (ParameterizedExpressions) obj;
+        return Objects.equals(this.filter, other.filter) &&
+                Objects.equals(this.projections, other.projections);
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("filter", filter)
+                .add("projections", projections)
+                .toString();
+    }
+
+    private static boolean isParameterizable(ConstantExpression constant)
+    {
+        // null constants are generated differently, as they also set the null flag
+        if (constant.getValue() == null) {
+            return false;
+        }
+        Class<?> javaType = constant.getType().getJavaType();
+        return !javaType.isPrimitive() || javaType == boolean.class || javaType == long.class || javaType == double.class;
+    }
+
+    private static class ConstantLifter
+            implements RowExpressionVisitor<Void, RowExpression>
+    {
+        private final List<ConstantExpression> constants = new ArrayList<>();
+
+        public List<ConstantExpression> getConstants()
+        {
+            return constants;
+        }
+
+        @Override
+        public RowExpression visitCall(CallExpression call, Void context)
+        {
+            // the code generated for IN is specialized for the values of its constant arguments
+            boolean liftArguments = !call.getSignature().getName().equals(IN);
+
+            ImmutableList.Builder<RowExpression> arguments = ImmutableList.builder();
+            for (RowExpression argument : call.getArguments()) {
+                if (!liftArguments && argument instanceof ConstantExpression) {
+                    arguments.add(argument);
+                }
+                else {
+                    arguments.add(argument.accept(this, context));
+                }
+            }
+            return new CallExpression(call.getSignature(), call.getType(), arguments.build());
+        }
+
+        @Override
+        public RowExpression visitConstant(ConstantExpression constant, Void context)
+        {
+            if (!isParameterizable(constant)) {
+                return constant;
+            }
+            ConstantExpression parameter = new ConstantExpression(new ConstantParameter(constants.size()), constant.getType());
+            constants.add(constant);
+            return parameter;
+        }
+
+        @Override
+        public RowExpression visitInputReference(InputReferenceExpression reference, Void context)
+        {
+            return reference;
+        }
+    }
+}
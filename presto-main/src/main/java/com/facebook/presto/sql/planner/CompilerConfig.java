@@ -19,6 +19,7 @@ import io.airlift.configuration.Config;
 public class CompilerConfig
 {
     private boolean interpreterEnabled;
+    private boolean backgroundCompilationEnabled;
 
     public boolean isInterpreterEnabled()
     {
@@ -32,4 +33,17 @@ public class CompilerConfig
         this.interpreterEnabled = interpreterEnabled;
         return this;
     }
+
+    public boolean isBackgroundCompilationEnabled()
+    {
+        return backgroundCompilationEnabled;
+    }
+
+    @Config("compiler.background-compilation-enabled")
+    @Description("Evaluate filters and projections with the interpreter until they are compiled in the background")
+    public CompilerConfig setBackgroundCompilationEnabled(boolean backgroundCompilationEnabled)
+    {
+        this.backgroundCompilationEnabled = backgroundCompilationEnabled;
+        return this;
+    }
 }
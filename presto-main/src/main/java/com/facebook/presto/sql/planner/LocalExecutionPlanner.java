@@ -21,9 +21,13 @@ import com.facebook.presto.metadata.FunctionInfo;
 import com.facebook.presto.metadata.Metadata;
 import com.facebook.presto.metadata.Signature;
 import com.facebook.presto.operator.AggregationOperator.AggregationOperatorFactory;
+import com.facebook.presto.operator.BackgroundCompiledCursorProcessor;
+import com.facebook.presto.operator.BackgroundCompiledPageProcessor;
 import com.facebook.presto.operator.CursorProcessor;
 import com.facebook.presto.operator.DeleteOperator.DeleteOperatorFactory;
 import com.facebook.presto.operator.DriverFactory;
+import com.facebook.presto.operator.DynamicFilter;
+import com.facebook.presto.operator.DynamicFilterSource;
 import com.facebook.presto.operator.ExchangeClientSupplier;
 import com.facebook.presto.operator.ExchangeOperator.ExchangeOperatorFactory;
 import com.facebook.presto.operator.FilterAndProjectOperator;
@@ -77,6 +81,7 @@ import com.facebook.presto.spi.type.Type;
 import com.facebook.presto.split.MappedRecordSet;
 import com.facebook.presto.split.PageSinkManager;
 import com.facebook.presto.split.PageSourceProvider;
+import com.facebook.presto.spiller.SpillerFactory;
 import com.facebook.presto.sql.gen.ExpressionCompiler;
 import com.facebook.presto.sql.parser.SqlParser;
 import com.facebook.presto.sql.planner.PlanFragment.PlanDistribution;
@@ -93,6 +98,7 @@ import com.facebook.presto.sql.planner.plan.LimitNode;
 import com.facebook.presto.sql.planner.plan.MarkDistinctNode;
 import com.facebook.presto.sql.planner.plan.OutputNode;
 import com.facebook.presto.sql.planner.plan.PlanNode;
+import com.facebook.presto.sql.planner.plan.PlanNodeId;
 import com.facebook.presto.sql.planner.plan.PlanVisitor;
 import com.facebook.presto.sql.planner.plan.ProjectNode;
 import com.facebook.presto.sql.planner.plan.RemoteSourceNode;
@@ -130,6 +136,7 @@ import com.google.common.collect.Multimap;
 import com.google.common.collect.Ordering;
 import com.google.common.collect.SetMultimap;
 import com.google.common.primitives.Ints;
+import com.google.common.util.concurrent.ListenableFuture;
 import io.airlift.log.Logger;
 import io.airlift.slice.Slice;
 import io.airlift.units.DataSize;
@@ -147,12 +154,16 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 import static com.facebook.presto.SystemSessionProperties.getTaskAggregationConcurrency;
 import static com.facebook.presto.SystemSessionProperties.getTaskHashBuildConcurrency;
 import static com.facebook.presto.SystemSessionProperties.getTaskJoinConcurrency;
 import static com.facebook.presto.SystemSessionProperties.getTaskWriterCount;
+import static com.facebook.presto.SystemSessionProperties.isDynamicFilteringEnabled;
+import static com.facebook.presto.SystemSessionProperties.isSpillEnabled;
 import static com.facebook.presto.operator.DistinctLimitOperator.DistinctLimitOperatorFactory;
+import static com.facebook.presto.operator.DynamicFilterCollector.isSupportedType;
 import static com.facebook.presto.operator.InMemoryExchangeSourceOperator.InMemoryExchangeSourceOperatorFactory.createBroadcastDistribution;
 import static com.facebook.presto.operator.InMemoryExchangeSourceOperator.InMemoryExchangeSourceOperatorFactory.createRandomDistribution;
 import static com.facebook.presto.operator.TableCommitOperator.TableCommitOperatorFactory;
@@ -164,6 +175,7 @@ import static com.facebook.presto.spi.type.BigintType.BIGINT;
 import static com.facebook.presto.sql.analyzer.ExpressionAnalyzer.getExpressionTypes;
 import static com.facebook.presto.sql.analyzer.ExpressionAnalyzer.getExpressionTypesFromInput;
 import static com.facebook.presto.sql.planner.plan.JoinNode.Type.FULL;
+import static com.facebook.presto.sql.planner.plan.JoinNode.Type.INNER;
 import static com.facebook.presto.sql.planner.plan.JoinNode.Type.RIGHT;
 import static com.facebook.presto.sql.planner.plan.TableWriterNode.CreateHandle;
 import static com.facebook.presto.sql.planner.plan.TableWriterNode.InsertHandle;
@@ -174,6 +186,7 @@ import static com.google.common.base.Functions.forMap;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.collect.Iterables.concat;
+import static io.airlift.concurrent.MoreFutures.getFutureValue;
 import static java.lang.String.format;
 import static java.util.Collections.singleton;
 import static java.util.Objects.requireNonNull;
@@ -191,9 +204,11 @@ public class LocalExecutionPlanner
     private final ExchangeClientSupplier exchangeClientSupplier;
     private final ExpressionCompiler compiler;
     private final boolean interpreterEnabled;
+    private final boolean backgroundCompilationEnabled;
     private final DataSize maxIndexMemorySize;
     private final IndexJoinLookupStats indexJoinLookupStats;
     private final DataSize maxPartialAggregationMemorySize;
+    private final SpillerFactory spillerFactory;
 
     @Inject
     public LocalExecutionPlanner(
@@ -206,7 +221,8 @@ public class LocalExecutionPlanner
             ExpressionCompiler compiler,
             IndexJoinLookupStats indexJoinLookupStats,
             CompilerConfig compilerConfig,
-            TaskManagerConfig taskManagerConfig)
+            TaskManagerConfig taskManagerConfig,
+            SpillerFactory spillerFactory)
     {
         requireNonNull(compilerConfig, "compilerConfig is null");
         this.pageSourceProvider = requireNonNull(pageSourceProvider, "pageSourceProvider is null");
@@ -219,8 +235,10 @@ public class LocalExecutionPlanner
         this.indexJoinLookupStats = requireNonNull(indexJoinLookupStats, "indexJoinLookupStats is null");
         this.maxIndexMemorySize = requireNonNull(taskManagerConfig, "taskManagerConfig is null").getMaxTaskIndexMemoryUsage();
         this.maxPartialAggregationMemorySize = taskManagerConfig.getMaxPartialAggregationMemoryUsage();
+        this.spillerFactory = requireNonNull(spillerFactory, "spillerFactory is null");
 
         interpreterEnabled = compilerConfig.isInterpreterEnabled();
+        backgroundCompilationEnabled = compilerConfig.isBackgroundCompilationEnabled();
     }
 
     public LocalExecutionPlan plan(Session session,
@@ -404,6 +422,8 @@ public class LocalExecutionPlanner
             extends PlanVisitor<LocalExecutionPlanContext, PhysicalOperation>
     {
         private final Session session;
+        // dynamic filters of the joins planned so far, by the table scan they apply to
+        private final Map<PlanNodeId, DynamicFilter> dynamicFilters = new HashMap<>();
 
         private Visitor(Session session)
         {
@@ -586,7 +606,8 @@ public class LocalExecutionPlanner
                     sortOrder,
                     node.getPreSortedOrderPrefix(),
                     new FrameInfo(frame.getType(), frame.getStartType(), frameStartChannel, frame.getEndType(), frameEndChannel),
-                    10_000);
+                    10_000,
+                    isSpillEnabled(context.getSession()) ? Optional.of(spillerFactory) : Optional.empty());
 
             return new PhysicalOperation(operatorFactory, outputMappings.build(), source);
         }
@@ -641,7 +662,8 @@ public class LocalExecutionPlanner
                     outputChannels.build(),
                     10_000,
                     orderByChannels,
-                    sortOrder.build());
+                    sortOrder.build(),
+                    isSpillEnabled(context.getSession()) ? Optional.of(spillerFactory) : Optional.empty());
 
             return new PhysicalOperation(operator, source.getLayout(), source);
         }
@@ -811,6 +833,7 @@ public class LocalExecutionPlanner
             Map<Integer, Type> sourceTypes;
             List<ColumnHandle> columns = null;
             PhysicalOperation source = null;
+            Optional<DynamicFilter> dynamicFilter = Optional.empty();
             if (sourceNode instanceof TableScanNode) {
                 TableScanNode tableScanNode = (TableScanNode) sourceNode;
 
@@ -830,6 +853,7 @@ public class LocalExecutionPlanner
 
                     channel++;
                 }
+                dynamicFilter = Optional.ofNullable(dynamicFilters.remove(tableScanNode.getId()));
             }
             else {
                 // plan source
@@ -869,8 +893,19 @@ public class LocalExecutionPlanner
 
             try {
                 if (columns != null) {
-                    CursorProcessor cursorProcessor = compiler.compileCursorProcessor(translatedFilter, translatedProjections, sourceNode.getId());
-                    PageProcessor pageProcessor = compiler.compilePageProcessor(translatedFilter, translatedProjections);
+                    CursorProcessor cursorProcessor = compileCursorProcessor(
+                            translatedFilter,
+                            translatedProjections,
+                            sourceNode.getId(),
+                            () -> new GenericCursorProcessor(
+                                    createFilterFunction(filterExpression, sourceLayout, context),
+                                    createProjectionFunctions(projectionExpressions, sourceLayout, context)));
+                    PageProcessor pageProcessor = compilePageProcessor(
+                            translatedFilter,
+                            translatedProjections,
+                            () -> new GenericPageProcessor(
+                                    createFilterFunction(filterExpression, sourceLayout, context),
+                                    createProjectionFunctions(projectionExpressions, sourceLayout, context)));
 
                     SourceOperatorFactory operatorFactory = new ScanFilterAndProjectOperator.ScanFilterAndProjectOperatorFactory(
                             context.getNextOperatorId(),
@@ -879,12 +914,18 @@ public class LocalExecutionPlanner
                             cursorProcessor,
                             pageProcessor,
                             columns,
-                            Lists.transform(rewrittenProjections, forMap(expressionTypes)));
+                            Lists.transform(rewrittenProjections, forMap(expressionTypes)),
+                            dynamicFilter);
 
                     return new PhysicalOperation(operatorFactory, outputMappings);
                 }
                 else {
-                    PageProcessor processor = compiler.compilePageProcessor(translatedFilter, translatedProjections);
+                    PageProcessor processor = compilePageProcessor(
+                            translatedFilter,
+                            translatedProjections,
+                            () -> new GenericPageProcessor(
+                                    createFilterFunction(filterExpression, sourceLayout, context),
+                                    createProjectionFunctions(projectionExpressions, sourceLayout, context)));
 
                     OperatorFactory operatorFactory = new FilterAndProjectOperator.FilterAndProjectOperatorFactory(
                             context.getNextOperatorId(),
@@ -903,14 +944,79 @@ public class LocalExecutionPlanner
                 log.error(e, "Compile failed for filter=%s projections=%s sourceTypes=%s error=%s", filterExpression, projectionExpressions, sourceTypes, e);
             }
 
-            FilterFunction filterFunction;
-            if (filterExpression != BooleanLiteral.TRUE_LITERAL) {
-                filterFunction = new InterpretedFilterFunction(filterExpression, context.getTypes(), sourceLayout, metadata, sqlParser, context.getSession());
+            FilterFunction filterFunction = createFilterFunction(filterExpression, sourceLayout, context);
+            List<ProjectionFunction> projectionFunctions = createProjectionFunctions(projectionExpressions, sourceLayout, context);
+
+            if (columns != null) {
+                OperatorFactory operatorFactory = new ScanFilterAndProjectOperator.ScanFilterAndProjectOperatorFactory(
+                        context.getNextOperatorId(),
+                        sourceNode.getId(),
+                        pageSourceProvider,
+                        new GenericCursorProcessor(filterFunction, projectionFunctions),
+                        new GenericPageProcessor(filterFunction, projectionFunctions),
+                        columns,
+                        toTypes(projectionFunctions),
+                        dynamicFilter);
+
+                return new PhysicalOperation(operatorFactory, outputMappings);
             }
             else {
-                filterFunction = FilterFunctions.TRUE_FUNCTION;
+                OperatorFactory operatorFactory = new FilterAndProjectOperator.FilterAndProjectOperatorFactory(
+                        context.getNextOperatorId(),
+                        new GenericPageProcessor(filterFunction, projectionFunctions),
+                        toTypes(projectionFunctions));
+                return new PhysicalOperation(operatorFactory, outputMappings, source);
+            }
+        }
+
+        private CursorProcessor compileCursorProcessor(RowExpression filter, List<RowExpression> projections, Object uniqueKey, Supplier<CursorProcessor> interpretedProcessor)
+        {
+            if (!backgroundCompilationEnabled) {
+                return compiler.compileCursorProcessor(filter, projections, uniqueKey);
+            }
+
+            ListenableFuture<CursorProcessor> compiledProcessor = compiler.compileCursorProcessorAsync(filter, projections, uniqueKey);
+            if (compiledProcessor.isDone()) {
+                return getFutureValue(compiledProcessor);
+            }
+            return new BackgroundCompiledCursorProcessor(createInterpretedProcessor(interpretedProcessor, compiledProcessor), compiledProcessor);
+        }
+
+        private PageProcessor compilePageProcessor(RowExpression filter, List<RowExpression> projections, Supplier<PageProcessor> interpretedProcessor)
+        {
+            if (!backgroundCompilationEnabled) {
+                return compiler.compilePageProcessor(filter, projections);
+            }
+
+            ListenableFuture<PageProcessor> compiledProcessor = compiler.compilePageProcessorAsync(filter, projections);
+            if (compiledProcessor.isDone()) {
+                return getFutureValue(compiledProcessor);
+            }
+            return new BackgroundCompiledPageProcessor(createInterpretedProcessor(interpretedProcessor, compiledProcessor), compiledProcessor);
+        }
+
+        private <T> T createInterpretedProcessor(Supplier<T> interpretedProcessor, ListenableFuture<T> compiledProcessor)
+        {
+            try {
+                return interpretedProcessor.get();
+            }
+            catch (RuntimeException e) {
+                // the interpreter does not support every expression, so wait for the compiler instead
+                log.debug(e, "Interpreter failed, waiting for background compilation");
+                return getFutureValue(compiledProcessor);
             }
+        }
+
+        private FilterFunction createFilterFunction(Expression filterExpression, Map<Symbol, Integer> sourceLayout, LocalExecutionPlanContext context)
+        {
+            if (filterExpression == BooleanLiteral.TRUE_LITERAL) {
+                return FilterFunctions.TRUE_FUNCTION;
+            }
+            return new InterpretedFilterFunction(filterExpression, context.getTypes(), sourceLayout, metadata, sqlParser, context.getSession());
+        }
 
+        private List<ProjectionFunction> createProjectionFunctions(List<Expression> projectionExpressions, Map<Symbol, Integer> sourceLayout, LocalExecutionPlanContext context)
+        {
             List<ProjectionFunction> projectionFunctions = new ArrayList<>();
             for (Expression expression : projectionExpressions) {
                 ProjectionFunction function;
@@ -931,26 +1037,7 @@ public class LocalExecutionPlanner
                 }
                 projectionFunctions.add(function);
             }
-
-            if (columns != null) {
-                OperatorFactory operatorFactory = new ScanFilterAndProjectOperator.ScanFilterAndProjectOperatorFactory(
-                        context.getNextOperatorId(),
-                        sourceNode.getId(),
-                        pageSourceProvider,
-                        new GenericCursorProcessor(filterFunction, projectionFunctions),
-                        new GenericPageProcessor(filterFunction, projectionFunctions),
-                        columns,
-                        toTypes(projectionFunctions));
-
-                return new PhysicalOperation(operatorFactory, outputMappings);
-            }
-            else {
-                OperatorFactory operatorFactory = new FilterAndProjectOperator.FilterAndProjectOperatorFactory(
-                        context.getNextOperatorId(),
-                        new GenericPageProcessor(filterFunction, projectionFunctions),
-                        toTypes(projectionFunctions));
-                return new PhysicalOperation(operatorFactory, outputMappings, source);
-            }
+            return projectionFunctions;
         }
 
         private RowExpression toRowExpression(Expression expression, IdentityHashMap<Expression, Type> types)
@@ -971,6 +1058,14 @@ public class LocalExecutionPlanner
         @Override
         public PhysicalOperation visitTableScan(TableScanNode node, LocalExecutionPlanContext context)
         {
+            if (dynamicFilters.containsKey(node.getId())) {
+                // only the scan, filter and project operator supports dynamic filters
+                List<Expression> projections = node.getOutputSymbols().stream()
+                        .map(Symbol::toQualifiedNameReference)
+                        .collect(toImmutableList());
+                return visitScanFilterAndProject(context, node, BooleanLiteral.TRUE_LITERAL, projections, node.getOutputSymbols());
+            }
+
             List<ColumnHandle> columns = new ArrayList<>();
             for (Symbol symbol : node.getOutputSymbols()) {
                 columns.add(node.getAssignments().get(symbol));
@@ -1270,6 +1365,17 @@ public class LocalExecutionPlanner
                 Optional<Symbol> buildHashSymbol,
                 LocalExecutionPlanContext context)
         {
+            int hashBuildConcurrency = getTaskHashBuildConcurrency(session);
+            // a spilled build side is joined partition by partition, which does not work for outer joins on the build side
+            boolean spillBuild = !isBuildOuter(node) && isSpillEnabled(session);
+            boolean parallelBuild = !isBuildOuter(node) && hashBuildConcurrency > 1 && !spillBuild;
+
+            // Probe rows without a match are only dropped for inner and right joins, so only those can be dynamically filtered
+            Optional<DynamicFilterSource> dynamicFilterSource = Optional.empty();
+            if (!parallelBuild && (node.getType() == INNER || node.getType() == RIGHT) && isDynamicFilteringEnabled(session)) {
+                dynamicFilterSource = createDynamicFilter(probeNode, probeSymbols, context);
+            }
+
             // Plan probe and introduce a projection to put all fields from the probe side into a single channel if necessary
             PhysicalOperation probeSource;
             LocalExecutionPlanContext parallelParentContext = null;
@@ -1294,14 +1400,15 @@ public class LocalExecutionPlanner
             Optional<Integer> buildHashChannel = buildHashSymbol.map(channelGetter(buildSource));
 
             LookupSourceSupplier lookupSourceSupplier;
-            int hashBuildConcurrency = getTaskHashBuildConcurrency(session);
-            if (isBuildOuter(node) || hashBuildConcurrency <= 1) {
+            if (!parallelBuild) {
                 HashBuilderOperatorFactory hashBuilderOperatorFactory = new HashBuilderOperatorFactory(
                         buildContext.getNextOperatorId(),
                         buildSource.getTypes(),
                         buildChannels,
                         buildHashChannel,
-                        10_000);
+                        10_000,
+                        spillBuild ? Optional.of(spillerFactory) : Optional.empty(),
+                        dynamicFilterSource);
 
                 context.addDriverFactory(new DriverFactory(
                         buildContext.isInputDriver(),
@@ -1363,6 +1470,49 @@ public class LocalExecutionPlanner
             return operation;
         }
 
+        private Optional<DynamicFilterSource> createDynamicFilter(PlanNode probeNode, List<Symbol> probeSymbols, LocalExecutionPlanContext context)
+        {
+            // The filter is applied by the scan, filter and project operator, so the probe must be
+            // a table scan folded into the join pipeline, with the join keys projected unchanged
+            List<Symbol> scanSymbols = probeSymbols;
+            PlanNode sourceNode = probeNode;
+            if (sourceNode instanceof ProjectNode) {
+                Map<Symbol, Expression> assignments = ((ProjectNode) sourceNode).getAssignments();
+                scanSymbols = new ArrayList<>();
+                for (Symbol symbol : probeSymbols) {
+                    Expression expression = assignments.get(symbol);
+                    scanSymbols.add(expression instanceof QualifiedNameReference ? Symbol.fromQualifiedName(((QualifiedNameReference) expression).getName()) : null);
+                }
+                sourceNode = ((ProjectNode) sourceNode).getSource();
+            }
+            if (sourceNode instanceof FilterNode) {
+                sourceNode = ((FilterNode) sourceNode).getSource();
+            }
+            if (!(sourceNode instanceof TableScanNode)) {
+                return Optional.empty();
+            }
+            TableScanNode tableScanNode = (TableScanNode) sourceNode;
+
+            List<Type> joinKeyTypes = new ArrayList<>();
+            Map<Integer, Integer> scanChannels = new HashMap<>();
+            for (int key = 0; key < probeSymbols.size(); key++) {
+                Type type = context.getTypes().get(probeSymbols.get(key));
+                joinKeyTypes.add(type);
+
+                int channel = tableScanNode.getOutputSymbols().indexOf(scanSymbols.get(key));
+                if (channel >= 0 && isSupportedType(type) && !scanChannels.containsValue(channel)) {
+                    scanChannels.put(key, channel);
+                }
+            }
+            if (scanChannels.isEmpty()) {
+                return Optional.empty();
+            }
+
+            DynamicFilterSource dynamicFilterSource = new DynamicFilterSource(joinKeyTypes);
+            dynamicFilters.put(tableScanNode.getId(), dynamicFilterSource.createDynamicFilter(scanChannels));
+            return Optional.of(dynamicFilterSource);
+        }
+
         private boolean isBuildOuter(JoinNode node)
         {
             return node.getType() == RIGHT || node.getType() == FULL;
@@ -1678,6 +1828,12 @@ public class LocalExecutionPlanner
 
             Optional<Integer> hashChannel = node.getHashSymbol().map(channelGetter(source));
 
+            // partial aggregations flush their state instead of spilling it
+            Optional<SpillerFactory> aggregationSpillerFactory = Optional.empty();
+            if (node.getStep() != Step.PARTIAL && isSpillEnabled(context.getSession())) {
+                aggregationSpillerFactory = Optional.of(spillerFactory);
+            }
+
             OperatorFactory operatorFactory = new HashAggregationOperatorFactory(
                     context.getNextOperatorId(),
                     groupByTypes,
@@ -1687,7 +1843,8 @@ public class LocalExecutionPlanner
                     defaultMaskChannel,
                     hashChannel,
                     10_000,
-                    maxPartialAggregationMemorySize);
+                    maxPartialAggregationMemorySize,
+                    aggregationSpillerFactory);
 
             return new PhysicalOperation(operatorFactory, outputMappings.build(), source);
         }
@@ -88,6 +88,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalDouble;
 import java.util.Set;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -131,7 +132,11 @@ public class AddExchanges
         boolean distributedJoinEnabled = SystemSessionProperties.isDistributedJoinEnabled(session);
         boolean redistributeWrites = SystemSessionProperties.isRedistributeWrites(session);
         boolean preferStreamingOperators = SystemSessionProperties.preferStreamingOperators(session);
-        PlanWithProperties result = plan.accept(new Rewriter(symbolAllocator, idAllocator, symbolAllocator, session, distributedIndexJoins, distributedJoinEnabled, preferStreamingOperators, redistributeWrites), new Context(PreferredProperties.any(), false));
+        Optional<CardinalityEstimator> cardinalityEstimator = Optional.empty();
+        if (SystemSessionProperties.isCostBasedJoinsEnabled(session)) {
+            cardinalityEstimator = Optional.of(new CardinalityEstimator(metadata, session, types));
+        }
+        PlanWithProperties result = plan.accept(new Rewriter(symbolAllocator, idAllocator, symbolAllocator, session, distributedIndexJoins, distributedJoinEnabled, preferStreamingOperators, redistributeWrites, cardinalityEstimator), new Context(PreferredProperties.any(), false));
         return result.getNode();
     }
 
@@ -180,8 +185,9 @@ public class AddExchanges
         private final boolean distributedJoins;
         private final boolean preferStreamingOperators;
         private final boolean redistributeWrites;
+        private final Optional<CardinalityEstimator> cardinalityEstimator;
 
-        public Rewriter(SymbolAllocator allocator, PlanNodeIdAllocator idAllocator, SymbolAllocator symbolAllocator, Session session, boolean distributedIndexJoins, boolean distributedJoins, boolean preferStreamingOperators, boolean redistributeWrites)
+        public Rewriter(SymbolAllocator allocator, PlanNodeIdAllocator idAllocator, SymbolAllocator symbolAllocator, Session session, boolean distributedIndexJoins, boolean distributedJoins, boolean preferStreamingOperators, boolean redistributeWrites, Optional<CardinalityEstimator> cardinalityEstimator)
         {
             this.allocator = allocator;
             this.idAllocator = idAllocator;
@@ -191,6 +197,7 @@ public class AddExchanges
             this.distributedJoins = distributedJoins;
             this.preferStreamingOperators = preferStreamingOperators;
             this.redistributeWrites = redistributeWrites;
+            this.cardinalityEstimator = cardinalityEstimator;
         }
 
         @Override
@@ -729,9 +736,7 @@ public class AddExchanges
             PlanWithProperties left;
             PlanWithProperties right;
 
-            if (distributedJoins || node.getType() == FULL || node.getType() == RIGHT) {
-                // The implementation of full outer join only works if the data is hash partitioned. See LookupJoinOperators#buildSideOuterJoinUnvisitedPositions
-
+            if (isDistributedJoin(node)) {
                 left = node.getLeft().accept(this, context.withPreferredProperties(PreferredProperties.hashPartitioned(leftSymbols)));
                 right = node.getRight().accept(this, context.withPreferredProperties(PreferredProperties.hashPartitioned(rightSymbols)));
 
@@ -783,6 +788,23 @@ public class AddExchanges
             return new PlanWithProperties(result, deriveProperties(result, ImmutableList.of(left.getProperties(), right.getProperties())));
         }
 
+        private boolean isDistributedJoin(JoinNode node)
+        {
+            if (node.getType() == FULL || node.getType() == RIGHT) {
+                // The implementation of full outer join only works if the data is hash partitioned. See LookupJoinOperators#buildSideOuterJoinUnvisitedPositions
+                return true;
+            }
+
+            if (cardinalityEstimator.isPresent() && !node.getCriteria().isEmpty()) {
+                // broadcast the build side only if it is small enough to be replicated to every worker
+                OptionalDouble buildSize = cardinalityEstimator.get().estimateSizeInBytes(node.getRight());
+                if (buildSize.isPresent()) {
+                    return buildSize.getAsDouble() > SystemSessionProperties.getJoinMaxBroadcastTableSize(session).toBytes();
+                }
+            }
+            return distributedJoins;
+        }
+
         @Override
         public PlanWithProperties visitSemiJoin(SemiJoinNode node, Context context)
         {
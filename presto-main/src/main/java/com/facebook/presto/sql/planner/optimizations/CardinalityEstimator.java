@@ -0,0 +1,328 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.sql.planner.optimizations;
+
+import com.facebook.presto.Session;
+import com.facebook.presto.metadata.Metadata;
+import com.facebook.presto.spi.ColumnHandle;
+import com.facebook.presto.spi.Constraint;
+import com.facebook.presto.spi.Domain;
+import com.facebook.presto.spi.TupleDomain;
+import com.facebook.presto.spi.statistics.ColumnStatistics;
+import com.facebook.presto.spi.statistics.TableStatistics;
+import com.facebook.presto.spi.type.FixedWidthType;
+import com.facebook.presto.spi.type.Type;
+import com.facebook.presto.sql.planner.DomainTranslator;
+import com.facebook.presto.sql.planner.Symbol;
+import com.facebook.presto.sql.planner.plan.AggregationNode;
+import com.facebook.presto.sql.planner.plan.DistinctLimitNode;
+import com.facebook.presto.sql.planner.plan.ExchangeNode;
+import com.facebook.presto.sql.planner.plan.FilterNode;
+import com.facebook.presto.sql.planner.plan.IndexJoinNode;
+import com.facebook.presto.sql.planner.plan.JoinNode;
+import com.facebook.presto.sql.planner.plan.LimitNode;
+import com.facebook.presto.sql.planner.plan.MarkDistinctNode;
+import com.facebook.presto.sql.planner.plan.OutputNode;
+import com.facebook.presto.sql.planner.plan.PlanNode;
+import com.facebook.presto.sql.planner.plan.PlanVisitor;
+import com.facebook.presto.sql.planner.plan.ProjectNode;
+import com.facebook.presto.sql.planner.plan.RowNumberNode;
+import com.facebook.presto.sql.planner.plan.SampleNode;
+import com.facebook.presto.sql.planner.plan.SemiJoinNode;
+import com.facebook.presto.sql.planner.plan.SortNode;
+import com.facebook.presto.sql.planner.plan.TableScanNode;
+import com.facebook.presto.sql.planner.plan.TopNNode;
+import com.facebook.presto.sql.planner.plan.UnionNode;
+import com.facebook.presto.sql.planner.plan.ValuesNode;
+import com.facebook.presto.sql.planner.plan.WindowNode;
+import com.facebook.presto.sql.tree.Expression;
+import com.google.common.collect.ImmutableMap;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalDouble;
+
+import static com.facebook.presto.sql.ExpressionUtils.stripNonDeterministicConjuncts;
+import static com.facebook.presto.sql.tree.BooleanLiteral.TRUE_LITERAL;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Estimates the number of rows and the size of the output of plan nodes from the
+ * statistics of the tables they read. The estimates are rough: predicates that are
+ * not covered by column statistics are assumed to select a fixed fraction of the
+ * rows, and aggregations are assumed not to reduce the number of rows.
+ * <p>
+ * A connector that reports statistics for a column is assumed to have applied the
+ * constraint on that column to the statistics it returns.
+ */
+final class CardinalityEstimator
+{
+    static final double UNKNOWN_FILTER_SELECTIVITY = 0.5;
+    static final int VARIABLE_WIDTH_VALUE_SIZE = 32;
+
+    private final Metadata metadata;
+    private final Session session;
+    private final Map<Symbol, Type> types;
+    private final Map<PlanNode, OptionalDouble> rowCounts = new IdentityHashMap<>();
+
+    public CardinalityEstimator(Metadata metadata, Session session, Map<Symbol, Type> types)
+    {
+        this.metadata = requireNonNull(metadata, "metadata is null");
+        this.session = requireNonNull(session, "session is null");
+        this.types = ImmutableMap.copyOf(requireNonNull(types, "types is null"));
+    }
+
+    public OptionalDouble estimateRowCount(PlanNode node)
+    {
+        OptionalDouble rowCount = rowCounts.get(node);
+        if (rowCount == null) {
+            rowCount = node.accept(new Visitor(), null);
+            rowCounts.put(node, rowCount);
+        }
+        return rowCount;
+    }
+
+    public OptionalDouble estimateSizeInBytes(PlanNode node)
+    {
+        OptionalDouble rowCount = estimateRowCount(node);
+        if (!rowCount.isPresent()) {
+            return rowCount;
+        }
+
+        long rowSize = 0;
+        for (Symbol symbol : node.getOutputSymbols()) {
+            Type type = types.get(symbol);
+            if (type instanceof FixedWidthType) {
+                rowSize += ((FixedWidthType) type).getFixedSize();
+            }
+            else {
+                rowSize += VARIABLE_WIDTH_VALUE_SIZE;
+            }
+        }
+        return OptionalDouble.of(rowCount.getAsDouble() * rowSize);
+    }
+
+    private OptionalDouble estimateTableScan(TableScanNode node, Expression predicate)
+    {
+        Expression deterministicPredicate = stripNonDeterministicConjuncts(predicate);
+        DomainTranslator.ExtractionResult decomposedPredicate = DomainTranslator.fromPredicate(
+                metadata,
+                session,
+                deterministicPredicate,
+                types);
+
+        TupleDomain<ColumnHandle> constraint = decomposedPredicate.getTupleDomain()
+                .transform(node.getAssignments()::get)
+                .intersect(node.getCurrentConstraint());
+        if (constraint.isNone()) {
+            return OptionalDouble.of(0);
+        }
+
+        TableStatistics statistics = metadata.getTableStatistics(session, node.getTable(), new Constraint<>(constraint, bindings -> true));
+        if (statistics.getRowCount().isValueUnknown()) {
+            return OptionalDouble.empty();
+        }
+
+        double rowCount = statistics.getRowCount().getValue();
+        boolean unknownSelectivity = !decomposedPredicate.getRemainingExpression().equals(TRUE_LITERAL) || !deterministicPredicate.equals(predicate);
+        if (!constraint.isAll()) {
+            for (Map.Entry<ColumnHandle, Domain> entry : constraint.getDomains().entrySet()) {
+                ColumnStatistics columnStatistics = statistics.getColumnStatistics().get(entry.getKey());
+                if (columnStatistics == null || columnStatistics.getDistinctValuesCount().isValueUnknown()) {
+                    unknownSelectivity = true;
+                }
+                else if (entry.getValue().isSingleValue()) {
+                    rowCount /= Math.max(columnStatistics.getDistinctValuesCount().getValue(), 1);
+                }
+            }
+        }
+        if (unknownSelectivity) {
+            rowCount *= UNKNOWN_FILTER_SELECTIVITY;
+        }
+        return OptionalDouble.of(rowCount);
+    }
+
+    private class Visitor
+            extends PlanVisitor<Void, OptionalDouble>
+    {
+        @Override
+        protected OptionalDouble visitPlan(PlanNode node, Void context)
+        {
+            return OptionalDouble.empty();
+        }
+
+        @Override
+        public OptionalDouble visitTableScan(TableScanNode node, Void context)
+        {
+            return estimateTableScan(node, TRUE_LITERAL);
+        }
+
+        @Override
+        public OptionalDouble visitFilter(FilterNode node, Void context)
+        {
+            if (node.getSource() instanceof TableScanNode) {
+                return estimateTableScan((TableScanNode) node.getSource(), node.getPredicate());
+            }
+            return multiply(estimateRowCount(node.getSource()), UNKNOWN_FILTER_SELECTIVITY);
+        }
+
+        @Override
+        public OptionalDouble visitValues(ValuesNode node, Void context)
+        {
+            return OptionalDouble.of(node.getRows().size());
+        }
+
+        @Override
+        public OptionalDouble visitAggregation(AggregationNode node, Void context)
+        {
+            if (node.getGroupBy().isEmpty()) {
+                return OptionalDouble.of(1);
+            }
+            return estimateRowCount(node.getSource());
+        }
+
+        @Override
+        public OptionalDouble visitJoin(JoinNode node, Void context)
+        {
+            OptionalDouble left = estimateRowCount(node.getLeft());
+            OptionalDouble right = estimateRowCount(node.getRight());
+            if (!left.isPresent() || !right.isPresent()) {
+                return OptionalDouble.empty();
+            }
+
+            if (node.getCriteria().isEmpty()) {
+                return OptionalDouble.of(left.getAsDouble() * right.getAsDouble());
+            }
+            if (node.getType() == JoinNode.Type.FULL) {
+                return OptionalDouble.of(left.getAsDouble() + right.getAsDouble());
+            }
+            // assume a foreign key join: every row of the larger side matches one row of the smaller side
+            return OptionalDouble.of(Math.max(left.getAsDouble(), right.getAsDouble()));
+        }
+
+        @Override
+        public OptionalDouble visitSemiJoin(SemiJoinNode node, Void context)
+        {
+            return estimateRowCount(node.getSource());
+        }
+
+        @Override
+        public OptionalDouble visitIndexJoin(IndexJoinNode node, Void context)
+        {
+            return estimateRowCount(node.getProbeSource());
+        }
+
+        @Override
+        public OptionalDouble visitUnion(UnionNode node, Void context)
+        {
+            return sum(node.getSources());
+        }
+
+        @Override
+        public OptionalDouble visitLimit(LimitNode node, Void context)
+        {
+            return min(estimateRowCount(node.getSource()), node.getCount());
+        }
+
+        @Override
+        public OptionalDouble visitTopN(TopNNode node, Void context)
+        {
+            return min(estimateRowCount(node.getSource()), node.getCount());
+        }
+
+        @Override
+        public OptionalDouble visitDistinctLimit(DistinctLimitNode node, Void context)
+        {
+            return min(estimateRowCount(node.getSource()), node.getLimit());
+        }
+
+        @Override
+        public OptionalDouble visitSample(SampleNode node, Void context)
+        {
+            return multiply(estimateRowCount(node.getSource()), node.getSampleRatio());
+        }
+
+        @Override
+        public OptionalDouble visitProject(ProjectNode node, Void context)
+        {
+            return estimateRowCount(node.getSource());
+        }
+
+        @Override
+        public OptionalDouble visitExchange(ExchangeNode node, Void context)
+        {
+            return sum(node.getSources());
+        }
+
+        @Override
+        public OptionalDouble visitSort(SortNode node, Void context)
+        {
+            return estimateRowCount(node.getSource());
+        }
+
+        @Override
+        public OptionalDouble visitWindow(WindowNode node, Void context)
+        {
+            return estimateRowCount(node.getSource());
+        }
+
+        @Override
+        public OptionalDouble visitMarkDistinct(MarkDistinctNode node, Void context)
+        {
+            return estimateRowCount(node.getSource());
+        }
+
+        @Override
+        public OptionalDouble visitRowNumber(RowNumberNode node, Void context)
+        {
+            return estimateRowCount(node.getSource());
+        }
+
+        @Override
+        public OptionalDouble visitOutput(OutputNode node, Void context)
+        {
+            return estimateRowCount(node.getSource());
+        }
+    }
+
+    private OptionalDouble sum(List<PlanNode> nodes)
+    {
+        double rowCount = 0;
+        for (PlanNode node : nodes) {
+            OptionalDouble nodeRowCount = estimateRowCount(node);
+            if (!nodeRowCount.isPresent()) {
+                return OptionalDouble.empty();
+            }
+            rowCount += nodeRowCount.getAsDouble();
+        }
+        return OptionalDouble.of(rowCount);
+    }
+
+    private static OptionalDouble multiply(OptionalDouble rowCount, double factor)
+    {
+        if (!rowCount.isPresent()) {
+            return rowCount;
+        }
+        return OptionalDouble.of(rowCount.getAsDouble() * factor);
+    }
+
+    private static OptionalDouble min(OptionalDouble rowCount, long count)
+    {
+        if (!rowCount.isPresent()) {
+            return OptionalDouble.of(count);
+        }
+        return OptionalDouble.of(Math.min(rowCount.getAsDouble(), count));
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.sql.planner.optimizations;
+
+import com.facebook.presto.Session;
+import com.facebook.presto.metadata.Metadata;
+import com.facebook.presto.spi.type.Type;
+import com.facebook.presto.sql.planner.PlanNodeIdAllocator;
+import com.facebook.presto.sql.planner.Symbol;
+import com.facebook.presto.sql.planner.SymbolAllocator;
+import com.facebook.presto.sql.planner.plan.JoinNode;
+import com.facebook.presto.sql.planner.plan.PlanNode;
+import com.facebook.presto.sql.planner.plan.PlanRewriter;
+import com.facebook.presto.sql.planner.plan.ProjectNode;
+import com.facebook.presto.sql.tree.Expression;
+import com.facebook.presto.sql.tree.QualifiedNameReference;
+import com.google.common.collect.ImmutableMap;
+
+import java.util.Map;
+import java.util.OptionalDouble;
+
+import static com.facebook.presto.SystemSessionProperties.isCostBasedJoinsEnabled;
+import static com.facebook.presto.sql.planner.plan.JoinNode.Type.INNER;
+import static com.facebook.presto.util.ImmutableCollectors.toImmutableList;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Swaps the sides of inner joins whose right (build) side is estimated to be larger
+ * than the left (probe) side, so that the smaller input is loaded into the hash table.
+ * The order of the join outputs is restored with a projection.
+ */
+public class SwapJoinSides
+        extends PlanOptimizer
+{
+    private final Metadata metadata;
+
+    public SwapJoinSides(Metadata metadata)
+    {
+        this.metadata = requireNonNull(metadata, "metadata is null");
+    }
+
+    @Override
+    public PlanNode optimize(PlanNode plan, Session session, Map<Symbol, Type> types, SymbolAllocator symbolAllocator, PlanNodeIdAllocator idAllocator)
+    {
+        requireNonNull(plan, "plan is null");
+        requireNonNull(session, "session is null");
+        requireNonNull(types, "types is null");
+        requireNonNull(symbolAllocator, "symbolAllocator is null");
+        requireNonNull(idAllocator, "idAllocator is null");
+
+        if (!isCostBasedJoinsEnabled(session)) {
+            return plan;
+        }
+        return PlanRewriter.rewriteWith(new Rewriter(idAllocator, new CardinalityEstimator(metadata, session, types)), plan);
+    }
+
+    private static class Rewriter
+            extends PlanRewriter<Void>
+    {
+        private final PlanNodeIdAllocator idAllocator;
+        private final CardinalityEstimator estimator;
+
+        private Rewriter(PlanNodeIdAllocator idAllocator, CardinalityEstimator estimator)
+        {
+            this.idAllocator = idAllocator;
+            this.estimator = estimator;
+        }
+
+        @Override
+        public PlanNode visitJoin(JoinNode node, RewriteContext<Void> context)
+        {
+            PlanNode left = context.rewrite(node.getLeft());
+            PlanNode right = context.rewrite(node.getRight());
+
+            if (node.getType() != INNER || node.getCriteria().isEmpty() || !isLarger(right, left)) {
+                if (left == node.getLeft() && right == node.getRight()) {
+                    return node;
+                }
+                return new JoinNode(node.getId(), node.getType(), left, right, node.getCriteria(), node.getLeftHashSymbol(), node.getRightHashSymbol());
+            }
+
+            JoinNode swapped = new JoinNode(
+                    node.getId(),
+                    INNER,
+                    right,
+                    left,
+                    node.getCriteria().stream()
+                            .map(clause -> new JoinNode.EquiJoinClause(clause.getRight(), clause.getLeft()))
+                            .collect(toImmutableList()),
+                    node.getRightHashSymbol(),
+                    node.getLeftHashSymbol());
+
+            ImmutableMap.Builder<Symbol, Expression> assignments = ImmutableMap.builder();
+            for (Symbol symbol : node.getOutputSymbols()) {
+                assignments.put(symbol, new QualifiedNameReference(symbol.toQualifiedName()));
+            }
+            return new ProjectNode(idAllocator.getNextId(), swapped, assignments.build());
+        }
+
+        private boolean isLarger(PlanNode first, PlanNode second)
+        {
+            OptionalDouble firstSize = estimator.estimateSizeInBytes(first);
+            OptionalDouble secondSize = estimator.estimateSizeInBytes(second);
+            return firstSize.isPresent() && secondSize.isPresent() && firstSize.getAsDouble() > secondSize.getAsDouble();
+        }
+    }
+}
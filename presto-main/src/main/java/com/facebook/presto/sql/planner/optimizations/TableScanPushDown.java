@@ -0,0 +1,385 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.sql.planner.optimizations;
+
+import com.facebook.presto.Session;
+import com.facebook.presto.metadata.Metadata;
+import com.facebook.presto.metadata.Signature;
+import com.facebook.presto.metadata.TableHandle;
+import com.facebook.presto.spi.AggregateFunction;
+import com.facebook.presto.spi.AggregationApplicationResult;
+import com.facebook.presto.spi.ColumnHandle;
+import com.facebook.presto.spi.SortingProperty;
+import com.facebook.presto.spi.TupleDomain;
+import com.facebook.presto.spi.type.StandardTypes;
+import com.facebook.presto.spi.type.Type;
+import com.facebook.presto.sql.planner.DomainTranslator;
+import com.facebook.presto.sql.planner.PlanNodeIdAllocator;
+import com.facebook.presto.sql.planner.Symbol;
+import com.facebook.presto.sql.planner.SymbolAllocator;
+import com.facebook.presto.sql.planner.plan.AggregationNode;
+import com.facebook.presto.sql.planner.plan.FilterNode;
+import com.facebook.presto.sql.planner.plan.LimitNode;
+import com.facebook.presto.sql.planner.plan.PlanNode;
+import com.facebook.presto.sql.planner.plan.PlanRewriter;
+import com.facebook.presto.sql.planner.plan.ProjectNode;
+import com.facebook.presto.sql.planner.plan.TableScanNode;
+import com.facebook.presto.sql.planner.plan.TopNNode;
+import com.facebook.presto.sql.tree.BooleanLiteral;
+import com.facebook.presto.sql.tree.CoalesceExpression;
+import com.facebook.presto.sql.tree.Expression;
+import com.facebook.presto.sql.tree.FunctionCall;
+import com.facebook.presto.sql.tree.LongLiteral;
+import com.facebook.presto.sql.tree.QualifiedName;
+import com.facebook.presto.sql.tree.QualifiedNameReference;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.facebook.presto.SystemSessionProperties.isConnectorPushDownEnabled;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Offers limits, TopN and aggregations over a table scan, optionally with a filter
+ * in between, to the connector. The connector computes them for each split, so the
+ * limit and TopN are kept above the scan, and the aggregation is replaced with one
+ * that merges the per split results. Nothing changes when the connector declines.
+ */
+public class TableScanPushDown
+        extends PlanOptimizer
+{
+    private static final Set<String> SUPPORTED_AGGREGATIONS = ImmutableSet.of("count", "sum", "min", "max");
+
+    private final Metadata metadata;
+
+    public TableScanPushDown(Metadata metadata)
+    {
+        this.metadata = requireNonNull(metadata, "metadata is null");
+    }
+
+    @Override
+    public PlanNode optimize(PlanNode plan, Session session, Map<Symbol, Type> types, SymbolAllocator symbolAllocator, PlanNodeIdAllocator idAllocator)
+    {
+        requireNonNull(plan, "plan is null");
+        requireNonNull(session, "session is null");
+        requireNonNull(types, "types is null");
+        requireNonNull(symbolAllocator, "symbolAllocator is null");
+        requireNonNull(idAllocator, "idAllocator is null");
+
+        if (!isConnectorPushDownEnabled(session)) {
+            return plan;
+        }
+        return PlanRewriter.rewriteWith(new Rewriter(metadata, session, symbolAllocator, idAllocator), plan);
+    }
+
+    private static class Rewriter
+            extends PlanRewriter<Void>
+    {
+        private final Metadata metadata;
+        private final Session session;
+        private final SymbolAllocator symbolAllocator;
+        private final PlanNodeIdAllocator idAllocator;
+
+        private Rewriter(Metadata metadata, Session session, SymbolAllocator symbolAllocator, PlanNodeIdAllocator idAllocator)
+        {
+            this.metadata = metadata;
+            this.session = session;
+            this.symbolAllocator = symbolAllocator;
+            this.idAllocator = idAllocator;
+        }
+
+        @Override
+        public PlanNode visitLimit(LimitNode node, RewriteContext<Void> context)
+        {
+            Optional<ScanWithConstraint> scan = ScanWithConstraint.from(node.getSource(), metadata, session, symbolAllocator);
+            if (!scan.isPresent()) {
+                return context.defaultRewrite(node);
+            }
+
+            TableScanNode tableScan = scan.get().getTableScan();
+            Optional<TableHandle> table = metadata.applyLimit(session, tableScan.getTable(), scan.get().getConstraint(), node.getCount());
+            if (!table.isPresent()) {
+                return context.defaultRewrite(node);
+            }
+            return new LimitNode(node.getId(), scan.get().replaceTable(table.get()), node.getCount());
+        }
+
+        @Override
+        public PlanNode visitTopN(TopNNode node, RewriteContext<Void> context)
+        {
+            Optional<ScanWithConstraint> scan = ScanWithConstraint.from(node.getSource(), metadata, session, symbolAllocator);
+            if (!scan.isPresent()) {
+                return context.defaultRewrite(node);
+            }
+
+            TableScanNode tableScan = scan.get().getTableScan();
+            ImmutableList.Builder<SortingProperty<ColumnHandle>> orderBy = ImmutableList.builder();
+            for (Symbol symbol : node.getOrderBy()) {
+                orderBy.add(new SortingProperty<>(tableScan.getAssignments().get(symbol), node.getOrderings().get(symbol)));
+            }
+
+            Optional<TableHandle> table = metadata.applyTopN(session, tableScan.getTable(), scan.get().getConstraint(), orderBy.build(), node.getCount());
+            if (!table.isPresent()) {
+                return context.defaultRewrite(node);
+            }
+            return new TopNNode(node.getId(), scan.get().replaceTable(table.get()), node.getCount(), node.getOrderBy(), node.getOrderings(), node.isPartial());
+        }
+
+        @Override
+        public PlanNode visitAggregation(AggregationNode node, RewriteContext<Void> context)
+        {
+            if (node.getStep() != AggregationNode.Step.SINGLE ||
+                    !node.getMasks().isEmpty() ||
+                    node.getSampleWeight().isPresent() ||
+                    node.getHashSymbol().isPresent()) {
+                return context.defaultRewrite(node);
+            }
+
+            // Look through a projection that only renames columns of the scan
+            PlanNode source = node.getSource();
+            Map<Symbol, Symbol> projections = ImmutableMap.of();
+            if (source instanceof ProjectNode) {
+                projections = getIdentityProjections((ProjectNode) source);
+                source = ((ProjectNode) source).getSource();
+            }
+
+            Optional<ScanWithConstraint> scan = ScanWithConstraint.from(source, metadata, session, symbolAllocator);
+            if (!scan.isPresent()) {
+                return context.defaultRewrite(node);
+            }
+            Map<Symbol, ColumnHandle> assignments = scan.get().getTableScan().getAssignments();
+
+            ImmutableList.Builder<ColumnHandle> groupingColumns = ImmutableList.builder();
+            for (Symbol symbol : node.getGroupBy()) {
+                Optional<ColumnHandle> column = resolveColumn(symbol, projections, assignments);
+                if (!column.isPresent()) {
+                    return context.defaultRewrite(node);
+                }
+                groupingColumns.add(column.get());
+            }
+
+            ImmutableList.Builder<AggregateFunction> aggregates = ImmutableList.builder();
+            for (Map.Entry<Symbol, FunctionCall> entry : node.getAggregations().entrySet()) {
+                Optional<AggregateFunction> aggregate = toAggregateFunction(entry.getValue(), node.getFunctions().get(entry.getKey()), symbolAllocator.getTypes().get(entry.getKey()), projections, assignments);
+                if (!aggregate.isPresent()) {
+                    return context.defaultRewrite(node);
+                }
+                aggregates.add(aggregate.get());
+            }
+
+            TableScanNode tableScan = scan.get().getTableScan();
+            Optional<AggregationApplicationResult<TableHandle>> result = metadata.applyAggregation(
+                    session,
+                    tableScan.getTable(),
+                    scan.get().getConstraint(),
+                    groupingColumns.build(),
+                    aggregates.build());
+            if (!result.isPresent()) {
+                return context.defaultRewrite(node);
+            }
+
+            return mergePartialAggregations(node, tableScan, result.get());
+        }
+
+        private PlanNode mergePartialAggregations(AggregationNode node, TableScanNode tableScan, AggregationApplicationResult<TableHandle> result)
+        {
+            ImmutableList.Builder<Symbol> scanOutputs = ImmutableList.builder();
+            ImmutableMap.Builder<Symbol, ColumnHandle> scanAssignments = ImmutableMap.builder();
+            for (int i = 0; i < node.getGroupBy().size(); i++) {
+                Symbol symbol = node.getGroupBy().get(i);
+                scanOutputs.add(symbol);
+                scanAssignments.put(symbol, result.getGroupingColumns().get(i));
+            }
+
+            Map<Symbol, FunctionCall> aggregations = new LinkedHashMap<>();
+            Map<Symbol, Signature> functions = new LinkedHashMap<>();
+            Map<Symbol, Expression> countDefaults = new LinkedHashMap<>();
+            int aggregate = 0;
+            for (Map.Entry<Symbol, FunctionCall> entry : node.getAggregations().entrySet()) {
+                Symbol output = entry.getKey();
+                Signature signature = node.getFunctions().get(output);
+                Type type = symbolAllocator.getTypes().get(output);
+
+                Symbol partial = symbolAllocator.newSymbol(signature.getName(), type);
+                scanOutputs.add(partial);
+                scanAssignments.put(partial, result.getAggregateColumns().get(aggregate));
+                aggregate++;
+
+                List<Expression> arguments = ImmutableList.of(partial.toQualifiedNameReference());
+                if (signature.getName().equals("count")) {
+                    // Partial counts are merged with sum, which is null rather than zero without input
+                    Symbol merged = output;
+                    if (node.getGroupBy().isEmpty()) {
+                        merged = symbolAllocator.newSymbol("sum", type);
+                        countDefaults.put(output, new CoalesceExpression(merged.toQualifiedNameReference(), new LongLiteral("0")));
+                    }
+                    aggregations.put(merged, new FunctionCall(QualifiedName.of("sum"), arguments));
+                    functions.put(merged, new Signature("sum", StandardTypes.BIGINT, StandardTypes.BIGINT));
+                }
+                else {
+                    aggregations.put(output, new FunctionCall(entry.getValue().getName(), arguments));
+                    functions.put(output, signature);
+                }
+            }
+
+            TableScanNode scan = new TableScanNode(
+                    tableScan.getId(),
+                    result.getHandle(),
+                    scanOutputs.build(),
+                    scanAssignments.build(),
+                    Optional.empty(),
+                    TupleDomain.all(),
+                    null);
+
+            AggregationNode merge = new AggregationNode(
+                    node.getId(),
+                    scan,
+                    node.getGroupBy(),
+                    aggregations,
+                    functions,
+                    ImmutableMap.of(),
+                    AggregationNode.Step.SINGLE,
+                    Optional.empty(),
+                    node.getConfidence(),
+                    Optional.empty());
+
+            if (countDefaults.isEmpty()) {
+                return merge;
+            }
+
+            ImmutableMap.Builder<Symbol, Expression> outputs = ImmutableMap.builder();
+            for (Symbol symbol : node.getOutputSymbols()) {
+                outputs.put(symbol, countDefaults.getOrDefault(symbol, symbol.toQualifiedNameReference()));
+            }
+            return new ProjectNode(idAllocator.getNextId(), merge, outputs.build());
+        }
+
+        private static Optional<AggregateFunction> toAggregateFunction(
+                FunctionCall call,
+                Signature signature,
+                Type outputType,
+                Map<Symbol, Symbol> projections,
+                Map<Symbol, ColumnHandle> assignments)
+        {
+            if (call.isDistinct() || call.getWindow().isPresent() || !SUPPORTED_AGGREGATIONS.contains(signature.getName())) {
+                return Optional.empty();
+            }
+
+            List<Expression> arguments = call.getArguments();
+            if (arguments.isEmpty()) {
+                if (!signature.getName().equals("count")) {
+                    return Optional.empty();
+                }
+                return Optional.of(new AggregateFunction("count", outputType, Optional.empty()));
+            }
+            if (arguments.size() != 1 || !(arguments.get(0) instanceof QualifiedNameReference)) {
+                return Optional.empty();
+            }
+
+            Symbol argument = Symbol.fromQualifiedName(((QualifiedNameReference) arguments.get(0)).getName());
+            Optional<ColumnHandle> column = resolveColumn(argument, projections, assignments);
+            if (!column.isPresent()) {
+                return Optional.empty();
+            }
+            return Optional.of(new AggregateFunction(signature.getName(), outputType, column));
+        }
+
+        private static Optional<ColumnHandle> resolveColumn(Symbol symbol, Map<Symbol, Symbol> projections, Map<Symbol, ColumnHandle> assignments)
+        {
+            return Optional.ofNullable(assignments.get(projections.getOrDefault(symbol, symbol)));
+        }
+
+        private static Map<Symbol, Symbol> getIdentityProjections(ProjectNode node)
+        {
+            ImmutableMap.Builder<Symbol, Symbol> projections = ImmutableMap.builder();
+            for (Map.Entry<Symbol, Expression> entry : node.getAssignments().entrySet()) {
+                if (entry.getValue() instanceof QualifiedNameReference) {
+                    projections.put(entry.getKey(), Symbol.fromQualifiedName(((QualifiedNameReference) entry.getValue()).getName()));
+                }
+            }
+            return projections.build();
+        }
+    }
+
+    /**
+     * A table scan without a layout, and the constraint of the filter directly above it.
+     */
+    private static class ScanWithConstraint
+    {
+        private final TableScanNode tableScan;
+        private final TupleDomain<ColumnHandle> constraint;
+        private final Expression predicate;
+
+        private ScanWithConstraint(TableScanNode tableScan, TupleDomain<ColumnHandle> constraint, Expression predicate)
+        {
+            this.tableScan = tableScan;
+            this.constraint = constraint;
+            this.predicate = predicate;
+        }
+
+        public static Optional<ScanWithConstraint> from(PlanNode node, Metadata metadata, Session session, SymbolAllocator symbolAllocator)
+        {
+            Expression predicate = BooleanLiteral.TRUE_LITERAL;
+            if (node instanceof FilterNode) {
+                predicate = ((FilterNode) node).getPredicate();
+                node = ((FilterNode) node).getSource();
+            }
+            if (!(node instanceof TableScanNode) || ((TableScanNode) node).getLayout().isPresent()) {
+                return Optional.empty();
+            }
+            TableScanNode tableScan = (TableScanNode) node;
+
+            // The connector must enforce the whole filter, since it is removed from the plan
+            DomainTranslator.ExtractionResult decomposedPredicate = DomainTranslator.fromPredicate(metadata, session, predicate, symbolAllocator.getTypes());
+            if (!BooleanLiteral.TRUE_LITERAL.equals(decomposedPredicate.getRemainingExpression())) {
+                return Optional.empty();
+            }
+            TupleDomain<ColumnHandle> constraint = decomposedPredicate.getTupleDomain()
+                    .transform(tableScan.getAssignments()::get)
+                    .intersect(tableScan.getCurrentConstraint());
+            if (constraint.isNone()) {
+                return Optional.empty();
+            }
+            return Optional.of(new ScanWithConstraint(tableScan, constraint, predicate));
+        }
+
+        public TableScanNode getTableScan()
+        {
+            return tableScan;
+        }
+
+        public TupleDomain<ColumnHandle> getConstraint()
+        {
+            return constraint;
+        }
+
+        public TableScanNode replaceTable(TableHandle table)
+        {
+            return new TableScanNode(
+                    tableScan.getId(),
+                    table,
+                    tableScan.getOutputSymbols(),
+                    tableScan.getAssignments(),
+                    Optional.empty(),
+                    TupleDomain.all(),
+                    Optional.ofNullable(tableScan.getOriginalConstraint()).orElse(predicate));
+        }
+    }
+}
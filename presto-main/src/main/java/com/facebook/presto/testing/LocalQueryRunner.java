@@ -74,6 +74,8 @@ import com.facebook.presto.spi.block.Block;
 import com.facebook.presto.spi.block.BlockBuilder;
 import com.facebook.presto.spi.block.BlockEncodingSerde;
 import com.facebook.presto.spi.type.Type;
+import com.facebook.presto.spiller.BinarySpillerFactory;
+import com.facebook.presto.spiller.SpillerConfig;
 import com.facebook.presto.split.PageSinkManager;
 import com.facebook.presto.split.PageSourceManager;
 import com.facebook.presto.split.SplitManager;
@@ -152,6 +154,7 @@ public class LocalQueryRunner
     private final PageSourceManager pageSourceManager;
     private final IndexManager indexManager;
     private final PageSinkManager pageSinkManager;
+    private final BinarySpillerFactory spillerFactory;
 
     private final ExpressionCompiler compiler;
     private final ConnectorManager connectorManager;
@@ -185,6 +188,7 @@ public class LocalQueryRunner
         this.pageSourceManager = new PageSourceManager();
 
         this.compiler = new ExpressionCompiler(metadata);
+        this.spillerFactory = new BinarySpillerFactory(blockEncodingSerde, new SpillerConfig());
 
         this.connectorManager = new ConnectorManager(
                 metadata,
@@ -236,6 +240,7 @@ public class LocalQueryRunner
     public void close()
     {
         executor.shutdownNow();
+        spillerFactory.destroy();
         connectorManager.stop();
     }
 
@@ -464,7 +469,8 @@ public class LocalQueryRunner
                 compiler,
                 new IndexJoinLookupStats(),
                 new CompilerConfig().setInterpreterEnabled(false), // make sure tests fail if compiler breaks
-                new TaskManagerConfig().setTaskDefaultConcurrency(4)
+                new TaskManagerConfig().setTaskDefaultConcurrency(4),
+                spillerFactory
         );
 
         // plan query
@@ -17,14 +17,12 @@ import com.facebook.presto.spi.block.Block;
 import com.facebook.presto.spi.block.BlockBuilder;
 import com.facebook.presto.spi.block.BlockBuilderStatus;
 import com.facebook.presto.spi.block.BlockEncoding;
-import com.google.common.primitives.Ints;
 import io.airlift.slice.DynamicSliceOutput;
 import io.airlift.slice.Slice;
 import io.airlift.slice.Slices;
 import org.testng.annotations.Test;
 
 import java.lang.reflect.Array;
-import java.util.List;
 
 import static com.facebook.presto.spi.type.BigintType.BIGINT;
 import static com.facebook.presto.spi.type.VarbinaryType.VARBINARY;
@@ -64,20 +62,24 @@ public abstract class AbstractTestBlock
         }
     }
 
-    protected <T> void assertBlockFilteredPositions(T[] expectedValues, Block block, List<Integer> positions)
+    protected <T> void assertBlockFilteredPositions(T[] expectedValues, Block block, int... positions)
     {
-        Block filteredBlock = block.copyPositions(positions);
+        // surround the positions with other entries to verify the offset is honored
+        int[] positionsArray = new int[positions.length + 2];
+        System.arraycopy(positions, 0, positionsArray, 1, positions.length);
+
+        Block filteredBlock = block.copyPositions(positionsArray, 1, positions.length);
         T[] filteredExpectedValues = filter(expectedValues, positions);
-        assertEquals(filteredBlock.getPositionCount(), positions.size());
+        assertEquals(filteredBlock.getPositionCount(), positions.length);
         assertBlock(filteredBlock, filteredExpectedValues);
     }
 
-    private static <T> T[] filter(T[] expectedValues, List<Integer> positions)
+    private static <T> T[] filter(T[] expectedValues, int[] positions)
     {
         @SuppressWarnings("unchecked")
-        T[] prunedExpectedValues = (T[]) Array.newInstance(expectedValues.getClass().getComponentType(), positions.size());
+        T[] prunedExpectedValues = (T[]) Array.newInstance(expectedValues.getClass().getComponentType(), positions.length);
         for (int i = 0; i < prunedExpectedValues.length; i++) {
-            prunedExpectedValues[i] = expectedValues[positions.get(i)];
+            prunedExpectedValues[i] = expectedValues[positions[i]];
         }
         return prunedExpectedValues;
     }
@@ -100,7 +102,7 @@ public abstract class AbstractTestBlock
         assertPositionValue(block.copyRegion(position, 1), 0, expectedValue);
         assertPositionValue(block.copyRegion(0, position + 1), position, expectedValue);
         assertPositionValue(block.copyRegion(position, block.getPositionCount() - position), 0, expectedValue);
-        assertPositionValue(block.copyPositions(Ints.asList(position)), 0, expectedValue);
+        assertPositionValue(block.copyPositions(new int[] {position}, 0, 1), 0, expectedValue);
     }
 
     protected static <T> void assertPositionValue(Block block, int position, T expectedValue)
@@ -0,0 +1,158 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.block;
+
+import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.block.BlockBuilder;
+import com.facebook.presto.spi.block.BlockBuilderStatus;
+import com.facebook.presto.spi.block.DictionaryBlock;
+import io.airlift.slice.Slices;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.VerboseMode;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
+import static io.airlift.slice.Slices.utf8Slice;
+
+@SuppressWarnings("MethodMayBeStatic")
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(2)
+@Warmup(iterations = 10, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 10, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@BenchmarkMode(Mode.AverageTime)
+public class BenchmarkCopyPositions
+{
+    private static final int POSITIONS = 1024;
+
+    @Benchmark
+    @OperationsPerInvocation(POSITIONS)
+    public Block copyPositions(BenchmarkData data)
+    {
+        return data.getBlock().copyPositions(data.getPositions(), 0, data.getPositionCount());
+    }
+
+    @SuppressWarnings("FieldMayBeFinal")
+    @State(Scope.Thread)
+    public static class BenchmarkData
+    {
+        @Param({"BIGINT", "VARCHAR", "DICTIONARY"})
+        private String encoding = "BIGINT";
+
+        @Param({"0.1", "0.5", "0.9"})
+        private double selectivity = 0.5;
+
+        private Block block;
+        private int[] positions;
+        private int positionCount;
+
+        @Setup
+        public void setup()
+        {
+            block = createBlock(encoding);
+
+            positions = new int[POSITIONS];
+            for (int position = 0; position < POSITIONS; position++) {
+                if (ThreadLocalRandom.current().nextDouble() < selectivity) {
+                    positions[positionCount] = position;
+                    positionCount++;
+                }
+            }
+        }
+
+        public Block getBlock()
+        {
+            return block;
+        }
+
+        public int[] getPositions()
+        {
+            return positions;
+        }
+
+        public int getPositionCount()
+        {
+            return positionCount;
+        }
+
+        private static Block createBlock(String encoding)
+        {
+            switch (encoding) {
+                case "BIGINT": {
+                    BlockBuilder blockBuilder = BIGINT.createBlockBuilder(new BlockBuilderStatus(), POSITIONS);
+                    for (int position = 0; position < POSITIONS; position++) {
+                        BIGINT.writeLong(blockBuilder, ThreadLocalRandom.current().nextLong());
+                    }
+                    return blockBuilder.build();
+                }
+                case "VARCHAR":
+                    return createVarcharBlock(POSITIONS);
+                case "DICTIONARY": {
+                    int[] ids = new int[POSITIONS];
+                    for (int position = 0; position < POSITIONS; position++) {
+                        ids[position] = ThreadLocalRandom.current().nextInt(100);
+                    }
+                    return new DictionaryBlock(POSITIONS, createVarcharBlock(100), Slices.wrappedIntArray(ids));
+                }
+                default:
+                    throw new IllegalArgumentException("Unsupported encoding: " + encoding);
+            }
+        }
+
+        private static Block createVarcharBlock(int positionCount)
+        {
+            BlockBuilder blockBuilder = VARCHAR.createBlockBuilder(new BlockBuilderStatus(), positionCount);
+            for (int position = 0; position < positionCount; position++) {
+                VARCHAR.writeSlice(blockBuilder, utf8Slice("value_" + ThreadLocalRandom.current().nextInt()));
+            }
+            return blockBuilder.build();
+        }
+    }
+
+    public static void main(String[] args)
+            throws RunnerException
+    {
+        // assure the benchmarks are valid before running
+        BenchmarkData data = new BenchmarkData();
+        data.setup();
+        new BenchmarkCopyPositions().copyPositions(data);
+
+        // the gc profiler reports the allocation rate per operation
+        Options options = new OptionsBuilder()
+                .verbosity(VerboseMode.NORMAL)
+                .include(".*" + BenchmarkCopyPositions.class.getSimpleName() + ".*")
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
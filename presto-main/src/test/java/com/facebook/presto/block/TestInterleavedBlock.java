@@ -18,13 +18,11 @@ import com.facebook.presto.spi.block.BlockBuilderStatus;
 import com.facebook.presto.spi.block.InterleavedBlockBuilder;
 import com.facebook.presto.spi.type.Type;
 import com.google.common.collect.ImmutableList;
-import com.google.common.primitives.Ints;
 import io.airlift.slice.Slice;
 import org.testng.annotations.Test;
 
 import java.lang.reflect.Array;
 import java.util.List;
-import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 import static com.facebook.presto.spi.type.BigintType.BIGINT;
@@ -52,9 +50,9 @@ public class TestInterleavedBlock
         Slice[] expectedValues = createExpectedValues();
         InterleavedBlockBuilder blockBuilder = createBlockBuilderWithValues(expectedValues, ImmutableList.of(VARCHAR, BIGINT));
 
-        assertBlockFilteredPositions(expectedValues, blockBuilder, Ints.asList(0, 1, 4, 5, 6, 7, 14, 15));
-        assertBlockFilteredPositions(expectedValues, blockBuilder.build(), Ints.asList(0, 1, 4, 5, 6, 7, 14, 15));
-        assertBlockFilteredPositions(expectedValues, blockBuilder.build(), Ints.asList(2, 3, 4, 5, 8, 9, 12, 13));
+        assertBlockFilteredPositions(expectedValues, blockBuilder, 0, 1, 4, 5, 6, 7, 14, 15);
+        assertBlockFilteredPositions(expectedValues, blockBuilder.build(), 0, 1, 4, 5, 6, 7, 14, 15);
+        assertBlockFilteredPositions(expectedValues, blockBuilder.build(), 2, 3, 4, 5, 8, 9, 12, 13);
     }
 
     private static InterleavedBlockBuilder createBlockBuilderWithValues(Slice[] expectedValues, List<Type> types)
@@ -117,6 +115,6 @@ public class TestInterleavedBlock
         assertPositionValue(block.copyRegion(0, position + 1), position, expectedValue);
         assertPositionValue(block.copyRegion(position, block.getPositionCount() - position), 0, expectedValue);
         int positionFloored = position / COLUMN_COUNT * COLUMN_COUNT;
-        assertPositionValue(block.copyPositions(IntStream.range(positionFloored, positionFloored + COLUMN_COUNT).boxed().collect(Collectors.toList())), position % COLUMN_COUNT, expectedValue);
+        assertPositionValue(block.copyPositions(IntStream.range(positionFloored, positionFloored + COLUMN_COUNT).toArray(), 0, COLUMN_COUNT), position % COLUMN_COUNT, expectedValue);
     }
 }
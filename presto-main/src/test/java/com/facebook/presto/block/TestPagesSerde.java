@@ -26,14 +26,19 @@ import org.testng.annotations.Test;
 
 import java.util.Iterator;
 import java.util.List;
+import java.util.Random;
 
+import static com.facebook.presto.block.PageCompression.SNAPPY;
+import static com.facebook.presto.block.PagesSerde.readCompressedPages;
 import static com.facebook.presto.block.PagesSerde.readPages;
+import static com.facebook.presto.block.PagesSerde.writeCompressedPages;
 import static com.facebook.presto.block.PagesSerde.writePages;
 import static com.facebook.presto.operator.PageAssertions.assertPageEquals;
 import static com.facebook.presto.spi.type.BigintType.BIGINT;
 import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
 
 public class TestPagesSerde
 {
@@ -62,6 +67,50 @@ public class TestPagesSerde
         assertFalse(pageIterator.hasNext());
     }
 
+    @Test
+    public void testCompressedRoundTrip()
+    {
+        BlockBuilder expectedBlockBuilder = VARCHAR.createBlockBuilder(new BlockBuilderStatus(), 1000);
+        for (int i = 0; i < 1000; i++) {
+            VARCHAR.writeString(expectedBlockBuilder, "value " + (i % 10));
+        }
+        Block expectedBlock = expectedBlockBuilder.build();
+        Page expectedPage = new Page(expectedBlock, expectedBlock);
+
+        DynamicSliceOutput sliceOutput = new DynamicSliceOutput(1024);
+        writeCompressedPages(blockEncodingManager, sliceOutput, SNAPPY, ImmutableList.of(expectedPage, expectedPage).iterator());
+
+        List<Type> types = ImmutableList.<Type>of(VARCHAR, VARCHAR);
+        PagesSerde.CompressedPagesReader pageIterator = readCompressedPages(blockEncodingManager, sliceOutput.slice().getInput());
+        assertPageEquals(types, pageIterator.next(), expectedPage);
+        assertPageEquals(types, pageIterator.next(), expectedPage);
+        assertFalse(pageIterator.hasNext());
+
+        // repetitive values compress well
+        assertTrue(pageIterator.getCompressedBytes() < pageIterator.getUncompressedBytes() / 2);
+    }
+
+    @Test
+    public void testIncompressiblePage()
+    {
+        Random random = new Random(42);
+        BlockBuilder expectedBlockBuilder = BIGINT.createBlockBuilder(new BlockBuilderStatus(), 1000);
+        for (int i = 0; i < 1000; i++) {
+            BIGINT.writeLong(expectedBlockBuilder, random.nextLong());
+        }
+        Page expectedPage = new Page(expectedBlockBuilder.build());
+
+        DynamicSliceOutput sliceOutput = new DynamicSliceOutput(1024);
+        writeCompressedPages(blockEncodingManager, sliceOutput, SNAPPY, ImmutableList.of(expectedPage).iterator());
+
+        PagesSerde.CompressedPagesReader pageIterator = readCompressedPages(blockEncodingManager, sliceOutput.slice().getInput());
+        assertPageEquals(ImmutableList.of(BIGINT), pageIterator.next(), expectedPage);
+        assertFalse(pageIterator.hasNext());
+
+        // random values do not compress, so the page is stored as is
+        assertEquals(pageIterator.getCompressedBytes(), pageIterator.getUncompressedBytes());
+    }
+
     @Test
     public void testBigintSerializedSize()
     {
@@ -14,7 +14,6 @@
 package com.facebook.presto.block;
 
 import com.facebook.presto.spi.block.SliceArrayBlock;
-import com.google.common.primitives.Ints;
 import io.airlift.slice.Slice;
 import org.testng.annotations.Test;
 
@@ -35,7 +34,7 @@ public class TestSliceArrayBlock
     {
         Slice[] expectedValues = (Slice[]) alternatingNullValues(createExpectedValues(100));
         SliceArrayBlock block = new SliceArrayBlock(expectedValues.length, expectedValues);
-        assertBlockFilteredPositions(expectedValues, block, Ints.asList(0, 2, 4, 6, 7, 9, 10, 16));
+        assertBlockFilteredPositions(expectedValues, block, 0, 2, 4, 6, 7, 9, 10, 16);
     }
 
     private void assertVariableWithValues(Slice[] expectedValues)
@@ -0,0 +1,192 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.execution;
+
+import com.facebook.presto.execution.TaskExecutor.TaskHandle;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import io.airlift.units.Duration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.VerboseMode;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.google.common.util.concurrent.Futures.immediateFuture;
+
+/**
+ * Measures how fast the task executor dispatches splits that do (almost) no work,
+ * so the time is dominated by queueing and scheduling overhead in the executor.
+ */
+@SuppressWarnings("MethodMayBeStatic")
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(2)
+@Warmup(iterations = 10, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 10, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@BenchmarkMode(Mode.AverageTime)
+public class BenchmarkTaskExecutor
+{
+    private static final int TASKS = 16;
+    private static final int SPLITS_PER_TASK = 1_000;
+    private static final int SPLITS = TASKS * SPLITS_PER_TASK;
+
+    // each split returns to the queue this many times before it finishes
+    private static final int QUANTA_PER_SPLIT = 4;
+
+    private static final AtomicLong NEXT_TASK_ID = new AtomicLong();
+
+    @Benchmark
+    @OperationsPerInvocation(SPLITS)
+    public Object dispatchSplits(BenchmarkData data)
+            throws Exception
+    {
+        return runSplits(data, false);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SPLITS)
+    public Object dispatchForcedSplits(BenchmarkData data)
+            throws Exception
+    {
+        return runSplits(data, true);
+    }
+
+    private static Object runSplits(BenchmarkData data, boolean forceStart)
+            throws Exception
+    {
+        TaskExecutor taskExecutor = data.getTaskExecutor();
+
+        ImmutableList.Builder<TaskHandle> taskHandles = ImmutableList.builder();
+        ImmutableList.Builder<ListenableFuture<?>> finishedFutures = ImmutableList.builder();
+        for (int task = 0; task < TASKS; task++) {
+            TaskHandle taskHandle = taskExecutor.addTask(new TaskId("benchmark", "0", String.valueOf(NEXT_TASK_ID.getAndIncrement())));
+            taskHandles.add(taskHandle);
+
+            ImmutableList.Builder<NoopSplitRunner> splits = ImmutableList.builder();
+            for (int split = 0; split < SPLITS_PER_TASK; split++) {
+                splits.add(new NoopSplitRunner(QUANTA_PER_SPLIT));
+            }
+            finishedFutures.addAll(taskExecutor.enqueueSplits(taskHandle, forceStart, splits.build()));
+        }
+
+        List<?> result = Futures.allAsList(finishedFutures.build()).get();
+
+        for (TaskHandle taskHandle : taskHandles.build()) {
+            taskExecutor.removeTask(taskHandle);
+        }
+        return result;
+    }
+
+    @SuppressWarnings("FieldMayBeFinal")
+    @State(Scope.Thread)
+    public static class BenchmarkData
+    {
+        @Param({"8", "32", "64"})
+        private int runnerThreads = 8;
+
+        private TaskExecutor taskExecutor;
+
+        @Setup
+        public void setup()
+        {
+            taskExecutor = new TaskExecutor(runnerThreads, runnerThreads * 2);
+            taskExecutor.start();
+        }
+
+        @TearDown
+        public void tearDown()
+        {
+            taskExecutor.stop();
+        }
+
+        public TaskExecutor getTaskExecutor()
+        {
+            return taskExecutor;
+        }
+    }
+
+    private static class NoopSplitRunner
+            implements SplitRunner
+    {
+        private int remainingQuanta;
+
+        public NoopSplitRunner(int quanta)
+        {
+            this.remainingQuanta = quanta;
+        }
+
+        @Override
+        public synchronized boolean isFinished()
+        {
+            return remainingQuanta == 0;
+        }
+
+        @Override
+        public synchronized ListenableFuture<?> processFor(Duration duration)
+        {
+            remainingQuanta--;
+            return immediateFuture(null);
+        }
+
+        @Override
+        public String getInfo()
+        {
+            return "noop";
+        }
+
+        @Override
+        public void close()
+        {
+        }
+    }
+
+    public static void main(String[] args)
+            throws Exception
+    {
+        // assure the benchmarks are valid before running
+        BenchmarkData data = new BenchmarkData();
+        data.setup();
+        try {
+            new BenchmarkTaskExecutor().dispatchSplits(data);
+            new BenchmarkTaskExecutor().dispatchForcedSplits(data);
+        }
+        finally {
+            data.tearDown();
+        }
+
+        Options options = new OptionsBuilder()
+                .verbosity(VerboseMode.NORMAL)
+                .include(".*" + BenchmarkTaskExecutor.class.getSimpleName() + ".*")
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -190,6 +190,12 @@ public class MockRemoteTaskFactory
                     failures);
         }
 
+        @Override
+        public TaskStatus getTaskStatus()
+        {
+            return TaskStatus.fromTaskInfo(getTaskInfo());
+        }
+
         public void clearSplits()
         {
             splits.clear();
@@ -237,9 +243,9 @@ public class MockRemoteTaskFactory
         }
 
         @Override
-        public CompletableFuture<TaskInfo> getStateChange(TaskInfo taskInfo)
+        public CompletableFuture<TaskStatus> getStateChange(TaskStatus taskStatus)
         {
-            return taskStateMachine.getStateChange(taskInfo.getState()).thenApply(ignored -> getTaskInfo());
+            return taskStateMachine.getStateChange(taskStatus.getState()).thenApply(ignored -> getTaskStatus());
         }
 
         @Override
@@ -24,6 +24,8 @@ import com.facebook.presto.metadata.TableHandle;
 import com.facebook.presto.operator.index.IndexJoinLookupStats;
 import com.facebook.presto.spi.TupleDomain;
 import com.facebook.presto.spi.type.Type;
+import com.facebook.presto.spiller.BinarySpillerFactory;
+import com.facebook.presto.spiller.SpillerConfig;
 import com.facebook.presto.split.PageSinkManager;
 import com.facebook.presto.split.PageSourceManager;
 import com.facebook.presto.sql.gen.ExpressionCompiler;
@@ -97,7 +99,8 @@ public final class TaskTestUtils
                 new ExpressionCompiler(metadata),
                 new IndexJoinLookupStats(),
                 new CompilerConfig(),
-                new TaskManagerConfig());
+                new TaskManagerConfig(),
+                new BinarySpillerFactory(metadata.getBlockEncodingSerde(), new SpillerConfig()));
     }
 
     public static TaskInfo updateTask(SqlTask sqlTask, List<TaskSource> taskSources, OutputBuffers outputBuffers)
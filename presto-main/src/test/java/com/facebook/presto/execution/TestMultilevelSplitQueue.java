@@ -0,0 +1,95 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.execution;
+
+import org.testng.annotations.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static java.util.concurrent.Executors.newSingleThreadExecutor;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+
+public class TestMultilevelSplitQueue
+{
+    @Test
+    public void testLowerLevelFirst()
+            throws Exception
+    {
+        MultilevelSplitQueue<String> queue = new MultilevelSplitQueue<>(3, 2);
+        queue.offer(2, 0, "level2");
+        queue.offer(1, 1, "level1-a");
+        queue.offer(1, 0, "level1-b");
+        queue.offer(0, 1, "level0");
+        assertEquals(queue.size(), 4);
+
+        assertEquals(queue.take(0), "level0");
+        assertEquals(queue.take(0), "level1-b");
+        assertEquals(queue.take(0), "level1-a");
+        assertEquals(queue.take(0), "level2");
+        assertEquals(queue.size(), 0);
+    }
+
+    @Test
+    public void testFifoWithinStripe()
+            throws Exception
+    {
+        MultilevelSplitQueue<Integer> queue = new MultilevelSplitQueue<>(1, 1);
+        for (int i = 0; i < 10; i++) {
+            queue.offer(0, 0, i);
+        }
+        for (int i = 0; i < 10; i++) {
+            assertEquals(queue.take(0), (Integer) i);
+        }
+    }
+
+    @Test
+    public void testStealFromOtherStripe()
+            throws Exception
+    {
+        MultilevelSplitQueue<String> queue = new MultilevelSplitQueue<>(1, 4);
+        queue.offer(0, 1, "other");
+        queue.offer(0, 3, "own");
+
+        assertEquals(queue.take(3), "own");
+        assertEquals(queue.take(3), "other");
+    }
+
+    @Test(timeOut = 10_000)
+    public void testTakeWaitsForElement()
+            throws Exception
+    {
+        MultilevelSplitQueue<String> queue = new MultilevelSplitQueue<>(2, 2);
+        ExecutorService executor = newSingleThreadExecutor(daemonThreadsNamed("test-%s"));
+        try {
+            CountDownLatch started = new CountDownLatch(1);
+            Future<String> element = executor.submit(() -> {
+                started.countDown();
+                return queue.take(0);
+            });
+            started.await();
+            assertFalse(element.isDone());
+
+            queue.offer(1, 1, "element");
+            assertEquals(element.get(5, TimeUnit.SECONDS), "element");
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -21,6 +21,7 @@ import com.facebook.presto.spi.ConnectorSplit;
 import com.facebook.presto.spi.HostAddress;
 import com.facebook.presto.spi.Node;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Multimap;
@@ -33,6 +34,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -236,6 +238,37 @@ public class TestNodeScheduler
         assertFalse(assignments.keySet().contains(newNode)); // No splits scheduled on the maxed out node
     }
 
+    @Test
+    public void testSchedulePreferredNode()
+            throws Exception
+    {
+        Node preferredNode = nodeManager.getActiveDatasourceNodes("foo").stream()
+                .filter(node -> node.getNodeIdentifier().equals("other2"))
+                .findFirst()
+                .get();
+
+        // the preferred node is used even though it is not among the addresses, and other nodes are less loaded
+        Set<Split> splits = new HashSet<>();
+        for (int i = 0; i < 5; i++) {
+            splits.add(new Split("foo", new TestSplitPreferred(preferredNode.getHostAndPort())));
+        }
+        Multimap<Node, Split> assignments = nodeSelector.computeAssignments(splits, taskMap.values());
+        assertEquals(assignments.keySet(), ImmutableSet.of(preferredNode));
+        assertEquals(assignments.get(preferredNode).size(), 5);
+
+        // once the preferred node is full, the splits fall back to the other candidates
+        ImmutableList.Builder<Split> initialSplits = ImmutableList.builder();
+        for (int i = 0; i < 20; i++) {
+            initialSplits.add(new Split("foo", new TestSplitRemote()));
+        }
+        MockRemoteTaskFactory remoteTaskFactory = new MockRemoteTaskFactory(remoteTaskExecutor);
+        nodeTaskMap.addTask(preferredNode, remoteTaskFactory.createTableScanTask(preferredNode, initialSplits.build()));
+
+        assignments = nodeSelector.computeAssignments(splits, taskMap.values());
+        assertEquals(assignments.size(), 5);
+        assertFalse(assignments.keySet().contains(preferredNode));
+    }
+
     @Test
     public void testTaskCompletion()
             throws Exception
@@ -250,6 +283,21 @@ public class TestNodeScheduler
         assertEquals(nodeTaskMap.getPartitionedSplitsOnNode(chosenNode), 0);
     }
 
+    @Test
+    public void testRelativeThroughput()
+    {
+        Map<String, Double> relativeThroughput = NodeScheduler.getRelativeThroughput(ImmutableMap.of("other1", 10.0, "other2", 10.0, "other3", 1.0));
+        assertEquals(relativeThroughput.get("other1"), 10.0 / 7, 0.0001);
+        assertEquals(relativeThroughput.get("other2"), 10.0 / 7, 0.0001);
+        assertEquals(relativeThroughput.get("other3"), 1.0 / 7, 0.0001);
+
+        // a stalled node keeps a minimum weight
+        relativeThroughput = NodeScheduler.getRelativeThroughput(ImmutableMap.of("other1", 100.0, "other2", 0.0));
+        assertEquals(relativeThroughput.get("other2"), 0.1, 0.0001);
+
+        assertTrue(NodeScheduler.getRelativeThroughput(ImmutableMap.of()).isEmpty());
+    }
+
     private class TestSplitLocal
             implements ConnectorSplit
     {
@@ -294,4 +342,39 @@ public class TestNodeScheduler
             return this;
         }
     }
+
+    private class TestSplitPreferred
+            implements ConnectorSplit
+    {
+        private final HostAddress preferredNode;
+
+        public TestSplitPreferred(HostAddress preferredNode)
+        {
+            this.preferredNode = preferredNode;
+        }
+
+        @Override
+        public boolean isRemotelyAccessible()
+        {
+            return true;
+        }
+
+        @Override
+        public List<HostAddress> getAddresses()
+        {
+            return ImmutableList.of(HostAddress.fromString("127.0.0.1:11"));
+        }
+
+        @Override
+        public Optional<HostAddress> getPreferredNode()
+        {
+            return Optional.of(preferredNode);
+        }
+
+        @Override
+        public Object getInfo()
+        {
+            return this;
+        }
+    }
 }
@@ -15,12 +15,16 @@ package com.facebook.presto.execution;
 
 import com.google.common.collect.ImmutableMap;
 import io.airlift.configuration.testing.ConfigAssertions;
+import io.airlift.units.DataSize;
 import io.airlift.units.Duration;
 import org.testng.annotations.Test;
 
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
+import static io.airlift.units.DataSize.Unit.GIGABYTE;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+
 public class TestQueryManagerConfig
 {
     @Test
@@ -39,7 +43,11 @@ public class TestQueryManagerConfig
                 .setRemoteTaskMinErrorDuration(new Duration(2, TimeUnit.MINUTES))
                 .setRemoteTaskMaxCallbackThreads(1000)
                 .setQueryExecutionPolicy("all-at-once")
-                .setQueryMaxRunTime(new Duration(100, TimeUnit.DAYS)));
+                .setQueryMaxRunTime(new Duration(100, TimeUnit.DAYS))
+                .setResultCacheEnabled(false)
+                .setResultCacheMaxSize(new DataSize(100, MEGABYTE))
+                .setResultCacheMaxEntrySize(new DataSize(1, MEGABYTE))
+                .setResultCacheTtl(new Duration(10, TimeUnit.MINUTES)));
     }
 
     @Test
@@ -59,6 +67,10 @@ public class TestQueryManagerConfig
                 .put("query.remote-task.max-callback-threads", "10")
                 .put("query.execution-policy", "phased")
                 .put("query.max-run-time", "2h")
+                .put("query.result-cache-enabled", "true")
+                .put("query.result-cache-max-size", "1GB")
+                .put("query.result-cache-max-entry-size", "10MB")
+                .put("query.result-cache-ttl", "1h")
                 .build();
 
         QueryManagerConfig expected = new QueryManagerConfig()
@@ -74,7 +86,11 @@ public class TestQueryManagerConfig
                 .setRemoteTaskMinErrorDuration(new Duration(30, TimeUnit.SECONDS))
                 .setRemoteTaskMaxCallbackThreads(10)
                 .setQueryExecutionPolicy("phased")
-                .setQueryMaxRunTime(new Duration(2, TimeUnit.HOURS));
+                .setQueryMaxRunTime(new Duration(2, TimeUnit.HOURS))
+                .setResultCacheEnabled(true)
+                .setResultCacheMaxSize(new DataSize(1, GIGABYTE))
+                .setResultCacheMaxEntrySize(new DataSize(10, MEGABYTE))
+                .setResultCacheTtl(new Duration(1, TimeUnit.HOURS));
 
         ConfigAssertions.assertFullMapping(properties, expected);
     }
@@ -0,0 +1,93 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.execution;
+
+import com.facebook.presto.execution.QueryResultCache.CacheKey;
+import com.facebook.presto.spi.Page;
+import com.google.common.collect.ImmutableList;
+import io.airlift.units.DataSize;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+import static com.facebook.presto.SequencePageBuilder.createSequencePage;
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.spi.type.TimeZoneKey.UTC_KEY;
+import static io.airlift.units.DataSize.Unit.BYTE;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestQueryResultCache
+{
+    private static final CacheKey KEY = new CacheKey("plan", UTC_KEY, Locale.ENGLISH, ImmutableList.of(1L));
+
+    @Test
+    public void testCacheResults()
+    {
+        QueryResultCache cache = new QueryResultCache(new QueryManagerConfig());
+        QueryId queryId = new QueryId("query");
+        Page page = createSequencePage(ImmutableList.of(BIGINT), 10);
+
+        cache.collectResults(queryId, KEY);
+        cache.addResults(queryId, ImmutableList.of(page));
+        assertFalse(cache.get(KEY).isPresent());
+
+        cache.finishResults(queryId);
+        Optional<List<Page>> results = cache.get(KEY);
+        assertTrue(results.isPresent());
+        assertEquals(results.get(), ImmutableList.of(page));
+        assertEquals(cache.getPendingResults(), 0);
+
+        // a different data version is a different entry
+        assertFalse(cache.get(new CacheKey("plan", UTC_KEY, Locale.ENGLISH, ImmutableList.of(2L))).isPresent());
+    }
+
+    @Test
+    public void testAbortResults()
+    {
+        QueryResultCache cache = new QueryResultCache(new QueryManagerConfig());
+        QueryId queryId = new QueryId("query");
+
+        cache.collectResults(queryId, KEY);
+        cache.addResults(queryId, ImmutableList.of(createSequencePage(ImmutableList.of(BIGINT), 10)));
+        cache.abortResults(queryId);
+        cache.finishResults(queryId);
+
+        assertFalse(cache.get(KEY).isPresent());
+        assertEquals(cache.getPendingResults(), 0);
+    }
+
+    @Test
+    public void testMaxEntrySize()
+    {
+        Page page = createSequencePage(ImmutableList.of(BIGINT), 10);
+        QueryResultCache cache = new QueryResultCache(new QueryManagerConfig()
+                .setResultCacheMaxEntrySize(new DataSize(page.getSizeInBytes() * 2 - 1, BYTE)));
+        QueryId queryId = new QueryId("query");
+
+        cache.collectResults(queryId, KEY);
+        cache.addResults(queryId, ImmutableList.of(page));
+        assertEquals(cache.getPendingResults(), 1);
+
+        // the results are no longer collected once they exceed the limit
+        cache.addResults(queryId, ImmutableList.of(page));
+        assertEquals(cache.getPendingResults(), 0);
+
+        cache.finishResults(queryId);
+        assertFalse(cache.get(KEY).isPresent());
+    }
+}
@@ -155,6 +155,33 @@ public class TestSqlTask
         assertEquals(taskInfo.getState(), TaskState.FINISHED);
     }
 
+    @Test
+    public void testTaskStatus()
+            throws Exception
+    {
+        SqlTask sqlTask = createInitialTask();
+
+        TaskInfo taskInfo = sqlTask.updateTask(TEST_SESSION,
+                PLAN_FRAGMENT,
+                ImmutableList.of(new TaskSource(TABLE_SCAN_NODE_ID, ImmutableSet.of(SPLIT), true)),
+                INITIAL_EMPTY_OUTPUT_BUFFERS.withBuffer(OUT, new UnpartitionedPagePartitionFunction()).withNoMoreBufferIds());
+
+        TaskStatus taskStatus = sqlTask.getTaskStatus();
+        assertEquals(taskStatus.getState(), TaskState.RUNNING);
+        assertEquals(taskStatus.getTaskId(), taskInfo.getTaskId());
+        assertEquals(taskStatus.getSelf(), taskInfo.getSelf());
+        assertTrue(taskStatus.getVersion() > taskInfo.getVersion());
+
+        // complete the task by calling abort on it
+        sqlTask.abortTaskResults(OUT);
+
+        taskStatus = sqlTask.getTaskStatus(taskStatus.getState()).get(1, SECONDS);
+        assertEquals(taskStatus.getState(), TaskState.FINISHED);
+        assertEquals(taskStatus.getOutputBufferState(), BufferState.FINISHED);
+        assertEquals(taskStatus.getQueuedPartitionedDrivers(), 0);
+        assertEquals(taskStatus.getRunningPartitionedDrivers(), 0);
+    }
+
     @Test
     public void testCancel()
             throws Exception
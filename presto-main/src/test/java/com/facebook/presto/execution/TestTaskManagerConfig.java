@@ -33,6 +33,7 @@ public class TestTaskManagerConfig
     {
         assertRecordedDefaults(recordDefaults(TaskManagerConfig.class)
                 .setInfoRefreshMaxWait(new Duration(200, TimeUnit.MILLISECONDS))
+                .setInfoUpdateInterval(new Duration(3, TimeUnit.SECONDS))
                 .setVerboseStats(false)
                 .setTaskCpuTimerEnabled(true)
                 .setMaxWorkerThreads(Runtime.getRuntime().availableProcessors() * 4)
@@ -54,6 +55,7 @@ public class TestTaskManagerConfig
     {
         Map<String, String> properties = new ImmutableMap.Builder<String, String>()
                 .put("task.info-refresh-max-wait", "1s")
+                .put("task.info-update-interval", "2s")
                 .put("task.verbose-stats", "true")
                 .put("task.cpu-timer-enabled", "false")
                 .put("task.max-index-memory", "512MB")
@@ -72,6 +74,7 @@ public class TestTaskManagerConfig
 
         TaskManagerConfig expected = new TaskManagerConfig()
                 .setInfoRefreshMaxWait(new Duration(1, TimeUnit.SECONDS))
+                .setInfoUpdateInterval(new Duration(2, TimeUnit.SECONDS))
                 .setVerboseStats(true)
                 .setTaskCpuTimerEnabled(false)
                 .setMaxTaskIndexMemoryUsage(new DataSize(512, Unit.MEGABYTE))
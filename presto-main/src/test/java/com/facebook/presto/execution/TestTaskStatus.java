@@ -0,0 +1,99 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.execution;
+
+import com.facebook.presto.execution.SharedBuffer.BufferState;
+import com.facebook.presto.operator.TaskStats;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import io.airlift.json.JsonCodec;
+import io.airlift.units.DataSize;
+import io.airlift.units.Duration;
+import org.joda.time.DateTime;
+import org.testng.annotations.Test;
+
+import java.net.URI;
+import java.util.Optional;
+
+import static io.airlift.units.DataSize.Unit.BYTE;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.testng.Assert.assertEquals;
+
+public class TestTaskStatus
+{
+    private static final JsonCodec<TaskStatus> CODEC = JsonCodec.jsonCodec(TaskStatus.class);
+
+    @Test
+    public void testFromTaskInfo()
+    {
+        TaskInfo taskInfo = new TaskInfo(
+                new TaskId("query", "stage", "task"),
+                Optional.of("node"),
+                42,
+                TaskState.RUNNING,
+                URI.create("http://localhost:8080/v1/task/query.stage.task"),
+                DateTime.now(),
+                new SharedBufferInfo(BufferState.OPEN, true, true, 0, 0, 0, 0, ImmutableList.of()),
+                ImmutableSet.of(),
+                new TaskStats(DateTime.now(), null),
+                ImmutableList.of());
+
+        TaskStatus status = TaskStatus.fromTaskInfo(taskInfo);
+        assertEquals(status.getTaskId(), taskInfo.getTaskId());
+        assertEquals(status.getNodeInstanceId(), Optional.of("node"));
+        assertEquals(status.getVersion(), 42);
+        assertEquals(status.getState(), TaskState.RUNNING);
+        assertEquals(status.getSelf(), taskInfo.getSelf());
+        assertEquals(status.getOutputBufferState(), BufferState.OPEN);
+        assertEquals(status.getQueuedPartitionedDrivers(), 0);
+        assertEquals(status.getRunningPartitionedDrivers(), 0);
+        assertEquals(status.getCompletedPartitionedDrivers(), 0);
+        assertEquals(status.getExecutionTime(), new Duration(0, MILLISECONDS));
+        assertEquals(status.getMemoryReservation(), new DataSize(0, BYTE));
+    }
+
+    @Test
+    public void testJsonRoundTrip()
+    {
+        TaskStatus expected = new TaskStatus(
+                new TaskId("query", "stage", "task"),
+                Optional.of("node"),
+                7,
+                TaskState.RUNNING,
+                URI.create("http://localhost:8080/v1/task/query.stage.task"),
+                BufferState.FLUSHING,
+                3,
+                5,
+                11,
+                new Duration(2, SECONDS),
+                new DataSize(10, MEGABYTE),
+                ImmutableList.of());
+
+        TaskStatus actual = CODEC.fromJson(CODEC.toJson(expected));
+        assertEquals(actual.getTaskId(), expected.getTaskId());
+        assertEquals(actual.getNodeInstanceId(), expected.getNodeInstanceId());
+        assertEquals(actual.getVersion(), expected.getVersion());
+        assertEquals(actual.getState(), expected.getState());
+        assertEquals(actual.getSelf(), expected.getSelf());
+        assertEquals(actual.getOutputBufferState(), expected.getOutputBufferState());
+        assertEquals(actual.getQueuedPartitionedDrivers(), 3);
+        assertEquals(actual.getRunningPartitionedDrivers(), 5);
+        assertEquals(actual.getCompletedPartitionedDrivers(), 11);
+        assertEquals(actual.getExecutionTime(), new Duration(2, SECONDS));
+        assertEquals(actual.getMemoryReservation(), new DataSize(10, MEGABYTE));
+        assertEquals(actual.getFailures(), ImmutableList.of());
+    }
+}
@@ -183,6 +183,36 @@ public class TestSourcePartitionedScheduler
         }
     }
 
+    @Test
+    public void testScheduleSplitsAdaptiveBatchSize()
+            throws Exception
+    {
+        StageExecutionPlan plan = createPlan(createFixedSplitSource(60, TestingSplit::createRemoteSplit));
+        NodeTaskMap nodeTaskMap = new NodeTaskMap();
+        SqlStageExecution stage = createSqlStageExecution(plan, nodeTaskMap);
+
+        SourcePartitionedScheduler scheduler = getSourcePartitionedScheduler(plan, stage, nodeManager, nodeTaskMap, 2, 16);
+
+        // batches double while the workers take every split, up to the maximum batch size
+        int[] expectedPartitionedSplitCounts = {2, 6, 14, 30, 46, 60};
+        for (int i = 0; i < expectedPartitionedSplitCounts.length; i++) {
+            ScheduleResult scheduleResult = scheduler.schedule();
+
+            // finishes when last split is fetched
+            assertEquals(scheduleResult.isFinished(), i == expectedPartitionedSplitCounts.length - 1);
+
+            // never blocks
+            assertTrue(scheduleResult.getBlocked().isDone());
+
+            assertPartitionedSplitCount(stage, expectedPartitionedSplitCounts[i]);
+        }
+
+        assertEquals(stage.getAllTasks().size(), 3);
+        for (RemoteTask remoteTask : stage.getAllTasks()) {
+            assertEquals(remoteTask.getPartitionedSplitCount(), 20);
+        }
+    }
+
     @Test
     public void testScheduleSplitsBlock()
             throws Exception
@@ -377,6 +407,15 @@ public class TestSourcePartitionedScheduler
             StageExecutionPlan plan,
             SqlStageExecution stage, NodeManager nodeManager, NodeTaskMap nodeTaskMap,
             int splitBatchSize)
+    {
+        return getSourcePartitionedScheduler(plan, stage, nodeManager, nodeTaskMap, splitBatchSize, splitBatchSize);
+    }
+
+    private static SourcePartitionedScheduler getSourcePartitionedScheduler(
+            StageExecutionPlan plan,
+            SqlStageExecution stage, NodeManager nodeManager, NodeTaskMap nodeTaskMap,
+            int minSplitBatchSize,
+            int maxSplitBatchSize)
     {
         NodeSchedulerConfig nodeSchedulerConfig = new NodeSchedulerConfig()
                 .setIncludeCoordinator(false)
@@ -386,7 +425,7 @@ public class TestSourcePartitionedScheduler
 
         SplitSource splitSource = plan.getDataSource().get();
         SplitPlacementPolicy placementPolicy = new SplitPlacementPolicy(nodeScheduler.createNodeSelector(splitSource.getDataSourceName()), stage::getAllTasks);
-        return new SourcePartitionedScheduler(stage, splitSource, placementPolicy, splitBatchSize);
+        return new SourcePartitionedScheduler(stage, splitSource, placementPolicy, minSplitBatchSize, maxSplitBatchSize);
     }
 
     private static StageExecutionPlan createPlan(ConnectorSplitSource splitSource)
@@ -0,0 +1,114 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator;
+
+import com.facebook.presto.spi.ConnectorSession;
+import com.facebook.presto.spi.Page;
+import com.facebook.presto.spi.PageBuilder;
+import com.facebook.presto.spi.type.Type;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.SettableFuture;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+import static com.facebook.presto.RowPagesBuilder.rowPagesBuilder;
+import static com.facebook.presto.SessionTestUtils.TEST_SESSION;
+import static com.facebook.presto.operator.FilterFunctions.TRUE_FUNCTION;
+import static com.facebook.presto.operator.ProjectionFunctions.singleColumn;
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static org.testng.Assert.assertEquals;
+
+public class TestBackgroundCompiledPageProcessor
+{
+    private static final List<Type> TYPES = ImmutableList.of(BIGINT);
+
+    @Test
+    public void testSwitchToCompiledProcessor()
+    {
+        SettableFuture<PageProcessor> compiledProcessor = SettableFuture.create();
+        PageProcessor processor = new BackgroundCompiledPageProcessor(createInterpretedProcessor(), compiledProcessor);
+        Page page = createPage();
+
+        // the interpreter evaluates the page while the processor is compiled
+        PageBuilder pageBuilder = new PageBuilder(TYPES);
+        assertEquals(processor.process(TEST_SESSION.toConnectorSession(), page, 0, page.getPositionCount(), pageBuilder), page.getPositionCount());
+        assertEquals(pageBuilder.getPositionCount(), page.getPositionCount());
+
+        CountingPageProcessor compiled = new CountingPageProcessor();
+        compiledProcessor.set(compiled);
+
+        processor.process(TEST_SESSION.toConnectorSession(), page, 0, page.getPositionCount(), new PageBuilder(TYPES));
+        processor.processColumnar(TEST_SESSION.toConnectorSession(), page, TYPES);
+        assertEquals(compiled.getCalls(), 2);
+    }
+
+    @Test
+    public void testCompilationFailure()
+    {
+        SettableFuture<PageProcessor> compiledProcessor = SettableFuture.create();
+        PageProcessor processor = new BackgroundCompiledPageProcessor(createInterpretedProcessor(), compiledProcessor);
+        compiledProcessor.setException(new RuntimeException("compilation failed"));
+
+        Page page = createPage();
+        Page output = processor.processColumnar(TEST_SESSION.toConnectorSession(), page, TYPES);
+        assertEquals(output.getPositionCount(), page.getPositionCount());
+    }
+
+    private static PageProcessor createInterpretedProcessor()
+    {
+        return new GenericPageProcessor(TRUE_FUNCTION, ImmutableList.of(singleColumn(BIGINT, 0)));
+    }
+
+    private static Page createPage()
+    {
+        return rowPagesBuilder(TYPES)
+                .row(1)
+                .row(2)
+                .row(3)
+                .build()
+                .get(0);
+    }
+
+    private static class CountingPageProcessor
+            implements PageProcessor
+    {
+        private int calls;
+
+        @Override
+        public int process(ConnectorSession session, Page page, int start, int end, PageBuilder pageBuilder)
+        {
+            calls++;
+            return end;
+        }
+
+        @Override
+        public boolean hasConstantExpressions(Page page)
+        {
+            return false;
+        }
+
+        @Override
+        public Page processColumnar(ConnectorSession session, Page page, List<? extends Type> types)
+        {
+            calls++;
+            return page;
+        }
+
+        public int getCalls()
+        {
+            return calls;
+        }
+    }
+}
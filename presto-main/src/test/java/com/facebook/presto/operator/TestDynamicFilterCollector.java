@@ -0,0 +1,87 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator;
+
+import com.facebook.presto.SequencePageBuilder;
+import com.facebook.presto.spi.Domain;
+import com.facebook.presto.spi.Page;
+import com.facebook.presto.spi.Range;
+import com.facebook.presto.spi.SortedRangeSet;
+import com.facebook.presto.spi.TupleDomain;
+import com.google.common.collect.ImmutableList;
+import io.airlift.slice.Slices;
+import org.testng.annotations.Test;
+
+import static com.facebook.presto.RowPagesBuilder.rowPagesBuilder;
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.spi.type.DoubleType.DOUBLE;
+import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestDynamicFilterCollector
+{
+    @Test
+    public void testDistinctValues()
+            throws Exception
+    {
+        DynamicFilterCollector collector = new DynamicFilterCollector(ImmutableList.of(BIGINT, VARCHAR), ImmutableList.of(0, 1));
+        for (Page page : rowPagesBuilder(BIGINT, VARCHAR)
+                .row(1, "a")
+                .row(3, "b")
+                .row(null, null)
+                .row(1, "a")
+                .build()) {
+            collector.add(page);
+        }
+
+        TupleDomain<Integer> domain = collector.build();
+        assertEquals(domain.getDomains().get(0), Domain.create(SortedRangeSet.of(Range.equal(1L), Range.equal(3L)), false));
+        assertEquals(domain.getDomains().get(1), Domain.create(SortedRangeSet.of(Range.equal(Slices.utf8Slice("a")), Range.equal(Slices.utf8Slice("b"))), false));
+    }
+
+    @Test
+    public void testRange()
+            throws Exception
+    {
+        DynamicFilterCollector collector = new DynamicFilterCollector(ImmutableList.of(BIGINT), ImmutableList.of(0));
+        collector.add(SequencePageBuilder.createSequencePage(ImmutableList.of(BIGINT), DynamicFilterCollector.MAX_DISTINCT_VALUES + 1, 100));
+
+        Domain domain = collector.build().getDomains().get(0);
+        assertEquals(domain, Domain.create(SortedRangeSet.of(Range.range(100L, true, 100L + DynamicFilterCollector.MAX_DISTINCT_VALUES, true)), false));
+    }
+
+    @Test
+    public void testOnlyNulls()
+            throws Exception
+    {
+        DynamicFilterCollector collector = new DynamicFilterCollector(ImmutableList.of(BIGINT), ImmutableList.of(0));
+        for (Page page : rowPagesBuilder(BIGINT).row((Object) null).build()) {
+            collector.add(page);
+        }
+        assertTrue(collector.build().isNone());
+    }
+
+    @Test
+    public void testUnsupportedType()
+            throws Exception
+    {
+        // -0.0 and 0.0 join, but are different values
+        assertFalse(DynamicFilterCollector.isSupportedType(DOUBLE));
+
+        DynamicFilterCollector collector = new DynamicFilterCollector(ImmutableList.of(DOUBLE), ImmutableList.of(0));
+        assertTrue(collector.build().isAll());
+    }
+}
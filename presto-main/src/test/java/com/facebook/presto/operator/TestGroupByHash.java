@@ -17,8 +17,11 @@ import com.facebook.presto.block.BlockAssertions;
 import com.facebook.presto.spi.Page;
 import com.facebook.presto.spi.PageBuilder;
 import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.block.DictionaryBlock;
+import com.facebook.presto.spi.block.RunLengthEncodedBlock;
 import com.facebook.presto.type.TypeUtils;
 import com.google.common.collect.ImmutableList;
+import io.airlift.slice.Slices;
 import org.testng.annotations.Test;
 
 import java.util.ArrayList;
@@ -226,4 +229,71 @@ public class TestGroupByHash
             assertTrue(groupByHash.contains(i, new Page(valuesBlock, hashBlock)));
         }
     }
+
+    @Test
+    public void testRunLengthEncodedKeys()
+            throws Exception
+    {
+        Block valueBlock = BlockAssertions.createLongsBlock(42);
+        Block stringValueBlock = BlockAssertions.createStringsBlock("42");
+
+        // single bigint channel
+        GroupByHash groupByHash = createGroupByHash(ImmutableList.of(BIGINT), new int[] { 0 }, Optional.<Integer>empty(), Optional.of(1), 100);
+        Page page = new Page(
+                new RunLengthEncodedBlock(valueBlock, 100),
+                new RunLengthEncodedBlock(TypeUtils.getHashBlock(ImmutableList.of(BIGINT), valueBlock), 100));
+        assertRunLengthEncodedGroupIds(groupByHash, page);
+
+        // multiple channels
+        groupByHash = createGroupByHash(ImmutableList.of(BIGINT, VARCHAR), new int[] { 0, 1 }, Optional.<Integer>empty(), Optional.of(2), 100);
+        page = new Page(
+                new RunLengthEncodedBlock(valueBlock, 100),
+                new RunLengthEncodedBlock(stringValueBlock, 100),
+                new RunLengthEncodedBlock(TypeUtils.getHashBlock(ImmutableList.of(BIGINT, VARCHAR), valueBlock, stringValueBlock), 100));
+        assertRunLengthEncodedGroupIds(groupByHash, page);
+    }
+
+    @Test
+    public void testDictionaryEncodedKeys()
+            throws Exception
+    {
+        GroupByHash groupByHash = createGroupByHash(ImmutableList.of(VARCHAR), new int[] {0}, Optional.<Integer>empty(), Optional.<Integer>empty(), 100);
+
+        int[] ids = new int[100];
+        for (int position = 0; position < ids.length; position++) {
+            ids[position] = position % 3;
+        }
+        Page page = new Page(new DictionaryBlock(ids.length, BlockAssertions.createStringsBlock("a", "b", "c"), Slices.wrappedIntArray(ids)));
+        groupByHash.addPage(page);
+        assertEquals(groupByHash.getGroupCount(), 3);
+
+        GroupByIdBlock groupIds = groupByHash.getGroupIds(page);
+        for (int position = 0; position < groupIds.getPositionCount(); position++) {
+            assertEquals(groupIds.getGroupId(position), position % 3);
+        }
+
+        // a new dictionary may contain keys seen in the previous one
+        page = new Page(new DictionaryBlock(ids.length, BlockAssertions.createStringsBlock("c", "a", "d"), Slices.wrappedIntArray(ids)));
+        groupIds = groupByHash.getGroupIds(page);
+        assertEquals(groupByHash.getGroupCount(), 4);
+        long[] expectedGroupIds = {2, 0, 3};
+        for (int position = 0; position < groupIds.getPositionCount(); position++) {
+            assertEquals(groupIds.getGroupId(position), expectedGroupIds[position % 3]);
+        }
+    }
+
+    private static void assertRunLengthEncodedGroupIds(GroupByHash groupByHash, Page page)
+    {
+        groupByHash.addPage(page);
+        assertEquals(groupByHash.getGroupCount(), 1);
+
+        GroupByIdBlock groupIds = groupByHash.getGroupIds(page);
+        assertEquals(groupByHash.getGroupCount(), 1);
+        assertEquals(groupIds.getGroupCount(), 1);
+        assertEquals(groupIds.getPositionCount(), page.getPositionCount());
+        for (int position = 0; position < groupIds.getPositionCount(); position++) {
+            assertEquals(groupIds.getGroupId(position), 0);
+        }
+        assertTrue(groupByHash.contains(0, page));
+    }
 }
@@ -24,6 +24,10 @@ import com.facebook.presto.spi.block.BlockBuilderStatus;
 import com.facebook.presto.spi.block.PageBuilderStatus;
 import com.facebook.presto.spi.type.StandardTypes;
 import com.facebook.presto.spi.type.Type;
+import com.facebook.presto.spiller.BinarySpillerFactory;
+import com.facebook.presto.spiller.PartitioningSpiller;
+import com.facebook.presto.spiller.Spiller;
+import com.facebook.presto.spiller.SpillerFactory;
 import com.facebook.presto.sql.planner.plan.AggregationNode.Step;
 import com.facebook.presto.sql.tree.QualifiedName;
 import com.facebook.presto.testing.MaterializedResult;
@@ -37,11 +41,13 @@ import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.facebook.presto.RowPagesBuilder.rowPagesBuilder;
 import static com.facebook.presto.SessionTestUtils.TEST_SESSION;
@@ -61,10 +67,13 @@ import static com.facebook.presto.spi.type.TypeSignature.parseTypeSignature;
 import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
 import static com.facebook.presto.testing.MaterializedResult.resultBuilder;
 import static com.facebook.presto.testing.TestingTaskContext.createTaskContext;
+import static com.google.common.io.Files.createTempDir;
+import static com.google.common.util.concurrent.MoreExecutors.newDirectExecutorService;
 import static io.airlift.concurrent.Threads.daemonThreadsNamed;
 import static io.airlift.slice.SizeOf.SIZE_OF_DOUBLE;
 import static io.airlift.slice.SizeOf.SIZE_OF_LONG;
 import static io.airlift.testing.Assertions.assertEqualsIgnoreOrder;
+import static io.airlift.testing.FileUtils.deleteRecursively;
 import static io.airlift.units.DataSize.Unit.MEGABYTE;
 import static java.util.concurrent.Executors.newCachedThreadPool;
 import static org.testng.Assert.assertEquals;
@@ -75,11 +84,13 @@ public class TestHashAggregationOperator
 {
     private ExecutorService executor;
     private DriverContext driverContext;
+    private File spillPath;
 
     @BeforeMethod
     public void setUp()
     {
         executor = newCachedThreadPool(daemonThreadsNamed("test-%s"));
+        spillPath = createTempDir();
 
         driverContext = createTaskContext(executor, TEST_SESSION)
                 .addPipelineContext(true, true)
@@ -96,6 +107,7 @@ public class TestHashAggregationOperator
     public void tearDown()
     {
         executor.shutdownNow();
+        deleteRecursively(spillPath);
     }
 
     @Test(dataProvider = "hashEnabledValues")
@@ -185,6 +197,67 @@ public class TestHashAggregationOperator
         toPages(operator, input);
     }
 
+    @Test(dataProvider = "hashEnabledValues")
+    public void testSpillToDisk(boolean hashEnabled)
+            throws Exception
+    {
+        List<Integer> hashChannels = Ints.asList(0);
+        RowPagesBuilder rowPagesBuilder = rowPagesBuilder(hashEnabled, hashChannels, BIGINT);
+        List<Page> input = rowPagesBuilder
+                .addSequencePage(50_000, 0)
+                .addSequencePage(50_000, 0)
+                .addSequencePage(50_000, 0)
+                .addSequencePage(50_000, 0)
+                .build();
+
+        // a single page of groups does not fit, but a single spilled partition does
+        DriverContext driverContext = createTaskContext(executor, TEST_SESSION, new DataSize(1, MEGABYTE))
+                .addPipelineContext(true, true)
+                .addDriverContext();
+
+        AtomicInteger spillerCount = new AtomicInteger();
+        SpillerFactory delegate = new BinarySpillerFactory(MetadataManager.createTestMetadataManager().getBlockEncodingSerde(), newDirectExecutorService(), spillPath.toPath());
+        SpillerFactory spillerFactory = new SpillerFactory()
+        {
+            @Override
+            public Spiller create(List<Type> types)
+            {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public PartitioningSpiller createPartitioningSpiller(List<Type> types, HashGenerator hashGenerator, int partitionCount)
+            {
+                spillerCount.incrementAndGet();
+                return delegate.createPartitioningSpiller(types, hashGenerator, partitionCount);
+            }
+        };
+
+        HashAggregationOperatorFactory operatorFactory = new HashAggregationOperatorFactory(
+                0,
+                ImmutableList.of(BIGINT),
+                hashChannels,
+                Step.SINGLE,
+                ImmutableList.of(LONG_SUM.bind(ImmutableList.of(0), Optional.empty(), Optional.empty(), 1.0)),
+                Optional.<Integer>empty(),
+                rowPagesBuilder.getHashChannel(),
+                100,
+                new DataSize(16, MEGABYTE),
+                Optional.of(spillerFactory));
+
+        Operator operator = operatorFactory.createOperator(driverContext);
+
+        MaterializedResult.Builder expected = resultBuilder(driverContext.getSession(), BIGINT, BIGINT);
+        for (int i = 0; i < 50_000; i++) {
+            expected.row((long) i, 4L * i);
+        }
+
+        assertOperatorEqualsIgnoreOrder(operator, input, expected.build(), hashEnabled, Optional.of(hashChannels.size()));
+        assertEquals(spillerCount.get(), 1);
+        operator.close();
+        assertEquals(spillPath.listFiles().length, 0);
+    }
+
     @Test(dataProvider = "hashEnabledValues")
     public void testHashBuilderResize(boolean hashEnabled)
     {
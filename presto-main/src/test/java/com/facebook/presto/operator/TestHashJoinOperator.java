@@ -19,28 +19,47 @@ import com.facebook.presto.operator.HashBuilderOperator.HashBuilderOperatorFacto
 import com.facebook.presto.operator.ValuesOperator.ValuesOperatorFactory;
 import com.facebook.presto.spi.Page;
 import com.facebook.presto.spi.type.Type;
+import com.facebook.presto.spiller.BinarySpillerFactory;
+import com.facebook.presto.spiller.SpillerFactory;
 import com.facebook.presto.testing.MaterializedResult;
 import com.facebook.presto.testing.TestingTaskContext;
 import com.google.common.collect.ImmutableList;
 import com.google.common.primitives.Ints;
+import com.google.common.util.concurrent.ListenableFuture;
 import io.airlift.units.DataSize;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
+import java.io.File;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.ExecutorService;
 
 import static com.facebook.presto.RowPagesBuilder.rowPagesBuilder;
 import static com.facebook.presto.SessionTestUtils.TEST_SESSION;
+import static com.facebook.presto.metadata.MetadataManager.createTestMetadataManager;
+import static com.facebook.presto.operator.HashBuilderOperator.SPILL_PARTITION_COUNT;
 import static com.facebook.presto.operator.OperatorAssertion.assertOperatorEquals;
+import static com.facebook.presto.operator.OperatorAssertion.toMaterializedResult;
 import static com.facebook.presto.spi.type.BigintType.BIGINT;
 import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
 import static com.google.common.collect.Iterables.concat;
+import static com.google.common.io.Files.createTempDir;
+import static com.google.common.util.concurrent.MoreExecutors.newDirectExecutorService;
+import static io.airlift.concurrent.MoreFutures.getFutureValue;
 import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static io.airlift.testing.Assertions.assertEqualsIgnoreOrder;
+import static io.airlift.testing.FileUtils.deleteRecursively;
 import static io.airlift.units.DataSize.Unit.BYTE;
+import static io.airlift.units.DataSize.Unit.KILOBYTE;
 import static java.util.concurrent.Executors.newCachedThreadPool;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
 
 @Test(singleThreaded = true)
 public class TestHashJoinOperator
@@ -48,17 +67,20 @@ public class TestHashJoinOperator
     private static final int PARTITION_COUNT = 4;
 
     private ExecutorService executor;
+    private File spillPath;
 
     @BeforeClass
     public void setUp()
     {
         executor = newCachedThreadPool(daemonThreadsNamed("test-%s"));
+        spillPath = createTempDir();
     }
 
     @AfterClass
     public void tearDown()
     {
         executor.shutdownNow();
+        deleteRecursively(spillPath);
     }
 
     @DataProvider(name = "hashEnabledValues")
@@ -435,6 +457,118 @@ public class TestHashJoinOperator
         buildHash(parallelBuild, taskContext, Ints.asList(0), buildPages);
     }
 
+    @Test
+    public void testInnerJoinWithSpill()
+            throws Exception
+    {
+        // the build side does not fit, but a single spilled partition does
+        TaskContext taskContext = TestingTaskContext.createTaskContext(executor, TEST_SESSION, new DataSize(100, KILOBYTE));
+        HashBuilderOperatorFactory hashBuilderOperatorFactory = buildSpilledHash(taskContext);
+
+        // probe
+        RowPagesBuilder probePages = rowPagesBuilder(BIGINT, BIGINT);
+        List<Page> probeInput = probePages
+                .addSequencePage(5_000, 0, 2_000_000)
+                .addSequencePage(10_000, 5_000, 2_005_000)
+                .build();
+        OperatorFactory joinOperatorFactory = LookupJoinOperators.innerJoin(
+                0,
+                hashBuilderOperatorFactory.getLookupSourceSupplier(),
+                probePages.getTypes(),
+                Ints.asList(0),
+                Optional.empty());
+        Operator joinOperator = joinOperatorFactory.createOperator(taskContext.addPipelineContext(true, true).addDriverContext());
+
+        // expected
+        MaterializedResult.Builder expected = MaterializedResult.resultBuilder(taskContext.getSession(), concat(probePages.getTypes(), hashBuilderOperatorFactory.getTypes()));
+        for (long i = 0; i < 10_000; i++) {
+            expected.row(i, 2_000_000 + i, i, 1_000_000 + i);
+        }
+
+        // the build partitions are loaded in the background, so wait whenever the join is blocked
+        ImmutableList.Builder<Page> outputPages = ImmutableList.builder();
+        Iterator<Page> input = probeInput.iterator();
+        while (!joinOperator.isFinished()) {
+            getFutureValue(joinOperator.isBlocked());
+            if (joinOperator.needsInput()) {
+                if (input.hasNext()) {
+                    joinOperator.addInput(input.next());
+                }
+                else {
+                    joinOperator.finish();
+                }
+            }
+            Page outputPage = joinOperator.getOutput();
+            if (outputPage != null) {
+                outputPages.add(outputPage);
+            }
+        }
+        MaterializedResult actual = toMaterializedResult(taskContext.getSession(), joinOperator.getTypes(), outputPages.build());
+        assertEqualsIgnoreOrder(actual.getMaterializedRows(), expected.build().getMaterializedRows());
+        assertEquals(joinOperator.getOperatorContext().getOperatorStats().getSpilledPartitions(), SPILL_PARTITION_COUNT);
+
+        // spilled partitions are removed once the last reference to the lookup source is released
+        joinOperator.close();
+        joinOperatorFactory.close();
+        assertEquals(spillPath.listFiles().length, 0);
+    }
+
+    @Test
+    public void testSpilledPartitionSharedByProbeOperators()
+            throws Exception
+    {
+        TaskContext taskContext = TestingTaskContext.createTaskContext(executor, TEST_SESSION, new DataSize(100, KILOBYTE));
+        HashBuilderOperatorFactory hashBuilderOperatorFactory = buildSpilledHash(taskContext);
+        LookupSourceSupplier lookupSourceSupplier = hashBuilderOperatorFactory.getLookupSourceSupplier();
+
+        OperatorContext operatorContext = taskContext.addPipelineContext(true, true).addDriverContext().addOperatorContext(0, "test");
+        SpilledLookupSource spilledLookupSource = (SpilledLookupSource) getFutureValue(lookupSourceSupplier.getLookupSource(operatorContext));
+        long memoryReservation = taskContext.getTaskStats().getMemoryReservation().toBytes();
+
+        // a partition acquired by several probe operators is loaded and accounted once
+        ListenableFuture<SharedLookupSource> first = spilledLookupSource.acquirePartitionLookupSource(0);
+        ListenableFuture<SharedLookupSource> second = spilledLookupSource.acquirePartitionLookupSource(0);
+        assertSame(second, first);
+        LookupSource partitionLookupSource = getFutureValue(first);
+        assertEquals(taskContext.getTaskStats().getMemoryReservation().toBytes(), memoryReservation + partitionLookupSource.getInMemorySizeInBytes());
+
+        // and freed when the last of them releases it
+        spilledLookupSource.releasePartitionLookupSource(0);
+        assertEquals(taskContext.getTaskStats().getMemoryReservation().toBytes(), memoryReservation + partitionLookupSource.getInMemorySizeInBytes());
+        spilledLookupSource.releasePartitionLookupSource(0);
+        assertEquals(taskContext.getTaskStats().getMemoryReservation().toBytes(), memoryReservation);
+
+        // a freed partition is loaded again by the next probe operator that joins it
+        ListenableFuture<SharedLookupSource> third = spilledLookupSource.acquirePartitionLookupSource(0);
+        assertNotSame(third, first);
+        assertEquals(getFutureValue(third).getInMemorySizeInBytes(), partitionLookupSource.getInMemorySizeInBytes());
+        spilledLookupSource.releasePartitionLookupSource(0);
+        assertEquals(taskContext.getTaskStats().getMemoryReservation().toBytes(), memoryReservation);
+
+        // release the reference a join operator factory would own
+        lookupSourceSupplier.release();
+        assertEquals(spillPath.listFiles().length, 0);
+    }
+
+    private HashBuilderOperatorFactory buildSpilledHash(TaskContext taskContext)
+    {
+        SpillerFactory spillerFactory = new BinarySpillerFactory(createTestMetadataManager().getBlockEncodingSerde(), newDirectExecutorService(), spillPath.toPath());
+
+        RowPagesBuilder buildPages = rowPagesBuilder(BIGINT, BIGINT)
+                .addSequencePage(10_000, 0, 1_000_000);
+        DriverContext buildDriverContext = taskContext.addPipelineContext(true, true).addDriverContext();
+        ValuesOperatorFactory valuesOperatorFactory = new ValuesOperatorFactory(0, buildPages.getTypes(), buildPages.build());
+        HashBuilderOperatorFactory hashBuilderOperatorFactory = new HashBuilderOperatorFactory(1, buildPages.getTypes(), Ints.asList(0), Optional.empty(), 100, Optional.of(spillerFactory));
+        Operator hashBuilderOperator = hashBuilderOperatorFactory.createOperator(buildDriverContext);
+        Driver driver = new Driver(buildDriverContext, valuesOperatorFactory.createOperator(buildDriverContext), hashBuilderOperator);
+        while (!driver.isFinished()) {
+            driver.process();
+        }
+        assertEquals(hashBuilderOperator.getOperatorContext().getOperatorStats().getSpilledPartitions(), SPILL_PARTITION_COUNT);
+        assertTrue(hashBuilderOperator.getOperatorContext().getOperatorStats().getSpilledDataSize().toBytes() > 0);
+        return hashBuilderOperatorFactory;
+    }
+
     private TaskContext createTaskContext()
     {
         return TestingTaskContext.createTaskContext(executor, TEST_SESSION);
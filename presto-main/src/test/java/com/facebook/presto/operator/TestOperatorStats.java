@@ -55,6 +55,8 @@ public class TestOperatorStats
 
             new DataSize(18, BYTE),
             new DataSize(19, BYTE),
+            new DataSize(20, BYTE),
+            21,
             Optional.empty(),
             "20");
 
@@ -85,6 +87,8 @@ public class TestOperatorStats
 
             new DataSize(18, BYTE),
             new DataSize(19, BYTE),
+            new DataSize(20, BYTE),
+            21,
             Optional.empty(),
             new LongMergeable(20));
 
@@ -127,6 +131,8 @@ public class TestOperatorStats
 
         Assert.assertEquals(actual.getMemoryReservation(), new DataSize(18, BYTE));
         Assert.assertEquals(actual.getSystemMemoryReservation(), new DataSize(19, BYTE));
+        Assert.assertEquals(actual.getSpilledDataSize(), new DataSize(20, BYTE));
+        Assert.assertEquals(actual.getSpilledPartitions(), 21);
         Assert.assertEquals(actual.getInfo(), "20");
     }
 
@@ -160,6 +166,8 @@ public class TestOperatorStats
         Assert.assertEquals(actual.getFinishUser(), new Duration(3 * 17, NANOSECONDS));
         Assert.assertEquals(actual.getMemoryReservation(), new DataSize(3 * 18, BYTE));
         Assert.assertEquals(actual.getSystemMemoryReservation(), new DataSize(3 * 19, BYTE));
+        Assert.assertEquals(actual.getSpilledDataSize(), new DataSize(3 * 20, BYTE));
+        Assert.assertEquals(actual.getSpilledPartitions(), 3 * 21);
         Assert.assertEquals(actual.getInfo(), null);
     }
 
@@ -193,6 +201,8 @@ public class TestOperatorStats
         Assert.assertEquals(actual.getFinishUser(), new Duration(3 * 17, NANOSECONDS));
         Assert.assertEquals(actual.getMemoryReservation(), new DataSize(3 * 18, BYTE));
         Assert.assertEquals(actual.getSystemMemoryReservation(), new DataSize(3 * 19, BYTE));
+        Assert.assertEquals(actual.getSpilledDataSize(), new DataSize(3 * 20, BYTE));
+        Assert.assertEquals(actual.getSpilledPartitions(), 3 * 21);
         Assert.assertEquals(actual.getInfo(), new LongMergeable(20 * 3));
     }
 
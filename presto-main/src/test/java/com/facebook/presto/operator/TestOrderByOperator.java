@@ -16,6 +16,8 @@ package com.facebook.presto.operator;
 import com.facebook.presto.ExceededMemoryLimitException;
 import com.facebook.presto.operator.OrderByOperator.OrderByOperatorFactory;
 import com.facebook.presto.spi.Page;
+import com.facebook.presto.spiller.BinarySpillerFactory;
+import com.facebook.presto.spiller.SpillerFactory;
 import com.facebook.presto.testing.MaterializedResult;
 import com.google.common.collect.ImmutableList;
 import io.airlift.units.DataSize;
@@ -24,11 +26,14 @@ import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.io.File;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.ExecutorService;
 
 import static com.facebook.presto.RowPagesBuilder.rowPagesBuilder;
 import static com.facebook.presto.SessionTestUtils.TEST_SESSION;
+import static com.facebook.presto.metadata.MetadataManager.createTestMetadataManager;
 import static com.facebook.presto.operator.OperatorAssertion.assertOperatorEquals;
 import static com.facebook.presto.operator.OperatorAssertion.toPages;
 import static com.facebook.presto.spi.block.SortOrder.ASC_NULLS_LAST;
@@ -38,19 +43,27 @@ import static com.facebook.presto.spi.type.DoubleType.DOUBLE;
 import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
 import static com.facebook.presto.testing.MaterializedResult.resultBuilder;
 import static com.facebook.presto.testing.TestingTaskContext.createTaskContext;
+import static com.google.common.io.Files.createTempDir;
+import static com.google.common.util.concurrent.MoreExecutors.newDirectExecutorService;
 import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static io.airlift.testing.FileUtils.deleteRecursively;
+import static io.airlift.units.DataSize.Unit.KILOBYTE;
 import static java.util.concurrent.Executors.newCachedThreadPool;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
 
 @Test(singleThreaded = true)
 public class TestOrderByOperator
 {
     private ExecutorService executor;
     private DriverContext driverContext;
+    private File spillPath;
 
     @BeforeMethod
     public void setUp()
     {
         executor = newCachedThreadPool(daemonThreadsNamed("test-%s"));
+        spillPath = createTempDir();
         driverContext = createTaskContext(executor, TEST_SESSION)
                 .addPipelineContext(true, true)
                 .addDriverContext();
@@ -60,6 +73,7 @@ public class TestOrderByOperator
     public void tearDown()
     {
         executor.shutdownNow();
+        deleteRecursively(spillPath);
     }
 
     @Test
@@ -186,4 +200,43 @@ public class TestOrderByOperator
 
         toPages(operator, input);
     }
+
+    @Test
+    public void testSpillToDisk()
+            throws Exception
+    {
+        List<Page> input = rowPagesBuilder(BIGINT, DOUBLE)
+                .addSequencePage(10_000, 30_000, 30_000)
+                .addSequencePage(10_000, 0, 0)
+                .addSequencePage(10_000, 20_000, 20_000)
+                .addSequencePage(10_000, 10_000, 10_000)
+                .build();
+
+        // a single page does not fit, so every page is spilled as a sorted run
+        DriverContext driverContext = createTaskContext(executor, TEST_SESSION, new DataSize(100, KILOBYTE))
+                .addPipelineContext(true, true)
+                .addDriverContext();
+
+        SpillerFactory spillerFactory = new BinarySpillerFactory(createTestMetadataManager().getBlockEncodingSerde(), newDirectExecutorService(), spillPath.toPath());
+        OrderByOperatorFactory operatorFactory = new OrderByOperatorFactory(
+                0,
+                ImmutableList.of(BIGINT, DOUBLE),
+                ImmutableList.of(1),
+                10,
+                ImmutableList.of(0),
+                ImmutableList.of(DESC_NULLS_LAST),
+                Optional.of(spillerFactory));
+
+        Operator operator = operatorFactory.createOperator(driverContext);
+
+        MaterializedResult.Builder expected = resultBuilder(driverContext.getSession(), DOUBLE);
+        for (int i = 39_999; i >= 0; i--) {
+            expected.row((double) i);
+        }
+
+        assertOperatorEquals(operator, input, expected.build());
+        assertTrue(operator.getOperatorContext().getOperatorStats().getSpilledDataSize().toBytes() > 0);
+        operator.close();
+        assertEquals(spillPath.listFiles().length, 0);
+    }
 }
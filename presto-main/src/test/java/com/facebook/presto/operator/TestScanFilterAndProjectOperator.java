@@ -23,24 +23,34 @@ import com.facebook.presto.spi.ConnectorPageSource;
 import com.facebook.presto.spi.FixedPageSource;
 import com.facebook.presto.spi.Page;
 import com.facebook.presto.spi.RecordPageSource;
+import com.facebook.presto.spi.TupleDomain;
 import com.facebook.presto.spi.type.Type;
 import com.facebook.presto.split.PageSourceProvider;
+import com.facebook.presto.sql.planner.TestingColumnHandle;
 import com.facebook.presto.sql.planner.plan.PlanNodeId;
 import com.facebook.presto.testing.MaterializedResult;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import org.testng.annotations.Test;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static com.facebook.presto.SessionTestUtils.TEST_SESSION;
 import static com.facebook.presto.operator.OperatorAssertion.toMaterializedResult;
 import static com.facebook.presto.operator.ProjectionFunctions.singleColumn;
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
 import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
 import static com.facebook.presto.testing.TestingTaskContext.createTaskContext;
 import static io.airlift.concurrent.Threads.daemonThreadsNamed;
 import static java.util.concurrent.Executors.newCachedThreadPool;
+import static com.facebook.presto.testing.MaterializedResult.resultBuilder;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertTrue;
 
 public class TestScanFilterAndProjectOperator
@@ -118,6 +128,95 @@ public class TestScanFilterAndProjectOperator
         assertEquals(actual, expected);
     }
 
+    @Test
+    public void testDynamicFilter()
+            throws Exception
+    {
+        final Page input = SequencePageBuilder.createSequencePage(ImmutableList.of(BIGINT), 10_000, 0);
+        DriverContext driverContext = newDriverContext();
+
+        AtomicReference<TupleDomain<ColumnHandle>> connectorDynamicFilter = new AtomicReference<>();
+        DynamicFilterSource dynamicFilterSource = new DynamicFilterSource(ImmutableList.of(BIGINT));
+        ScanFilterAndProjectOperator.ScanFilterAndProjectOperatorFactory factory = new ScanFilterAndProjectOperator.ScanFilterAndProjectOperatorFactory(
+                0,
+                new PlanNodeId("0"),
+                new PageSourceProvider() {
+                    @Override
+                    public ConnectorPageSource createPageSource(Session session, Split split, List<ColumnHandle> columns)
+                    {
+                        throw new UnsupportedOperationException();
+                    }
+
+                    @Override
+                    public ConnectorPageSource createPageSource(Session session, Split split, List<ColumnHandle> columns, TupleDomain<ColumnHandle> dynamicFilter)
+                    {
+                        connectorDynamicFilter.set(dynamicFilter);
+                        return new FixedPageSource(ImmutableList.of(input));
+                    }
+                },
+                new GenericCursorProcessor(FilterFunctions.TRUE_FUNCTION, ImmutableList.of(singleColumn(BIGINT, 0))),
+                new GenericPageProcessor(FilterFunctions.TRUE_FUNCTION, ImmutableList.of(singleColumn(BIGINT, 0))),
+                ImmutableList.<ColumnHandle>of(new TestingColumnHandle("value")),
+                ImmutableList.<Type>of(BIGINT),
+                Optional.of(dynamicFilterSource.createDynamicFilter(ImmutableMap.of(0, 0))));
+
+        SourceOperator operator = factory.createOperator(driverContext);
+        operator.addSplit(new Split("test", TestingSplit.createLocalSplit()));
+        operator.noMoreSplits();
+
+        // the split is not read until the build side is complete
+        assertFalse(operator.isBlocked().isDone());
+        assertFalse(operator.isFinished());
+        assertNull(connectorDynamicFilter.get());
+
+        DynamicFilterCollector collector = dynamicFilterSource.createCollector(ImmutableList.of(0));
+        collector.add(SequencePageBuilder.createSequencePage(ImmutableList.of(BIGINT), 3, 5_000));
+        dynamicFilterSource.setJoinKeyDomain(collector.build());
+        assertTrue(operator.isBlocked().isDone());
+
+        MaterializedResult expected = resultBuilder(driverContext.getSession(), BIGINT)
+                .row(5_000L)
+                .row(5_001L)
+                .row(5_002L)
+                .build();
+        MaterializedResult actual = toMaterializedResult(driverContext.getSession(), ImmutableList.<Type>of(BIGINT), toPages(operator));
+        assertEquals(actual, expected);
+        assertEquals(connectorDynamicFilter.get().getDomains().keySet(), ImmutableSet.of(new TestingColumnHandle("value")));
+    }
+
+    @Test
+    public void testDynamicFilterEmptyBuild()
+            throws Exception
+    {
+        DriverContext driverContext = newDriverContext();
+
+        DynamicFilterSource dynamicFilterSource = new DynamicFilterSource(ImmutableList.of(BIGINT));
+        ScanFilterAndProjectOperator.ScanFilterAndProjectOperatorFactory factory = new ScanFilterAndProjectOperator.ScanFilterAndProjectOperatorFactory(
+                0,
+                new PlanNodeId("0"),
+                new PageSourceProvider() {
+                    @Override
+                    public ConnectorPageSource createPageSource(Session session, Split split, List<ColumnHandle> columns)
+                    {
+                        throw new AssertionError("split should not be read");
+                    }
+                },
+                new GenericCursorProcessor(FilterFunctions.TRUE_FUNCTION, ImmutableList.of(singleColumn(BIGINT, 0))),
+                new GenericPageProcessor(FilterFunctions.TRUE_FUNCTION, ImmutableList.of(singleColumn(BIGINT, 0))),
+                ImmutableList.<ColumnHandle>of(new TestingColumnHandle("value")),
+                ImmutableList.<Type>of(BIGINT),
+                Optional.of(dynamicFilterSource.createDynamicFilter(ImmutableMap.of(0, 0))));
+
+        SourceOperator operator = factory.createOperator(driverContext);
+        operator.addSplit(new Split("test", TestingSplit.createLocalSplit()));
+        operator.noMoreSplits();
+
+        dynamicFilterSource.setJoinKeyDomain(dynamicFilterSource.createCollector(ImmutableList.of(0)).build());
+
+        assertTrue(operator.isFinished());
+        assertNull(operator.getOutput());
+    }
+
     public static List<Page> toPages(Operator operator)
     {
         ImmutableList.Builder<Page> outputPages = ImmutableList.builder();
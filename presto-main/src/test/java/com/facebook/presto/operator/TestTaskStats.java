@@ -43,6 +43,7 @@ public class TestTaskStats
             8,
             6,
             10,
+            9,
 
             new DataSize(11, BYTE),
             new DataSize(12, BYTE),
@@ -90,6 +91,7 @@ public class TestTaskStats
         assertEquals(actual.getRunningDrivers(), 8);
         assertEquals(actual.getRunningPartitionedDrivers(), 6);
         assertEquals(actual.getCompletedDrivers(), 10);
+        assertEquals(actual.getCompletedPartitionedDrivers(), 9);
 
         assertEquals(actual.getMemoryReservation(), new DataSize(11, BYTE));
         assertEquals(actual.getSystemMemoryReservation(), new DataSize(12, BYTE));
@@ -26,6 +26,8 @@ import com.facebook.presto.operator.window.RowNumberFunction;
 import com.facebook.presto.spi.Page;
 import com.facebook.presto.spi.block.SortOrder;
 import com.facebook.presto.spi.type.Type;
+import com.facebook.presto.spiller.BinarySpillerFactory;
+import com.facebook.presto.spiller.SpillerFactory;
 import com.facebook.presto.testing.MaterializedResult;
 import com.google.common.collect.ImmutableList;
 import com.google.common.primitives.Ints;
@@ -35,12 +37,14 @@ import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.io.File;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.ExecutorService;
 
 import static com.facebook.presto.RowPagesBuilder.rowPagesBuilder;
 import static com.facebook.presto.SessionTestUtils.TEST_SESSION;
+import static com.facebook.presto.metadata.MetadataManager.createTestMetadataManager;
 import static com.facebook.presto.operator.OperatorAssertion.assertOperatorEquals;
 import static com.facebook.presto.operator.OperatorAssertion.assertOperatorEqualsIgnoreOrder;
 import static com.facebook.presto.operator.OperatorAssertion.toPages;
@@ -54,8 +58,14 @@ import static com.facebook.presto.sql.tree.FrameBound.Type.UNBOUNDED_PRECEDING;
 import static com.facebook.presto.sql.tree.WindowFrame.Type.RANGE;
 import static com.facebook.presto.testing.MaterializedResult.resultBuilder;
 import static com.facebook.presto.testing.TestingTaskContext.createTaskContext;
+import static com.google.common.io.Files.createTempDir;
+import static com.google.common.util.concurrent.MoreExecutors.newDirectExecutorService;
 import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static io.airlift.testing.FileUtils.deleteRecursively;
+import static io.airlift.units.DataSize.Unit.KILOBYTE;
 import static java.util.concurrent.Executors.newCachedThreadPool;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
 
 @Test(singleThreaded = true)
 public class TestWindowOperator
@@ -86,11 +96,13 @@ public class TestWindowOperator
 
     private ExecutorService executor;
     private DriverContext driverContext;
+    private File spillPath;
 
     @BeforeMethod
     public void setUp()
     {
         executor = newCachedThreadPool(daemonThreadsNamed("test-%s"));
+        spillPath = createTempDir();
         driverContext = createTaskContext(executor, TEST_SESSION)
                 .addPipelineContext(true, true)
                 .addDriverContext();
@@ -100,6 +112,7 @@ public class TestWindowOperator
     public void tearDown()
     {
         executor.shutdownNow();
+        deleteRecursively(spillPath);
     }
 
     @Test
@@ -621,6 +634,52 @@ public class TestWindowOperator
         assertOperatorEquals(operator, input, expected);
     }
 
+    @Test
+    public void testSpillToDisk()
+            throws Exception
+    {
+        List<Page> input = rowPagesBuilder(BIGINT, BIGINT)
+                .addSequencePage(10_000, 0, 30_000)
+                .addSequencePage(10_000, 0, 0)
+                .addSequencePage(10_000, 0, 20_000)
+                .addSequencePage(10_000, 0, 10_000)
+                .build();
+
+        // a single page does not fit, but a single partition does
+        DriverContext driverContext = createTaskContext(executor, TEST_SESSION, new DataSize(200, KILOBYTE))
+                .addPipelineContext(true, true)
+                .addDriverContext();
+
+        SpillerFactory spillerFactory = new BinarySpillerFactory(createTestMetadataManager().getBlockEncodingSerde(), newDirectExecutorService(), spillPath.toPath());
+        WindowOperatorFactory operatorFactory = new WindowOperatorFactory(
+                0,
+                ImmutableList.of(BIGINT, BIGINT),
+                Ints.asList(0, 1),
+                ROW_NUMBER,
+                Ints.asList(0),
+                ImmutableList.of(),
+                Ints.asList(1),
+                ImmutableList.of(SortOrder.ASC_NULLS_LAST),
+                0,
+                new FrameInfo(RANGE, UNBOUNDED_PRECEDING, Optional.empty(), UNBOUNDED_FOLLOWING, Optional.empty()),
+                10,
+                Optional.of(spillerFactory));
+
+        Operator operator = operatorFactory.createOperator(driverContext);
+
+        MaterializedResult.Builder expected = resultBuilder(driverContext.getSession(), BIGINT, BIGINT, BIGINT);
+        for (int i = 0; i < 10_000; i++) {
+            for (int run = 0; run < 4; run++) {
+                expected.row((long) i, (long) i + run * 10_000, (long) run + 1);
+            }
+        }
+
+        assertOperatorEquals(operator, input, expected.build());
+        assertTrue(operator.getOperatorContext().getOperatorStats().getSpilledDataSize().toBytes() > 0);
+        operator.close();
+        assertEquals(spillPath.listFiles().length, 0);
+    }
+
     private static WindowOperatorFactory createFactoryUnbounded(
             List<? extends Type> sourceTypes,
             List<Integer> outputChannels,
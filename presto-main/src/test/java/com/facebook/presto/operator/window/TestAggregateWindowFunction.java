@@ -13,14 +13,25 @@
  */
 package com.facebook.presto.operator.window;
 
+import com.facebook.presto.metadata.Signature;
+import com.facebook.presto.operator.PagesIndex;
+import com.facebook.presto.spi.block.BlockBuilder;
+import com.facebook.presto.spi.block.BlockBuilderStatus;
 import com.facebook.presto.testing.MaterializedResult;
+import com.google.common.collect.ImmutableList;
 import org.intellij.lang.annotations.Language;
 import org.testng.annotations.Test;
 
+import static com.facebook.presto.RowPagesBuilder.rowPagesBuilder;
 import static com.facebook.presto.SessionTestUtils.TEST_SESSION;
+import static com.facebook.presto.operator.aggregation.LongSumAggregation.LONG_SUM;
 import static com.facebook.presto.spi.type.BigintType.BIGINT;
 import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
 import static com.facebook.presto.testing.MaterializedResult.resultBuilder;
+import static io.airlift.testing.Assertions.assertEqualsIgnoreOrder;
+import static java.lang.String.format;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
 
 public class TestAggregateWindowFunction
         extends AbstractTestWindowFunction
@@ -403,4 +414,67 @@ public class TestAggregateWindowFunction
                         .row(null, null, null)
                         .build());
     }
+
+    @Test
+    public void testSlidingFrameLargePartition()
+    {
+        // frames are large enough to be computed from the segment tree of the partition
+        int rows = 200;
+        int preceding = 20;
+        StringBuilder values = new StringBuilder();
+        MaterializedResult.Builder expected = resultBuilder(TEST_SESSION, BIGINT, BIGINT, BIGINT, BIGINT, BIGINT);
+        for (int row = 0; row < rows; row++) {
+            Long value = (row % 7 == 0) ? null : (long) (row * 31 % 101);
+            if (row > 0) {
+                values.append(", ");
+            }
+            values.append(format("(%s, %s)", row, (value == null) ? "CAST(NULL AS BIGINT)" : value));
+
+            long sum = 0;
+            long count = 0;
+            Long max = null;
+            for (int framePosition = Math.max(0, row - preceding); framePosition <= row; framePosition++) {
+                if (framePosition % 7 != 0) {
+                    long frameValue = framePosition * 31 % 101;
+                    sum += frameValue;
+                    count++;
+                    max = (max == null) ? frameValue : Math.max(max, frameValue);
+                }
+            }
+            expected.row((long) row, value, (count == 0) ? null : sum, count, max);
+        }
+
+        @Language("SQL") String sql = format("" +
+                "SELECT x, y,\n" +
+                "  sum(y) OVER (ORDER BY x ROWS BETWEEN %1$s PRECEDING AND CURRENT ROW),\n" +
+                "  count(y) OVER (ORDER BY x ROWS BETWEEN %1$s PRECEDING AND CURRENT ROW),\n" +
+                "  max(y) OVER (ORDER BY x ROWS BETWEEN %1$s PRECEDING AND CURRENT ROW)\n" +
+                "FROM (VALUES %2$s) t (x, y)", preceding, values);
+
+        MaterializedResult actual = queryRunner.execute(sql);
+        assertEqualsIgnoreOrder(actual.getMaterializedRows(), expected.build().getMaterializedRows());
+    }
+
+    @Test
+    public void testSegmentTreeSize()
+    {
+        PagesIndex pagesIndex = new PagesIndex(ImmutableList.of(BIGINT), 100);
+        pagesIndex.addPage(rowPagesBuilder(BIGINT).addSequencePage(100, 0).build().get(0));
+        WindowIndex windowIndex = new WindowIndex(pagesIndex, 0, 100);
+
+        WindowFunction function = AggregateWindowFunction.supplier(new Signature("sum", "bigint", "bigint"), LONG_SUM).createWindowFunction(ImmutableList.of(0));
+        function.reset(windowIndex);
+        assertEquals(function.getEstimatedSizeInBytes(), 0);
+
+        // a sliding frame builds the segment tree, which is reported to the window operator
+        BlockBuilder output = BIGINT.createBlockBuilder(new BlockBuilderStatus(), 100);
+        for (int row = 0; row < 100; row++) {
+            function.processRow(output, row, row, Math.max(0, row - 20), row);
+        }
+        assertTrue(function.getEstimatedSizeInBytes() > 0);
+
+        // and released with the partition
+        function.reset(windowIndex);
+        assertEquals(function.getEstimatedSizeInBytes(), 0);
+    }
 }
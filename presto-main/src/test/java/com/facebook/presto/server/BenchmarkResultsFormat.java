@@ -0,0 +1,216 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.server;
+
+import com.facebook.presto.block.BlockEncodingManager;
+import com.facebook.presto.client.ClientTypeSignature;
+import com.facebook.presto.client.Column;
+import com.facebook.presto.client.QueryResults;
+import com.facebook.presto.client.StatementStats;
+import com.facebook.presto.spi.ConnectorSession;
+import com.facebook.presto.spi.Page;
+import com.facebook.presto.spi.PageBuilder;
+import com.facebook.presto.spi.block.BlockEncodingSerde;
+import com.facebook.presto.spi.type.Type;
+import com.facebook.presto.type.TypeRegistry;
+import com.google.common.collect.ImmutableList;
+import io.airlift.json.JsonCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.VerboseMode;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static com.facebook.presto.SessionTestUtils.TEST_SESSION;
+import static com.facebook.presto.client.BinaryResults.encode;
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.spi.type.BooleanType.BOOLEAN;
+import static com.facebook.presto.spi.type.DoubleType.DOUBLE;
+import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
+import static io.airlift.json.JsonCodec.jsonCodec;
+import static io.airlift.slice.Slices.utf8Slice;
+import static java.util.Collections.unmodifiableList;
+
+/**
+ * Compares the throughput in rows per second of sending results as JSON and in the
+ * binary format, from the pages received by the coordinator to the rows read by
+ * the client, including the JSON envelope of the results.
+ */
+@SuppressWarnings("MethodMayBeStatic")
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(2)
+@Warmup(iterations = 10, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 10, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@BenchmarkMode(Mode.Throughput)
+public class BenchmarkResultsFormat
+{
+    private static final int PAGES = 16;
+    private static final int ROWS_PER_PAGE = 1024;
+    private static final int ROWS = PAGES * ROWS_PER_PAGE;
+
+    private static final JsonCodec<QueryResults> QUERY_RESULTS_CODEC = jsonCodec(QueryResults.class);
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long json(BenchmarkData data)
+    {
+        List<List<Object>> rows = new ArrayList<>(ROWS);
+        for (Page page : data.getPages()) {
+            for (int position = 0; position < page.getPositionCount(); position++) {
+                List<Object> row = new ArrayList<>(data.getTypes().size());
+                for (int channel = 0; channel < data.getTypes().size(); channel++) {
+                    row.add(data.getTypes().get(channel).getObjectValue(data.getSession(), page.getBlock(channel), position));
+                }
+                rows.add(unmodifiableList(row));
+            }
+        }
+        return readRows(createQueryResults(data, rows, null));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long binary(BenchmarkData data)
+    {
+        byte[] binaryData = encode(data.getBlockEncodingSerde(), data.getPages());
+        return readRows(createQueryResults(data, null, binaryData));
+    }
+
+    private static QueryResults createQueryResults(BenchmarkData data, Iterable<List<Object>> rows, byte[] binaryData)
+    {
+        return new QueryResults(
+                "query",
+                URI.create("http://localhost/query"),
+                null,
+                URI.create("http://localhost/query/1"),
+                data.getColumns(),
+                rows,
+                binaryData,
+                StatementStats.builder().setState("RUNNING").build(),
+                null,
+                null,
+                null);
+    }
+
+    private static long readRows(QueryResults queryResults)
+    {
+        // the server sends the results as JSON, which the client parses
+        QueryResults clientResults = QUERY_RESULTS_CODEC.fromJson(QUERY_RESULTS_CODEC.toJson(queryResults));
+
+        long values = 0;
+        for (List<Object> row : clientResults.getData()) {
+            for (Object value : row) {
+                if (value != null) {
+                    values++;
+                }
+            }
+        }
+        return values;
+    }
+
+    @State(Scope.Thread)
+    public static class BenchmarkData
+    {
+        private final List<Type> types = ImmutableList.of(BIGINT, DOUBLE, BOOLEAN, VARCHAR);
+        private final ConnectorSession session = TEST_SESSION.toConnectorSession();
+        private final BlockEncodingSerde blockEncodingSerde = new BlockEncodingManager(new TypeRegistry());
+        private List<Column> columns;
+        private List<Page> pages;
+
+        @Setup
+        public void setup()
+        {
+            ImmutableList.Builder<Column> columns = ImmutableList.builder();
+            for (int channel = 0; channel < types.size(); channel++) {
+                Type type = types.get(channel);
+                columns.add(new Column("column" + channel, type.getTypeSignature().toString(), new ClientTypeSignature(type.getTypeSignature())));
+            }
+            this.columns = columns.build();
+
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            ImmutableList.Builder<Page> pages = ImmutableList.builder();
+            PageBuilder pageBuilder = new PageBuilder(types);
+            for (int page = 0; page < PAGES; page++) {
+                pageBuilder.reset();
+                for (int row = 0; row < ROWS_PER_PAGE; row++) {
+                    pageBuilder.declarePosition();
+                    BIGINT.writeLong(pageBuilder.getBlockBuilder(0), random.nextLong());
+                    DOUBLE.writeDouble(pageBuilder.getBlockBuilder(1), random.nextDouble());
+                    BOOLEAN.writeBoolean(pageBuilder.getBlockBuilder(2), random.nextBoolean());
+                    VARCHAR.writeSlice(pageBuilder.getBlockBuilder(3), utf8Slice("value " + random.nextInt(1_000_000)));
+                }
+                pages.add(pageBuilder.build());
+            }
+            this.pages = pages.build();
+        }
+
+        public List<Type> getTypes()
+        {
+            return types;
+        }
+
+        public ConnectorSession getSession()
+        {
+            return session;
+        }
+
+        public BlockEncodingSerde getBlockEncodingSerde()
+        {
+            return blockEncodingSerde;
+        }
+
+        public List<Column> getColumns()
+        {
+            return columns;
+        }
+
+        public List<Page> getPages()
+        {
+            return pages;
+        }
+    }
+
+    public static void main(String[] args)
+            throws RunnerException
+    {
+        // assure the benchmarks are valid before running
+        BenchmarkData data = new BenchmarkData();
+        data.setup();
+        new BenchmarkResultsFormat().json(data);
+        new BenchmarkResultsFormat().binary(data);
+
+        Options options = new OptionsBuilder()
+                .verbosity(VerboseMode.NORMAL)
+                .include(".*" + BenchmarkResultsFormat.class.getSimpleName() + ".*")
+                .build();
+        new Runner(options).run();
+    }
+}
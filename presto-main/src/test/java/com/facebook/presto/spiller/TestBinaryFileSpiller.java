@@ -0,0 +1,98 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.spiller;
+
+import com.facebook.presto.block.BlockEncodingManager;
+import com.facebook.presto.spi.Page;
+import com.facebook.presto.spi.type.Type;
+import com.facebook.presto.type.TypeRegistry;
+import com.google.common.collect.ImmutableList;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.util.Iterator;
+import java.util.List;
+
+import static com.facebook.presto.RowPagesBuilder.rowPagesBuilder;
+import static com.facebook.presto.operator.PageAssertions.assertPageEquals;
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
+import static com.google.common.io.Files.createTempDir;
+import static com.google.common.util.concurrent.MoreExecutors.newDirectExecutorService;
+import static io.airlift.testing.FileUtils.deleteRecursively;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+@Test(singleThreaded = true)
+public class TestBinaryFileSpiller
+{
+    private static final List<Type> TYPES = ImmutableList.of(BIGINT, VARCHAR);
+
+    private File spillPath;
+    private SpillerFactory spillerFactory;
+
+    @BeforeMethod
+    public void setUp()
+    {
+        spillPath = createTempDir();
+        spillerFactory = new BinarySpillerFactory(new BlockEncodingManager(new TypeRegistry()), newDirectExecutorService(), spillPath.toPath());
+    }
+
+    @AfterMethod
+    public void tearDown()
+    {
+        deleteRecursively(spillPath);
+    }
+
+    @Test
+    public void testSpillsAreKeptSeparate()
+    {
+        Spiller spiller = spillerFactory.create(TYPES);
+
+        List<Page> firstSpill = rowPagesBuilder(TYPES)
+                .addSequencePage(1000, 0, 100)
+                .addSequencePage(1000, 1000, 100)
+                .build();
+        List<Page> secondSpill = rowPagesBuilder(TYPES)
+                .addSequencePage(1000, 0, 200)
+                .build();
+        List<Page> emptySpill = ImmutableList.of();
+
+        assertTrue(spiller.spill(firstSpill.iterator()).isDone());
+        assertTrue(spiller.spill(secondSpill.iterator()).isDone());
+        assertTrue(spiller.spill(emptySpill.iterator()).isDone());
+        assertTrue(spiller.getSpilledBytes() > 0);
+
+        List<Iterator<Page>> spills = spiller.getSpills();
+        assertEquals(spills.size(), 3);
+        assertSpilledPages(spills.get(0), firstSpill);
+        assertSpilledPages(spills.get(1), secondSpill);
+        assertSpilledPages(spills.get(2), emptySpill);
+
+        spiller.close();
+        assertEquals(spillPath.listFiles().length, 0);
+    }
+
+    private static void assertSpilledPages(Iterator<Page> spilledPages, List<Page> expectedPages)
+    {
+        for (Page expectedPage : expectedPages) {
+            assertTrue(spilledPages.hasNext());
+            assertPageEquals(TYPES, spilledPages.next(), expectedPage);
+        }
+        assertFalse(spilledPages.hasNext());
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.spiller;
+
+import com.facebook.presto.block.BlockEncodingManager;
+import com.facebook.presto.operator.InterpretedHashGenerator;
+import com.facebook.presto.spi.Page;
+import com.facebook.presto.spi.type.Type;
+import com.facebook.presto.type.TypeRegistry;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterators;
+import com.google.common.util.concurrent.ListenableFuture;
+import io.airlift.slice.XxHash64;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import static com.facebook.presto.RowPagesBuilder.rowPagesBuilder;
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
+import static com.google.common.io.Files.createTempDir;
+import static com.google.common.util.concurrent.MoreExecutors.listeningDecorator;
+import static com.google.common.util.concurrent.MoreExecutors.newDirectExecutorService;
+import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static io.airlift.testing.FileUtils.deleteRecursively;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+@Test(singleThreaded = true)
+public class TestBinaryPartitioningSpiller
+{
+    private static final List<Type> TYPES = ImmutableList.of(BIGINT, VARCHAR);
+
+    private File spillPath;
+    private SpillerFactory spillerFactory;
+
+    @BeforeMethod
+    public void setUp()
+    {
+        spillPath = createTempDir();
+        spillerFactory = new BinarySpillerFactory(new BlockEncodingManager(new TypeRegistry()), newDirectExecutorService(), spillPath.toPath());
+    }
+
+    @AfterMethod
+    public void tearDown()
+    {
+        deleteRecursively(spillPath);
+    }
+
+    @Test
+    public void testSpillAndRead()
+    {
+        InterpretedHashGenerator hashGenerator = new InterpretedHashGenerator(ImmutableList.of(BIGINT), new int[] {0});
+        PartitioningSpiller spiller = spillerFactory.createPartitioningSpiller(TYPES, hashGenerator, 4);
+
+        List<Page> firstSpill = rowPagesBuilder(TYPES)
+                .addSequencePage(1000, 0, 100)
+                .addSequencePage(1000, 1000, 100)
+                .build();
+        List<Page> secondSpill = rowPagesBuilder(TYPES)
+                .addSequencePage(1000, 0, 200)
+                .build();
+
+        assertTrue(spiller.spill(firstSpill.iterator()).isDone());
+        assertTrue(spiller.spill(secondSpill.iterator()).isDone());
+        assertTrue(spiller.getSpilledBytes() > 0);
+
+        int totalPositions = 0;
+        for (int partition = 0; partition < spiller.getPartitionCount(); partition++) {
+            Iterator<Page> spilledPages = spiller.getSpilledPages(partition);
+            while (spilledPages.hasNext()) {
+                Page page = spilledPages.next();
+                assertEquals(page.getChannelCount(), TYPES.size());
+                for (int position = 0; position < page.getPositionCount(); position++) {
+                    // every row of a given key must land in the same partition
+                    int expectedPartition = (int) ((XxHash64.hash(hashGenerator.hashPosition(position, page)) & Long.MAX_VALUE) % spiller.getPartitionCount());
+                    assertEquals(partition, expectedPartition);
+                }
+                totalPositions += page.getPositionCount();
+            }
+        }
+        assertEquals(totalPositions, 3000);
+
+        spiller.close();
+        assertEquals(spillPath.listFiles().length, 0);
+    }
+
+    @Test
+    public void testEmptyPartitions()
+    {
+        PartitioningSpiller spiller = spillerFactory.createPartitioningSpiller(TYPES, new InterpretedHashGenerator(ImmutableList.of(BIGINT), new int[] {0}), 8);
+
+        assertTrue(spiller.spill(rowPagesBuilder(TYPES).build().iterator()).isDone());
+        for (int partition = 0; partition < spiller.getPartitionCount(); partition++) {
+            assertFalse(spiller.getSpilledPages(partition).hasNext());
+        }
+        spiller.close();
+    }
+
+    @Test
+    public void testCloseWaitsForSpillInProgress()
+            throws Exception
+    {
+        ExecutorService executor = newCachedThreadPool(daemonThreadsNamed("test-%s"));
+        try {
+            SpillerFactory spillerFactory = new BinarySpillerFactory(new BlockEncodingManager(new TypeRegistry()), listeningDecorator(executor), spillPath.toPath());
+            PartitioningSpiller spiller = spillerFactory.createPartitioningSpiller(TYPES, new InterpretedHashGenerator(ImmutableList.of(BIGINT), new int[] {0}), 4);
+
+            CountDownLatch writing = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            List<Page> pages = rowPagesBuilder(TYPES)
+                    .addSequencePage(1000, 0, 100)
+                    .addSequencePage(1000, 1000, 100)
+                    .build();
+            Iterator<Page> blockingIterator = Iterators.transform(pages.iterator(), page -> {
+                writing.countDown();
+                try {
+                    release.await();
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException(e);
+                }
+                return page;
+            });
+
+            ListenableFuture<?> spill = spiller.spill(blockingIterator);
+            assertTrue(writing.await(10, SECONDS));
+
+            Future<?> close = executor.submit(spiller::close);
+            Thread.sleep(100);
+            assertFalse(close.isDone());
+
+            release.countDown();
+            close.get(10, SECONDS);
+            spill.get(10, SECONDS);
+            assertEquals(spillPath.listFiles().length, 0);
+        }
+        finally {
+            executor.shutdownNow();
+            executor.awaitTermination(10, SECONDS);
+        }
+    }
+}
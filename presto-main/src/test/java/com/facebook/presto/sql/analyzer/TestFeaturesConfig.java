@@ -15,6 +15,7 @@ package com.facebook.presto.sql.analyzer;
 
 import com.google.common.collect.ImmutableMap;
 import io.airlift.configuration.testing.ConfigAssertions;
+import io.airlift.units.DataSize;
 import org.testng.annotations.Test;
 
 import java.util.Map;
@@ -22,6 +23,8 @@ import java.util.Map;
 import static io.airlift.configuration.testing.ConfigAssertions.assertDeprecatedEquivalence;
 import static io.airlift.configuration.testing.ConfigAssertions.assertFullMapping;
 import static io.airlift.configuration.testing.ConfigAssertions.assertRecordedDefaults;
+import static io.airlift.units.DataSize.Unit.GIGABYTE;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
 
 public class TestFeaturesConfig
 {
@@ -35,7 +38,12 @@ public class TestFeaturesConfig
                 .setRedistributeWrites(true)
                 .setOptimizeMetadataQueries(false)
                 .setOptimizeHashGeneration(true)
-                .setOptimizeSingleDistinct(true));
+                .setOptimizeSingleDistinct(true)
+                .setSpillEnabled(false)
+                .setDynamicFilteringEnabled(false)
+                .setCostBasedJoinsEnabled(false)
+                .setJoinMaxBroadcastTableSize(new DataSize(100, MEGABYTE))
+                .setConnectorPushDownEnabled(true));
     }
 
     @Test
@@ -49,6 +57,11 @@ public class TestFeaturesConfig
                 .put("optimizer.optimize-metadata-queries", "true")
                 .put("optimizer.optimize-hash-generation", "false")
                 .put("optimizer.optimize-single-distinct", "false")
+                .put("experimental.spill-enabled", "true")
+                .put("experimental.dynamic-filtering-enabled", "true")
+                .put("optimizer.cost-based-joins-enabled", "true")
+                .put("optimizer.join-max-broadcast-table-size", "1GB")
+                .put("optimizer.connector-pushdown-enabled", "false")
                 .build();
         Map<String, String> properties = new ImmutableMap.Builder<String, String>()
                 .put("experimental-syntax-enabled", "true")
@@ -58,6 +71,11 @@ public class TestFeaturesConfig
                 .put("optimizer.optimize-metadata-queries", "true")
                 .put("optimizer.optimize-hash-generation", "false")
                 .put("optimizer.optimize-single-distinct", "false")
+                .put("experimental.spill-enabled", "true")
+                .put("experimental.dynamic-filtering-enabled", "true")
+                .put("optimizer.cost-based-joins-enabled", "true")
+                .put("optimizer.join-max-broadcast-table-size", "1GB")
+                .put("optimizer.connector-pushdown-enabled", "false")
                 .build();
 
         FeaturesConfig expected = new FeaturesConfig()
@@ -67,7 +85,12 @@ public class TestFeaturesConfig
                 .setRedistributeWrites(false)
                 .setOptimizeMetadataQueries(true)
                 .setOptimizeHashGeneration(false)
-                .setOptimizeSingleDistinct(false);
+                .setOptimizeSingleDistinct(false)
+                .setSpillEnabled(true)
+                .setDynamicFilteringEnabled(true)
+                .setCostBasedJoinsEnabled(true)
+                .setJoinMaxBroadcastTableSize(new DataSize(1, GIGABYTE))
+                .setConnectorPushDownEnabled(false);
 
         assertFullMapping(properties, expected);
         assertDeprecatedEquivalence(FeaturesConfig.class, properties, propertiesLegacy);
@@ -0,0 +1,288 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.sql.gen;
+
+import com.facebook.presto.block.BlockAssertions;
+import com.facebook.presto.metadata.MetadataManager;
+import com.facebook.presto.metadata.OperatorType;
+import com.facebook.presto.metadata.Signature;
+import com.facebook.presto.operator.PageProcessor;
+import com.facebook.presto.spi.Page;
+import com.facebook.presto.spi.PageBuilder;
+import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.block.DictionaryBlock;
+import com.facebook.presto.spi.block.RunLengthEncodedBlock;
+import com.facebook.presto.spi.type.StandardTypes;
+import com.facebook.presto.sql.relational.RowExpression;
+import com.google.common.collect.ImmutableList;
+import io.airlift.slice.Slices;
+import org.testng.annotations.Test;
+
+import static com.facebook.presto.SessionTestUtils.TEST_SESSION;
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.spi.type.BooleanType.BOOLEAN;
+import static com.facebook.presto.sql.relational.Expressions.call;
+import static com.facebook.presto.sql.relational.Expressions.constant;
+import static com.facebook.presto.sql.relational.Expressions.field;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestPageProcessorCompiler
+{
+    private static final Signature FILTER_SIGNATURE = new Signature(OperatorType.LESS_THAN.name(), StandardTypes.BOOLEAN, StandardTypes.BIGINT, StandardTypes.BIGINT);
+    private static final Signature ADD_SIGNATURE = new Signature(OperatorType.ADD.name(), StandardTypes.BIGINT, StandardTypes.BIGINT, StandardTypes.BIGINT);
+    private static final Signature NOT_EQUAL_SIGNATURE = new Signature(OperatorType.NOT_EQUAL.name(), StandardTypes.BOOLEAN, StandardTypes.BIGINT, StandardTypes.BIGINT);
+    private static final Signature GREATER_THAN_SIGNATURE = new Signature(OperatorType.GREATER_THAN.name(), StandardTypes.BOOLEAN, StandardTypes.BIGINT, StandardTypes.BIGINT);
+    private static final Signature DIVIDE_SIGNATURE = new Signature(OperatorType.DIVIDE.name(), StandardTypes.BIGINT, StandardTypes.BIGINT, StandardTypes.BIGINT);
+
+    // where col0 < 10
+    private static final RowExpression FILTER = call(
+            FILTER_SIGNATURE,
+            BOOLEAN,
+            field(0, BIGINT),
+            constant(10L, BIGINT));
+
+    // col0 + col1
+    private static final RowExpression ADD = call(
+            ADD_SIGNATURE,
+            BIGINT,
+            field(0, BIGINT),
+            field(1, BIGINT));
+
+    // col0 + 1
+    private static final RowExpression INCREMENT = call(
+            ADD_SIGNATURE,
+            BIGINT,
+            field(0, BIGINT),
+            constant(1L, BIGINT));
+
+    private final PageProcessor processor = new ExpressionCompiler(MetadataManager.createTestMetadataManager())
+            .compilePageProcessor(FILTER, ImmutableList.of(field(0, BIGINT), field(1, BIGINT), ADD));
+
+    @Test
+    public void testRunLengthEncodedInput()
+    {
+        Page page = new Page(
+                new RunLengthEncodedBlock(BlockAssertions.createLongsBlock(5), 100),
+                BlockAssertions.createLongSequenceBlock(0, 100));
+
+        Page result = processor.processColumnar(TEST_SESSION.toConnectorSession(), page, ImmutableList.of(BIGINT, BIGINT, BIGINT));
+
+        assertEquals(result.getPositionCount(), 100);
+        assertTrue(result.getBlock(0) instanceof RunLengthEncodedBlock);
+        assertFalse(result.getBlock(1) instanceof RunLengthEncodedBlock);
+        assertFalse(result.getBlock(2) instanceof RunLengthEncodedBlock);
+        for (int position = 0; position < 100; position++) {
+            assertEquals(BIGINT.getLong(result.getBlock(0), position), 5);
+            assertEquals(BIGINT.getLong(result.getBlock(1), position), position);
+            assertEquals(BIGINT.getLong(result.getBlock(2), position), position + 5);
+        }
+    }
+
+    @Test
+    public void testRunLengthEncodedInputFiltered()
+    {
+        Page page = new Page(
+                new RunLengthEncodedBlock(BlockAssertions.createLongsBlock(50), 100),
+                BlockAssertions.createLongSequenceBlock(0, 100));
+
+        Page result = processor.processColumnar(TEST_SESSION.toConnectorSession(), page, ImmutableList.of(BIGINT, BIGINT, BIGINT));
+        assertEquals(result.getPositionCount(), 0);
+    }
+
+    @Test
+    public void testAllInputsRunLengthEncoded()
+    {
+        Page page = new Page(
+                new RunLengthEncodedBlock(BlockAssertions.createLongsBlock(3), 100),
+                new RunLengthEncodedBlock(BlockAssertions.createLongsBlock(4), 100));
+
+        Page result = processor.processColumnar(TEST_SESSION.toConnectorSession(), page, ImmutableList.of(BIGINT, BIGINT, BIGINT));
+
+        assertEquals(result.getPositionCount(), 100);
+        for (int channel = 0; channel < 3; channel++) {
+            assertTrue(result.getBlock(channel) instanceof RunLengthEncodedBlock);
+        }
+        Block sum = result.getBlock(2);
+        assertEquals(BIGINT.getLong(sum, 99), 7);
+    }
+
+    @Test
+    public void testHasConstantExpressions()
+    {
+        assertTrue(processor.hasConstantExpressions(new Page(
+                new RunLengthEncodedBlock(BlockAssertions.createLongsBlock(5), 100),
+                BlockAssertions.createLongSequenceBlock(0, 100))));
+        assertFalse(processor.hasConstantExpressions(new Page(
+                BlockAssertions.createLongSequenceBlock(0, 100),
+                BlockAssertions.createLongSequenceBlock(0, 100))));
+
+        // a run length encoded channel the expressions do not read does not make any of them constant
+        PageProcessor unused = new ExpressionCompiler(MetadataManager.createTestMetadataManager())
+                .compilePageProcessor(constant(true, BOOLEAN), ImmutableList.of(INCREMENT, constant(1L, BIGINT)));
+        assertFalse(unused.hasConstantExpressions(new Page(
+                BlockAssertions.createLongSequenceBlock(0, 100),
+                new RunLengthEncodedBlock(BlockAssertions.createLongsBlock(5), 100))));
+    }
+
+    @Test
+    public void testFlatInput()
+    {
+        Page page = new Page(
+                BlockAssertions.createLongSequenceBlock(0, 20),
+                BlockAssertions.createLongSequenceBlock(100, 120));
+
+        Page result = processor.processColumnar(TEST_SESSION.toConnectorSession(), page, ImmutableList.of(BIGINT, BIGINT, BIGINT));
+
+        assertEquals(result.getPositionCount(), 10);
+        for (int position = 0; position < 10; position++) {
+            assertEquals(BIGINT.getLong(result.getBlock(0), position), position);
+            assertEquals(BIGINT.getLong(result.getBlock(2), position), 100 + 2 * position);
+        }
+    }
+
+    @Test
+    public void testExpressionsDifferingInConstantsShareClass()
+    {
+        ExpressionCompiler compiler = new ExpressionCompiler(MetadataManager.createTestMetadataManager());
+        PageProcessor lessThanTen = compiler.compilePageProcessor(FILTER, ImmutableList.of(INCREMENT));
+
+        // where col0 < 5, col0 + 3
+        PageProcessor lessThanFive = compiler.compilePageProcessor(
+                call(FILTER_SIGNATURE, BOOLEAN, field(0, BIGINT), constant(5L, BIGINT)),
+                ImmutableList.of(call(ADD_SIGNATURE, BIGINT, field(0, BIGINT), constant(3L, BIGINT))));
+
+        assertEquals(lessThanFive.getClass(), lessThanTen.getClass());
+        assertEquals(compiler.getCacheSize(), 1);
+
+        Page page = new Page(BlockAssertions.createLongSequenceBlock(0, 20));
+
+        Page result = lessThanTen.processColumnar(TEST_SESSION.toConnectorSession(), page, ImmutableList.of(BIGINT));
+        assertEquals(result.getPositionCount(), 10);
+        for (int position = 0; position < 10; position++) {
+            assertEquals(BIGINT.getLong(result.getBlock(0), position), position + 1);
+        }
+
+        result = lessThanFive.processColumnar(TEST_SESSION.toConnectorSession(), page, ImmutableList.of(BIGINT));
+        assertEquals(result.getPositionCount(), 5);
+        for (int position = 0; position < 5; position++) {
+            assertEquals(BIGINT.getLong(result.getBlock(0), position), position + 3);
+        }
+    }
+
+    @Test
+    public void testDictionaryResultsNotSharedBetweenConstants()
+    {
+        ExpressionCompiler compiler = new ExpressionCompiler(MetadataManager.createTestMetadataManager());
+        PageProcessor lessThanTen = compiler.compilePageProcessor(FILTER, ImmutableList.of(INCREMENT));
+
+        // where col0 < 5, col0 + 3
+        PageProcessor lessThanFive = compiler.compilePageProcessor(
+                call(FILTER_SIGNATURE, BOOLEAN, field(0, BIGINT), constant(5L, BIGINT)),
+                ImmutableList.of(call(ADD_SIGNATURE, BIGINT, field(0, BIGINT), constant(3L, BIGINT))));
+        assertEquals(lessThanFive.getClass(), lessThanTen.getClass());
+
+        int[] ids = new int[40];
+        for (int position = 0; position < ids.length; position++) {
+            ids[position] = position % 20;
+        }
+        Page page = new Page(new DictionaryBlock(ids.length, BlockAssertions.createLongSequenceBlock(0, 20), Slices.wrappedIntArray(ids)));
+
+        PageBuilder pageBuilder = new PageBuilder(ImmutableList.of(BIGINT));
+        lessThanTen.process(TEST_SESSION.toConnectorSession(), page, 0, page.getPositionCount(), pageBuilder);
+        Page result = pageBuilder.build();
+        assertEquals(result.getPositionCount(), 20);
+        assertEquals(BIGINT.getLong(result.getBlock(0), 0), 1);
+
+        // the same dictionary must be evaluated again with the other constants
+        pageBuilder.reset();
+        lessThanFive.process(TEST_SESSION.toConnectorSession(), page, 0, page.getPositionCount(), pageBuilder);
+        result = pageBuilder.build();
+        assertEquals(result.getPositionCount(), 10);
+        for (int position = 0; position < 10; position++) {
+            assertEquals(BIGINT.getLong(result.getBlock(0), position), position % 5 + 3);
+        }
+    }
+
+    @Test
+    public void testDictionaryEncodedInput()
+    {
+        PageProcessor processor = new ExpressionCompiler(MetadataManager.createTestMetadataManager())
+                .compilePageProcessor(FILTER, ImmutableList.of(field(1, BIGINT), INCREMENT));
+
+        int[] ids = new int[100];
+        for (int position = 0; position < ids.length; position++) {
+            ids[position] = position % 20;
+        }
+        Page page = new Page(
+                new DictionaryBlock(ids.length, BlockAssertions.createLongSequenceBlock(0, 20), Slices.wrappedIntArray(ids)),
+                BlockAssertions.createLongSequenceBlock(0, 100));
+
+        // the second pass reads the cached results for the dictionary
+        PageBuilder pageBuilder = new PageBuilder(ImmutableList.of(BIGINT, BIGINT));
+        for (int pass = 0; pass < 2; pass++) {
+            pageBuilder.reset();
+            assertEquals(processor.process(TEST_SESSION.toConnectorSession(), page, 0, page.getPositionCount(), pageBuilder), page.getPositionCount());
+
+            Page result = pageBuilder.build();
+            assertEquals(result.getPositionCount(), 50);
+            for (int position = 0; position < 50; position++) {
+                long input = BIGINT.getLong(result.getBlock(0), position);
+                assertTrue(input % 20 < 10);
+                assertEquals(BIGINT.getLong(result.getBlock(1), position), input % 20 + 1);
+            }
+        }
+    }
+
+    @Test
+    public void testDictionaryEntriesFilteredOutAreNotEvaluated()
+    {
+        // where col0 <> 0, 10 / col0
+        PageProcessor processor = new ExpressionCompiler(MetadataManager.createTestMetadataManager()).compilePageProcessor(
+                call(NOT_EQUAL_SIGNATURE, BOOLEAN, field(0, BIGINT), constant(0L, BIGINT)),
+                ImmutableList.of(call(DIVIDE_SIGNATURE, BIGINT, constant(10L, BIGINT), field(0, BIGINT))));
+
+        // the dictionary entry for zero is referenced, but the filter rejects it
+        int[] ids = new int[] {0, 1, 2, 0, 1, 2};
+        Page page = new Page(new DictionaryBlock(ids.length, BlockAssertions.createLongSequenceBlock(0, 3), Slices.wrappedIntArray(ids)));
+
+        PageBuilder pageBuilder = new PageBuilder(ImmutableList.of(BIGINT));
+        assertEquals(processor.process(TEST_SESSION.toConnectorSession(), page, 0, page.getPositionCount(), pageBuilder), page.getPositionCount());
+
+        Page result = pageBuilder.build();
+        assertEquals(result.getPositionCount(), 4);
+        assertEquals(BIGINT.getLong(result.getBlock(0), 0), 10);
+        assertEquals(BIGINT.getLong(result.getBlock(0), 1), 5);
+        assertEquals(BIGINT.getLong(result.getBlock(0), 2), 10);
+        assertEquals(BIGINT.getLong(result.getBlock(0), 3), 5);
+    }
+
+    @Test
+    public void testDictionaryEntriesNotReferencedAreNotEvaluated()
+    {
+        // where 10 / col0 > 1
+        PageProcessor processor = new ExpressionCompiler(MetadataManager.createTestMetadataManager()).compilePageProcessor(
+                call(GREATER_THAN_SIGNATURE, BOOLEAN, call(DIVIDE_SIGNATURE, BIGINT, constant(10L, BIGINT), field(0, BIGINT)), constant(1L, BIGINT)),
+                ImmutableList.of(field(0, BIGINT)));
+
+        // the dictionary entry for zero is not referenced by any position
+        int[] ids = new int[] {1, 2, 20, 1};
+        Page page = new Page(new DictionaryBlock(ids.length, BlockAssertions.createLongSequenceBlock(0, 21), Slices.wrappedIntArray(ids)));
+
+        PageBuilder pageBuilder = new PageBuilder(ImmutableList.of(BIGINT));
+        assertEquals(processor.process(TEST_SESSION.toConnectorSession(), page, 0, page.getPositionCount(), pageBuilder), page.getPositionCount());
+        assertEquals(pageBuilder.build().getPositionCount(), 3);
+    }
+}
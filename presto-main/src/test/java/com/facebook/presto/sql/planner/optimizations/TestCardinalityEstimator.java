@@ -0,0 +1,108 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.sql.planner.optimizations;
+
+import com.facebook.presto.sql.planner.PlanNodeIdAllocator;
+import com.facebook.presto.sql.planner.Symbol;
+import com.facebook.presto.sql.planner.plan.FilterNode;
+import com.facebook.presto.sql.planner.plan.JoinNode;
+import com.facebook.presto.sql.planner.plan.LimitNode;
+import com.facebook.presto.sql.planner.plan.PlanNode;
+import com.facebook.presto.sql.planner.plan.UnionNode;
+import com.facebook.presto.sql.planner.plan.ValuesNode;
+import com.facebook.presto.sql.tree.ComparisonExpression;
+import com.facebook.presto.sql.tree.Expression;
+import com.facebook.presto.sql.tree.LongLiteral;
+import com.facebook.presto.sql.tree.QualifiedNameReference;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalDouble;
+
+import static com.facebook.presto.SessionTestUtils.TEST_SESSION;
+import static com.facebook.presto.metadata.MetadataManager.createTestMetadataManager;
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
+import static com.facebook.presto.sql.planner.optimizations.CardinalityEstimator.UNKNOWN_FILTER_SELECTIVITY;
+import static com.facebook.presto.sql.planner.optimizations.CardinalityEstimator.VARIABLE_WIDTH_VALUE_SIZE;
+import static java.util.Collections.nCopies;
+import static org.testng.Assert.assertEquals;
+
+public class TestCardinalityEstimator
+{
+    private static final Symbol A = new Symbol("a");
+    private static final Symbol B = new Symbol("b");
+    private static final Symbol C = new Symbol("c");
+
+    private final PlanNodeIdAllocator idAllocator = new PlanNodeIdAllocator();
+    private final CardinalityEstimator estimator = new CardinalityEstimator(
+            createTestMetadataManager(),
+            TEST_SESSION,
+            ImmutableMap.of(A, BIGINT, B, VARCHAR, C, BIGINT));
+
+    @Test
+    public void testValues()
+    {
+        PlanNode values = values(10, A, B);
+        assertEquals(estimator.estimateRowCount(values), OptionalDouble.of(10));
+        assertEquals(estimator.estimateSizeInBytes(values), OptionalDouble.of(10 * (BIGINT.getFixedSize() + VARIABLE_WIDTH_VALUE_SIZE)));
+    }
+
+    @Test
+    public void testFilterAndLimit()
+    {
+        Expression predicate = new ComparisonExpression(ComparisonExpression.Type.GREATER_THAN, new QualifiedNameReference(A.toQualifiedName()), new LongLiteral("5"));
+        PlanNode filter = new FilterNode(idAllocator.getNextId(), values(10, A), predicate);
+        assertEquals(estimator.estimateRowCount(filter), OptionalDouble.of(10 * UNKNOWN_FILTER_SELECTIVITY));
+
+        assertEquals(estimator.estimateRowCount(new LimitNode(idAllocator.getNextId(), filter, 2)), OptionalDouble.of(2));
+        assertEquals(estimator.estimateRowCount(new LimitNode(idAllocator.getNextId(), filter, 100)), OptionalDouble.of(10 * UNKNOWN_FILTER_SELECTIVITY));
+    }
+
+    @Test
+    public void testJoin()
+    {
+        PlanNode left = values(100, A);
+        PlanNode right = values(10, C);
+
+        assertEquals(estimator.estimateRowCount(join(JoinNode.Type.INNER, left, right, ImmutableList.of(new JoinNode.EquiJoinClause(A, C)))), OptionalDouble.of(100));
+        assertEquals(estimator.estimateRowCount(join(JoinNode.Type.FULL, left, right, ImmutableList.of(new JoinNode.EquiJoinClause(A, C)))), OptionalDouble.of(110));
+        assertEquals(estimator.estimateRowCount(join(JoinNode.Type.CROSS, left, right, ImmutableList.of())), OptionalDouble.of(1000));
+    }
+
+    @Test
+    public void testUnion()
+    {
+        PlanNode union = new UnionNode(
+                idAllocator.getNextId(),
+                ImmutableList.of(values(3, A), values(4, C)),
+                ImmutableListMultimap.of(B, A, B, C));
+        assertEquals(estimator.estimateRowCount(union), OptionalDouble.of(7));
+    }
+
+    private PlanNode join(JoinNode.Type type, PlanNode left, PlanNode right, List<JoinNode.EquiJoinClause> criteria)
+    {
+        return new JoinNode(idAllocator.getNextId(), type, left, right, criteria, Optional.empty(), Optional.empty());
+    }
+
+    private PlanNode values(int rows, Symbol... symbols)
+    {
+        ImmutableList<Expression> row = ImmutableList.copyOf(nCopies(symbols.length, new LongLiteral("1")));
+        return new ValuesNode(idAllocator.getNextId(), ImmutableList.copyOf(symbols), nCopies(rows, row));
+    }
+}
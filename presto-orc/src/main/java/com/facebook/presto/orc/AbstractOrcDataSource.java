@@ -28,6 +28,7 @@ import java.io.IOException;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static com.facebook.presto.orc.OrcDataSourceUtils.getDiskRangeSlice;
 import static com.facebook.presto.orc.OrcDataSourceUtils.mergeAdjacentDiskRanges;
@@ -42,7 +43,8 @@ public abstract class AbstractOrcDataSource
     private final DataSize maxMergeDistance;
     private final DataSize maxBufferSize;
     private final DataSize streamBufferSize;
-    private long readTimeNanos;
+    // stripes may be read by a background thread while the current stripe is decoded
+    private final AtomicLong readTimeNanos = new AtomicLong();
 
     public AbstractOrcDataSource(String name, long size, DataSize maxMergeDistance, DataSize maxBufferSize, DataSize streamBufferSize)
     {
@@ -62,7 +64,7 @@ public abstract class AbstractOrcDataSource
     @Override
     public final long getReadTimeNanos()
     {
-        return readTimeNanos;
+        return readTimeNanos.get();
     }
 
     @Override
@@ -86,7 +88,7 @@ public abstract class AbstractOrcDataSource
 
         readInternal(position, buffer, bufferOffset, bufferLength);
 
-        readTimeNanos += System.nanoTime() - start;
+        readTimeNanos.addAndGet(System.nanoTime() - start);
     }
 
     @Override
@@ -39,8 +39,9 @@ public class FileOrcDataSource
         input.close();
     }
 
+    // seek and read must not interleave with a stripe being prefetched by another thread
     @Override
-    protected void readInternal(long position, byte[] buffer, int bufferOffset, int bufferLength)
+    protected synchronized void readInternal(long position, byte[] buffer, int bufferOffset, int bufferLength)
             throws IOException
     {
         input.seek(position);
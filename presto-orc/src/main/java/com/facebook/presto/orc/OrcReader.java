@@ -31,6 +31,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executor;
 
 import static io.airlift.slice.SizeOf.SIZE_OF_BYTE;
 import static java.lang.Math.min;
@@ -169,6 +171,23 @@ public class OrcReader
             long length,
             DateTimeZone hiveStorageTimeZone)
             throws IOException
+    {
+        return createRecordReader(includedColumns, predicate, offset, length, hiveStorageTimeZone, Optional.empty());
+    }
+
+    /**
+     * Creates a reader for the stripes starting within the specified range of the file.
+     * When a prefetch executor is provided, each stripe is read with the executor while
+     * the previous stripe is being decoded.
+     */
+    public OrcRecordReader createRecordReader(
+            Map<Integer, Type> includedColumns,
+            OrcPredicate predicate,
+            long offset,
+            long length,
+            DateTimeZone hiveStorageTimeZone,
+            Optional<Executor> stripePrefetchExecutor)
+            throws IOException
     {
         return new OrcRecordReader(
                 requireNonNull(includedColumns, "includedColumns is null"),
@@ -185,7 +204,8 @@ public class OrcReader
                 bufferSize,
                 footer.getRowsInRowGroup(),
                 requireNonNull(hiveStorageTimeZone, "hiveStorageTimeZone is null"),
-                metadataReader);
+                metadataReader,
+                requireNonNull(stripePrefetchExecutor, "stripePrefetchExecutor is null"));
     }
 
     /**
@@ -33,6 +33,7 @@ import com.google.common.primitives.Ints;
 import org.joda.time.DateTimeZone;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
@@ -40,13 +41,21 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Throwables.propagate;
+import static com.google.common.base.Throwables.propagateIfInstanceOf;
 import static java.util.Comparator.comparingLong;
 import static java.util.Objects.requireNonNull;
 
 public class OrcRecordReader
 {
+    private static final CompletableFuture<?> NOT_BLOCKED = CompletableFuture.completedFuture(null);
+
     private final OrcDataSource orcDataSource;
 
     private final StreamReader[] streamReaders;
@@ -66,6 +75,14 @@ public class OrcRecordReader
     private final List<Long> stripeFilePositions;
     private long filePosition;
 
+    private final Optional<Executor> stripePrefetchExecutor;
+    // the stripe after the current one, read in the background while the current stripe is decoded
+    private CompletableFuture<Stripe> nextStripe;
+    // set by whichever comes first, the background read or close, so close can discard a read that has not started
+    private AtomicBoolean nextStripeClaimed;
+    private long nextStripeSizeInBytes;
+    private boolean closed;
+
     private Iterator<RowGroup> rowGroups = ImmutableList.<RowGroup>of().iterator();
     private long currentGroupRowCount;
     private long nextRowInGroup;
@@ -87,6 +104,43 @@ public class OrcRecordReader
             DateTimeZone hiveStorageTimeZone,
             MetadataReader metadataReader)
             throws IOException
+    {
+        this(includedColumns,
+                predicate,
+                numberOfRows,
+                fileStripes,
+                fileStats,
+                stripeStats,
+                orcDataSource,
+                splitOffset,
+                splitLength,
+                types,
+                compressionKind,
+                bufferSize,
+                rowsInRowGroup,
+                hiveStorageTimeZone,
+                metadataReader,
+                Optional.empty());
+    }
+
+    public OrcRecordReader(
+            Map<Integer, Type> includedColumns,
+            OrcPredicate predicate,
+            long numberOfRows,
+            List<StripeInformation> fileStripes,
+            List<ColumnStatistics> fileStats,
+            List<StripeStatistics> stripeStats,
+            OrcDataSource orcDataSource,
+            long splitOffset,
+            long splitLength,
+            List<OrcType> types,
+            CompressionKind compressionKind,
+            int bufferSize,
+            int rowsInRowGroup,
+            DateTimeZone hiveStorageTimeZone,
+            MetadataReader metadataReader,
+            Optional<Executor> stripePrefetchExecutor)
+            throws IOException
     {
         requireNonNull(includedColumns, "includedColumns is null");
         requireNonNull(predicate, "predicate is null");
@@ -96,6 +150,7 @@ public class OrcRecordReader
         requireNonNull(types, "types is null");
         requireNonNull(compressionKind, "compressionKind is null");
         requireNonNull(hiveStorageTimeZone, "hiveStorageTimeZone is null");
+        this.stripePrefetchExecutor = requireNonNull(stripePrefetchExecutor, "stripePrefetchExecutor is null");
 
         // reduce the included columns to the set that is also present
         ImmutableSet.Builder<Integer> presentColumns = ImmutableSet.builder();
@@ -235,10 +290,65 @@ public class OrcRecordReader
         return splitLength;
     }
 
+    /**
+     * Returns the estimated size of the stripe that is read ahead of the
+     * current one. This memory is not owned by any operator, so the caller
+     * should account for it as system memory.
+     */
+    public long getSystemMemoryUsage()
+    {
+        return nextStripeSizeInBytes;
+    }
+
     public void close()
             throws IOException
     {
-        orcDataSource.close();
+        closed = true;
+        CompletableFuture<Stripe> pendingStripe = nextStripe;
+        nextStripe = null;
+        nextStripeSizeInBytes = 0;
+
+        IOException readFailure = null;
+        if (pendingStripe != null && !nextStripeClaimed.compareAndSet(false, true)) {
+            // the stripe read has started and uses the data source, so it must finish before the data source is closed
+            try {
+                getStripe(pendingStripe);
+            }
+            catch (IOException e) {
+                readFailure = e;
+            }
+        }
+
+        try {
+            orcDataSource.close();
+        }
+        catch (IOException e) {
+            if (readFailure != null) {
+                e.addSuppressed(readFailure);
+            }
+            throw e;
+        }
+        if (readFailure != null) {
+            throw readFailure;
+        }
+    }
+
+    /**
+     * Returns a future that completes when the next batch can be read without
+     * waiting for the data source. This is only ever blocked when stripes are
+     * read in the background, and the next batch starts a stripe that has not
+     * been read yet. The first stripe is read in the background once the
+     * reader is first checked for being blocked.
+     */
+    public CompletableFuture<?> isBlocked()
+    {
+        if (currentStripe < 0 && nextStripe == null && !closed) {
+            nextStripe = prefetchStripe(0);
+        }
+        if (nextStripe == null || nextStripe.isDone() || nextRowInGroup < currentGroupRowCount || rowGroups.hasNext()) {
+            return NOT_BLOCKED;
+        }
+        return nextStripe;
     }
 
     public boolean isColumnPresent(int hiveColumnIndex)
@@ -329,8 +439,17 @@ public class OrcRecordReader
             currentStripePosition += stripes.get(currentStripe - 1).getNumberOfRows();
         }
 
-        StripeInformation stripeInformation = stripes.get(currentStripe);
-        Stripe stripe = stripeReader.readStripe(stripeInformation);
+        Stripe stripe;
+        if (nextStripe != null) {
+            CompletableFuture<Stripe> prefetchedStripe = nextStripe;
+            nextStripe = null;
+            stripe = getStripe(prefetchedStripe);
+        }
+        else {
+            stripe = stripeReader.readStripe(stripes.get(currentStripe));
+        }
+        nextStripe = prefetchStripe(currentStripe + 1);
+
         if (stripe != null) {
             // Give readers access to dictionary streams
             StreamSources dictionaryStreamSources = stripe.getDictionaryStreamSources();
@@ -348,6 +467,47 @@ public class OrcRecordReader
         }
     }
 
+    private CompletableFuture<Stripe> prefetchStripe(int stripe)
+    {
+        if (!stripePrefetchExecutor.isPresent() || stripe >= stripes.size()) {
+            nextStripeSizeInBytes = 0;
+            return null;
+        }
+        StripeInformation stripeInformation = stripes.get(stripe);
+        // only the streams of the included columns are read, so this is an upper bound
+        nextStripeSizeInBytes = stripeInformation.getIndexLength() + stripeInformation.getDataLength();
+        AtomicBoolean claimed = new AtomicBoolean();
+        nextStripeClaimed = claimed;
+        return CompletableFuture.supplyAsync(() -> {
+            if (!claimed.compareAndSet(false, true)) {
+                // the reader was closed before the read started
+                return null;
+            }
+            try {
+                return stripeReader.readStripe(stripeInformation);
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, stripePrefetchExecutor.get());
+    }
+
+    private static Stripe getStripe(CompletableFuture<Stripe> stripe)
+            throws IOException
+    {
+        try {
+            return stripe.join();
+        }
+        catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            }
+            propagateIfInstanceOf(cause, IOException.class);
+            throw propagate(cause);
+        }
+    }
+
     private static StreamReader[] createStreamReaders(OrcDataSource orcDataSource,
             List<OrcType> types,
             DateTimeZone hiveStorageTimeZone,
@@ -0,0 +1,365 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.orc;
+
+import com.facebook.presto.orc.metadata.ColumnEncoding;
+import com.facebook.presto.orc.metadata.ColumnStatistics;
+import com.facebook.presto.orc.metadata.CompressionKind;
+import com.facebook.presto.orc.metadata.Footer;
+import com.facebook.presto.orc.metadata.Metadata;
+import com.facebook.presto.orc.metadata.OrcMetadataWriter;
+import com.facebook.presto.orc.metadata.OrcType;
+import com.facebook.presto.orc.metadata.RowGroupIndex;
+import com.facebook.presto.orc.metadata.Stream;
+import com.facebook.presto.orc.metadata.StripeFooter;
+import com.facebook.presto.orc.metadata.StripeInformation;
+import com.facebook.presto.orc.metadata.StripeStatistics;
+import com.facebook.presto.orc.stream.StreamDataOutput;
+import com.facebook.presto.orc.writer.ColumnWriter;
+import com.facebook.presto.spi.Page;
+import com.facebook.presto.spi.type.StandardTypes;
+import com.facebook.presto.spi.type.Type;
+import com.google.common.collect.ImmutableList;
+import com.google.common.primitives.Ints;
+import io.airlift.slice.DynamicSliceOutput;
+import io.airlift.slice.OutputStreamSliceOutput;
+import io.airlift.slice.Slice;
+import io.airlift.slice.SliceOutput;
+import io.airlift.units.DataSize;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.facebook.presto.orc.metadata.ColumnEncoding.ColumnEncodingKind.DIRECT;
+import static com.facebook.presto.orc.metadata.ColumnStatistics.mergeColumnStatistics;
+import static com.facebook.presto.orc.metadata.OrcType.OrcTypeKind.BINARY;
+import static com.facebook.presto.orc.metadata.OrcType.OrcTypeKind.BOOLEAN;
+import static com.facebook.presto.orc.metadata.OrcType.OrcTypeKind.DOUBLE;
+import static com.facebook.presto.orc.metadata.OrcType.OrcTypeKind.LIST;
+import static com.facebook.presto.orc.metadata.OrcType.OrcTypeKind.LONG;
+import static com.facebook.presto.orc.metadata.OrcType.OrcTypeKind.MAP;
+import static com.facebook.presto.orc.metadata.OrcType.OrcTypeKind.STRING;
+import static com.facebook.presto.orc.metadata.OrcType.OrcTypeKind.STRUCT;
+import static com.facebook.presto.orc.metadata.Stream.StreamKind.ROW_INDEX;
+import static com.facebook.presto.orc.stream.OrcOutputBuffer.compressSlice;
+import static com.facebook.presto.orc.writer.ColumnWriters.createColumnWriter;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static io.airlift.slice.Slices.utf8Slice;
+import static io.airlift.units.DataSize.Unit.KILOBYTE;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Writes pages to an ORC file, the counterpart of {@link OrcReader}. All streams of a
+ * stripe are buffered in memory (compressed) until the stripe is full. Columns are
+ * written with the DIRECT encoding, and a row index with the statistics of every
+ * row group is written for each column.
+ */
+public class OrcWriter
+        implements Closeable
+{
+    public static final DataSize DEFAULT_STRIPE_MAX_SIZE = new DataSize(64, MEGABYTE);
+    public static final int DEFAULT_STRIPE_MAX_ROW_COUNT = 10_000_000;
+    public static final int DEFAULT_ROW_GROUP_MAX_ROW_COUNT = 10_000;
+    public static final DataSize DEFAULT_BUFFER_SIZE = new DataSize(256, KILOBYTE);
+
+    private static final Slice MAGIC = utf8Slice("ORC");
+
+    private final SliceOutput output;
+    private final List<Type> types;
+    private final CompressionKind compression;
+    private final long stripeMaxBytes;
+    private final int stripeMaxRowCount;
+    private final int rowGroupMaxRowCount;
+    private final int bufferSize;
+
+    private final List<OrcType> orcTypes;
+    private final List<ColumnWriter> columnWriters;
+    private final OrcMetadataWriter metadataWriter = new OrcMetadataWriter();
+
+    private final List<StripeInformation> stripes = new ArrayList<>();
+    private final List<StripeStatistics> stripeStatistics = new ArrayList<>();
+    private final List<Integer> rowGroupRowCounts = new ArrayList<>();
+
+    private long fileOffset;
+    private long fileRowCount;
+    private int stripeRowCount;
+    private int rowGroupRowCount;
+    private boolean closed;
+
+    public OrcWriter(OutputStream outputStream, List<String> columnNames, List<Type> types, CompressionKind compression)
+    {
+        this(outputStream, columnNames, types, compression, DEFAULT_STRIPE_MAX_SIZE, DEFAULT_STRIPE_MAX_ROW_COUNT, DEFAULT_ROW_GROUP_MAX_ROW_COUNT, DEFAULT_BUFFER_SIZE);
+    }
+
+    public OrcWriter(
+            OutputStream outputStream,
+            List<String> columnNames,
+            List<Type> types,
+            CompressionKind compression,
+            DataSize stripeMaxSize,
+            int stripeMaxRowCount,
+            int rowGroupMaxRowCount,
+            DataSize bufferSize)
+    {
+        this.output = new OutputStreamSliceOutput(requireNonNull(outputStream, "outputStream is null"));
+        this.types = ImmutableList.copyOf(requireNonNull(types, "types is null"));
+        requireNonNull(columnNames, "columnNames is null");
+        checkArgument(columnNames.size() == types.size(), "columnNames and types do not match");
+        this.compression = requireNonNull(compression, "compression is null");
+        this.stripeMaxBytes = requireNonNull(stripeMaxSize, "stripeMaxSize is null").toBytes();
+        checkArgument(stripeMaxRowCount > 0, "stripeMaxRowCount must be positive");
+        this.stripeMaxRowCount = stripeMaxRowCount;
+        checkArgument(rowGroupMaxRowCount > 0, "rowGroupMaxRowCount must be positive");
+        this.rowGroupMaxRowCount = rowGroupMaxRowCount;
+        this.bufferSize = Ints.checkedCast(requireNonNull(bufferSize, "bufferSize is null").toBytes());
+
+        this.orcTypes = createOrcRowType(columnNames, types);
+        OrcType rowType = orcTypes.get(0);
+        ImmutableList.Builder<ColumnWriter> columnWriters = ImmutableList.builder();
+        for (int field = 0; field < types.size(); field++) {
+            columnWriters.add(createColumnWriter(rowType.getFieldTypeIndex(field), orcTypes, types.get(field), compression, this.bufferSize));
+        }
+        this.columnWriters = columnWriters.build();
+
+        output.writeBytes(MAGIC);
+        fileOffset = MAGIC.length();
+    }
+
+    public void write(Page page)
+            throws IOException
+    {
+        requireNonNull(page, "page is null");
+        checkState(!closed, "writer is closed");
+        checkArgument(page.getChannelCount() == types.size(), "page does not match the writer columns");
+
+        int offset = 0;
+        while (offset < page.getPositionCount()) {
+            if (rowGroupRowCount == 0) {
+                columnWriters.forEach(ColumnWriter::beginRowGroup);
+            }
+
+            // split the page at row group boundaries, so the checkpoints are recorded between the writes
+            int length = Math.min(rowGroupMaxRowCount - rowGroupRowCount, page.getPositionCount() - offset);
+            Page chunk = page.getRegion(offset, length);
+            for (int channel = 0; channel < chunk.getChannelCount(); channel++) {
+                columnWriters.get(channel).writeBlock(chunk.getBlock(channel));
+            }
+            offset += length;
+            rowGroupRowCount += length;
+            stripeRowCount += length;
+
+            if (rowGroupRowCount == rowGroupMaxRowCount) {
+                finishRowGroup();
+                if (stripeRowCount >= stripeMaxRowCount || getBufferedBytes() >= stripeMaxBytes) {
+                    flushStripe();
+                }
+            }
+        }
+    }
+
+    private long getBufferedBytes()
+    {
+        long bufferedBytes = 0;
+        for (ColumnWriter columnWriter : columnWriters) {
+            bufferedBytes += columnWriter.getBufferedBytes();
+        }
+        return bufferedBytes;
+    }
+
+    private void finishRowGroup()
+    {
+        columnWriters.forEach(ColumnWriter::finishRowGroup);
+        rowGroupRowCounts.add(rowGroupRowCount);
+        rowGroupRowCount = 0;
+    }
+
+    private void flushStripe()
+            throws IOException
+    {
+        if (rowGroupRowCount > 0) {
+            finishRowGroup();
+        }
+        if (stripeRowCount == 0) {
+            return;
+        }
+        columnWriters.forEach(ColumnWriter::close);
+
+        // the root struct column has no streams besides its row index
+        ImmutableList.Builder<RowGroupIndex> rootRowGroupIndexes = ImmutableList.builder();
+        for (int rowCount : rowGroupRowCounts) {
+            rootRowGroupIndexes.add(new RowGroupIndex(ImmutableList.of(), new ColumnStatistics((long) rowCount, null, null, null, null, null)));
+        }
+        DynamicSliceOutput rootRowIndex = new DynamicSliceOutput(64);
+        metadataWriter.writeRowIndexes(rootRowIndex, rootRowGroupIndexes.build());
+        Slice rootRowIndexData = compressSlice(rootRowIndex.slice(), compression, bufferSize);
+
+        ImmutableList.Builder<StreamDataOutput> indexStreams = ImmutableList.builder();
+        indexStreams.add(new StreamDataOutput(rootRowIndexData, new Stream(0, ROW_INDEX, rootRowIndexData.length(), true)));
+        ImmutableList.Builder<StreamDataOutput> dataStreams = ImmutableList.builder();
+
+        Map<Integer, ColumnEncoding> columnEncodings = new HashMap<>();
+        columnEncodings.put(0, new ColumnEncoding(DIRECT, 0));
+        Map<Integer, ColumnStatistics> columnStatistics = new HashMap<>();
+        columnStatistics.put(0, new ColumnStatistics((long) stripeRowCount, null, null, null, null, null));
+
+        for (ColumnWriter columnWriter : columnWriters) {
+            indexStreams.addAll(columnWriter.getIndexStreams(metadataWriter));
+            dataStreams.addAll(columnWriter.getDataStreams());
+            columnEncodings.putAll(columnWriter.getColumnEncodings());
+            columnStatistics.putAll(columnWriter.getColumnStripeStatistics());
+        }
+
+        // streams are laid out in the order they are listed in the stripe footer
+        long stripeOffset = fileOffset;
+        ImmutableList.Builder<Stream> streams = ImmutableList.builder();
+        long indexLength = writeStreams(indexStreams.build(), streams);
+        long dataLength = writeStreams(dataStreams.build(), streams);
+
+        ImmutableList.Builder<ColumnEncoding> encodings = ImmutableList.builder();
+        ImmutableList.Builder<ColumnStatistics> statistics = ImmutableList.builder();
+        for (int column = 0; column < orcTypes.size(); column++) {
+            encodings.add(columnEncodings.get(column));
+            statistics.add(columnStatistics.get(column));
+        }
+
+        DynamicSliceOutput stripeFooter = new DynamicSliceOutput(1024);
+        metadataWriter.writeStripeFooter(stripeFooter, new StripeFooter(streams.build(), encodings.build()));
+        Slice stripeFooterData = compressSlice(stripeFooter.slice(), compression, bufferSize);
+        output.writeBytes(stripeFooterData);
+        fileOffset += stripeFooterData.length();
+
+        stripes.add(new StripeInformation(stripeRowCount, stripeOffset, indexLength, dataLength, stripeFooterData.length()));
+        stripeStatistics.add(new StripeStatistics(statistics.build()));
+        fileRowCount += stripeRowCount;
+
+        columnWriters.forEach(ColumnWriter::reset);
+        rowGroupRowCounts.clear();
+        stripeRowCount = 0;
+    }
+
+    private long writeStreams(List<StreamDataOutput> streamDataOutputs, ImmutableList.Builder<Stream> streams)
+    {
+        long length = 0;
+        for (StreamDataOutput streamDataOutput : streamDataOutputs) {
+            streamDataOutput.writeData(output);
+            streams.add(streamDataOutput.getStream());
+            length += streamDataOutput.size();
+        }
+        fileOffset += length;
+        return length;
+    }
+
+    @Override
+    public void close()
+            throws IOException
+    {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        try {
+            flushStripe();
+
+            DynamicSliceOutput metadata = new DynamicSliceOutput(1024);
+            metadataWriter.writeMetadata(metadata, new Metadata(stripeStatistics));
+            Slice metadataData = compressSlice(metadata.slice(), compression, bufferSize);
+
+            ImmutableList.Builder<ColumnStatistics> fileStatistics = ImmutableList.builder();
+            for (int column = 0; column < orcTypes.size(); column++) {
+                ImmutableList.Builder<ColumnStatistics> columnStatistics = ImmutableList.builder();
+                for (StripeStatistics stripe : stripeStatistics) {
+                    columnStatistics.add(stripe.getColumnStatistics().get(column));
+                }
+                fileStatistics.add(mergeColumnStatistics(columnStatistics.build()));
+            }
+
+            DynamicSliceOutput footer = new DynamicSliceOutput(1024);
+            metadataWriter.writeFooter(footer, new Footer(fileRowCount, rowGroupMaxRowCount, stripes, orcTypes, fileStatistics.build()));
+            Slice footerData = compressSlice(footer.slice(), compression, bufferSize);
+
+            output.writeBytes(metadataData);
+            output.writeBytes(footerData);
+
+            // the post script is never compressed
+            DynamicSliceOutput postScript = new DynamicSliceOutput(64);
+            int postScriptLength = metadataWriter.writePostScript(postScript, footerData.length(), metadataData.length(), compression, bufferSize);
+            checkState(postScriptLength < 256, "post script is too large");
+            output.writeBytes(postScript.slice());
+            output.writeByte(postScriptLength);
+        }
+        finally {
+            output.close();
+        }
+    }
+
+    private static List<OrcType> createOrcRowType(List<String> columnNames, List<Type> types)
+    {
+        List<OrcType> orcTypes = new ArrayList<>();
+        // placeholder for the root struct, which is the first type
+        orcTypes.add(null);
+
+        ImmutableList.Builder<Integer> fieldTypeIndexes = ImmutableList.builder();
+        for (Type type : types) {
+            fieldTypeIndexes.add(orcTypes.size());
+            addOrcType(orcTypes, type);
+        }
+        orcTypes.set(0, new OrcType(STRUCT, fieldTypeIndexes.build(), columnNames));
+        return ImmutableList.copyOf(orcTypes);
+    }
+
+    private static void addOrcType(List<OrcType> orcTypes, Type type)
+    {
+        String base = type.getTypeSignature().getBase();
+        Class<?> javaType = type.getJavaType();
+        if (javaType == boolean.class) {
+            orcTypes.add(new OrcType(BOOLEAN, ImmutableList.of(), ImmutableList.of()));
+        }
+        else if (javaType == long.class) {
+            orcTypes.add(new OrcType(LONG, ImmutableList.of(), ImmutableList.of()));
+        }
+        else if (javaType == double.class) {
+            orcTypes.add(new OrcType(DOUBLE, ImmutableList.of(), ImmutableList.of()));
+        }
+        else if (javaType == Slice.class) {
+            orcTypes.add(new OrcType(base.equals(StandardTypes.VARBINARY) ? BINARY : STRING, ImmutableList.of(), ImmutableList.of()));
+        }
+        else if (base.equals(StandardTypes.ARRAY)) {
+            int index = orcTypes.size();
+            orcTypes.add(null);
+            int elementIndex = orcTypes.size();
+            addOrcType(orcTypes, type.getTypeParameters().get(0));
+            orcTypes.set(index, new OrcType(LIST, ImmutableList.of(elementIndex), ImmutableList.of()));
+        }
+        else if (base.equals(StandardTypes.MAP)) {
+            int index = orcTypes.size();
+            orcTypes.add(null);
+            int keyIndex = orcTypes.size();
+            addOrcType(orcTypes, type.getTypeParameters().get(0));
+            int valueIndex = orcTypes.size();
+            addOrcType(orcTypes, type.getTypeParameters().get(1));
+            orcTypes.set(index, new OrcType(MAP, ImmutableList.of(keyIndex, valueIndex), ImmutableList.of()));
+        }
+        else {
+            throw new IllegalArgumentException("Unsupported type: " + type);
+        }
+    }
+}
@@ -13,6 +13,10 @@
  */
 package com.facebook.presto.orc.metadata;
 
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
 public class ColumnStatistics
 {
     private final Long numberOfValues;
@@ -71,4 +75,78 @@ public class ColumnStatistics
     {
         return stringStatistics;
     }
+
+    /**
+     * Combines the statistics of consecutive parts of a column, e.g. the row groups
+     * of a stripe. Ranges are only kept when every part with values has them.
+     */
+    public static ColumnStatistics mergeColumnStatistics(List<ColumnStatistics> stats)
+    {
+        long numberOfValues = 0;
+        long trueValueCount = 0;
+        boolean hasBooleanStatistics = true;
+        for (ColumnStatistics statistics : stats) {
+            numberOfValues += statistics.getNumberOfValues();
+            if (statistics.getNumberOfValues() > 0) {
+                if (statistics.getBooleanStatistics() == null) {
+                    hasBooleanStatistics = false;
+                }
+                else {
+                    trueValueCount += statistics.getBooleanStatistics().getTrueValueCount();
+                }
+            }
+        }
+
+        if (numberOfValues == 0) {
+            return new ColumnStatistics(0L, null, null, null, null, null);
+        }
+
+        return new ColumnStatistics(
+                numberOfValues,
+                hasBooleanStatistics ? new BooleanStatistics(trueValueCount) : null,
+                mergeRangeStatistics(stats, ColumnStatistics::getIntegerStatistics, IntegerStatistics::new),
+                mergeRangeStatistics(stats, ColumnStatistics::getDoubleStatistics, DoubleStatistics::new),
+                mergeRangeStatistics(stats, ColumnStatistics::getStringStatistics, StringStatistics::new),
+                mergeRangeStatistics(stats, ColumnStatistics::getDateStatistics, DateStatistics::new));
+    }
+
+    private static <T extends Comparable<? super T>, S extends RangeStatistics<T>> S mergeRangeStatistics(
+            List<ColumnStatistics> stats,
+            Function<ColumnStatistics, S> rangeGetter,
+            BiFunction<T, T, S> rangeFactory)
+    {
+        T minimum = null;
+        T maximum = null;
+        boolean minimumKnown = true;
+        boolean maximumKnown = true;
+        for (ColumnStatistics statistics : stats) {
+            if (statistics.getNumberOfValues() == 0) {
+                continue;
+            }
+
+            S range = rangeGetter.apply(statistics);
+            if (range == null) {
+                return null;
+            }
+
+            if (range.getMin() == null) {
+                minimumKnown = false;
+            }
+            else if (minimum == null || range.getMin().compareTo(minimum) < 0) {
+                minimum = range.getMin();
+            }
+
+            if (range.getMax() == null) {
+                maximumKnown = false;
+            }
+            else if (maximum == null || range.getMax().compareTo(maximum) > 0) {
+                maximum = range.getMax();
+            }
+        }
+
+        if (!minimumKnown && !maximumKnown) {
+            return null;
+        }
+        return rangeFactory.apply(minimumKnown ? minimum : null, maximumKnown ? maximum : null);
+    }
 }
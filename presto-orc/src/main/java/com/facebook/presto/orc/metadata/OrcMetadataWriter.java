@@ -0,0 +1,322 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.orc.metadata;
+
+import com.facebook.presto.hive.protobuf.MessageLite;
+import com.facebook.presto.orc.metadata.ColumnEncoding.ColumnEncodingKind;
+import com.facebook.presto.orc.metadata.OrcType.OrcTypeKind;
+import com.facebook.presto.orc.metadata.Stream.StreamKind;
+import com.google.common.collect.ImmutableList;
+import io.airlift.slice.SliceOutput;
+import org.apache.hadoop.hive.ql.io.orc.OrcProto;
+import org.apache.hadoop.hive.ql.io.orc.OrcProto.RowIndexEntry;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Inverse of {@link OrcMetadataReader}. Each method writes the uncompressed
+ * encoding of the metadata and returns the number of bytes written.
+ */
+public class OrcMetadataWriter
+{
+    private static final String MAGIC = "ORC";
+    private static final List<Integer> ORC_VERSION = ImmutableList.of(0, 12);
+
+    public int writePostScript(SliceOutput output, int footerLength, int metadataLength, CompressionKind compression, int compressionBlockSize)
+            throws IOException
+    {
+        OrcProto.PostScript postScript = OrcProto.PostScript.newBuilder()
+                .addAllVersion(ORC_VERSION)
+                .setFooterLength(footerLength)
+                .setMetadataLength(metadataLength)
+                .setCompression(toCompression(compression))
+                .setCompressionBlockSize(compressionBlockSize)
+                .setMagic(MAGIC)
+                .build();
+
+        return writeProtobufObject(output, postScript);
+    }
+
+    public int writeMetadata(SliceOutput output, Metadata metadata)
+            throws IOException
+    {
+        OrcProto.Metadata.Builder builder = OrcProto.Metadata.newBuilder();
+        for (StripeStatistics stripeStatistics : metadata.getStripeStatsList()) {
+            builder.addStripeStats(OrcProto.StripeStatistics.newBuilder()
+                    .addAllColStats(toColumnStatistics(stripeStatistics.getColumnStatistics())));
+        }
+        return writeProtobufObject(output, builder.build());
+    }
+
+    public int writeFooter(SliceOutput output, Footer footer)
+            throws IOException
+    {
+        long contentLength = MAGIC.length();
+        OrcProto.Footer.Builder builder = OrcProto.Footer.newBuilder()
+                .setNumberOfRows(footer.getNumberOfRows())
+                .setRowIndexStride(footer.getRowsInRowGroup())
+                .setHeaderLength(MAGIC.length());
+
+        for (StripeInformation stripe : footer.getStripes()) {
+            builder.addStripes(toStripeInformation(stripe));
+            contentLength = stripe.getOffset() + stripe.getIndexLength() + stripe.getDataLength() + stripe.getFooterLength();
+        }
+        builder.setContentLength(contentLength);
+
+        for (OrcType type : footer.getTypes()) {
+            builder.addTypes(toType(type));
+        }
+        builder.addAllStatistics(toColumnStatistics(footer.getFileStats()));
+
+        return writeProtobufObject(output, builder.build());
+    }
+
+    public int writeStripeFooter(SliceOutput output, StripeFooter footer)
+            throws IOException
+    {
+        OrcProto.StripeFooter.Builder builder = OrcProto.StripeFooter.newBuilder();
+        for (Stream stream : footer.getStreams()) {
+            builder.addStreams(OrcProto.Stream.newBuilder()
+                    .setColumn(stream.getColumn())
+                    .setKind(toStreamKind(stream.getStreamKind()))
+                    .setLength(stream.getLength()));
+        }
+        for (ColumnEncoding columnEncoding : footer.getColumnEncodings()) {
+            OrcProto.ColumnEncoding.Builder encoding = OrcProto.ColumnEncoding.newBuilder()
+                    .setKind(toColumnEncodingKind(columnEncoding.getColumnEncodingKind()));
+            if (columnEncoding.getDictionarySize() > 0) {
+                encoding.setDictionarySize(columnEncoding.getDictionarySize());
+            }
+            builder.addColumns(encoding);
+        }
+        return writeProtobufObject(output, builder.build());
+    }
+
+    public int writeRowIndexes(SliceOutput output, List<RowGroupIndex> rowGroupIndexes)
+            throws IOException
+    {
+        OrcProto.RowIndex.Builder builder = OrcProto.RowIndex.newBuilder();
+        for (RowGroupIndex rowGroupIndex : rowGroupIndexes) {
+            RowIndexEntry.Builder entry = RowIndexEntry.newBuilder();
+            for (int position : rowGroupIndex.getPositions()) {
+                entry.addPositions(position);
+            }
+            entry.setStatistics(toColumnStatistics(rowGroupIndex.getColumnStatistics()));
+            builder.addEntry(entry);
+        }
+        return writeProtobufObject(output, builder.build());
+    }
+
+    private static int writeProtobufObject(SliceOutput output, MessageLite message)
+            throws IOException
+    {
+        int size = message.getSerializedSize();
+        message.writeTo(output);
+        return size;
+    }
+
+    private static OrcProto.StripeInformation toStripeInformation(StripeInformation stripe)
+    {
+        return OrcProto.StripeInformation.newBuilder()
+                .setNumberOfRows(stripe.getNumberOfRows())
+                .setOffset(stripe.getOffset())
+                .setIndexLength(stripe.getIndexLength())
+                .setDataLength(stripe.getDataLength())
+                .setFooterLength(stripe.getFooterLength())
+                .build();
+    }
+
+    private static OrcProto.Type toType(OrcType type)
+    {
+        OrcProto.Type.Builder builder = OrcProto.Type.newBuilder()
+                .setKind(toTypeKind(type.getOrcTypeKind()));
+        for (int field = 0; field < type.getFieldCount(); field++) {
+            builder.addSubtypes(type.getFieldTypeIndex(field));
+        }
+        if (type.getFieldNames() != null) {
+            builder.addAllFieldNames(type.getFieldNames());
+        }
+        return builder.build();
+    }
+
+    private static List<OrcProto.ColumnStatistics> toColumnStatistics(List<ColumnStatistics> columnStatistics)
+    {
+        ImmutableList.Builder<OrcProto.ColumnStatistics> statistics = ImmutableList.builder();
+        for (ColumnStatistics columnStatistic : columnStatistics) {
+            statistics.add(toColumnStatistics(columnStatistic));
+        }
+        return statistics.build();
+    }
+
+    private static OrcProto.ColumnStatistics toColumnStatistics(ColumnStatistics statistics)
+    {
+        OrcProto.ColumnStatistics.Builder builder = OrcProto.ColumnStatistics.newBuilder();
+
+        if (statistics.hasNumberOfValues()) {
+            builder.setNumberOfValues(statistics.getNumberOfValues());
+        }
+
+        if (statistics.getBooleanStatistics() != null) {
+            builder.setBucketStatistics(OrcProto.BucketStatistics.newBuilder()
+                    .addCount(statistics.getBooleanStatistics().getTrueValueCount()));
+        }
+
+        IntegerStatistics integerStatistics = statistics.getIntegerStatistics();
+        if (integerStatistics != null) {
+            OrcProto.IntegerStatistics.Builder integerBuilder = OrcProto.IntegerStatistics.newBuilder();
+            if (integerStatistics.getMin() != null) {
+                integerBuilder.setMinimum(integerStatistics.getMin());
+            }
+            if (integerStatistics.getMax() != null) {
+                integerBuilder.setMaximum(integerStatistics.getMax());
+            }
+            builder.setIntStatistics(integerBuilder);
+        }
+
+        DoubleStatistics doubleStatistics = statistics.getDoubleStatistics();
+        if (doubleStatistics != null) {
+            OrcProto.DoubleStatistics.Builder doubleBuilder = OrcProto.DoubleStatistics.newBuilder();
+            if (doubleStatistics.getMin() != null) {
+                doubleBuilder.setMinimum(doubleStatistics.getMin());
+            }
+            if (doubleStatistics.getMax() != null) {
+                doubleBuilder.setMaximum(doubleStatistics.getMax());
+            }
+            builder.setDoubleStatistics(doubleBuilder);
+        }
+
+        StringStatistics stringStatistics = statistics.getStringStatistics();
+        if (stringStatistics != null) {
+            OrcProto.StringStatistics.Builder stringBuilder = OrcProto.StringStatistics.newBuilder();
+            if (stringStatistics.getMin() != null) {
+                stringBuilder.setMinimum(stringStatistics.getMin().toStringUtf8());
+            }
+            if (stringStatistics.getMax() != null) {
+                stringBuilder.setMaximum(stringStatistics.getMax().toStringUtf8());
+            }
+            builder.setStringStatistics(stringBuilder);
+        }
+
+        DateStatistics dateStatistics = statistics.getDateStatistics();
+        if (dateStatistics != null) {
+            OrcProto.DateStatistics.Builder dateBuilder = OrcProto.DateStatistics.newBuilder();
+            if (dateStatistics.getMin() != null) {
+                dateBuilder.setMinimum(dateStatistics.getMin());
+            }
+            if (dateStatistics.getMax() != null) {
+                dateBuilder.setMaximum(dateStatistics.getMax());
+            }
+            builder.setDateStatistics(dateBuilder);
+        }
+
+        return builder.build();
+    }
+
+    private static OrcProto.Type.Kind toTypeKind(OrcTypeKind typeKind)
+    {
+        switch (typeKind) {
+            case BOOLEAN:
+                return OrcProto.Type.Kind.BOOLEAN;
+            case BYTE:
+                return OrcProto.Type.Kind.BYTE;
+            case SHORT:
+                return OrcProto.Type.Kind.SHORT;
+            case INT:
+                return OrcProto.Type.Kind.INT;
+            case LONG:
+                return OrcProto.Type.Kind.LONG;
+            case FLOAT:
+                return OrcProto.Type.Kind.FLOAT;
+            case DOUBLE:
+                return OrcProto.Type.Kind.DOUBLE;
+            case STRING:
+                return OrcProto.Type.Kind.STRING;
+            case BINARY:
+                return OrcProto.Type.Kind.BINARY;
+            case TIMESTAMP:
+                return OrcProto.Type.Kind.TIMESTAMP;
+            case LIST:
+                return OrcProto.Type.Kind.LIST;
+            case MAP:
+                return OrcProto.Type.Kind.MAP;
+            case STRUCT:
+                return OrcProto.Type.Kind.STRUCT;
+            case UNION:
+                return OrcProto.Type.Kind.UNION;
+            case DECIMAL:
+                return OrcProto.Type.Kind.DECIMAL;
+            case DATE:
+                return OrcProto.Type.Kind.DATE;
+            case VARCHAR:
+                return OrcProto.Type.Kind.VARCHAR;
+            case CHAR:
+                return OrcProto.Type.Kind.CHAR;
+            default:
+                throw new IllegalArgumentException(typeKind + " type not implemented yet");
+        }
+    }
+
+    private static OrcProto.Stream.Kind toStreamKind(StreamKind streamKind)
+    {
+        switch (streamKind) {
+            case PRESENT:
+                return OrcProto.Stream.Kind.PRESENT;
+            case DATA:
+                return OrcProto.Stream.Kind.DATA;
+            case LENGTH:
+                return OrcProto.Stream.Kind.LENGTH;
+            case DICTIONARY_DATA:
+                return OrcProto.Stream.Kind.DICTIONARY_DATA;
+            case DICTIONARY_COUNT:
+                return OrcProto.Stream.Kind.DICTIONARY_COUNT;
+            case SECONDARY:
+                return OrcProto.Stream.Kind.SECONDARY;
+            case ROW_INDEX:
+                return OrcProto.Stream.Kind.ROW_INDEX;
+            default:
+                throw new IllegalArgumentException(streamKind + " stream type not supported by ORC");
+        }
+    }
+
+    private static OrcProto.ColumnEncoding.Kind toColumnEncodingKind(ColumnEncodingKind columnEncodingKind)
+    {
+        switch (columnEncodingKind) {
+            case DIRECT:
+                return OrcProto.ColumnEncoding.Kind.DIRECT;
+            case DIRECT_V2:
+                return OrcProto.ColumnEncoding.Kind.DIRECT_V2;
+            case DICTIONARY:
+                return OrcProto.ColumnEncoding.Kind.DICTIONARY;
+            case DICTIONARY_V2:
+                return OrcProto.ColumnEncoding.Kind.DICTIONARY_V2;
+            default:
+                throw new IllegalArgumentException(columnEncodingKind + " stream encoding not supported by ORC");
+        }
+    }
+
+    private static OrcProto.CompressionKind toCompression(CompressionKind compression)
+    {
+        switch (compression) {
+            case UNCOMPRESSED:
+                return OrcProto.CompressionKind.NONE;
+            case ZLIB:
+                return OrcProto.CompressionKind.ZLIB;
+            case SNAPPY:
+                return OrcProto.CompressionKind.SNAPPY;
+            default:
+                throw new IllegalArgumentException(compression + " compression not implemented yet");
+        }
+    }
+}
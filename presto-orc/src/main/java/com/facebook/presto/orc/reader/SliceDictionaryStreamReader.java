@@ -69,6 +69,8 @@ public class SliceDictionaryStreamReader
     private int dictionarySize;
     @Nonnull
     private Slice[] dictionary = new Slice[1];
+    @Nonnull
+    private SliceArrayBlock dictionaryBlock = new SliceArrayBlock(1, dictionary, true);
 
     @Nonnull
     private StreamSource<LongStream> dictionaryLengthStreamSource = missingStreamSource(LongStream.class);
@@ -201,7 +203,7 @@ public class SliceDictionaryStreamReader
             }
             // copy ids into a private array for this block since data vector is reused
             Slice ids = Slices.wrappedIntArray(Arrays.copyOfRange(dataVector, 0, nextBatchSize));
-            block = new DictionaryBlock(nextBatchSize, new SliceArrayBlock(dictionarySize + 1, dictionary, true), ids);
+            block = new DictionaryBlock(nextBatchSize, dictionaryBlock, ids);
         }
 
         readOffset = 0;
@@ -229,6 +231,9 @@ public class SliceDictionaryStreamReader
                 ByteArrayStream dictionaryDataStream = dictionaryDataStreamSource.openStream();
                 readDictionary(dictionaryDataStream, dictionarySize, dictionaryLength, dictionary);
             }
+            // all the blocks of the stripe share the dictionary block, so expressions
+            // over the dictionary can be evaluated once for the whole stripe
+            dictionaryBlock = new SliceArrayBlock(dictionarySize + 1, dictionary, true);
         }
         dictionaryOpen = true;
 
@@ -0,0 +1,115 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.orc.stream;
+
+import com.facebook.presto.orc.metadata.CompressionKind;
+import com.facebook.presto.orc.metadata.Stream.StreamKind;
+import com.google.common.collect.ImmutableList;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * Bits packed high bit first into a {@link ByteOutputStream}, as read by {@link BooleanStream}.
+ */
+public class BooleanOutputStream
+        implements ValueOutputStream
+{
+    private final ByteOutputStream byteOutputStream;
+    private final List<Integer> checkpointBitOffsets = new ArrayList<>();
+
+    private int data;
+    private int bitsInData;
+
+    public BooleanOutputStream(StreamKind streamKind, CompressionKind compression, int bufferSize)
+    {
+        this.byteOutputStream = new ByteOutputStream(streamKind, compression, bufferSize);
+    }
+
+    public void writeBoolean(boolean value)
+    {
+        data <<= 1;
+        if (value) {
+            data |= 1;
+        }
+        bitsInData++;
+
+        if (bitsInData == 8) {
+            flushData();
+        }
+    }
+
+    private void flushData()
+    {
+        byteOutputStream.writeByte((byte) data);
+        data = 0;
+        bitsInData = 0;
+    }
+
+    @Override
+    public void recordCheckpoint()
+    {
+        byteOutputStream.recordCheckpoint();
+        checkpointBitOffsets.add(bitsInData);
+    }
+
+    @Override
+    public List<List<Integer>> getCheckpoints()
+    {
+        List<List<Integer>> byteCheckpoints = byteOutputStream.getCheckpoints();
+        checkState(byteCheckpoints.size() == checkpointBitOffsets.size());
+
+        ImmutableList.Builder<List<Integer>> checkpoints = ImmutableList.builder();
+        for (int i = 0; i < byteCheckpoints.size(); i++) {
+            checkpoints.add(ImmutableList.<Integer>builder()
+                    .addAll(byteCheckpoints.get(i))
+                    .add(checkpointBitOffsets.get(i))
+                    .build());
+        }
+        return checkpoints.build();
+    }
+
+    @Override
+    public void close()
+    {
+        if (bitsInData > 0) {
+            data <<= 8 - bitsInData;
+            flushData();
+        }
+        byteOutputStream.close();
+    }
+
+    @Override
+    public StreamDataOutput getStreamDataOutput(int column)
+    {
+        return byteOutputStream.getStreamDataOutput(column);
+    }
+
+    @Override
+    public long getBufferedBytes()
+    {
+        return byteOutputStream.getBufferedBytes();
+    }
+
+    @Override
+    public void reset()
+    {
+        data = 0;
+        bitsInData = 0;
+        checkpointBitOffsets.clear();
+        byteOutputStream.reset();
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.orc.stream;
+
+import com.facebook.presto.orc.metadata.CompressionKind;
+import com.facebook.presto.orc.metadata.Stream;
+import com.facebook.presto.orc.metadata.Stream.StreamKind;
+import com.google.common.collect.ImmutableList;
+import com.google.common.primitives.Ints;
+import io.airlift.slice.Slice;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Unencoded byte array values, as read by {@link ByteArrayStream}.
+ */
+public class ByteArrayOutputStream
+        implements ValueOutputStream
+{
+    private final StreamKind streamKind;
+    private final OrcOutputBuffer buffer;
+    private final List<List<Integer>> checkpoints = new ArrayList<>();
+
+    private boolean closed;
+
+    public ByteArrayOutputStream(StreamKind streamKind, CompressionKind compression, int bufferSize)
+    {
+        this.streamKind = requireNonNull(streamKind, "streamKind is null");
+        this.buffer = new OrcOutputBuffer(compression, bufferSize);
+    }
+
+    public void writeSlice(Slice value)
+    {
+        checkState(!closed, "stream is closed");
+        buffer.writeBytes(value);
+    }
+
+    @Override
+    public void recordCheckpoint()
+    {
+        checkState(!closed, "stream is closed");
+        checkpoints.add(buffer.getCheckpointPositions());
+    }
+
+    @Override
+    public List<List<Integer>> getCheckpoints()
+    {
+        checkState(closed, "stream must be closed before the checkpoints are read");
+        return ImmutableList.copyOf(checkpoints);
+    }
+
+    @Override
+    public void close()
+    {
+        closed = true;
+        buffer.close();
+    }
+
+    @Override
+    public StreamDataOutput getStreamDataOutput(int column)
+    {
+        checkState(closed, "stream is not closed");
+        return new StreamDataOutput(new Stream(column, streamKind, Ints.checkedCast(buffer.getOutputDataSize()), true), buffer::writeDataTo);
+    }
+
+    @Override
+    public long getBufferedBytes()
+    {
+        return buffer.getOutputDataSize();
+    }
+
+    @Override
+    public void reset()
+    {
+        closed = false;
+        buffer.reset();
+        checkpoints.clear();
+    }
+}
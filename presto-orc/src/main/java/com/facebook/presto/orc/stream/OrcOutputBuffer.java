@@ -0,0 +1,254 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.orc.stream;
+
+import com.facebook.presto.orc.metadata.CompressionKind;
+import com.google.common.collect.ImmutableList;
+import io.airlift.slice.DynamicSliceOutput;
+import io.airlift.slice.Slice;
+import io.airlift.slice.SliceOutput;
+import io.airlift.slice.Slices;
+import org.iq80.snappy.Snappy;
+
+import java.util.List;
+import java.util.zip.Deflater;
+
+import static com.facebook.presto.orc.metadata.CompressionKind.SNAPPY;
+import static com.facebook.presto.orc.metadata.CompressionKind.UNCOMPRESSED;
+import static com.facebook.presto.orc.metadata.CompressionKind.ZLIB;
+import static com.google.common.base.Preconditions.checkArgument;
+import static io.airlift.slice.SizeOf.SIZE_OF_LONG;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Write side of {@link OrcInputStream}. Data is collected in chunks of the
+ * compression block size, and each full chunk is compressed and framed with
+ * the three byte ORC block header.
+ */
+public class OrcOutputBuffer
+{
+    // NOTE: this must match the header read in OrcInputStream
+    private static final int BLOCK_HEADER_SIZE = 3;
+    private static final int INITIAL_OUTPUT_SIZE = 1024;
+
+    private final CompressionKind compressionKind;
+    private final int maxBufferSize;
+    private final DynamicSliceOutput compressedOutput = new DynamicSliceOutput(INITIAL_OUTPUT_SIZE);
+
+    private final byte[] buffer;
+    private final Slice bufferSlice;
+    private int bufferPosition;
+
+    private byte[] compressionBuffer;
+    private Deflater deflater;
+
+    public OrcOutputBuffer(CompressionKind compressionKind, int maxBufferSize)
+    {
+        this.compressionKind = requireNonNull(compressionKind, "compressionKind is null");
+        checkArgument(compressionKind == UNCOMPRESSED || compressionKind == SNAPPY || compressionKind == ZLIB, "%s compression not supported", compressionKind);
+        checkArgument(maxBufferSize > 0 && maxBufferSize < (1 << 23), "maxBufferSize must be positive and fit in the block header");
+        this.maxBufferSize = maxBufferSize;
+        this.buffer = new byte[maxBufferSize];
+        this.bufferSlice = Slices.wrappedBuffer(buffer);
+    }
+
+    /**
+     * Encodes a complete stream, such as the file footer, with the framing of the compression kind.
+     */
+    public static Slice compressSlice(Slice data, CompressionKind compressionKind, int maxBufferSize)
+    {
+        OrcOutputBuffer buffer = new OrcOutputBuffer(compressionKind, maxBufferSize);
+        buffer.writeBytes(data);
+        buffer.close();
+        return buffer.compressedOutput.slice();
+    }
+
+    /**
+     * Returns the positions of the next byte written, in the format read by
+     * {@link com.facebook.presto.orc.checkpoint.InputStreamCheckpoint}.
+     */
+    public List<Integer> getCheckpointPositions()
+    {
+        if (compressionKind == UNCOMPRESSED) {
+            return ImmutableList.of(compressedOutput.size() + bufferPosition);
+        }
+        return ImmutableList.of(compressedOutput.size(), bufferPosition);
+    }
+
+    public void writeByte(int value)
+    {
+        buffer[bufferPosition++] = (byte) value;
+        if (bufferPosition == maxBufferSize) {
+            flushBuffer();
+        }
+    }
+
+    public void writeBytes(byte[] source, int sourceIndex, int length)
+    {
+        while (length > 0) {
+            int chunk = Math.min(length, maxBufferSize - bufferPosition);
+            System.arraycopy(source, sourceIndex, buffer, bufferPosition, chunk);
+            bufferPosition += chunk;
+            sourceIndex += chunk;
+            length -= chunk;
+            if (bufferPosition == maxBufferSize) {
+                flushBuffer();
+            }
+        }
+    }
+
+    public void writeBytes(Slice source)
+    {
+        writeBytes(source, 0, source.length());
+    }
+
+    public void writeBytes(Slice source, int sourceIndex, int length)
+    {
+        while (length > 0) {
+            int chunk = Math.min(length, maxBufferSize - bufferPosition);
+            source.getBytes(sourceIndex, buffer, bufferPosition, chunk);
+            bufferPosition += chunk;
+            sourceIndex += chunk;
+            length -= chunk;
+            if (bufferPosition == maxBufferSize) {
+                flushBuffer();
+            }
+        }
+    }
+
+    public void writeLong(long value)
+    {
+        if (bufferPosition + SIZE_OF_LONG < maxBufferSize) {
+            bufferSlice.setLong(bufferPosition, value);
+            bufferPosition += SIZE_OF_LONG;
+            return;
+        }
+
+        // the value spans two chunks; little endian, to match the Slice based readers
+        for (int i = 0; i < SIZE_OF_LONG; i++) {
+            writeByte((int) (value >>> (i * 8)));
+        }
+    }
+
+    public void writeDouble(double value)
+    {
+        writeLong(Double.doubleToRawLongBits(value));
+    }
+
+    public void writeVLong(long value)
+    {
+        while ((value & ~0x7FL) != 0) {
+            writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        writeByte((int) value);
+    }
+
+    /**
+     * Number of bytes in the stream, if it was closed now.
+     */
+    public long getOutputDataSize()
+    {
+        if (compressionKind == UNCOMPRESSED || bufferPosition == 0) {
+            return compressedOutput.size() + bufferPosition;
+        }
+        // estimate the pending chunk, assuming it does not compress
+        return compressedOutput.size() + BLOCK_HEADER_SIZE + bufferPosition;
+    }
+
+    /**
+     * Flushes the pending chunk. No more data may be written until the buffer is reset.
+     */
+    public void close()
+    {
+        if (bufferPosition > 0) {
+            flushBuffer();
+        }
+        if (deflater != null) {
+            deflater.end();
+            deflater = null;
+        }
+    }
+
+    public int writeDataTo(SliceOutput output)
+    {
+        Slice data = compressedOutput.slice();
+        output.writeBytes(data);
+        return data.length();
+    }
+
+    public void reset()
+    {
+        compressedOutput.reset();
+        bufferPosition = 0;
+    }
+
+    private void flushBuffer()
+    {
+        if (compressionKind == UNCOMPRESSED) {
+            compressedOutput.writeBytes(buffer, 0, bufferPosition);
+        }
+        else {
+            int compressedSize = compress(buffer, bufferPosition);
+            if (compressedSize < bufferPosition) {
+                writeBlockHeader(compressedSize, false);
+                compressedOutput.writeBytes(compressionBuffer, 0, compressedSize);
+            }
+            else {
+                // ORC stores chunks that do not compress in their original form
+                writeBlockHeader(bufferPosition, true);
+                compressedOutput.writeBytes(buffer, 0, bufferPosition);
+            }
+        }
+        bufferPosition = 0;
+    }
+
+    private int compress(byte[] input, int length)
+    {
+        if (compressionKind == SNAPPY) {
+            int maxCompressedLength = Snappy.maxCompressedLength(length);
+            if (compressionBuffer == null || compressionBuffer.length < maxCompressedLength) {
+                compressionBuffer = new byte[maxCompressedLength];
+            }
+            return Snappy.compress(input, 0, length, compressionBuffer, 0);
+        }
+
+        // the compressed data is only used if it is smaller than the input
+        if (compressionBuffer == null) {
+            compressionBuffer = new byte[maxBufferSize];
+        }
+        if (deflater == null) {
+            deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        }
+        deflater.reset();
+        deflater.setInput(input, 0, length);
+        deflater.finish();
+        int compressedSize = 0;
+        while (!deflater.finished() && compressedSize < compressionBuffer.length) {
+            compressedSize += deflater.deflate(compressionBuffer, compressedSize, compressionBuffer.length - compressedSize);
+        }
+        if (!deflater.finished()) {
+            return Integer.MAX_VALUE;
+        }
+        return compressedSize;
+    }
+
+    private void writeBlockHeader(int length, boolean isOriginal)
+    {
+        int header = (length << 1) | (isOriginal ? 1 : 0);
+        compressedOutput.writeByte(header & 0xFF);
+        compressedOutput.writeByte((header >>> 8) & 0xFF);
+        compressedOutput.writeByte((header >>> 16) & 0xFF);
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.orc.stream;
+
+import com.facebook.presto.orc.metadata.CompressionKind;
+
+import java.util.List;
+import java.util.Optional;
+
+import static com.facebook.presto.orc.metadata.Stream.StreamKind.PRESENT;
+
+/**
+ * The present stream of a column. The stream and its checkpoint positions are
+ * omitted from the stripe if the column does not contain nulls.
+ */
+public class PresentOutputStream
+{
+    private final BooleanOutputStream booleanOutputStream;
+    private boolean hasNulls;
+
+    public PresentOutputStream(CompressionKind compression, int bufferSize)
+    {
+        this.booleanOutputStream = new BooleanOutputStream(PRESENT, compression, bufferSize);
+    }
+
+    public void writeBoolean(boolean value)
+    {
+        if (!value) {
+            hasNulls = true;
+        }
+        booleanOutputStream.writeBoolean(value);
+    }
+
+    public void recordCheckpoint()
+    {
+        booleanOutputStream.recordCheckpoint();
+    }
+
+    public Optional<List<List<Integer>>> getCheckpoints()
+    {
+        if (!hasNulls) {
+            return Optional.empty();
+        }
+        return Optional.of(booleanOutputStream.getCheckpoints());
+    }
+
+    public void close()
+    {
+        booleanOutputStream.close();
+    }
+
+    public Optional<StreamDataOutput> getStreamDataOutput(int column)
+    {
+        if (!hasNulls) {
+            return Optional.empty();
+        }
+        return Optional.of(booleanOutputStream.getStreamDataOutput(column));
+    }
+
+    public long getBufferedBytes()
+    {
+        return booleanOutputStream.getBufferedBytes();
+    }
+
+    public void reset()
+    {
+        hasNulls = false;
+        booleanOutputStream.reset();
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.orc.stream;
+
+import com.facebook.presto.orc.metadata.Stream;
+import io.airlift.slice.Slice;
+import io.airlift.slice.SliceOutput;
+
+import java.util.function.ToIntFunction;
+
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.Objects.requireNonNull;
+
+public final class StreamDataOutput
+{
+    private final Stream stream;
+    private final ToIntFunction<SliceOutput> writer;
+
+    public StreamDataOutput(Slice data, Stream stream)
+    {
+        this(stream, output -> {
+            output.writeBytes(data);
+            return data.length();
+        });
+    }
+
+    public StreamDataOutput(Stream stream, ToIntFunction<SliceOutput> writer)
+    {
+        this.stream = requireNonNull(stream, "stream is null");
+        this.writer = requireNonNull(writer, "writer is null");
+    }
+
+    public Stream getStream()
+    {
+        return stream;
+    }
+
+    public long size()
+    {
+        return stream.getLength();
+    }
+
+    public void writeData(SliceOutput output)
+    {
+        int length = writer.applyAsInt(output);
+        checkState(length == stream.getLength(), "Stream %s wrote %s bytes but declared %s", stream, length, stream.getLength());
+    }
+}
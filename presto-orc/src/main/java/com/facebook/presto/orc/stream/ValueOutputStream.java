@@ -0,0 +1,39 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.orc.stream;
+
+import java.util.List;
+
+public interface ValueOutputStream
+{
+    /**
+     * Records the current position of the stream, which will become the start
+     * of the next row group.
+     */
+    void recordCheckpoint();
+
+    /**
+     * Returns the positions of each recorded checkpoint, in the format read by the
+     * {@link com.facebook.presto.orc.checkpoint.StreamCheckpoint} of the matching value stream.
+     */
+    List<List<Integer>> getCheckpoints();
+
+    void close();
+
+    StreamDataOutput getStreamDataOutput(int column);
+
+    long getBufferedBytes();
+
+    void reset();
+}
@@ -0,0 +1,178 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.orc.writer;
+
+import com.facebook.presto.orc.metadata.BooleanStatistics;
+import com.facebook.presto.orc.metadata.ColumnEncoding;
+import com.facebook.presto.orc.metadata.ColumnStatistics;
+import com.facebook.presto.orc.metadata.CompressionKind;
+import com.facebook.presto.orc.metadata.OrcMetadataWriter;
+import com.facebook.presto.orc.metadata.RowGroupIndex;
+import com.facebook.presto.orc.stream.BooleanOutputStream;
+import com.facebook.presto.orc.stream.PresentOutputStream;
+import com.facebook.presto.orc.stream.StreamDataOutput;
+import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.type.Type;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.facebook.presto.orc.metadata.ColumnEncoding.ColumnEncodingKind.DIRECT;
+import static com.facebook.presto.orc.metadata.ColumnStatistics.mergeColumnStatistics;
+import static com.facebook.presto.orc.metadata.Stream.StreamKind.DATA;
+import static com.facebook.presto.orc.writer.ColumnWriters.createRowIndexStream;
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.Objects.requireNonNull;
+
+public class BooleanColumnWriter
+        implements ColumnWriter
+{
+    private final int column;
+    private final Type type;
+    private final CompressionKind compression;
+    private final int bufferSize;
+
+    private final PresentOutputStream presentStream;
+    private final BooleanOutputStream dataStream;
+
+    private final List<ColumnStatistics> rowGroupColumnStatistics = new ArrayList<>();
+    private long nonNullValueCount;
+    private long trueValueCount;
+
+    private boolean closed;
+
+    public BooleanColumnWriter(int column, Type type, CompressionKind compression, int bufferSize)
+    {
+        this.column = column;
+        this.type = requireNonNull(type, "type is null");
+        this.compression = requireNonNull(compression, "compression is null");
+        this.bufferSize = bufferSize;
+        this.presentStream = new PresentOutputStream(compression, bufferSize);
+        this.dataStream = new BooleanOutputStream(DATA, compression, bufferSize);
+    }
+
+    @Override
+    public Map<Integer, ColumnEncoding> getColumnEncodings()
+    {
+        return ImmutableMap.of(column, new ColumnEncoding(DIRECT, 0));
+    }
+
+    @Override
+    public void beginRowGroup()
+    {
+        presentStream.recordCheckpoint();
+        dataStream.recordCheckpoint();
+    }
+
+    @Override
+    public void writeBlock(Block block)
+    {
+        checkState(!closed, "writer is closed");
+        for (int position = 0; position < block.getPositionCount(); position++) {
+            if (block.isNull(position)) {
+                presentStream.writeBoolean(false);
+                continue;
+            }
+            presentStream.writeBoolean(true);
+
+            boolean value = type.getBoolean(block, position);
+            dataStream.writeBoolean(value);
+
+            nonNullValueCount++;
+            if (value) {
+                trueValueCount++;
+            }
+        }
+    }
+
+    @Override
+    public void finishRowGroup()
+    {
+        BooleanStatistics booleanStatistics = nonNullValueCount == 0 ? null : new BooleanStatistics(trueValueCount);
+        rowGroupColumnStatistics.add(new ColumnStatistics(nonNullValueCount, booleanStatistics, null, null, null, null));
+
+        nonNullValueCount = 0;
+        trueValueCount = 0;
+    }
+
+    @Override
+    public void close()
+    {
+        closed = true;
+        presentStream.close();
+        dataStream.close();
+    }
+
+    @Override
+    public Map<Integer, ColumnStatistics> getColumnStripeStatistics()
+    {
+        checkState(closed, "writer is not closed");
+        return ImmutableMap.of(column, mergeColumnStatistics(rowGroupColumnStatistics));
+    }
+
+    @Override
+    public List<StreamDataOutput> getIndexStreams(OrcMetadataWriter metadataWriter)
+            throws IOException
+    {
+        checkState(closed, "writer is not closed");
+
+        Optional<List<List<Integer>>> presentCheckpoints = presentStream.getCheckpoints();
+        List<List<Integer>> dataCheckpoints = dataStream.getCheckpoints();
+
+        ImmutableList.Builder<RowGroupIndex> rowGroupIndexes = ImmutableList.builder();
+        for (int group = 0; group < rowGroupColumnStatistics.size(); group++) {
+            ImmutableList.Builder<Integer> positions = ImmutableList.builder();
+            if (presentCheckpoints.isPresent()) {
+                positions.addAll(presentCheckpoints.get().get(group));
+            }
+            positions.addAll(dataCheckpoints.get(group));
+            rowGroupIndexes.add(new RowGroupIndex(positions.build(), rowGroupColumnStatistics.get(group)));
+        }
+
+        return ImmutableList.of(createRowIndexStream(column, rowGroupIndexes.build(), metadataWriter, compression, bufferSize));
+    }
+
+    @Override
+    public List<StreamDataOutput> getDataStreams()
+    {
+        checkState(closed, "writer is not closed");
+
+        ImmutableList.Builder<StreamDataOutput> outputs = ImmutableList.builder();
+        presentStream.getStreamDataOutput(column).ifPresent(outputs::add);
+        outputs.add(dataStream.getStreamDataOutput(column));
+        return outputs.build();
+    }
+
+    @Override
+    public long getBufferedBytes()
+    {
+        return presentStream.getBufferedBytes() + dataStream.getBufferedBytes();
+    }
+
+    @Override
+    public void reset()
+    {
+        closed = false;
+        presentStream.reset();
+        dataStream.reset();
+        rowGroupColumnStatistics.clear();
+        nonNullValueCount = 0;
+        trueValueCount = 0;
+    }
+}
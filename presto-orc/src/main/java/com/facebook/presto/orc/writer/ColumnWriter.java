@@ -0,0 +1,64 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.orc.writer;
+
+import com.facebook.presto.orc.metadata.ColumnEncoding;
+import com.facebook.presto.orc.metadata.ColumnStatistics;
+import com.facebook.presto.orc.metadata.OrcMetadataWriter;
+import com.facebook.presto.orc.stream.StreamDataOutput;
+import com.facebook.presto.spi.block.Block;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Write side of {@link com.facebook.presto.orc.reader.StreamReader}. A writer buffers
+ * the streams of one stripe for a column and its nested columns.
+ */
+public interface ColumnWriter
+{
+    /**
+     * Encodings of the column and its nested columns, by column index.
+     */
+    Map<Integer, ColumnEncoding> getColumnEncodings();
+
+    void beginRowGroup();
+
+    void writeBlock(Block block);
+
+    void finishRowGroup();
+
+    /**
+     * Finishes the stripe. The streams can be read until the writer is reset.
+     */
+    void close();
+
+    /**
+     * Statistics of the stripe for the column and its nested columns, by column index.
+     */
+    Map<Integer, ColumnStatistics> getColumnStripeStatistics();
+
+    List<StreamDataOutput> getIndexStreams(OrcMetadataWriter metadataWriter)
+            throws IOException;
+
+    List<StreamDataOutput> getDataStreams();
+
+    long getBufferedBytes();
+
+    /**
+     * Clears the stripe, so the writer can be used for the next one.
+     */
+    void reset();
+}
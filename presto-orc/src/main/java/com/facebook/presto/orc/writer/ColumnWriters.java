@@ -0,0 +1,77 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.orc.writer;
+
+import com.facebook.presto.orc.metadata.CompressionKind;
+import com.facebook.presto.orc.metadata.OrcMetadataWriter;
+import com.facebook.presto.orc.metadata.OrcType;
+import com.facebook.presto.orc.metadata.RowGroupIndex;
+import com.facebook.presto.orc.metadata.Stream;
+import com.facebook.presto.orc.stream.StreamDataOutput;
+import com.facebook.presto.spi.type.Type;
+import io.airlift.slice.DynamicSliceOutput;
+import io.airlift.slice.Slice;
+
+import java.io.IOException;
+import java.util.List;
+
+import static com.facebook.presto.orc.metadata.Stream.StreamKind.ROW_INDEX;
+import static com.facebook.presto.orc.stream.OrcOutputBuffer.compressSlice;
+
+public final class ColumnWriters
+{
+    private ColumnWriters()
+    {
+    }
+
+    public static ColumnWriter createColumnWriter(int columnIndex, List<OrcType> orcTypes, Type type, CompressionKind compression, int bufferSize)
+    {
+        OrcType orcType = orcTypes.get(columnIndex);
+        switch (orcType.getOrcTypeKind()) {
+            case BOOLEAN:
+                return new BooleanColumnWriter(columnIndex, type, compression, bufferSize);
+            case LONG:
+                return new LongColumnWriter(columnIndex, type, compression, bufferSize);
+            case DOUBLE:
+                return new DoubleColumnWriter(columnIndex, type, compression, bufferSize);
+            case STRING:
+                return new SliceColumnWriter(columnIndex, type, compression, bufferSize, true);
+            case BINARY:
+                return new SliceColumnWriter(columnIndex, type, compression, bufferSize, false);
+            case LIST: {
+                Type elementType = type.getTypeParameters().get(0);
+                ColumnWriter elementWriter = createColumnWriter(orcType.getFieldTypeIndex(0), orcTypes, elementType, compression, bufferSize);
+                return new ListColumnWriter(columnIndex, type, compression, bufferSize, elementWriter);
+            }
+            case MAP: {
+                Type keyType = type.getTypeParameters().get(0);
+                Type valueType = type.getTypeParameters().get(1);
+                ColumnWriter keyWriter = createColumnWriter(orcType.getFieldTypeIndex(0), orcTypes, keyType, compression, bufferSize);
+                ColumnWriter valueWriter = createColumnWriter(orcType.getFieldTypeIndex(1), orcTypes, valueType, compression, bufferSize);
+                return new MapColumnWriter(columnIndex, type, compression, bufferSize, keyWriter, valueWriter);
+            }
+            default:
+                throw new IllegalArgumentException("Unsupported type: " + type);
+        }
+    }
+
+    static StreamDataOutput createRowIndexStream(int column, List<RowGroupIndex> rowGroupIndexes, OrcMetadataWriter metadataWriter, CompressionKind compression, int bufferSize)
+            throws IOException
+    {
+        DynamicSliceOutput output = new DynamicSliceOutput(64);
+        metadataWriter.writeRowIndexes(output, rowGroupIndexes);
+        Slice data = compressSlice(output.slice(), compression, bufferSize);
+        return new StreamDataOutput(data, new Stream(column, ROW_INDEX, data.length(), true));
+    }
+}
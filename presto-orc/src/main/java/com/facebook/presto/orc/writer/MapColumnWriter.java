@@ -0,0 +1,206 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.orc.writer;
+
+import com.facebook.presto.orc.metadata.ColumnEncoding;
+import com.facebook.presto.orc.metadata.ColumnStatistics;
+import com.facebook.presto.orc.metadata.CompressionKind;
+import com.facebook.presto.orc.metadata.OrcMetadataWriter;
+import com.facebook.presto.orc.metadata.RowGroupIndex;
+import com.facebook.presto.orc.stream.LongOutputStreamV1;
+import com.facebook.presto.orc.stream.PresentOutputStream;
+import com.facebook.presto.orc.stream.StreamDataOutput;
+import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.type.Type;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.facebook.presto.orc.metadata.ColumnEncoding.ColumnEncodingKind.DIRECT;
+import static com.facebook.presto.orc.metadata.ColumnStatistics.mergeColumnStatistics;
+import static com.facebook.presto.orc.metadata.Stream.StreamKind.LENGTH;
+import static com.facebook.presto.orc.writer.ColumnWriters.createRowIndexStream;
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.Objects.requireNonNull;
+
+public class MapColumnWriter
+        implements ColumnWriter
+{
+    private final int column;
+    private final Type type;
+    private final CompressionKind compression;
+    private final int bufferSize;
+
+    private final PresentOutputStream presentStream;
+    private final LongOutputStreamV1 lengthStream;
+    private final ColumnWriter keyWriter;
+    private final ColumnWriter valueWriter;
+
+    private final List<ColumnStatistics> rowGroupColumnStatistics = new ArrayList<>();
+    private long nonNullValueCount;
+
+    private boolean closed;
+
+    public MapColumnWriter(int column, Type type, CompressionKind compression, int bufferSize, ColumnWriter keyWriter, ColumnWriter valueWriter)
+    {
+        this.column = column;
+        this.type = requireNonNull(type, "type is null");
+        this.compression = requireNonNull(compression, "compression is null");
+        this.bufferSize = bufferSize;
+        this.presentStream = new PresentOutputStream(compression, bufferSize);
+        this.lengthStream = new LongOutputStreamV1(LENGTH, compression, bufferSize, false);
+        this.keyWriter = requireNonNull(keyWriter, "keyWriter is null");
+        this.valueWriter = requireNonNull(valueWriter, "valueWriter is null");
+    }
+
+    @Override
+    public Map<Integer, ColumnEncoding> getColumnEncodings()
+    {
+        return ImmutableMap.<Integer, ColumnEncoding>builder()
+                .put(column, new ColumnEncoding(DIRECT, 0))
+                .putAll(keyWriter.getColumnEncodings())
+                .putAll(valueWriter.getColumnEncodings())
+                .build();
+    }
+
+    @Override
+    public void beginRowGroup()
+    {
+        presentStream.recordCheckpoint();
+        lengthStream.recordCheckpoint();
+        keyWriter.beginRowGroup();
+        valueWriter.beginRowGroup();
+    }
+
+    @Override
+    public void writeBlock(Block block)
+    {
+        checkState(!closed, "writer is closed");
+        for (int position = 0; position < block.getPositionCount(); position++) {
+            if (block.isNull(position)) {
+                presentStream.writeBoolean(false);
+                continue;
+            }
+            presentStream.writeBoolean(true);
+
+            // keys and values are interleaved in the map block
+            Block entries = (Block) type.getObject(block, position);
+            int entryCount = entries.getPositionCount() / 2;
+            lengthStream.writeLong(entryCount);
+
+            int[] keyPositions = new int[entryCount];
+            int[] valuePositions = new int[entryCount];
+            for (int entry = 0; entry < entryCount; entry++) {
+                keyPositions[entry] = entry * 2;
+                valuePositions[entry] = (entry * 2) + 1;
+            }
+            keyWriter.writeBlock(entries.copyPositions(keyPositions, 0, entryCount));
+            valueWriter.writeBlock(entries.copyPositions(valuePositions, 0, entryCount));
+
+            nonNullValueCount++;
+        }
+    }
+
+    @Override
+    public void finishRowGroup()
+    {
+        rowGroupColumnStatistics.add(new ColumnStatistics(nonNullValueCount, null, null, null, null, null));
+        nonNullValueCount = 0;
+        keyWriter.finishRowGroup();
+        valueWriter.finishRowGroup();
+    }
+
+    @Override
+    public void close()
+    {
+        closed = true;
+        presentStream.close();
+        lengthStream.close();
+        keyWriter.close();
+        valueWriter.close();
+    }
+
+    @Override
+    public Map<Integer, ColumnStatistics> getColumnStripeStatistics()
+    {
+        checkState(closed, "writer is not closed");
+        return ImmutableMap.<Integer, ColumnStatistics>builder()
+                .put(column, mergeColumnStatistics(rowGroupColumnStatistics))
+                .putAll(keyWriter.getColumnStripeStatistics())
+                .putAll(valueWriter.getColumnStripeStatistics())
+                .build();
+    }
+
+    @Override
+    public List<StreamDataOutput> getIndexStreams(OrcMetadataWriter metadataWriter)
+            throws IOException
+    {
+        checkState(closed, "writer is not closed");
+
+        Optional<List<List<Integer>>> presentCheckpoints = presentStream.getCheckpoints();
+        List<List<Integer>> lengthCheckpoints = lengthStream.getCheckpoints();
+
+        ImmutableList.Builder<RowGroupIndex> rowGroupIndexes = ImmutableList.builder();
+        for (int group = 0; group < rowGroupColumnStatistics.size(); group++) {
+            ImmutableList.Builder<Integer> positions = ImmutableList.builder();
+            if (presentCheckpoints.isPresent()) {
+                positions.addAll(presentCheckpoints.get().get(group));
+            }
+            positions.addAll(lengthCheckpoints.get(group));
+            rowGroupIndexes.add(new RowGroupIndex(positions.build(), rowGroupColumnStatistics.get(group)));
+        }
+
+        return ImmutableList.<StreamDataOutput>builder()
+                .add(createRowIndexStream(column, rowGroupIndexes.build(), metadataWriter, compression, bufferSize))
+                .addAll(keyWriter.getIndexStreams(metadataWriter))
+                .addAll(valueWriter.getIndexStreams(metadataWriter))
+                .build();
+    }
+
+    @Override
+    public List<StreamDataOutput> getDataStreams()
+    {
+        checkState(closed, "writer is not closed");
+
+        ImmutableList.Builder<StreamDataOutput> outputs = ImmutableList.builder();
+        presentStream.getStreamDataOutput(column).ifPresent(outputs::add);
+        outputs.add(lengthStream.getStreamDataOutput(column));
+        outputs.addAll(keyWriter.getDataStreams());
+        outputs.addAll(valueWriter.getDataStreams());
+        return outputs.build();
+    }
+
+    @Override
+    public long getBufferedBytes()
+    {
+        return presentStream.getBufferedBytes() + lengthStream.getBufferedBytes() + keyWriter.getBufferedBytes() + valueWriter.getBufferedBytes();
+    }
+
+    @Override
+    public void reset()
+    {
+        closed = false;
+        presentStream.reset();
+        lengthStream.reset();
+        keyWriter.reset();
+        valueWriter.reset();
+        rowGroupColumnStatistics.clear();
+        nonNullValueCount = 0;
+    }
+}
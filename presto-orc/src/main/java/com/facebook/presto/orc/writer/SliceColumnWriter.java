@@ -0,0 +1,202 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.orc.writer;
+
+import com.facebook.presto.orc.metadata.ColumnEncoding;
+import com.facebook.presto.orc.metadata.ColumnStatistics;
+import com.facebook.presto.orc.metadata.CompressionKind;
+import com.facebook.presto.orc.metadata.OrcMetadataWriter;
+import com.facebook.presto.orc.metadata.RowGroupIndex;
+import com.facebook.presto.orc.metadata.StringStatistics;
+import com.facebook.presto.orc.stream.ByteArrayOutputStream;
+import com.facebook.presto.orc.stream.LongOutputStreamV1;
+import com.facebook.presto.orc.stream.PresentOutputStream;
+import com.facebook.presto.orc.stream.StreamDataOutput;
+import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.type.Type;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.airlift.slice.Slice;
+import io.airlift.slice.Slices;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.facebook.presto.orc.metadata.ColumnEncoding.ColumnEncodingKind.DIRECT;
+import static com.facebook.presto.orc.metadata.ColumnStatistics.mergeColumnStatistics;
+import static com.facebook.presto.orc.metadata.Stream.StreamKind.DATA;
+import static com.facebook.presto.orc.metadata.Stream.StreamKind.LENGTH;
+import static com.facebook.presto.orc.writer.ColumnWriters.createRowIndexStream;
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.Objects.requireNonNull;
+
+public class SliceColumnWriter
+        implements ColumnWriter
+{
+    private final int column;
+    private final Type type;
+    private final CompressionKind compression;
+    private final int bufferSize;
+    private final boolean collectRangeStatistics;
+
+    private final PresentOutputStream presentStream;
+    private final ByteArrayOutputStream dataStream;
+    private final LongOutputStreamV1 lengthStream;
+
+    private final List<ColumnStatistics> rowGroupColumnStatistics = new ArrayList<>();
+    private long nonNullValueCount;
+    private Slice minimum;
+    private Slice maximum;
+
+    private boolean closed;
+
+    public SliceColumnWriter(int column, Type type, CompressionKind compression, int bufferSize, boolean collectRangeStatistics)
+    {
+        this.column = column;
+        this.type = requireNonNull(type, "type is null");
+        this.compression = requireNonNull(compression, "compression is null");
+        this.bufferSize = bufferSize;
+        this.collectRangeStatistics = collectRangeStatistics;
+        this.presentStream = new PresentOutputStream(compression, bufferSize);
+        this.dataStream = new ByteArrayOutputStream(DATA, compression, bufferSize);
+        this.lengthStream = new LongOutputStreamV1(LENGTH, compression, bufferSize, false);
+    }
+
+    @Override
+    public Map<Integer, ColumnEncoding> getColumnEncodings()
+    {
+        return ImmutableMap.of(column, new ColumnEncoding(DIRECT, 0));
+    }
+
+    @Override
+    public void beginRowGroup()
+    {
+        presentStream.recordCheckpoint();
+        dataStream.recordCheckpoint();
+        lengthStream.recordCheckpoint();
+    }
+
+    @Override
+    public void writeBlock(Block block)
+    {
+        checkState(!closed, "writer is closed");
+        for (int position = 0; position < block.getPositionCount(); position++) {
+            if (block.isNull(position)) {
+                presentStream.writeBoolean(false);
+                continue;
+            }
+            presentStream.writeBoolean(true);
+
+            Slice value = type.getSlice(block, position);
+            dataStream.writeSlice(value);
+            lengthStream.writeLong(value.length());
+
+            nonNullValueCount++;
+            if (collectRangeStatistics) {
+                // the value may point into the block, so the bounds are copied
+                if (minimum == null || value.compareTo(minimum) < 0) {
+                    minimum = Slices.copyOf(value);
+                }
+                if (maximum == null || value.compareTo(maximum) > 0) {
+                    maximum = Slices.copyOf(value);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void finishRowGroup()
+    {
+        StringStatistics stringStatistics = minimum == null ? null : new StringStatistics(minimum, maximum);
+        rowGroupColumnStatistics.add(new ColumnStatistics(nonNullValueCount, null, null, null, stringStatistics, null));
+
+        nonNullValueCount = 0;
+        minimum = null;
+        maximum = null;
+    }
+
+    @Override
+    public void close()
+    {
+        closed = true;
+        presentStream.close();
+        dataStream.close();
+        lengthStream.close();
+    }
+
+    @Override
+    public Map<Integer, ColumnStatistics> getColumnStripeStatistics()
+    {
+        checkState(closed, "writer is not closed");
+        return ImmutableMap.of(column, mergeColumnStatistics(rowGroupColumnStatistics));
+    }
+
+    @Override
+    public List<StreamDataOutput> getIndexStreams(OrcMetadataWriter metadataWriter)
+            throws IOException
+    {
+        checkState(closed, "writer is not closed");
+
+        Optional<List<List<Integer>>> presentCheckpoints = presentStream.getCheckpoints();
+        List<List<Integer>> dataCheckpoints = dataStream.getCheckpoints();
+        List<List<Integer>> lengthCheckpoints = lengthStream.getCheckpoints();
+
+        ImmutableList.Builder<RowGroupIndex> rowGroupIndexes = ImmutableList.builder();
+        for (int group = 0; group < rowGroupColumnStatistics.size(); group++) {
+            ImmutableList.Builder<Integer> positions = ImmutableList.builder();
+            if (presentCheckpoints.isPresent()) {
+                positions.addAll(presentCheckpoints.get().get(group));
+            }
+            positions.addAll(dataCheckpoints.get(group));
+            positions.addAll(lengthCheckpoints.get(group));
+            rowGroupIndexes.add(new RowGroupIndex(positions.build(), rowGroupColumnStatistics.get(group)));
+        }
+
+        return ImmutableList.of(createRowIndexStream(column, rowGroupIndexes.build(), metadataWriter, compression, bufferSize));
+    }
+
+    @Override
+    public List<StreamDataOutput> getDataStreams()
+    {
+        checkState(closed, "writer is not closed");
+
+        ImmutableList.Builder<StreamDataOutput> outputs = ImmutableList.builder();
+        presentStream.getStreamDataOutput(column).ifPresent(outputs::add);
+        outputs.add(dataStream.getStreamDataOutput(column));
+        outputs.add(lengthStream.getStreamDataOutput(column));
+        return outputs.build();
+    }
+
+    @Override
+    public long getBufferedBytes()
+    {
+        return presentStream.getBufferedBytes() + dataStream.getBufferedBytes() + lengthStream.getBufferedBytes();
+    }
+
+    @Override
+    public void reset()
+    {
+        closed = false;
+        presentStream.reset();
+        dataStream.reset();
+        lengthStream.reset();
+        rowGroupColumnStatistics.clear();
+        nonNullValueCount = 0;
+        minimum = null;
+        maximum = null;
+    }
+}
@@ -31,14 +31,24 @@ import org.testng.annotations.Test;
 import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 
 import static com.facebook.presto.orc.OrcTester.Format.ORC_12;
 import static com.facebook.presto.orc.OrcTester.createCustomOrcRecordReader;
 import static com.facebook.presto.orc.OrcTester.createOrcRecordWriter;
 import static com.facebook.presto.orc.OrcTester.createSettableStructObjectInspector;
 import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static java.util.concurrent.Executors.newSingleThreadExecutor;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory.javaLongObjectInspector;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
 
 public class TestOrcReaderPositions
 {
@@ -69,6 +79,63 @@ public class TestOrcReaderPositions
         }
     }
 
+    @Test
+    public void testStripePrefetch()
+            throws Exception
+    {
+        ExecutorService executor = newSingleThreadExecutor();
+        try (TempFile tempFile = new TempFile("test", "orc")) {
+            createMultiStripeFile(tempFile.getFile());
+
+            OrcRecordReader reader = createCustomOrcRecordReader(tempFile, new OrcMetadataReader(), OrcPredicate.TRUE, BIGINT, Optional.of(executor));
+            assertEquals(reader.getReaderRowCount(), 100);
+            // nothing is read until the reader is used
+            assertEquals(reader.getSystemMemoryUsage(), 0);
+
+            for (int i = 0; i < 5; i++) {
+                // each batch starts a new stripe, which is read in the background
+                reader.isBlocked().get(10, SECONDS);
+                assertTrue(reader.getSystemMemoryUsage() > 0);
+                assertEquals(reader.nextBatch(), 20);
+                assertEquals(reader.getReaderPosition(), i * 20L);
+                assertCurrentBatch(reader, i);
+            }
+            // the last stripe has been handed to the column readers
+            assertEquals(reader.getSystemMemoryUsage(), 0);
+
+            assertTrue(reader.isBlocked().isDone());
+            assertEquals(reader.nextBatch(), -1);
+            assertEquals(reader.getReaderPosition(), 100);
+            reader.close();
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testCloseDiscardsPendingStripeRead()
+            throws Exception
+    {
+        List<Runnable> pendingReads = new ArrayList<>();
+        try (TempFile tempFile = new TempFile("test", "orc")) {
+            createMultiStripeFile(tempFile.getFile());
+
+            OrcRecordReader reader = createCustomOrcRecordReader(tempFile, new OrcMetadataReader(), OrcPredicate.TRUE, BIGINT, Optional.of(pendingReads::add));
+            CompletableFuture<?> blocked = reader.isBlocked();
+            assertFalse(blocked.isDone());
+            assertTrue(reader.getSystemMemoryUsage() > 0);
+
+            // the read has not started, so close does not wait for it
+            reader.close();
+            assertEquals(reader.getSystemMemoryUsage(), 0);
+
+            // and the read is skipped once it runs
+            pendingReads.forEach(Runnable::run);
+            assertNull(blocked.get());
+        }
+    }
+
     @Test
     public void testStripeSkipping()
             throws Exception
@@ -0,0 +1,211 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.orc;
+
+import com.facebook.presto.orc.OrcTester.TempFile;
+import com.facebook.presto.orc.metadata.CompressionKind;
+import com.facebook.presto.orc.metadata.IntegerStatistics;
+import com.facebook.presto.orc.metadata.OrcMetadataReader;
+import com.facebook.presto.spi.Page;
+import com.facebook.presto.spi.PageBuilder;
+import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.block.BlockBuilder;
+import com.facebook.presto.spi.type.Type;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.airlift.units.DataSize;
+import org.joda.time.DateTimeZone;
+import org.testng.annotations.Test;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static com.facebook.presto.orc.metadata.CompressionKind.SNAPPY;
+import static com.facebook.presto.orc.metadata.CompressionKind.UNCOMPRESSED;
+import static com.facebook.presto.orc.metadata.CompressionKind.ZLIB;
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.spi.type.BooleanType.BOOLEAN;
+import static com.facebook.presto.spi.type.DoubleType.DOUBLE;
+import static com.facebook.presto.spi.type.VarbinaryType.VARBINARY;
+import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
+import static io.airlift.slice.Slices.utf8Slice;
+import static io.airlift.units.DataSize.Unit.KILOBYTE;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestOrcWriter
+{
+    private static final List<Type> TYPES = ImmutableList.of(BIGINT, VARCHAR, DOUBLE, BOOLEAN, VARBINARY);
+    private static final List<String> COLUMN_NAMES = ImmutableList.of("bigint", "varchar", "double", "boolean", "varbinary");
+
+    // 3 stripes of 20,000 rows and a last stripe of 5,000 rows, with row groups of 10,000 rows
+    private static final int ROW_COUNT = 65_000;
+
+    @Test
+    public void testRoundTrip()
+            throws Exception
+    {
+        for (CompressionKind compression : ImmutableList.of(UNCOMPRESSED, ZLIB, SNAPPY)) {
+            try (TempFile tempFile = new TempFile("test", "orc")) {
+                writeFile(tempFile, compression);
+
+                OrcReader orcReader = createOrcReader(tempFile);
+                assertEquals(orcReader.getColumnNames(), COLUMN_NAMES);
+                assertEquals(orcReader.getFooter().getNumberOfRows(), ROW_COUNT);
+                assertEquals(orcReader.getFooter().getStripes().size(), 4);
+                assertEquals(orcReader.getFooter().getRowsInRowGroup(), 10_000);
+
+                OrcRecordReader reader = createRecordReader(orcReader, OrcPredicate.TRUE);
+                assertEquals(reader.getReaderRowCount(), ROW_COUNT);
+
+                int position = 0;
+                for (int batchSize = reader.nextBatch(); batchSize >= 0; batchSize = reader.nextBatch()) {
+                    assertBatch(reader, position, batchSize);
+                    position += batchSize;
+                }
+                assertEquals(position, ROW_COUNT);
+                reader.close();
+            }
+        }
+    }
+
+    @Test
+    public void testRowGroupSkipping()
+            throws Exception
+    {
+        try (TempFile tempFile = new TempFile("test", "orc")) {
+            writeFile(tempFile, SNAPPY);
+
+            // read the second row group of the second stripe
+            OrcPredicate predicate = (numberOfRows, statisticsByColumnIndex) -> {
+                if (numberOfRows == ROW_COUNT) {
+                    return true;
+                }
+                IntegerStatistics stats = statisticsByColumnIndex.get(0).getIntegerStatistics();
+                return (stats.getMin() <= 30_000) && (stats.getMax() >= 30_000);
+            };
+
+            OrcRecordReader reader = createRecordReader(createOrcReader(tempFile), predicate);
+            assertEquals(reader.getFileRowCount(), ROW_COUNT);
+
+            int rows = 0;
+            for (int batchSize = reader.nextBatch(); batchSize >= 0; batchSize = reader.nextBatch()) {
+                assertEquals(reader.getFilePosition(), 30_000L + rows);
+                assertBatch(reader, 30_000 + rows, batchSize);
+                rows += batchSize;
+            }
+            assertEquals(rows, 10_000);
+            reader.close();
+        }
+    }
+
+    private static void writeFile(TempFile tempFile, CompressionKind compression)
+            throws IOException
+    {
+        try (OrcWriter writer = new OrcWriter(
+                new FileOutputStream(tempFile.getFile()),
+                COLUMN_NAMES,
+                TYPES,
+                compression,
+                new DataSize(64, MEGABYTE),
+                20_000,
+                10_000,
+                new DataSize(64, KILOBYTE))) {
+            PageBuilder pageBuilder = new PageBuilder(TYPES);
+            for (int row = 0; row < ROW_COUNT; row++) {
+                int i = row;
+                pageBuilder.declarePosition();
+                appendValue(pageBuilder.getBlockBuilder(0), i, () -> BIGINT.writeLong(pageBuilder.getBlockBuilder(0), i));
+                appendValue(pageBuilder.getBlockBuilder(1), i, () -> VARCHAR.writeSlice(pageBuilder.getBlockBuilder(1), utf8Slice("value " + i)));
+                appendValue(pageBuilder.getBlockBuilder(2), i, () -> DOUBLE.writeDouble(pageBuilder.getBlockBuilder(2), i / 2.0));
+                appendValue(pageBuilder.getBlockBuilder(3), i, () -> BOOLEAN.writeBoolean(pageBuilder.getBlockBuilder(3), i % 3 == 0));
+                appendValue(pageBuilder.getBlockBuilder(4), i, () -> VARBINARY.writeSlice(pageBuilder.getBlockBuilder(4), utf8Slice(String.valueOf(i))));
+
+                // use pages of odd sizes, so they span row group boundaries
+                if (pageBuilder.getPositionCount() == 7_777) {
+                    writer.write(pageBuilder.build());
+                    pageBuilder.reset();
+                }
+            }
+            if (!pageBuilder.isEmpty()) {
+                writer.write(pageBuilder.build());
+            }
+        }
+    }
+
+    private static void appendValue(BlockBuilder blockBuilder, int row, Runnable writeValue)
+    {
+        if (isNull(row)) {
+            blockBuilder.appendNull();
+        }
+        else {
+            writeValue.run();
+        }
+    }
+
+    private static boolean isNull(int row)
+    {
+        // the first stripe has no nulls
+        return (row >= 20_000) && (row % 11 == 0);
+    }
+
+    private static void assertBatch(OrcRecordReader reader, int firstRow, int batchSize)
+            throws IOException
+    {
+        Block[] blocks = new Block[TYPES.size()];
+        for (int column = 0; column < TYPES.size(); column++) {
+            blocks[column] = reader.readBlock(TYPES.get(column), column);
+        }
+        Page page = new Page(batchSize, blocks);
+        for (int i = 0; i < batchSize; i++) {
+            int row = firstRow + i;
+            for (int column = 0; column < TYPES.size(); column++) {
+                assertEquals(page.getBlock(column).isNull(i), isNull(row));
+            }
+            if (isNull(row)) {
+                continue;
+            }
+            assertEquals(BIGINT.getLong(page.getBlock(0), i), row);
+            assertEquals(VARCHAR.getSlice(page.getBlock(1), i), utf8Slice("value " + row));
+            assertEquals(DOUBLE.getDouble(page.getBlock(2), i), row / 2.0);
+            if (row % 3 == 0) {
+                assertTrue(BOOLEAN.getBoolean(page.getBlock(3), i));
+            }
+            else {
+                assertFalse(BOOLEAN.getBoolean(page.getBlock(3), i));
+            }
+            assertEquals(VARBINARY.getSlice(page.getBlock(4), i), utf8Slice(String.valueOf(row)));
+        }
+    }
+
+    private static OrcReader createOrcReader(TempFile tempFile)
+            throws IOException
+    {
+        OrcDataSource orcDataSource = new FileOrcDataSource(tempFile.getFile(), new DataSize(1, MEGABYTE), new DataSize(1, MEGABYTE), new DataSize(1, MEGABYTE));
+        return new OrcReader(orcDataSource, new OrcMetadataReader());
+    }
+
+    private static OrcRecordReader createRecordReader(OrcReader orcReader, OrcPredicate predicate)
+            throws IOException
+    {
+        ImmutableMap.Builder<Integer, Type> includedColumns = ImmutableMap.builder();
+        for (int column = 0; column < TYPES.size(); column++) {
+            includedColumns.put(column, TYPES.get(column));
+        }
+        return orcReader.createRecordReader(includedColumns.build(), predicate, DateTimeZone.UTC);
+    }
+}
@@ -28,9 +28,13 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.Collection;
 
+import static com.google.common.base.MoreObjects.firstNonNull;
+
 public class PostgreSqlClient
         extends BaseJdbcClient
 {
+    private static final int DEFAULT_FETCH_SIZE = 1000;
+
     @Inject
     public PostgreSqlClient(JdbcConnectorId connectorId, BaseJdbcConfig config)
             throws SQLException
@@ -62,7 +66,8 @@ public class PostgreSqlClient
     {
         connection.setAutoCommit(false);
         Statement statement = connection.createStatement();
-        statement.setFetchSize(1000);
+        // the driver only streams results with a fetch size inside of a transaction
+        statement.setFetchSize(firstNonNull(fetchSize, DEFAULT_FETCH_SIZE));
         return statement;
     }
 }
@@ -30,12 +30,16 @@ import com.facebook.presto.spi.ConnectorMetadata;
 import com.facebook.presto.spi.ConnectorOutputTableHandle;
 import com.facebook.presto.spi.ConnectorSession;
 import com.facebook.presto.spi.ConnectorTableHandle;
+import com.facebook.presto.spi.ConnectorTableLayoutHandle;
 import com.facebook.presto.spi.ConnectorTableMetadata;
 import com.facebook.presto.spi.ConnectorViewDefinition;
+import com.facebook.presto.spi.Constraint;
 import com.facebook.presto.spi.PrestoException;
 import com.facebook.presto.spi.SchemaTableName;
 import com.facebook.presto.spi.SchemaTablePrefix;
 import com.facebook.presto.spi.ViewNotFoundException;
+import com.facebook.presto.spi.statistics.Estimate;
+import com.facebook.presto.spi.statistics.TableStatistics;
 import com.facebook.presto.spi.type.Type;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableListMultimap;
@@ -95,6 +99,7 @@ public class RaptorMetadata
 
     private final IDBI dbi;
     private final MetadataDao dao;
+    private final ShardManagerDao shardManagerDao;
     private final ShardManager shardManager;
     private final JsonCodec<ShardInfo> shardInfoCodec;
     private final JsonCodec<ShardDelta> shardDeltaCodec;
@@ -113,6 +118,7 @@ public class RaptorMetadata
         this.connectorId = connectorId.toString();
         this.dbi = requireNonNull(dbi, "dbi is null");
         this.dao = dbi.onDemand(MetadataDao.class);
+        this.shardManagerDao = dbi.onDemand(ShardManagerDao.class);
         this.shardManager = requireNonNull(shardManager, "shardManager is null");
         this.shardInfoCodec = requireNonNull(shardInfoCodec, "shardInfoCodec is null");
         this.shardDeltaCodec = requireNonNull(shardDeltaCodec, "shardDeltaCodec is null");
@@ -178,6 +184,23 @@ public class RaptorMetadata
         return new ConnectorTableMetadata(tableName, columns);
     }
 
+    @Override
+    public TableStatistics getTableStatistics(ConnectorSession session, ConnectorTableHandle tableHandle, Constraint<ColumnHandle> constraint)
+    {
+        // shards do not record column statistics, so the constraint is not applied
+        RaptorTableHandle handle = checkType(tableHandle, RaptorTableHandle.class, "tableHandle");
+        Long rowCount = shardManagerDao.getTableRowCount(handle.getTableId());
+        return new TableStatistics(Estimate.of(rowCount == null ? 0 : rowCount), ImmutableMap.of());
+    }
+
+    @Override
+    public Optional<Object> getDataVersion(ConnectorSession session, ConnectorTableHandle tableHandle, Optional<ConnectorTableLayoutHandle> layoutHandle)
+    {
+        // shards are immutable, so the data only changes when shards are added or replaced
+        RaptorTableHandle handle = checkType(tableHandle, RaptorTableHandle.class, "tableHandle");
+        return Optional.of(ImmutableSet.copyOf(shardManagerDao.getShards(handle.getTableId())));
+    }
+
     @Override
     public List<SchemaTableName> listTables(ConnectorSession session, @Nullable String schemaNameOrNull)
     {
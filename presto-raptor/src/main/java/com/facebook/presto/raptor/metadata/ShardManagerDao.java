@@ -106,6 +106,9 @@ public interface ShardManagerDao
     @SqlQuery("SELECT shard_uuid FROM shards WHERE table_id = :tableId")
     List<UUID> getShards(@Bind("tableId") long tableId);
 
+    @SqlQuery("SELECT sum(row_count) FROM shards WHERE table_id = :tableId")
+    Long getTableRowCount(@Bind("tableId") long tableId);
+
     @SqlQuery("SELECT s.table_id, s.shard_id, s.shard_uuid, s.row_count, s.compressed_size, s.uncompressed_size\n" +
             "FROM shards s\n" +
             "JOIN shard_nodes sn ON (s.shard_id = sn.shard_id)\n" +
@@ -13,82 +13,44 @@
  */
 package com.facebook.presto.raptor.storage;
 
-import com.facebook.presto.raptor.util.SyncingFileSystem;
+import com.facebook.presto.orc.OrcWriter;
 import com.facebook.presto.spi.Page;
+import com.facebook.presto.spi.PageBuilder;
 import com.facebook.presto.spi.PrestoException;
-import com.facebook.presto.spi.classloader.ThreadContextClassLoader;
+import com.facebook.presto.spi.block.Block;
 import com.facebook.presto.spi.type.Type;
 import com.facebook.presto.spi.type.VarbinaryType;
 import com.facebook.presto.spi.type.VarcharType;
-import com.google.common.base.Joiner;
-import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableList;
 import io.airlift.slice.Slice;
-import org.apache.hadoop.conf.Configuration;
-import org.apache.hadoop.fs.FileSystem;
-import org.apache.hadoop.fs.Path;
-import org.apache.hadoop.hive.ql.io.orc.NullMemoryManager;
-import org.apache.hadoop.hive.ql.io.orc.OrcFile;
-import org.apache.hadoop.hive.ql.io.orc.OrcOutputFormat;
-import org.apache.hadoop.hive.ql.io.orc.OrcSerde;
-import org.apache.hadoop.hive.ql.io.orc.OrcWriterOptions;
-import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
-import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector.Category;
-import org.apache.hadoop.hive.serde2.objectinspector.SettableStructObjectInspector;
-import org.apache.hadoop.hive.serde2.objectinspector.StructField;
-import org.apache.hadoop.hive.serde2.typeinfo.ListTypeInfo;
-import org.apache.hadoop.hive.serde2.typeinfo.MapTypeInfo;
-import org.apache.hadoop.hive.serde2.typeinfo.TypeInfo;
-import org.apache.hadoop.hive.serde2.typeinfo.TypeInfoUtils;
 
 import java.io.Closeable;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
-import java.lang.reflect.Constructor;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Properties;
 
+import static com.facebook.presto.orc.metadata.CompressionKind.SNAPPY;
 import static com.facebook.presto.raptor.RaptorErrorCode.RAPTOR_ERROR;
-import static com.facebook.presto.raptor.storage.Row.extractRow;
 import static com.facebook.presto.raptor.storage.StorageType.arrayOf;
 import static com.facebook.presto.raptor.storage.StorageType.mapOf;
 import static com.facebook.presto.raptor.util.Types.isArrayType;
 import static com.facebook.presto.raptor.util.Types.isMapType;
-import static com.facebook.presto.spi.StandardErrorCode.INTERNAL_ERROR;
 import static com.facebook.presto.spi.StandardErrorCode.NOT_SUPPORTED;
-import static com.google.common.base.Functions.toStringFunction;
 import static com.google.common.base.Preconditions.checkArgument;
-import static com.google.common.collect.Iterables.transform;
+import static io.airlift.slice.SizeOf.SIZE_OF_BYTE;
+import static io.airlift.slice.SizeOf.SIZE_OF_DOUBLE;
+import static io.airlift.slice.SizeOf.SIZE_OF_LONG;
 import static java.util.Objects.requireNonNull;
 import static java.util.stream.Collectors.toList;
-import static org.apache.hadoop.hive.metastore.api.hive_metastoreConstants.META_TABLE_COLUMNS;
-import static org.apache.hadoop.hive.metastore.api.hive_metastoreConstants.META_TABLE_COLUMN_TYPES;
-import static org.apache.hadoop.hive.ql.exec.FileSinkOperator.RecordWriter;
-import static org.apache.hadoop.hive.ql.io.orc.CompressionKind.SNAPPY;
-import static org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector.Category.LIST;
-import static org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector.Category.MAP;
-import static org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector.Category.PRIMITIVE;
-import static org.apache.hadoop.hive.serde2.objectinspector.ObjectInspectorFactory.getStandardListObjectInspector;
-import static org.apache.hadoop.hive.serde2.objectinspector.ObjectInspectorFactory.getStandardMapObjectInspector;
-import static org.apache.hadoop.hive.serde2.objectinspector.ObjectInspectorFactory.getStandardStructObjectInspector;
-import static org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory.getPrimitiveJavaObjectInspector;
-import static org.apache.hadoop.hive.serde2.typeinfo.TypeInfoFactory.getPrimitiveTypeInfo;
 
 public class OrcFileWriter
         implements Closeable
 {
-    private static final Configuration CONFIGURATION = new Configuration();
-    private static final Constructor<? extends RecordWriter> WRITER_CONSTRUCTOR = getOrcWriterConstructor();
-
     private final List<Type> columnTypes;
-
-    private final OrcSerde serializer;
-    private final RecordWriter recordWriter;
-    private final SettableStructObjectInspector tableInspector;
-    private final List<StructField> structFields;
-    private final Object orcRow;
+    private final OrcWriter orcWriter;
 
     private long rowCount;
     private long uncompressedSize;
@@ -99,62 +61,65 @@ public class OrcFileWriter
         checkArgument(columnIds.size() == columnTypes.size(), "ids and types mismatch");
         checkArgument(isUnique(columnIds), "ids must be unique");
 
-        List<StorageType> storageTypes = ImmutableList.copyOf(toStorageTypes(columnTypes));
-        Iterable<String> hiveTypeNames = storageTypes.stream().map(StorageType::getHiveTypeName).collect(toList());
-        List<String> columnNames = ImmutableList.copyOf(transform(columnIds, toStringFunction()));
-
-        Properties properties = new Properties();
-        properties.setProperty(META_TABLE_COLUMNS, Joiner.on(',').join(columnNames));
-        properties.setProperty(META_TABLE_COLUMN_TYPES, Joiner.on(':').join(hiveTypeNames));
-
-        serializer = createSerializer(CONFIGURATION, properties);
-        recordWriter = createRecordWriter(new Path(target.toURI()), CONFIGURATION);
+        // fail early for types that cannot be stored
+        columnTypes.forEach(OrcFileWriter::toStorageType);
+        List<String> columnNames = columnIds.stream().map(String::valueOf).collect(toList());
 
-        tableInspector = getStandardStructObjectInspector(columnNames, getJavaObjectInspectors(storageTypes));
-        structFields = ImmutableList.copyOf(tableInspector.getAllStructFieldRefs());
-        orcRow = tableInspector.create();
+        try {
+            orcWriter = new OrcWriter(new SyncingFileOutputStream(target), columnNames, columnTypes, SNAPPY);
+        }
+        catch (IOException e) {
+            throw new PrestoException(RAPTOR_ERROR, "Failed to create writer", e);
+        }
     }
 
     public void appendPages(List<Page> pages)
     {
         for (Page page : pages) {
-            for (int position = 0; position < page.getPositionCount(); position++) {
-                appendRow(extractRow(page, position, columnTypes));
-            }
+            appendPage(page);
         }
     }
 
     public void appendPages(List<Page> inputPages, int[] pageIndexes, int[] positionIndexes)
     {
         checkArgument(pageIndexes.length == positionIndexes.length, "pageIndexes and positionIndexes do not match");
+        PageBuilder pageBuilder = new PageBuilder(columnTypes);
         for (int i = 0; i < pageIndexes.length; i++) {
             Page page = inputPages.get(pageIndexes[i]);
-            appendRow(extractRow(page, positionIndexes[i], columnTypes));
+            pageBuilder.declarePosition();
+            for (int channel = 0; channel < columnTypes.size(); channel++) {
+                columnTypes.get(channel).appendTo(page.getBlock(channel), positionIndexes[i], pageBuilder.getBlockBuilder(channel));
+            }
+            if (pageBuilder.isFull()) {
+                appendPage(pageBuilder.build());
+                pageBuilder.reset();
+            }
+        }
+        if (!pageBuilder.isEmpty()) {
+            appendPage(pageBuilder.build());
         }
     }
 
-    public void appendRow(Row row)
+    private void appendPage(Page page)
     {
-        List<Object> columns = row.getColumns();
-        checkArgument(columns.size() == columnTypes.size());
-        for (int channel = 0; channel < columns.size(); channel++) {
-            tableInspector.setStructFieldData(orcRow, structFields.get(channel), columns.get(channel));
-        }
+        checkArgument(page.getChannelCount() == columnTypes.size(), "channelCount does not match");
         try {
-            recordWriter.write(serializer.serialize(orcRow, tableInspector));
+            orcWriter.write(page);
         }
         catch (IOException e) {
-            throw new PrestoException(RAPTOR_ERROR, "Failed to write record", e);
+            throw new PrestoException(RAPTOR_ERROR, "Failed to write data", e);
+        }
+        rowCount += page.getPositionCount();
+        for (int channel = 0; channel < columnTypes.size(); channel++) {
+            uncompressedSize += getUncompressedSize(columnTypes.get(channel), page.getBlock(channel));
         }
-        rowCount++;
-        uncompressedSize += row.getSizeInBytes();
     }
 
     @Override
     public void close()
     {
         try {
-            recordWriter.close(false);
+            orcWriter.close();
         }
         catch (IOException e) {
             throw new PrestoException(RAPTOR_ERROR, "Failed to close writer", e);
@@ -171,70 +136,31 @@ public class OrcFileWriter
         return uncompressedSize;
     }
 
-    private static OrcSerde createSerializer(Configuration conf, Properties properties)
-    {
-        OrcSerde serde = new OrcSerde();
-        serde.initialize(conf, properties);
-        return serde;
-    }
-
-    private static RecordWriter createRecordWriter(Path target, Configuration conf)
-    {
-        try (ThreadContextClassLoader ignored = new ThreadContextClassLoader(FileSystem.class.getClassLoader());
-                FileSystem fileSystem = new SyncingFileSystem(CONFIGURATION)) {
-            OrcFile.WriterOptions options = new OrcWriterOptions(conf)
-                    .memory(new NullMemoryManager(conf))
-                    .fileSystem(fileSystem)
-                    .compress(SNAPPY);
-
-            return WRITER_CONSTRUCTOR.newInstance(target, options);
-        }
-        catch (ReflectiveOperationException | IOException e) {
-            throw new PrestoException(RAPTOR_ERROR, "Failed to create writer", e);
-        }
-    }
-
-    private static Constructor<? extends RecordWriter> getOrcWriterConstructor()
-    {
-        try {
-            String writerClassName = OrcOutputFormat.class.getName() + "$OrcRecordWriter";
-            Constructor<? extends RecordWriter> constructor = OrcOutputFormat.class.getClassLoader()
-                    .loadClass(writerClassName).asSubclass(RecordWriter.class)
-                    .getDeclaredConstructor(Path.class, OrcFile.WriterOptions.class);
-            constructor.setAccessible(true);
-            return constructor;
-        }
-        catch (ReflectiveOperationException e) {
-            throw Throwables.propagate(e);
-        }
-    }
-
-    private static List<ObjectInspector> getJavaObjectInspectors(List<StorageType> types)
+    private static long getUncompressedSize(Type type, Block block)
     {
-        return types.stream()
-                .map(StorageType::getHiveTypeName)
-                .map(TypeInfoUtils::getTypeInfoFromTypeString)
-                .map(OrcFileWriter::getJavaObjectInspector)
-                .collect(toList());
-    }
-
-    private static ObjectInspector getJavaObjectInspector(TypeInfo typeInfo)
-    {
-        Category category = typeInfo.getCategory();
-        if (category == PRIMITIVE) {
-            return getPrimitiveJavaObjectInspector(getPrimitiveTypeInfo(typeInfo.getTypeName()));
-        }
-        if (category == LIST) {
-            ListTypeInfo listTypeInfo = (ListTypeInfo) typeInfo;
-            return getStandardListObjectInspector(getJavaObjectInspector(listTypeInfo.getListElementTypeInfo()));
-        }
-        if (category == MAP) {
-            MapTypeInfo mapTypeInfo = (MapTypeInfo) typeInfo;
-            return getStandardMapObjectInspector(
-                    getJavaObjectInspector(mapTypeInfo.getMapKeyTypeInfo()),
-                    getJavaObjectInspector(mapTypeInfo.getMapValueTypeInfo()));
+        Class<?> javaType = type.getJavaType();
+        long size = 0;
+        for (int position = 0; position < block.getPositionCount(); position++) {
+            if (block.isNull(position) || (javaType == boolean.class)) {
+                size += SIZE_OF_BYTE;
+            }
+            else if (javaType == long.class) {
+                size += SIZE_OF_LONG;
+            }
+            else if (javaType == double.class) {
+                size += SIZE_OF_DOUBLE;
+            }
+            else if (javaType == Slice.class) {
+                size += block.getLength(position);
+            }
+            else if (javaType == Block.class) {
+                size += ((Block) type.getObject(block, position)).getSizeInBytes();
+            }
+            else {
+                throw new AssertionError("Unimplemented type: " + type);
+            }
         }
-        throw new PrestoException(INTERNAL_ERROR, "Unhandled storage type: " + category);
+        return size;
     }
 
     private static <T> boolean isUnique(Collection<T> items)
@@ -242,11 +168,6 @@ public class OrcFileWriter
         return new HashSet<>(items).size() == items.size();
     }
 
-    private static List<StorageType> toStorageTypes(List<Type> columnTypes)
-    {
-        return columnTypes.stream().map(OrcFileWriter::toStorageType).collect(toList());
-    }
-
     private static StorageType toStorageType(Type type)
     {
         Class<?> javaType = type.getJavaType();
@@ -275,4 +196,27 @@ public class OrcFileWriter
         }
         throw new PrestoException(NOT_SUPPORTED, "No storage type for type: " + type);
     }
+
+    /**
+     * Shard files must be durable once the writer is closed, as they are
+     * committed to the metadata right after.
+     */
+    private static class SyncingFileOutputStream
+            extends FileOutputStream
+    {
+        public SyncingFileOutputStream(File file)
+                throws IOException
+        {
+            super(file);
+        }
+
+        @Override
+        public void close()
+                throws IOException
+        {
+            flush();
+            getFD().sync();
+            super.close();
+        }
+    }
 }
@@ -21,9 +21,9 @@ import com.facebook.presto.spi.UpdatablePageSource;
 import com.facebook.presto.spi.block.Block;
 import com.facebook.presto.spi.block.BlockBuilder;
 import com.facebook.presto.spi.block.BlockBuilderStatus;
-import com.facebook.presto.spi.block.DictionaryBlock;
 import com.facebook.presto.spi.block.LazyBlock;
 import com.facebook.presto.spi.block.LazyBlockLoader;
+import com.facebook.presto.spi.block.RunLengthEncodedBlock;
 import com.facebook.presto.spi.block.SliceArrayBlock;
 import com.facebook.presto.spi.type.Type;
 import com.google.common.collect.ImmutableList;
@@ -38,13 +38,11 @@ import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
-import static com.facebook.presto.orc.OrcReader.MAX_BATCH_SIZE;
 import static com.facebook.presto.raptor.RaptorErrorCode.RAPTOR_ERROR;
 import static com.facebook.presto.spi.type.BigintType.BIGINT;
 import static com.google.common.base.MoreObjects.toStringHelper;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
-import static io.airlift.slice.Slices.wrappedIntArray;
 import static java.lang.Math.max;
 import static java.lang.Math.min;
 import static java.util.Objects.requireNonNull;
@@ -153,14 +151,11 @@ public class OrcPageSource
             for (int fieldId = 0; fieldId < blocks.length; fieldId++) {
                 Type type = types.get(fieldId);
                 if (constantBlocks[fieldId] != null) {
-                    blocks[fieldId] = constantBlocks[fieldId].getRegion(0, batchSize);
+                    blocks[fieldId] = new RunLengthEncodedBlock(constantBlocks[fieldId], batchSize);
                 }
                 else if (columnIndexes[fieldId] == ROWID_COLUMN) {
                     blocks[fieldId] = buildSequenceBlock(filePosition, batchSize);
                 }
-                else if (columnIndexes[fieldId] == SHARD_UUID_COLUMN) {
-                    blocks[fieldId] = constantBlocks[fieldId].getRegion(0, batchSize);
-                }
                 else {
                     blocks[fieldId] = new LazyBlock(batchSize, new OrcBlockLoader(columnIndexes[fieldId], type));
                 }
@@ -242,17 +237,14 @@ public class OrcPageSource
 
     private static Block buildNullBlock(Type type)
     {
-        BlockBuilder blockBuilder = type.createBlockBuilder(new BlockBuilderStatus(), MAX_BATCH_SIZE, NULL_SIZE);
-        for (int i = 0; i < MAX_BATCH_SIZE; i++) {
-            blockBuilder.appendNull();
-        }
+        BlockBuilder blockBuilder = type.createBlockBuilder(new BlockBuilderStatus(), 1, NULL_SIZE);
+        blockBuilder.appendNull();
         return blockBuilder.build();
     }
 
     private static Block buildSingleValueBlock(Slice value)
     {
-        SliceArrayBlock dictionary = new SliceArrayBlock(1, new Slice[] { value });
-        return new DictionaryBlock(MAX_BATCH_SIZE, dictionary, wrappedIntArray(new int[MAX_BATCH_SIZE]));
+        return new SliceArrayBlock(1, new Slice[] { value });
     }
 
     private final class OrcBlockLoader
@@ -473,13 +473,6 @@ public class OrcStorageManager
             writer.appendPages(inputPages, pageIndexes, positionIndexes);
         }
 
-        @Override
-        public void appendRow(Row row)
-        {
-            createWriterIfNecessary();
-            writer.appendRow(row);
-        }
-
         @Override
         public boolean isFull()
         {
@@ -17,6 +17,7 @@ import com.facebook.presto.raptor.metadata.ColumnInfo;
 import com.facebook.presto.raptor.metadata.ShardInfo;
 import com.facebook.presto.spi.ConnectorPageSource;
 import com.facebook.presto.spi.Page;
+import com.facebook.presto.spi.PageBuilder;
 import com.facebook.presto.spi.TupleDomain;
 import com.facebook.presto.spi.block.Block;
 import com.facebook.presto.spi.block.SortOrder;
@@ -30,7 +31,6 @@ import org.weakref.jmx.Nested;
 
 import java.io.Closeable;
 import java.io.IOException;
-import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.PriorityQueue;
@@ -38,7 +38,6 @@ import java.util.Queue;
 import java.util.Set;
 import java.util.UUID;
 
-import static com.facebook.presto.raptor.storage.Row.extractRow;
 import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.Objects.requireNonNull;
 import static java.util.stream.Collectors.toList;
@@ -105,6 +104,7 @@ public final class ShardCompactor
 
         Queue<SortedRowSource> rowSources = new PriorityQueue<>();
         StoragePageSink outputPageSink = storageManager.createStoragePageSink(columnIds, columnTypes);
+        PageBuilder pageBuilder = new PageBuilder(columnTypes);
         try {
             for (UUID uuid : uuids) {
                 ConnectorPageSource pageSource = storageManager.getPageSource(uuid, columnIds, columnTypes, TupleDomain.all(), readerAttributes);
@@ -119,14 +119,22 @@ public final class ShardCompactor
                     continue;
                 }
 
-                outputPageSink.appendRow(rowSource.next());
+                rowSource.appendTo(pageBuilder);
 
-                if (outputPageSink.isFull()) {
-                    outputPageSink.flush();
+                if (pageBuilder.isFull()) {
+                    outputPageSink.appendPages(ImmutableList.of(pageBuilder.build()));
+                    pageBuilder.reset();
+
+                    if (outputPageSink.isFull()) {
+                        outputPageSink.flush();
+                    }
                 }
 
                 rowSources.add(rowSource);
             }
+            if (!pageBuilder.isEmpty()) {
+                outputPageSink.appendPages(ImmutableList.of(pageBuilder.build()));
+            }
             outputPageSink.flush();
             List<ShardInfo> shardInfos = outputPageSink.commit();
 
@@ -143,7 +151,7 @@ public final class ShardCompactor
     }
 
     private static class SortedRowSource
-            implements Iterator<Row>, Comparable<SortedRowSource>, Closeable
+            implements Comparable<SortedRowSource>, Closeable
     {
         private final ConnectorPageSource pageSource;
         private final List<Type> columnTypes;
@@ -164,7 +172,6 @@ public final class ShardCompactor
             currentPosition = 0;
         }
 
-        @Override
         public boolean hasNext()
         {
             if (hasMorePositions(currentPage, currentPosition)) {
@@ -193,16 +200,17 @@ public final class ShardCompactor
             return page;
         }
 
-        @Override
-        public Row next()
+        public void appendTo(PageBuilder pageBuilder)
         {
             if (!hasNext()) {
                 throw new NoSuchElementException();
             }
 
-            Row row = extractRow(currentPage, currentPosition, columnTypes);
+            pageBuilder.declarePosition();
+            for (int channel = 0; channel < columnTypes.size(); channel++) {
+                columnTypes.get(channel).appendTo(currentPage.getBlock(channel), currentPosition, pageBuilder.getBlockBuilder(channel));
+            }
             currentPosition++;
-            return row;
         }
 
         @Override
@@ -24,8 +24,6 @@ public interface StoragePageSink
 
     void appendPages(List<Page> pages, int[] pageIndexes, int[] positionIndexes);
 
-    void appendRow(Row row);
-
     boolean isFull();
 
     void flush();
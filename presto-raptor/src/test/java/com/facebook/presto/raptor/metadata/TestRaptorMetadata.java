@@ -24,9 +24,11 @@ import com.facebook.presto.spi.ConnectorMetadata;
 import com.facebook.presto.spi.ConnectorTableHandle;
 import com.facebook.presto.spi.ConnectorTableMetadata;
 import com.facebook.presto.spi.ConnectorViewDefinition;
+import com.facebook.presto.spi.Constraint;
 import com.facebook.presto.spi.PrestoException;
 import com.facebook.presto.spi.SchemaTableName;
 import com.facebook.presto.spi.SchemaTablePrefix;
+import com.facebook.presto.spi.statistics.Estimate;
 import com.facebook.presto.type.TypeRegistry;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
@@ -40,6 +42,8 @@ import org.testng.annotations.Test;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 import static com.facebook.presto.metadata.MetadataUtil.TableMetadataBuilder.tableMetadataBuilder;
@@ -53,6 +57,7 @@ import static io.airlift.json.JsonCodec.jsonCodec;
 import static io.airlift.testing.Assertions.assertEqualsIgnoreOrder;
 import static io.airlift.testing.Assertions.assertInstanceOf;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
 import static org.testng.Assert.assertNotNull;
 import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertTrue;
@@ -147,6 +152,38 @@ public class TestRaptorMetadata
         assertEquals(columnMetadata.getType(), BIGINT);
     }
 
+    @Test
+    public void testTableStatistics()
+    {
+        metadata.createTable(SESSION, getOrdersTable());
+        ConnectorTableHandle tableHandle = metadata.getTableHandle(SESSION, DEFAULT_TEST_ORDERS);
+        assertEquals(metadata.getTableStatistics(SESSION, tableHandle, Constraint.alwaysTrue()).getRowCount(), Estimate.of(0));
+
+        long tableId = ((RaptorTableHandle) tableHandle).getTableId();
+        List<ShardInfo> shards = ImmutableList.of(
+                new ShardInfo(UUID.randomUUID(), ImmutableSet.of("node1"), ImmutableList.of(), 3, 33, 333),
+                new ShardInfo(UUID.randomUUID(), ImmutableSet.of("node1"), ImmutableList.of(), 5, 55, 555));
+        new DatabaseShardManager(dbi).commitShards(tableId, ImmutableList.of(new ColumnInfo(1, BIGINT)), shards, Optional.empty());
+
+        assertEquals(metadata.getTableStatistics(SESSION, tableHandle, Constraint.alwaysTrue()).getRowCount(), Estimate.of(8));
+    }
+
+    @Test
+    public void testDataVersion()
+    {
+        metadata.createTable(SESSION, getOrdersTable());
+        ConnectorTableHandle tableHandle = metadata.getTableHandle(SESSION, DEFAULT_TEST_ORDERS);
+        Object emptyVersion = metadata.getDataVersion(SESSION, tableHandle, Optional.empty()).get();
+
+        long tableId = ((RaptorTableHandle) tableHandle).getTableId();
+        List<ShardInfo> shards = ImmutableList.of(new ShardInfo(UUID.randomUUID(), ImmutableSet.of("node1"), ImmutableList.of(), 3, 33, 333));
+        new DatabaseShardManager(dbi).commitShards(tableId, ImmutableList.of(new ColumnInfo(1, BIGINT)), shards, Optional.empty());
+
+        Object version = metadata.getDataVersion(SESSION, tableHandle, Optional.empty()).get();
+        assertNotEquals(version, emptyVersion);
+        assertEquals(metadata.getDataVersion(SESSION, tableHandle, Optional.empty()).get(), version);
+    }
+
     @Test
     public void testTableProperties()
             throws Exception
@@ -20,7 +20,6 @@ import com.facebook.presto.orc.OrcReader;
 import com.facebook.presto.orc.OrcRecordReader;
 import com.facebook.presto.orc.metadata.OrcMetadataReader;
 import com.facebook.presto.spi.type.Type;
-import com.google.common.collect.ImmutableMap;
 import io.airlift.units.DataSize;
 import org.joda.time.DateTimeZone;
 
@@ -64,16 +63,6 @@ final class OrcTestingUtil
         return createRecordReader(orcReader, includedColumns);
     }
 
-    public static OrcRecordReader createReaderNoRows(OrcDataSource dataSource)
-            throws IOException
-    {
-        OrcReader orcReader = new OrcReader(dataSource, new OrcMetadataReader());
-
-        assertEquals(orcReader.getColumnNames().size(), 0);
-
-        return createRecordReader(orcReader, ImmutableMap.of());
-    }
-
     public static OrcRecordReader createRecordReader(OrcReader orcReader, Map<Integer, Type> includedColumns)
             throws IOException
     {
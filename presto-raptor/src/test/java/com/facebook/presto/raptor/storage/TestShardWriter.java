@@ -30,7 +30,6 @@ import java.io.File;
 import java.util.List;
 
 import static com.facebook.presto.raptor.storage.OrcTestingUtil.createReader;
-import static com.facebook.presto.raptor.storage.OrcTestingUtil.createReaderNoRows;
 import static com.facebook.presto.raptor.storage.OrcTestingUtil.fileOrcDataSource;
 import static com.facebook.presto.raptor.storage.OrcTestingUtil.octets;
 import static com.facebook.presto.spi.type.BigintType.BIGINT;
@@ -179,7 +178,7 @@ public class TestShardWriter
         }
 
         try (OrcDataSource dataSource = fileOrcDataSource(file)) {
-            OrcRecordReader reader = createReaderNoRows(dataSource);
+            OrcRecordReader reader = createReader(dataSource, columnIds, columnTypes);
             assertEquals(reader.getReaderRowCount(), 0);
             assertEquals(reader.getReaderPosition(), 0);
 
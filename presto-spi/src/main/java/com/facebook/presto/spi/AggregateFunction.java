@@ -0,0 +1,81 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.spi;
+
+import com.facebook.presto.spi.type.Type;
+
+import java.util.Objects;
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * An aggregate offered to a connector for pushdown. The argument is absent
+ * for {@code count(*)}.
+ */
+public final class AggregateFunction
+{
+    private final String name;
+    private final Type outputType;
+    private final Optional<ColumnHandle> argument;
+
+    public AggregateFunction(String name, Type outputType, Optional<ColumnHandle> argument)
+    {
+        this.name = requireNonNull(name, "name is null");
+        this.outputType = requireNonNull(outputType, "outputType is null");
+        this.argument = requireNonNull(argument, "argument is null");
+    }
+
+    public String getName()
+    {
+        return name;
+    }
+
+    public Type getOutputType()
+    {
+        return outputType;
+    }
+
+    public Optional<ColumnHandle> getArgument()
+    {
+        return argument;
+    }
+
+    @Override
+    public boolean equals(Object obj)
+    {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        AggregateFunction other = (AggregateFunction) obj;
+        return Objects.equals(this.name, other.name) &&
+                Objects.equals(this.outputType, other.outputType) &&
+                Objects.equals(this.argument, other.argument);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(name, outputType, argument);
+    }
+
+    @Override
+    public String toString()
+    {
+        return name + "(" + argument.map(Object::toString).orElse("*") + ")";
+    }
+}
@@ -13,6 +13,7 @@
  */
 package com.facebook.presto.spi;
 
+import com.facebook.presto.spi.statistics.TableStatistics;
 import io.airlift.slice.Slice;
 
 import java.util.Collection;
@@ -57,6 +58,65 @@ public interface ConnectorMetadata
         throw new UnsupportedOperationException("not yet implemented");
     }
 
+    /**
+     * Returns statistics of the rows of the table that satisfy the given constraint.
+     * The statistics are only used for planning, so connectors that cannot provide
+     * them cheaply should return {@link TableStatistics#empty()}.
+     */
+    default TableStatistics getTableStatistics(ConnectorSession session, ConnectorTableHandle tableHandle, Constraint<ColumnHandle> constraint)
+    {
+        return TableStatistics.empty();
+    }
+
+    /**
+     * Returns an opaque version of the data of the table, or of the part of it selected by the
+     * layout, which must change whenever the data changes and must implement equals and hashCode.
+     * Returns {@link Optional#empty()} if the connector cannot tell when the data changes. The
+     * engine uses the version to decide whether cached query results are still valid.
+     */
+    default Optional<Object> getDataVersion(ConnectorSession session, ConnectorTableHandle tableHandle, Optional<ConnectorTableLayoutHandle> layoutHandle)
+    {
+        return Optional.empty();
+    }
+
+    /**
+     * Returns a handle for a scan of the table that only produces rows satisfying the
+     * constraint and at most {@code limit} rows from each split, or {@link Optional#empty()}
+     * if the connector cannot enforce both. The engine still applies the limit to the
+     * combined output of all splits.
+     */
+    default Optional<ConnectorTableHandle> applyLimit(ConnectorSession session, ConnectorTableHandle tableHandle, TupleDomain<ColumnHandle> constraint, long limit)
+    {
+        return Optional.empty();
+    }
+
+    /**
+     * Returns a handle for a scan of the table that only produces rows satisfying the
+     * constraint and, from each split, the first {@code count} rows in the specified
+     * order, or {@link Optional#empty()} if the connector cannot enforce them. The engine
+     * still sorts and limits the combined output of all splits.
+     */
+    default Optional<ConnectorTableHandle> applyTopN(ConnectorSession session, ConnectorTableHandle tableHandle, TupleDomain<ColumnHandle> constraint, List<SortingProperty<ColumnHandle>> orderBy, long count)
+    {
+        return Optional.empty();
+    }
+
+    /**
+     * Attempts to push a grouped aggregation of the rows satisfying the constraint into the
+     * scan of the table. The aggregation only has to be computed within each split, since
+     * the engine merges the partial results of all splits. Returns {@link Optional#empty()}
+     * if the connector cannot compute all of the aggregates.
+     */
+    default Optional<AggregationApplicationResult<ConnectorTableHandle>> applyAggregation(
+            ConnectorSession session,
+            ConnectorTableHandle tableHandle,
+            TupleDomain<ColumnHandle> constraint,
+            List<ColumnHandle> groupingColumns,
+            List<AggregateFunction> aggregates)
+    {
+        return Optional.empty();
+    }
+
     /**
      * Return the metadata for the specified table handle.
      *
@@ -15,10 +15,13 @@ package com.facebook.presto.spi;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 
 public interface ConnectorPageSource
         extends Closeable
 {
+    CompletableFuture<?> NOT_BLOCKED = CompletableFuture.completedFuture(null);
+
     /**
      * Gets the total input bytes that will be processed by this page source.
      * This is normally the same size as the split.  If size is not available,
@@ -38,6 +41,15 @@ public interface ConnectorPageSource
      */
     long getReadTimeNanos();
 
+    /**
+     * Gets the memory held by this page source that is not part of the pages
+     * it returns, such as data read ahead in the background.
+     */
+    default long getSystemMemoryUsage()
+    {
+        return 0;
+    }
+
     /**
      * Will this page source product more pages?
      */
@@ -48,6 +60,16 @@ public interface ConnectorPageSource
      */
     Page getNextPage();
 
+    /**
+     * Returns a future that completes when the next call to {@link #getNextPage()}
+     * can make progress without waiting for the underlying storage. This allows
+     * Presto to release the thread while data is read in the background.
+     */
+    default CompletableFuture<?> isBlocked()
+    {
+        return NOT_BLOCKED;
+    }
+
     /**
      * Immediately finishes this page source.  Presto will always call this method.
      */
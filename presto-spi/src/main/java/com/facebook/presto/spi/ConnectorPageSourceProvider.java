@@ -18,4 +18,14 @@ import java.util.List;
 public interface ConnectorPageSourceProvider
 {
     ConnectorPageSource createPageSource(ConnectorSession session, ConnectorSplit split, List<ColumnHandle> columns);
+
+    /**
+     * Creates a page source for the split, given a filter derived at execution time
+     * (e.g. from the build side of a join). The filter is only a hint: the engine
+     * does not rely on the connector to remove rows that do not match it.
+     */
+    default ConnectorPageSource createPageSource(ConnectorSession session, ConnectorSplit split, List<ColumnHandle> columns, TupleDomain<ColumnHandle> dynamicFilter)
+    {
+        return createPageSource(session, split, columns);
+    }
 }
@@ -14,6 +14,7 @@
 package com.facebook.presto.spi;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface ConnectorSplit
 {
@@ -21,5 +22,15 @@ public interface ConnectorSplit
 
     List<HostAddress> getAddresses();
 
+    /**
+     * Returns the node that should run this split, for example because it caches the data
+     * of the split. Unlike the addresses, this is not a hint among other candidates: a remotely
+     * accessible split is only assigned elsewhere when the node is unavailable or full.
+     */
+    default Optional<HostAddress> getPreferredNode()
+    {
+        return Optional.empty();
+    }
+
     Object getInfo();
 }
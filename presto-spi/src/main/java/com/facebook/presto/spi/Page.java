@@ -99,6 +99,20 @@ public class Page
         return new Page(length, slicedBlocks);
     }
 
+    /**
+     * Returns a page containing the {@code length} positions listed in
+     * {@code positions} starting at {@code offset}.
+     */
+    public Page copyPositions(int[] positions, int offset, int length)
+    {
+        int channelCount = getChannelCount();
+        Block[] copiedBlocks = new Block[channelCount];
+        for (int i = 0; i < channelCount; i++) {
+            copiedBlocks[i] = blocks[i].copyPositions(positions, offset, length);
+        }
+        return new Page(length, copiedBlocks);
+    }
+
     /**
      * Assures that all data for the block is in memory.
      *
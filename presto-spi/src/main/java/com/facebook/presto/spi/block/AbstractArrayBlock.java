@@ -17,9 +17,6 @@ import io.airlift.slice.DynamicSliceOutput;
 import io.airlift.slice.Slice;
 import io.airlift.slice.Slices;
 
-import java.util.ArrayList;
-import java.util.List;
-
 public abstract class AbstractArrayBlock
         implements Block
 {
@@ -43,13 +40,23 @@ public abstract class AbstractArrayBlock
     }
 
     @Override
-    public Block copyPositions(List<Integer> positions)
+    public Block copyPositions(int[] positions, int offset, int length)
     {
-        DynamicSliceOutput newOffsets = new DynamicSliceOutput(positions.size() * Integer.BYTES);
-        DynamicSliceOutput newValueIsNull = new DynamicSliceOutput(positions.size());
-        List<Integer> valuesPositions = new ArrayList<>();
+        DynamicSliceOutput newOffsets = new DynamicSliceOutput(length * Integer.BYTES);
+        DynamicSliceOutput newValueIsNull = new DynamicSliceOutput(length);
+
+        int valuesLength = 0;
+        for (int i = offset; i < offset + length; i++) {
+            int position = positions[i];
+            if (!isNull(position)) {
+                valuesLength += getOffset(position + 1) - getOffset(position);
+            }
+        }
+
+        int[] valuesPositions = new int[valuesLength];
         int countNewOffset = 0;
-        for (int position : positions) {
+        for (int i = offset; i < offset + length; i++) {
+            int position = positions[i];
             if (isNull(position)) {
                 newValueIsNull.appendByte(1);
                 newOffsets.appendInt(countNewOffset);
@@ -58,14 +65,14 @@ public abstract class AbstractArrayBlock
                 newValueIsNull.appendByte(0);
                 int positionStartOffset = getOffset(position);
                 int positionEndOffset = getOffset(position + 1);
-                countNewOffset += positionEndOffset - positionStartOffset;
-                newOffsets.appendInt(countNewOffset);
                 for (int j = positionStartOffset; j < positionEndOffset; j++) {
-                    valuesPositions.add(j);
+                    valuesPositions[countNewOffset] = j;
+                    countNewOffset++;
                 }
+                newOffsets.appendInt(countNewOffset);
             }
         }
-        Block newValues = getValues().copyPositions(valuesPositions);
+        Block newValues = getValues().copyPositions(valuesPositions, 0, valuesLength);
         return new ArrayBlock(newValues, newOffsets.slice(), 0, newValueIsNull.slice());
     }
 
@@ -15,8 +15,6 @@ package com.facebook.presto.spi.block;
 
 import io.airlift.slice.Slice;
 
-import java.util.List;
-
 public abstract class AbstractArrayElementBlock
         implements Block
 {
@@ -174,7 +172,7 @@ public abstract class AbstractArrayElementBlock
     }
 
     @Override
-    public Block copyPositions(List<Integer> positions)
+    public Block copyPositions(int[] positions, int offset, int length)
     {
         throw new UnsupportedOperationException();
     }
@@ -15,9 +15,6 @@ package com.facebook.presto.spi.block;
 
 import io.airlift.slice.Slice;
 
-import java.util.ArrayList;
-import java.util.List;
-
 public abstract class AbstractInterleavedBlock
         implements Block
 {
@@ -209,28 +206,24 @@ public abstract class AbstractInterleavedBlock
     }
 
     @Override
-    public Block copyPositions(List<Integer> positions)
+    public Block copyPositions(int[] positions, int offset, int length)
     {
-        if (positions.size() % columns != 0) {
-            throw new IllegalArgumentException("Positions.size (" + positions.size() + ") is not evenly dividable by columns (" + columns + ")");
+        if (length % columns != 0) {
+            throw new IllegalArgumentException("Positions.size (" + length + ") is not evenly dividable by columns (" + columns + ")");
         }
-        int positionsPerColumn = positions.size() / columns;
+        int positionsPerColumn = length / columns;
 
-        List<List<Integer>> valuePositions = new ArrayList<>(columns);
-        for (int i = 0; i < columns; i++) {
-            valuePositions.add(new ArrayList<>(positionsPerColumn));
-        }
-        int ordinal = 0;
-        for (int position : positions) {
+        int[][] valuePositions = new int[columns][positionsPerColumn];
+        for (int ordinal = 0; ordinal < length; ordinal++) {
+            int position = positions[offset + ordinal];
             if (ordinal % columns != position % columns) {
                 throw new IllegalArgumentException("Position (" + position + ") is not congruent to ordinal (" + ordinal + ") modulo columns (" + columns + ")");
             }
-            valuePositions.get(position % columns).add(position / columns);
-            ordinal++;
+            valuePositions[position % columns][ordinal / columns] = position / columns;
         }
         Block[] blocks = new Block[columns];
         for (int i = 0; i < columns; i++) {
-            blocks[i] = getBlock(i).copyPositions(valuePositions.get(i));
+            blocks[i] = getBlock(i).copyPositions(valuePositions[i], 0, positionsPerColumn);
         }
         return new InterleavedBlock(blocks);
     }
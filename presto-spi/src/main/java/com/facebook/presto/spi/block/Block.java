@@ -141,13 +141,32 @@ public interface Block
      */
     BlockEncoding getEncoding();
 
+    /**
+     * Returns a block containing the {@code length} positions listed in
+     * {@code positions} starting at {@code offset}, in that order.
+     * All specified positions must be valid for this block.
+     *
+     * The returned block must be a compact representation of the original block.
+     */
+    Block copyPositions(int[] positions, int offset, int length);
+
     /**
      * Returns a block containing the specified positions.
      * All specified positions must be valid for this block.
      *
      * The returned block must be a compact representation of the original block.
+     *
+     * @deprecated use {@link #copyPositions(int[], int, int)}, which does not box the positions
      */
-    Block copyPositions(List<Integer> positions);
+    @Deprecated
+    default Block copyPositions(List<Integer> positions)
+    {
+        int[] positionsArray = new int[positions.size()];
+        for (int i = 0; i < positionsArray.length; i++) {
+            positionsArray[i] = positions.get(i);
+        }
+        return copyPositions(positionsArray, 0, positionsArray.length);
+    }
 
     /**
      * Returns a block starting at the specified position and extends for the
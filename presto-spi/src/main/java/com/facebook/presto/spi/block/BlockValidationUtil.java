@@ -13,22 +13,21 @@
  */
 package com.facebook.presto.spi.block;
 
-import java.util.List;
-import java.util.Set;
-
-import static java.util.stream.Collectors.toSet;
-
 final class BlockValidationUtil
 {
     private BlockValidationUtil()
     {
     }
 
-    static void checkValidPositions(List<Integer> positions, int positionCount)
+    static void checkValidPositions(int[] positions, int offset, int length, int positionCount)
     {
-        Set<Integer> invalidPositions = positions.stream().filter(position -> position >= positionCount).collect(toSet());
-        if (!invalidPositions.isEmpty()) {
-            throw new IllegalArgumentException("Invalid positions " + invalidPositions + " in block with " + positionCount + " positions");
+        if (offset < 0 || length < 0 || offset + length > positions.length) {
+            throw new IndexOutOfBoundsException("Invalid offset " + offset + " and length " + length + " in array with " + positions.length + " positions");
+        }
+        for (int i = offset; i < offset + length; i++) {
+            if (positions[i] < 0 || positions[i] >= positionCount) {
+                throw new IllegalArgumentException("Invalid position " + positions[i] + " in block with " + positionCount + " positions");
+            }
         }
     }
 }
@@ -15,16 +15,13 @@ package com.facebook.presto.spi.block;
 
 import io.airlift.slice.Slice;
 
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.List;
 
 import static com.facebook.presto.spi.block.BlockValidationUtil.checkValidPositions;
 import static io.airlift.slice.SizeOf.SIZE_OF_INT;
 import static io.airlift.slice.Slices.copyOf;
 import static io.airlift.slice.Slices.wrappedIntArray;
 import static java.util.Objects.requireNonNull;
-import static java.util.stream.Collectors.toList;
 
 public class DictionaryBlock
         implements Block
@@ -57,103 +54,103 @@ public class DictionaryBlock
     @Override
     public int getLength(int position)
     {
-        return dictionary.getLength(getIndex(position));
+        return dictionary.getLength(getId(position));
     }
 
     @Override
     public byte getByte(int position, int offset)
     {
-        return dictionary.getByte(getIndex(position), offset);
+        return dictionary.getByte(getId(position), offset);
     }
 
     @Override
     public short getShort(int position, int offset)
     {
-        return dictionary.getShort(getIndex(position), offset);
+        return dictionary.getShort(getId(position), offset);
     }
 
     @Override
     public int getInt(int position, int offset)
     {
-        return dictionary.getInt(getIndex(position), offset);
+        return dictionary.getInt(getId(position), offset);
     }
 
     @Override
     public long getLong(int position, int offset)
     {
-        return dictionary.getLong(getIndex(position), offset);
+        return dictionary.getLong(getId(position), offset);
     }
 
     @Override
     public float getFloat(int position, int offset)
     {
-        return dictionary.getFloat(getIndex(position), offset);
+        return dictionary.getFloat(getId(position), offset);
     }
 
     @Override
     public double getDouble(int position, int offset)
     {
-        return dictionary.getDouble(getIndex(position), offset);
+        return dictionary.getDouble(getId(position), offset);
     }
 
     @Override
     public Slice getSlice(int position, int offset, int length)
     {
-        return dictionary.getSlice(getIndex(position), offset, length);
+        return dictionary.getSlice(getId(position), offset, length);
     }
 
     @Override
     public <T> T getObject(int position, Class<T> clazz)
     {
-        return dictionary.getObject(getIndex(position), clazz);
+        return dictionary.getObject(getId(position), clazz);
     }
 
     @Override
     public boolean bytesEqual(int position, int offset, Slice otherSlice, int otherOffset, int length)
     {
-        return dictionary.bytesEqual(getIndex(position), offset, otherSlice, otherOffset, length);
+        return dictionary.bytesEqual(getId(position), offset, otherSlice, otherOffset, length);
     }
 
     @Override
     public int bytesCompare(int position, int offset, int length, Slice otherSlice, int otherOffset, int otherLength)
     {
-        return dictionary.bytesCompare(getIndex(position), offset, length, otherSlice, otherOffset, otherLength);
+        return dictionary.bytesCompare(getId(position), offset, length, otherSlice, otherOffset, otherLength);
     }
 
     @Override
     public void writeBytesTo(int position, int offset, int length, BlockBuilder blockBuilder)
     {
-        dictionary.writeBytesTo(getIndex(position), offset, length, blockBuilder);
+        dictionary.writeBytesTo(getId(position), offset, length, blockBuilder);
     }
 
     @Override
     public void writePositionTo(int position, BlockBuilder blockBuilder)
     {
-        dictionary.writePositionTo(getIndex(position), blockBuilder);
+        dictionary.writePositionTo(getId(position), blockBuilder);
     }
 
     @Override
     public boolean equals(int position, int offset, Block otherBlock, int otherPosition, int otherOffset, int length)
     {
-        return dictionary.equals(getIndex(position), offset, otherBlock, otherPosition, otherOffset, length);
+        return dictionary.equals(getId(position), offset, otherBlock, otherPosition, otherOffset, length);
     }
 
     @Override
     public int hash(int position, int offset, int length)
     {
-        return dictionary.hash(getIndex(position), offset, length);
+        return dictionary.hash(getId(position), offset, length);
     }
 
     @Override
     public int compareTo(int leftPosition, int leftOffset, int leftLength, Block rightBlock, int rightPosition, int rightOffset, int rightLength)
     {
-        return dictionary.compareTo(getIndex(leftPosition), leftOffset, leftLength, rightBlock, rightPosition, rightOffset, rightLength);
+        return dictionary.compareTo(getId(leftPosition), leftOffset, leftLength, rightBlock, rightPosition, rightOffset, rightLength);
     }
 
     @Override
     public Block getSingleValueBlock(int position)
     {
-        return dictionary.getSingleValueBlock(getIndex(position));
+        return dictionary.getSingleValueBlock(getId(position));
     }
 
     @Override
@@ -181,22 +178,28 @@ public class DictionaryBlock
     }
 
     @Override
-    public Block copyPositions(List<Integer> positions)
+    public Block copyPositions(int[] positions, int offset, int length)
     {
-        checkValidPositions(positions, positionCount);
+        checkValidPositions(positions, offset, length, positionCount);
 
-        List<Integer> distinctPositions = positions.stream().distinct().collect(toList());
-        List<Integer> currentDictionaryIndexes = distinctPositions.stream().map(this::getIndex).collect(toList());
-
-        List<Integer> positionsToCopy = currentDictionaryIndexes.stream().distinct().collect(toList());
-        Block dictionaryBlock = dictionary.copyPositions(positionsToCopy);
-
-        int[] newIds = new int[positions.size()];
-        for (int i = 0; i < positions.size(); i++) {
-            int oldIndex = currentDictionaryIndexes.get(distinctPositions.indexOf(positions.get(i)));
-            newIds[i] = positionsToCopy.indexOf(oldIndex);
+        // the referenced dictionary entries are copied once, in order of first reference
+        int[] remapIndex = new int[dictionary.getPositionCount()];
+        Arrays.fill(remapIndex, -1);
+        int[] dictionaryPositionsToCopy = new int[Math.min(length, remapIndex.length)];
+        int dictionaryLength = 0;
+
+        int[] newIds = new int[length];
+        for (int i = 0; i < length; i++) {
+            int oldIndex = getId(positions[offset + i]);
+            if (remapIndex[oldIndex] == -1) {
+                remapIndex[oldIndex] = dictionaryLength;
+                dictionaryPositionsToCopy[dictionaryLength] = oldIndex;
+                dictionaryLength++;
+            }
+            newIds[i] = remapIndex[oldIndex];
         }
-        return new DictionaryBlock(positions.size(), dictionaryBlock, wrappedIntArray(newIds));
+        Block dictionaryBlock = dictionary.copyPositions(dictionaryPositionsToCopy, 0, dictionaryLength);
+        return new DictionaryBlock(length, dictionaryBlock, wrappedIntArray(newIds));
     }
 
     @Override
@@ -222,7 +225,7 @@ public class DictionaryBlock
     @Override
     public boolean isNull(int position)
     {
-        return dictionary.isNull(getIndex(position));
+        return dictionary.isNull(getId(position));
     }
 
     @Override
@@ -240,7 +243,7 @@ public class DictionaryBlock
         return ids;
     }
 
-    private int getIndex(int position)
+    public int getId(int position)
     {
         return ids.getInt(position * SIZE_OF_INT);
     }
@@ -250,37 +253,37 @@ public class DictionaryBlock
         int dictionarySize = dictionary.getPositionCount();
         boolean[] isReferenced = new boolean[dictionarySize];
         for (int i = 0; i < this.positionCount; i++) {
-            isReferenced[getIndex(i)] = true;
+            isReferenced[getId(i)] = true;
         }
 
-        List<Integer> dictionaryPositionsToCopy = new ArrayList<>(dictionarySize);
+        int[] dictionaryPositionsToCopy = new int[dictionarySize];
         int[] remapIndex = new int[dictionarySize];
         Arrays.fill(remapIndex, -1);
         int newIndex = 0;
 
         for (int i = 0; i < dictionarySize; i++) {
             if (isReferenced[i]) {
-                dictionaryPositionsToCopy.add(i);
+                dictionaryPositionsToCopy[newIndex] = i;
                 remapIndex[i] = newIndex;
                 newIndex++;
             }
         }
 
         // entire dictionary is referenced
-        if (dictionaryPositionsToCopy.size() == dictionarySize) {
+        if (newIndex == dictionarySize) {
             return this;
         }
 
         int[] newIds = new int[positionCount];
         for (int i = 0; i < positionCount; i++) {
-            int newId = remapIndex[getIndex(i)];
+            int newId = remapIndex[getId(i)];
             if (newId == -1) {
                 throw new IllegalStateException("reference to a non-existent key");
             }
             newIds[i] = newId;
         }
         try {
-            Block compactDictionary = dictionary.copyPositions(dictionaryPositionsToCopy);
+            Block compactDictionary = dictionary.copyPositions(dictionaryPositionsToCopy, 0, newIndex);
             return new DictionaryBlock(positionCount, compactDictionary, wrappedIntArray(newIds));
         }
         catch (UnsupportedOperationException e) {
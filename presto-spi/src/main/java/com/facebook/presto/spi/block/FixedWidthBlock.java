@@ -18,7 +18,6 @@ import io.airlift.slice.Slice;
 import io.airlift.slice.SliceOutput;
 import io.airlift.slice.Slices;
 
-import java.util.List;
 import java.util.Objects;
 
 import static com.facebook.presto.spi.block.BlockValidationUtil.checkValidPositions;
@@ -86,18 +85,19 @@ public class FixedWidthBlock
     }
 
     @Override
-    public Block copyPositions(List<Integer> positions)
+    public Block copyPositions(int[] positions, int offset, int length)
     {
-        checkValidPositions(positions, positionCount);
+        checkValidPositions(positions, offset, length, positionCount);
 
-        SliceOutput newSlice = new DynamicSliceOutput(positions.size() * fixedSize);
-        SliceOutput newValueIsNull = new DynamicSliceOutput(positions.size());
+        SliceOutput newSlice = new DynamicSliceOutput(length * fixedSize);
+        SliceOutput newValueIsNull = new DynamicSliceOutput(length);
 
-        for (int position : positions) {
+        for (int i = offset; i < offset + length; i++) {
+            int position = positions[i];
             newValueIsNull.appendByte(valueIsNull.getByte(position));
-            newSlice.appendBytes(getRawSlice().getBytes(position * fixedSize, fixedSize));
+            newSlice.writeBytes(getRawSlice(), position * fixedSize, fixedSize);
         }
-        return new FixedWidthBlock(fixedSize, positions.size(), newSlice.slice(), newValueIsNull.slice());
+        return new FixedWidthBlock(fixedSize, length, newSlice.slice(), newValueIsNull.slice());
     }
 
     @Override
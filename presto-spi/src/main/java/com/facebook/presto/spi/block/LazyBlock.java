@@ -15,8 +15,6 @@ package com.facebook.presto.spi.block;
 
 import io.airlift.slice.Slice;
 
-import java.util.List;
-
 import static java.util.Objects.requireNonNull;
 
 public class LazyBlock
@@ -196,10 +194,10 @@ public class LazyBlock
     }
 
     @Override
-    public Block copyPositions(List<Integer> positions)
+    public Block copyPositions(int[] positions, int offset, int length)
     {
         assureLoaded();
-        return block.copyPositions(positions);
+        return block.copyPositions(positions, offset, length);
     }
 
     @Override
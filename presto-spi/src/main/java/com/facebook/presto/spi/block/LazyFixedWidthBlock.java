@@ -20,7 +20,6 @@ import io.airlift.slice.SliceOutput;
 import io.airlift.slice.Slices;
 
 import java.util.Arrays;
-import java.util.List;
 
 import static com.facebook.presto.spi.block.BlockValidationUtil.checkValidPositions;
 import static io.airlift.slice.Slices.wrappedBooleanArray;
@@ -93,19 +92,21 @@ public class LazyFixedWidthBlock
     }
 
     @Override
-    public Block copyPositions(List<Integer> positions)
+    public Block copyPositions(int[] positions, int offset, int length)
     {
-        checkValidPositions(positions, positionCount);
+        checkValidPositions(positions, offset, length, positionCount);
 
         assureLoaded();
-        SliceOutput newSlice = new DynamicSliceOutput(positions.size() * fixedSize);
-        SliceOutput newValueIsNull = new DynamicSliceOutput(positions.size());
 
-        for (int position : positions) {
+        SliceOutput newSlice = new DynamicSliceOutput(length * fixedSize);
+        SliceOutput newValueIsNull = new DynamicSliceOutput(length);
+
+        for (int i = offset; i < offset + length; i++) {
+            int position = positions[i];
             newValueIsNull.appendByte(valueIsNull[position] ? 1 : 0);
-            newSlice.appendBytes(getRawSlice().getBytes(position * fixedSize, fixedSize));
+            newSlice.writeBytes(getRawSlice(), position * fixedSize, fixedSize);
         }
-        return new FixedWidthBlock(fixedSize, positions.size(), newSlice.slice(), newValueIsNull.slice());
+        return new FixedWidthBlock(fixedSize, length, newSlice.slice(), newValueIsNull.slice());
     }
 
     @Override
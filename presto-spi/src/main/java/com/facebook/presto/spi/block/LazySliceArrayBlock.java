@@ -16,7 +16,6 @@ package com.facebook.presto.spi.block;
 import io.airlift.slice.Slice;
 
 import java.util.Arrays;
-import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.IntStream;
 
@@ -29,7 +28,6 @@ import static io.airlift.slice.Slices.copyOf;
 import static io.airlift.slice.Slices.wrappedIntArray;
 import static java.lang.String.format;
 import static java.util.Objects.requireNonNull;
-import static java.util.stream.Collectors.toList;
 
 public class LazySliceArrayBlock
         extends AbstractVariableWidthBlock
@@ -59,22 +57,23 @@ public class LazySliceArrayBlock
     }
 
     @Override
-    public Block copyPositions(List<Integer> positions)
+    public Block copyPositions(int[] positions, int offset, int length)
     {
-        checkValidPositions(positions, positionCount);
+        checkValidPositions(positions, offset, length, positionCount);
         assureLoaded();
 
         if (dictionary) {
-            return compactAndGet(positions, false);
+            return compactAndGet(positions, offset, length, false);
         }
 
-        Slice[] newValues = new Slice[positions.size()];
-        for (int i = 0; i < positions.size(); i++) {
-            if (!isEntryNull(positions.get(i))) {
-                newValues[i] = copyOf(values[positions.get(i)]);
+        Slice[] newValues = new Slice[length];
+        for (int i = 0; i < length; i++) {
+            int position = positions[offset + i];
+            if (!isEntryNull(position)) {
+                newValues[i] = copyOf(values[position]);
             }
         }
-        return new SliceArrayBlock(positions.size(), newValues);
+        return new SliceArrayBlock(length, newValues);
     }
 
     @Override
@@ -147,8 +146,7 @@ public class LazySliceArrayBlock
         assureLoaded();
 
         if (dictionary) {
-            List<Integer> positions = IntStream.range(positionOffset, positionOffset + length).boxed().collect(toList());
-            return compactAndGet(positions, false);
+            return compactAndGet(IntStream.range(positionOffset, positionOffset + length).toArray(), 0, length, false);
         }
         Slice[] newValues = Arrays.copyOfRange(values, positionOffset, positionOffset + length);
         return new SliceArrayBlock(length, newValues);
@@ -165,8 +163,7 @@ public class LazySliceArrayBlock
         assureLoaded();
 
         if (dictionary) {
-            List<Integer> positions = IntStream.range(positionOffset, positionOffset + length).boxed().collect(toList());
-            return compactAndGet(positions, true);
+            return compactAndGet(IntStream.range(positionOffset, positionOffset + length).toArray(), 0, length, true);
         }
         return new SliceArrayBlock(length, deepCopyAndCompact(values, positionOffset, length));
     }
@@ -196,17 +193,17 @@ public class LazySliceArrayBlock
         return sb.toString();
     }
 
-    private Block compactAndGet(List<Integer> positions, boolean copy)
+    private Block compactAndGet(int[] positions, int offset, int length, boolean copy)
     {
-        int[] newIds = new int[positions.size()];
+        int[] newIds = new int[length];
         boolean hasNull = false;
 
         int[] newDictionaryIndexes = new int[values.length];
         Arrays.fill(newDictionaryIndexes, -1);
 
         int nextIndex = 0;
-        for (int i = 0; i < positions.size(); i++) {
-            int position = positions.get(i);
+        for (int i = 0; i < length; i++) {
+            int position = positions[offset + i];
             if (isEntryNull(position)) {
                 hasNull = true;
                 newIds[i] = -1;
@@ -244,7 +241,7 @@ public class LazySliceArrayBlock
                 }
             }
         }
-        return new DictionaryBlock(positions.size(), new SliceArrayBlock(newValues.length, newValues), wrappedIntArray(newIds));
+        return new DictionaryBlock(length, new SliceArrayBlock(newValues.length, newValues), wrappedIntArray(newIds));
     }
 
     private int getPosition(int position)
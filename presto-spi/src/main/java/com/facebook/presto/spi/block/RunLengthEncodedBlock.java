@@ -11,19 +11,18 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-package com.facebook.presto.testing;
+package com.facebook.presto.spi.block;
 
-import com.facebook.presto.spi.block.Block;
-import com.facebook.presto.spi.block.BlockBuilder;
 import io.airlift.slice.Slice;
 
-import java.util.List;
-
-import static com.google.common.base.MoreObjects.toStringHelper;
-import static com.google.common.base.Preconditions.checkArgument;
-import static com.google.common.base.Preconditions.checkPositionIndexes;
+import static com.facebook.presto.spi.block.BlockValidationUtil.checkValidPositions;
 import static java.util.Objects.requireNonNull;
 
+/**
+ * A block in which every position holds the same value. The value is stored
+ * once as a single position block, so operators can evaluate expressions
+ * over it once instead of once per position.
+ */
 public class RunLengthEncodedBlock
         implements Block
 {
@@ -32,13 +31,22 @@ public class RunLengthEncodedBlock
 
     public RunLengthEncodedBlock(Block value, int positionCount)
     {
-        this.value = requireNonNull(value, "value is null");
-        checkArgument(value.getPositionCount() == 1, "Expected value to contain a single position but has %s positions", value.getPositionCount());
-
-        // value can not be a RunLengthEncodedBlock because this could cause stack overflow in some of the methods
-        checkArgument(!(value instanceof RunLengthEncodedBlock), "Value can not be an instance of a %s", getClass().getName());
-
-        checkArgument(positionCount >= 0, "positionCount is negative");
+        requireNonNull(value, "value is null");
+        if (value.getPositionCount() != 1) {
+            throw new IllegalArgumentException("Expected value to contain a single position but has " + value.getPositionCount() + " positions");
+        }
+
+        if (positionCount < 0) {
+            throw new IllegalArgumentException("positionCount is negative");
+        }
+
+        // do not hold on to a view over a larger block
+        if (value instanceof RunLengthEncodedBlock) {
+            this.value = ((RunLengthEncodedBlock) value).getValue();
+        }
+        else {
+            this.value = value;
+        }
         this.positionCount = positionCount;
     }
 
@@ -66,124 +74,141 @@ public class RunLengthEncodedBlock
     }
 
     @Override
-    public RunLengthBlockEncoding getEncoding()
+    public BlockEncoding getEncoding()
     {
-        return new RunLengthBlockEncoding(value.getEncoding());
+        return new RunLengthEncodedBlockEncoding(value.getEncoding());
     }
 
     @Override
-    public Block copyPositions(List<Integer> positions)
+    public Block copyPositions(int[] positions, int offset, int length)
     {
-        return new RunLengthEncodedBlock(value.copyRegion(0, 1), positions.size());
+        checkValidPositions(positions, offset, length, positionCount);
+        return new RunLengthEncodedBlock(value.copyRegion(0, 1), length);
     }
 
     @Override
     public Block getRegion(int positionOffset, int length)
     {
-        checkPositionIndexes(positionOffset, positionOffset + length, positionCount);
+        checkValidRegion(positionOffset, length);
         return new RunLengthEncodedBlock(value, length);
     }
 
     @Override
     public Block copyRegion(int positionOffset, int length)
     {
-        checkPositionIndexes(positionOffset, positionOffset + length, positionCount);
+        checkValidRegion(positionOffset, length);
         return new RunLengthEncodedBlock(value.copyRegion(0, 1), length);
     }
 
     @Override
     public int getLength(int position)
     {
+        checkReadablePosition(position);
         return value.getLength(0);
     }
 
     @Override
     public byte getByte(int position, int offset)
     {
+        checkReadablePosition(position);
         return value.getByte(0, offset);
     }
 
     @Override
     public short getShort(int position, int offset)
     {
+        checkReadablePosition(position);
         return value.getShort(0, offset);
     }
 
     @Override
     public int getInt(int position, int offset)
     {
+        checkReadablePosition(position);
         return value.getInt(0, offset);
     }
 
     @Override
     public long getLong(int position, int offset)
     {
+        checkReadablePosition(position);
         return value.getLong(0, offset);
     }
 
     @Override
     public float getFloat(int position, int offset)
     {
+        checkReadablePosition(position);
         return value.getFloat(0, offset);
     }
 
     @Override
     public double getDouble(int position, int offset)
     {
+        checkReadablePosition(position);
         return value.getDouble(0, offset);
     }
 
     @Override
     public Slice getSlice(int position, int offset, int length)
     {
+        checkReadablePosition(position);
         return value.getSlice(0, offset, length);
     }
 
     @Override
     public <T> T getObject(int position, Class<T> clazz)
     {
+        checkReadablePosition(position);
         return value.getObject(0, clazz);
     }
 
     @Override
     public boolean bytesEqual(int position, int offset, Slice otherSlice, int otherOffset, int length)
     {
+        checkReadablePosition(position);
         return value.bytesEqual(0, offset, otherSlice, otherOffset, length);
     }
 
     @Override
     public int bytesCompare(int position, int offset, int length, Slice otherSlice, int otherOffset, int otherLength)
     {
+        checkReadablePosition(position);
         return value.bytesCompare(0, offset, length, otherSlice, otherOffset, otherLength);
     }
 
     @Override
     public void writeBytesTo(int position, int offset, int length, BlockBuilder blockBuilder)
     {
+        checkReadablePosition(position);
         value.writeBytesTo(0, offset, length, blockBuilder);
     }
 
     @Override
     public void writePositionTo(int position, BlockBuilder blockBuilder)
     {
-        value.writePositionTo(position, blockBuilder);
+        checkReadablePosition(position);
+        value.writePositionTo(0, blockBuilder);
     }
 
     @Override
     public boolean equals(int position, int offset, Block otherBlock, int otherPosition, int otherOffset, int length)
     {
+        checkReadablePosition(position);
         return value.equals(0, offset, otherBlock, otherPosition, otherOffset, length);
     }
 
     @Override
     public int hash(int position, int offset, int length)
     {
+        checkReadablePosition(position);
         return value.hash(0, offset, length);
     }
 
     @Override
     public int compareTo(int leftPosition, int leftOffset, int leftLength, Block rightBlock, int rightPosition, int rightOffset, int rightLength)
     {
+        checkReadablePosition(leftPosition);
         return value.compareTo(0, leftOffset, leftLength, rightBlock, rightPosition, rightOffset, rightLength);
     }
 
@@ -202,22 +227,32 @@ public class RunLengthEncodedBlock
     }
 
     @Override
-    public String toString()
+    public void assureLoaded()
     {
-        return toStringHelper(this)
-                .add("value", value)
-                .add("positionCount", positionCount)
-                .toString();
+        value.assureLoaded();
     }
 
     @Override
-    public void assureLoaded()
+    public String toString()
     {
-        value.assureLoaded();
+        StringBuilder sb = new StringBuilder("RunLengthEncodedBlock{");
+        sb.append("positionCount=").append(positionCount);
+        sb.append(", value=").append(value);
+        sb.append('}');
+        return sb.toString();
     }
 
     private void checkReadablePosition(int position)
     {
-        checkArgument(position >= 0 && position < positionCount, "position is not valid");
+        if (position < 0 || position >= positionCount) {
+            throw new IllegalArgumentException("position is not valid");
+        }
+    }
+
+    private void checkValidRegion(int positionOffset, int length)
+    {
+        if (positionOffset < 0 || length < 0 || positionOffset + length > positionCount) {
+            throw new IndexOutOfBoundsException("Invalid position " + positionOffset + " in block with " + positionCount + " positions");
+        }
     }
 }
@@ -11,29 +11,25 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-package com.facebook.presto.testing;
+package com.facebook.presto.spi.block;
 
-import com.facebook.presto.spi.block.Block;
-import com.facebook.presto.spi.block.BlockEncoding;
-import com.facebook.presto.spi.block.BlockEncodingFactory;
-import com.facebook.presto.spi.block.BlockEncodingSerde;
 import com.facebook.presto.spi.type.TypeManager;
 import io.airlift.slice.SliceInput;
 import io.airlift.slice.SliceOutput;
 
+import static io.airlift.slice.SizeOf.SIZE_OF_INT;
 import static java.util.Objects.requireNonNull;
 
-public class RunLengthBlockEncoding
+public class RunLengthEncodedBlockEncoding
         implements BlockEncoding
 {
-    public static final BlockEncodingFactory<RunLengthBlockEncoding> FACTORY = new RunLengthBlockEncodingFactory();
+    public static final BlockEncodingFactory<RunLengthEncodedBlockEncoding> FACTORY = new RunLengthEncodedBlockEncodingFactory();
     private static final String NAME = "RLE";
+    private final BlockEncoding valueEncoding;
 
-    private final BlockEncoding valueBlockEncoding;
-
-    public RunLengthBlockEncoding(BlockEncoding valueBlockEncoding)
+    public RunLengthEncodedBlockEncoding(BlockEncoding valueEncoding)
     {
-        this.valueBlockEncoding = requireNonNull(valueBlockEncoding, "valueBlockEncoding is null");
+        this.valueEncoding = requireNonNull(valueEncoding, "valueEncoding is null");
     }
 
     @Override
@@ -42,41 +38,36 @@ public class RunLengthBlockEncoding
         return NAME;
     }
 
-    public BlockEncoding getValueBlockEncoding()
-    {
-        return valueBlockEncoding;
-    }
-
     @Override
     public void writeBlock(SliceOutput sliceOutput, Block block)
     {
+        // The down casts here are safe because it is the block itself the provides this encoding implementation.
         RunLengthEncodedBlock rleBlock = (RunLengthEncodedBlock) block;
 
-        // write the run length
-        sliceOutput.writeInt(rleBlock.getPositionCount());
+        // positionCount
+        sliceOutput.appendInt(rleBlock.getPositionCount());
 
-        // write the value
-        getValueBlockEncoding().writeBlock(sliceOutput, rleBlock.getValue());
+        // value
+        valueEncoding.writeBlock(sliceOutput, rleBlock.getValue());
     }
 
     @Override
-    public int getEstimatedSize(Block block)
+    public Block readBlock(SliceInput sliceInput)
     {
-        RunLengthEncodedBlock rleBlock = (RunLengthEncodedBlock) block;
+        // positionCount
+        int positionCount = sliceInput.readInt();
 
-        return 4 + getValueBlockEncoding().getEstimatedSize(rleBlock.getValue());
+        // value
+        Block value = valueEncoding.readBlock(sliceInput);
+
+        return new RunLengthEncodedBlock(value, positionCount);
     }
 
     @Override
-    public RunLengthEncodedBlock readBlock(SliceInput sliceInput)
+    public int getEstimatedSize(Block block)
     {
-        // read the run length
-        int positionCount = sliceInput.readInt();
-
-        // read the value
-        Block value = getValueBlockEncoding().readBlock(sliceInput);
-
-        return new RunLengthEncodedBlock(value, positionCount);
+        RunLengthEncodedBlock rleBlock = (RunLengthEncodedBlock) block;
+        return SIZE_OF_INT + valueEncoding.getEstimatedSize(rleBlock.getValue());
     }
 
     @Override
@@ -85,8 +76,13 @@ public class RunLengthBlockEncoding
         return FACTORY;
     }
 
-    private static class RunLengthBlockEncodingFactory
-            implements BlockEncodingFactory<RunLengthBlockEncoding>
+    public BlockEncoding getValueEncoding()
+    {
+        return valueEncoding;
+    }
+
+    public static class RunLengthEncodedBlockEncodingFactory
+            implements BlockEncodingFactory<RunLengthEncodedBlockEncoding>
     {
         @Override
         public String getName()
@@ -95,16 +91,16 @@ public class RunLengthBlockEncoding
         }
 
         @Override
-        public RunLengthBlockEncoding readEncoding(TypeManager manager, BlockEncodingSerde serde, SliceInput input)
+        public RunLengthEncodedBlockEncoding readEncoding(TypeManager manager, BlockEncodingSerde serde, SliceInput input)
         {
-            BlockEncoding valueBlockEncoding = serde.readBlockEncoding(input);
-            return new RunLengthBlockEncoding(valueBlockEncoding);
+            BlockEncoding valueEncoding = serde.readBlockEncoding(input);
+            return new RunLengthEncodedBlockEncoding(valueEncoding);
         }
 
         @Override
-        public void writeEncoding(BlockEncodingSerde serde, SliceOutput output, RunLengthBlockEncoding blockEncoding)
+        public void writeEncoding(BlockEncodingSerde serde, SliceOutput output, RunLengthEncodedBlockEncoding blockEncoding)
         {
-            serde.writeBlockEncoding(output, blockEncoding.getValueBlockEncoding());
+            serde.writeBlockEncoding(output, blockEncoding.getValueEncoding());
         }
     }
 }
@@ -19,7 +19,6 @@ import io.airlift.slice.Slices;
 
 import java.util.Arrays;
 import java.util.IdentityHashMap;
-import java.util.List;
 import java.util.Map;
 
 import static com.facebook.presto.spi.block.BlockValidationUtil.checkValidPositions;
@@ -82,17 +81,18 @@ public class SliceArrayBlock
     }
 
     @Override
-    public Block copyPositions(List<Integer> positions)
+    public Block copyPositions(int[] positions, int offset, int length)
     {
-        checkValidPositions(positions, positionCount);
+        checkValidPositions(positions, offset, length, positionCount);
 
-        Slice[] newValues = new Slice[positions.size()];
-        for (int i = 0; i < positions.size(); i++) {
-            if (!isEntryNull(positions.get(i))) {
-                newValues[i] = Slices.copyOf(values[positions.get(i)]);
+        Slice[] newValues = new Slice[length];
+        for (int i = 0; i < length; i++) {
+            int position = positions[offset + i];
+            if (!isEntryNull(position)) {
+                newValues[i] = Slices.copyOf(values[position]);
             }
         }
-        return new SliceArrayBlock(positions.size(), newValues);
+        return new SliceArrayBlock(length, newValues);
     }
 
     @Override
@@ -18,7 +18,6 @@ import io.airlift.slice.Slice;
 import io.airlift.slice.SliceOutput;
 import io.airlift.slice.Slices;
 
-import java.util.List;
 import java.util.Objects;
 
 import static com.facebook.presto.spi.block.BlockValidationUtil.checkValidPositions;
@@ -107,25 +106,29 @@ public class VariableWidthBlockBuilder
     }
 
     @Override
-    public Block copyPositions(List<Integer> positions)
+    public Block copyPositions(int[] positions, int offset, int length)
     {
-        checkValidPositions(positions, this.positions);
+        checkValidPositions(positions, offset, length, this.positions);
 
-        int finalLength = positions.stream().mapToInt(this::getLength).sum();
+        int finalLength = 0;
+        for (int i = offset; i < offset + length; i++) {
+            finalLength += getLength(positions[i]);
+        }
         SliceOutput newSlice = new DynamicSliceOutput(finalLength);
-        SliceOutput newOffsets = new DynamicSliceOutput(positions.size() * SIZE_OF_INT);
-        SliceOutput newValueIsNull = new DynamicSliceOutput(positions.size());
+        SliceOutput newOffsets = new DynamicSliceOutput((length + 1) * SIZE_OF_INT);
+        SliceOutput newValueIsNull = new DynamicSliceOutput(length);
 
         newOffsets.appendInt(0);
-        for (int position : positions) {
+        for (int i = offset; i < offset + length; i++) {
+            int position = positions[i];
             boolean isNull = isEntryNull(position);
             newValueIsNull.appendByte(isNull ? 1 : 0);
             if (!isNull) {
-                newSlice.appendBytes(sliceOutput.getUnderlyingSlice().getBytes(getPositionOffset(position), getLength(position)));
+                newSlice.writeBytes(sliceOutput.getUnderlyingSlice(), getPositionOffset(position), getLength(position));
             }
             newOffsets.appendInt(newSlice.size());
         }
-        return new VariableWidthBlock(positions.size(), newSlice.slice(), newOffsets.slice(), newValueIsNull.slice());
+        return new VariableWidthBlock(length, newSlice.slice(), newOffsets.slice(), newValueIsNull.slice());
     }
 
     @Override
@@ -13,6 +13,8 @@
  */
 package com.facebook.presto.spi.classloader;
 
+import com.facebook.presto.spi.AggregateFunction;
+import com.facebook.presto.spi.AggregationApplicationResult;
 import com.facebook.presto.spi.ColumnHandle;
 import com.facebook.presto.spi.ColumnMetadata;
 import com.facebook.presto.spi.ConnectorInsertTableHandle;
@@ -28,6 +30,9 @@ import com.facebook.presto.spi.ConnectorViewDefinition;
 import com.facebook.presto.spi.Constraint;
 import com.facebook.presto.spi.SchemaTableName;
 import com.facebook.presto.spi.SchemaTablePrefix;
+import com.facebook.presto.spi.SortingProperty;
+import com.facebook.presto.spi.TupleDomain;
+import com.facebook.presto.spi.statistics.TableStatistics;
 import io.airlift.slice.Slice;
 
 import java.util.Collection;
@@ -70,6 +75,51 @@ public class ClassLoaderSafeConnectorMetadata
         }
     }
 
+    @Override
+    public TableStatistics getTableStatistics(ConnectorSession session, ConnectorTableHandle tableHandle, Constraint<ColumnHandle> constraint)
+    {
+        try (ThreadContextClassLoader ignored = new ThreadContextClassLoader(classLoader)) {
+            return delegate.getTableStatistics(session, tableHandle, constraint);
+        }
+    }
+
+    @Override
+    public Optional<Object> getDataVersion(ConnectorSession session, ConnectorTableHandle tableHandle, Optional<ConnectorTableLayoutHandle> layoutHandle)
+    {
+        try (ThreadContextClassLoader ignored = new ThreadContextClassLoader(classLoader)) {
+            return delegate.getDataVersion(session, tableHandle, layoutHandle);
+        }
+    }
+
+    @Override
+    public Optional<ConnectorTableHandle> applyLimit(ConnectorSession session, ConnectorTableHandle tableHandle, TupleDomain<ColumnHandle> constraint, long limit)
+    {
+        try (ThreadContextClassLoader ignored = new ThreadContextClassLoader(classLoader)) {
+            return delegate.applyLimit(session, tableHandle, constraint, limit);
+        }
+    }
+
+    @Override
+    public Optional<ConnectorTableHandle> applyTopN(ConnectorSession session, ConnectorTableHandle tableHandle, TupleDomain<ColumnHandle> constraint, List<SortingProperty<ColumnHandle>> orderBy, long count)
+    {
+        try (ThreadContextClassLoader ignored = new ThreadContextClassLoader(classLoader)) {
+            return delegate.applyTopN(session, tableHandle, constraint, orderBy, count);
+        }
+    }
+
+    @Override
+    public Optional<AggregationApplicationResult<ConnectorTableHandle>> applyAggregation(
+            ConnectorSession session,
+            ConnectorTableHandle tableHandle,
+            TupleDomain<ColumnHandle> constraint,
+            List<ColumnHandle> groupingColumns,
+            List<AggregateFunction> aggregates)
+    {
+        try (ThreadContextClassLoader ignored = new ThreadContextClassLoader(classLoader)) {
+            return delegate.applyAggregation(session, tableHandle, constraint, groupingColumns, aggregates);
+        }
+    }
+
     @Override
     public List<String> listSchemaNames(ConnectorSession session)
     {
@@ -0,0 +1,90 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.spi.statistics;
+
+import java.util.Optional;
+
+import static com.facebook.presto.spi.statistics.Estimate.unknownValue;
+import static java.util.Objects.requireNonNull;
+
+public final class ColumnStatistics
+{
+    private static final ColumnStatistics UNKNOWN = new ColumnStatistics(unknownValue(), unknownValue());
+
+    private final Estimate nullsFraction;
+    private final Estimate distinctValuesCount;
+    private final Optional<Comparable<?>> min;
+    private final Optional<Comparable<?>> max;
+
+    public static ColumnStatistics unknown()
+    {
+        return UNKNOWN;
+    }
+
+    public ColumnStatistics(Estimate nullsFraction, Estimate distinctValuesCount)
+    {
+        this(nullsFraction, distinctValuesCount, Optional.empty(), Optional.empty());
+    }
+
+    /**
+     * @param min smallest non-null value of the column, in the same representation as the values of a {@link com.facebook.presto.spi.Domain}
+     * @param max largest non-null value of the column, in the same representation as the values of a {@link com.facebook.presto.spi.Domain}
+     */
+    public ColumnStatistics(Estimate nullsFraction, Estimate distinctValuesCount, Optional<Comparable<?>> min, Optional<Comparable<?>> max)
+    {
+        this.nullsFraction = requireNonNull(nullsFraction, "nullsFraction is null");
+        this.distinctValuesCount = requireNonNull(distinctValuesCount, "distinctValuesCount is null");
+        this.min = requireNonNull(min, "min is null");
+        this.max = requireNonNull(max, "max is null");
+        if (!nullsFraction.isValueUnknown() && nullsFraction.getValue() > 1) {
+            throw new IllegalArgumentException("nullsFraction must be between 0 and 1");
+        }
+    }
+
+    /**
+     * Fraction of the rows in which the column is null.
+     */
+    public Estimate getNullsFraction()
+    {
+        return nullsFraction;
+    }
+
+    /**
+     * Number of distinct non-null values of the column.
+     */
+    public Estimate getDistinctValuesCount()
+    {
+        return distinctValuesCount;
+    }
+
+    public Optional<Comparable<?>> getMin()
+    {
+        return min;
+    }
+
+    public Optional<Comparable<?>> getMax()
+    {
+        return max;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "ColumnStatistics{nullsFraction=" + nullsFraction +
+                ", distinctValuesCount=" + distinctValuesCount +
+                ", min=" + min +
+                ", max=" + max +
+                "}";
+    }
+}
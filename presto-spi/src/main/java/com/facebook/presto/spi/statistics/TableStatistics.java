@@ -0,0 +1,65 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.spi.statistics;
+
+import com.facebook.presto.spi.ColumnHandle;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static com.facebook.presto.spi.statistics.Estimate.unknownValue;
+import static java.util.Collections.emptyMap;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Statistics of the rows of a table that satisfy the constraint passed to
+ * {@link com.facebook.presto.spi.ConnectorMetadata#getTableStatistics}. Columns
+ * without statistics are absent from {@link #getColumnStatistics()}.
+ */
+public final class TableStatistics
+{
+    private static final TableStatistics EMPTY = new TableStatistics(unknownValue(), emptyMap());
+
+    private final Estimate rowCount;
+    private final Map<ColumnHandle, ColumnStatistics> columnStatistics;
+
+    public static TableStatistics empty()
+    {
+        return EMPTY;
+    }
+
+    public TableStatistics(Estimate rowCount, Map<ColumnHandle, ColumnStatistics> columnStatistics)
+    {
+        this.rowCount = requireNonNull(rowCount, "rowCount is null");
+        requireNonNull(columnStatistics, "columnStatistics is null");
+        this.columnStatistics = Collections.unmodifiableMap(new LinkedHashMap<>(columnStatistics));
+    }
+
+    public Estimate getRowCount()
+    {
+        return rowCount;
+    }
+
+    public Map<ColumnHandle, ColumnStatistics> getColumnStatistics()
+    {
+        return columnStatistics;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "TableStatistics{rowCount=" + rowCount + ", columnStatistics=" + columnStatistics + "}";
+    }
+}
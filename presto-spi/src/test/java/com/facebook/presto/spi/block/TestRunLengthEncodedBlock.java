@@ -0,0 +1,114 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.spi.block;
+
+import io.airlift.slice.DynamicSliceOutput;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+public class TestRunLengthEncodedBlock
+{
+    @Test
+    public void testPositions()
+    {
+        Block block = new RunLengthEncodedBlock(createValue(42), 10);
+
+        assertEquals(block.getPositionCount(), 10);
+        for (int position = 0; position < 10; position++) {
+            assertFalse(block.isNull(position));
+            assertEquals(BIGINT.getLong(block, position), 42);
+        }
+    }
+
+    @Test
+    public void testNullValue()
+    {
+        BlockBuilder blockBuilder = VARCHAR.createBlockBuilder(new BlockBuilderStatus(), 1);
+        blockBuilder.appendNull();
+        Block block = new RunLengthEncodedBlock(blockBuilder.build(), 5);
+
+        for (int position = 0; position < 5; position++) {
+            assertTrue(block.isNull(position));
+        }
+    }
+
+    @Test
+    public void testRegionAndCopy()
+    {
+        Block block = new RunLengthEncodedBlock(createValue(7), 100);
+
+        assertRunLengthEncoded(block.getRegion(10, 20), 20, 7);
+        assertRunLengthEncoded(block.copyRegion(90, 10), 10, 7);
+        assertRunLengthEncoded(block.copyPositions(new int[] {1, 3, 5}, 0, 3), 3, 7);
+        assertRunLengthEncoded(block.copyPositions(Arrays.asList(1, 3, 5)), 3, 7);
+
+        Block value = block.getSingleValueBlock(50);
+        assertEquals(value.getPositionCount(), 1);
+        assertEquals(BIGINT.getLong(value, 0), 7);
+    }
+
+    @Test
+    public void testNestedValueIsUnwrapped()
+    {
+        RunLengthEncodedBlock inner = new RunLengthEncodedBlock(createValue(3), 1);
+        RunLengthEncodedBlock outer = new RunLengthEncodedBlock(inner, 8);
+        assertSame(outer.getValue(), inner.getValue());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testRejectsMultiPositionValue()
+    {
+        BlockBuilder blockBuilder = BIGINT.createBlockBuilder(new BlockBuilderStatus(), 2);
+        BIGINT.writeLong(blockBuilder, 1);
+        BIGINT.writeLong(blockBuilder, 2);
+        new RunLengthEncodedBlock(blockBuilder.build(), 10);
+    }
+
+    @Test
+    public void testRoundTrip()
+    {
+        RunLengthEncodedBlock block = new RunLengthEncodedBlock(createValue(123), 1000);
+        BlockEncoding blockEncoding = block.getEncoding();
+
+        DynamicSliceOutput sliceOutput = new DynamicSliceOutput(1024);
+        blockEncoding.writeBlock(sliceOutput, block);
+        Block actualBlock = blockEncoding.readBlock(sliceOutput.slice().getInput());
+
+        assertRunLengthEncoded(actualBlock, 1000, 123);
+    }
+
+    private static Block createValue(long value)
+    {
+        BlockBuilder blockBuilder = BIGINT.createBlockBuilder(new BlockBuilderStatus(), 1);
+        BIGINT.writeLong(blockBuilder, value);
+        return blockBuilder.build();
+    }
+
+    private static void assertRunLengthEncoded(Block block, int positionCount, long value)
+    {
+        assertTrue(block instanceof RunLengthEncodedBlock);
+        assertEquals(block.getPositionCount(), positionCount);
+        for (int position = 0; position < positionCount; position++) {
+            assertEquals(BIGINT.getLong(block, position), value);
+        }
+    }
+}